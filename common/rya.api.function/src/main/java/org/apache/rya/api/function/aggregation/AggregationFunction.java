@@ -38,4 +38,15 @@ public interface AggregationFunction {
      * @param childBindingSet - The Binding Set whose values will be used to update the state.
      */
     public void update(AggregationElement aggregation, AggregationState state, VisibilityBindingSet childBindingSet);
+
+    /**
+     * Combines the result another {@link AggregationState} holds for an aggregation into a state. The two
+     * states must have been updated with different child Binding Sets for the same Group By values.
+     *
+     * @param aggregation - Defines which function needs to be performed as well as any details required
+     *   to do the aggregation work. (not null)
+     * @param state - The state that will be updated. (not null)
+     * @param other - The state whose result is combined into {@code state}. It is not modified. (not null)
+     */
+    public void merge(AggregationElement aggregation, AggregationState state, AggregationState other);
 }
\ No newline at end of file
@@ -97,4 +97,30 @@ public final class AverageFunction implements AggregationFunction {
             }
         }
     }
+
+    @Override
+    public void merge(final AggregationElement aggregation, final AggregationState state, final AggregationState other) {
+        checkArgument(aggregation.getAggregationType() == AggregationType.AVERAGE, "The AverageFunction only accepts AVERAGE AggregationElements.");
+        requireNonNull(state);
+        requireNonNull(other);
+
+        // Only update the average if the other state has averaged something.
+        final String resultName = aggregation.getResultBindingName();
+        final AverageState otherAverageState = other.getAverageStates().get(resultName);
+        if(otherAverageState != null) {
+            final Map<String, AverageState> averageStates = state.getAverageStates();
+            final AverageState averageState = averageStates.getOrDefault(resultName, new AverageState());
+
+            // Combine the sums and counts, then recompute the average from them.
+            final BigDecimal sum = averageState.getSum().add( otherAverageState.getSum() );
+            final BigInteger count = averageState.getCount().add( otherAverageState.getCount() );
+            try {
+                final Literal average = MathUtil.compute(VF.createLiteral(sum), VF.createLiteral(count), MathOp.DIVIDE);
+                state.getBindingSet().addBinding(resultName, average);
+                averageStates.put(resultName, new AverageState(sum, count));
+            } catch (final ValueExprEvaluationException e) {
+                log.error("A problem was encountered while merging an Average Aggregation. The other state's average will be ignored: " + otherAverageState);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -25,6 +25,7 @@ import java.math.BigInteger;
 
 import org.apache.rya.api.model.VisibilityBindingSet;
 import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.query.impl.MapBindingSet;
@@ -64,4 +65,25 @@ public final class CountFunction implements AggregationFunction {
             }
         }
     }
+
+    @Override
+    public void merge(final AggregationElement aggregation, final AggregationState state, final AggregationState other) {
+        checkArgument(aggregation.getAggregationType() == AggregationType.COUNT, "The CountFunction only accepts COUNT AggregationElements.");
+        requireNonNull(state);
+        requireNonNull(other);
+
+        // Only add to the count if the other state has counted something.
+        final String resultName = aggregation.getResultBindingName();
+        final Value otherCount = other.getBindingSet().getValue(resultName);
+        if(otherCount != null) {
+            final MapBindingSet result = state.getBindingSet();
+            if(!result.hasBinding(resultName)) {
+                result.addBinding(resultName, otherCount);
+            } else {
+                final Literal count = (Literal) result.getValue(resultName);
+                final BigInteger mergedCount = count.integerValue().add( ((Literal) otherCount).integerValue() );
+                result.addBinding(resultName, VF.createLiteral(mergedCount));
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -63,4 +63,22 @@ public final class MaxFunction implements AggregationFunction {
             result.addBinding(resultName, max);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void merge(final AggregationElement aggregation, final AggregationState state, final AggregationState other) {
+        checkArgument(aggregation.getAggregationType() == AggregationType.MAX, "The MaxFunction only accepts MAX AggregationElements.");
+        requireNonNull(state);
+        requireNonNull(other);
+
+        // Only update the max if the other state has found one.
+        final String resultName = aggregation.getResultBindingName();
+        final Value otherMax = other.getBindingSet().getValue(resultName);
+        if(otherMax != null) {
+            final MapBindingSet result = state.getBindingSet();
+            final Value oldMax = result.getValue(resultName);
+            if(oldMax == null || compare.compare(otherMax, oldMax) > 0) {
+                result.addBinding(resultName, otherMax);
+            }
+        }
+    }
+}
@@ -63,4 +63,22 @@ public final class MinFunction implements AggregationFunction {
             result.addBinding(resultName, min);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void merge(final AggregationElement aggregation, final AggregationState state, final AggregationState other) {
+        checkArgument(aggregation.getAggregationType() == AggregationType.MIN, "The MinFunction only accepts MIN AggregationElements.");
+        requireNonNull(state);
+        requireNonNull(other);
+
+        // Only update the min if the other state has found one.
+        final String resultName = aggregation.getResultBindingName();
+        final Value otherMin = other.getBindingSet().getValue(resultName);
+        if(otherMin != null) {
+            final MapBindingSet result = state.getBindingSet();
+            final Value oldMin = result.getValue(resultName);
+            if(oldMin == null || compare.compare(otherMin, oldMin) < 0) {
+                result.addBinding(resultName, otherMin);
+            }
+        }
+    }
+}
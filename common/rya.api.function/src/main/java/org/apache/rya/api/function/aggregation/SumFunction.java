@@ -87,4 +87,28 @@ public final class SumFunction implements AggregationFunction {
             result.addBinding(resultName, sum);
         }
     }
+
+    @Override
+    public void merge(final AggregationElement aggregation, final AggregationState state, final AggregationState other) {
+        checkArgument(aggregation.getAggregationType() == AggregationType.SUM, "The SumFunction only accepts SUM AggregationElements.");
+        requireNonNull(state);
+        requireNonNull(other);
+
+        // Only add to the sum if the other state has summed something.
+        final String resultName = aggregation.getResultBindingName();
+        final Value otherSum = other.getBindingSet().getValue(resultName);
+        if(otherSum != null) {
+            final MapBindingSet result = state.getBindingSet();
+            if(!result.hasBinding(resultName)) {
+                result.addBinding(resultName, otherSum);
+            } else {
+                try {
+                    final Literal sum = (Literal) result.getValue(resultName);
+                    result.addBinding(resultName, MathUtil.compute(sum, (Literal) otherSum, MathOp.PLUS));
+                } catch (final ValueExprEvaluationException e) {
+                    log.error("A problem was encountered while merging a Sum Aggregation. The other state's sum will be ignored: " + otherSum);
+                }
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.model.visibility;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Simplifies and unions visibility expressions, remembering the results.
+ * <p>
+ * Joins and aggregations union the visibilities of every pair of binding sets they combine, but most
+ * workloads only have a handful of distinct labels. So this keeps up to a fixed number of the expressions it
+ * has simplified and of the pairs it has unioned. Every expression it returns is interned, so the binding
+ * sets that share a label also share the label's {@link String}, and unioning them again is a cache hit.
+ * <p>
+ * One instance is shared by {@link VisibilitySimplifier}'s static methods, and may be shared by any number
+ * of threads.
+ */
+@DefaultAnnotation(NonNull.class)
+public class MemoizedVisibilitySimplifier {
+
+    /**
+     * The maximum number of simplified expressions, and of unioned pairs, that the shared instance keeps.
+     */
+    public static final long DEFAULT_MAX_SIZE = 10_000;
+
+    private static final MemoizedVisibilitySimplifier SHARED = new MemoizedVisibilitySimplifier(DEFAULT_MAX_SIZE);
+
+    private final Interner<String> labels = Interners.newWeakInterner();
+    private final Cache<String, String> simplified;
+    private final Cache<UnionKey, String> unions;
+
+    /**
+     * Constructs an instance of {@link MemoizedVisibilitySimplifier}.
+     *
+     * @param maxSize - The maximum number of simplified expressions, and of unioned pairs, that are kept. (&gt; 0)
+     */
+    public MemoizedVisibilitySimplifier(final long maxSize) {
+        checkArgument(maxSize > 0, "maxSize must be greater than 0");
+        simplified = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+        unions = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+    }
+
+    /**
+     * @return The instance that is shared by {@link VisibilitySimplifier}.
+     */
+    public static MemoizedVisibilitySimplifier getSharedInstance() {
+        return SHARED;
+    }
+
+    /**
+     * Unions two visibility equations and then simplifies the result.
+     *
+     * @param vis1 - The first visibility equation that will be unioned. (not null)
+     * @param vis2 - The other visibility equation that will be unioned. (not null)
+     * @return A simplified form of the unioned visibility equations.
+     */
+    public String unionAndSimplify(final String vis1, final String vis2) {
+        requireNonNull(vis1);
+        requireNonNull(vis2);
+
+        if(vis1.isEmpty()) {
+            return vis2;
+        }
+
+        if(vis2.isEmpty()) {
+            return vis1;
+        }
+
+        final UnionKey key = new UnionKey(vis1, vis2);
+        String union = unions.getIfPresent(key);
+        if(union == null) {
+            union = labels.intern( flatten("(" + vis1 + ")&(" + vis2 + ")") );
+            unions.put(key, union);
+        }
+        return union;
+    }
+
+    /**
+     * Simplifies an Accumulo visibility expression.
+     *
+     * @param visibility - The expression to simplify. (not null)
+     * @return A simplified form of {@code visibility}.
+     */
+    public String simplify(final String visibility) {
+        requireNonNull(visibility);
+
+        String result = simplified.getIfPresent(visibility);
+        if(result == null) {
+            result = labels.intern( flatten(visibility) );
+            simplified.put(visibility, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return The hit and miss counts of the simplified expressions.
+     */
+    public CacheStats getSimplifyStats() {
+        return simplified.stats();
+    }
+
+    /**
+     * @return The hit and miss counts of the unioned pairs.
+     */
+    public CacheStats getUnionStats() {
+        return unions.stats();
+    }
+
+    /**
+     * Discards every remembered result.
+     */
+    public void invalidate() {
+        simplified.invalidateAll();
+        unions.invalidateAll();
+    }
+
+    /**
+     * Flattens an expression until flattening it again does not change it.
+     */
+    private static String flatten(final String visibility) {
+        String last = visibility;
+        String simplified = new String(new ColumnVisibility(visibility).flatten(), Charsets.UTF_8);
+
+        while(!simplified.equals(last)) {
+            last = simplified;
+            simplified = new String(new ColumnVisibility(simplified).flatten(), Charsets.UTF_8);
+        }
+
+        return simplified;
+    }
+
+    /**
+     * The ordered pair of expressions that were unioned.
+     */
+    private static final class UnionKey {
+        private final String vis1;
+        private final String vis2;
+        private final int hashCode;
+
+        UnionKey(final String vis1, final String vis2) {
+            this.vis1 = vis1;
+            this.vis2 = vis2;
+            this.hashCode = 31 * vis1.hashCode() + vis2.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(o instanceof UnionKey) {
+                final UnionKey other = (UnionKey) o;
+                return hashCode == other.hashCode && vis1.equals(other.vis1) && vis2.equals(other.vis2);
+            }
+            return false;
+        }
+    }
+}
@@ -18,10 +18,6 @@
  */
 package org.apache.rya.api.model.visibility;
 
-import static java.util.Objects.requireNonNull;
-
-import com.google.common.base.Charsets;
-
 import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -41,6 +37,8 @@ import edu.umd.cs.findbugs.annotations.NonNull;
  *     <artifactId>accumulo.rya</artifactId>
  *     <version>3.2.12-incubating-SNAPSHOT</version>
  *   </dependancy>
+ *
+ * The results are remembered by the shared {@link MemoizedVisibilitySimplifier}.
  */
 @DefaultAnnotation(NonNull.class)
 public class VisibilitySimplifier {
@@ -53,18 +51,7 @@ public class VisibilitySimplifier {
      * @return A simplified form of the unioned visibility equations.
      */
     public static String unionAndSimplify(final String vis1, final String vis2) {
-        requireNonNull(vis1);
-        requireNonNull(vis2);
-
-        if(vis1.isEmpty()) {
-            return vis2;
-        }
-
-        if(vis2.isEmpty()) {
-            return vis1;
-        }
-
-        return simplify("(" + vis1 + ")&(" + vis2 + ")");
+        return MemoizedVisibilitySimplifier.getSharedInstance().unionAndSimplify(vis1, vis2);
     }
 
     /**
@@ -74,16 +61,6 @@ public class VisibilitySimplifier {
      * @return A simplified form of {@code visibility}.
      */
     public static String simplify(final String visibility) {
-        requireNonNull(visibility);
-
-        String last = visibility;
-        String simplified = new String(new ColumnVisibility(visibility).flatten(), Charsets.UTF_8);
-
-        while(!simplified.equals(last)) {
-            last = simplified;
-            simplified = new String(new ColumnVisibility(simplified).flatten(), Charsets.UTF_8);
-        }
-
-        return simplified;
+        return MemoizedVisibilitySimplifier.getSharedInstance().simplify(visibility);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.model.visibility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Tests the methods of {@link MemoizedVisibilitySimplifier}.
+ */
+public class MemoizedVisibilitySimplifierTest {
+
+    @Test
+    public void simplify_remembered() {
+        final MemoizedVisibilitySimplifier simplifier = new MemoizedVisibilitySimplifier(10);
+        final String first = simplifier.simplify("(u&u)&u");
+        final String second = simplifier.simplify(new String("(u&u)&u"));
+
+        assertEquals("u", first);
+        assertSame(first, second);
+        assertEquals(1, simplifier.getSimplifyStats().missCount());
+        assertEquals(1, simplifier.getSimplifyStats().hitCount());
+    }
+
+    @Test
+    public void unionAndSimplify_remembered() {
+        final MemoizedVisibilitySimplifier simplifier = new MemoizedVisibilitySimplifier(10);
+        for(int i = 0; i < 4; i++) {
+            assertEquals("b&u", simplifier.unionAndSimplify("u&b", "u"));
+        }
+        assertEquals(0.75, simplifier.getUnionStats().hitRate(), 0.0);
+
+        // Unions that have an empty side are not cached.
+        assertEquals("u", simplifier.unionAndSimplify("", "u"));
+        assertEquals(4, simplifier.getUnionStats().requestCount());
+    }
+
+    @Test
+    public void resultsAreInterned() {
+        final MemoizedVisibilitySimplifier simplifier = new MemoizedVisibilitySimplifier(10);
+        assertSame(simplifier.simplify("a&b"), simplifier.unionAndSimplify("a", "b"));
+        assertSame(simplifier.simplify("a&b"), simplifier.unionAndSimplify("b", "a"));
+    }
+
+    @Test
+    public void bounded() {
+        final MemoizedVisibilitySimplifier simplifier = new MemoizedVisibilitySimplifier(2);
+        for(int i = 0; i < 100; i++) {
+            assertEquals("a" + i, simplifier.simplify("a" + i + "|a" + i));
+        }
+        assertEquals(100, simplifier.getSimplifyStats().missCount());
+        assertEquals(0, simplifier.getSimplifyStats().hitCount());
+    }
+
+    @Test(expected = BadArgumentException.class)
+    public void simplify_malformed() {
+        new MemoizedVisibilitySimplifier(10).simplify("a&|b");
+    }
+}
@@ -44,8 +44,14 @@ public abstract class RdfCloudTripleStoreConfiguration extends Configuration {
     //    public static final String CONF_TIMEINDEXURIS = "query.timeindexuris";
     public static final String CONF_NUM_THREADS = "query.numthreads";
     public static final String CONF_PERFORMANT = "query.performant";
+    public static final String CONF_PARALLEL_JOIN = "query.paralleljoin";
+    public static final String CONF_PARALLEL_JOIN_MAX_TASKS = "query.paralleljoin.maxtasks";
+    public static final String CONF_PARALLEL_JOIN_BUFFER_SIZE = "query.paralleljoin.buffersize";
     public static final String CONF_INFER = "query.infer";
     public static final String CONF_USE_STATS = "query.usestats";
+    public static final String CONF_USE_STATS_SKETCH = "query.stats.sketch";
+    public static final String CONF_STATS_CACHE_SIZE = "query.stats.cache.size";
+    public static final String CONF_STATS_CACHE_TTL = "query.stats.cache.ttl";
     public static final String CONF_USE_COMPOSITE = "query.usecompositecard";
     public static final String CONF_USE_SELECTIVITY = "query.useselectivity";
     public static final String CONF_TBL_PREFIX = "query.tblprefix";
@@ -83,6 +89,7 @@ public abstract class RdfCloudTripleStoreConfiguration extends Configuration {
     public static final String INFER_INCLUDE_SUBPROPOF = "infer.include.subpropof";
     public static final String INFER_INCLUDE_SYMMPROP = "infer.include.symmprop";
     public static final String INFER_INCLUDE_TRANSITIVEPROP = "infer.include.transprop";
+    public static final String INFER_REFRESH_INCREMENTAL = "infer.refresh.incremental";
 
     public static final String RDF_DAO_CLASS = "class.rdf.dao";
     public static final String RDF_EVAL_STATS_DAO_CLASS = "class.rdf.evalstats";
@@ -171,6 +178,47 @@ public abstract class RdfCloudTripleStoreConfiguration extends Configuration {
         setBoolean(CONF_PERFORMANT, val);
     }
 
+    /**
+     * @return {@code true} if joins that can not be evaluated as batched statement pattern
+     * lookups should evaluate their right side for several left binding sets in parallel.
+     */
+    public Boolean isUseParallelJoin() {
+        return getBoolean(CONF_PARALLEL_JOIN, false);
+    }
+
+    public void setUseParallelJoin(final Boolean val) {
+        Preconditions.checkNotNull(val);
+        setBoolean(CONF_PARALLEL_JOIN, val);
+    }
+
+    /**
+     * @return The maximum number of left binding sets a parallel join works on at the same time.
+     * Defaults to the number of query threads.
+     */
+    public Integer getParallelJoinMaxTasks() {
+        return getInt(CONF_PARALLEL_JOIN_MAX_TASKS, getNumThreads());
+    }
+
+    public void setParallelJoinMaxTasks(final Integer maxTasks) {
+        Preconditions.checkNotNull(maxTasks);
+        Preconditions.checkArgument(maxTasks > 0, "maxTasks must be greater than 0");
+        setInt(CONF_PARALLEL_JOIN_MAX_TASKS, maxTasks);
+    }
+
+    /**
+     * @return The maximum number of right side results each parallel join task buffers
+     * before it blocks.
+     */
+    public Integer getParallelJoinBufferSize() {
+        return getInt(CONF_PARALLEL_JOIN_BUFFER_SIZE, 1000);
+    }
+
+    public void setParallelJoinBufferSize(final Integer bufferSize) {
+        Preconditions.checkNotNull(bufferSize);
+        Preconditions.checkArgument(bufferSize > 0, "bufferSize must be greater than 0");
+        setInt(CONF_PARALLEL_JOIN_BUFFER_SIZE, bufferSize);
+    }
+
     public Boolean isInfer() {
         return getBoolean(CONF_INFER, false);
     }
@@ -189,6 +237,47 @@ public abstract class RdfCloudTripleStoreConfiguration extends Configuration {
         setBoolean(CONF_USE_STATS, val);
     }
 
+    /**
+     * @return {@code true} if the Prospector's cardinalities are estimated from the Count-Min sketches it
+     * publishes instead of being read from its counts. Defaults to {@code false}.
+     */
+    public Boolean isUseStatsSketch() {
+        return getBoolean(CONF_USE_STATS_SKETCH, false);
+    }
+
+    public void setUseStatsSketch(final Boolean val) {
+        Preconditions.checkNotNull(val);
+        setBoolean(CONF_USE_STATS_SKETCH, val);
+    }
+
+    /**
+     * @return The maximum number of cardinalities the shared statistics cache holds. A value of 0 disables
+     * the cache.
+     */
+    public Integer getStatsCacheSize() {
+        return getInt(CONF_STATS_CACHE_SIZE, 10000);
+    }
+
+    public void setStatsCacheSize(final Integer size) {
+        Preconditions.checkNotNull(size);
+        Preconditions.checkArgument(size >= 0, "size must not be negative");
+        setInt(CONF_STATS_CACHE_SIZE, size);
+    }
+
+    /**
+     * @return How long, in milliseconds, a cardinality stays in the shared statistics cache after it is written
+     * to the cache. Reading it does not extend its lifetime.
+     */
+    public Long getStatsCacheTtl() {
+        return getLong(CONF_STATS_CACHE_TTL, 60000L);
+    }
+
+    public void setStatsCacheTtl(final Long ttl) {
+        Preconditions.checkNotNull(ttl);
+        Preconditions.checkArgument(ttl > 0, "ttl must be greater than 0");
+        setLong(CONF_STATS_CACHE_TTL, ttl);
+    }
+
     public Boolean isUseSelectivity() {
         return getBoolean(CONF_USE_SELECTIVITY, false);
     }
@@ -620,6 +709,24 @@ public abstract class RdfCloudTripleStoreConfiguration extends Configuration {
         setBoolean(INFER_INCLUDE_TRANSITIVEPROP, val);
     }
 
+    /**
+     * @return {@code true} if the inference engine's scheduled refreshes keep the current schema
+     * when no statements that define it were inserted since it was read. Defaults to {@code false}.
+     */
+    public Boolean isInferRefreshIncremental() {
+        return getBoolean(INFER_REFRESH_INCREMENTAL, false);
+    }
+
+    /**
+     * Sets whether the inference engine's scheduled refreshes only rebuild the schema when
+     * statements that define it were inserted. Deleted statements are only noticed by a full refresh.
+     * @param val {@code true} if scheduled refreshes are incremental. {@code false} otherwise.
+     */
+    public void setInferRefreshIncremental(final Boolean val) {
+        Preconditions.checkNotNull(val);
+        setBoolean(INFER_REFRESH_INCREMENTAL, val);
+    }
+
     public void setRdfEvalStatsDaoClass(final Class<? extends RdfEvalStatsDAO> rdfEvalStatsDaoClass) {
         Preconditions.checkNotNull(rdfEvalStatsDaoClass);
         setClass(RDF_EVAL_STATS_DAO_CLASS, rdfEvalStatsDaoClass, RdfEvalStatsDAO.class);
@@ -18,12 +18,19 @@
  */
 package org.apache.rya.api.client;
 
+import static java.util.Objects.requireNonNull;
+
 import java.nio.file.Path;
+import java.util.Objects;
 
 import org.eclipse.rdf4j.rio.RDFFormat;
 
+import com.google.common.base.Optional;
+
 import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import net.jcip.annotations.Immutable;
 
 /**
  * Loads a local file of RDF statements into an instance of Rya.
@@ -41,4 +48,168 @@ public interface LoadStatementsFile {
      * @throws RyaClientException Something caused the command to fail.
      */
     public void loadStatements(String ryaInstanceName, Path statementsFile, RDFFormat format) throws InstanceDoesNotExistException, RyaClientException;
+
+    /**
+     * Bulk loads a local file of RDF statements into an instance of Rya. N-Triples and N-Quads
+     * files are split by line, parsed by more than one thread, and written directly to Rya's
+     * storage. Implementations that can not bulk load a file, or a format, load it the same way
+     * {@link #loadStatements(String, Path, RDFFormat)} does.
+     *
+     * @param ryaInstanceName - The name of the Rya instance the statements will be loaded into. (not null)
+     * @param statementsFile - A file that holds RDF statements that will be loaded. (not null)
+     * @param format - The format of the statements file. (not null)
+     * @param bulkLoadConfig - Configures how the file is bulk loaded. (not null)
+     * @throws InstanceDoesNotExistException No instance of Rya exists for the provided name.
+     * @throws RyaClientException Something caused the command to fail.
+     */
+    public default void loadStatements(
+            final String ryaInstanceName,
+            final Path statementsFile,
+            final RDFFormat format,
+            final BulkLoadConfiguration bulkLoadConfig) throws InstanceDoesNotExistException, RyaClientException {
+        requireNonNull(bulkLoadConfig);
+        loadStatements(ryaInstanceName, statementsFile, format);
+    }
+
+    /**
+     * Configures how a file of statements is bulk loaded.
+     */
+    @Immutable
+    @DefaultAnnotation(NonNull.class)
+    public static class BulkLoadConfiguration {
+
+        private final int parserThreads;
+        private final int batchSize;
+        private final int queueSize;
+        private final Optional<String> rfileDirectory;
+
+        /**
+         * Use a {@link Builder} to create instances of this class.
+         */
+        private BulkLoadConfiguration(
+                final int parserThreads,
+                final int batchSize,
+                final int queueSize,
+                final Optional<String> rfileDirectory) {
+            if(parserThreads <= 0 || batchSize <= 0 || queueSize <= 0) {
+                throw new IllegalArgumentException("The number of parser threads, batch size, and queue size must be positive.");
+            }
+            this.parserThreads = parserThreads;
+            this.batchSize = batchSize;
+            this.queueSize = queueSize;
+            this.rfileDirectory = requireNonNull(rfileDirectory);
+        }
+
+        /**
+         * @return The number of threads that read and parse the file.
+         */
+        public int getParserThreads() {
+            return parserThreads;
+        }
+
+        /**
+         * @return The number of statements that are written at a time.
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * @return The number of parsed batches that may wait to be written before the parsers wait for the writer.
+         */
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        /**
+         * @return A directory, on the file system Accumulo's tablet servers read from, where sorted
+         *   RFiles of the core triple tables are written and then bulk imported. When it is absent
+         *   the statements are written through Rya's batch writers instead. Only Accumulo backed
+         *   instances of Rya use this, and bulk imported statements are not seen by secondary indexers.
+         */
+        public Optional<String> getRFileDirectory() {
+            return rfileDirectory;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(parserThreads, batchSize, queueSize, rfileDirectory);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if(this == obj) {
+                return true;
+            }
+            if(obj instanceof BulkLoadConfiguration) {
+                final BulkLoadConfiguration config = (BulkLoadConfiguration) obj;
+                return parserThreads == config.parserThreads &&
+                        batchSize == config.batchSize &&
+                        queueSize == config.queueSize &&
+                        Objects.equals(rfileDirectory, config.rfileDirectory);
+            }
+            return false;
+        }
+
+        /**
+         * @return An empty instance of {@link Builder}.
+         */
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        /**
+         * Builds instances of {@link BulkLoadConfiguration}.
+         */
+        @DefaultAnnotation(NonNull.class)
+        public static class Builder {
+            private int parserThreads = Runtime.getRuntime().availableProcessors();
+            private int batchSize = 1000;
+            private int queueSize = 16;
+            private String rfileDirectory = null;
+
+            /**
+             * @param parserThreads - The number of threads that read and parse the file.
+             * @return This {@link Builder} so that method invocations may be chained.
+             */
+            public Builder setParserThreads(final int parserThreads) {
+                this.parserThreads = parserThreads;
+                return this;
+            }
+
+            /**
+             * @param batchSize - The number of statements that are written at a time.
+             * @return This {@link Builder} so that method invocations may be chained.
+             */
+            public Builder setBatchSize(final int batchSize) {
+                this.batchSize = batchSize;
+                return this;
+            }
+
+            /**
+             * @param queueSize - The number of parsed batches that may wait to be written.
+             * @return This {@link Builder} so that method invocations may be chained.
+             */
+            public Builder setQueueSize(final int queueSize) {
+                this.queueSize = queueSize;
+                return this;
+            }
+
+            /**
+             * @param rfileDirectory - Where sorted RFiles are written before they are bulk imported into Accumulo.
+             * @return This {@link Builder} so that method invocations may be chained.
+             */
+            public Builder setRFileDirectory(@Nullable final String rfileDirectory) {
+                this.rfileDirectory = rfileDirectory;
+                return this;
+            }
+
+            /**
+             * @return Builds an instance of {@link BulkLoadConfiguration} using this builder's values.
+             */
+            public BulkLoadConfiguration build() {
+                return new BulkLoadConfiguration(parserThreads, batchSize, queueSize, Optional.fromNullable(rfileDirectory));
+            }
+        }
+    }
 }
\ No newline at end of file
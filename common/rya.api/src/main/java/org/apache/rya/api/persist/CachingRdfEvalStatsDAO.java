@@ -0,0 +1,184 @@
+package org.apache.rya.api.persist;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * An {@link RdfEvalStatsDAO} that remembers the cardinalities another {@link RdfEvalStatsDAO} returns.
+ * <p>
+ * Query planning asks for the cardinality of every statement pattern of every query, and most
+ * implementations answer each request with a scan of the statistics table. Those statistics are only
+ * rewritten when the Prospector runs, so this DAO keeps up to a fixed number of them, keyed by the kind of
+ * cardinality, the constants, the context, and the authorizations of the request, for a fixed time after
+ * they were read. One instance is meant to be shared by every query that runs against a store.
+ */
+public class CachingRdfEvalStatsDAO<C extends RdfCloudTripleStoreConfiguration> implements RdfEvalStatsDAO<C> {
+
+    private final RdfEvalStatsDAO<C> delegate;
+    private final Cache<CardinalityKey, Double> cardinalities;
+
+    /**
+     * Constructs an instance of {@link CachingRdfEvalStatsDAO}.
+     *
+     * @param delegate - The DAO the cardinalities are read from when they are not cached. (not null)
+     * @param maxSize - The maximum number of cardinalities that are cached. (&gt; 0)
+     * @param ttlMillis - How long, in milliseconds, a cardinality is cached after it was loaded from the delegate. (&gt; 0)
+     */
+    public CachingRdfEvalStatsDAO(final RdfEvalStatsDAO<C> delegate, final long maxSize, final long ttlMillis) {
+        this.delegate = Preconditions.checkNotNull(delegate);
+        Preconditions.checkArgument(maxSize > 0, "maxSize must be greater than 0");
+        Preconditions.checkArgument(ttlMillis > 0, "ttlMillis must be greater than 0");
+        cardinalities = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return The DAO the cardinalities are read from when they are not cached.
+     */
+    public RdfEvalStatsDAO<C> getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return The hit and miss counts of the cache.
+     */
+    public CacheStats getCacheStats() {
+        return cardinalities.stats();
+    }
+
+    /**
+     * Discards every cached cardinality, for example after the Prospector has run.
+     */
+    public void invalidate() {
+        cardinalities.invalidateAll();
+    }
+
+    @Override
+    public void init() throws RdfDAOException {
+        delegate.init();
+    }
+
+    @Override
+    public boolean isInitialized() throws RdfDAOException {
+        return delegate.isInitialized();
+    }
+
+    @Override
+    public void destroy() throws RdfDAOException {
+        invalidate();
+        delegate.destroy();
+    }
+
+    @Override
+    public double getCardinality(final C conf, final CARDINALITY_OF card, final List<Value> val) throws RdfDAOException {
+        return getCardinality(conf, card, val, null, false);
+    }
+
+    @Override
+    public double getCardinality(final C conf, final CARDINALITY_OF card, final List<Value> val, final Resource context) throws RdfDAOException {
+        return getCardinality(conf, card, val, context, true);
+    }
+
+    private double getCardinality(final C conf, final CARDINALITY_OF card, final List<Value> val, final Resource context,
+            final boolean withContext) throws RdfDAOException {
+        final CardinalityKey key = new CardinalityKey(card, val, context, conf.getAuths());
+        try {
+            return cardinalities.get(key, () -> withContext ?
+                    delegate.getCardinality(conf, card, val, context) :
+                    delegate.getCardinality(conf, card, val));
+        } catch (final ExecutionException | UncheckedExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RdfDAOException) {
+                throw (RdfDAOException) cause;
+            }
+            throw new RdfDAOException(cause);
+        }
+    }
+
+    @Override
+    public void setConf(final C conf) {
+        delegate.setConf(conf);
+    }
+
+    @Override
+    public C getConf() {
+        return delegate.getConf();
+    }
+
+    /**
+     * Identifies a cardinality by the shape of the pattern it was requested for, that pattern's constants,
+     * and the authorizations that were used to read it.
+     */
+    private static final class CardinalityKey {
+        private final CARDINALITY_OF card;
+        private final List<Value> values;
+        private final Resource context;
+        private final List<String> auths;
+        private final int hashCode;
+
+        public CardinalityKey(final CARDINALITY_OF card, final List<Value> values, final Resource context, final String[] auths) {
+            this.card = card;
+            this.values = values == null ? null : Collections.unmodifiableList(new ArrayList<>(values));
+            this.context = context;
+            this.auths = auths == null ? Collections.emptyList() : Arrays.asList(auths.clone());
+            hashCode = Objects.hash(card, this.values, context, this.auths);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CardinalityKey)) {
+                return false;
+            }
+            final CardinalityKey other = (CardinalityKey) o;
+            return card == other.card
+                    && Objects.equals(values, other.values)
+                    && Objects.equals(context, other.context)
+                    && auths.equals(other.auths);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.persist.query;
+
+import java.util.Collection;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+/**
+ * A node of a query tree that may be evaluated against a batch of binding sets at once. When such
+ * a node is the right side of a join, the left side's solutions are handed to it in batches, so a
+ * backing store is queried once per batch instead of once per solution.
+ * <p>
+ * Lives in the API so that nodes built by the DAOs may be batched by the Sail's evaluation strategy.
+ */
+public interface BindingSetBatchEvaluator {
+
+    /**
+     * Evaluates this node against a batch of binding sets.
+     *
+     * @param bindingset - The solutions this node's results are joined with. (not null)
+     * @return Every solution of this node that is compatible with one of the binding sets, joined with
+     *   each binding set it is compatible with.
+     * @throws QueryEvaluationException The node could not be evaluated.
+     */
+    public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(Collection<BindingSet> bindingset) throws QueryEvaluationException;
+
+    /**
+     * Releases anything that was kept between calls to {@link #evaluate(Collection)} once
+     * the batches of a join have been read. Evaluating again afterwards must still work.
+     */
+    public default void releaseResources() throws QueryEvaluationException {
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.persist.utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.StatementMetadata;
+import org.apache.rya.api.resolver.RdfToRyaConversions;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Loads a file of N-Triples or N-Quads statements using more than one thread.
+ * <p>
+ * Both formats hold one statement per line, so the file is split into byte ranges that
+ * start and end on line boundaries. Each range is read and parsed by its own thread, and
+ * the parsed statements are handed to the calling thread in batches through a bounded
+ * queue. The calling thread gives each batch to a {@link BatchWriter}, so a slow writer
+ * holds the parsers back instead of letting the parsed statements pile up in memory.
+ * <p>
+ * Blank node labels are scoped to the file, just like when the whole file is parsed at
+ * once: every label is prefixed with an identifier that is unique to the load, so the
+ * same label means the same node in every range, but not in any other load.
+ */
+@DefaultAnnotation(NonNull.class)
+public class ParallelStatementsFileLoader {
+    private static final Logger log = LoggerFactory.getLogger(ParallelStatementsFileLoader.class);
+
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    /**
+     * Marks the end of a range in the queue of parsed batches.
+     */
+    private static final List<RyaStatement> END_OF_RANGE = new ArrayList<>(0);
+
+    /**
+     * Writes a batch of parsed statements to Rya.
+     */
+    @FunctionalInterface
+    public static interface BatchWriter {
+        /**
+         * @param batch - The statements that will be written. (not null)
+         * @throws Exception The statements could not be written.
+         */
+        public void write(List<RyaStatement> batch) throws Exception;
+    }
+
+    private final int parserThreads;
+    private final int batchSize;
+    private final int queueSize;
+    private final byte[] columnVisibility;
+
+    /**
+     * Constructs an instance of {@link ParallelStatementsFileLoader}.
+     *
+     * @param parserThreads - The number of threads that read and parse the file. (&gt; 0)
+     * @param batchSize - The number of statements that are written at a time. (&gt; 0)
+     * @param queueSize - The number of parsed batches that may wait to be written. (&gt; 0)
+     * @param columnVisibility - The visibility every loaded statement is given. (not null)
+     */
+    public ParallelStatementsFileLoader(
+            final int parserThreads,
+            final int batchSize,
+            final int queueSize,
+            final byte[] columnVisibility) {
+        if(parserThreads <= 0 || batchSize <= 0 || queueSize <= 0) {
+            throw new IllegalArgumentException("The number of parser threads, batch size, and queue size must be positive.");
+        }
+        this.parserThreads = parserThreads;
+        this.batchSize = batchSize;
+        this.queueSize = queueSize;
+        this.columnVisibility = requireNonNull(columnVisibility);
+    }
+
+    /**
+     * @param format - The format of a statements file. (not null)
+     * @return {@code true} if files of the format can be split on line boundaries and loaded in parallel.
+     */
+    public static boolean isSupported(final RDFFormat format) {
+        requireNonNull(format);
+        return format.equals(RDFFormat.NTRIPLES) || format.equals(RDFFormat.NQUADS);
+    }
+
+    /**
+     * Loads a file of statements.
+     *
+     * @param statementsFile - The file that will be loaded. (not null)
+     * @param format - The format of the file. Must be one that {@link #isSupported(RDFFormat)}. (not null)
+     * @param writer - Writes the parsed statements. It is only called by the thread that invoked this method. (not null)
+     * @return The number of statements that were loaded.
+     * @throws IOException The file could not be read or parsed.
+     * @throws InterruptedException The load was interrupted.
+     * @throws Exception The writer could not write a batch.
+     */
+    public long load(final Path statementsFile, final RDFFormat format, final BatchWriter writer) throws Exception {
+        requireNonNull(statementsFile);
+        requireNonNull(format);
+        requireNonNull(writer);
+        if(!isSupported(format)) {
+            throw new IllegalArgumentException("Only line based formats may be loaded in parallel, not " + format.getName() + ".");
+        }
+
+        final long[] splits = split(statementsFile, parserThreads);
+        final int ranges = splits.length - 1;
+        final String bnodePrefix = UUID.randomUUID().toString().replace("-", "") + "_";
+        final BlockingQueue<List<RyaStatement>> queue = new ArrayBlockingQueue<>(queueSize);
+        final List<Exception> failures = new ArrayList<>();
+        final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+        final ExecutorService parsers = Executors.newFixedThreadPool(ranges,
+                new ThreadFactoryBuilder().setNameFormat("statements-file-parser-%d").setDaemon(true).build());
+        try {
+            for(int i = 0; i < ranges; i++) {
+                final long start = splits[i];
+                final long end = splits[i + 1];
+                parsers.submit(() -> {
+                    try {
+                        parseRange(statementsFile, format, start, end, bnodePrefix, queue, cancelled);
+                    } catch(final Exception e) {
+                        synchronized(failures) {
+                            failures.add(e);
+                        }
+                    } finally {
+                        try {
+                            hand(queue, END_OF_RANGE, cancelled);
+                        } catch(final InterruptedException e) {
+                            // The load was cancelled, so nothing is waiting for the end of the range.
+                        }
+                    }
+                });
+            }
+
+            long loaded = 0;
+            int finished = 0;
+            while(finished < ranges) {
+                final List<RyaStatement> batch = queue.take();
+                if(batch == END_OF_RANGE) {
+                    finished++;
+                    synchronized(failures) {
+                        if(!failures.isEmpty()) {
+                            final Exception e = failures.get(0);
+                            throw e instanceof IOException ? e : new IOException("Could not parse " + statementsFile + ".", e);
+                        }
+                    }
+                } else {
+                    writer.write(batch);
+                    loaded += batch.size();
+                }
+            }
+
+            log.info("Loaded {} statements from {} using {} parser threads.", loaded, statementsFile, ranges);
+            return loaded;
+        } finally {
+            cancelled.set(true);
+            parsers.shutdownNow();
+            parsers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Splits a file into byte ranges that start at the beginning of a line.
+     *
+     * @param file - The file that will be split. (not null)
+     * @param parts - The number of ranges that are wanted. (&gt; 0)
+     * @return The offset each range starts at, followed by the length of the file. Ranges
+     *   that would have been empty are left out, so there may be fewer than asked for.
+     * @throws IOException The file could not be read.
+     */
+    static long[] split(final Path file, final int parts) throws IOException {
+        final long length = Files.size(file);
+        final List<Long> offsets = new ArrayList<>();
+        offsets.add(0L);
+
+        try(RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            for(int i = 1; i < parts; i++) {
+                // Start from the byte before the guess so a guess that is already at the start of a line is kept.
+                long offset = Math.max(length * i / parts - 1, offsets.get(offsets.size() - 1));
+                raf.seek(offset);
+                int b;
+                while((b = raf.read()) != -1 && b != '\n') {
+                    offset++;
+                }
+                offset = Math.min(offset + 1, length);
+                if(offset > offsets.get(offsets.size() - 1) && offset < length) {
+                    offsets.add(offset);
+                }
+            }
+        }
+
+        final long[] splits = new long[offsets.size() + 1];
+        for(int i = 0; i < offsets.size(); i++) {
+            splits[i] = offsets.get(i);
+        }
+        splits[offsets.size()] = length;
+        return splits;
+    }
+
+    private void parseRange(
+            final Path file,
+            final RDFFormat format,
+            final long start,
+            final long end,
+            final String bnodePrefix,
+            final BlockingQueue<List<RyaStatement>> queue,
+            final AtomicBoolean cancelled) throws IOException, InterruptedException {
+        final RDFParser parser = Rio.createParser(format);
+        parser.getParserConfig().set(BasicParserSettings.PRESERVE_BNODE_IDS, true);
+        final List<RyaStatement> parsed = new ArrayList<>(batchSize);
+        parser.setRDFHandler(new AbstractRDFHandler() {
+            @Override
+            public void handleStatement(final Statement statement) throws RDFHandlerException {
+                parsed.add(new RyaStatement(
+                        RdfToRyaConversions.convertResource((Resource) scope(statement.getSubject(), bnodePrefix)),
+                        RdfToRyaConversions.convertIRI(statement.getPredicate()),
+                        RdfToRyaConversions.convertValue(scope(statement.getObject(), bnodePrefix)),
+                        RdfToRyaConversions.convertResource((Resource) scope(statement.getContext(), bnodePrefix)),
+                        null, new StatementMetadata(), columnVisibility));
+            }
+        });
+
+        try(SeekableByteChannel channel = Files.newByteChannel(file)) {
+            channel.position(start);
+            final InputStream in = Channels.newInputStream(channel);
+
+            final byte[] buffer = new byte[1 << 16];
+            final StringBuilder lines = new StringBuilder();
+            final ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int lineCount = 0;
+            long position = start;
+            while(position < end) {
+                final int read = in.read(buffer, 0, (int) Math.min(buffer.length, end - position));
+                if(read == -1) {
+                    break;
+                }
+                position += read;
+
+                int lineStart = 0;
+                for(int i = 0; i < read; i++) {
+                    if(buffer[i] == '\n') {
+                        line.write(buffer, lineStart, i - lineStart);
+                        lines.append(new String(line.toByteArray(), UTF_8)).append('\n');
+                        line.reset();
+                        lineStart = i + 1;
+                        if(++lineCount == batchSize) {
+                            parse(parser, lines, parsed, queue, cancelled);
+                            lineCount = 0;
+                        }
+                    }
+                }
+                line.write(buffer, lineStart, read - lineStart);
+            }
+            if(line.size() > 0) {
+                lines.append(new String(line.toByteArray(), UTF_8)).append('\n');
+            }
+            parse(parser, lines, parsed, queue, cancelled);
+        }
+    }
+
+    private void parse(
+            final RDFParser parser,
+            final StringBuilder lines,
+            final List<RyaStatement> parsed,
+            final BlockingQueue<List<RyaStatement>> queue,
+            final AtomicBoolean cancelled) throws IOException, InterruptedException {
+        try {
+            parser.parse(new StringReader(lines.toString()), "");
+        } catch(final RDFParseException | RDFHandlerException e) {
+            throw new IOException(e);
+        }
+        lines.setLength(0);
+        if(!parsed.isEmpty()) {
+            hand(queue, new ArrayList<>(parsed), cancelled);
+            parsed.clear();
+        }
+    }
+
+    /**
+     * Waits for room in the queue, but gives up once the load has been cancelled so a
+     * parser never blocks on a queue that is no longer read.
+     */
+    private static void hand(
+            final BlockingQueue<List<RyaStatement>> queue,
+            final List<RyaStatement> batch,
+            final AtomicBoolean cancelled) throws InterruptedException {
+        while(!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            if(cancelled.get()) {
+                throw new InterruptedException("The load was cancelled.");
+            }
+        }
+    }
+
+    private static @Nullable Value scope(@Nullable final Value value, final String bnodePrefix) {
+        if(value instanceof BNode) {
+            return VF.createBNode(bnodePrefix + ((BNode) value).getID());
+        }
+        return value;
+    }
+}
@@ -19,9 +19,9 @@ package org.apache.rya.api.resolver;
  * under the License.
  */
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.rya.api.domain.RyaRange;
 import org.apache.rya.api.domain.RyaType;
@@ -43,6 +43,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Maps datatypes and marker bytes to the {@link RyaTypeResolver}s that serialize them.
+ * <p>
+ * Lookups do not lock, so the shared instance may be used from any number of
+ * threads. Adding and removing mappings is synchronized.
  * Date: 7/16/12
  * Time: 12:04 PM
  */
@@ -50,9 +54,9 @@ public class RyaContext {
 
     public Logger logger = LoggerFactory.getLogger(RyaContext.class);
 
-    private final Map<IRI, RyaTypeResolver> uriToResolver = new HashMap<IRI, RyaTypeResolver>();
-    private final Map<Byte, RyaTypeResolver> byteToResolver = new HashMap<Byte, RyaTypeResolver>();
-    private RyaTypeResolver defaultResolver = new CustomDatatypeResolver();
+    private final Map<IRI, RyaTypeResolver> uriToResolver = new ConcurrentHashMap<IRI, RyaTypeResolver>();
+    private final Map<Byte, RyaTypeResolver> byteToResolver = new ConcurrentHashMap<Byte, RyaTypeResolver>();
+    private volatile RyaTypeResolver defaultResolver = new CustomDatatypeResolver();
 
     private RyaContext() {
         //add default
@@ -85,13 +89,16 @@ public class RyaContext {
         public static final RyaContext INSTANCE = new RyaContext();
      }
 
-    public synchronized static RyaContext getInstance() {
+    public static RyaContext getInstance() {
         return RyaContextHolder.INSTANCE;
     }
 
 
     //need to go from datatype->resolver
     public RyaTypeResolver retrieveResolver(final IRI datatype) {
+        if (datatype == null) {
+            return defaultResolver;
+        }
         final RyaTypeResolver ryaTypeResolver = uriToResolver.get(datatype);
         if (ryaTypeResolver == null) {
             return defaultResolver;
@@ -132,7 +139,7 @@ public class RyaContext {
         return null;
     }
 
-    public void addRyaTypeResolverMapping(final RyaTypeResolverMapping mapping) {
+    public synchronized void addRyaTypeResolverMapping(final RyaTypeResolverMapping mapping) {
         if (!uriToResolver.containsKey(mapping.getRyaDataType())) {
             if (logger.isDebugEnabled()) {
                 logger.debug("addRyaTypeResolverMapping uri:[" + mapping.getRyaDataType() + "] byte:[" + mapping.getMarkerByte() + "] for mapping[" + mapping + "]");
@@ -144,13 +151,13 @@ public class RyaContext {
         }
     }
 
-    public void addRyaTypeResolverMappings(final List<RyaTypeResolverMapping> mappings) {
+    public synchronized void addRyaTypeResolverMappings(final List<RyaTypeResolverMapping> mappings) {
         for (final RyaTypeResolverMapping mapping : mappings) {
             addRyaTypeResolverMapping(mapping);
         }
     }
 
-    public RyaTypeResolver removeRyaTypeResolver(final IRI dataType) {
+    public synchronized RyaTypeResolver removeRyaTypeResolver(final IRI dataType) {
         final RyaTypeResolver ryaTypeResolver = uriToResolver.remove(dataType);
         if (ryaTypeResolver != null) {
             if (logger.isDebugEnabled()) {
@@ -162,7 +169,7 @@ public class RyaContext {
         return null;
     }
 
-    public RyaTypeResolver removeRyaTypeResolver(final byte markerByte) {
+    public synchronized RyaTypeResolver removeRyaTypeResolver(final byte markerByte) {
         final RyaTypeResolver ryaTypeResolver = byteToResolver.remove(markerByte);
         if (ryaTypeResolver != null) {
             if (logger.isDebugEnabled()) {
@@ -71,7 +71,7 @@ public class RyaTripleContext {
         public static final RyaTripleContext HASHED_INSTANCE = new RyaTripleContext(true);
     }
 
-    public synchronized static RyaTripleContext getInstance(final RdfCloudTripleStoreConfiguration conf) {
+    public static RyaTripleContext getInstance(final RdfCloudTripleStoreConfiguration conf) {
     	if (conf.isPrefixRowsWithHash()){
     		return RyaTripleContextHolder.HASHED_INSTANCE;
     	}
@@ -87,6 +87,14 @@ public class RyaTripleContext {
         return getTripleResolver().deserialize(table_layout, tripleRow);
     }
 
+    public RyaStatement deserializeTriple(final RdfCloudTripleStoreConstants.TABLE_LAYOUT table_layout,
+            final byte[] rowBuffer, final int rowOffset, final int rowLength,
+            final byte[] columnFamily, final byte[] columnQualifier, final Long timestamp,
+            final byte[] columnVisibility, final byte[] value) throws TripleRowResolverException {
+        return getTripleResolver().deserialize(table_layout, rowBuffer, rowOffset, rowLength,
+                columnFamily, columnQualifier, timestamp, columnVisibility, value);
+    }
+
     protected void addDefaultTriplePatternStrategies(final boolean addPrefixHash) {
     	if (addPrefixHash){
             triplePatternStrategyList.add(new HashedSpoWholeRowTriplePatternStrategy());
@@ -26,6 +26,7 @@ import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.domain.RyaType;
 import org.apache.rya.api.domain.RyaIRI;
 
+import java.util.Arrays;
 import java.util.Map;
 
 import static org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
@@ -40,4 +41,17 @@ public interface TripleRowResolver {
 
     public RyaStatement deserialize(TABLE_LAYOUT table_layout, TripleRow tripleRow) throws TripleRowResolverException;
 
+    /**
+     * Deserializes a triple whose row is a slice of a larger buffer, such as the
+     * backing array of an Accumulo key. Implementations that can decode the slice
+     * in place should override this; the default copies the slice into a {@link TripleRow}.
+     */
+    public default RyaStatement deserialize(final TABLE_LAYOUT table_layout,
+            final byte[] rowBuffer, final int rowOffset, final int rowLength,
+            final byte[] columnFamily, final byte[] columnQualifier, final Long timestamp,
+            final byte[] columnVisibility, final byte[] value) throws TripleRowResolverException {
+        final byte[] row = Arrays.copyOfRange(rowBuffer, rowOffset, rowOffset + rowLength);
+        return deserialize(table_layout, new TripleRow(row, columnFamily, columnQualifier, timestamp, columnVisibility, value));
+    }
+
 }
@@ -19,34 +19,37 @@
 package org.apache.rya.api.resolver.triple.impl;
 
 import static org.apache.rya.api.RdfCloudTripleStoreConstants.DELIM_BYTE;
-import static org.apache.rya.api.RdfCloudTripleStoreConstants.DELIM_BYTES;
 import static org.apache.rya.api.RdfCloudTripleStoreConstants.EMPTY_BYTES;
 import static org.apache.rya.api.RdfCloudTripleStoreConstants.TYPE_DELIM_BYTE;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 
 import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.domain.RyaIRI;
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.domain.RyaType;
-import org.apache.rya.api.domain.RyaIRI;
 import org.apache.rya.api.resolver.RyaContext;
 import org.apache.rya.api.resolver.RyaTypeResolverException;
 import org.apache.rya.api.resolver.triple.TripleRow;
 import org.apache.rya.api.resolver.triple.TripleRowResolver;
 import org.apache.rya.api.resolver.triple.TripleRowResolverException;
 
-import com.google.common.primitives.Bytes;
-
 /**
  * Will store triple in spo, po, osp. Storing everything in the whole row.
+ * <p>
+ * Each row is written into a single array that is sized up front, and rows are
+ * read by decoding the subject and predicate directly out of the row bytes, so
+ * the only copy made while deserializing is the one needed to hand the object's
+ * bytes to its {@link org.apache.rya.api.resolver.RyaTypeResolver}.
  * Date: 7/13/12
  * Time: 8:51 AM
  */
 public class WholeRowTripleResolver implements TripleRowResolver {
 
+    private static final RyaContext RYA_CONTEXT = RyaContext.getInstance();
+
     @Override
     public Map<TABLE_LAYOUT, TripleRow> serialize(final RyaStatement stmt) throws TripleRowResolverException {
         try {
@@ -61,24 +64,18 @@ public class WholeRowTripleResolver implements TripleRowResolver {
             final byte[] value = stmt.getValue();
             assert subject != null && predicate != null && object != null;
             final byte[] cf = (context == null) ? EMPTY_BYTES : context.getData().getBytes(StandardCharsets.UTF_8);
-            final Map<TABLE_LAYOUT, TripleRow> tripleRowMap = new HashMap<TABLE_LAYOUT, TripleRow>();
+            final Map<TABLE_LAYOUT, TripleRow> tripleRowMap = new EnumMap<TABLE_LAYOUT, TripleRow>(TABLE_LAYOUT.class);
             final byte[] subjBytes = subject.getData().getBytes(StandardCharsets.UTF_8);
             final byte[] predBytes = predicate.getData().getBytes(StandardCharsets.UTF_8);
-            final byte[][] objBytes = RyaContext.getInstance().serializeType(object);
+            final byte[][] objBytes = RYA_CONTEXT.serializeType(object);
             tripleRowMap.put(TABLE_LAYOUT.SPO,
-                    new TripleRow(Bytes.concat(subjBytes, DELIM_BYTES,
-                            predBytes, DELIM_BYTES,
-                            objBytes[0], objBytes[1]), cf, qualBytes,
+                    new TripleRow(writeRow(subjBytes, predBytes, objBytes[0], objBytes[1]), cf, qualBytes,
                             timestamp, columnVisibility, value));
             tripleRowMap.put(TABLE_LAYOUT.PO,
-                    new TripleRow(Bytes.concat(predBytes, DELIM_BYTES,
-                            objBytes[0], DELIM_BYTES,
-                            subjBytes, objBytes[1]), cf, qualBytes,
+                    new TripleRow(writeRow(predBytes, objBytes[0], subjBytes, objBytes[1]), cf, qualBytes,
                             timestamp, columnVisibility, value));
             tripleRowMap.put(TABLE_LAYOUT.OSP,
-                    new TripleRow(Bytes.concat(objBytes[0], DELIM_BYTES,
-                            subjBytes, DELIM_BYTES,
-                            predBytes, objBytes[1]), cf, qualBytes,
+                    new TripleRow(writeRow(objBytes[0], subjBytes, predBytes, objBytes[1]), cf, qualBytes,
                             timestamp, columnVisibility, value));
             return tripleRowMap;
         } catch (final RyaTypeResolverException e) {
@@ -86,57 +83,114 @@ public class WholeRowTripleResolver implements TripleRowResolver {
         }
     }
 
+    /**
+     * Writes {@code first DELIM second DELIM third type} into a single array.
+     */
+    private static byte[] writeRow(final byte[] first, final byte[] second, final byte[] third, final byte[] type) {
+        final byte[] row = new byte[first.length + second.length + third.length + type.length + 2];
+        int pos = 0;
+        System.arraycopy(first, 0, row, pos, first.length);
+        pos += first.length;
+        row[pos++] = DELIM_BYTE;
+        System.arraycopy(second, 0, row, pos, second.length);
+        pos += second.length;
+        row[pos++] = DELIM_BYTE;
+        System.arraycopy(third, 0, row, pos, third.length);
+        pos += third.length;
+        System.arraycopy(type, 0, row, pos, type.length);
+        return row;
+    }
+
     @Override
     public RyaStatement deserialize(final TABLE_LAYOUT table_layout, final TripleRow tripleRow) throws TripleRowResolverException {
-        try {
-            assert tripleRow != null && table_layout != null;
-            final byte[] row = tripleRow.getRow();
-            final int firstIndex = Bytes.indexOf(row, DELIM_BYTE);
-            final int secondIndex = Bytes.lastIndexOf(row, DELIM_BYTE);
-            final int typeIndex = Bytes.indexOf(row, TYPE_DELIM_BYTE);
-            final byte[] first = Arrays.copyOf(row, firstIndex);
-            final byte[] second = Arrays.copyOfRange(row, firstIndex + 1, secondIndex);
-            final byte[] third = Arrays.copyOfRange(row, secondIndex + 1, typeIndex);
-            final byte[] type = Arrays.copyOfRange(row, typeIndex, row.length);
-            final byte[] columnFamily = tripleRow.getColumnFamily();
-            final boolean contextExists = columnFamily != null && columnFamily.length > 0;
-            final RyaIRI context = (contextExists) ? (new RyaIRI(new String(columnFamily, StandardCharsets.UTF_8))) : null;
-            final byte[] columnQualifier = tripleRow.getColumnQualifier();
-            final String qualifier = columnQualifier != null && columnQualifier.length > 0 ? new String(columnQualifier, StandardCharsets.UTF_8) : null;
-            final Long timestamp = tripleRow.getTimestamp();
-            final byte[] columnVisibility = tripleRow.getColumnVisibility();
-            final byte[] value = tripleRow.getValue();
+        assert tripleRow != null && table_layout != null;
+        final byte[] row = tripleRow.getRow();
+        return deserialize(table_layout, row, 0, row.length, tripleRow.getColumnFamily(), tripleRow.getColumnQualifier(),
+                tripleRow.getTimestamp(), tripleRow.getColumnVisibility(), tripleRow.getValue());
+    }
+
+    @Override
+    public RyaStatement deserialize(final TABLE_LAYOUT table_layout,
+            final byte[] rowBuffer, final int rowOffset, final int rowLength,
+            final byte[] columnFamily, final byte[] columnQualifier, final Long timestamp,
+            final byte[] columnVisibility, final byte[] value) throws TripleRowResolverException {
+        assert rowBuffer != null && table_layout != null;
+        final int end = rowOffset + rowLength;
+        final int firstIndex = indexOf(rowBuffer, rowOffset, end, DELIM_BYTE);
+        final int secondIndex = lastIndexOf(rowBuffer, rowOffset, end, DELIM_BYTE);
+        final int typeIndex = indexOf(rowBuffer, rowOffset, end, TYPE_DELIM_BYTE);
+        if (firstIndex < 0 || secondIndex <= firstIndex || typeIndex <= secondIndex) {
+            throw new TripleRowResolverException("Row with Table layout[" + table_layout + "] is not deserializable");
+        }
+
+        final boolean contextExists = columnFamily != null && columnFamily.length > 0;
+        final RyaIRI context = (contextExists) ? (new RyaIRI(new String(columnFamily, StandardCharsets.UTF_8))) : null;
+        final String qualifier = columnQualifier != null && columnQualifier.length > 0 ? new String(columnQualifier, StandardCharsets.UTF_8) : null;
 
+        try {
             switch (table_layout) {
                 case SPO: {
-                    final byte[] obj = Bytes.concat(third, type);
+                    // The object's value and type are already adjacent at the end of the row.
+                    final byte[] obj = copy(rowBuffer, secondIndex + 1, end, end, end);
                     return new RyaStatement(
-                            new RyaIRI(new String(first, StandardCharsets.UTF_8)),
-                            new RyaIRI(new String(second, StandardCharsets.UTF_8)),
-                            RyaContext.getInstance().deserialize(obj),
+                            new RyaIRI(decode(rowBuffer, rowOffset, firstIndex)),
+                            new RyaIRI(decode(rowBuffer, firstIndex + 1, secondIndex)),
+                            RYA_CONTEXT.deserialize(obj),
                             context, qualifier, columnVisibility, value, timestamp);
                 }
                 case PO: {
-                    final byte[] obj = Bytes.concat(second, type);
+                    final byte[] obj = copy(rowBuffer, firstIndex + 1, secondIndex, typeIndex, end);
                     return new RyaStatement(
-                            new RyaIRI(new String(third, StandardCharsets.UTF_8)),
-                            new RyaIRI(new String(first, StandardCharsets.UTF_8)),
-                            RyaContext.getInstance().deserialize(obj),
+                            new RyaIRI(decode(rowBuffer, secondIndex + 1, typeIndex)),
+                            new RyaIRI(decode(rowBuffer, rowOffset, firstIndex)),
+                            RYA_CONTEXT.deserialize(obj),
                             context, qualifier, columnVisibility, value, timestamp);
                 }
                 case OSP: {
-                    final byte[] obj = Bytes.concat(first, type);
+                    final byte[] obj = copy(rowBuffer, rowOffset, firstIndex, typeIndex, end);
                     return new RyaStatement(
-                            new RyaIRI(new String(second, StandardCharsets.UTF_8)),
-                            new RyaIRI(new String(third, StandardCharsets.UTF_8)),
-                            RyaContext.getInstance().deserialize(obj),
+                            new RyaIRI(decode(rowBuffer, firstIndex + 1, secondIndex)),
+                            new RyaIRI(decode(rowBuffer, secondIndex + 1, typeIndex)),
+                            RYA_CONTEXT.deserialize(obj),
                             context, qualifier, columnVisibility, value, timestamp);
                 }
             }
         } catch (final RyaTypeResolverException e) {
             throw new TripleRowResolverException(e);
         }
-        throw new TripleRowResolverException("TripleRow[" + tripleRow + "] with Table layout[" + table_layout + "] is not deserializable");
+        throw new TripleRowResolverException("Row with Table layout[" + table_layout + "] is not deserializable");
+    }
+
+    private static String decode(final byte[] bytes, final int start, final int end) {
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copies {@code bytes[dataStart, dataEnd)} followed by {@code bytes[typeStart, typeEnd)} into a new array.
+     */
+    private static byte[] copy(final byte[] bytes, final int dataStart, final int dataEnd, final int typeStart, final int typeEnd) {
+        final int dataLength = dataEnd - dataStart;
+        final byte[] copy = new byte[dataLength + typeEnd - typeStart];
+        System.arraycopy(bytes, dataStart, copy, 0, dataLength);
+        System.arraycopy(bytes, typeStart, copy, dataLength, typeEnd - typeStart);
+        return copy;
+    }
+
+    private static int indexOf(final byte[] bytes, final int start, final int end, final byte target) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return -1;
     }
 
+    private static int lastIndexOf(final byte[] bytes, final int start, final int end, final byte target) {
+        for (int i = end - 1; i >= start; i--) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
 }
@@ -0,0 +1,84 @@
+package org.apache.rya.api.persist;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.persist.RdfEvalStatsDAO.CARDINALITY_OF;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.Test;
+
+public class CachingRdfEvalStatsDAOTest {
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void cachesByPatternAndAuths() throws Exception {
+        final RdfEvalStatsDAO<RdfCloudTripleStoreConfiguration> delegate = mock(RdfEvalStatsDAO.class);
+        final RdfCloudTripleStoreConfiguration conf = mock(RdfCloudTripleStoreConfiguration.class);
+        when(conf.getAuths()).thenReturn(new String[] { "U" });
+
+        final List<Value> alice = Arrays.asList(VF.createIRI("urn:alice"));
+        final List<Value> bob = Arrays.asList(VF.createIRI("urn:bob"));
+        when(delegate.getCardinality(any(RdfCloudTripleStoreConfiguration.class), eq(CARDINALITY_OF.SUBJECT), eq(alice), eq(null))).thenReturn(5.0);
+        when(delegate.getCardinality(any(RdfCloudTripleStoreConfiguration.class), eq(CARDINALITY_OF.SUBJECT), eq(bob), eq(null))).thenReturn(7.0);
+
+        final CachingRdfEvalStatsDAO<RdfCloudTripleStoreConfiguration> dao = new CachingRdfEvalStatsDAO<>(delegate, 100, 60000);
+        assertEquals(5.0, dao.getCardinality(conf, CARDINALITY_OF.SUBJECT, alice, null), 0.0);
+        assertEquals(5.0, dao.getCardinality(conf, CARDINALITY_OF.SUBJECT, Arrays.asList(VF.createIRI("urn:alice")), null), 0.0);
+        assertEquals(7.0, dao.getCardinality(conf, CARDINALITY_OF.SUBJECT, bob, null), 0.0);
+        verify(delegate, times(1)).getCardinality(conf, CARDINALITY_OF.SUBJECT, alice, null);
+
+        // Different authorizations may see a different cardinality.
+        when(conf.getAuths()).thenReturn(new String[] { "U", "FOUO" });
+        dao.getCardinality(conf, CARDINALITY_OF.SUBJECT, alice, null);
+        verify(delegate, times(2)).getCardinality(conf, CARDINALITY_OF.SUBJECT, alice, null);
+
+        assertEquals(1, dao.getCacheStats().hitCount());
+
+        dao.invalidate();
+        dao.getCardinality(conf, CARDINALITY_OF.SUBJECT, bob, null);
+        verify(delegate, times(2)).getCardinality(conf, CARDINALITY_OF.SUBJECT, bob, null);
+    }
+
+    @Test(expected = RdfDAOException.class)
+    @SuppressWarnings("unchecked")
+    public void failuresAreNotCached() throws Exception {
+        final RdfEvalStatsDAO<RdfCloudTripleStoreConfiguration> delegate = mock(RdfEvalStatsDAO.class);
+        final RdfCloudTripleStoreConfiguration conf = mock(RdfCloudTripleStoreConfiguration.class);
+        final List<Value> alice = Arrays.asList(VF.createIRI("urn:alice"));
+        when(delegate.getCardinality(conf, CARDINALITY_OF.SUBJECT, alice)).thenThrow(new RdfDAOException("scan failed"));
+
+        final CachingRdfEvalStatsDAO<RdfCloudTripleStoreConfiguration> dao = new CachingRdfEvalStatsDAO<>(delegate, 100, 60000);
+        dao.getCardinality(conf, CARDINALITY_OF.SUBJECT, alice);
+    }
+}
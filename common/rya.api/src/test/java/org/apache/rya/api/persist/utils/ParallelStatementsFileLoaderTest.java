@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.api.persist.utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.rya.api.domain.RyaIRI;
+import org.apache.rya.api.domain.RyaStatement;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the methods of {@link ParallelStatementsFileLoader}.
+ */
+public class ParallelStatementsFileLoaderTest {
+
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("statements", ".nt");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void split_onLineBoundaries() throws IOException {
+        final List<String> lines = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            lines.add("<urn:s" + i + "> <urn:p> \"" + Collections.nCopies(i % 7, "é").toString() + "\" .");
+        }
+        Files.write(file, lines, UTF_8);
+        final byte[] bytes = Files.readAllBytes(file);
+
+        final long[] splits = ParallelStatementsFileLoader.split(file, 8);
+        assertEquals(9, splits.length);
+        assertEquals(0, splits[0]);
+        assertEquals(bytes.length, splits[splits.length - 1]);
+        for(int i = 1; i < splits.length - 1; i++) {
+            assertTrue(splits[i] > splits[i - 1]);
+            assertEquals('\n', bytes[(int) splits[i] - 1]);
+        }
+    }
+
+    @Test
+    public void split_moreRangesThanLines() throws IOException {
+        Files.write(file, "<urn:a> <urn:p> <urn:b> .\n".getBytes(UTF_8));
+        final long[] splits = ParallelStatementsFileLoader.split(file, 8);
+        assertEquals(2, splits.length);
+    }
+
+    @Test
+    public void load() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        for(int i = 0; i < 1000; i++) {
+            lines.add("<urn:s" + i + "> <urn:p> \"" + i + "\" .");
+            if(i % 100 == 0) {
+                lines.add("# a comment");
+                lines.add("_:b" + (i % 300) + " <urn:knows> <urn:s" + i + "> .");
+            }
+        }
+        Files.write(file, lines, UTF_8);
+
+        final ParallelStatementsFileLoader loader = new ParallelStatementsFileLoader(4, 7, 2, "U".getBytes(UTF_8));
+        final List<RyaStatement> loaded = Collections.synchronizedList(new ArrayList<>());
+        final Set<Thread> writerThreads = new HashSet<>();
+        final long count = loader.load(file, RDFFormat.NTRIPLES, batch -> {
+            assertTrue(batch.size() <= 7);
+            writerThreads.add(Thread.currentThread());
+            loaded.addAll(batch);
+        });
+
+        assertEquals(1010, count);
+        assertEquals(1010, loaded.size());
+        assertEquals(Collections.singleton(Thread.currentThread()), writerThreads);
+
+        // The same blank node label is the same node, no matter which range it was parsed in.
+        final Map<Integer, Set<RyaIRI>> bnodes = new HashMap<>();
+        final Set<String> subjects = new HashSet<>();
+        for(final RyaStatement statement : loaded) {
+            assertEquals("U", new String(statement.getColumnVisibility(), UTF_8));
+            if(statement.getPredicate().getData().equals("urn:knows")) {
+                final int i = Integer.parseInt(statement.getObject().getData().substring("urn:s".length()));
+                bnodes.computeIfAbsent(i % 300, k -> new HashSet<>()).add(statement.getSubject());
+            } else {
+                subjects.add(statement.getSubject().getData());
+            }
+        }
+        assertEquals(1000, subjects.size());
+        assertEquals(3, bnodes.size());
+        assertEquals(1, bnodes.get(0).size());
+        assertEquals(1, bnodes.get(100).size());
+        assertNotEquals(bnodes.get(0), bnodes.get(100));
+    }
+
+    @Test(expected = IOException.class)
+    public void load_malformed() throws Exception {
+        Files.write(file, "<urn:a> <urn:p> <urn:b> .\nnot a statement\n".getBytes(UTF_8));
+        new ParallelStatementsFileLoader(2, 10, 2, new byte[0]).load(file, RDFFormat.NTRIPLES, batch -> { });
+    }
+}
@@ -25,9 +25,12 @@ import junit.framework.TestCase;
 import org.apache.rya.api.RdfCloudTripleStoreConstants;
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.domain.RyaIRI;
+import org.apache.rya.api.domain.RyaType;
 import org.apache.rya.api.resolver.triple.TripleRow;
 import org.apache.rya.api.resolver.triple.TripleRowRegex;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -124,4 +127,28 @@ public class WholeRowTripleResolverTest extends TestCase {
         assertEquals(stmtContext, deserialize);
     }
 
+    public void testDeserializeRowSlice() throws Exception {
+        RyaIRI subj = new RyaIRI("urn:test#1234");
+        RyaIRI pred = new RyaIRI("urn:test#pred");
+        RyaType obj = new RyaType(XMLSchema.INTEGER, "42");
+        RyaIRI cntxt = new RyaIRI("urn:test#cntxt");
+        final RyaStatement stmt = new RyaStatement(subj, pred, obj, cntxt, null, null, null, 100l);
+
+        final Map<RdfCloudTripleStoreConstants.TABLE_LAYOUT, TripleRow> serialize = tripleResolver.serialize(stmt);
+        for (final RdfCloudTripleStoreConstants.TABLE_LAYOUT layout : serialize.keySet()) {
+            final TripleRow tripleRow = serialize.get(layout);
+
+            // Surround the row with other bytes, the way a row is held inside a larger buffer.
+            final byte[] row = tripleRow.getRow();
+            final byte[] buffer = new byte[row.length + 10];
+            Arrays.fill(buffer, (byte) 7);
+            System.arraycopy(row, 0, buffer, 4, row.length);
+
+            final RyaStatement deserialize = tripleResolver.deserialize(layout, buffer, 4, row.length,
+                    tripleRow.getColumnFamily(), tripleRow.getColumnQualifier(), tripleRow.getTimestamp(),
+                    tripleRow.getColumnVisibility(), tripleRow.getValue());
+            assertEquals(stmt, deserialize);
+        }
+    }
+
 }
@@ -45,10 +45,27 @@ public class AccumuloRdfConfiguration extends RdfCloudTripleStoreConfiguration {
 
     public static final String MAXRANGES_SCANNER = "ac.query.maxranges";
 
+    /**
+     * Whether binding set queries scan their ranges in parallel and return their results in key order.
+     */
+    public static final String CONF_ORDERED_SCAN = "ac.query.ordered";
+    public static final String CONF_SCAN_POOL_SIZE = "ac.query.scan.pool.size";
+    public static final String CONF_SCAN_MAX_BATCH = "ac.query.scan.batch.max";
+
     public static final String CONF_ADDITIONAL_INDEXERS = "ac.additional.indexers";
 
     public static final String CONF_FLUSH_EACH_UPDATE = "ac.dao.flush";
 
+    /**
+     * Whether {@link AccumuloRyaDAO#add(java.util.Iterator)} hands statements to an {@link AsyncStatementWriter}
+     * instead of writing them on the caller's thread.
+     */
+    public static final String CONF_ASYNC_INGEST = "ac.dao.async";
+    public static final String CONF_ASYNC_QUEUE_SIZE = "ac.dao.async.queue.size";
+    public static final String CONF_ASYNC_WORKERS = "ac.dao.async.workers";
+    public static final String CONF_ASYNC_COMMIT_SIZE = "ac.dao.async.commit.size";
+    public static final String CONF_ASYNC_COMMIT_MILLIS = "ac.dao.async.commit.millis";
+
     public static final String ITERATOR_SETTINGS_SIZE = "ac.iterators.size";
     public static final String ITERATOR_SETTINGS_BASE = "ac.iterators.%d.";
     public static final String ITERATOR_SETTINGS_NAME = ITERATOR_SETTINGS_BASE + "name";
@@ -310,6 +327,40 @@ public class AccumuloRdfConfiguration extends RdfCloudTripleStoreConfiguration {
         return getInt(MAXRANGES_SCANNER, 2);
     }
 
+    /**
+     * @param ordered - Whether binding set queries scan their ranges in parallel, on a pool that is shared by
+     *   every query of a query engine, and return their results in key order within each table.
+     */
+    public void setOrderedScan(final boolean ordered) {
+        setBoolean(CONF_ORDERED_SCAN, ordered);
+    }
+
+    public boolean isOrderedScan() {
+        return getBoolean(CONF_ORDERED_SCAN, false);
+    }
+
+    /**
+     * @param size - The number of threads that read ranges for ordered scans.
+     */
+    public void setScanPoolSize(final Integer size) {
+        setInt(CONF_SCAN_POOL_SIZE, size);
+    }
+
+    public Integer getScanPoolSize() {
+        return getInt(CONF_SCAN_POOL_SIZE, 4 * getNumThreads());
+    }
+
+    /**
+     * @param max - The maximum number of entries an ordered scan reads from a range at once.
+     */
+    public void setScanMaxBatch(final Integer max) {
+        setInt(CONF_SCAN_MAX_BATCH, max);
+    }
+
+    public Integer getScanMaxBatch() {
+        return getInt(CONF_SCAN_MAX_BATCH, 1000);
+    }
+
     public void setAdditionalIndexers(final Class<? extends AccumuloIndexer>... indexers) {
         final List<String> strs = Lists.newArrayList();
         for (final Class<? extends AccumuloIndexer> ai : indexers){
@@ -330,6 +381,56 @@ public class AccumuloRdfConfiguration extends RdfCloudTripleStoreConfiguration {
         setBoolean(CONF_FLUSH_EACH_UPDATE, flush);
     }
 
+    /**
+     * @param async - Whether statements that are added to the DAO are written in the background and group
+     *   committed. Write failures are reported by the next call to {@link AccumuloRyaDAO#flush()}.
+     */
+    public void setAsyncIngest(final boolean async) {
+        setBoolean(CONF_ASYNC_INGEST, async);
+    }
+
+    public boolean isAsyncIngest() {
+        return getBoolean(CONF_ASYNC_INGEST, false);
+    }
+
+    public void setAsyncQueueSize(final int size) {
+        setInt(CONF_ASYNC_QUEUE_SIZE, size);
+    }
+
+    public int getAsyncQueueSize() {
+        return getInt(CONF_ASYNC_QUEUE_SIZE, 10000);
+    }
+
+    public void setAsyncWorkers(final int workers) {
+        setInt(CONF_ASYNC_WORKERS, workers);
+    }
+
+    public int getAsyncWorkers() {
+        return getInt(CONF_ASYNC_WORKERS, 2);
+    }
+
+    /**
+     * @param size - The number of statements that are written before the asynchronous writer commits them.
+     */
+    public void setAsyncCommitSize(final int size) {
+        setInt(CONF_ASYNC_COMMIT_SIZE, size);
+    }
+
+    public int getAsyncCommitSize() {
+        return getInt(CONF_ASYNC_COMMIT_SIZE, 1000);
+    }
+
+    /**
+     * @param millis - The longest a batch that has been written waits for the asynchronous writer to commit it.
+     */
+    public void setAsyncCommitMillis(final long millis) {
+        setLong(CONF_ASYNC_COMMIT_MILLIS, millis);
+    }
+
+    public long getAsyncCommitMillis() {
+        return getLong(CONF_ASYNC_COMMIT_MILLIS, 100);
+    }
+
     public void setAdditionalIterators(final IteratorSetting... additionalIterators){
         //TODO do we need to worry about cleaning up
         this.set(ITERATOR_SETTINGS_SIZE, Integer.toString(additionalIterators.length));
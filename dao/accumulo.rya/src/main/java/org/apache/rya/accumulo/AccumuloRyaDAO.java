@@ -36,8 +36,11 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
@@ -58,6 +61,7 @@ import org.apache.accumulo.core.security.Authorizations;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.io.Text;
+import org.apache.rya.accumulo.AsyncStatementWriter.StatementTarget;
 import org.apache.rya.accumulo.experimental.AccumuloIndexer;
 import org.apache.rya.accumulo.query.AccumuloRyaQueryEngine;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
@@ -100,6 +104,11 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
     private AccumuloRyaQueryEngine queryEngine;
     private RyaTripleContext ryaContext;
 
+    private AsyncStatementWriter asyncWriter;
+    private final AtomicReference<Throwable> asyncFailure = new AtomicReference<>();
+    // Secondary indexers are not known to be thread safe, so the asynchronous writer's workers take turns.
+    private final Object indexerLock = new Object();
+
     @Override
     public boolean isInitialized() throws RyaDAOException {
         return isInitialized.get();
@@ -183,7 +192,83 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
 
     @Override
     public void add(final Iterator<RyaStatement> iter) throws RyaDAOException {
-        commit(iter);
+        if (conf.isAsyncIngest()) {
+            addAsync(iter).whenComplete((result, t) -> {
+                if (t != null) {
+                    asyncFailure.compareAndSet(null, t);
+                }
+            });
+        } else {
+            commit(iter);
+        }
+    }
+
+    /**
+     * Queues statements to be written by a pool of background workers and group committed, blocking only
+     * while the queue is full. Statements are written in no particular order, so a caller that deletes or
+     * reads them must wait for the returned future first.
+     *
+     * @param iter - The statements to add. (not null)
+     * @return A future that completes once every statement has been written and flushed to Accumulo, or
+     *   exceptionally if any of them could not be.
+     */
+    public CompletableFuture<Void> addAsync(final Iterator<RyaStatement> iter) {
+        checkNotNull(iter);
+        return getAsyncWriter().submit(iter);
+    }
+
+    private synchronized AsyncStatementWriter getAsyncWriter() {
+        if (asyncWriter == null) {
+            final StatementTarget target = new StatementTarget() {
+                @Override
+                public void write(final RyaStatement statement) throws Exception {
+                    writeMutations(statement);
+                    synchronized (indexerLock) {
+                        for (final AccumuloIndexer index : secondaryIndexers) {
+                            index.storeStatement(statement);
+                        }
+                    }
+                }
+
+                @Override
+                public void commit() throws Exception {
+                    mt_bw.flush();
+                    synchronized (indexerLock) {
+                        flushIndexers();
+                    }
+                }
+            };
+            asyncWriter = new AsyncStatementWriter(target, conf.getAsyncQueueSize(), conf.getAsyncWorkers(),
+                    conf.getAsyncCommitSize(), conf.getAsyncCommitMillis());
+        }
+        return asyncWriter;
+    }
+
+    /**
+     * Waits for the statements that have been added asynchronously to be committed.
+     *
+     * @throws RyaDAOException An asynchronously added statement could not be written.
+     */
+    private void awaitAsyncWrites() throws RyaDAOException {
+        final AsyncStatementWriter writer;
+        synchronized (this) {
+            writer = asyncWriter;
+        }
+        if (writer != null) {
+            try {
+                writer.flush().get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RyaDAOException(e);
+            } catch (final ExecutionException e) {
+                asyncFailure.compareAndSet(null, e.getCause());
+            }
+        }
+
+        final Throwable failure = asyncFailure.getAndSet(null);
+        if (failure != null) {
+            throw new RyaDAOException("Statements that were added asynchronously could not be written.", failure);
+        }
     }
 
     @Override
@@ -193,6 +278,8 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
 
     @Override
     public void delete(final Iterator<RyaStatement> statements, final AccumuloRdfConfiguration conf) throws RyaDAOException {
+        // Statements that are still being added could otherwise be written after they are deleted.
+        awaitAsyncWrites();
         try {
             while (statements.hasNext()) {
                 final RyaStatement stmt = statements.next();
@@ -272,14 +359,7 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
             //TODO: Should have a lock here in case we are adding and committing at the same time
             while (commitStatements.hasNext()) {
                 final RyaStatement stmt = commitStatements.next();
-
-                final Map<TABLE_LAYOUT, Collection<Mutation>> mutationMap = ryaTableMutationsFactory.serialize(stmt);
-                final Collection<Mutation> spo = mutationMap.get(TABLE_LAYOUT.SPO);
-                final Collection<Mutation> po = mutationMap.get(TABLE_LAYOUT.PO);
-                final Collection<Mutation> osp = mutationMap.get(TABLE_LAYOUT.OSP);
-                bw_spo.addMutations(spo);
-                bw_po.addMutations(po);
-                bw_osp.addMutations(osp);
+                writeMutations(stmt);
 
                 for (final AccumuloIndexer index : secondaryIndexers) {
                     index.storeStatement(stmt);
@@ -294,6 +374,16 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
         }
     }
 
+    private void writeMutations(final RyaStatement stmt) throws IOException, MutationsRejectedException {
+        final Map<TABLE_LAYOUT, Collection<Mutation>> mutationMap = ryaTableMutationsFactory.serialize(stmt);
+        final Collection<Mutation> spo = mutationMap.get(TABLE_LAYOUT.SPO);
+        final Collection<Mutation> po = mutationMap.get(TABLE_LAYOUT.PO);
+        final Collection<Mutation> osp = mutationMap.get(TABLE_LAYOUT.OSP);
+        bw_spo.addMutations(spo);
+        bw_po.addMutations(po);
+        bw_osp.addMutations(osp);
+    }
+
     @Override
     public void destroy() throws RyaDAOException {
         if (!isInitialized.get()) {
@@ -301,6 +391,16 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
         }
         //TODO: write lock
         try {
+            synchronized (this) {
+                if (asyncWriter != null) {
+                    asyncWriter.close();
+                    asyncWriter = null;
+                }
+            }
+            final Throwable asyncError = asyncFailure.getAndSet(null);
+            if (asyncError != null) {
+                logger.error("Statements that were added asynchronously could not be written.", asyncError);
+            }
             isInitialized.set(false);
             mt_bw.flush();
 
@@ -315,6 +415,11 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
                 logger.warn("Failed to destroy indexer", e);
             }
         }
+        try {
+            queryEngine.close();
+        } catch (final IOException e) {
+            logger.warn("Failed to close the query engine", e);
+        }
     }
 
     @Override
@@ -480,6 +585,7 @@ public class AccumuloRyaDAO implements RyaDAO<AccumuloRdfConfiguration>, RyaName
 
     @Override
     public void flush() throws RyaDAOException {
+        awaitAsyncWrites();
         try {
             mt_bw.flush();
             flushIndexers();
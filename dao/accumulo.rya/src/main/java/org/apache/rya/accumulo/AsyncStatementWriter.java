@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.rya.api.domain.RyaStatement;
+
+/**
+ * Writes batches of {@link RyaStatement}s in the background and group commits them.
+ * <p>
+ * Producers place statements on a bounded queue, so they block once the writer falls behind. A pool of
+ * worker threads takes statements off of the queue and {@link StatementTarget#write(RyaStatement) writes}
+ * them. A single committer thread {@link StatementTarget#commit() commits} everything that has been written
+ * once {@code commitSize} statements have been written since the last commit, or {@code commitMillis}
+ * milliseconds after a batch has been completely written, whichever comes first. The future of a batch
+ * completes once a commit that followed the last of its statements has finished, so a caller that waits
+ * on it knows the batch is durable.
+ * <p>
+ * Statements are written in no particular order, even within a batch. Futures are completed by the
+ * committer thread, so dependent stages should not block.
+ */
+public class AsyncStatementWriter implements AutoCloseable {
+    private static final Log log = LogFactory.getLog(AsyncStatementWriter.class);
+
+    /**
+     * Where an {@link AsyncStatementWriter} writes its statements.
+     */
+    public interface StatementTarget {
+        /**
+         * Writes a statement. Called by many worker threads at once.
+         *
+         * @param statement - The statement to write. (not null)
+         * @throws Exception The statement could not be written.
+         */
+        public void write(RyaStatement statement) throws Exception;
+
+        /**
+         * Makes every statement that has been written durable. Only called by the committer thread.
+         *
+         * @throws Exception The statements could not be committed.
+         */
+        public void commit() throws Exception;
+    }
+
+    private final StatementTarget target;
+    private final BlockingQueue<Work> queue;
+    private final int commitSize;
+    private final long commitMillis;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private final Thread committer;
+
+    // Producers hold the read lock while they enqueue so that closing waits for them.
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed = false;
+    private volatile boolean workersDone = false;
+
+    private final Lock commitLock = new ReentrantLock();
+    private final Condition commitNeeded = commitLock.newCondition();
+    private final List<Batch> ready = new ArrayList<>();
+    private final AtomicLong uncommitted = new AtomicLong();
+    private final AtomicInteger flushes = new AtomicInteger();
+    private boolean forceCommit = false;
+
+    private final Set<Batch> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs an instance of {@link AsyncStatementWriter} and starts its threads.
+     *
+     * @param target - Where the statements are written. (not null)
+     * @param queueSize - How many statements may wait to be written before producers block. (&gt; 0)
+     * @param workers - The number of threads that write statements. (&gt; 0)
+     * @param commitSize - The number of written statements that triggers a commit. (&gt; 0)
+     * @param commitMillis - The longest a completely written batch waits for a commit. (&gt; 0)
+     */
+    public AsyncStatementWriter(final StatementTarget target, final int queueSize, final int workers, final int commitSize, final long commitMillis) {
+        this.target = requireNonNull(target);
+        checkArgument(queueSize > 0, "The queue size must be positive.");
+        checkArgument(workers > 0, "The number of workers must be positive.");
+        checkArgument(commitSize > 0, "The commit size must be positive.");
+        checkArgument(commitMillis > 0, "The commit interval must be positive.");
+        queue = new ArrayBlockingQueue<>(queueSize);
+        this.commitSize = commitSize;
+        this.commitMillis = commitMillis;
+
+        for (int i = 0; i < workers; i++) {
+            final Thread worker = new Thread(this::work, "rya-async-writer-" + i);
+            worker.setDaemon(true);
+            this.workers.add(worker);
+            worker.start();
+        }
+        committer = new Thread(this::commitLoop, "rya-async-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Queues a batch of statements to be written. Blocks while the queue is full.
+     *
+     * @param statements - The statements to write. (not null)
+     * @return A future that completes once every statement of the batch has been written and committed, or
+     *   exceptionally if any of them could not be.
+     */
+    public CompletableFuture<Void> submit(final Iterator<RyaStatement> statements) {
+        requireNonNull(statements);
+        final Batch batch = new Batch();
+
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                batch.future.completeExceptionally(new IllegalStateException("The writer has been closed."));
+                return batch.future;
+            }
+
+            inFlight.add(batch);
+            try {
+                while (statements.hasNext()) {
+                    final RyaStatement statement = statements.next();
+                    batch.remaining.incrementAndGet();
+                    queue.put(new Work(statement, batch));
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.fail(e);
+            } catch (final RuntimeException e) {
+                batch.fail(e);
+            }
+            // Must happen before the writer may close, or the batch would never be committed.
+            batch.statementDone();
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return batch.future;
+    }
+
+    /**
+     * Commits as soon as the statements that have been queued are written.
+     *
+     * @return A future that completes once every batch that was in flight when this method was called has
+     *   completed, exceptionally if any of them failed.
+     */
+    public CompletableFuture<Void> flush() {
+        final CompletableFuture<?>[] futures = inFlight.stream().map(batch -> batch.future).toArray(CompletableFuture[]::new);
+        final CompletableFuture<Void> flushed = CompletableFuture.allOf(futures);
+        if (!flushed.isDone()) {
+            // Until the batches complete, each one is committed as soon as it has been written.
+            flushes.incrementAndGet();
+            flushed.whenComplete((result, t) -> flushes.decrementAndGet());
+            requestCommit();
+        }
+        return flushed;
+    }
+
+    /**
+     * Stops accepting statements, writes and commits the ones that were queued, and stops the writer's threads.
+     *
+     * @throws InterruptedException Interrupted while waiting for the threads to stop.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+        workersDone = true;
+        requestCommit();
+        committer.join();
+    }
+
+    private void requestCommit() {
+        commitLock.lock();
+        try {
+            forceCommit = true;
+            commitNeeded.signal();
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    private void work() {
+        try {
+            while (!closed || !queue.isEmpty()) {
+                final Work work = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (work == null) {
+                    continue;
+                }
+
+                try {
+                    target.write(work.statement);
+                } catch (final Exception e) {
+                    work.batch.fail(e);
+                }
+                work.batch.statementDone();
+
+                if (uncommitted.incrementAndGet() % commitSize == 0) {
+                    requestCommit();
+                }
+            }
+        } catch (final InterruptedException e) {
+            log.warn("An asynchronous statement writer was interrupted before it finished.", e);
+        }
+    }
+
+    private void commitLoop() {
+        while (true) {
+            final List<Batch> committing;
+            final boolean finished;
+            commitLock.lock();
+            try {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(commitMillis);
+                while (!forceCommit && uncommitted.get() < commitSize && (ready.isEmpty() || flushes.get() == 0) && remaining > 0) {
+                    remaining = commitNeeded.awaitNanos(remaining);
+                }
+                forceCommit = false;
+                finished = workersDone;
+                committing = new ArrayList<>(ready);
+                ready.clear();
+            } catch (final InterruptedException e) {
+                log.warn("The asynchronous statement committer was interrupted.", e);
+                return;
+            } finally {
+                commitLock.unlock();
+            }
+
+            final long written = uncommitted.get();
+            if (!committing.isEmpty() || written > 0) {
+                uncommitted.addAndGet(-written);
+                Exception failure = null;
+                try {
+                    target.commit();
+                } catch (final Exception e) {
+                    log.error("Could not commit asynchronously written statements.", e);
+                    failure = e;
+                }
+                for (final Batch batch : committing) {
+                    batch.complete(failure);
+                }
+            }
+
+            if (finished) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A statement and the batch it belongs to.
+     */
+    private static final class Work {
+        private final RyaStatement statement;
+        private final Batch batch;
+
+        public Work(final RyaStatement statement, final Batch batch) {
+            this.statement = statement;
+            this.batch = batch;
+        }
+    }
+
+    /**
+     * Tracks the statements of one call to {@link AsyncStatementWriter#submit(Iterator)}.
+     */
+    private final class Batch {
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        // Starts at one so the batch is not ready before all of its statements have been queued.
+        private final AtomicInteger remaining = new AtomicInteger(1);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        public void fail(final Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+
+        public void statementDone() {
+            if (remaining.decrementAndGet() == 0) {
+                commitLock.lock();
+                try {
+                    ready.add(this);
+                    if (flushes.get() > 0) {
+                        commitNeeded.signal();
+                    }
+                } finally {
+                    commitLock.unlock();
+                }
+            }
+        }
+
+        public void complete(final Throwable commitFailure) {
+            inFlight.remove(this);
+            final Throwable t = failure.get() != null ? failure.get() : commitFailure;
+            if (t == null) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+}
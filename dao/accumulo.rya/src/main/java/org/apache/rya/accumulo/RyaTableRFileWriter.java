@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.conf.AccumuloConfiguration;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.file.FileOperations;
+import org.apache.accumulo.core.file.FileSKVWriter;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.layout.TableLayoutStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes {@link RyaStatement}s to sorted RFiles of the SPO, PO, and OSP tables, so they may
+ * be bulk imported into Accumulo instead of being written through batch writers.
+ * <p>
+ * Entries are buffered in memory and each time the buffer fills, its entries are sorted and
+ * written to a new RFile for each table. Bulk import accepts files whose ranges overlap, so
+ * the files never have to be merged. Each table's files are written to a directory of their
+ * own beneath the work directory, next to the directory that failed imports are moved to.
+ * <p>
+ * Only the core triple tables are written. Secondary indexers do not see statements that
+ * are bulk imported.
+ */
+public class RyaTableRFileWriter implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(RyaTableRFileWriter.class);
+
+    /**
+     * The number of entries each table buffers before they are written if no other number is given.
+     */
+    public static final int DEFAULT_MAX_BUFFERED_ENTRIES = 1_000_000;
+
+    private final RdfCloudTripleStoreConfiguration conf;
+    private final FileSystem fs;
+    private final Path workDir;
+    private final int maxBufferedEntries;
+
+    private final Map<TABLE_LAYOUT, List<Map.Entry<Key, Value>>> buffers = new EnumMap<>(TABLE_LAYOUT.class);
+    private int filesWritten = 0;
+
+    /**
+     * Constructs an instance of {@link RyaTableRFileWriter}.
+     *
+     * @param conf - Names the tables and configures how statements are serialized. (not null)
+     * @param fs - The file system the RFiles are written to. Accumulo's tablet servers must be able to read it. (not null)
+     * @param workDir - The directory the RFiles are written beneath. It must not exist yet. (not null)
+     * @param maxBufferedEntries - The number of entries each table buffers before they are written. (&gt; 0)
+     * @throws IOException The work directory already exists or could not be checked.
+     */
+    public RyaTableRFileWriter(
+            final RdfCloudTripleStoreConfiguration conf,
+            final FileSystem fs,
+            final Path workDir,
+            final int maxBufferedEntries) throws IOException {
+        this.conf = requireNonNull(conf);
+        this.fs = requireNonNull(fs);
+        this.workDir = requireNonNull(workDir);
+        if(maxBufferedEntries <= 0) {
+            throw new IllegalArgumentException("The number of buffered entries must be positive.");
+        }
+        this.maxBufferedEntries = maxBufferedEntries;
+        if(fs.exists(workDir)) {
+            throw new IOException("The RFile work directory " + workDir + " already exists.");
+        }
+        for(final TABLE_LAYOUT layout : TABLE_LAYOUT.values()) {
+            buffers.put(layout, new ArrayList<Map.Entry<Key, Value>>());
+        }
+    }
+
+    /**
+     * Buffers the entries of some statements, and writes the buffers to RFiles once they are full.
+     *
+     * @param statements - The statements that will be written. (not null)
+     * @throws IOException The statements could not be serialized or written.
+     */
+    public void write(final Collection<RyaStatement> statements) throws IOException {
+        requireNonNull(statements);
+        for(final RyaStatement statement : statements) {
+            final RyaTableKeyValues keyValues = new RyaTableKeyValues(statement, conf).invoke();
+            buffers.get(TABLE_LAYOUT.SPO).addAll(keyValues.getSpo());
+            buffers.get(TABLE_LAYOUT.PO).addAll(keyValues.getPo());
+            buffers.get(TABLE_LAYOUT.OSP).addAll(keyValues.getOsp());
+        }
+        if(buffers.get(TABLE_LAYOUT.SPO).size() >= maxBufferedEntries) {
+            flush();
+        }
+    }
+
+    /**
+     * Sorts the buffered entries and writes them to a new RFile for each table.
+     *
+     * @throws IOException The RFiles could not be written.
+     */
+    public void flush() throws IOException {
+        if(buffers.get(TABLE_LAYOUT.SPO).isEmpty()) {
+            return;
+        }
+
+        final String fileName = String.format("part-%05d.rf", filesWritten++);
+        for(final TABLE_LAYOUT layout : TABLE_LAYOUT.values()) {
+            final List<Map.Entry<Key, Value>> entries = buffers.get(layout);
+            entries.sort(Map.Entry.comparingByKey());
+
+            final Path file = new Path(getFilesDir(layout), fileName);
+            final FileSKVWriter out = FileOperations.getInstance().openWriter(
+                    file.toString(), fs, fs.getConf(), AccumuloConfiguration.getDefaultConfiguration());
+            try {
+                out.startDefaultLocalityGroup();
+                Key last = null;
+                for(final Map.Entry<Key, Value> entry : entries) {
+                    // A statement that appears twice in the same millisecond has the same key.
+                    if(!entry.getKey().equals(last)) {
+                        out.append(entry.getKey(), entry.getValue());
+                        last = entry.getKey();
+                    }
+                }
+            } finally {
+                out.close();
+            }
+            entries.clear();
+        }
+        log.debug("Wrote the RFiles named {} beneath {}", fileName, workDir);
+    }
+
+    /**
+     * Writes whatever is still buffered, then bulk imports every RFile that was written into its table.
+     *
+     * @param connector - Connects to the Accumulo instance that hosts the tables. (not null)
+     * @throws IOException The RFiles could not be written, or some of them could not be imported.
+     * @throws TableNotFoundException One of the tables does not exist.
+     * @throws AccumuloException The RFiles could not be imported.
+     * @throws AccumuloSecurityException The connector's user may not bulk import into one of the tables.
+     */
+    public void importInto(final Connector connector) throws IOException, TableNotFoundException, AccumuloException, AccumuloSecurityException {
+        requireNonNull(connector);
+        flush();
+        if(filesWritten == 0) {
+            return;
+        }
+
+        for(final TABLE_LAYOUT layout : TABLE_LAYOUT.values()) {
+            final Path failures = new Path(getTableDir(layout), "failures");
+            fs.mkdirs(failures);
+
+            final String tableName = getTableName(layout);
+            log.info("Bulk importing {} RFiles into {}", filesWritten, tableName);
+            connector.tableOperations().importDirectory(tableName, getFilesDir(layout).toString(), failures.toString(), false);
+
+            final FileStatus[] failed = fs.listStatus(failures);
+            if(failed != null && failed.length > 0) {
+                throw new IOException(failed.length + " RFiles could not be imported into " + tableName + ". They were moved to " + failures);
+            }
+        }
+    }
+
+    /**
+     * Writes whatever is still buffered.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private Path getTableDir(final TABLE_LAYOUT layout) {
+        return new Path(workDir, layout.name().toLowerCase());
+    }
+
+    private Path getFilesDir(final TABLE_LAYOUT layout) {
+        return new Path(getTableDir(layout), "files");
+    }
+
+    private String getTableName(final TABLE_LAYOUT layout) {
+        final TableLayoutStrategy tables = conf.getTableLayoutStrategy();
+        switch(layout) {
+            case SPO:
+                return tables.getSpo();
+            case PO:
+                return tables.getPo();
+            case OSP:
+                return tables.getOsp();
+            default:
+                throw new IllegalArgumentException("Unknown table layout: " + layout);
+        }
+    }
+}
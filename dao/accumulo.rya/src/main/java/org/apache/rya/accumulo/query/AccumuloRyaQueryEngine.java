@@ -22,11 +22,17 @@ package org.apache.rya.accumulo.query;
 import static org.apache.rya.api.RdfCloudTripleStoreUtils.layoutToTable;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.accumulo.core.client.BatchScanner;
 import org.apache.accumulo.core.client.Connector;
@@ -64,12 +70,15 @@ import org.calrissian.mango.collect.CloseableIterable;
 import org.calrissian.mango.collect.CloseableIterables;
 import org.calrissian.mango.collect.FluentCloseableIterable;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LimitIteration;
+import org.eclipse.rdf4j.common.iteration.UnionIteration;
 import org.eclipse.rdf4j.query.BindingSet;
 
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Date: 7/17/12 Time: 9:28 AM
@@ -80,6 +89,8 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
     private Connector connector;
     private RyaTripleContext ryaContext;
     private final Map<TABLE_LAYOUT, KeyValueToRyaStatementFunction> keyValueToRyaStatementFunctionMap = new HashMap<TABLE_LAYOUT, KeyValueToRyaStatementFunction>();
+    private final RangeSelectivity selectivity = new RangeSelectivity();
+    private ExecutorService scanPool;
 
     public AccumuloRyaQueryEngine(Connector connector) {
         this(connector, new AccumuloRdfConfiguration());
@@ -124,30 +135,14 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
         Integer maxRanges = conf.getMaxRangesForScanner();
         Integer numThreads = conf.getNumThreads();
 
-        // TODO: cannot span multiple tables here
         try {
-            Collection<Range> ranges = new HashSet<Range>();
-            RangeBindingSetEntries rangeMap = new RangeBindingSetEntries();
-            TABLE_LAYOUT layout = null;
-            RyaIRI context = null;
-            TriplePatternStrategy strategy = null;
-            RyaIRI columnFamily = null;
-            boolean columnFamilySet = false;
+            // Statements are grouped by the table their ranges fall in, so a query may span tables.
+            Map<TABLE_LAYOUT, LayoutScan> scans = new EnumMap<TABLE_LAYOUT, LayoutScan>(TABLE_LAYOUT.class);
             for (Map.Entry<RyaStatement, BindingSet> stmtbs : stmts) {
                 RyaStatement stmt = stmtbs.getKey();
-                context = stmt.getContext();
-                // if all RyaStatements for this query have the same context,
-                // then set the columnFamily to be that value so that Scanner can fetch
-                // only that ColumnFamily. Otherwise set columnFamily to null so that
-                // Scanner will fetch all ColumnFamilies.
-                if (!columnFamilySet) {
-                    columnFamily = context;
-                    columnFamilySet = true;
-                } else if (columnFamily != null && !columnFamily.equals(context)) {
-                    columnFamily = null;
-                }
+                RyaIRI context = stmt.getContext();
                 BindingSet bs = stmtbs.getValue();
-                strategy = ryaContext.retrieveStrategy(stmt);
+                TriplePatternStrategy strategy = ryaContext.retrieveStrategy(stmt);
                 if (strategy == null) {
                     throw new IllegalArgumentException("TriplePattern[" + stmt + "] not supported");
                 }
@@ -157,7 +152,18 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
 
                 // use range to set scanner
                 // populate scanner based on authorizations, ttl
-                layout = entry.getKey();
+                TABLE_LAYOUT layout = entry.getKey();
+                LayoutScan scan = scans.get(layout);
+                if (scan == null) {
+                    scan = new LayoutScan(layout, strategy);
+                    scans.put(layout, scan);
+                }
+                // if all RyaStatements for this table have the same context,
+                // then set the columnFamily to be that value so that Scanner can fetch
+                // only that ColumnFamily. Otherwise set columnFamily to null so that
+                // Scanner will fetch all ColumnFamilies.
+                scan.addContext(context);
+
                 ByteRange byteRange = entry.getValue();
                 Range range = new Range(new Text(byteRange.getStart()), new Text(byteRange.getEnd()));
                 Range rangeMapRange = range;
@@ -190,49 +196,120 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
                 // process to allow for the Statement contexts to be compared
                 // with the BindingSet contexts
                 // See {@link RangeBindingSetEntries#containsKey}.
-                ranges.add(range);
-                rangeMap.put(rangeMapRange, bs);
+                scan.ranges.add(range);
+                scan.rangeMap.put(rangeMapRange, bs);
             }
             // no ranges. if strategy alone is null, it would be thrown in the loop above.
-            if (layout == null || strategy == null) {
+            if (scans.isEmpty()) {
                 return null;
             }
             String regexSubject = conf.getRegexSubject();
             String regexPredicate = conf.getRegexPredicate();
             String regexObject = conf.getRegexObject();
-            TripleRowRegex tripleRowRegex = strategy.buildRegex(regexSubject, regexPredicate, regexObject, null, null);
 
-            String table = layoutToTable(layout, conf);
-            boolean useBatchScanner = ranges.size() > maxRanges;
-            RyaStatementBindingSetKeyValueIterator iterator = null;
-            if (useBatchScanner) {
-                ScannerBase scanner = connector.createBatchScanner(table, authorizations, numThreads);
-                ((BatchScanner) scanner).setRanges(ranges);
-                fillScanner(scanner, columnFamily, null, ttl, null, tripleRowRegex, conf);
-                iterator = new RyaStatementBindingSetKeyValueIterator(layout, ryaContext, scanner, rangeMap);
-            } else {
-                Scanner scannerBase = null;
-                Iterator<Map.Entry<Key, Value>>[] iters = new Iterator[ranges.size()];
-                int i = 0;
-                for (Range range : ranges) {
-                    scannerBase = connector.createScanner(table, authorizations);
-                    scannerBase.setRange(range);
-                    fillScanner(scannerBase, columnFamily, null, ttl, null, tripleRowRegex, conf);
-                    iters[i] = scannerBase.iterator();
-                    i++;
+            List<RyaStatementBindingSetKeyValueIterator> iterators = new ArrayList<RyaStatementBindingSetKeyValueIterator>(scans.size());
+            for (LayoutScan scan : scans.values()) {
+                TripleRowRegex tripleRowRegex = scan.strategy.buildRegex(regexSubject, regexPredicate, regexObject, null, null);
+                String table = layoutToTable(scan.layout, conf);
+                if (conf.isOrderedScan()) {
+                    iterators.add(orderedScan(table, scan, authorizations, ttl, tripleRowRegex, conf));
+                } else if (scan.ranges.size() > maxRanges) {
+                    ScannerBase scanner = connector.createBatchScanner(table, authorizations, numThreads);
+                    ((BatchScanner) scanner).setRanges(scan.ranges);
+                    fillScanner(scanner, scan.columnFamily, null, ttl, null, tripleRowRegex, conf);
+                    iterators.add(new RyaStatementBindingSetKeyValueIterator(scan.layout, ryaContext, scanner, scan.rangeMap));
+                } else {
+                    Scanner scannerBase = null;
+                    Iterator<Map.Entry<Key, Value>>[] iters = new Iterator[scan.ranges.size()];
+                    int i = 0;
+                    for (Range range : scan.ranges) {
+                        scannerBase = connector.createScanner(table, authorizations);
+                        scannerBase.setRange(range);
+                        fillScanner(scannerBase, scan.columnFamily, null, ttl, null, tripleRowRegex, conf);
+                        iters[i] = scannerBase.iterator();
+                        i++;
+                    }
+                    iterators.add(new RyaStatementBindingSetKeyValueIterator(scan.layout, Iterators.concat(iters), scan.rangeMap, ryaContext));
+                }
+            }
+
+            if (iterators.size() == 1) {
+                RyaStatementBindingSetKeyValueIterator iterator = iterators.get(0);
+                if (maxResults != null) {
+                    iterator.setMaxResults(maxResults);
                 }
-                iterator = new RyaStatementBindingSetKeyValueIterator(layout, Iterators.concat(iters), rangeMap, ryaContext);
+                return iterator;
             }
+            CloseableIteration<Map.Entry<RyaStatement, BindingSet>, RyaDAOException> union =
+                    new UnionIteration<Map.Entry<RyaStatement, BindingSet>, RyaDAOException>(iterators);
             if (maxResults != null) {
-                iterator.setMaxResults(maxResults);
+                union = new LimitIteration<Map.Entry<RyaStatement, BindingSet>, RyaDAOException>(union, maxResults);
             }
-            return iterator;
+            return union;
         } catch (Exception e) {
             throw new RyaDAOException(e);
         }
 
     }
 
+    /**
+     * Scans the ranges of one table on the shared scan pool and merges their results in key order, so that
+     * the statements come back sorted the way the table is.
+     */
+    private RyaStatementBindingSetKeyValueIterator orderedScan(final String table, final LayoutScan scan, final Authorizations authorizations,
+            final Long ttl, final TripleRowRegex tripleRowRegex, final AccumuloRdfConfiguration conf) {
+        Function<Range, Scanner> scanners = new Function<Range, Scanner>() {
+            @Override
+            public Scanner apply(Range range) {
+                try {
+                    Scanner scanner = connector.createScanner(table, authorizations);
+                    scanner.setRange(range);
+                    fillScanner(scanner, scan.columnFamily, null, ttl, null, tripleRowRegex, conf);
+                    return scanner;
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        OrderedRangeScanIterator merged = new OrderedRangeScanIterator(new TreeSet<Range>(scan.ranges), scanners,
+                getScanPool(conf), selectivity, conf.getScanMaxBatch());
+        return new RyaStatementBindingSetKeyValueIterator(scan.layout, merged, scan.rangeMap, ryaContext);
+    }
+
+    private synchronized ExecutorService getScanPool(AccumuloRdfConfiguration conf) {
+        if (scanPool == null) {
+            scanPool = Executors.newFixedThreadPool(conf.getScanPoolSize(),
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("rya-scan-%d").build());
+        }
+        return scanPool;
+    }
+
+    /**
+     * The ranges of a binding set query that fall within one table.
+     */
+    private static class LayoutScan {
+        private final TABLE_LAYOUT layout;
+        private final TriplePatternStrategy strategy;
+        private final Collection<Range> ranges = new HashSet<Range>();
+        private final RangeBindingSetEntries rangeMap = new RangeBindingSetEntries();
+        private RyaIRI columnFamily = null;
+        private boolean columnFamilySet = false;
+
+        public LayoutScan(TABLE_LAYOUT layout, TriplePatternStrategy strategy) {
+            this.layout = layout;
+            this.strategy = strategy;
+        }
+
+        public void addContext(RyaIRI context) {
+            if (!columnFamilySet) {
+                columnFamily = context;
+                columnFamilySet = true;
+            } else if (columnFamily != null && !columnFamily.equals(context)) {
+                columnFamily = null;
+            }
+        }
+    }
+
     @Override
     public CloseableIteration<RyaStatement, RyaDAOException> batchQuery(Collection<RyaStatement> stmts, AccumuloRdfConfiguration conf)
             throws RyaDAOException {
@@ -456,6 +533,10 @@ public class AccumuloRyaQueryEngine implements RyaQueryEngine<AccumuloRdfConfigu
     }
 
     @Override
-    public void close() throws IOException {
+    public synchronized void close() throws IOException {
+        if (scanPool != null) {
+            scanPool.shutdownNow();
+            scanPool = null;
+        }
     }
 }
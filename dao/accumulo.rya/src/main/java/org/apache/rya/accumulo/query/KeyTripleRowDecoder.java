@@ -0,0 +1,58 @@
+package org.apache.rya.accumulo.query;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.resolver.RyaTripleContext;
+import org.apache.rya.api.resolver.triple.TripleRowResolverException;
+
+/**
+ * Deserializes {@link RyaStatement}s from Accumulo {@link Key}s, reading the row
+ * straight out of the key's backing array instead of copying it first.
+ */
+public final class KeyTripleRowDecoder {
+
+    private KeyTripleRowDecoder() {
+    }
+
+    public static RyaStatement deserialize(final RyaTripleContext context, final TABLE_LAYOUT tableLayout,
+            final Key key, final Value value) throws TripleRowResolverException {
+        final ByteSequence row = key.getRowData();
+        final byte[] rowBuffer;
+        final int rowOffset;
+        if (row.isBackedByArray()) {
+            rowBuffer = row.getBackingArray();
+            rowOffset = row.offset();
+        } else {
+            rowBuffer = row.toArray();
+            rowOffset = 0;
+        }
+        return context.deserializeTriple(tableLayout, rowBuffer, rowOffset, row.length(),
+                key.getColumnFamilyData().toArray(),
+                key.getColumnQualifierData().toArray(),
+                key.getTimestamp(),
+                key.getColumnVisibilityData().toArray(),
+                (value != null) ? value.get() : null);
+    }
+}
@@ -27,7 +27,6 @@ import org.apache.accumulo.core.data.Value;
 import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.resolver.RyaTripleContext;
-import org.apache.rya.api.resolver.triple.TripleRow;
 import org.apache.rya.api.resolver.triple.TripleRowResolverException;
 
 /**
@@ -50,14 +49,7 @@ public class KeyValueToRyaStatementFunction implements Function<Map.Entry<Key, V
         Value value = input.getValue();
         RyaStatement statement = null;
         try {
-            statement = context.deserializeTriple(tableLayout,
-                    new TripleRow(key.getRowData().toArray(),
-                            key.getColumnFamilyData().toArray(),
-                            key.getColumnQualifierData().toArray(),
-                            key.getTimestamp(),
-                            key.getColumnVisibilityData().toArray(),
-                            (value != null) ? value.get() : null
-                    ));
+            statement = KeyTripleRowDecoder.deserialize(context, tableLayout, key, value);
         } catch (TripleRowResolverException e) {
             throw new RuntimeException(e);
         }
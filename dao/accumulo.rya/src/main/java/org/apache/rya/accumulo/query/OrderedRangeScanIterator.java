@@ -0,0 +1,230 @@
+package org.apache.rya.accumulo.query;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+
+/**
+ * Scans a set of {@link Range}s of one table in parallel and returns their entries in {@link Key} order.
+ * <p>
+ * Each range is read by its own {@link Scanner}, one chunk at a time, by tasks that run on a shared
+ * {@link ExecutorService}. A task never waits for the consumer, so any number of ranges may share a
+ * pool of any size. While the consumer works through one chunk of a range, the next chunk of that range is
+ * read in the background. The first chunk is sized from the {@link RangeSelectivity} of earlier scans and
+ * each later chunk doubles, up to a maximum, so selective ranges do not buffer more than they return and
+ * large ranges quickly reach full size batches.
+ */
+public class OrderedRangeScanIterator implements Iterator<Map.Entry<Key, Value>>, Closeable {
+
+    private static final Comparator<RangeSource> BY_HEAD = new Comparator<RangeSource>() {
+        @Override
+        public int compare(final RangeSource a, final RangeSource b) {
+            return a.head.getKey().compareTo(b.head.getKey());
+        }
+    };
+
+    private final ExecutorService pool;
+    private final Function<Range, Scanner> scanners;
+    private final RangeSelectivity selectivity;
+    private final int maxChunk;
+
+    private final List<RangeSource> sources = new ArrayList<>();
+    private final PriorityQueue<RangeSource> heads;
+    private boolean started = false;
+    private boolean closed = false;
+
+    /**
+     * Constructs an instance of {@link OrderedRangeScanIterator}. No range is read until the first call to
+     * {@link #hasNext()} or {@link #next()}.
+     *
+     * @param ranges - The ranges that will be scanned. (not null)
+     * @param scanners - Creates a configured {@link Scanner} for a range. (not null)
+     * @param pool - Runs the tasks that read the ranges. (not null)
+     * @param selectivity - Sizes the first chunk of each range and records how many entries each range held. (not null)
+     * @param maxChunk - The maximum number of entries that are read from a range at once. (&gt; 0)
+     */
+    public OrderedRangeScanIterator(final Collection<Range> ranges, final Function<Range, Scanner> scanners,
+            final ExecutorService pool, final RangeSelectivity selectivity, final int maxChunk) {
+        Preconditions.checkNotNull(ranges);
+        this.scanners = Preconditions.checkNotNull(scanners);
+        this.pool = Preconditions.checkNotNull(pool);
+        this.selectivity = Preconditions.checkNotNull(selectivity);
+        Preconditions.checkArgument(maxChunk > 0, "maxChunk must be greater than 0");
+        this.maxChunk = maxChunk;
+
+        for (final Range range : ranges) {
+            sources.add(new RangeSource(range));
+        }
+        heads = new PriorityQueue<>(Math.max(1, sources.size()), BY_HEAD);
+    }
+
+    @Override
+    public boolean hasNext() {
+        start();
+        return !closed && !heads.isEmpty();
+    }
+
+    @Override
+    public Map.Entry<Key, Value> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final RangeSource source = heads.poll();
+        final Map.Entry<Key, Value> entry = source.head;
+        if (source.advance()) {
+            heads.add(source);
+        }
+        return entry;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (final RangeSource source : sources) {
+            if (source.pending != null) {
+                source.pending.cancel(true);
+            }
+        }
+        heads.clear();
+    }
+
+    /**
+     * Starts reading every range, then waits for the first chunk of each of them.
+     */
+    private void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        final int firstChunk = selectivity.getChunkSize(maxChunk);
+        for (final RangeSource source : sources) {
+            source.fetch(firstChunk);
+        }
+        for (final RangeSource source : sources) {
+            if (source.advance()) {
+                heads.add(source);
+            }
+        }
+    }
+
+    /**
+     * The chunks of one range that have been read, and the one that is being read.
+     */
+    private final class RangeSource {
+        private final Range range;
+        private Iterator<Map.Entry<Key, Value>> scan;
+        private Iterator<Map.Entry<Key, Value>> buffered = Collections.emptyIterator();
+        private Future<List<Map.Entry<Key, Value>>> pending;
+        private Map.Entry<Key, Value> head;
+        private int chunk;
+        private long read = 0;
+        private boolean exhausted = false;
+
+        public RangeSource(final Range range) {
+            this.range = range;
+        }
+
+        /**
+         * Moves {@link #head} to the range's next entry.
+         *
+         * @return {@code false} if the range has no more entries.
+         */
+        public boolean advance() {
+            if (!buffered.hasNext() && pending != null) {
+                buffered = await().iterator();
+                if (!exhausted) {
+                    fetch(Math.min(maxChunk, chunk * 2));
+                }
+            }
+
+            if (buffered.hasNext()) {
+                head = buffered.next();
+                return true;
+            }
+            head = null;
+            return false;
+        }
+
+        private void fetch(final int size) {
+            chunk = size;
+            pending = pool.submit(new Callable<List<Map.Entry<Key, Value>>>() {
+                @Override
+                public List<Map.Entry<Key, Value>> call() throws Exception {
+                    if (scan == null) {
+                        final Scanner scanner = scanners.apply(range);
+                        scanner.setBatchSize(size);
+                        scan = scanner.iterator();
+                    }
+                    final List<Map.Entry<Key, Value>> entries = new ArrayList<>(size);
+                    while (entries.size() < size && scan.hasNext()) {
+                        entries.add(scan.next());
+                    }
+                    return entries;
+                }
+            });
+        }
+
+        private List<Map.Entry<Key, Value>> await() {
+            try {
+                final List<Map.Entry<Key, Value>> entries = pending.get();
+                pending = null;
+                read += entries.size();
+                if (entries.size() < chunk) {
+                    exhausted = true;
+                    selectivity.record(read);
+                }
+                return entries;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while scanning " + range, e);
+            } catch (final ExecutionException e) {
+                throw new RuntimeException("Could not scan " + range, e.getCause());
+            }
+        }
+    }
+}
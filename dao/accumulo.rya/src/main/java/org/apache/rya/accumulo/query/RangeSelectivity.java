@@ -0,0 +1,65 @@
+package org.apache.rya.accumulo.query;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Keeps an exponentially weighted moving average of how many entries the ranges that have been scanned
+ * held, so that later scans may size their batches to match. Instances are thread safe.
+ */
+public class RangeSelectivity {
+
+    /**
+     * The smallest batch that is ever requested.
+     */
+    public static final int MIN_CHUNK = 16;
+
+    private static final double WEIGHT = 0.2;
+
+    private double average = -1;
+
+    /**
+     * Records the number of entries a range held once it has been fully scanned.
+     *
+     * @param entries - The number of entries the range held. (&gt;= 0)
+     */
+    public synchronized void record(final long entries) {
+        average = average < 0 ? entries : WEIGHT * entries + (1 - WEIGHT) * average;
+    }
+
+    /**
+     * @return The average number of entries each recorded range held, or -1 if none have been recorded.
+     */
+    public synchronized double getAverage() {
+        return average;
+    }
+
+    /**
+     * @param max - The largest batch that may be returned. (&gt; 0)
+     * @return The number of entries that should be read from a range at once.
+     */
+    public synchronized int getChunkSize(final int max) {
+        if (average < 0) {
+            return Math.min(max, MIN_CHUNK);
+        }
+        // Ask for one more entry than expected so that a typical range is read by a single batch.
+        final long size = (long) Math.ceil(average) + 1;
+        return (int) Math.max(Math.min(max, MIN_CHUNK), Math.min(max, size));
+    }
+}
@@ -19,6 +19,8 @@ package org.apache.rya.accumulo.query;
  * under the License.
  */
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
@@ -33,7 +35,6 @@ import org.apache.rya.api.RdfCloudTripleStoreUtils;
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.api.resolver.RyaTripleContext;
-import org.apache.rya.api.resolver.triple.TripleRow;
 import org.apache.rya.api.resolver.triple.TripleRowResolverException;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.query.BindingSet;
@@ -69,6 +70,13 @@ public class RyaStatementBindingSetKeyValueIterator implements CloseableIteratio
 
     @Override
     public void close() throws RyaDAOException {
+        if (dataIterator instanceof Closeable) {
+            try {
+                ((Closeable) dataIterator).close();
+            } catch (IOException e) {
+                throw new RyaDAOException(e);
+            }
+        }
         dataIterator = null;
         if (scanner != null && isBatchScanner) {
             scanner.close();
@@ -114,9 +122,7 @@ public class RyaStatementBindingSetKeyValueIterator implements CloseableIteratio
                 if (dataIterator.hasNext()) {
                     Map.Entry<Key, Value> next = dataIterator.next();
                     Key key = next.getKey();
-                    statement = ryaContext.deserializeTriple(tableLayout,
-                            new TripleRow(key.getRowData().toArray(), key.getColumnFamilyData().toArray(), key.getColumnQualifierData().toArray(),
-                                    key.getTimestamp(), key.getColumnVisibilityData().toArray(), next.getValue().get()));
+                    statement = KeyTripleRowDecoder.deserialize(ryaContext, tableLayout, key, next.getValue());
                     if (next.getValue() != null) {
                         statement.setValue(next.getValue().get());
                     }
@@ -28,7 +28,6 @@ import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.api.resolver.RyaTripleContext;
-import org.apache.rya.api.resolver.triple.TripleRow;
 import org.apache.rya.api.resolver.triple.TripleRowResolverException;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 
@@ -74,9 +73,7 @@ public class RyaStatementKeyValueIterator implements CloseableIteration<RyaState
         try {
             Map.Entry<Key, Value> next = dataIterator.next();
             Key key = next.getKey();
-            RyaStatement statement = context.deserializeTriple(tableLayout,
-                    new TripleRow(key.getRowData().toArray(), key.getColumnFamilyData().toArray(), key.getColumnQualifierData().toArray(),
-                            key.getTimestamp(), key.getColumnVisibilityData().toArray(), next.getValue().get()));
+            RyaStatement statement = KeyTripleRowDecoder.deserialize(context, tableLayout, key, next.getValue());
             if (next.getValue() != null) {
                 statement.setValue(next.getValue().get());
             }
@@ -27,6 +27,7 @@ import static org.junit.Assert.assertTrue;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.apache.accumulo.core.client.Connector;
@@ -36,6 +37,7 @@ import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.client.mock.MockInstance;
 import org.apache.accumulo.core.iterators.FirstEntryInRowIterator;
 import org.apache.rya.accumulo.query.AccumuloRyaQueryEngine;
+import org.apache.rya.api.RdfCloudTripleStoreUtils;
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.domain.RyaType;
 import org.apache.rya.api.domain.RyaIRI;
@@ -49,6 +51,8 @@ import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -561,6 +565,49 @@ public class AccumuloRyaDAOTest {
         assertEquals(0, count);
     }
 
+    @Test
+    public void testQueryWithBindingSetOrderedScan() throws Exception {
+        RyaIRI cpu = new RyaIRI(litdupsNS + "cpu");
+        RyaIRI loadPerc = new RyaIRI(litdupsNS + "loadPerc");
+        List<RyaIRI> uris = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            RyaIRI uri = new RyaIRI(litdupsNS + "uri" + i);
+            uris.add(uri);
+            dao.add(new RyaStatement(cpu, loadPerc, uri));
+        }
+
+        AccumuloRyaQueryEngine queryEngine = dao.getQueryEngine();
+        AccumuloRdfConfiguration queryConf = new AccumuloRdfConfiguration(conf);
+        queryConf.setOrderedScan(true);
+
+        // Ask for the objects in reverse order, and for one pattern that is answered by another table.
+        Collection<Map.Entry<RyaStatement, BindingSet>> stmts = new ArrayList<>();
+        for (int i = uris.size() - 1; i >= 0; i--) {
+            MapBindingSet bs = new MapBindingSet();
+            bs.addBinding("index", VF.createLiteral(i));
+            stmts.add(new RdfCloudTripleStoreUtils.CustomEntry<RyaStatement, BindingSet>(new RyaStatement(null, loadPerc, uris.get(i)), bs));
+        }
+        stmts.add(new RdfCloudTripleStoreUtils.CustomEntry<RyaStatement, BindingSet>(new RyaStatement(cpu, null, null), new MapBindingSet()));
+
+        CloseableIteration<? extends Map.Entry<RyaStatement, BindingSet>, RyaDAOException> iter = queryEngine.queryWithBindingSet(stmts, queryConf);
+        List<RyaIRI> objects = new ArrayList<>();
+        int index = 0;
+        while (iter.hasNext()) {
+            Map.Entry<RyaStatement, BindingSet> result = iter.next();
+            objects.add((RyaIRI) result.getKey().getObject());
+            if (index < uris.size()) {
+                assertEquals(VF.createLiteral(index), result.getValue().getValue("index"));
+            }
+            index++;
+        }
+        iter.close();
+
+        // The PO table's results come back in key order, followed by every statement of the SPO table.
+        List<RyaIRI> expected = new ArrayList<>(uris);
+        expected.addAll(uris);
+        assertEquals(expected, objects);
+    }
+
     @Test
     public void testLiteralTypes() throws Exception {
         RyaIRI cpu = new RyaIRI(litdupsNS + "cpu");
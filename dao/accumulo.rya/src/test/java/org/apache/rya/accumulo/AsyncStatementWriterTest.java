@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.rya.accumulo.AsyncStatementWriter.StatementTarget;
+import org.apache.rya.api.domain.RyaIRI;
+import org.apache.rya.api.domain.RyaStatement;
+import org.junit.Test;
+
+/**
+ * Tests the methods of {@link AsyncStatementWriter}.
+ */
+public class AsyncStatementWriterTest {
+
+    private static RyaStatement statement(final int i) {
+        return new RyaStatement(new RyaIRI("urn:subject:" + i), new RyaIRI("urn:predicate"), new RyaIRI("urn:object"));
+    }
+
+    private static List<String> subjects(final List<RyaStatement> statements) {
+        final List<String> subjects = new ArrayList<>();
+        for (final RyaStatement statement : statements) {
+            subjects.add(statement.getSubject().getData());
+        }
+        return subjects;
+    }
+
+    /**
+     * Records which statements have been written and which of those have been committed.
+     */
+    private static class RecordingTarget implements StatementTarget {
+        private final Set<String> written = ConcurrentHashMap.newKeySet();
+        private final Set<String> committed = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger commits = new AtomicInteger();
+
+        @Override
+        public void write(final RyaStatement statement) throws Exception {
+            if (statement.getSubject().getData().endsWith(":fail")) {
+                throw new Exception("Could not write " + statement);
+            }
+            written.add(statement.getSubject().getData());
+        }
+
+        @Override
+        public void commit() throws Exception {
+            committed.addAll(written);
+            commits.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void commitsAfterCommitSize() throws Exception {
+        final RecordingTarget target = new RecordingTarget();
+        final List<RyaStatement> statements = new ArrayList<>();
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        // A single worker writes the statements in order, so the first five batches fill the first commit.
+        try (final AsyncStatementWriter writer = new AsyncStatementWriter(target, 10, 1, 50, 60000)) {
+            for (int batch = 0; batch < 20; batch++) {
+                final List<RyaStatement> batchStatements = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    batchStatements.add(statement(batch * 10 + i));
+                }
+                statements.addAll(batchStatements);
+                futures.add(writer.submit(batchStatements.iterator()));
+            }
+
+            // The commit size is reached long before the commit interval expires.
+            CompletableFuture.allOf(futures.subList(0, 5).toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            assertTrue(target.committed.containsAll(subjects(statements.subList(0, 50))));
+
+            // The remaining batches are committed as soon as they are written once a flush is requested.
+            writer.flush().get(10, TimeUnit.SECONDS);
+            for (final CompletableFuture<Void> future : futures) {
+                assertTrue(future.isDone());
+            }
+            assertTrue(target.committed.containsAll(subjects(statements)));
+        }
+    }
+
+    @Test
+    public void commitsAfterInterval() throws Exception {
+        final RecordingTarget target = new RecordingTarget();
+        try (final AsyncStatementWriter writer = new AsyncStatementWriter(target, 10, 1, 1000, 50)) {
+            writer.submit(Collections.singletonList(statement(1)).iterator()).get(10, TimeUnit.SECONDS);
+            assertTrue(target.committed.contains("urn:subject:1"));
+        }
+    }
+
+    @Test
+    public void failedStatementFailsItsBatch() throws Exception {
+        final RecordingTarget target = new RecordingTarget();
+        try (final AsyncStatementWriter writer = new AsyncStatementWriter(target, 10, 2, 1000, 60000)) {
+            final RyaStatement failing = new RyaStatement(new RyaIRI("urn:subject:fail"), new RyaIRI("urn:predicate"), new RyaIRI("urn:object"));
+            final CompletableFuture<Void> bad = writer.submit(Arrays.asList(statement(1), failing).iterator());
+            final CompletableFuture<Void> good = writer.submit(Collections.singletonList(statement(2)).iterator());
+
+            try {
+                writer.flush().get(10, TimeUnit.SECONDS);
+            } catch (final ExecutionException e) {
+                assertEquals("Could not write " + failing, e.getCause().getMessage());
+            }
+            assertTrue(bad.isCompletedExceptionally());
+            assertFalse(good.isCompletedExceptionally());
+            assertTrue(good.isDone());
+        }
+    }
+
+    @Test
+    public void closeCommitsQueuedStatements() throws Exception {
+        final RecordingTarget target = new RecordingTarget();
+        final AsyncStatementWriter writer = new AsyncStatementWriter(target, 100, 2, 1000, 60000);
+        final List<RyaStatement> statements = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            statements.add(statement(i));
+        }
+        final CompletableFuture<Void> future = writer.submit(statements.iterator());
+        writer.close();
+
+        assertTrue(future.isDone());
+        assertFalse(future.isCompletedExceptionally());
+        assertTrue(target.committed.containsAll(subjects(statements)));
+        assertTrue(writer.submit(statements.iterator()).isCompletedExceptionally());
+    }
+}
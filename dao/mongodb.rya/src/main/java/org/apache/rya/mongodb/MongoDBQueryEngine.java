@@ -58,11 +58,12 @@ import com.mongodb.client.MongoDatabase;
 public class MongoDBQueryEngine implements RyaQueryEngine<StatefulMongoDBRdfConfiguration> {
 
     private StatefulMongoDBRdfConfiguration configuration;
-    private final MongoDBStorageStrategy<RyaStatement> strategy = new SimpleMongoDBStorageStrategy();
+    private MongoDBStorageStrategy<RyaStatement> strategy = new SimpleMongoDBStorageStrategy();
 
     @Override
     public void setConf(final StatefulMongoDBRdfConfiguration conf) {
         configuration = conf;
+        strategy = new SimpleMongoDBStorageStrategy(conf);
     }
 
     @Override
@@ -21,12 +21,14 @@ package org.apache.rya.mongodb;
 import static java.util.Objects.requireNonNull;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
 
 import org.apache.accumulo.core.security.Authorizations;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
 import org.apache.rya.mongodb.aggregation.AggregationPipelineQueryOptimizer;
+import org.apache.rya.mongodb.dao.StatementHashVersion;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -55,6 +57,8 @@ public class MongoDBRdfConfiguration extends RdfCloudTripleStoreConfiguration {
     public static final String MONGO_GEO_MAXDISTANCE = "mongo.geo.maxdist";
 
     public static final String USE_AGGREGATION_PIPELINE = "rya.mongodb.query.pipeline";
+    public static final String STATEMENT_HASH_VERSION = "rya.mongodb.hash.version";
+    public static final String STATEMENT_HASH_MIGRATING_FROM = "rya.mongodb.hash.version.migratingFrom";
 
     /**
      * Constructs an empty instance of {@link MongoDBRdfConfiguration}.
@@ -278,6 +282,53 @@ public class MongoDBRdfConfiguration extends RdfCloudTripleStoreConfiguration {
         setBoolean(USE_AGGREGATION_PIPELINE, value);
     }
 
+    /**
+     * @return The version of the hash that is stored in the hash fields of triple documents.
+     *   (default: {@link StatementHashVersion#DEFAULT})
+     */
+    public StatementHashVersion getStatementHashVersion() {
+        return StatementHashVersion.valueOf(get(STATEMENT_HASH_VERSION, StatementHashVersion.DEFAULT.name()));
+    }
+
+    /**
+     * Set the version of the hash that is stored in the hash fields of triple documents. Every document
+     * in the triples collection must use the same version, so changing the version of an existing Rya
+     * instance requires its collection to be rewritten using {@link org.apache.rya.mongodb.dao.StatementHashMigrator}.
+     *
+     * @param version - The hash version. (not null)
+     */
+    public void setStatementHashVersion(final StatementHashVersion version) {
+        requireNonNull(version);
+        set(STATEMENT_HASH_VERSION, version.name());
+    }
+
+    /**
+     * @return The version of the hash the triples collection is being migrated away from, if a migration
+     *   is in progress.
+     */
+    public Optional<StatementHashVersion> getStatementHashMigratingFrom() {
+        final String version = get(STATEMENT_HASH_MIGRATING_FROM);
+        return version == null ? Optional.empty() : Optional.of(StatementHashVersion.valueOf(version));
+    }
+
+    /**
+     * Indicate that the triples collection is being rewritten from one hash version to
+     * {@link #getStatementHashVersion()}. While it is set, queries match documents that hold either
+     * version of a hash, so the Rya instance may stay online for the migration. Clear it once the
+     * migration has finished. The aggregation pipeline joins statements on their stored hashes, so
+     * it should not be enabled until then.
+     *
+     * @param version - The version of the hash the collection is being migrated away from, or
+     *   {@code null} if no migration is in progress.
+     */
+    public void setStatementHashMigratingFrom(@Nullable final StatementHashVersion version) {
+        if (version == null) {
+            unset(STATEMENT_HASH_MIGRATING_FROM);
+        } else {
+            set(STATEMENT_HASH_MIGRATING_FROM, version.name());
+        }
+    }
+
     @Override
     public List<Class<QueryOptimizer>> getOptimizers() {
         final List<Class<QueryOptimizer>> optimizers = super.getOptimizers();
@@ -112,7 +112,7 @@ public final class MongoDBRyaDAO implements RyaDAO<StatefulMongoDBRdfConfigurati
         nameSpaceManager = new SimpleMongoDBNamespaceManager(db.getCollection(conf.getNameSpacesCollectionName()));
         queryEngine = new MongoDBQueryEngine();
         queryEngine.setConf(conf);
-        storageStrategy = new SimpleMongoDBStorageStrategy();
+        storageStrategy = new SimpleMongoDBStorageStrategy(conf);
         storageStrategy.createIndices(coll);
         for(final MongoSecondaryIndex index: secondaryIndexers) {
             index.init();
@@ -139,7 +139,13 @@ public final class MongoDBRyaDAO implements RyaDAO<StatefulMongoDBRdfConfigurati
             return;
         }
         isInitialized.set(false);
-        flush();
+        RyaDAOException flushFailure = null;
+        try {
+            flush();
+        } catch (final RyaDAOException e) {
+            // Still release everything before reporting the failure.
+            flushFailure = e;
+        }
         try {
             mongoDbBatchWriter.shutdown();
         } catch (final MongoDbBatchWriterException e) {
@@ -154,6 +160,9 @@ public final class MongoDBRyaDAO implements RyaDAO<StatefulMongoDBRdfConfigurati
         }
 
         IOUtils.closeQuietly(queryEngine);
+        if (flushFailure != null) {
+            throw flushFailure;
+        }
     }
 
     @Override
@@ -298,13 +307,26 @@ public final class MongoDBRyaDAO implements RyaDAO<StatefulMongoDBRdfConfigurati
         }
     }
 
+    /**
+     * Flushes every indexer, even if an earlier one fails. Indexers may buffer
+     * statements until they are flushed, so their failures are reported.
+     */
     private void flushIndexers() throws RyaDAOException {
+        RyaDAOException failure = null;
         for (final MongoSecondaryIndex indexer : secondaryIndexers) {
             try {
                 indexer.flush();
             } catch (final IOException e) {
                 log.error("Error flushing data in indexer: " + indexer.getClass().getSimpleName(), e);
+                if (failure == null) {
+                    failure = new RyaDAOException("Error flushing data in indexer: " + indexer.getClass().getSimpleName(), e);
+                } else {
+                    failure.addSuppressed(e);
+                }
             }
         }
+        if (failure != null) {
+            throw failure;
+        }
     }
 }
\ No newline at end of file
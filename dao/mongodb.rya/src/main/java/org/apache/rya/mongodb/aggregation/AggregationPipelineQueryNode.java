@@ -32,8 +32,11 @@ import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.SUBJECT_HA
 import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.TIMESTAMP;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -47,15 +50,16 @@ import org.apache.rya.api.domain.RyaIRI;
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.domain.RyaType;
 import org.apache.rya.api.domain.StatementMetadata;
+import org.apache.rya.api.persist.query.BindingSetBatchEvaluator;
 import org.apache.rya.api.resolver.RdfToRyaConversions;
 import org.apache.rya.mongodb.MongoDbRdfConstants;
-import org.apache.rya.mongodb.dao.MongoDBStorageStrategy;
 import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
 import org.apache.rya.mongodb.document.operators.query.ConditionalOperators;
 import org.apache.rya.mongodb.document.visibility.DocumentVisibilityAdapter;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Resource;
@@ -93,8 +97,14 @@ import com.mongodb.client.model.Projections;
  * end of the internal pipeline. In some cases, specific arguments may be
  * unsupported, in which case the pipeline is unchanged and the method returns
  * false.
+ * <p>
+ * When joined against a batch of partial solutions, the values those solutions
+ * bind are pushed into the pipeline as "$in" filters, so MongoDB only returns
+ * results that may join with the batch. Variables that come straight from the
+ * base statement pattern are filtered on the indexed hash fields before any
+ * other step runs.
  */
-public class AggregationPipelineQueryNode extends ExternalSet {
+public class AggregationPipelineQueryNode extends ExternalSet implements BindingSetBatchEvaluator {
     /**
      * An aggregation result corresponding to a solution should map this key
      * to an object which itself maps variable names to variable values.
@@ -120,8 +130,6 @@ public class AggregationPipelineQueryNode extends ExternalSet {
     private static final String JOINED_TRIPLE = "<JOINED_TRIPLE>";
     private static final String FIELDS_MATCH = "<JOIN_FIELDS_MATCH>";
 
-    private static final MongoDBStorageStrategy<RyaStatement> strategy = new SimpleMongoDBStorageStrategy();
-
     private static final Bson DEFAULT_TYPE = new Document("$literal", XMLSchema.ANYURI.stringValue());
     private static final Bson DEFAULT_CONTEXT = new Document("$literal", "");
     private static final Bson DEFAULT_DV = DocumentVisibilityAdapter.toDBObject(MongoDbRdfConstants.EMPTY_DV);
@@ -159,6 +167,17 @@ public class AggregationPipelineQueryNode extends ExternalSet {
             return varToTripleValue.keySet();
         }
 
+        /**
+         * @return A map from each variable to the field of a matching triple
+         *  that should be filtered on to restrict the variable's value: the
+         *  hash field, or the value field if the triple part isn't hashed.
+         */
+        Map<String, String> varToSourceField() {
+            final Map<String, String> sourceFields = new HashMap<>(varToTripleValue);
+            sourceFields.putAll(varToTripleHash);
+            return sourceFields;
+        }
+
         private String replace(final String original) {
             if (varToOriginalName.containsValue(original)) {
                 return varToOriginalName.inverse().get(original);
@@ -253,7 +272,7 @@ public class AggregationPipelineQueryNode extends ExternalSet {
      *  "x" followed by "y".
      * @return The argument of a "$match" query
      */
-    private static BasicDBObject getMatchExpression(final StatementPattern sp, final String ... path) {
+    private BasicDBObject getMatchExpression(final StatementPattern sp, final String ... path) {
         final Var subjVar = sp.getSubjectVar();
         final Var predVar = sp.getPredicateVar();
         final Var objVar = sp.getObjectVar();
@@ -326,6 +345,14 @@ public class AggregationPipelineQueryNode extends ExternalSet {
     private final Set<String> assuredBindingNames;
     private final Set<String> bindingNames;
     private final BiMap<String, String> varToOriginalName;
+    private final SimpleMongoDBStorageStrategy strategy;
+
+    /**
+     * Maps variables whose values are still those of the base statement
+     * pattern's triple to the triple field they may be filtered on, right
+     * after the pipeline's initial $match step.
+     */
+    private final Map<String, String> varToSourceField;
 
     private String replace(final String original) {
         if (varToOriginalName.containsValue(original)) {
@@ -344,12 +371,25 @@ public class AggregationPipelineQueryNode extends ExternalSet {
      * @param baseSP The leaf node in the query tree.
      */
     public AggregationPipelineQueryNode(final MongoCollection<Document> collection, final StatementPattern baseSP) {
+        this(collection, baseSP, new SimpleMongoDBStorageStrategy());
+    }
+
+    /**
+     * Create a pipeline query node based on a StatementPattern.
+     * @param collection The collection of triples to query.
+     * @param baseSP The leaf node in the query tree.
+     * @param strategy Determines how the triples are stored in the collection.
+     */
+    public AggregationPipelineQueryNode(final MongoCollection<Document> collection, final StatementPattern baseSP,
+            final SimpleMongoDBStorageStrategy strategy) {
         this.collection = Preconditions.checkNotNull(collection);
+        this.strategy = Preconditions.checkNotNull(strategy);
         Preconditions.checkNotNull(baseSP);
         this.varToOriginalName = HashBiMap.create();
         final StatementVarMapping mapping = new StatementVarMapping(baseSP, varToOriginalName);
         this.assuredBindingNames = new HashSet<>(mapping.varNames());
         this.bindingNames = new HashSet<>(mapping.varNames());
+        this.varToSourceField = mapping.varToSourceField();
         this.pipeline = new LinkedList<>();
         this.pipeline.add(Aggregates.match(getMatchExpression(baseSP)));
         this.pipeline.add(Aggregates.project(mapping.getProjectExpression()));
@@ -358,11 +398,29 @@ public class AggregationPipelineQueryNode extends ExternalSet {
     AggregationPipelineQueryNode(final MongoCollection<Document> collection,
             final List<Bson> pipeline, final Set<String> assuredBindingNames,
             final Set<String> bindingNames, final BiMap<String, String> varToOriginalName) {
+        this(collection, pipeline, assuredBindingNames, bindingNames, varToOriginalName,
+                new SimpleMongoDBStorageStrategy());
+    }
+
+    AggregationPipelineQueryNode(final MongoCollection<Document> collection,
+            final List<Bson> pipeline, final Set<String> assuredBindingNames,
+            final Set<String> bindingNames, final BiMap<String, String> varToOriginalName,
+            final SimpleMongoDBStorageStrategy strategy) {
+        this(collection, pipeline, assuredBindingNames, bindingNames, varToOriginalName,
+                strategy, new HashMap<>());
+    }
+
+    private AggregationPipelineQueryNode(final MongoCollection<Document> collection,
+            final List<Bson> pipeline, final Set<String> assuredBindingNames,
+            final Set<String> bindingNames, final BiMap<String, String> varToOriginalName,
+            final SimpleMongoDBStorageStrategy strategy, final Map<String, String> varToSourceField) {
         this.collection = Preconditions.checkNotNull(collection);
+        this.strategy = Preconditions.checkNotNull(strategy);
         this.pipeline = Preconditions.checkNotNull(pipeline);
         this.assuredBindingNames = Preconditions.checkNotNull(assuredBindingNames);
         this.bindingNames = Preconditions.checkNotNull(bindingNames);
         this.varToOriginalName = Preconditions.checkNotNull(varToOriginalName);
+        this.varToSourceField = Preconditions.checkNotNull(varToSourceField);
     }
 
     @Override
@@ -402,7 +460,68 @@ public class AggregationPipelineQueryNode extends ExternalSet {
     @Override
     public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(final BindingSet bindings)
             throws QueryEvaluationException {
-        return new PipelineResultIteration(collection.aggregate(pipeline), varToOriginalName, bindings);
+        return evaluate(Collections.singletonList(Preconditions.checkNotNull(bindings)));
+    }
+
+    @Override
+    public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(final Collection<BindingSet> bindingSets)
+            throws QueryEvaluationException {
+        Preconditions.checkNotNull(bindingSets);
+        if (bindingSets.isEmpty()) {
+            return new EmptyIteration<>();
+        }
+        return new PipelineResultIteration(collection.aggregate(getBatchPipeline(bindingSets)),
+                varToOriginalName, bindingSets, getBindingNames());
+    }
+
+    /**
+     * Get a copy of the pipeline that only produces results which may be
+     * compatible with at least one of a batch of partial solutions. For every
+     * variable that all of the partial solutions bind and that every result
+     * binds, a "$in" filter on the bound values is added: on the matching
+     * triples' hash fields right after the initial $match if the variable
+     * comes from the base statement pattern, and at the end of the pipeline
+     * otherwise.
+     * @param bindingSets The partial solutions that the results will be joined
+     *  with.
+     * @return The pipeline to evaluate for the batch.
+     */
+    List<Bson> getBatchPipeline(final Collection<BindingSet> bindingSets) {
+        final List<Bson> batchPipeline = new LinkedList<>(pipeline);
+        final Document sourceMatch = new Document();
+        final Document resultMatch = new Document();
+        for (final String originalName : PipelineResultIteration.getSharedBindingNames(bindingSets)) {
+            final String varName = varToOriginalName.inverse().getOrDefault(originalName, originalName);
+            if (!assuredBindingNames.contains(varName)) {
+                continue;
+            }
+            final Set<String> values = new LinkedHashSet<>();
+            for (final BindingSet bs : bindingSets) {
+                values.add(bs.getValue(originalName).stringValue());
+            }
+            final String sourceField = varToSourceField.get(varName);
+            if (sourceField == null) {
+                resultMatch.append(VALUES + "." + varName, new Document("$in", new LinkedList<>(values)));
+            }
+            else if (sourceField.equals(CONTEXT)) {
+                sourceMatch.append(sourceField, new Document("$in", new LinkedList<>(values)));
+            }
+            else {
+                final List<Object> hashes = new LinkedList<>();
+                for (final String value : values) {
+                    hashes.addAll(strategy.getHashes(value));
+                }
+                sourceMatch.append(sourceField, new Document("$in", hashes));
+            }
+        }
+        if (!sourceMatch.isEmpty()) {
+            // Directly follows the base $match so MongoDB can coalesce them and use the hash indices.
+            batchPipeline.add(1, Aggregates.match(sourceMatch));
+        }
+        if (!resultMatch.isEmpty()) {
+            batchPipeline.add(Aggregates.match(resultMatch));
+        }
+        return batchPipeline;
     }
 
     @Override
@@ -429,7 +548,9 @@ public class AggregationPipelineQueryNode extends ExternalSet {
                 new LinkedList<>(pipeline),
                 new HashSet<>(assuredBindingNames),
                 new HashSet<>(bindingNames),
-                HashBiMap.create(varToOriginalName));
+                HashBiMap.create(varToOriginalName),
+                strategy,
+                new HashMap<>(varToSourceField));
     }
 
     @Override
@@ -546,6 +667,7 @@ public class AggregationPipelineQueryNode extends ExternalSet {
         final List<Bson> projectOpts = new LinkedList<>();
         final Set<String> bindingNamesUnion = new HashSet<>();
         Set<String> bindingNamesIntersection = null;
+        final List<Map<String, String>> projectedSourceFields = new LinkedList<>();
         for (final ProjectionElemList projection : projections) {
             if (projection.getElements().isEmpty()) {
                 // Empty projections are unsupported -- fail when seen
@@ -555,6 +677,7 @@ public class AggregationPipelineQueryNode extends ExternalSet {
             final Document hashDoc = new Document();
             final Document typeDoc = new Document();
             final Set<String> projectionBindingNames = new HashSet<>();
+            final Map<String, String> projectionSourceFields = new HashMap<>();
             for (final ProjectionElem elem : projection.getElements()) {
                 String to = elem.getTargetName();
                 // If the 'to' name is invalid, replace it internally
@@ -567,6 +690,7 @@ public class AggregationPipelineQueryNode extends ExternalSet {
                     from = varToOriginalName.inverse().get(from);
                 }
                 projectionBindingNames.add(to);
+                projectionSourceFields.put(to, varToSourceField.get(from));
                 if (to.equals(from)) {
                     valueDoc.append(to, 1);
                     hashDoc.append(to, 1);
@@ -579,6 +703,7 @@ public class AggregationPipelineQueryNode extends ExternalSet {
                 }
             }
             bindingNamesUnion.addAll(projectionBindingNames);
+            projectedSourceFields.add(projectionSourceFields);
             if (bindingNamesIntersection == null) {
                 bindingNamesIntersection = new HashSet<>(projectionBindingNames);
             }
@@ -611,6 +736,18 @@ public class AggregationPipelineQueryNode extends ExternalSet {
         bindingNames.clear();
         assuredBindingNames.addAll(bindingNamesIntersection);
         bindingNames.addAll(bindingNamesUnion);
+        // A variable can still be filtered at the source if every projection
+        // takes it from the same part of the base triple.
+        varToSourceField.clear();
+        for (final String varName : bindingNamesIntersection) {
+            final Set<String> sourceFields = new HashSet<>();
+            for (final Map<String, String> projectionSourceFields : projectedSourceFields) {
+                sourceFields.add(projectionSourceFields.get(varName));
+            }
+            if (sourceFields.size() == 1 && !sourceFields.contains(null)) {
+                varToSourceField.put(varName, sourceFields.iterator().next());
+            }
+        }
         return true;
     }
 
@@ -658,7 +795,7 @@ public class AggregationPipelineQueryNode extends ExternalSet {
             else if (expr instanceof ValueConstant) {
                 final Value val = ((ValueConstant) expr).getValue();
                 valueField = new Document("$literal", val.stringValue());
-                hashField = new Document("$literal", SimpleMongoDBStorageStrategy.hash(val.stringValue()));
+                hashField = new Document("$literal", strategy.getHash(val.stringValue()));
                 if (val instanceof Literal) {
                     typeField = new Document("$literal", ((Literal) val).getDatatype().stringValue());
                 }
@@ -679,6 +816,7 @@ public class AggregationPipelineQueryNode extends ExternalSet {
         }
         assuredBindingNames.addAll(newVarNames);
         bindingNames.addAll(newVarNames);
+        varToSourceField.keySet().removeAll(newVarNames);
         final Bson projectOpts = Projections.fields(
                 Projections.computed(VALUES, Projections.fields(valueFields)),
                 Projections.computed(HASHES, Projections.fields(hashFields)),
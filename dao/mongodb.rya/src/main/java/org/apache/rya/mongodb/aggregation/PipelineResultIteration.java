@@ -18,7 +18,16 @@
  */
 package org.apache.rya.mongodb.aggregation;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.bson.Document;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
@@ -38,6 +47,12 @@ import com.mongodb.client.MongoCursor;
 /**
  * An iterator that converts the documents resulting from an
  * {@link AggregationPipelineQueryNode} into {@link BindingSet}s.
+ * <p>
+ * When given a batch of partial solutions, each document is joined with every
+ * partial solution it is compatible with. The partial solutions are indexed by
+ * the values of the variables that all of them bind and that the results may
+ * bind, so a document is only compared against the partial solutions that
+ * share those values.
  */
 public class PipelineResultIteration implements CloseableIteration<BindingSet, QueryEvaluationException> {
     private static final int BATCH_SIZE = 1000;
@@ -45,8 +60,10 @@ public class PipelineResultIteration implements CloseableIteration<BindingSet, Q
 
     private final MongoCursor<Document> cursor;
     private final Map<String, String> varToOriginalName;
-    private final BindingSet bindings;
-    private BindingSet nextSolution = null;
+    private final Collection<BindingSet> bindingSets;
+    private final List<String> keyVarNames;
+    private final Map<List<Value>, List<BindingSet>> bindingSetsByKey = new HashMap<>();
+    private final Deque<BindingSet> nextSolutions = new ArrayDeque<>();
 
     /**
      * Constructor.
@@ -61,31 +78,131 @@ public class PipelineResultIteration implements CloseableIteration<BindingSet, Q
     public PipelineResultIteration(AggregateIterable<Document> aggIter,
             Map<String, String> varToOriginalName,
             BindingSet bindings) {
+        this(aggIter, varToOriginalName, Collections.singletonList(Preconditions.checkNotNull(bindings)));
+    }
+
+    /**
+     * Constructor.
+     * @param aggIter Iterator of documents in AggregationPipelineQueryNode's
+     *  intermediate solution representation.
+     * @param varToOriginalName A mapping from field names in the pipeline
+     *  result documents to equivalent variable names in the original query.
+     *  Where an entry does not exist for a field, the field name and variable
+     *  name are assumed to be the same.
+     * @param bindingSets The partial solutions each result is joined with.
+     *  A result that is compatible with none of them is dropped.
+     */
+    public PipelineResultIteration(AggregateIterable<Document> aggIter,
+            Map<String, String> varToOriginalName,
+            Collection<BindingSet> bindingSets) {
+        this(aggIter, varToOriginalName, bindingSets, null);
+    }
+
+    /**
+     * Constructor.
+     * @param aggIter Iterator of documents in AggregationPipelineQueryNode's
+     *  intermediate solution representation.
+     * @param varToOriginalName A mapping from field names in the pipeline
+     *  result documents to equivalent variable names in the original query.
+     *  Where an entry does not exist for a field, the field name and variable
+     *  name are assumed to be the same.
+     * @param bindingSets The partial solutions each result is joined with.
+     *  A result that is compatible with none of them is dropped.
+     * @param resultBindingNames The names, in the original query, of the
+     *  variables the results may bind. The partial solutions are only indexed
+     *  by these. May be null if they are not known, in which case every
+     *  variable the partial solutions share is used.
+     */
+    public PipelineResultIteration(AggregateIterable<Document> aggIter,
+            Map<String, String> varToOriginalName,
+            Collection<BindingSet> bindingSets,
+            Set<String> resultBindingNames) {
         this.varToOriginalName = Preconditions.checkNotNull(varToOriginalName);
-        this.bindings = Preconditions.checkNotNull(bindings);
+        this.bindingSets = Preconditions.checkNotNull(bindingSets);
         Preconditions.checkNotNull(aggIter);
+        Set<String> keyVars = getSharedBindingNames(bindingSets);
+        if (resultBindingNames != null) {
+            // A variable the results never bind would leave every result
+            // without a key.
+            keyVars.retainAll(resultBindingNames);
+        }
+        this.keyVarNames = new ArrayList<>(keyVars);
+        for (BindingSet bs : bindingSets) {
+            bindingSetsByKey.computeIfAbsent(getKey(bs), key -> new ArrayList<>()).add(bs);
+        }
         aggIter.batchSize(BATCH_SIZE);
         this.cursor = aggIter.iterator();
     }
 
+    /**
+     * @param bindingSets A batch of partial solutions.
+     * @return The names of the variables that every partial solution binds.
+     */
+    static Set<String> getSharedBindingNames(Collection<BindingSet> bindingSets) {
+        Set<String> shared = null;
+        for (BindingSet bs : bindingSets) {
+            if (shared == null) {
+                shared = new HashSet<>(bs.getBindingNames());
+            }
+            else {
+                shared.retainAll(bs.getBindingNames());
+            }
+        }
+        return shared == null ? new HashSet<>() : shared;
+    }
+
+    /**
+     * @return The variables the partial solutions are indexed by.
+     */
+    List<String> getKeyVarNames() {
+        return Collections.unmodifiableList(keyVarNames);
+    }
+
+    /**
+     * @return The values the binding set has for the key variables, or null
+     *  if it does not bind all of them.
+     */
+    private List<Value> getKey(BindingSet bs) {
+        List<Value> key = new ArrayList<>(keyVarNames.size());
+        for (String varName : keyVarNames) {
+            Value value = bs.getValue(varName);
+            if (value == null) {
+                return null;
+            }
+            key.add(value);
+        }
+        return key;
+    }
+
     private void lookahead() {
-        while (nextSolution == null && cursor.hasNext()) {
-            nextSolution = docToBindingSet(cursor.next());
+        while (nextSolutions.isEmpty() && cursor.hasNext()) {
+            BindingSet result = docToBindingSet(cursor.next());
+            if (result == null) {
+                continue;
+            }
+            List<Value> key = getKey(result);
+            Collection<BindingSet> candidates = key == null ? bindingSets : bindingSetsByKey.get(key);
+            if (candidates != null) {
+                for (BindingSet candidate : candidates) {
+                    QueryBindingSet solution = join(candidate, result);
+                    if (solution != null) {
+                        nextSolutions.add(solution);
+                    }
+                }
+            }
         }
     }
 
     @Override
     public boolean hasNext() throws QueryEvaluationException {
         lookahead();
-        return nextSolution != null;
+        return !nextSolutions.isEmpty();
     }
 
     @Override
     public BindingSet next() throws QueryEvaluationException {
         lookahead();
-        BindingSet solution = nextSolution;
-        nextSolution = null;
-        return solution;
+        return nextSolutions.poll();
     }
 
     /**
@@ -101,8 +218,28 @@ public class PipelineResultIteration implements CloseableIteration<BindingSet, Q
         cursor.close();
     }
 
-    private QueryBindingSet docToBindingSet(Document result) {
+    /**
+     * @return The result joined with the partial solution, or null if they
+     *  bind a variable to different values.
+     */
+    private static QueryBindingSet join(BindingSet bindings, BindingSet result) {
         QueryBindingSet bindingSet = new QueryBindingSet(bindings);
+        for (Binding binding : result) {
+            Binding existingBinding = bindingSet.getBinding(binding.getName());
+            // If this variable is not already bound, add it.
+            if (existingBinding == null) {
+                bindingSet.addBinding(binding);
+            }
+            // If it's bound to something else, the solutions are incompatible.
+            else if (!existingBinding.getValue().equals(binding.getValue())) {
+                return null;
+            }
+        }
+        return bindingSet;
+    }
+
+    private QueryBindingSet docToBindingSet(Document result) {
+        QueryBindingSet bindingSet = new QueryBindingSet();
         Document valueSet = result.get(AggregationPipelineQueryNode.VALUES, Document.class);
         Document typeSet = result.get(AggregationPipelineQueryNode.TYPES, Document.class);
         if (valueSet != null) {
@@ -119,11 +256,9 @@ public class PipelineResultIteration implements CloseableIteration<BindingSet, Q
                     varValue = VF.createLiteral(valueString, VF.createIRI(typeString));
                 }
                 Binding existingBinding = bindingSet.getBinding(varName);
-                // If this variable is not already bound, add it.
                 if (existingBinding == null) {
                     bindingSet.addBinding(varName, varValue);
                 }
-                // If it's bound to something else, the solutions are incompatible.
                 else if (!existingBinding.getValue().equals(varValue)) {
                     return null;
                 }
@@ -22,6 +22,7 @@ import java.util.Arrays;
 
 import org.apache.rya.mongodb.MongoDBRdfConfiguration;
 import org.apache.rya.mongodb.StatefulMongoDBRdfConfiguration;
+import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
 import org.bson.Document;
 import org.eclipse.rdf4j.query.algebra.Distinct;
 import org.eclipse.rdf4j.query.algebra.Extension;
@@ -78,13 +79,25 @@ import com.mongodb.client.MongoDatabase;
  */
 public class SparqlToPipelineTransformVisitor extends AbstractQueryModelVisitor<Exception> {
     private final MongoCollection<Document> inputCollection;
+    private final SimpleMongoDBStorageStrategy strategy;
 
     /**
      * Instantiate a visitor directly from a {@link MongoCollection}.
      * @param inputCollection Stores triples.
      */
     public SparqlToPipelineTransformVisitor(MongoCollection<Document> inputCollection) {
+        this(inputCollection, new SimpleMongoDBStorageStrategy());
+    }
+
+    /**
+     * Instantiate a visitor directly from a {@link MongoCollection}.
+     * @param inputCollection Stores triples.
+     * @param strategy Determines how the triples are stored in the collection.
+     */
+    public SparqlToPipelineTransformVisitor(MongoCollection<Document> inputCollection,
+            SimpleMongoDBStorageStrategy strategy) {
         this.inputCollection = Preconditions.checkNotNull(inputCollection);
+        this.strategy = Preconditions.checkNotNull(strategy);
     }
 
     /**
@@ -96,11 +109,12 @@ public class SparqlToPipelineTransformVisitor extends AbstractQueryModelVisitor<
         MongoClient mongo = conf.getMongoClient();
         MongoDatabase db = mongo.getDatabase(conf.getMongoDBName());
         this.inputCollection = db.getCollection(conf.getTriplesCollectionName());
+        this.strategy = new SimpleMongoDBStorageStrategy(conf);
     }
 
     @Override
     public void meet(StatementPattern sp) {
-        sp.replaceWith(new AggregationPipelineQueryNode(inputCollection, sp));
+        sp.replaceWith(new AggregationPipelineQueryNode(inputCollection, sp, strategy));
     }
 
     @Override
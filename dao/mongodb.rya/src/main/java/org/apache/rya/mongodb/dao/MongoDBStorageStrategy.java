@@ -25,6 +25,7 @@ import com.mongodb.DBObject;
 
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.persist.query.RyaQuery;
+import org.bson.Document;
 
 /**
  * Defines how objects are stored in MongoDB.
@@ -36,6 +37,14 @@ public interface MongoDBStorageStrategy<T> {
 
 	public RyaStatement deserializeDBObject(DBObject queryResult);
 
+	/**
+	 * Deserializes a result {@link Document} directly, without converting it
+	 * to a {@link DBObject} first.
+	 * @param queryResult - The document returned by a query.
+	 * @return The {@link RyaStatement} the document represents.
+	 */
+	public RyaStatement deserializeDocument(Document queryResult);
+
 	public DBObject serialize(T statement);
 
 	public DBObject getQuery(RyaQuery ryaQuery);
@@ -18,11 +18,15 @@
  */
 package org.apache.rya.mongodb.dao;
 
+import static java.util.Objects.requireNonNull;
 import static org.eclipse.rdf4j.model.vocabulary.XMLSchema.ANYURI;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.codec.binary.Hex;
@@ -34,9 +38,11 @@ import org.apache.rya.api.domain.RyaType;
 import org.apache.rya.api.domain.StatementMetadata;
 import org.apache.rya.api.persist.query.RyaQuery;
 import org.apache.rya.api.utils.LiteralLanguageUtils;
+import org.apache.rya.mongodb.MongoDBRdfConfiguration;
 import org.apache.rya.mongodb.document.visibility.DocumentVisibility;
 import org.apache.rya.mongodb.document.visibility.DocumentVisibilityAdapter;
 import org.apache.rya.mongodb.document.visibility.DocumentVisibilityAdapter.MalformedDocumentVisibilityException;
+import org.bson.Document;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
 
@@ -44,6 +50,8 @@ import com.mongodb.BasicDBObject;
 import com.mongodb.DBCollection;
 import com.mongodb.DBObject;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
+
 /**
  * Defines how {@link RyaStatement}s are stored in MongoDB.
  */
@@ -66,16 +74,101 @@ public class SimpleMongoDBStorageStrategy implements MongoDBStorageStrategy<RyaS
     public static final String DOCUMENT_VISIBILITY = "documentVisibility";
 
     /**
-     * Generate the hash that will be used to index and retrieve a given value.
+     * Generate the {@link StatementHashVersion#V1} hash that will be used to index and retrieve a given value.
      * @param value  A value to be stored or accessed (e.g. a IRI or literal).
      * @return the hash associated with that value in MongoDB.
+     * @deprecated Use {@link #getHash(String)} so that the strategy's hash version is honored.
      */
+    @Deprecated
     public static String hash(final String value) {
         return DigestUtils.sha256Hex(value);
     }
 
     protected SimpleValueFactory factory = SimpleValueFactory.getInstance();
 
+    private final StatementHashVersion hashVersion;
+    private final StatementHashVersion migratingFrom;
+
+    /**
+     * Constructs an instance of {@link SimpleMongoDBStorageStrategy} that uses the
+     * {@link StatementHashVersion#DEFAULT} hash version.
+     */
+    public SimpleMongoDBStorageStrategy() {
+        this(StatementHashVersion.DEFAULT);
+    }
+
+    /**
+     * Constructs an instance of {@link SimpleMongoDBStorageStrategy}.
+     *
+     * @param hashVersion - The version of the hash that is stored in, and queried from, the hash fields. (not null)
+     */
+    public SimpleMongoDBStorageStrategy(final StatementHashVersion hashVersion) {
+        this(hashVersion, null);
+    }
+
+    /**
+     * Constructs an instance of {@link SimpleMongoDBStorageStrategy} using the hash versions that are
+     * specified by a Rya instance's configuration.
+     *
+     * @param conf - The configuration of the Rya instance. (not null)
+     */
+    public SimpleMongoDBStorageStrategy(final MongoDBRdfConfiguration conf) {
+        this(conf.getStatementHashVersion(), conf.getStatementHashMigratingFrom().orElse(null));
+    }
+
+    /**
+     * Constructs an instance of {@link SimpleMongoDBStorageStrategy}.
+     *
+     * @param hashVersion - The version of the hash that is stored in, and queried from, the hash fields. (not null)
+     * @param migratingFrom - The version of the hash the collection is being migrated away from. While it is set,
+     *   queries match documents that hold either version's hash. (may be null)
+     */
+    public SimpleMongoDBStorageStrategy(final StatementHashVersion hashVersion, @Nullable final StatementHashVersion migratingFrom) {
+        this.hashVersion = requireNonNull(hashVersion);
+        this.migratingFrom = migratingFrom == hashVersion ? null : migratingFrom;
+    }
+
+    /**
+     * @return The version of the hash that is stored in, and queried from, the hash fields.
+     */
+    public StatementHashVersion getHashVersion() {
+        return hashVersion;
+    }
+
+    /**
+     * Generate the hash that will be used to index and retrieve a given value.
+     * @param value  A value to be stored or accessed (e.g. a IRI or literal).
+     * @return the hash associated with that value in MongoDB.
+     */
+    public Object getHash(final String value) {
+        return hashVersion.hash(value);
+    }
+
+    /**
+     * @param value  A value to be accessed (e.g. a IRI or literal).
+     * @return every hash a hash field may hold for that value. While the collection is being migrated
+     *   this includes the hash of the version being migrated from.
+     */
+    public List<Object> getHashes(final String value) {
+        final Object hash = getHash(value);
+        if (migratingFrom == null) {
+            return Collections.singletonList(hash);
+        }
+        return Arrays.asList(hash, migratingFrom.hash(value));
+    }
+
+    /**
+     * @param value  A value to be accessed (e.g. a IRI or literal).
+     * @return the condition a hash field must meet to hold the hash of that value.
+     */
+    private Object getHashCondition(final String value) {
+        final List<Object> hashes = getHashes(value);
+        if (hashes.size() == 1) {
+            return hashes.get(0);
+        }
+        return new BasicDBObject("$in", hashes);
+    }
+
     @Override
     public void createIndices(final DBCollection coll){
         BasicDBObject doc = new BasicDBObject();
@@ -105,15 +198,15 @@ public class SimpleMongoDBStorageStrategy implements MongoDBStorageStrategy<RyaS
         final RyaIRI context = stmt.getContext();
         final BasicDBObject query = new BasicDBObject();
         if (subject != null){
-            query.append(SUBJECT_HASH, hash(subject.getData()));
+            query.append(SUBJECT_HASH, getHashCondition(subject.getData()));
         }
         if (object != null){
-            query.append(OBJECT_HASH, hash(object.getData()));
+            query.append(OBJECT_HASH, getHashCondition(object.getData()));
             query.append(OBJECT_TYPE, object.getDataType().toString());
             query.append(OBJECT_LANGUAGE, object.getLanguage());
         }
         if (predicate != null){
-            query.append(PREDICATE_HASH, hash(predicate.getData()));
+            query.append(PREDICATE_HASH, getHashCondition(predicate.getData()));
         }
         if (context != null){
             query.append(CONTEXT, context.getData());
@@ -123,19 +216,33 @@ public class SimpleMongoDBStorageStrategy implements MongoDBStorageStrategy<RyaS
 
     @Override
     public RyaStatement deserializeDBObject(final DBObject queryResult) {
-        final Map<?, ?> result = queryResult.toMap();
-        final String subject = (String) result.get(SUBJECT);
-        final String object = (String) result.get(OBJECT);
-        final String objectType = (String) result.get(OBJECT_TYPE);
-        final String objectLanguage = (String) result.get(OBJECT_LANGUAGE);
-        final String predicate = (String) result.get(PREDICATE);
-        final String context = (String) result.get(CONTEXT);
         DocumentVisibility documentVisibility = null;
         try {
             documentVisibility = DocumentVisibilityAdapter.toDocumentVisibility(queryResult);
         } catch (final MalformedDocumentVisibilityException e) {
             throw new RuntimeException("Unable to convert document visibility", e);
         }
+        return deserialize(queryResult.toMap(), documentVisibility);
+    }
+
+    @Override
+    public RyaStatement deserializeDocument(final Document queryResult) {
+        DocumentVisibility documentVisibility = null;
+        try {
+            documentVisibility = DocumentVisibilityAdapter.toDocumentVisibility(queryResult);
+        } catch (final MalformedDocumentVisibilityException e) {
+            throw new RuntimeException("Unable to convert document visibility", e);
+        }
+        return deserialize(queryResult, documentVisibility);
+    }
+
+    private RyaStatement deserialize(final Map<?, ?> result, final DocumentVisibility documentVisibility) {
+        final String subject = (String) result.get(SUBJECT);
+        final String object = (String) result.get(OBJECT);
+        final String objectType = (String) result.get(OBJECT_TYPE);
+        final String objectLanguage = (String) result.get(OBJECT_LANGUAGE);
+        final String predicate = (String) result.get(PREDICATE);
+        final String context = (String) result.get(CONTEXT);
         final Long timestamp = (Long) result.get(TIMESTAMP);
         final String statementMetadata = (String) result.get(STATEMENT_METADATA);
         RyaType objectRya = null;
@@ -198,11 +305,11 @@ public class SimpleMongoDBStorageStrategy implements MongoDBStorageStrategy<RyaS
         final BasicDBObject dvObject = DocumentVisibilityAdapter.toDBObject(statement.getColumnVisibility());
         final BasicDBObject doc = new BasicDBObject(ID, new String(Hex.encodeHex(bytes)))
         .append(SUBJECT, statement.getSubject().getData())
-        .append(SUBJECT_HASH, hash(statement.getSubject().getData()))
+        .append(SUBJECT_HASH, getHash(statement.getSubject().getData()))
         .append(PREDICATE, statement.getPredicate().getData())
-        .append(PREDICATE_HASH, hash(statement.getPredicate().getData()))
+        .append(PREDICATE_HASH, getHash(statement.getPredicate().getData()))
         .append(OBJECT, statement.getObject().getData())
-        .append(OBJECT_HASH, hash(statement.getObject().getData()))
+        .append(OBJECT_HASH, getHash(statement.getObject().getData()))
         .append(OBJECT_TYPE, statement.getObject().getDataType().toString())
         .append(OBJECT_LANGUAGE, statement.getObject().getLanguage())
         .append(CONTEXT, context)
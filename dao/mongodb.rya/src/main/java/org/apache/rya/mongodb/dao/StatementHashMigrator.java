@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.mongodb.dao;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.ID;
+import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.OBJECT;
+import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.OBJECT_HASH;
+import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.PREDICATE;
+import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.PREDICATE_HASH;
+import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.SUBJECT;
+import static org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy.SUBJECT_HASH;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+
+/**
+ * Rewrites the hash fields of every document in a Rya triples collection so that they hold the hash of a
+ * target {@link StatementHashVersion}.
+ * <p>
+ * The migration may run while the Rya instance is online:
+ * <ol>
+ *   <li>Configure every client of the instance with the target
+ *       {@link org.apache.rya.mongodb.MongoDBRdfConfiguration#setStatementHashVersion(StatementHashVersion) version}
+ *       and the version being {@link org.apache.rya.mongodb.MongoDBRdfConfiguration#setStatementHashMigratingFrom(StatementHashVersion)
+ *       migrated from}. New statements are written with the target version's hash and queries match either one.</li>
+ *   <li>Run the migrator. Documents are rewritten in batches, and each update is conditional on the document
+ *       still holding the hashes that were read, so it never overwrites a concurrent change.</li>
+ *   <li>Once it has finished, clear the version being migrated from.</li>
+ * </ol>
+ * The hash fields keep their names, so the collection's indices do not need to be rebuilt.
+ */
+public class StatementHashMigrator {
+    private static final Logger log = Logger.getLogger(StatementHashMigrator.class);
+
+    /**
+     * The number of documents that are rewritten by each bulk write when no batch size is given.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final String[] HASH_FIELDS = { SUBJECT_HASH, PREDICATE_HASH, OBJECT_HASH };
+    private static final String[] VALUE_FIELDS = { SUBJECT, PREDICATE, OBJECT };
+
+    private final MongoCollection<Document> triples;
+    private final StatementHashVersion target;
+    private final int batchSize;
+
+    /**
+     * Constructs an instance of {@link StatementHashMigrator}.
+     *
+     * @param triples - The Rya triples collection that will be migrated. (not null)
+     * @param target - The hash version the collection will be migrated to. (not null)
+     * @param batchSize - The number of documents that are rewritten by each bulk write. (&gt; 0)
+     */
+    public StatementHashMigrator(final MongoCollection<Document> triples, final StatementHashVersion target, final int batchSize) {
+        this.triples = requireNonNull(triples);
+        this.target = requireNonNull(target);
+        checkArgument(batchSize > 0, "The batch size must be positive.");
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Rewrites every document whose hashes were not generated by the target version.
+     *
+     * @return The number of documents that were rewritten.
+     */
+    public long migrate() {
+        final Bson projection = Projections.include(SUBJECT, SUBJECT_HASH, PREDICATE, PREDICATE_HASH, OBJECT, OBJECT_HASH);
+        final List<WriteModel<Document>> batch = new ArrayList<>(batchSize);
+        long migrated = 0;
+
+        try(final MongoCursor<Document> cursor = triples.find().projection(projection).batchSize(batchSize).iterator()) {
+            while(cursor.hasNext()) {
+                final Document doc = cursor.next();
+                final WriteModel<Document> update = makeUpdate(doc);
+                if(update != null) {
+                    batch.add(update);
+                    if(batch.size() >= batchSize) {
+                        migrated += write(batch);
+                    }
+                }
+            }
+        }
+        migrated += write(batch);
+        return migrated;
+    }
+
+    private WriteModel<Document> makeUpdate(final Document doc) {
+        final List<Bson> conditions = new ArrayList<>(HASH_FIELDS.length + 1);
+        final List<Bson> updates = new ArrayList<>(HASH_FIELDS.length);
+        conditions.add(Filters.eq(ID, doc.get(ID)));
+
+        for(int i = 0; i < HASH_FIELDS.length; i++) {
+            final Object hash = doc.get(HASH_FIELDS[i]);
+            final String value = doc.getString(VALUE_FIELDS[i]);
+            if(value != null && (hash == null || !target.isVersionOf(hash))) {
+                conditions.add(Filters.eq(HASH_FIELDS[i], hash));
+                updates.add(Updates.set(HASH_FIELDS[i], target.hash(value)));
+            }
+        }
+
+        if(updates.isEmpty()) {
+            return null;
+        }
+        return new UpdateOneModel<>(Filters.and(conditions), Updates.combine(updates));
+    }
+
+    private long write(final List<WriteModel<Document>> batch) {
+        if(batch.isEmpty()) {
+            return 0;
+        }
+        final long modified = triples.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        log.debug("Migrated " + modified + " of a batch of " + batch.size() + " statements to hash version " + target + ".");
+        batch.clear();
+        return modified;
+    }
+
+    /**
+     * Migrates the triples collection of a Rya instance.
+     *
+     * @param args - The MongoDB hostname, port, database name, Rya instance name, target hash version, and an
+     *   optional batch size.
+     */
+    public static void main(final String[] args) {
+        if(args.length < 5 || args.length > 6) {
+            System.err.println("Usage: StatementHashMigrator <hostname> <port> <database> <ryaInstance> <V1|V2> [batchSize]");
+            System.exit(1);
+        }
+
+        final StatementHashVersion target = StatementHashVersion.valueOf(args[4]);
+        final int batchSize = args.length == 6 ? Integer.parseInt(args[5]) : DEFAULT_BATCH_SIZE;
+
+        final MongoClient client = new MongoClient(args[0], Integer.parseInt(args[1]));
+        try {
+            final MongoCollection<Document> triples = client.getDatabase(args[2]).getCollection(args[3] + "_triples");
+            final long migrated = new StatementHashMigrator(triples, target, batchSize).migrate();
+            System.out.println("Migrated " + migrated + " statements to hash version " + target + ".");
+        } finally {
+            client.close();
+        }
+    }
+}
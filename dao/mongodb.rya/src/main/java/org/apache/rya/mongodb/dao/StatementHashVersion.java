@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.mongodb.dao;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.bson.types.Binary;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * The versions of the hash that {@link SimpleMongoDBStorageStrategy} stores in the
+ * {@link SimpleMongoDBStorageStrategy#SUBJECT_HASH}, {@link SimpleMongoDBStorageStrategy#PREDICATE_HASH},
+ * and {@link SimpleMongoDBStorageStrategy#OBJECT_HASH} fields of a triple document. The hashes are only
+ * used to index and look up values, so they do not need to be cryptographic.
+ * <p>
+ * Every document within a collection must use the same version. Use {@link StatementHashMigrator} to
+ * rewrite a collection that was written with a different version.
+ */
+public enum StatementHashVersion {
+
+    /**
+     * The original hash: a SHA-256 digest stored as a 64 character hex string.
+     */
+    V1 {
+        @Override
+        public Object hash(final String value) {
+            return DigestUtils.sha256Hex(value);
+        }
+
+        @Override
+        public boolean isVersionOf(final Object hash) {
+            return hash instanceof String;
+        }
+    },
+
+    /**
+     * A 128-bit Murmur3 hash stored as 16 bytes of BSON binary data. It is much cheaper to compute
+     * than {@link #V1} and makes the hash indices roughly a quarter of the size.
+     */
+    V2 {
+        private final HashFunction murmur = Hashing.murmur3_128();
+
+        @Override
+        public Object hash(final String value) {
+            return new Binary(murmur.hashString(value, StandardCharsets.UTF_8).asBytes());
+        }
+
+        @Override
+        public boolean isVersionOf(final Object hash) {
+            return hash instanceof Binary || hash instanceof byte[];
+        }
+    };
+
+    /**
+     * The version used when a Rya instance does not specify one. Existing collections were all written
+     * with {@link #V1}, so it stays the default.
+     */
+    public static final StatementHashVersion DEFAULT = V1;
+
+    /**
+     * Generate the hash that will be used to index and retrieve a given value.
+     *
+     * @param value - A value to be stored or accessed (e.g. a IRI or literal). (not null)
+     * @return The hash associated with that value in MongoDB.
+     */
+    public abstract Object hash(String value);
+
+    /**
+     * @param hash - A hash that was read from a triple document. (not null)
+     * @return {@code true} if the hash was generated by this version; otherwise {@code false}.
+     */
+    public abstract boolean isVersionOf(Object hash);
+
+    /**
+     * Determines which version generated a hash that was read from a triple document.
+     *
+     * @param hash - The hash to inspect. (not null)
+     * @return The version that generated the hash, or {@code null} if no version could have.
+     */
+    public static @Nullable StatementHashVersion versionOf(final Object hash) {
+        requireNonNull(hash);
+        for(final StatementHashVersion version : values()) {
+            if(version.isVersionOf(hash)) {
+                return version;
+            }
+        }
+        return null;
+    }
+}
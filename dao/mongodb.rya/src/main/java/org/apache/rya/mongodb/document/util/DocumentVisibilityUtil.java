@@ -328,4 +328,23 @@ public final class DocumentVisibilityUtil {
         }
         return list.toArray(new Object[0]);
     }
-}
\ No newline at end of file
+
+    /**
+     * Converts a {@link List} into an array of {@link Object}s. Any nested
+     * lists are converted as well.
+     * @param list the {@link List} to convert.
+     * @return the array of {@link Object}s.
+     */
+    public static Object[] convertListToObjectArray(final List<?> list) {
+        final Object[] array = new Object[list.size()];
+        int i = 0;
+        for (final Object child : list) {
+            if (child instanceof List) {
+                array[i++] = convertListToObjectArray((List<?>) child);
+            } else {
+                array[i++] = child;
+            }
+        }
+        return array;
+    }
+}
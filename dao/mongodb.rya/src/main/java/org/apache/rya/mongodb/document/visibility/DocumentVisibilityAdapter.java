@@ -18,11 +18,14 @@
  */
 package org.apache.rya.mongodb.document.visibility;
 
+import java.util.List;
+
 import org.apache.log4j.Logger;
 import org.apache.rya.mongodb.MongoDbRdfConstants;
 import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
 import org.apache.rya.mongodb.document.util.DocumentVisibilityConversionException;
 import org.apache.rya.mongodb.document.util.DocumentVisibilityUtil;
+import org.bson.Document;
 
 import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
@@ -124,6 +127,31 @@ public final class DocumentVisibilityAdapter {
         }
     }
 
+    /**
+     * Deserializes a MongoDB {@link Document} to a {@link DocumentVisibility}.
+     * @param document the {@link Document} to be deserialized.
+     * @return the {@link DocumentVisibility} object.
+     * @throws MalformedDocumentVisibilityException
+     */
+    public static DocumentVisibility toDocumentVisibility(final Document document) throws MalformedDocumentVisibilityException {
+        try {
+            final Object documentVisibilityObject = document.get(DOCUMENT_VISIBILITY_KEY);
+            Object[] documentVisibilityArray = null;
+            if (documentVisibilityObject instanceof Object[]) {
+                documentVisibilityArray = (Object[]) documentVisibilityObject;
+            } else if (documentVisibilityObject instanceof List) {
+                documentVisibilityArray = DocumentVisibilityUtil.convertListToObjectArray((List<?>) documentVisibilityObject);
+            }
+
+            final String documentVisibilityString = DocumentVisibilityUtil.multidimensionalArrayToBooleanString(documentVisibilityArray);
+            final DocumentVisibility dv = documentVisibilityString == null ? MongoDbRdfConstants.EMPTY_DV : new DocumentVisibility(documentVisibilityString);
+
+            return dv;
+        } catch(final Exception e) {
+            throw new MalformedDocumentVisibilityException("Failed to make Document Visibility from Mongo Document, it is malformed.", e);
+        }
+    }
+
     /**
      * Exception thrown when a MongoDB {@link DBObject} is malformed when
      * attempting to adapt it into a {@link DocumentVisibility}.
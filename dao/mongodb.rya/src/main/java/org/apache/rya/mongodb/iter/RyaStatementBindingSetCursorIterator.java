@@ -19,11 +19,22 @@
 package org.apache.rya.mongodb.iter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.accumulo.core.security.Authorizations;
 import org.apache.log4j.Logger;
@@ -37,29 +48,52 @@ import org.bson.Document;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.query.BindingSet;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Iterators;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mongodb.DBObject;
 import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.util.JSON;
+import com.mongodb.client.MongoCursor;
 
+/**
+ * Iterates over the results of a batch of statement queries, pairing each result with the binding sets of
+ * every query it answers.
+ * <p>
+ * The queries are sent to MongoDB in batches of {@value #QUERY_BATCH_SIZE} {@code $or} clauses. While one
+ * batch's cursor is being drained, the aggregation for the next batch is already running on a background
+ * thread. Results are decoded directly from the returned {@link Document}s, and the binding sets a result
+ * joins with are found through a hash index keyed on the positions each query binds, rather than by testing
+ * the result against every query in the batch.
+ */
 public class RyaStatementBindingSetCursorIterator implements CloseableIteration<Entry<RyaStatement, BindingSet>, RyaDAOException> {
     private static final Logger log = Logger.getLogger(RyaStatementBindingSetCursorIterator.class);
 
     private static final int QUERY_BATCH_SIZE = 50;
+    private static final int CURSOR_BATCH_SIZE = 1000;
+
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("Mongo Statement Prefetch Thread - %d")
+            .setDaemon(true)
+            .build());
 
     private final MongoCollection<Document> coll;
     private final Multimap<RyaStatement, BindingSet> rangeMap;
-    private final Multimap<RyaStatement, BindingSet> executedRangeMap = HashMultimap.create();
     private final Iterator<RyaStatement> queryIterator;
-    private Iterator<Document> batchQueryResultsIterator;
-    private RyaStatement currentResultStatement;
-    private Iterator<BindingSet> currentBindingSetIterator;
     private final MongoDBStorageStrategy<RyaStatement> strategy;
     private final Authorizations auths;
 
+    /**
+     * Cursors that have been opened but not yet closed, so that closing this iterator also closes any cursor a
+     * prefetch opened. Guarded by {@code this}.
+     */
+    private final Set<MongoCursor<Document>> openCursors = new HashSet<>();
+    private volatile boolean closed = false;
+
+    private Batch currentBatch;
+    private Future<Batch> nextBatch;
+    private RyaStatement currentResultStatement;
+    private Iterator<BindingSet> currentBindingSetIterator;
+
     public RyaStatementBindingSetCursorIterator(final MongoCollection<Document> coll,
             final Multimap<RyaStatement, BindingSet> rangeMap, final MongoDBStorageStrategy<RyaStatement> strategy,
             final Authorizations auths) {
@@ -71,7 +105,7 @@ public class RyaStatementBindingSetCursorIterator implements CloseableIteration<
     }
 
     @Override
-    public boolean hasNext() {
+    public boolean hasNext() throws RyaDAOException {
         if (!currentBindingSetIteratorIsValid()) {
             findNextResult();
         }
@@ -79,7 +113,7 @@ public class RyaStatementBindingSetCursorIterator implements CloseableIteration<
     }
 
     @Override
-    public Entry<RyaStatement, BindingSet> next() {
+    public Entry<RyaStatement, BindingSet> next() throws RyaDAOException {
         if (!currentBindingSetIteratorIsValid()) {
             findNextResult();
         }
@@ -94,85 +128,124 @@ public class RyaStatementBindingSetCursorIterator implements CloseableIteration<
         return (currentBindingSetIterator != null) && currentBindingSetIterator.hasNext();
     }
 
-    private void findNextResult() {
-        if (!currentBatchQueryResultCursorIsValid()) {
-            submitBatchQuery();
-        }
+    private void findNextResult() throws RyaDAOException {
+        while (!closed) {
+            if (currentBatch == null || !currentBatch.cursor.hasNext()) {
+                if (currentBatch != null) {
+                    closeCursor(currentBatch.cursor);
+                }
+                currentBatch = takeNextBatch();
+                if (currentBatch == null) {
+                    return;
+                }
+                continue;
+            }
 
-        if (currentBatchQueryResultCursorIsValid()) {
             // convert to Rya Statement
-            final Document queryResult = batchQueryResultsIterator.next();
-            final DBObject dbo = (DBObject) JSON.parse(queryResult.toJson());
-            currentResultStatement = strategy.deserializeDBObject(dbo);
-
-            // Find all of the queries in the executed RangeMap that this result matches
-            // and collect all of those binding sets
-            final Set<BindingSet> bsList = new HashSet<>();
-            for (final RyaStatement executedQuery : executedRangeMap.keys()) {
-                if (isResultForQuery(executedQuery, currentResultStatement)) {
-                    bsList.addAll(executedRangeMap.get(executedQuery));
-                }
+            final Document queryResult = currentBatch.cursor.next();
+            currentResultStatement = strategy.deserializeDocument(queryResult);
+
+            // Find the binding sets of all the queries in the batch that this result matches.
+            final Collection<BindingSet> bindingSets = currentBatch.index.getBindingSets(currentResultStatement);
+            if (!bindingSets.isEmpty()) {
+                currentBindingSetIterator = bindingSets.iterator();
+                return;
             }
-            currentBindingSetIterator = bsList.iterator();
         }
+    }
 
-        // Handle case of invalid currentResultStatement or no binding sets returned
-        if ((currentBindingSetIterator == null || !currentBindingSetIterator.hasNext()) && (currentBatchQueryResultCursorIsValid() || queryIterator.hasNext())) {
-            findNextResult();
+    /**
+     * Waits for the batch that is being prefetched and starts prefetching the one after it.
+     *
+     * @return The next batch of results, or {@code null} if every query has been executed.
+     */
+    private Batch takeNextBatch() throws RyaDAOException {
+        if (nextBatch == null) {
+            nextBatch = submitBatchQuery();
+            if (nextBatch == null) {
+                return null;
+            }
         }
-    }
 
-    private static boolean isResultForQuery(final RyaStatement query, final RyaStatement result) {
-        return isResult(query.getSubject(), result.getSubject()) &&
-                isResult(query.getPredicate(), result.getPredicate()) &&
-                isResult(query.getObject(), result.getObject()) &&
-                isResult(query.getContext(), result.getContext());
-    }
+        final Batch batch;
+        try {
+            batch = nextBatch.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RyaDAOException("Interrupted while waiting for a batch of query results.", e);
+        } catch (final ExecutionException e) {
+            throw new RyaDAOException("Unable to query the batch of statements.", e.getCause());
+        } catch (final CancellationException e) {
+            return null;
+        }
 
-    private static boolean isResult(final RyaType query, final RyaType result) {
-        return (query == null) || query.equals(result);
+        nextBatch = submitBatchQuery();
+        return batch;
     }
 
-    private void submitBatchQuery() {
-        int count = 0;
-        executedRangeMap.clear();
-        final List<Document> pipeline = new ArrayList<>();
+    /**
+     * Pulls the next batch of queries off of the query iterator and starts their aggregation in the background.
+     *
+     * @return The pending batch, or {@code null} if there are no more queries to execute.
+     */
+    private Future<Batch> submitBatchQuery() {
+        final BindingSetIndex index = new BindingSetIndex();
         final List<DBObject> match = new ArrayList<>();
 
-        while (queryIterator.hasNext() && count < QUERY_BATCH_SIZE){
-            count++;
+        while (queryIterator.hasNext() && match.size() < QUERY_BATCH_SIZE) {
             final RyaStatement query = queryIterator.next();
-            executedRangeMap.putAll(query, rangeMap.get(query));
-            final DBObject currentQuery = strategy.getQuery(query);
-            match.add(currentQuery);
+            index.put(query, rangeMap.get(query));
+            match.add(strategy.getQuery(query));
         }
 
+        final List<Document> pipeline = new ArrayList<>();
         if (match.size() > 1) {
             pipeline.add(new Document("$match", new Document("$or", match)));
         } else if (match.size() == 1) {
             pipeline.add(new Document("$match", match.get(0)));
         } else {
-            batchQueryResultsIterator = Iterators.emptyIterator();
-            return;
+            return null;
         }
 
         // Executing redact aggregation to only return documents the user has access to.
         pipeline.addAll(AggregationUtil.createRedactPipeline(auths));
         log.trace(pipeline);
 
-        final AggregateIterable<Document> aggIter = coll.aggregate(pipeline);
-        aggIter.batchSize(1000);
-        batchQueryResultsIterator = aggIter.iterator();
+        return PREFETCH_EXECUTOR.submit(() -> {
+            final AggregateIterable<Document> aggIter = coll.aggregate(pipeline);
+            aggIter.batchSize(CURSOR_BATCH_SIZE);
+            final MongoCursor<Document> cursor = aggIter.iterator();
+            synchronized (this) {
+                if (closed) {
+                    cursor.close();
+                    throw new CancellationException("The iterator was closed while its results were being fetched.");
+                }
+                openCursors.add(cursor);
+            }
+            return new Batch(index, cursor);
+        });
     }
 
-    private boolean currentBatchQueryResultCursorIsValid() {
-        return (batchQueryResultsIterator != null) && batchQueryResultsIterator.hasNext();
+    private synchronized void closeCursor(final MongoCursor<Document> cursor) {
+        openCursors.remove(cursor);
+        cursor.close();
     }
 
-
     @Override
     public void close() throws RyaDAOException {
-        // TODO don't know what to do here
+        synchronized (this) {
+            closed = true;
+            for (final MongoCursor<Document> cursor : openCursors) {
+                cursor.close();
+            }
+            openCursors.clear();
+        }
+        if (nextBatch != null) {
+            nextBatch.cancel(false);
+            nextBatch = null;
+        }
+        currentBatch = null;
+        currentBindingSetIterator = null;
     }
 
     @Override
@@ -180,4 +253,82 @@ public class RyaStatementBindingSetCursorIterator implements CloseableIteration<
         next();
     }
 
+    /**
+     * The results of one batch of queries and the binding sets those queries were made for.
+     */
+    private static class Batch {
+        private final BindingSetIndex index;
+        private final MongoCursor<Document> cursor;
+
+        public Batch(final BindingSetIndex index, final MongoCursor<Document> cursor) {
+            this.index = index;
+            this.cursor = cursor;
+        }
+    }
+
+    /**
+     * Indexes the binding sets of a batch of queries by the values each query binds. Queries are grouped by
+     * which of the subject, predicate, object, and context positions they bind, so finding every query a result
+     * matches takes one hash lookup per group instead of one comparison per query.
+     */
+    private static class BindingSetIndex {
+        private static final int SUBJECT = 1;
+        private static final int PREDICATE = 1 << 1;
+        private static final int OBJECT = 1 << 2;
+        private static final int CONTEXT = 1 << 3;
+
+        private final Map<Integer, Map<List<RyaType>, Set<BindingSet>>> bindingSetsByBoundPositions = new HashMap<>();
+
+        public void put(final RyaStatement query, final Collection<BindingSet> bindingSets) {
+            final int boundPositions = getBoundPositions(query);
+            bindingSetsByBoundPositions.computeIfAbsent(boundPositions, k -> new HashMap<>())
+                    .computeIfAbsent(makeKey(boundPositions, query), k -> new LinkedHashSet<>())
+                    .addAll(bindingSets);
+        }
+
+        public Collection<BindingSet> getBindingSets(final RyaStatement result) {
+            Collection<BindingSet> matched = Collections.emptySet();
+            boolean copied = false;
+            for (final Entry<Integer, Map<List<RyaType>, Set<BindingSet>>> entry : bindingSetsByBoundPositions.entrySet()) {
+                final Set<BindingSet> bindingSets = entry.getValue().get( makeKey(entry.getKey(), result) );
+                if (bindingSets != null) {
+                    if (matched.isEmpty()) {
+                        matched = bindingSets;
+                    } else {
+                        if (!copied) {
+                            matched = new LinkedHashSet<>(matched);
+                            copied = true;
+                        }
+                        matched.addAll(bindingSets);
+                    }
+                }
+            }
+            return matched;
+        }
+
+        private static int getBoundPositions(final RyaStatement query) {
+            int boundPositions = 0;
+            if (query.getSubject() != null) {
+                boundPositions |= SUBJECT;
+            }
+            if (query.getPredicate() != null) {
+                boundPositions |= PREDICATE;
+            }
+            if (query.getObject() != null) {
+                boundPositions |= OBJECT;
+            }
+            if (query.getContext() != null) {
+                boundPositions |= CONTEXT;
+            }
+            return boundPositions;
+        }
+
+        private static List<RyaType> makeKey(final int boundPositions, final RyaStatement statement) {
+            return Arrays.asList(
+                    (boundPositions & SUBJECT) != 0 ? statement.getSubject() : null,
+                    (boundPositions & PREDICATE) != 0 ? statement.getPredicate() : null,
+                    (boundPositions & OBJECT) != 0 ? statement.getObject() : null,
+                    (boundPositions & CONTEXT) != 0 ? statement.getContext() : null);
+        }
+    }
 }
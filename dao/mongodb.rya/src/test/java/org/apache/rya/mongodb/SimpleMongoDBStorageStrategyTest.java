@@ -22,6 +22,9 @@ import static org.eclipse.rdf4j.model.vocabulary.XMLSchema.ANYURI;
 import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.rya.api.domain.RyaIRI;
@@ -30,9 +33,12 @@ import org.apache.rya.api.domain.RyaStatement.RyaStatementBuilder;
 import org.apache.rya.api.domain.RyaType;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
+import org.apache.rya.mongodb.dao.StatementHashVersion;
 import org.apache.rya.mongodb.document.util.DocumentVisibilityConversionException;
 import org.apache.rya.mongodb.document.util.DocumentVisibilityUtil;
 import org.apache.rya.mongodb.document.visibility.DocumentVisibility;
+import org.bson.Document;
+import org.bson.types.Binary;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.junit.Test;
 
@@ -144,4 +150,53 @@ public class SimpleMongoDBStorageStrategyTest {
         statement.setTimestamp(null);
         assertEquals(testStatement2, statement);
     }
+
+    @Test
+    public void testDeSerializeStatementFromDocument() throws RyaDAOException, MongoException, IOException {
+        // The driver returns the document visibility as nested lists rather than arrays.
+        final Document document = new Document(testDBO2.toMap());
+        document.put(SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY, toList((Object[]) testDBO2.get(SimpleMongoDBStorageStrategy.DOCUMENT_VISIBILITY)));
+
+        final RyaStatement statement = storageStrategy.deserializeDocument(document);
+        statement.setTimestamp(null);
+        assertEquals(testStatement2, statement);
+    }
+
+    @Test
+    public void testSerializeStatementWithBinaryHashes() throws RyaDAOException, MongoException, IOException {
+        final SimpleMongoDBStorageStrategy binaryStrategy = new SimpleMongoDBStorageStrategy(StatementHashVersion.V2);
+        final DBObject dbo = binaryStrategy.serialize(testStatement);
+
+        final Binary subjectHash = (Binary) dbo.get(SimpleMongoDBStorageStrategy.SUBJECT_HASH);
+        assertEquals(16, subjectHash.length());
+        assertEquals(StatementHashVersion.V2, StatementHashVersion.versionOf(subjectHash));
+        assertEquals(StatementHashVersion.V2.hash(PREDICATE), dbo.get(SimpleMongoDBStorageStrategy.PREDICATE_HASH));
+        assertEquals(StatementHashVersion.V2.hash(OBJECT), dbo.get(SimpleMongoDBStorageStrategy.OBJECT_HASH));
+
+        // The hashes are not needed to read the statement back.
+        final RyaStatement statement = binaryStrategy.deserializeDBObject(dbo);
+        statement.setTimestamp(null);
+        assertEquals(testStatement, statement);
+    }
+
+    @Test
+    public void testQueryWhileMigrating() {
+        final RyaStatement query = new RyaStatement(new RyaIRI(SUBJECT), null, null);
+
+        final DBObject binaryQuery = new SimpleMongoDBStorageStrategy(StatementHashVersion.V2).getQuery(query);
+        assertEquals(StatementHashVersion.V2.hash(SUBJECT), binaryQuery.get(SimpleMongoDBStorageStrategy.SUBJECT_HASH));
+
+        final DBObject migratingQuery = new SimpleMongoDBStorageStrategy(StatementHashVersion.V2, StatementHashVersion.V1).getQuery(query);
+        final DBObject expected = new BasicDBObject("$in",
+                Arrays.asList(StatementHashVersion.V2.hash(SUBJECT), DigestUtils.sha256Hex(SUBJECT)));
+        assertEquals(expected, migratingQuery.get(SimpleMongoDBStorageStrategy.SUBJECT_HASH));
+    }
+
+    private static List<Object> toList(final Object[] array) {
+        final List<Object> list = new ArrayList<>();
+        for (final Object child : array) {
+            list.add(child instanceof Object[] ? toList((Object[]) child) : child);
+        }
+        return list;
+    }
 }
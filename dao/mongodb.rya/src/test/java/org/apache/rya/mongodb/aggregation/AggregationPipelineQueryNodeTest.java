@@ -22,11 +22,15 @@ import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
+import org.bson.BsonDocument;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.algebra.Compare;
 import org.eclipse.rdf4j.query.algebra.ExtensionElem;
 import org.eclipse.rdf4j.query.algebra.IsLiteral;
@@ -36,6 +40,7 @@ import org.eclipse.rdf4j.query.algebra.ProjectionElemList;
 import org.eclipse.rdf4j.query.algebra.StatementPattern;
 import org.eclipse.rdf4j.query.algebra.ValueConstant;
 import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -43,8 +48,10 @@ import org.mockito.Mockito;
 
 import com.google.common.collect.HashBiMap;
 import com.google.common.collect.Sets;
+import com.mongodb.MongoClient;
 import com.mongodb.MongoNamespace;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
 
 public class AggregationPipelineQueryNodeTest {
     private static final ValueFactory VF = SimpleValueFactory.getInstance();
@@ -57,6 +64,10 @@ public class AggregationPipelineQueryNodeTest {
         return new Var(value.stringValue(), value);
     }
 
+    private static BsonDocument render(Bson stage) {
+        return stage.toBsonDocument(Document.class, MongoClient.getDefaultCodecRegistry());
+    }
+
     private MongoCollection<Document> collection;
 
     @Before
@@ -328,4 +339,44 @@ public class AggregationPipelineQueryNodeTest {
         Assert.assertEquals(Sets.newHashSet("x", "y"), node.getAssuredBindingNames());
         Assert.assertEquals(1, node.getPipeline().size());
     }
+
+    @Test
+    public void testBatchPipeline() {
+        final SimpleMongoDBStorageStrategy strategy = new SimpleMongoDBStorageStrategy();
+        final StatementPattern sp = new StatementPattern(new Var("x"), constant(RDF.TYPE), new Var("type"));
+        final AggregationPipelineQueryNode node = new AggregationPipelineQueryNode(collection, sp, strategy);
+        node.joinWith(new StatementPattern(new Var("x"), constant(TAKES), new Var("c")));
+        final List<Bson> pipeline = node.getPipeline();
+        final List<BindingSet> batch = Arrays.asList(
+                new ListBindingSet(Arrays.asList("x", "c"), VF.createIRI("urn:Alice"), VF.createIRI("urn:Math")),
+                new ListBindingSet(Arrays.asList("x", "c"), VF.createIRI("urn:Bob"), VF.createIRI("urn:Math")),
+                new ListBindingSet(Arrays.asList("x", "opt"), VF.createIRI("urn:Bob"), VF.createIRI("urn:Opt")));
+        final List<Bson> batchPipeline = node.getBatchPipeline(batch);
+        // Only 'x' is bound by every solution. It comes from the base
+        // statement pattern, so it's matched right after the first step.
+        Assert.assertEquals(pipeline.size() + 1, batchPipeline.size());
+        Assert.assertEquals(pipeline.get(0), batchPipeline.get(0));
+        Assert.assertEquals(pipeline.subList(1, pipeline.size()), batchPipeline.subList(2, batchPipeline.size()));
+        final Bson sourceMatch = Aggregates.match(new Document(SimpleMongoDBStorageStrategy.SUBJECT_HASH,
+                new Document("$in", Arrays.asList(strategy.getHash("urn:Alice"), strategy.getHash("urn:Bob")))));
+        Assert.assertEquals(render(sourceMatch), render(batchPipeline.get(1)));
+        // 'c' only comes from the joined statement pattern, so it's matched at the end.
+        final List<Bson> joinedBatchPipeline = node.getBatchPipeline(batch.subList(0, 2));
+        Assert.assertEquals(pipeline.size() + 2, joinedBatchPipeline.size());
+        final Bson resultMatch = Aggregates.match(new Document("<VALUES>.c",
+                new Document("$in", Arrays.asList("urn:Math"))));
+        Assert.assertEquals(render(resultMatch), render(joinedBatchPipeline.get(joinedBatchPipeline.size() - 1)));
+        // The node's own pipeline is left alone.
+        Assert.assertEquals(pipeline, node.getPipeline());
+        // Once renamed by a projection, the variable is still traced to the base triple.
+        final ProjectionElemList projection = new ProjectionElemList();
+        projection.addElement(new ProjectionElem("x", "student"));
+        node.project(Arrays.asList(projection));
+        final List<Bson> projectedBatchPipeline = node.getBatchPipeline(Arrays.asList(
+                new ListBindingSet(Arrays.asList("student"), VF.createIRI("urn:Alice"))));
+        Assert.assertEquals(node.getPipeline().size() + 1, projectedBatchPipeline.size());
+        Assert.assertEquals(render(Aggregates.match(new Document(SimpleMongoDBStorageStrategy.SUBJECT_HASH,
+                new Document("$in", Arrays.asList(strategy.getHash("urn:Alice")))))),
+                render(projectedBatchPipeline.get(1)));
+    }
 }
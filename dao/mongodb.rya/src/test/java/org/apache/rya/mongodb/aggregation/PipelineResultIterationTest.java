@@ -21,6 +21,7 @@ package org.apache.rya.mongodb.aggregation;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 
 import org.bson.Document;
 import org.eclipse.rdf4j.model.ValueFactory;
@@ -149,4 +150,54 @@ public class PipelineResultIterationTest {
         Assert.assertEquals("urn:Dan", bs.getBinding("d").getValue().stringValue());
         Assert.assertFalse(iter.hasNext());
     }
+
+    @Test
+    public void testIterationGivenBatch() throws QueryEvaluationException {
+        // Every solution binds 'x', which the results never bind
+        final List<BindingSet> batch = Arrays.asList(
+                new ListBindingSet(Arrays.asList("a", "c", "x"), VF.createIRI("urn:Alice"), VF.createIRI("urn:Charlie"), VF.createIRI("urn:X1")),
+                new ListBindingSet(Arrays.asList("a", "c", "x"), VF.createIRI("urn:Alice"), VF.createIRI("urn:Carol"), VF.createIRI("urn:X2")),
+                new ListBindingSet(Arrays.asList("a", "x"), VF.createIRI("urn:Amy"), VF.createIRI("urn:X3")));
+        PipelineResultIteration iter = new PipelineResultIteration(
+                documentIterator(
+                        new Document("<VALUES>", new Document("a", "urn:Alice").append("b", "urn:Bob")),
+                        new Document("<VALUES>", new Document("a", "urn:Andy").append("b", "urn:Beth")),
+                        new Document("<VALUES>", new Document("a", "urn:Amy").append("c", "urn:Carol")),
+                        new Document("<VALUES>", new Document("b", "urn:Bob").append("c", "urn:Carol"))),
+                new HashMap<>(),
+                batch,
+                Sets.newHashSet("a", "b", "c"));
+        // The solutions are indexed by 'a' alone, since no result can bind 'x'
+        Assert.assertEquals(Arrays.asList("a"), iter.getKeyVarNames());
+        // First result joins with both of Alice's solutions
+        Assert.assertTrue(iter.hasNext());
+        BindingSet bs = iter.next();
+        Assert.assertEquals(Sets.newHashSet("a", "b", "c", "x"), bs.getBindingNames());
+        Assert.assertEquals("urn:Bob", bs.getBinding("b").getValue().stringValue());
+        Assert.assertEquals("urn:Charlie", bs.getBinding("c").getValue().stringValue());
+        Assert.assertTrue(iter.hasNext());
+        bs = iter.next();
+        Assert.assertEquals("urn:Bob", bs.getBinding("b").getValue().stringValue());
+        Assert.assertEquals("urn:Carol", bs.getBinding("c").getValue().stringValue());
+        // Skip second result (no solution binds 'a=Andy')
+        // Third result joins with Amy's solution
+        Assert.assertTrue(iter.hasNext());
+        bs = iter.next();
+        Assert.assertEquals(Sets.newHashSet("a", "c", "x"), bs.getBindingNames());
+        Assert.assertEquals("urn:Amy", bs.getBinding("a").getValue().stringValue());
+        Assert.assertEquals("urn:Carol", bs.getBinding("c").getValue().stringValue());
+        Assert.assertEquals("urn:X3", bs.getBinding("x").getValue().stringValue());
+        // Fourth result doesn't bind 'a', so it is compared against every solution
+        Assert.assertTrue(iter.hasNext());
+        bs = iter.next();
+        Assert.assertEquals(Sets.newHashSet("a", "b", "c", "x"), bs.getBindingNames());
+        Assert.assertEquals("urn:Alice", bs.getBinding("a").getValue().stringValue());
+        Assert.assertEquals("urn:Carol", bs.getBinding("c").getValue().stringValue());
+        Assert.assertTrue(iter.hasNext());
+        bs = iter.next();
+        Assert.assertEquals(Sets.newHashSet("a", "b", "c", "x"), bs.getBindingNames());
+        Assert.assertEquals("urn:Amy", bs.getBinding("a").getValue().stringValue());
+        Assert.assertEquals("urn:Carol", bs.getBinding("c").getValue().stringValue());
+        Assert.assertFalse(iter.hasNext());
+    }
 }
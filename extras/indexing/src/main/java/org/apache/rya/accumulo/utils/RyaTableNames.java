@@ -85,6 +85,7 @@ public class RyaTableNames {
 
         if(details.getTemporalIndexDetails().isEnabled()) {
             tables.add( AccumuloTemporalIndexer.makeTableName(ryaInstanceName) );
+            tables.add( AccumuloTemporalIndexer.makeIntervalTableName(ryaInstanceName) );
         }
 
 /**
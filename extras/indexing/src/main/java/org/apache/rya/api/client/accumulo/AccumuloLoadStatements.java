@@ -30,6 +30,7 @@ import org.apache.rya.api.client.InstanceExists;
 import org.apache.rya.api.client.LoadStatements;
 import org.apache.rya.api.client.RyaClientException;
 import org.apache.rya.api.persist.RyaDAOException;
+import org.apache.rya.rdftriplestore.RdfCloudTripleStore;
 import org.apache.rya.rdftriplestore.inference.InferenceEngineException;
 import org.apache.rya.sail.config.RyaSailFactory;
 import org.eclipse.rdf4j.model.Statement;
@@ -82,6 +83,7 @@ public class AccumuloLoadStatements extends AccumuloCommand implements LoadState
             // Get a Sail object that is connected to the Rya instance.
             final AccumuloRdfConfiguration ryaConf = getAccumuloConnectionDetails().buildAccumuloRdfConfiguration(ryaInstanceName);
             ryaConf.setFlush(false); //RYA-327 should address this hardcoded value.
+            ryaConf.setAsyncIngest(true);
             sail = RyaSailFactory.getInstance(ryaConf);
 
             // Load the file.
@@ -89,6 +91,9 @@ public class AccumuloLoadStatements extends AccumuloCommand implements LoadState
             sailRepoConn = sailRepo.getConnection();
             sailRepoConn.add(statements);
 
+            // Wait for the statements that are being written in the background to be durable.
+            ((RdfCloudTripleStore<?>) sail).getRyaDAO().flush();
+
         } catch (final SailException | AccumuloException | AccumuloSecurityException | RyaDAOException | InferenceEngineException  e) {
             log.warn("Exception while loading:", e);
             throw new RyaClientException("A problem connecting to the Rya instance named '" + ryaInstanceName + "' has caused the load to fail.", e);
@@ -21,18 +21,24 @@ package org.apache.rya.api.client.accumulo;
 import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
 import org.apache.accumulo.core.client.Connector;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.log4j.Logger;
 import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.RyaTableRFileWriter;
 import org.apache.rya.api.client.InstanceDoesNotExistException;
 import org.apache.rya.api.client.InstanceExists;
 import org.apache.rya.api.client.LoadStatementsFile;
 import org.apache.rya.api.client.RyaClientException;
+import org.apache.rya.api.persist.RyaDAO;
 import org.apache.rya.api.persist.RyaDAOException;
+import org.apache.rya.api.persist.utils.ParallelStatementsFileLoader;
+import org.apache.rya.rdftriplestore.RdfCloudTripleStore;
 import org.apache.rya.rdftriplestore.inference.InferenceEngineException;
 import org.apache.rya.sail.config.RyaSailFactory;
 import org.eclipse.rdf4j.repository.RepositoryException;
@@ -126,4 +132,73 @@ public class AccumuloLoadStatementsFile extends AccumuloCommand implements LoadS
             }
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void loadStatements(
+            final String ryaInstanceName,
+            final Path statementsFile,
+            final RDFFormat format,
+            final BulkLoadConfiguration bulkLoadConfig) throws InstanceDoesNotExistException, RyaClientException {
+        requireNonNull(ryaInstanceName);
+        requireNonNull(statementsFile);
+        requireNonNull(format);
+        requireNonNull(bulkLoadConfig);
+
+        if(!ParallelStatementsFileLoader.isSupported(format)) {
+            log.info(format.getName() + " files can not be split by line, so " + statementsFile + " will be loaded on a single thread.");
+            loadStatements(ryaInstanceName, statementsFile, format);
+            return;
+        }
+
+        // Ensure the Rya Instance exists.
+        if(!instanceExists.exists(ryaInstanceName)) {
+            throw new InstanceDoesNotExistException(String.format("There is no Rya instance named '%s'.", ryaInstanceName));
+        }
+
+        final AccumuloRdfConfiguration ryaConf = getAccumuloConnectionDetails().buildAccumuloRdfConfiguration(ryaInstanceName);
+        ryaConf.setFlush(false);
+        final String cv = ryaConf.getCv();
+        final ParallelStatementsFileLoader loader = new ParallelStatementsFileLoader(
+                bulkLoadConfig.getParserThreads(),
+                bulkLoadConfig.getBatchSize(),
+                bulkLoadConfig.getQueueSize(),
+                cv == null ? new byte[0] : cv.getBytes(StandardCharsets.UTF_8));
+
+        try {
+            if(bulkLoadConfig.getRFileDirectory().isPresent()) {
+                // Write sorted RFiles of the triple tables and bulk import them.
+                final org.apache.hadoop.fs.Path workDir = new org.apache.hadoop.fs.Path(bulkLoadConfig.getRFileDirectory().get());
+                final FileSystem fs = workDir.getFileSystem(ryaConf);
+                try(final RyaTableRFileWriter writer = new RyaTableRFileWriter(ryaConf, fs, workDir, RyaTableRFileWriter.DEFAULT_MAX_BUFFERED_ENTRIES)) {
+                    loader.load(statementsFile, format, writer::write);
+                    writer.importInto(getConnector());
+                }
+            } else {
+                // Write through the batch writers of the DAO the Sail would have used, so the indexers see the statements.
+                Sail sail = null;
+                try {
+                    sail = RyaSailFactory.getInstance(ryaConf);
+                    final RyaDAO<?> dao = ((RdfCloudTripleStore) sail).getRyaDAO();
+                    loader.load(statementsFile, format, batch -> dao.add(batch.iterator()));
+                } finally {
+                    if(sail != null) {
+                        try {
+                            sail.shutDown();
+                        } catch (final SailException e) {
+                            log.warn("Couldn't shut down the Sail that is attached to the Rya instance.", e);
+                        }
+                    }
+                }
+            }
+        } catch (final SailException | AccumuloException | AccumuloSecurityException | RyaDAOException | InferenceEngineException e) {
+            log.warn("Exception while loading:", e);
+            throw new RyaClientException("A problem connecting to the Rya instance named '" + ryaInstanceName + "' has caused the load to fail.", e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RyaClientException("The load into Rya instance named " + ryaInstanceName + " was interrupted.", e);
+        } catch (final Exception e) {
+            log.warn("Exception while loading:", e);
+            throw new RyaClientException("A problem processing the RDF file has caused the load into Rya instance named " + ryaInstanceName + " to fail.", e);
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.rya.api.client.mongo;
 import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 
 import org.apache.accumulo.core.client.AccumuloException;
@@ -29,8 +30,11 @@ import org.apache.rya.api.client.InstanceDoesNotExistException;
 import org.apache.rya.api.client.InstanceExists;
 import org.apache.rya.api.client.LoadStatementsFile;
 import org.apache.rya.api.client.RyaClientException;
+import org.apache.rya.api.persist.RyaDAO;
 import org.apache.rya.api.persist.RyaDAOException;
+import org.apache.rya.api.persist.utils.ParallelStatementsFileLoader;
 import org.apache.rya.mongodb.MongoDBRdfConfiguration;
+import org.apache.rya.rdftriplestore.RdfCloudTripleStore;
 import org.apache.rya.rdftriplestore.inference.InferenceEngineException;
 import org.apache.rya.sail.config.RyaSailFactory;
 import org.eclipse.rdf4j.repository.RepositoryException;
@@ -116,4 +120,59 @@ public class MongoLoadStatementsFile implements LoadStatementsFile {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void loadStatements(
+            final String ryaInstanceName,
+            final Path statementsFile,
+            final RDFFormat format,
+            final BulkLoadConfiguration bulkLoadConfig) throws InstanceDoesNotExistException, RyaClientException {
+        requireNonNull(ryaInstanceName);
+        requireNonNull(statementsFile);
+        requireNonNull(format);
+        requireNonNull(bulkLoadConfig);
+
+        if (!ParallelStatementsFileLoader.isSupported(format)) {
+            log.info("{} files can not be split by line, so {} will be loaded on a single thread.", format.getName(), statementsFile);
+            loadStatements(ryaInstanceName, statementsFile, format);
+            return;
+        }
+
+        // Ensure the Rya Instance exists.
+        if (!instanceExists.exists(ryaInstanceName)) {
+            throw new InstanceDoesNotExistException(String.format("There is no Rya instance named '%s'.", ryaInstanceName));
+        }
+
+        Sail sail = null;
+        try {
+            final MongoDBRdfConfiguration ryaConf = connectionDetails.build(ryaInstanceName);
+            final String cv = ryaConf.getCv();
+            final ParallelStatementsFileLoader loader = new ParallelStatementsFileLoader(
+                    bulkLoadConfig.getParserThreads(),
+                    bulkLoadConfig.getBatchSize(),
+                    bulkLoadConfig.getQueueSize(),
+                    cv == null ? new byte[0] : cv.getBytes(StandardCharsets.UTF_8));
+
+            // Write through the DAO the Sail would have used, so the indexers see the statements.
+            sail = RyaSailFactory.getInstance(ryaConf);
+            final RyaDAO<?> dao = ((RdfCloudTripleStore) sail).getRyaDAO();
+            loader.load(statementsFile, format, batch -> dao.add(batch.iterator()));
+
+        } catch (SailException | RyaDAOException | InferenceEngineException | AccumuloException | AccumuloSecurityException e) {
+            throw new RyaClientException("Could not load statements into Rya because of a problem while creating the Sail object.", e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RyaClientException("The load was interrupted.", e);
+        } catch (final Exception e) {
+            throw new RyaClientException("Could not load the statements into Rya.", e);
+        } finally {
+            if(sail != null) {
+                try {
+                    sail.shutDown();
+                } catch (final SailException e) {
+                    log.error("Couldn't close the Sail object.", e);
+                }
+            }
+        }
+    }
+}
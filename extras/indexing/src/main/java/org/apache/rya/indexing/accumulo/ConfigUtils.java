@@ -47,6 +47,7 @@ import org.apache.rya.accumulo.utils.ConnectorFactory;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
 import org.apache.rya.api.instance.RyaDetails;
 import org.apache.rya.indexing.FilterFunctionOptimizer;
+import org.apache.rya.indexing.accumulo.closure.AccumuloClosureIndexer;
 import org.apache.rya.indexing.accumulo.entity.EntityCentricIndex;
 import org.apache.rya.indexing.accumulo.entity.EntityOptimizer;
 import org.apache.rya.indexing.accumulo.freetext.AccumuloFreeTextIndexer;
@@ -54,8 +55,11 @@ import org.apache.rya.indexing.accumulo.freetext.LuceneTokenizer;
 import org.apache.rya.indexing.accumulo.freetext.Tokenizer;
 import org.apache.rya.indexing.accumulo.temporal.AccumuloTemporalIndexer;
 import org.apache.rya.indexing.entity.EntityIndexOptimizer;
+import org.apache.rya.indexing.entity.update.mongo.BufferedMongoEntityIndexer;
 import org.apache.rya.indexing.entity.update.mongo.MongoEntityIndexer;
 import org.apache.rya.indexing.external.PrecomputedJoinIndexer;
+import org.apache.rya.indexing.external.tupleSet.AccumuloIndexSet;
+import org.apache.rya.indexing.external.tupleSet.PcjLookupEngine;
 import org.apache.rya.indexing.mongodb.freetext.MongoFreeTextIndexer;
 import org.apache.rya.indexing.mongodb.temporal.MongoTemporalIndexer;
 import org.apache.rya.indexing.pcj.matching.PCJOptimizer;
@@ -119,6 +123,7 @@ public class ConfigUtils {
     public static final String USE_FREETEXT = "sc.use_freetext";
     public static final String USE_TEMPORAL = "sc.use_temporal";
     public static final String USE_ENTITY = "sc.use_entity";
+    public static final String USE_CLOSURE = "sc.use_closure";
     public static final String USE_PCJ = "sc.use_pcj";
     public static final String USE_OPTIMAL_PCJ = "sc.use.optimal.pcj";
     public static final String USE_PCJ_UPDATER_INDEX = "sc.use.updater";
@@ -128,6 +133,21 @@ public class ConfigUtils {
     public static final String PCJ_STORAGE_TYPE = "rya.indexing.pcj.storageType";
     public static final String PCJ_UPDATER_TYPE = "rya.indexing.pcj.updaterType";
 
+    /**
+     * The number of query threads each batch scanner that joins binding sets against a PCJ table uses.
+     */
+    public static final String PCJ_LOOKUP_THREADS = "sc.pcj.lookup.threads";
+
+    /**
+     * The number of idle batch scanners each PCJ keeps between batches of binding sets.
+     */
+    public static final String PCJ_LOOKUP_POOL_SIZE = "sc.pcj.lookup.poolSize";
+
+    /**
+     * The most binding sets that are hashed and joined against a PCJ table at once.
+     */
+    public static final String PCJ_LOOKUP_BATCH_SIZE = "sc.pcj.lookup.batchSize";
+
     public static final String USE_MOCK_INSTANCE = AccumuloRdfConfiguration.USE_MOCK_INSTANCE;
 
     public static final String NUM_PARTITIONS = "sc.cloudbase.numPartitions";
@@ -148,6 +168,20 @@ public class ConfigUtils {
 
     public static final String TEMPORAL_PREDICATES_LIST = "sc.temporal.predicates";
 
+    /**
+     * When true, the temporal indexer keeps intervals in a separate table that is bucketed on their
+     * beginnings and lengths instead of the begin and end rows of the temporal table.
+     */
+    public static final String TEMPORAL_INTERVAL_BUCKETS = "sc.temporal.interval.buckets";
+
+    /**
+     * The most statements the Mongo entity indexer buffers before writing them as a single bulk
+     * write. When not positive, entities are updated as each statement arrives. Statements are
+     * only buffered when the DAO does not flush after each update, that is when
+     * {@code rya.mongodb.dao.flusheachupdate} is {@code false}.
+     */
+    public static final String ENTITY_BUFFER_SIZE = "sc.entity.bufferSize";
+
     public static final String USE_MONGO = "sc.useMongo";
 
     public static boolean isDisplayQueryPlan(final Configuration conf) {
@@ -412,10 +446,22 @@ public class ConfigUtils {
         return conf.getBoolean(USE_TEMPORAL, false);
     }
 
+    public static boolean getUseTemporalIntervalBuckets(final Configuration conf) {
+        return conf.getBoolean(TEMPORAL_INTERVAL_BUCKETS, false);
+    }
+
     public static boolean getUseEntity(final Configuration conf) {
         return conf.getBoolean(USE_ENTITY, false);
     }
 
+    public static int getEntityBufferSize(final Configuration conf) {
+        return conf.getInt(ENTITY_BUFFER_SIZE, 0);
+    }
+
+    public static boolean getUseClosure(final Configuration conf) {
+        return conf.getBoolean(USE_CLOSURE, false);
+    }
+
     public static boolean getUsePCJ(final Configuration conf) {
         return conf.getBoolean(USE_PCJ, false);
     }
@@ -428,6 +474,18 @@ public class ConfigUtils {
         return conf.getBoolean(USE_PCJ_UPDATER_INDEX, false);
     }
 
+    public static int getPcjLookupThreads(final Configuration conf) {
+        return conf.getInt(PCJ_LOOKUP_THREADS, PcjLookupEngine.DEFAULT_QUERY_THREADS);
+    }
+
+    public static int getPcjLookupPoolSize(final Configuration conf) {
+        return conf.getInt(PCJ_LOOKUP_POOL_SIZE, PcjLookupEngine.DEFAULT_POOL_SIZE);
+    }
+
+    public static int getPcjLookupBatchSize(final Configuration conf) {
+        return conf.getInt(PCJ_LOOKUP_BATCH_SIZE, AccumuloIndexSet.DEFAULT_LOOKUP_BATCH_SIZE);
+    }
+
 
     /**
      * @return The name of the Fluo Application this instance of RYA is using to
@@ -461,7 +519,11 @@ public class ConfigUtils {
             }
 
             if (getUseEntity(conf)) {
-                indexList.add(MongoEntityIndexer.class.getName());
+                if (getEntityBufferSize(conf) > 0) {
+                    indexList.add(BufferedMongoEntityIndexer.class.getName());
+                } else {
+                    indexList.add(MongoEntityIndexer.class.getName());
+                }
                 optimizers.add(EntityIndexOptimizer.class.getName());
             }
 
@@ -496,6 +558,10 @@ public class ConfigUtils {
                 indexList.add(EntityCentricIndex.class.getName());
                 optimizers.add(EntityOptimizer.class.getName());
             }
+
+            if (getUseClosure(conf)) {
+                indexList.add(AccumuloClosureIndexer.class.getName());
+            }
         }
 
         if (useFilterIndex) {
@@ -0,0 +1,636 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.accumulo.closure;
+
+import static java.util.Objects.requireNonNull;
+import static org.apache.rya.accumulo.AccumuloRdfConstants.EMPTY_CV;
+import static org.apache.rya.accumulo.AccumuloRdfConstants.EMPTY_VALUE;
+import static org.apache.rya.api.RdfCloudTripleStoreConstants.DELIM;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.BatchDeleter;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.MultiTableBatchWriter;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableExistsException;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Text;
+import org.apache.log4j.Logger;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.experimental.AbstractAccumuloIndexer;
+import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.RdfCloudTripleStoreUtils;
+import org.apache.rya.api.domain.RyaIRI;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.query.strategy.ByteRange;
+import org.apache.rya.api.query.strategy.TriplePatternStrategy;
+import org.apache.rya.api.resolver.RdfToRyaConversions;
+import org.apache.rya.api.resolver.RyaTripleContext;
+import org.apache.rya.api.resolver.triple.TripleRow;
+import org.apache.rya.api.resolver.triple.TripleRowResolverException;
+import org.apache.rya.indexing.accumulo.ConfigUtils;
+import org.apache.rya.rdftriplestore.inference.ClosureIndex;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.ConvertingIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.common.iteration.FilterIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.OWL;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Materializes the transitive closure of every property declared an owl:TransitiveProperty, and
+ * of owl:sameAs, which is treated as a symmetric transitive property. The closure is kept up to
+ * date as statements are stored and deleted, and {@link ClosureIndex} reads it with a single scan.
+ * <p>
+ * The table holds five kinds of rows, all keyed by the property:
+ * <ul>
+ *   <li>{@code d\0property} marks a property as declared transitive, one column per declaring graph.</li>
+ *   <li>{@code e\0property\0subject} holds the property's statements about a subject, and
+ *       {@code i\0property\0object} the same statements by object. The column qualifier names the
+ *       graph the statement came from, so a statement asserted in several graphs is only removed
+ *       from the closure once it has been deleted from all of them.</li>
+ *   <li>{@code c\0property\0subject} holds every resource the subject reaches, and
+ *       {@code r\0property\0object} every resource that reaches the object.</li>
+ * </ul>
+ * Storing a statement adds the product of what reaches its subject and what its object reaches.
+ * Deleting one recomputes, from the stored statements, what is still reachable from every resource
+ * that reached its subject. When a property is first declared transitive, its existing statements
+ * are read from the triple store and added.
+ * <p>
+ * The closure spans every named graph and is written without column visibilities, so the index
+ * should not be used for properties whose statements are protected by visibilities.
+ */
+public class AccumuloClosureIndexer extends AbstractAccumuloIndexer implements ClosureIndex {
+    private static final Logger logger = Logger.getLogger(AccumuloClosureIndexer.class);
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+    private static final String TABLE_SUFFIX = "closure";
+
+    private static final String DECLARED = "d";
+    private static final String EDGE = "e";
+    private static final String INVERSE_EDGE = "i";
+    private static final String CLOSURE = "c";
+    private static final String INVERSE_CLOSURE = "r";
+
+    private static final Text OUT = new Text("o");
+    private static final Text IN = new Text("s");
+    // Marks the reverse edge that owl:sameAs statements imply.
+    private static final String MIRRORED = "~";
+
+    private static final RyaIRI SAME_AS = RdfToRyaConversions.convertIRI(OWL.SAMEAS);
+    private static final RyaIRI TYPE = RdfToRyaConversions.convertIRI(RDF.TYPE);
+    private static final RyaIRI TRANSITIVE_PROPERTY = RdfToRyaConversions.convertIRI(OWL.TRANSITIVEPROPERTY);
+
+    private AccumuloRdfConfiguration conf;
+    private MultiTableBatchWriter multiTableWriter;
+    private BatchWriter writer;
+    private boolean isInit = false;
+    private boolean created = false;
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+
+    //initialization occurs in setConf because index is created using reflection
+    @Override
+    public void setConf(final Configuration conf) {
+        if (conf instanceof AccumuloRdfConfiguration) {
+            this.conf = (AccumuloRdfConfiguration) conf;
+        } else {
+            this.conf = new AccumuloRdfConfiguration(conf);
+        }
+        if (!isInit) {
+            try {
+                created = ConfigUtils.createTableIfNotExists(this.conf, getTableName());
+                isInit = true;
+            } catch (AccumuloException | AccumuloSecurityException | TableExistsException e) {
+                logger.warn("Unable to initialize index.  Throwing Runtime Exception. ", e);
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Fills a newly created table from the statements that are already in the triple store.
+     */
+    @Override
+    public void init() {
+        if (!created) {
+            return;
+        }
+        created = false;
+        try {
+            final List<RyaStatement> declarations = new ArrayList<>();
+            scanTripleStore(new RyaStatement(null, TYPE, TRANSITIVE_PROPERTY), declarations);
+            for (final RyaStatement declaration : declarations) {
+                storeStatement(declaration);
+            }
+            backfill(SAME_AS);
+        } catch (final IOException e) {
+            logger.warn("Unable to fill the closure index from the triple store.  Throwing Runtime Exception. ", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Get the Accumulo table used by this index.
+     * @return table used by instances of this index
+     */
+    @Override
+    public String getTableName() {
+        return getTableName(conf);
+    }
+
+    /**
+     * Get the Accumulo table that will be used by this index.
+     *
+     * @param conf - The Rya configuration that specifies which instance of Rya
+     *   the table name will be built for. (not null)
+     * @return table name guaranteed to be used by instances of this index
+     */
+    public static String getTableName(final Configuration conf) {
+        requireNonNull(conf);
+        return ConfigUtils.getTablePrefix(conf) + TABLE_SUFFIX;
+    }
+
+    @Override
+    public void setMultiTableBatchWriter(final MultiTableBatchWriter writer) throws IOException {
+        try {
+            multiTableWriter = writer;
+            this.writer = writer.getBatchWriter(getTableName());
+        } catch (AccumuloException | AccumuloSecurityException | TableNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public Set<IRI> getIndexablePredicates() {
+        return null;
+    }
+
+    @Override
+    public synchronized void storeStatement(final RyaStatement statement) throws IOException {
+        final String origin = origin(statement);
+        if (isDeclaration(statement)) {
+            final String property = statement.getSubject().getData();
+            final boolean declared = isDeclared(property);
+            put(DECLARED + DELIM + property, OUT, origin);
+            if (!declared) {
+                backfill(statement.getSubject());
+            }
+        } else if (isIndexable(statement)) {
+            final String property = statement.getPredicate().getData();
+            final String subject = statement.getSubject().getData();
+            final String object = statement.getObject().getData();
+            addEdge(property, subject, object, origin);
+            if (SAME_AS.equals(statement.getPredicate())) {
+                addEdge(property, object, subject, MIRRORED + origin);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void deleteStatement(final RyaStatement statement) throws IOException {
+        final String origin = origin(statement);
+        if (isDeclaration(statement)) {
+            final String property = statement.getSubject().getData();
+            delete(DECLARED + DELIM + property, OUT, origin);
+            if (!isDeclared(property)) {
+                dropProperty(property);
+            }
+        } else if (isIndexable(statement)) {
+            final String property = statement.getPredicate().getData();
+            final String subject = statement.getSubject().getData();
+            final String object = statement.getObject().getData();
+            removeEdge(property, subject, object, origin);
+            if (SAME_AS.equals(statement.getPredicate())) {
+                removeEdge(property, object, subject, MIRRORED + origin);
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        try {
+            if (multiTableWriter != null) {
+                multiTableWriter.flush();
+            }
+        } catch (final MutationsRejectedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void setConnector(final Connector connector) {
+    }
+
+    /**
+     * Stops writing to the index. The {@link MultiTableBatchWriter} belongs to the DAO, so it is
+     * left open.
+     */
+    @Override
+    public synchronized void destroy() {
+        writer = null;
+        multiTableWriter = null;
+        isInit = false;
+    }
+
+    /**
+     * Deletes every row of the index. The rows are written without visibilities, so they are all
+     * visible to the purge whatever the configured authorizations are.
+     */
+    @Override
+    public synchronized void purge(final RdfCloudTripleStoreConfiguration configuration) {
+        final String table = getTableName();
+        try {
+            final Connector connector = ConfigUtils.getConnector(conf);
+            if (!connector.tableOperations().exists(table)) {
+                return;
+            }
+            flush();
+            logger.info("Purging accumulo table: " + table);
+            final BatchDeleter deleter = connector.createBatchDeleter(table, Authorizations.EMPTY, 1, new BatchWriterConfig());
+            try {
+                deleter.setRanges(Collections.singleton(new Range()));
+                deleter.delete();
+            } finally {
+                deleter.close();
+            }
+        } catch (AccumuloException | AccumuloSecurityException | TableNotFoundException | IOException e) {
+            logger.error("Unable to purge the closure index table " + table, e);
+        }
+    }
+
+    @Override
+    public synchronized void dropAndDestroy() {
+        final String table = getTableName();
+        destroy();
+        try {
+            final Connector connector = ConfigUtils.getConnector(conf);
+            if (connector.tableOperations().exists(table)) {
+                logger.info("Dropping accumulo table: " + table);
+                connector.tableOperations().delete(table);
+            }
+        } catch (AccumuloException | AccumuloSecurityException | TableNotFoundException e) {
+            logger.error("Unable to drop the closure index table " + table, e);
+        }
+    }
+
+    @Override
+    public boolean isIndexed(final IRI property) throws QueryEvaluationException {
+        requireNonNull(property);
+        try {
+            return OWL.SAMEAS.equals(property) || isDeclared(property.stringValue());
+        } catch (final IOException e) {
+            throw new QueryEvaluationException(e);
+        }
+    }
+
+    @Override
+    public CloseableIteration<Statement, QueryEvaluationException> getClosure(final Resource subject, final IRI property, final Value object)
+            throws QueryEvaluationException {
+        requireNonNull(property);
+        if (object != null && !(object instanceof Resource)) {
+            return new EmptyIteration<>();
+        }
+        final String prop = property.stringValue();
+        final Scanner scanner;
+        try {
+            scanner = ConfigUtils.createScanner(getTableName(), conf);
+        } catch (AccumuloException | AccumuloSecurityException | TableNotFoundException e) {
+            throw new QueryEvaluationException(e);
+        }
+
+        if (subject != null) {
+            final String subj = encode(subject);
+            scanner.setRange(Range.exact(new Text(CLOSURE + DELIM + prop + DELIM + subj)));
+            final CloseableIteration<Statement, QueryEvaluationException> closure = new ConvertingIteration<Map.Entry<Key, org.apache.accumulo.core.data.Value>, Statement, QueryEvaluationException>(
+                    new CloseableIteratorIteration<Map.Entry<Key, org.apache.accumulo.core.data.Value>, QueryEvaluationException>(scanner.iterator())) {
+                @Override
+                protected Statement convert(final Map.Entry<Key, org.apache.accumulo.core.data.Value> entry) {
+                    return VF.createStatement(subject, property, decode(entry.getKey().getColumnQualifier().toString()));
+                }
+            };
+            if (object == null) {
+                return closure;
+            }
+            final String obj = encode((Resource) object);
+            return new FilterIteration<Statement, QueryEvaluationException>(closure) {
+                @Override
+                protected boolean accept(final Statement st) {
+                    return obj.equals(encode(st.getObject()));
+                }
+            };
+        }
+
+        if (object != null) {
+            final String obj = encode((Resource) object);
+            scanner.setRange(Range.exact(new Text(INVERSE_CLOSURE + DELIM + prop + DELIM + obj)));
+            return new ConvertingIteration<Map.Entry<Key, org.apache.accumulo.core.data.Value>, Statement, QueryEvaluationException>(
+                    new CloseableIteratorIteration<Map.Entry<Key, org.apache.accumulo.core.data.Value>, QueryEvaluationException>(scanner.iterator())) {
+                @Override
+                protected Statement convert(final Map.Entry<Key, org.apache.accumulo.core.data.Value> entry) {
+                    return VF.createStatement(decode(entry.getKey().getColumnQualifier().toString()), property, object);
+                }
+            };
+        }
+
+        // Neither end is bound, so stream the property's whole closure.
+        final String prefix = CLOSURE + DELIM + prop + DELIM;
+        scanner.setRange(Range.prefix(prefix));
+        return new ConvertingIteration<Map.Entry<Key, org.apache.accumulo.core.data.Value>, Statement, QueryEvaluationException>(
+                new CloseableIteratorIteration<Map.Entry<Key, org.apache.accumulo.core.data.Value>, QueryEvaluationException>(scanner.iterator())) {
+            @Override
+            protected Statement convert(final Map.Entry<Key, org.apache.accumulo.core.data.Value> entry) {
+                final String subj = entry.getKey().getRow().toString().substring(prefix.length());
+                return VF.createStatement(decode(subj), property, decode(entry.getKey().getColumnQualifier().toString()));
+            }
+        };
+    }
+
+    @Override
+    public CloseableIteration<Resource, QueryEvaluationException> getSameAs(final Resource resource) throws QueryEvaluationException {
+        requireNonNull(resource);
+        return new ConvertingIteration<Statement, Resource, QueryEvaluationException>(
+                new FilterIteration<Statement, QueryEvaluationException>(getClosure(resource, OWL.SAMEAS, null)) {
+                    @Override
+                    protected boolean accept(final Statement st) {
+                        return !resource.equals(st.getObject());
+                    }
+                }) {
+            @Override
+            protected Resource convert(final Statement st) {
+                return (Resource) st.getObject();
+            }
+        };
+    }
+
+    private void addEdge(final String property, final String subject, final String object, final String origin) throws IOException {
+        flush();
+        final boolean existed = neighbors(EDGE, property, subject).contains(object);
+        put(EDGE + DELIM + property + DELIM + subject, OUT, object + DELIM + origin);
+        put(INVERSE_EDGE + DELIM + property + DELIM + object, IN, subject + DELIM + origin);
+        if (existed) {
+            return;
+        }
+
+        final Set<String> reachSubject = closure(INVERSE_CLOSURE, property, subject);
+        reachSubject.add(subject);
+        final Set<String> reachedByObject = closure(CLOSURE, property, object);
+        reachedByObject.add(object);
+        for (final String from : reachSubject) {
+            for (final String to : reachedByObject) {
+                put(CLOSURE + DELIM + property + DELIM + from, OUT, to);
+                put(INVERSE_CLOSURE + DELIM + property + DELIM + to, IN, from);
+            }
+        }
+    }
+
+    private void removeEdge(final String property, final String subject, final String object, final String origin) throws IOException {
+        delete(EDGE + DELIM + property + DELIM + subject, OUT, object + DELIM + origin);
+        delete(INVERSE_EDGE + DELIM + property + DELIM + object, IN, subject + DELIM + origin);
+        flush();
+        if (neighbors(EDGE, property, subject).contains(object)) {
+            // The statement is still asserted in another graph.
+            return;
+        }
+
+        final Set<String> reachSubject = closure(INVERSE_CLOSURE, property, subject);
+        reachSubject.add(subject);
+        for (final String from : reachSubject) {
+            final Set<String> reachable = reachable(property, from);
+            for (final String to : closure(CLOSURE, property, from)) {
+                if (!reachable.contains(to)) {
+                    delete(CLOSURE + DELIM + property + DELIM + from, OUT, to);
+                    delete(INVERSE_CLOSURE + DELIM + property + DELIM + to, IN, from);
+                }
+            }
+        }
+    }
+
+    /**
+     * Follows the stored statements of a property to find everything a resource reaches.
+     */
+    private Set<String> reachable(final String property, final String from) throws IOException {
+        final Set<String> reached = new HashSet<>();
+        final Deque<String> pending = new ArrayDeque<>();
+        pending.add(from);
+        while (!pending.isEmpty()) {
+            for (final String next : neighbors(EDGE, property, pending.poll())) {
+                if (reached.add(next)) {
+                    pending.add(next);
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Adds the statements of a newly declared property that are already in the triple store.
+     */
+    private void backfill(final RyaIRI property) throws IOException {
+        flush();
+        final List<RyaStatement> statements = new ArrayList<>();
+        scanTripleStore(new RyaStatement(null, property, null), statements);
+        for (final RyaStatement statement : statements) {
+            if (isIndexable(statement)) {
+                final String subject = statement.getSubject().getData();
+                final String object = statement.getObject().getData();
+                addEdge(property.getData(), subject, object, origin(statement));
+                if (SAME_AS.equals(property)) {
+                    addEdge(property.getData(), object, subject, MIRRORED + origin(statement));
+                }
+            }
+        }
+    }
+
+    private void dropProperty(final String property) throws IOException {
+        flush();
+        for (final String kind : new String[] { EDGE, INVERSE_EDGE, CLOSURE, INVERSE_CLOSURE }) {
+            final Scanner scanner = createScanner();
+            scanner.setRange(Range.prefix(kind + DELIM + property + DELIM));
+            for (final Map.Entry<Key, org.apache.accumulo.core.data.Value> entry : scanner) {
+                final Key key = entry.getKey();
+                delete(key.getRow().toString(), key.getColumnFamily(), key.getColumnQualifier().toString());
+            }
+        }
+    }
+
+    private void scanTripleStore(final RyaStatement pattern, final List<RyaStatement> into) throws IOException {
+        final RyaTripleContext tripleContext = RyaTripleContext.getInstance(conf);
+        final TriplePatternStrategy strategy = tripleContext.retrieveStrategy(pattern);
+        final Map.Entry<TABLE_LAYOUT, ByteRange> range = strategy.defineRange(pattern.getSubject(), pattern.getPredicate(),
+                pattern.getObject(), pattern.getContext(), conf);
+        final String table = RdfCloudTripleStoreUtils.layoutToTable(range.getKey(), conf);
+        try {
+            if (!ConfigUtils.getConnector(conf).tableOperations().exists(table)) {
+                return;
+            }
+            final Scanner scanner = ConfigUtils.createScanner(table, conf);
+            scanner.setRange(new Range(new Text(range.getValue().getStart()), new Text(range.getValue().getEnd())));
+            for (final Map.Entry<Key, org.apache.accumulo.core.data.Value> entry : scanner) {
+                final Key key = entry.getKey();
+                into.add(tripleContext.deserializeTriple(range.getKey(), new TripleRow(key.getRowData().toArray(),
+                        key.getColumnFamilyData().toArray(), key.getColumnQualifierData().toArray(), key.getTimestamp(),
+                        key.getColumnVisibilityData().toArray(), entry.getValue().get())));
+            }
+        } catch (AccumuloException | AccumuloSecurityException | TableNotFoundException | TripleRowResolverException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private boolean isDeclared(final String property) throws IOException {
+        final Scanner scanner = createScanner();
+        scanner.setRange(Range.exact(new Text(DECLARED + DELIM + property)));
+        return scanner.iterator().hasNext();
+    }
+
+    /**
+     * @return The resources stored in a row's column qualifiers, without the graphs they came from.
+     */
+    private Set<String> neighbors(final String kind, final String property, final String node) throws IOException {
+        final Set<String> neighbors = new HashSet<>();
+        for (final String cq : qualifiers(kind, property, node)) {
+            neighbors.add(cq.substring(0, cq.indexOf(DELIM)));
+        }
+        return neighbors;
+    }
+
+    private Set<String> closure(final String kind, final String property, final String node) throws IOException {
+        return new HashSet<>(qualifiers(kind, property, node));
+    }
+
+    private List<String> qualifiers(final String kind, final String property, final String node) throws IOException {
+        final Scanner scanner = createScanner();
+        scanner.setRange(Range.exact(new Text(kind + DELIM + property + DELIM + node)));
+        final List<String> qualifiers = new ArrayList<>();
+        for (final Map.Entry<Key, org.apache.accumulo.core.data.Value> entry : scanner) {
+            qualifiers.add(entry.getKey().getColumnQualifier().toString());
+        }
+        return qualifiers;
+    }
+
+    private Scanner createScanner() throws IOException {
+        try {
+            return ConfigUtils.createScanner(getTableName(), conf);
+        } catch (AccumuloException | AccumuloSecurityException | TableNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void put(final String row, final Text columnFamily, final String columnQualifier) throws IOException {
+        final Mutation m = new Mutation(new Text(row));
+        m.put(columnFamily, new Text(columnQualifier), EMPTY_CV, EMPTY_VALUE);
+        write(m);
+    }
+
+    private void delete(final String row, final Text columnFamily, final String columnQualifier) throws IOException {
+        final Mutation m = new Mutation(new Text(row));
+        m.putDelete(columnFamily, new Text(columnQualifier), EMPTY_CV);
+        write(m);
+    }
+
+    private void write(final Mutation m) throws IOException {
+        Preconditions.checkNotNull(writer, "BatchWriter not Set");
+        try {
+            writer.addMutation(m);
+        } catch (final MutationsRejectedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static boolean isDeclaration(final RyaStatement statement) {
+        return TYPE.equals(statement.getPredicate()) && TRANSITIVE_PROPERTY.equals(statement.getObject());
+    }
+
+    private boolean isIndexable(final RyaStatement statement) throws IOException {
+        if (!(statement.getObject() instanceof RyaIRI)) {
+            return false;
+        }
+        return SAME_AS.equals(statement.getPredicate()) || isDeclared(statement.getPredicate().getData());
+    }
+
+    private static String origin(final RyaStatement statement) {
+        return statement.getContext() == null ? "" : statement.getContext().getData();
+    }
+
+    private static String encode(final Value value) {
+        final RyaType type = RdfToRyaConversions.convertValue(value);
+        return type.getData();
+    }
+
+    private static Resource decode(final String data) {
+        return VF.createIRI(data);
+    }
+
+    @Override
+    public void dropGraph(final RyaIRI... graphs) {
+        logger.warn("The closure index does not support dropping graphs.");
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    /**
+     * @return The properties whose closure is indexed, other than owl:sameAs.
+     * @throws IOException The table could not be read.
+     */
+    public Set<String> getDeclaredProperties() throws IOException {
+        final Scanner scanner = createScanner();
+        scanner.setRange(Range.prefix(DECLARED + DELIM));
+        final Set<String> properties = new HashSet<>();
+        for (final Map.Entry<Key, org.apache.accumulo.core.data.Value> entry : scanner) {
+            properties.add(entry.getKey().getRow().toString().substring(DECLARED.length() + DELIM.length()));
+        }
+        return Collections.unmodifiableSet(properties);
+    }
+}
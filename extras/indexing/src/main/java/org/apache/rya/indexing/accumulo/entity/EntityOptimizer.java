@@ -69,7 +69,7 @@ public class EntityOptimizer implements QueryOptimizer, Configurable {
         if(conf.isUseStats() && conf.isUseSelectivity()) {
             try {
                 eval = new AccumuloSelectivityEvalDAO(conf, ConfigUtils.getConnector(conf));
-                ((AccumuloSelectivityEvalDAO)eval).setRdfEvalDAO(new ProspectorServiceEvalStatsDAO(ConfigUtils.getConnector(conf), conf));
+                ((AccumuloSelectivityEvalDAO)eval).setRdfEvalDAO(ProspectorServiceEvalStatsDAO.make(ConfigUtils.getConnector(conf), conf));
                 eval.init();
             } catch (final AccumuloException | AccumuloSecurityException e) {
                 LOG.warn("A problem was encountered while constructing the EntityOptimizer.", e);
@@ -101,7 +101,7 @@ public class EntityOptimizer implements QueryOptimizer, Configurable {
             if(this.conf.isUseStats() && this.conf.isUseSelectivity()) {
                 try {
                     eval = new AccumuloSelectivityEvalDAO(this.conf, ConfigUtils.getConnector(this.conf));
-                    ((AccumuloSelectivityEvalDAO)eval).setRdfEvalDAO(new ProspectorServiceEvalStatsDAO(ConfigUtils.getConnector(this.conf), this.conf));
+                    ((AccumuloSelectivityEvalDAO)eval).setRdfEvalDAO(ProspectorServiceEvalStatsDAO.make(ConfigUtils.getConnector(this.conf), this.conf));
                     eval.init();
                 } catch (final AccumuloException | AccumuloSecurityException e) {
                     LOG.warn("A problem was encountered while setting the Configuration for the EntityOptimizer.", e);
@@ -32,6 +32,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.rya.accumulo.AccumuloRdfConfiguration;
 import org.apache.rya.accumulo.AccumuloRyaDAO;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.persist.RdfEvalStatsDAO;
 import org.apache.rya.indexing.accumulo.ConfigUtils;
 import org.apache.rya.indexing.accumulo.entity.StarQuery.CardinalityStatementPattern;
 import org.apache.rya.joinselect.AccumuloSelectivityEvalDAO;
@@ -97,8 +98,10 @@ public class EntityTupleSet extends ExternalSet implements ExternalBatchingItera
 
         try {
             if (conf.isUseStats() && conf.isUseSelectivity()) {
-                ProspectorServiceEvalStatsDAO evalDao = new ProspectorServiceEvalStatsDAO(accCon, conf);
-                evalDao.init();
+                RdfEvalStatsDAO<RdfCloudTripleStoreConfiguration> evalDao = ProspectorServiceEvalStatsDAO.make(accCon, conf);
+                if (!evalDao.isInitialized()) {
+                    evalDao.init();
+                }
                 AccumuloSelectivityEvalDAO ase = new AccumuloSelectivityEvalDAO(conf, accCon);
                 ase.setRdfEvalDAO(evalDao);
                 ase.init();
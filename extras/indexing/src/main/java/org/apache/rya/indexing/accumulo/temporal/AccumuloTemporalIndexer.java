@@ -76,10 +76,14 @@ import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.joda.time.DateTime;
 
+import com.google.common.collect.Iterators;
+
 public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements TemporalIndexer {
 
     private static final String TABLE_SUFFIX = "temporal";
 
+    private static final String INTERVAL_TABLE_SUFFIX = "temporal_interval";
+
     private static final Logger logger = Logger.getLogger(AccumuloTemporalIndexer.class);
 
     private static final String CF_INTERVAL = "interval";
@@ -97,8 +101,12 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
 
     private BatchWriter temporalIndexBatchWriter;
 
+    private BatchWriter intervalIndexBatchWriter;
+
     private Set<IRI> validPredicates;
     private String temporalIndexTableName;
+    private String intervalIndexTableName;
+    private boolean useIntervalBuckets;
 
     private boolean isInit = false;
 
@@ -144,6 +152,14 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
             logger.info("First run, created temporal index table: " + temporalIndexTableName);
         }
         temporalIndexBatchWriter = mtbw.getBatchWriter(temporalIndexTableName);
+
+        if (useIntervalBuckets) {
+            isCreated = ConfigUtils.createTableIfNotExists(conf, intervalIndexTableName);
+            if (isCreated) {
+                logger.info("First run, created temporal interval index table: " + intervalIndexTableName);
+            }
+            intervalIndexBatchWriter = mtbw.getBatchWriter(intervalIndexTableName);
+        }
     }
 
     /**
@@ -155,6 +171,8 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
 		if (conf == null)
 			throw new Error("Failed to initialize temporal index, setConf() was not set.");
 		temporalIndexTableName = getTableName();
+		intervalIndexTableName = getIntervalTableName();
+		useIntervalBuckets = ConfigUtils.getUseTemporalIntervalBuckets(conf);
 		validPredicates = ConfigUtils.getTemporalPredicates(conf);
 	}
 
@@ -205,7 +223,11 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
         try {
             if (indexDateTimes[1] != null) {
                 final TemporalInterval interval = new TemporalInterval(new TemporalInstantRfc3339(indexDateTimes[0]), new TemporalInstantRfc3339(indexDateTimes[1]));
-                addInterval(temporalIndexBatchWriter, interval, statement);
+                if (useIntervalBuckets) {
+                    addBucketedInterval(intervalIndexBatchWriter, interval, statement);
+                } else {
+                    addInterval(temporalIndexBatchWriter, interval, statement);
+                }
             } else {
                 final TemporalInstant instant = new TemporalInstantRfc3339(indexDateTimes[0]);
                 addInstant(temporalIndexBatchWriter, instant, statement);
@@ -229,7 +251,7 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
      * @param statement
      * @param outputDateTimes
      */
-    private void extractDateTime(final Statement statement, final DateTime[] outputDateTimes) {
+    private static void extractDateTime(final Statement statement, final DateTime[] outputDateTimes) {
         if (!(statement.getObject() instanceof Literal)) {
             throw new RuntimeException("Statement's object must be a literal: " + statement);
         }
@@ -271,6 +293,24 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
         return;
     }
 
+    /**
+     * Parse the interval held by the object of a statement.
+     *
+     * @param statement - A statement whose object may be an interval literal in the form "[date1,date2]". (not null)
+     * @return The interval, or null if the object is not an interval.
+     */
+    static TemporalInterval parseInterval(final Statement statement) {
+        if (!(statement.getObject() instanceof Literal)) {
+            return null;
+        }
+        final DateTime[] indexDateTimes = new DateTime[2];
+        extractDateTime(statement, indexDateTimes);
+        if (indexDateTimes[0] == null || indexDateTimes[1] == null) {
+            return null;
+        }
+        return new TemporalInterval(new TemporalInstantRfc3339(indexDateTimes[0]), new TemporalInstantRfc3339(indexDateTimes[1]));
+    }
+
     /**
      * Remove an interval index
      * TODO: integrate into KeyParts (or eliminate)
@@ -349,6 +389,34 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
     }
 
 
+    /**
+     * Index a new interval in the bucketed interval table.
+     * See {@link TemporalIntervalBuckets} for the row layout.
+     * @param writer - Writes to the interval table.
+     * @param interval - The interval held by the statement.
+     * @param statement - The statement that is indexed.
+     * @throws MutationsRejectedException
+     */
+    public void addBucketedInterval(final BatchWriter writer, final TemporalInterval interval, final Statement statement) throws MutationsRejectedException {
+        final Value statementValue = new Value(StringUtils.getBytesUtf8(StatementSerializer.writeStatement(statement)));
+        final Mutation m = new Mutation(TemporalIntervalBuckets.getRow(interval, statement));
+        m.put(new Text(StatementSerializer.writeContext(statement)), new Text(TemporalIntervalBuckets.CQ_INTERVAL), statementValue);
+        writer.addMutation(m);
+    }
+
+    /**
+     * Remove an interval from the bucketed interval table.
+     * @param writer - Writes to the interval table.
+     * @param interval - The interval held by the statement.
+     * @param statement - The statement that is removed.
+     * @throws MutationsRejectedException
+     */
+    public void removeBucketedInterval(final BatchWriter writer, final TemporalInterval interval, final Statement statement) throws MutationsRejectedException {
+        final Mutation m = new Mutation(TemporalIntervalBuckets.getRow(interval, statement));
+        m.putDelete(new Text(StatementSerializer.writeContext(statement)), new Text(TemporalIntervalBuckets.CQ_INTERVAL));
+        writer.addMutation(m);
+    }
+
     /**
      * Index a new instant
      * Make indexes that handle this expression:
@@ -378,10 +446,14 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
      * @throws IOException
      */
     private Scanner getScanner() throws QueryEvaluationException {
-        final String whileDoing = "While creating a scanner for a temporal query. table name=" + temporalIndexTableName;
+        return getScanner(temporalIndexTableName);
+    }
+
+    private Scanner getScanner(final String tableName) throws QueryEvaluationException {
+        final String whileDoing = "While creating a scanner for a temporal query. table name=" + tableName;
         Scanner scanner = null;
         try {
-            scanner = ConfigUtils.createScanner(temporalIndexTableName, conf);
+            scanner = ConfigUtils.createScanner(tableName, conf);
         } catch (final AccumuloException e) {
             logger.error(whileDoing, e);
             throw new QueryEvaluationException(whileDoing, e);
@@ -396,9 +468,13 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
     }
 
     private BatchScanner getBatchScanner() throws QueryEvaluationException {
-        final String whileDoing = "While creating a Batch scanner for a temporal query. table name=" + temporalIndexTableName;
+        return getBatchScanner(temporalIndexTableName);
+    }
+
+    private BatchScanner getBatchScanner(final String tableName) throws QueryEvaluationException {
+        final String whileDoing = "While creating a Batch scanner for a temporal query. table name=" + tableName;
         try {
-            return ConfigUtils.createBatchScanner(temporalIndexTableName, conf);
+            return ConfigUtils.createBatchScanner(tableName, conf);
         } catch (final AccumuloException e) {
             logger.error(whileDoing, e);
             throw new QueryEvaluationException(whileDoing, e);
@@ -552,6 +628,12 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
     public CloseableIteration<Statement, QueryEvaluationException> queryIntervalEquals(
             final TemporalInterval query, final StatementConstraints contraints)
             throws QueryEvaluationException {
+        if (useIntervalBuckets) {
+            final Scanner scanner = getScanner(intervalIndexTableName);
+            scanner.setRange(TemporalIntervalBuckets.getEqualsRange(query));
+            fetchIntervalColumn(scanner, contraints);
+            return getIteratorWrapper(scanner);
+        }
         final Scanner scanner = getScanner();
         if (scanner != null) {
             // get rows where the start and end match.
@@ -581,6 +663,14 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
     public CloseableIteration<Statement, QueryEvaluationException> queryIntervalBefore(
             final TemporalInterval queryInterval, final StatementConstraints constraints) throws QueryEvaluationException
     {
+        if (useIntervalBuckets) {
+            // Only the rows within a bucket width of the query's beginning may end after it.
+            final BatchScanner scanner = getBatchScanner(intervalIndexTableName);
+            scanner.setRanges(TemporalIntervalBuckets.getBeforeRanges(queryInterval));
+            fetchIntervalColumn(scanner, constraints);
+            return getIteratorWrapper(scanner, Iterators.filter(scanner.iterator(),
+                    entry -> TemporalIntervalBuckets.endsBefore(entry.getKey().getRow(), queryInterval)));
+        }
         final Scanner scanner = getScanner();
         if (scanner != null) {
             // get rows where the end date is less than the queryInterval.getBefore()
@@ -606,6 +696,12 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
             final TemporalInterval queryInterval, final StatementConstraints constraints)
             throws QueryEvaluationException {
 
+        if (useIntervalBuckets) {
+            final BatchScanner scanner = getBatchScanner(intervalIndexTableName);
+            scanner.setRanges(TemporalIntervalBuckets.getAfterRanges(queryInterval));
+            fetchIntervalColumn(scanner, constraints);
+            return getIteratorWrapper(scanner);
+        }
         final Scanner scanner = getScanner();
         if (scanner != null) {
             // get rows where the start date is greater than the queryInterval.getEnd()
@@ -621,6 +717,15 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
         // TODO currently predicate, subject and context constraints are filtered on the clients
         return getIteratorWrapper(scanner);
     }
+
+    /**
+     * Only read the interval index rows of the constraint's context, or of the default context.
+     */
+    private static void fetchIntervalColumn(final ScannerBase scanner, final StatementConstraints constraints) {
+        final Text cf = new Text(constraints.hasContext() ? constraints.getContext().toString() : "");
+        scanner.fetchColumn(cf, new Text(TemporalIntervalBuckets.CQ_INTERVAL));
+    }
+
     // --
     // -- END of Query functions.  Next up, general stuff used by the queries above.
     // --
@@ -674,9 +779,17 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
      * @return an anonymous object that will iterate the resulting statements from a given scanner.
      */
     private static CloseableIteration<Statement, QueryEvaluationException> getIteratorWrapper(final ScannerBase scanner) {
+        return getIteratorWrapper(scanner, scanner.iterator());
+    }
 
-        final Iterator<Entry<Key, Value>> i = scanner.iterator();
-
+    /**
+     * An iteration wrapper for the entries of a loaded scanner that a query has already filtered.
+     *
+     * @param scanner  closed when the iteration is closed.
+     * @param i  the results to iterate.
+     * @return an anonymous object that will iterate the resulting statements.
+     */
+    private static CloseableIteration<Statement, QueryEvaluationException> getIteratorWrapper(final ScannerBase scanner, final Iterator<Entry<Key, Value>> i) {
         return new CloseableIteration<Statement, QueryEvaluationException>() {
             @Override
             public boolean hasNext() {
@@ -930,6 +1043,24 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
         return ryaInstanceName + TABLE_SUFFIX;
     }
 
+    /**
+     * @return The Accumulo table name of the bucketed interval index.
+     */
+    public String getIntervalTableName() {
+       return makeIntervalTableName( ConfigUtils.getTablePrefix(conf) );
+    }
+
+    /**
+     * Make the Accumulo table name of the bucketed interval index for a specific instance of Rya.
+     *
+     * @param ryaInstanceName -  The name of the Rya instance the table name is for. (not null)
+     * @return The Accumulo table name of the bucketed interval index.
+     */
+    public static String makeIntervalTableName(final String ryaInstanceName) {
+        requireNonNull(ryaInstanceName);
+        return ryaInstanceName + INTERVAL_TABLE_SUFFIX;
+    }
+
     private void deleteStatement(final Statement statement) throws IOException, IllegalArgumentException {
     	Objects.requireNonNull(temporalIndexBatchWriter,"This is not initialized for writing.  Must call setMultiTableBatchWriter() and init().");
 
@@ -949,7 +1080,11 @@ public class AccumuloTemporalIndexer extends AbstractAccumuloIndexer implements
         try {
             if (indexDateTimes[1] != null) {
                 final TemporalInterval interval = new TemporalInterval(new TemporalInstantRfc3339(indexDateTimes[0]), new TemporalInstantRfc3339(indexDateTimes[1]));
-                removeInterval(temporalIndexBatchWriter, interval, statement);
+                if (useIntervalBuckets) {
+                    removeBucketedInterval(intervalIndexBatchWriter, interval, statement);
+                } else {
+                    removeInterval(temporalIndexBatchWriter, interval, statement);
+                }
             } else {
                 final TemporalInstant instant = new TemporalInstantRfc3339(indexDateTimes[0]);
                 removeInstant(temporalIndexBatchWriter, instant, statement);
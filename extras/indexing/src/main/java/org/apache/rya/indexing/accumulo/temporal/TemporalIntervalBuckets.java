@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.accumulo.temporal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.hadoop.io.Text;
+import org.apache.rya.indexing.KeyParts;
+import org.apache.rya.indexing.TemporalInstant;
+import org.apache.rya.indexing.TemporalInterval;
+import org.eclipse.rdf4j.model.Statement;
+
+/**
+ * The row layout of the bucketed interval index that {@link AccumuloTemporalIndexer} writes when
+ * {@link org.apache.rya.indexing.accumulo.ConfigUtils#TEMPORAL_INTERVAL_BUCKETS} is set.
+ * <p>
+ * Each interval is assigned to the first level whose bucket width is at least as long as the interval,
+ * and to the bucket of that level that holds its beginning. Rows are:
+ * <pre>
+ * level (1 byte) | bucket (8 bytes) | beginning (8 bytes) | end (8 bytes) | uniqueness
+ * </pre>
+ * Times are seconds since the epoch, which is the precision of the legacy layout's keys. They are written
+ * so that they sort in numeric order. Since no interval is longer than the width of its level, an interval
+ * that begins more than one bucket width before a time must also end before it. So a query only reads the
+ * rows that answer it, plus the rows of one bucket width per level that it has to check the ends of.
+ */
+public final class TemporalIntervalBuckets {
+
+    /**
+     * The column qualifier of every row in the interval index.
+     */
+    public static final String CQ_INTERVAL = "interval";
+
+    /**
+     * The width in seconds of each level's buckets: a minute, an hour, a day, a month, a year, and a century.
+     * Intervals that are longer than a century are kept in one last level that has a single bucket.
+     */
+    private static final long[] LEVEL_WIDTHS = { 60L, 3_600L, 86_400L, 31L * 86_400L, 366L * 86_400L, 36_600L * 86_400L };
+
+    private static final int UNBOUNDED_LEVEL = LEVEL_WIDTHS.length;
+    private static final int BOUNDS_LENGTH = 1 + 3 * Long.BYTES;
+
+    private TemporalIntervalBuckets() { }
+
+    /**
+     * @param interval - The interval that is indexed. (not null)
+     * @param statement - The statement that holds the interval. (not null)
+     * @return The row that indexes the statement.
+     */
+    public static Text getRow(final TemporalInterval interval, final Statement statement) {
+        requireNonNull(interval);
+        requireNonNull(statement);
+        final Text row = new Text(getBounds(interval));
+        KeyParts.appendUniqueness(statement, row);
+        return row;
+    }
+
+    /**
+     * @param query - The interval to match. (not null)
+     * @return The range that holds the rows of intervals that begin and end at the same times as the query.
+     */
+    public static Range getEqualsRange(final TemporalInterval query) {
+        requireNonNull(query);
+        return Range.prefix(new Text(getBounds(query)));
+    }
+
+    /**
+     * @param query - The interval that matches must begin after. (not null)
+     * @return A range per level that holds exactly the rows of intervals that begin after the query ends.
+     */
+    public static List<Range> getAfterRanges(final TemporalInterval query) {
+        requireNonNull(query);
+        final long after = seconds(query.getHasEnd()) + 1;
+        final List<Range> ranges = new ArrayList<>(UNBOUNDED_LEVEL + 1);
+        for (int level = 0; level <= UNBOUNDED_LEVEL; level++) {
+            final Key start = new Key(new Text(getPrefix(level, after)));
+            ranges.add(new Range(start, true, levelEnd(level), false));
+        }
+        return ranges;
+    }
+
+    /**
+     * The rows of these ranges must also be checked with {@link #endsBefore(Text, TemporalInterval)}.
+     *
+     * @param query - The interval that matches must end before. (not null)
+     * @return A range per level that holds the rows of intervals that begin before the query begins.
+     */
+    public static List<Range> getBeforeRanges(final TemporalInterval query) {
+        requireNonNull(query);
+        final long before = seconds(query.getHasBeginning());
+        final List<Range> ranges = new ArrayList<>(UNBOUNDED_LEVEL + 1);
+        for (int level = 0; level <= UNBOUNDED_LEVEL; level++) {
+            final Key end = new Key(new Text(getPrefix(level, before)));
+            ranges.add(new Range(levelStart(level), true, end, false));
+        }
+        return ranges;
+    }
+
+    /**
+     * @param row - A row of the interval index. (not null)
+     * @param query - The interval that is queried. (not null)
+     * @return {@code true} if the row's interval ends before the query begins.
+     */
+    public static boolean endsBefore(final Text row, final TemporalInterval query) {
+        requireNonNull(row);
+        requireNonNull(query);
+        final long end = ByteBuffer.wrap(row.getBytes(), 1 + 2 * Long.BYTES, Long.BYTES).getLong() ^ Long.MIN_VALUE;
+        return end < seconds(query.getHasBeginning());
+    }
+
+    /**
+     * @param interval - An interval. (not null)
+     * @return The level the interval is indexed within.
+     */
+    static int getLevel(final TemporalInterval interval) {
+        final long length = seconds(interval.getHasEnd()) - seconds(interval.getHasBeginning());
+        for (int level = 0; level < LEVEL_WIDTHS.length; level++) {
+            if (length <= LEVEL_WIDTHS[level]) {
+                return level;
+            }
+        }
+        return UNBOUNDED_LEVEL;
+    }
+
+    private static byte[] getBounds(final TemporalInterval interval) {
+        final long begin = seconds(interval.getHasBeginning());
+        final int level = getLevel(interval);
+        return ByteBuffer.allocate(BOUNDS_LENGTH)
+                .put((byte) level)
+                .putLong(bucket(level, begin) ^ Long.MIN_VALUE)
+                .putLong(begin ^ Long.MIN_VALUE)
+                .putLong(seconds(interval.getHasEnd()) ^ Long.MIN_VALUE)
+                .array();
+    }
+
+    /**
+     * @return The first row of a level that may hold an interval beginning at or after a time.
+     */
+    private static byte[] getPrefix(final int level, final long begin) {
+        return ByteBuffer.allocate(1 + 2 * Long.BYTES)
+                .put((byte) level)
+                .putLong(bucket(level, begin) ^ Long.MIN_VALUE)
+                .putLong(begin ^ Long.MIN_VALUE)
+                .array();
+    }
+
+    private static long bucket(final int level, final long begin) {
+        return level == UNBOUNDED_LEVEL ? 0L : Math.floorDiv(begin, LEVEL_WIDTHS[level]);
+    }
+
+    private static Key levelStart(final int level) {
+        return new Key(new Text(new byte[] { (byte) level }));
+    }
+
+    private static Key levelEnd(final int level) {
+        return levelStart(level + 1);
+    }
+
+    private static long seconds(final TemporalInstant instant) {
+        return Math.floorDiv(instant.getAsDateTime().getMillis(), 1000L);
+    }
+}
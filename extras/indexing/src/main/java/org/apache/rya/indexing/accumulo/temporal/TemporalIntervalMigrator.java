@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.accumulo.temporal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.util.Map.Entry;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableExistsException;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.client.ZooKeeperInstance;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.user.RegExFilter;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.hadoop.io.Text;
+import org.apache.log4j.Logger;
+import org.apache.rya.indexing.KeyParts;
+import org.apache.rya.indexing.StatementSerializer;
+import org.apache.rya.indexing.TemporalInterval;
+import org.eclipse.rdf4j.model.Statement;
+
+/**
+ * Copies the intervals of a Rya instance's temporal table into the bucketed interval table that
+ * {@link AccumuloTemporalIndexer} uses when {@link org.apache.rya.indexing.accumulo.ConfigUtils#TEMPORAL_INTERVAL_BUCKETS}
+ * is set. See {@link TemporalIntervalBuckets} for its layout.
+ * <p>
+ * To migrate an instance, stop its writers, run the migrator, and then restart them with the bucketed interval
+ * layout enabled. Every interval's begin row is read from the temporal table and written to the interval table
+ * with the same visibility. The legacy begin and end rows may also be deleted, which shrinks the rows that instant
+ * queries scan past. Migrating an instance twice writes the same rows again.
+ */
+public class TemporalIntervalMigrator {
+    private static final Logger log = Logger.getLogger(TemporalIntervalMigrator.class);
+
+    private final Connector connector;
+    private final String ryaInstanceName;
+    private final Authorizations auths;
+    private final boolean removeLegacyRows;
+
+    /**
+     * Constructs an instance of {@link TemporalIntervalMigrator}.
+     *
+     * @param connector - Connects to the Accumulo instance that hosts the Rya instance. (not null)
+     * @param ryaInstanceName - The name of the Rya instance that will be migrated. (not null)
+     * @param auths - The authorizations that are able to read every row of the temporal table. (not null)
+     * @param removeLegacyRows - Whether the begin and end rows are deleted from the temporal table once they are copied.
+     */
+    public TemporalIntervalMigrator(final Connector connector, final String ryaInstanceName, final Authorizations auths, final boolean removeLegacyRows) {
+        this.connector = requireNonNull(connector);
+        this.ryaInstanceName = requireNonNull(ryaInstanceName);
+        this.auths = requireNonNull(auths);
+        this.removeLegacyRows = removeLegacyRows;
+    }
+
+    /**
+     * Copies every interval of the temporal table into the interval table, creating it if it does not exist.
+     *
+     * @return The number of intervals that were copied.
+     * @throws AccumuloException The interval table could not be created or written to.
+     * @throws AccumuloSecurityException The user may not read or write the tables.
+     * @throws TableNotFoundException The Rya instance does not have a temporal table.
+     * @throws IOException A row of the temporal table does not hold a statement.
+     */
+    public long migrate() throws AccumuloException, AccumuloSecurityException, TableNotFoundException, IOException {
+        final String temporalTable = AccumuloTemporalIndexer.makeTableName(ryaInstanceName);
+        final String intervalTable = AccumuloTemporalIndexer.makeIntervalTableName(ryaInstanceName);
+        try {
+            connector.tableOperations().create(intervalTable);
+        } catch (final TableExistsException e) {
+            log.info("The interval table " + intervalTable + " already exists, intervals will be added to it.");
+        }
+
+        final Scanner scanner = connector.createScanner(temporalTable, auths);
+        final IteratorSetting beginRows = new IteratorSetting(20, "beginRows", RegExFilter.class);
+        RegExFilter.setRegexs(beginRows, null, null, KeyParts.CQ_BEGIN, null, false);
+        scanner.addScanIterator(beginRows);
+
+        final BatchWriter intervalWriter = connector.createBatchWriter(intervalTable, new BatchWriterConfig());
+        final BatchWriter legacyWriter = removeLegacyRows ? connector.createBatchWriter(temporalTable, new BatchWriterConfig()) : null;
+        long migrated = 0;
+        try {
+            for (final Entry<Key, Value> entry : scanner) {
+                final Key key = entry.getKey();
+                final Value value = entry.getValue();
+                final Statement statement = StatementSerializer.readStatement(Text.decode(value.get(), 0, value.getSize()));
+                final TemporalInterval interval = AccumuloTemporalIndexer.parseInterval(statement);
+                if (interval == null) {
+                    log.warn("Skipping a begin row that does not hold an interval: " + key);
+                    continue;
+                }
+
+                final ColumnVisibility visibility = new ColumnVisibility(key.getColumnVisibility());
+                final Mutation m = new Mutation(TemporalIntervalBuckets.getRow(interval, statement));
+                m.put(key.getColumnFamily(), new Text(TemporalIntervalBuckets.CQ_INTERVAL), visibility, value);
+                intervalWriter.addMutation(m);
+
+                if (legacyWriter != null) {
+                    final Mutation begin = new Mutation(key.getRow());
+                    begin.putDelete(key.getColumnFamily(), key.getColumnQualifier(), visibility);
+                    legacyWriter.addMutation(begin);
+
+                    final Text endRow = new Text(interval.getAsKeyEnd());
+                    KeyParts.appendUniqueness(statement, endRow);
+                    final Mutation end = new Mutation(endRow);
+                    end.putDelete(key.getColumnFamily(), new Text(KeyParts.CQ_END), visibility);
+                    legacyWriter.addMutation(end);
+                }
+
+                migrated++;
+                if (migrated % 100_000 == 0) {
+                    log.info("Migrated " + migrated + " intervals to " + intervalTable + ".");
+                }
+            }
+        } finally {
+            scanner.close();
+            intervalWriter.close();
+            if (legacyWriter != null) {
+                legacyWriter.close();
+            }
+        }
+        return migrated;
+    }
+
+    /**
+     * Migrates the intervals of a Rya instance.
+     *
+     * @param args - The Accumulo instance name, zookeepers, username, password, Rya instance name, and
+     *   optionally "true" to delete the legacy interval rows.
+     */
+    public static void main(final String[] args) throws Exception {
+        if (args.length < 5 || args.length > 6) {
+            System.err.println("Usage: TemporalIntervalMigrator <instance> <zookeepers> <username> <password> <ryaInstance> [removeLegacyRows]");
+            System.exit(1);
+        }
+
+        final Connector connector = new ZooKeeperInstance(args[0], args[1]).getConnector(args[2], new PasswordToken(args[3]));
+        final Authorizations auths = connector.securityOperations().getUserAuthorizations(args[2]);
+        final boolean removeLegacyRows = args.length == 6 && Boolean.parseBoolean(args[5]);
+
+        final long migrated = new TemporalIntervalMigrator(connector, args[4], auths, removeLegacyRows).migrate();
+        System.out.println("Migrated " + migrated + " intervals of " + args[4] + " to the bucketed interval table.");
+    }
+}
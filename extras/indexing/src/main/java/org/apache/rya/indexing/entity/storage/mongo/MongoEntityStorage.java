@@ -21,7 +21,7 @@ package org.apache.rya.indexing.entity.storage.mongo;
 import static java.util.Objects.requireNonNull;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -54,7 +54,13 @@ import com.mongodb.MongoClient;
 import com.mongodb.MongoException;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
 
 import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -68,7 +74,20 @@ public class MongoEntityStorage implements EntityStorage {
 
     protected static final String COLLECTION_NAME = "entity-entities";
 
+    /**
+     * The field that holds the blocking keys of an entity's property values.
+     * Only entities that share blocking keys are checked for near duplicates.
+     */
+    protected static final String BLOCKING_KEYS = "blockingKeys";
+
+    /**
+     * The field that holds the {@link DuplicateDataDetector#getBlockingScheme()}
+     * the blocking keys were built with.
+     */
+    protected static final String BLOCKING_SCHEME = "blockingScheme";
+
     private static final EntityDocumentConverter ENTITY_CONVERTER = new EntityDocumentConverter();
+    private static final RyaTypeDocumentConverter RYA_TYPE_CONVERTER = new RyaTypeDocumentConverter();
 
     /**
      * A client connected to the Mongo instance that hosts the Rya instance.
@@ -82,6 +101,7 @@ public class MongoEntityStorage implements EntityStorage {
 
     private final DuplicateDataDetector duplicateDataDetector;
     private MongoTypeStorage mongoTypeStorage = null;
+    private boolean isBlockingIndexCreated = false;
 
     /**
      * Constructs an instance of {@link MongoEntityStorage}.
@@ -126,7 +146,7 @@ public class MongoEntityStorage implements EntityStorage {
             if (!hasDuplicate) {
                 mongo.getDatabase(ryaInstanceName)
                     .getCollection(COLLECTION_NAME)
-                    .insertOne( ENTITY_CONVERTER.toDocument(entity) );
+                    .insertOne( toDocument(entity) );
             } else {
                 throw new EntityNearDuplicateException("Duplicate data found and will not be inserted for Entity with Subject: "  + entity);
             }
@@ -166,7 +186,7 @@ public class MongoEntityStorage implements EntityStorage {
 
         // Do a find and replace.
         final Bson oldEntityFilter = Filters.and(filters);
-        final Document updatedDoc = ENTITY_CONVERTER.toDocument(updated);
+        final Document updatedDoc = toDocument(updated);
 
         final MongoCollection<Document> collection = mongo.getDatabase(ryaInstanceName).getCollection(COLLECTION_NAME);
         if(collection.findOneAndReplace(oldEntityFilter, updatedDoc) == null) {
@@ -237,6 +257,104 @@ public class MongoEntityStorage implements EntityStorage {
         }
     }
 
+    /**
+     * Merges a batch of changes into the stored entities with a single bulk
+     * write. The explicit types of each change are added to, and its
+     * properties are set on, the stored Entity that has the same Subject,
+     * which is created if it doesn't exist yet. Unlike
+     * {@link #update(Entity, Entity)}, nothing has to be read first and every
+     * change is applied atomically, so merges never go stale. The version of
+     * every merged Entity is incremented.
+     * <p>
+     * Entities that would be created are first checked for near duplicates.
+     * Those that are nearly identical to a stored Entity are left out, and are
+     * reported once the rest of the batch has been written.
+     *
+     * @param changes - The types and properties to merge into each Entity, at
+     *   most one per Subject. (not null)
+     * @throws EntityNearDuplicateException Some of the entities were not
+     *   created because they are near duplicates.
+     * @throws EntityStorageException A problem occurred while merging.
+     */
+    public void merge(final Collection<Entity> changes) throws EntityStorageException {
+        requireNonNull(changes);
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            final MongoCollection<Document> collection = mongo.getDatabase(ryaInstanceName).getCollection(COLLECTION_NAME);
+
+            // Find out which of the entities already exist.
+            final List<String> subjects = changes.stream()
+                    .map(change -> change.getSubject().getData())
+                    .collect(Collectors.toList());
+            final Set<String> existing = new HashSet<>();
+            for (final Document document : collection.find(Filters.in(EntityDocumentConverter.SUBJECT, subjects))
+                    .projection(Projections.include(EntityDocumentConverter.SUBJECT))) {
+                existing.add(document.getString(EntityDocumentConverter.SUBJECT));
+            }
+
+            final List<WriteModel<Document>> writes = new ArrayList<>();
+            final List<String> nearDuplicates = new ArrayList<>();
+            for (final Entity change : changes) {
+                final String subject = change.getSubject().getData();
+                if (!existing.contains(subject) && detectDuplicates(change)) {
+                    nearDuplicates.add(subject);
+                } else {
+                    writes.add(new UpdateOneModel<>(makeSubjectFilter(change.getSubject()), makeMergeUpdate(change),
+                            new UpdateOptions().upsert(true)));
+                }
+            }
+
+            if (!writes.isEmpty()) {
+                collection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            }
+            if (!nearDuplicates.isEmpty()) {
+                throw new EntityNearDuplicateException("Duplicate data found and will not be inserted for Entities with Subjects: " + nearDuplicates);
+            }
+        } catch(final MongoException e) {
+            throw new EntityStorageException("Failed to merge changes into " + changes.size() + " Entities.", e);
+        }
+    }
+
+    /**
+     * Makes the update that merges a change into the Entity it is for, or
+     * creates the whole Entity document if it doesn't exist yet.
+     */
+    private Bson makeMergeUpdate(final Entity change) {
+        final List<Bson> updates = new ArrayList<>();
+        updates.add( Updates.inc(EntityDocumentConverter.VERSION, 1) );
+        updates.add( Updates.setOnInsert(EntityDocumentConverter.SMART_URI, change.getSmartUri().stringValue()) );
+
+        final List<String> explicitTypeIds = change.getExplicitTypeIds().stream()
+                .map(RyaIRI::getData)
+                .collect(Collectors.toList());
+        if (explicitTypeIds.isEmpty()) {
+            updates.add( Updates.setOnInsert(EntityDocumentConverter.EXPLICIT_TYPE_IDS, explicitTypeIds) );
+        } else {
+            updates.add( Updates.addEachToSet(EntityDocumentConverter.EXPLICIT_TYPE_IDS, explicitTypeIds) );
+        }
+
+        if (change.getProperties().isEmpty()) {
+            updates.add( Updates.setOnInsert(EntityDocumentConverter.PROPERTIES, new Document()) );
+        } else {
+            change.getProperties().forEach((typeId, typeProperties) -> typeProperties.forEach((propertyName, property) -> {
+                final String valuePath = Joiner.on(".").join(
+                        EntityDocumentConverter.PROPERTIES, typeId.getData(), MongoDbSafeKey.encodeKey(propertyName.getData()));
+                updates.add( Updates.set(valuePath, RYA_TYPE_CONVERTER.toDocument(property.getValue())) );
+            }));
+        }
+
+        if (duplicateDataDetector.isDetectionEnabled()) {
+            // Keys of any values being replaced are left in place. They can only
+            // make the Entity a candidate for more duplicate checks than necessary.
+            updates.add( Updates.addEachToSet(BLOCKING_KEYS, new ArrayList<>(duplicateDataDetector.getBlockingKeys(change))) );
+            updates.add( Updates.setOnInsert(BLOCKING_SCHEME, duplicateDataDetector.getBlockingScheme()) );
+        }
+        return Updates.combine(updates);
+    }
+
     @Override
     public boolean delete(final RyaIRI subject) throws EntityStorageException {
         requireNonNull(subject);
@@ -284,83 +402,90 @@ public class MongoEntityStorage implements EntityStorage {
         return Stream.of(dataTypeFilter, valueFilter);
     }
 
+    /**
+     * Converts an {@link Entity} into a {@link Document}, along with the
+     * blocking keys of its property values if duplicate detection is enabled.
+     */
+    private Document toDocument(final Entity entity) {
+        final Document document = ENTITY_CONVERTER.toDocument(entity);
+        if (duplicateDataDetector.isDetectionEnabled()) {
+            document.append(BLOCKING_KEYS, new ArrayList<>(duplicateDataDetector.getBlockingKeys(entity)));
+            document.append(BLOCKING_SCHEME, duplicateDataDetector.getBlockingScheme());
+        }
+        return document;
+    }
+
     private boolean detectDuplicates(final Entity entity) throws EntityStorageException {
         boolean hasDuplicate = false;
         if (duplicateDataDetector.isDetectionEnabled()) {
-            // Grab all entities that have all the same explicit types as our
-            // original Entity.
-            final List<Entity> comparisonEntities = searchHasAllExplicitTypes(entity.getExplicitTypeIds());
+            final Optional<Bson> candidateFilter = makeDuplicateCandidateFilter(entity);
+            if (candidateFilter.isPresent()) {
+                final MongoCollection<Document> collection = mongo.getDatabase(ryaInstanceName).getCollection(COLLECTION_NAME);
+                if (!isBlockingIndexCreated) {
+                    collection.createIndex(new Document(BLOCKING_KEYS, 1));
+                    isBlockingIndexCreated = true;
+                }
 
-            // Now that we have our set of potential duplicates, compare them.
-            // We can stop when we find one duplicate.
-            for (final Entity compareEntity : comparisonEntities) {
-                try {
-                    hasDuplicate = duplicateDataDetector.compareEntities(entity, compareEntity);
+                // Only compare the entities that are in the same blocks as
+                // our original Entity. We can stop when we find one duplicate.
+                try (final MongoCursor<Document> cursor = collection.find(candidateFilter.get()).iterator()) {
+                    while (!hasDuplicate && cursor.hasNext()) {
+                        final Entity compareEntity = ENTITY_CONVERTER.fromDocument(cursor.next());
+                        hasDuplicate = duplicateDataDetector.compareEntities(entity, compareEntity);
+                    }
+                } catch (final DocumentConverterException e) {
+                    throw new EntityStorageException("Could not read a potential duplicate Entity.", e);
                 } catch (final SmartUriException e) {
                     throw new EntityStorageException("Encountered an error while comparing entities.", e);
                 }
-                if (hasDuplicate) {
-                    break;
-                }
             }
         }
         return hasDuplicate;
     }
 
     /**
-     * Searches the Entity storage for all Entities that contain all the
-     * specified explicit type IDs.
-     * @param explicitTypeIds the {@link ImmutableList} of {@link RyaIRI}s that
-     * are being searched for.
-     * @return the {@link List} of {@link Entity}s that have all the specified
-     * explicit type IDs. If nothing was found an empty {@link List} is
-     * returned.
+     * Makes a filter that matches the entities that may be nearly identical
+     * to an {@link Entity}: the ones that have all the same explicit types,
+     * and whose blocking keys line up with the entity's property values.
+     * Entities whose blocking keys were built with a different scheme (or
+     * were stored without any) always match.
+     * @param entity the {@link Entity} to find potential duplicates of.
+     * @return the filter, or {@link Optional#empty()} if no stored entity can
+     * be a duplicate.
      * @throws EntityStorageException
      */
-    private List<Entity> searchHasAllExplicitTypes(final ImmutableList<RyaIRI> explicitTypeIds) throws EntityStorageException {
-        final List<Entity> hasAllExplicitTypesEntities = new ArrayList<>();
-        if (!explicitTypeIds.isEmpty()) {
-            // Grab the first type from the explicit type IDs.
-            final RyaIRI firstType = explicitTypeIds.get(0);
-
-            // Check if that type exists anywhere in storage.
-            final List<RyaIRI> subjects = new ArrayList<>();
-            Optional<Type> type;
-            try {
-                if (mongoTypeStorage == null) {
-                    mongoTypeStorage = new MongoTypeStorage(mongo, ryaInstanceName);
-                }
-                type = mongoTypeStorage.get(firstType);
-            } catch (final TypeStorageException e) {
-                throw new EntityStorageException("Unable to get entity type: " + firstType, e);
-            }
-            if (type.isPresent()) {
-                // Grab the subjects for all the types we found matching "firstType"
-                final ConvertingCursor<TypedEntity> cursor = search(Optional.empty(), type.get(), Collections.emptySet());
-                while (cursor.hasNext()) {
-                    final TypedEntity typedEntity = cursor.next();
-                    final RyaIRI subject = typedEntity.getSubject();
-                    subjects.add(subject);
-                }
-            }
+    private Optional<Bson> makeDuplicateCandidateFilter(final Entity entity) throws EntityStorageException {
+        final ImmutableList<RyaIRI> explicitTypeIds = entity.getExplicitTypeIds();
+        if (explicitTypeIds.isEmpty()) {
+            return Optional.empty();
+        }
 
-            // Now grab all the Entities that have the subjects we found.
-            for (final RyaIRI subject : subjects) {
-                final Optional<Entity> entityFromSubject = get(subject);
-                if (entityFromSubject.isPresent()) {
-                    final Entity candidateEntity = entityFromSubject.get();
-                    // Filter out any entities that don't have all the same
-                    // types associated with them as our original list of
-                    // explicit type IDs. We already know the entities we found
-                    // have "firstType" but now we have access to all the other
-                    // types they have.
-                    if (candidateEntity.getExplicitTypeIds().containsAll(explicitTypeIds)) {
-                        hasAllExplicitTypesEntities.add(candidateEntity);
-                    }
-                }
+        // Check if the first type exists anywhere in storage.
+        final RyaIRI firstType = explicitTypeIds.get(0);
+        try {
+            if (mongoTypeStorage == null) {
+                mongoTypeStorage = new MongoTypeStorage(mongo, ryaInstanceName);
+            }
+            if (!mongoTypeStorage.get(firstType).isPresent()) {
+                return Optional.empty();
             }
+        } catch (final TypeStorageException e) {
+            throw new EntityStorageException("Unable to get entity type: " + firstType, e);
         }
 
-        return hasAllExplicitTypesEntities;
+        final List<Bson> filters = new ArrayList<>();
+        filters.add( Filters.all(EntityDocumentConverter.EXPLICIT_TYPE_IDS, explicitTypeIds.stream()
+                .map(RyaIRI::getData)
+                .collect(Collectors.toList())) );
+
+        final List<Bson> blockingFilters = duplicateDataDetector.getCandidateBlockingKeys(entity).stream()
+                .map(keys -> Filters.in(BLOCKING_KEYS, keys))
+                .collect(Collectors.toList());
+        if (!blockingFilters.isEmpty()) {
+            filters.add( Filters.or(
+                    Filters.ne(BLOCKING_SCHEME, duplicateDataDetector.getBlockingScheme()),
+                    Filters.and(blockingFilters)) );
+        }
+        return Optional.of(Filters.and(filters));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.entity.update.mongo;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.apache.rya.api.domain.RyaIRI;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.persist.RyaDAO;
+import org.apache.rya.indexing.accumulo.ConfigUtils;
+import org.apache.rya.indexing.entity.model.Entity;
+import org.apache.rya.indexing.entity.model.Property;
+import org.apache.rya.indexing.entity.model.Type;
+import org.apache.rya.indexing.entity.storage.EntityStorage.EntityStorageException;
+import org.apache.rya.indexing.entity.storage.TypeStorage;
+import org.apache.rya.indexing.entity.storage.TypeStorage.TypeStorageException;
+import org.apache.rya.indexing.entity.storage.mongo.ConvertingCursor;
+import org.apache.rya.indexing.entity.storage.mongo.MongoEntityStorage;
+import org.apache.rya.indexing.smarturi.duplication.EntityNearDuplicateException;
+import org.apache.rya.mongodb.MongoDBRdfConfiguration;
+import org.apache.rya.mongodb.StatefulMongoDBRdfConfiguration;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A {@link MongoEntityIndexer} that buffers the statements it is given and
+ * writes them in bulk. All of the type and property changes for a Subject are
+ * coalesced until the indexer is flushed, which happens whenever the
+ * {@link RyaDAO} is flushed, when the indexer is closed, and whenever
+ * {@link ConfigUtils#ENTITY_BUFFER_SIZE} statements have been buffered. They
+ * are then applied with {@link MongoEntityStorage#merge(Collection)} as a
+ * single bulk write of atomic updates, instead of reading, mutating, and
+ * replacing an Entity for every statement.
+ * <p>
+ * Deleting a statement flushes the buffer first, so statements are always
+ * applied in the order they were given. If a flush fails, the changes are
+ * kept and written by the next flush, except for the entities that were
+ * rejected as near duplicates, which are dropped.
+ * <p>
+ * The buffer only coalesces anything when the {@link RyaDAO} does not flush
+ * after each update ({@link MongoDBRdfConfiguration#CONF_FLUSH_EACH_UPDATE}
+ * is {@code false}). Otherwise every add flushes the indexer, and a warning
+ * is logged when the indexer is initialized.
+ */
+@DefaultAnnotation(NonNull.class)
+public class BufferedMongoEntityIndexer extends MongoEntityIndexer {
+    private static final Logger log = Logger.getLogger(BufferedMongoEntityIndexer.class);
+
+    /**
+     * The number of statements that are buffered if the configuration doesn't
+     * specify a positive {@link ConfigUtils#ENTITY_BUFFER_SIZE}.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1000;
+
+    /**
+     * When this IRI is the Predicate of a Statement, it indicates a {@link Type} for an {@link Entity}.
+     */
+    private static final RyaIRI TYPE_IRI = new RyaIRI( RDF.TYPE.toString() );
+
+    private final Map<RyaIRI, PendingEntity> pending = new LinkedHashMap<>();
+    private int numPendingStatements = 0;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    private MongoEntityStorage entities = null;
+    private TypeStorage types = null;
+
+    @Override
+    public synchronized void init() {
+        super.init();
+        try {
+            entities = getEntityStorage();
+        } catch (final EntityStorageException e) {
+            log.error("Unable to set entity storage.");
+        }
+        types = getTypeStorage();
+
+        final StatefulMongoDBRdfConfiguration conf = super.configuration.get();
+        final int configuredBufferSize = ConfigUtils.getEntityBufferSize(conf);
+        bufferSize = configuredBufferSize > 0 ? configuredBufferSize : DEFAULT_BUFFER_SIZE;
+        if(conf.flushEachUpdate()) {
+            log.warn("The Entity index is flushed after each update, so it will not buffer statements. Set " +
+                    MongoDBRdfConfiguration.CONF_FLUSH_EACH_UPDATE + " to false to write them in bulk.");
+        }
+    }
+
+    @Override
+    public synchronized void storeStatements(final Collection<RyaStatement> statements) throws IOException {
+        requireNonNull(statements);
+        checkState(entities != null, "Must set this indexers configuration before storing statements.");
+        checkState(types != null, "Must set this indexers configuration before storing statements.");
+
+        for(final RyaStatement statement : statements) {
+            final PendingEntity entity = pending.computeIfAbsent(statement.getSubject(), subject -> new PendingEntity());
+
+            // The Statement is setting an Explicit Type ID for the Entity.
+            if(TYPE_IRI.equals(statement.getPredicate())) {
+                entity.explicitTypeIds.add( new RyaIRI(statement.getObject().getData()) );
+            }
+
+            // The Statement is adding a Property to the Entity.
+            else {
+                entity.properties.put(statement.getPredicate(), statement.getObject());
+            }
+
+            numPendingStatements++;
+            if(numPendingStatements >= bufferSize) {
+                flush();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void deleteStatement(final RyaStatement statement) throws IOException {
+        flush();
+        super.deleteStatement(statement);
+    }
+
+    /**
+     * Writes every buffered change to the Entity storage.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        if(pending.isEmpty()) {
+            return;
+        }
+
+        final List<Entity> changes = new ArrayList<>(pending.size());
+        final Map<RyaIRI, List<RyaIRI>> propertyTypes = new HashMap<>();
+        for(final Entry<RyaIRI, PendingEntity> entry : pending.entrySet()) {
+            final Entity.Builder change = Entity.builder()
+                    .setSubject(entry.getKey())
+                    .setVersion(0);
+            entry.getValue().explicitTypeIds.forEach(change::setExplicitType);
+
+            // Set the Property for each type that includes the Statement's predicate.
+            for(final Entry<RyaIRI, RyaType> property : entry.getValue().properties.entrySet()) {
+                final RyaIRI propertyName = property.getKey();
+                if(!propertyTypes.containsKey(propertyName)) {
+                    propertyTypes.put(propertyName, findTypesWithProperty(propertyName));
+                }
+                for(final RyaIRI typeId : propertyTypes.get(propertyName)) {
+                    change.setProperty(typeId, new Property(propertyName, property.getValue()));
+                }
+            }
+            changes.add( change.build() );
+        }
+
+        try {
+            entities.merge(changes);
+        } catch (final EntityNearDuplicateException e) {
+            // The rest of the batch was written, and the near duplicates would
+            // only be rejected again.
+            clearPending();
+            throw new IOException("Failed to update the Entity index.", e);
+        } catch (final EntityStorageException e) {
+            // Keep the changes so the next flush writes them. Merging the same
+            // change twice only sets the same types and properties again.
+            throw new IOException("Failed to update the Entity index. The changes to " + changes.size() +
+                    " Entities will be written by the next flush.", e);
+        }
+        clearPending();
+    }
+
+    private void clearPending() {
+        pending.clear();
+        numPendingStatements = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        super.close();
+    }
+
+    private List<RyaIRI> findTypesWithProperty(final RyaIRI propertyName) throws IOException {
+        final List<RyaIRI> typeIds = new ArrayList<>();
+        try(final ConvertingCursor<Type> typesIt = types.search(propertyName)) {
+            while(typesIt.hasNext()) {
+                typeIds.add( typesIt.next().getId() );
+            }
+        } catch (final TypeStorageException e) {
+            throw new IOException("Failed to fetch Types that include the property name '" +
+                    propertyName.getData() + "'.", e);
+        }
+        return typeIds;
+    }
+
+    /**
+     * The changes to a single Entity that have not been written yet.
+     */
+    private static class PendingEntity {
+        private final Set<RyaIRI> explicitTypeIds = new LinkedHashSet<>();
+        private final Map<RyaIRI, RyaType> properties = new LinkedHashMap<>();
+    }
+}
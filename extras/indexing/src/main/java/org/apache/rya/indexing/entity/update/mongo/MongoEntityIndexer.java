@@ -18,7 +18,6 @@
  */
 package org.apache.rya.indexing.entity.update.mongo;
 
-import org.apache.rya.indexing.entity.storage.EntityStorage;
 import org.apache.rya.indexing.entity.storage.EntityStorage.EntityStorageException;
 import org.apache.rya.indexing.entity.storage.TypeStorage;
 import org.apache.rya.indexing.entity.storage.mongo.MongoEntityStorage;
@@ -37,7 +36,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 public class MongoEntityIndexer extends BaseEntityIndexer {
 
     @Override
-    public EntityStorage getEntityStorage() throws EntityStorageException {
+    public MongoEntityStorage getEntityStorage() throws EntityStorageException {
         final StatefulMongoDBRdfConfiguration conf = super.configuration.get();
         return new MongoEntityStorage(conf.getMongoClient(), conf.getRyaInstanceName());
     }
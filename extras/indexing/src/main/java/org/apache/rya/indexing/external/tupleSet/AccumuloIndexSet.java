@@ -23,14 +23,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
-import org.apache.accumulo.core.client.BatchScanner;
 import org.apache.accumulo.core.client.Connector;
 import org.apache.accumulo.core.client.Scanner;
 import org.apache.accumulo.core.client.TableNotFoundException;
@@ -42,7 +43,6 @@ import org.apache.rya.accumulo.pcj.iterators.BindingSetHashJoinIterator;
 import org.apache.rya.accumulo.pcj.iterators.BindingSetHashJoinIterator.HashJoinType;
 import org.apache.rya.accumulo.pcj.iterators.IteratorCombiner;
 import org.apache.rya.accumulo.pcj.iterators.PCJKeyToCrossProductBindingSetIterator;
-import org.apache.rya.accumulo.pcj.iterators.PCJKeyToJoinBindingSetIterator;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
 import org.apache.rya.api.domain.VarNameUtils;
 import org.apache.rya.api.utils.IteratorWrapper;
@@ -57,6 +57,7 @@ import org.apache.rya.indexing.pcj.storage.accumulo.PcjTables;
 import org.apache.rya.indexing.pcj.storage.accumulo.VariableOrder;
 import org.apache.rya.rdftriplestore.evaluation.ExternalBatchingIterator;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.Binding;
 import org.eclipse.rdf4j.query.BindingSet;
@@ -75,6 +76,7 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashBiMap;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
@@ -102,6 +104,10 @@ import com.google.common.collect.Sets;
  * {@link ValueMapVisitor} to be used as constraints when scanning the Accumulo
  * table. This allows for the pre-computed results to be used for a larger class
  * of sub-queries.
+ * <p>
+ * Binding sets are joined against the table at most {@link ConfigUtils#PCJ_LOOKUP_BATCH_SIZE}
+ * at a time, so only one batch is held in the hash join at once. The batches are scanned
+ * by a {@link PcjLookupEngine} that reuses its scanners from one batch to the next.
  *
  */
 public class AccumuloIndexSet extends ExternalTupleSet implements
@@ -114,7 +120,15 @@ public class AccumuloIndexSet extends ExternalTupleSet implements
 											// to table
 	private final PcjTables pcj = new PcjTables();
 	private final Authorizations auths;
+	private final PcjLookupEngine lookups;
+	private final int lookupBatchSize;
+	private final AtomicInteger openEvaluations = new AtomicInteger();
 
+	/**
+	 * The number of binding sets that are joined against the table at once if no
+	 * batch size is configured.
+	 */
+	public static final int DEFAULT_LOOKUP_BATCH_SIZE = 1000;
 
 	@Override
 	public Map<String, Set<String>> getSupportedVariableOrders() {
@@ -150,6 +164,11 @@ public class AccumuloIndexSet extends ExternalTupleSet implements
 		this.tablename = tablename;
 		this.accCon = ConfigUtils.getConnector(conf);
 		this.auths = getAuthorizations(conf);
+		this.lookups = new PcjLookupEngine(accCon, tablename, auths,
+				ConfigUtils.getPcjLookupThreads(conf), ConfigUtils.getPcjLookupPoolSize(conf));
+		this.lookupBatchSize = ConfigUtils.getPcjLookupBatchSize(conf);
+		Preconditions.checkArgument(lookupBatchSize > 0,
+				"The PCJ lookup batch size must be positive.");
 		final SPARQLParser sp = new SPARQLParser();
 		final ParsedTupleQuery pq = (ParsedTupleQuery) sp.parseQuery(sparql, null);
 		final TupleExpr te = pq.getTupleExpr();
@@ -194,6 +213,11 @@ public class AccumuloIndexSet extends ExternalTupleSet implements
         this.tablename = tablename;
 		this.accCon = ConfigUtils.getConnector(conf);
 		this.auths = getAuthorizations(conf);
+		this.lookups = new PcjLookupEngine(accCon, tablename, auths,
+				ConfigUtils.getPcjLookupThreads(conf), ConfigUtils.getPcjLookupPoolSize(conf));
+		this.lookupBatchSize = ConfigUtils.getPcjLookupBatchSize(conf);
+		Preconditions.checkArgument(lookupBatchSize > 0,
+				"The PCJ lookup batch size must be positive.");
         PcjMetadata meta = pcj.getPcjMetadata(accCon, tablename);
 		final SPARQLParser sp = new SPARQLParser();
 		final ParsedTupleQuery pq = (ParsedTupleQuery) sp.parseQuery(meta.getSparql(), null);
@@ -275,7 +299,10 @@ public class AccumuloIndexSet extends ExternalTupleSet implements
 	 * of binding set constraints, this method finds common binding labels
 	 * between the constraints and table, uses those to build a prefix scan of
 	 * the Accumulo table, and creates a solution binding set by iterating of
-	 * the scan results.
+	 * the scan results. Collections that are larger than the lookup batch size
+	 * are split into batches that are evaluated one after the other as the
+	 * results are read. The scanners that are kept between batches are closed
+	 * once the last open result iteration is closed.
 	 * @param bindingset - collection of {@link BindingSet}s to be joined with PCJ
 	 * @return - CloseableIteration over joined results
 	 */
@@ -283,6 +310,43 @@ public class AccumuloIndexSet extends ExternalTupleSet implements
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(
 			final Collection<BindingSet> bindingset)
 			throws QueryEvaluationException {
+		openEvaluations.incrementAndGet();
+		try {
+			if (bindingset.size() <= lookupBatchSize) {
+				return new ReleasingEvaluation(evaluateBatch(bindingset));
+			}
+			return new ReleasingEvaluation(new BatchedEvaluation(Iterables.partition(bindingset, lookupBatchSize).iterator()));
+		} catch (QueryEvaluationException | RuntimeException e) {
+			finishEvaluation();
+			throw e;
+		}
+	}
+
+	/**
+	 * Closes the scanners that are kept between batches. The PCJ may still be
+	 * evaluated afterwards.
+	 */
+	@Override
+	public void releaseResources() {
+		lookups.close();
+	}
+
+	/**
+	 * @return The number of scanners that are kept for later batches.
+	 */
+	int getIdleScannerCount() {
+		return lookups.getIdleScannerCount();
+	}
+
+	private void finishEvaluation() {
+		if (openEvaluations.decrementAndGet() == 0) {
+			releaseResources();
+		}
+	}
+
+	private CloseableIteration<BindingSet, QueryEvaluationException> evaluateBatch(
+			final Collection<BindingSet> bindingset)
+			throws QueryEvaluationException {
 
 		if (bindingset.isEmpty()) {
 			return new IteratorWrapper<BindingSet, QueryEvaluationException>(
@@ -423,25 +487,19 @@ public class AccumuloIndexSet extends ExternalTupleSet implements
 						getTableVarMap()));
 
 				// create hash join iterator
-				final BatchScanner scanner2 = accCon.createBatchScanner(tablename, auths, 10);
-				scanner2.setRanges(hashJoinRanges);
-				final PCJKeyToJoinBindingSetIterator iterator = new PCJKeyToJoinBindingSetIterator(
-						scanner2, getTableVarMap(), maxPrefixLen);
-				iteratorList.add(new BindingSetHashJoinIterator(
-						bindingSetHashMap, iterator, unAssuredVariables, joinType));
+				iteratorList.add(new BindingSetHashJoinIterator(bindingSetHashMap,
+						lookups.lookup(hashJoinRanges, getTableVarMap(), maxPrefixLen),
+						unAssuredVariables, joinType));
 
 				// combine iterators
 				return new IteratorCombiner(iteratorList);
 
 			} else {
-				// only hash join BindingSets exist
-				final BatchScanner scanner = accCon.createBatchScanner(tablename, auths, 10);
-				// only need to create hash join iterator
-				scanner.setRanges(hashJoinRanges);
-				final PCJKeyToJoinBindingSetIterator iterator = new PCJKeyToJoinBindingSetIterator(
-						scanner, getTableVarMap(), maxPrefixLen);
+				// only hash join BindingSets exist - scan the merged
+				// prefix ranges with a pooled scanner
 				return new BindingSetHashJoinIterator(bindingSetHashMap,
-						iterator, unAssuredVariables, joinType);
+						lookups.lookup(hashJoinRanges, getTableVarMap(), maxPrefixLen),
+						unAssuredVariables, joinType);
 			}
 		} catch (final Exception e) {
 			throw new QueryEvaluationException(e);
@@ -581,6 +639,75 @@ public class AccumuloIndexSet extends ExternalTupleSet implements
    }
 
 
+	/**
+	 * Closes the idle scanners once the last open evaluation of this PCJ is
+	 * closed, so callers that never call {@link #releaseResources()} do not
+	 * leak them.
+	 */
+	private class ReleasingEvaluation extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+		private final CloseableIteration<BindingSet, QueryEvaluationException> results;
+
+		public ReleasingEvaluation(final CloseableIteration<BindingSet, QueryEvaluationException> results) {
+			this.results = results;
+		}
+
+		@Override
+		protected BindingSet getNextElement() throws QueryEvaluationException {
+			return results.hasNext() ? results.next() : null;
+		}
+
+		@Override
+		protected void handleClose() throws QueryEvaluationException {
+			try {
+				super.handleClose();
+				results.close();
+			} finally {
+				finishEvaluation();
+			}
+		}
+	}
+
+	/**
+	 * Evaluates one batch of binding sets at a time, so only the hash join of the
+	 * batch that is being read is held in memory.
+	 */
+	private class BatchedEvaluation extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+		private final Iterator<List<BindingSet>> batches;
+		private CloseableIteration<BindingSet, QueryEvaluationException> current = null;
+
+		public BatchedEvaluation(final Iterator<List<BindingSet>> batches) {
+			this.batches = batches;
+		}
+
+		@Override
+		protected BindingSet getNextElement() throws QueryEvaluationException {
+			while (current == null || !current.hasNext()) {
+				if (current != null) {
+					current.close();
+					current = null;
+				}
+				if (!batches.hasNext()) {
+					return null;
+				}
+				current = evaluateBatch(batches.next());
+			}
+			return current.next();
+		}
+
+		@Override
+		protected void handleClose() throws QueryEvaluationException {
+			try {
+				super.handleClose();
+			} finally {
+				if (current != null) {
+					current.close();
+				}
+			}
+		}
+	}
+
 	private class BindingSetVariableOrder {
 
 		Set<String> unusedVars;
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.external.tupleSet;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.accumulo.core.client.BatchScanner;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.rya.accumulo.pcj.iterators.PCJKeyToJoinBindingSetIterator;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Looks up the rows of a PCJ table that share a prefix with the binding sets that
+ * are joined against it.
+ * <p>
+ * The prefix ranges of a batch are sorted and merged before they are scanned, so
+ * duplicate, nested, and adjacent prefixes become a single range. Scanning is done
+ * with {@link BatchScanner}s that are kept in a small pool once a lookup has been
+ * read to the end, so the batches of one query do not each pay for a new scanner
+ * and its thread pool. A lookup that is closed before it is exhausted closes its
+ * scanner instead of returning it, because the scanner may still have queries
+ * running against the tablet servers.
+ * <p>
+ * This class is thread safe.
+ */
+@DefaultAnnotation(NonNull.class)
+public class PcjLookupEngine implements AutoCloseable {
+
+    /**
+     * The number of query threads each scanner uses if none is configured.
+     */
+    public static final int DEFAULT_QUERY_THREADS = 10;
+
+    /**
+     * The number of idle scanners that are kept if no pool size is configured.
+     */
+    public static final int DEFAULT_POOL_SIZE = 2;
+
+    private final Connector connector;
+    private final String tableName;
+    private final Authorizations auths;
+    private final int queryThreads;
+    private final int poolSize;
+
+    private final Deque<BatchScanner> idle = new ArrayDeque<>();
+
+    /**
+     * Constructs an instance of {@link PcjLookupEngine}.
+     *
+     * @param connector - Connects to the Accumulo instance that holds the PCJ table. (not null)
+     * @param tableName - The name of the PCJ table. (not null)
+     * @param auths - The authorizations that are used to scan the table. (not null)
+     * @param queryThreads - The number of query threads each scanner uses. (&gt; 0)
+     * @param poolSize - The maximum number of idle scanners that are kept for later lookups. (&gt;= 0)
+     */
+    public PcjLookupEngine(
+            final Connector connector,
+            final String tableName,
+            final Authorizations auths,
+            final int queryThreads,
+            final int poolSize) {
+        this.connector = requireNonNull(connector);
+        this.tableName = requireNonNull(tableName);
+        this.auths = requireNonNull(auths);
+        if(queryThreads <= 0) {
+            throw new IllegalArgumentException("The number of query threads must be positive.");
+        }
+        if(poolSize < 0) {
+            throw new IllegalArgumentException("The pool size may not be negative.");
+        }
+        this.queryThreads = queryThreads;
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Sorts a set of ranges and merges the ones that overlap or touch.
+     *
+     * @param ranges - The ranges that will be scanned. (not null)
+     * @return The fewest ranges that cover the same rows.
+     */
+    public static List<Range> coalesce(final Collection<Range> ranges) {
+        requireNonNull(ranges);
+        return Range.mergeOverlapping(ranges);
+    }
+
+    /**
+     * Scans a set of prefix ranges of the PCJ table.
+     *
+     * @param ranges - The prefix ranges that will be scanned. (not null)
+     * @param tableVarMap - Maps the query's variables to the PCJ table's variables. (not null)
+     * @param maxPrefixLen - The number of variables the hash join keys are built from. (&gt; 0)
+     * @return The hash join key and binding set of each row that was scanned.
+     * @throws TableNotFoundException The PCJ table does not exist.
+     */
+    public CloseableIteration<Map.Entry<String, BindingSet>, QueryEvaluationException> lookup(
+            final Collection<Range> ranges,
+            final Map<String, String> tableVarMap,
+            final int maxPrefixLen) throws TableNotFoundException {
+        requireNonNull(ranges);
+        requireNonNull(tableVarMap);
+
+        final BatchScanner scanner = borrow();
+        try {
+            scanner.setRanges(coalesce(ranges));
+            return new PooledLookup(scanner, new PCJKeyToJoinBindingSetIterator(scanner, tableVarMap, maxPrefixLen));
+        } catch(final RuntimeException e) {
+            scanner.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The number of scanners that are waiting to be reused.
+     */
+    public synchronized int getIdleScannerCount() {
+        return idle.size();
+    }
+
+    /**
+     * Closes the idle scanners. Lookups that are still open close or return their
+     * scanners as usual, and the engine may still be used afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        while(!idle.isEmpty()) {
+            idle.pop().close();
+        }
+    }
+
+    private BatchScanner borrow() throws TableNotFoundException {
+        synchronized(this) {
+            if(!idle.isEmpty()) {
+                return idle.pop();
+            }
+        }
+        return connector.createBatchScanner(tableName, auths, queryThreads);
+    }
+
+    private void giveBack(final BatchScanner scanner) {
+        synchronized(this) {
+            if(idle.size() < poolSize) {
+                idle.push(scanner);
+                return;
+            }
+        }
+        scanner.close();
+    }
+
+    /**
+     * Returns its scanner to the pool if it was read to the end, and closes it otherwise.
+     */
+    private class PooledLookup implements CloseableIteration<Map.Entry<String, BindingSet>, QueryEvaluationException> {
+        private final BatchScanner scanner;
+        private final PCJKeyToJoinBindingSetIterator rows;
+        private boolean exhausted = false;
+        private boolean closed = false;
+
+        public PooledLookup(final BatchScanner scanner, final PCJKeyToJoinBindingSetIterator rows) {
+            this.scanner = scanner;
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() throws QueryEvaluationException {
+            if(closed || exhausted) {
+                return false;
+            }
+            exhausted = !rows.hasNext();
+            return !exhausted;
+        }
+
+        @Override
+        public Map.Entry<String, BindingSet> next() throws QueryEvaluationException {
+            return rows.next();
+        }
+
+        @Override
+        public void remove() throws QueryEvaluationException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() throws QueryEvaluationException {
+            if(closed) {
+                return;
+            }
+            closed = true;
+            if(exhausted) {
+                giveBack(scanner);
+            } else {
+                scanner.close();
+            }
+        }
+    }
+}
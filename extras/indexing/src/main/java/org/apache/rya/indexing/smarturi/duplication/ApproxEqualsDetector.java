@@ -18,6 +18,9 @@
  */
 package org.apache.rya.indexing.smarturi.duplication;
 
+import java.util.Optional;
+import java.util.Set;
+
 import org.apache.rya.indexing.smarturi.SmartUriException;
 import org.eclipse.rdf4j.model.IRI;
 
@@ -75,4 +78,32 @@ public interface ApproxEqualsDetector<T> {
         final T object2 = convertStringToObject(rhs);
         return areObjectsApproxEquals(object1, object2);
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the blocking key of a string representation of an object. Objects
+     * are only compared with each other if the blocking key of one is among
+     * the candidate blocking keys of the other, so detectors that provide keys
+     * must make sure that whenever {@code areApproxEquals(lhs, rhs)} is
+     * {@code true} the key of {@code rhs} is one of the candidate keys of
+     * {@code lhs}.
+     * @param string the {@link String} representation of the object.
+     * @return the blocking key or {@link Optional#empty()} if this detector
+     * doesn't block objects.
+     * @throws SmartUriException
+     */
+    public default Optional<String> getBlockingKey(final String string) throws SmartUriException {
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the blocking keys of all the objects that may be approximately
+     * equal to an object. See {@link #getBlockingKey(String)}.
+     * @param string the {@link String} representation of the object.
+     * @return the candidate blocking keys or {@link Optional#empty()} if any
+     * object may be approximately equal to it.
+     * @throws SmartUriException
+     */
+    public default Optional<Set<String>> getCandidateBlockingKeys(final String string) throws SmartUriException {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.smarturi.duplication;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Builds the blocking keys used by the {@link ApproxEqualsDetector}s. A value's
+ * blocking key is a coarse bucket that depends on the detector's
+ * {@link Tolerance}: numeric values and dates are binned by the size of the
+ * tolerance (or, for percentage tolerances, on a logarithmic scale), strings
+ * and URIs are bucketed by length since the edit distance is at least the
+ * difference in length, and values that must match exactly are keyed by
+ * their normalized form.
+ * <p>
+ * The candidate keys of a value are the keys of every value that could be
+ * approximately equal to it. Each bucket is padded by one on either side, so
+ * that rounding errors can never exclude a real match. When the candidates
+ * can't be bounded (or there would be too many of them) no candidate keys are
+ * returned and any value may match.
+ */
+final class BlockingKeys {
+    /**
+     * The most candidate keys that are generated for a single value.
+     */
+    private static final int MAX_CANDIDATE_KEYS = 64;
+
+    /**
+     * Bucket numbers at or beyond this magnitude are too imprecise to bin.
+     */
+    private static final double MAX_BUCKET = 1L << 52;
+
+    private static final String EXACT = "=";
+    private static final String BUCKET = "b";
+    private static final String LENGTH = "l";
+    private static final String ZERO = "z";
+    private static final String NEGATIVE = "n";
+    private static final String ANY = "*";
+    private static final String OVERFLOW = "+";
+    private static final String UNDERFLOW = "-";
+
+    private BlockingKeys() {
+    }
+
+    /**
+     * @param value the normalized value.
+     * @return the blocking key of a value that must be matched exactly.
+     */
+    static String exactKey(final Object value) {
+        return EXACT + value;
+    }
+
+    /**
+     * Gets the blocking key of an integral value, such as a number or a
+     * date's milliseconds.
+     * @param value the value.
+     * @param tolerance the {@link Tolerance} of the detector.
+     * @return the blocking key.
+     */
+    static String integralKey(final long value, final Tolerance tolerance) {
+        if (tolerance.getValue() == 0) {
+            return exactKey(value);
+        }
+        if (tolerance.getToleranceType() == ToleranceType.PERCENTAGE) {
+            return logKey(value, tolerance.getValue());
+        }
+        if (tolerance.getValue() >= MAX_BUCKET) {
+            return ANY;
+        }
+        return BUCKET + Math.floorDiv(value, integralWidth(tolerance));
+    }
+
+    /**
+     * Gets the blocking keys of every integral value that may be
+     * approximately equal to a value.
+     * @param value the value.
+     * @param tolerance the {@link Tolerance} of the detector.
+     * @return the candidate keys, or {@link Optional#empty()} if any value may
+     * match.
+     */
+    static Optional<Set<String>> integralCandidates(final long value, final Tolerance tolerance) {
+        if (tolerance.getValue() == 0) {
+            return Optional.of(ImmutableSet.of(exactKey(value)));
+        }
+        if (tolerance.getToleranceType() == ToleranceType.PERCENTAGE) {
+            return logCandidates(value, tolerance.getValue());
+        }
+        if (tolerance.getValue() >= MAX_BUCKET) {
+            return Optional.of(ImmutableSet.of(ANY));
+        }
+        // Any match is within floor(tolerance) < width, so it's in this bucket
+        // or the next one over.
+        final long bucket = Math.floorDiv(value, integralWidth(tolerance));
+        return Optional.of(ImmutableSet.of(BUCKET + (bucket - 1), BUCKET + bucket, BUCKET + (bucket + 1)));
+    }
+
+    /**
+     * Gets the blocking key of a decimal value.
+     * @param value the value.
+     * @param tolerance the {@link Tolerance} of the detector.
+     * @return the blocking key.
+     */
+    static String decimalKey(final double value, final Tolerance tolerance) {
+        if (tolerance.getValue() == 0 || !Double.isFinite(value)) {
+            return exactKey(value);
+        }
+        if (tolerance.getToleranceType() == ToleranceType.PERCENTAGE) {
+            return logKey(value, tolerance.getValue());
+        }
+        return bucketKey(value / (2 * tolerance.getValue()));
+    }
+
+    /**
+     * Gets the blocking keys of every decimal value that may be approximately
+     * equal to a value.
+     * @param value the value.
+     * @param tolerance the {@link Tolerance} of the detector.
+     * @return the candidate keys, or {@link Optional#empty()} if any value may
+     * match.
+     */
+    static Optional<Set<String>> decimalCandidates(final double value, final Tolerance tolerance) {
+        if (tolerance.getValue() == 0 || !Double.isFinite(value)) {
+            return Optional.of(ImmutableSet.of(exactKey(value)));
+        }
+        if (tolerance.getToleranceType() == ToleranceType.PERCENTAGE) {
+            return logCandidates(value, tolerance.getValue());
+        }
+        // Buckets are twice the tolerance wide, so any match is at most half a
+        // bucket away.
+        final double position = value / (2 * tolerance.getValue());
+        return bucketCandidates(position - 0.5, position + 0.5);
+    }
+
+    /**
+     * Gets the blocking key of a string, or of a URI's string value.
+     * @param value the value.
+     * @param tolerance the {@link Tolerance} of the detector.
+     * @return the blocking key.
+     */
+    static String textKey(final String value, final Tolerance tolerance) {
+        if (tolerance.getValue() == 0) {
+            return exactKey(foldCase(value));
+        }
+        return LENGTH + value.length();
+    }
+
+    /**
+     * Gets the blocking keys of every string that may be approximately equal
+     * to a string.
+     * @param value the value.
+     * @param tolerance the {@link Tolerance} of the detector.
+     * @param equivalentTerms the terms the value is considered equivalent to,
+     * regardless of their edit distance. (not {@code null})
+     * @return the candidate keys, or {@link Optional#empty()} if any value may
+     * match.
+     */
+    static Optional<Set<String>> textCandidates(final String value, final Tolerance tolerance,
+            final Collection<String> equivalentTerms) {
+        if (tolerance.getValue() == 0) {
+            return Optional.of(ImmutableSet.of(exactKey(foldCase(value))));
+        }
+        final int length = value.length();
+        final double maxDistance;
+        if (tolerance.getToleranceType() == ToleranceType.PERCENTAGE) {
+            if (tolerance.getValue() >= 1) {
+                return Optional.empty();
+            }
+            maxDistance = tolerance.getValue() * length;
+        } else {
+            maxDistance = tolerance.getValue();
+        }
+        // The edit distance is at least the difference in length.
+        if (2 * maxDistance + 1 + equivalentTerms.size() > MAX_CANDIDATE_KEYS) {
+            return Optional.empty();
+        }
+        final int distance = (int) Math.floor(maxDistance);
+        final Set<String> keys = new LinkedHashSet<>();
+        for (int i = Math.max(0, length - distance); i <= length + distance; i++) {
+            keys.add(LENGTH + i);
+        }
+        for (final String term : equivalentTerms) {
+            keys.add(LENGTH + term.length());
+        }
+        return Optional.of(keys);
+    }
+
+    /**
+     * Normalizes a string so that two strings are equal ignoring case
+     * (according to {@link String#equalsIgnoreCase(String)}) exactly when
+     * their normalized forms are equal.
+     */
+    private static String foldCase(final String value) {
+        final StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            builder.append(Character.toLowerCase(Character.toUpperCase(value.charAt(i))));
+        }
+        return builder.toString();
+    }
+
+    private static long integralWidth(final Tolerance tolerance) {
+        return (long) Math.floor(tolerance.getValue()) + 1;
+    }
+
+    /**
+     * Bins a value on a logarithmic scale, so that a percentage difference is
+     * the same number of buckets wherever the value lies.
+     */
+    private static String logKey(final double value, final double percentage) {
+        if (value == 0) {
+            return ZERO;
+        }
+        if (value < 0) {
+            return NEGATIVE;
+        }
+        if (percentage >= 1) {
+            return ANY;
+        }
+        return bucketKey(Math.log(value) / Math.log1p(percentage));
+    }
+
+    private static Optional<Set<String>> logCandidates(final double value, final double percentage) {
+        if (value == 0) {
+            // Only zero matches zero.
+            return Optional.of(ImmutableSet.of(ZERO));
+        }
+        if (value < 0 || percentage >= 1) {
+            return Optional.empty();
+        }
+        // A match lies within [value * (1 - percentage), value * (1 + percentage)]
+        final double scale = Math.log1p(percentage);
+        final double log = Math.log(value);
+        return bucketCandidates((log + Math.log1p(-percentage)) / scale, (log + scale) / scale);
+    }
+
+    private static String bucketKey(final double position) {
+        if (position >= MAX_BUCKET) {
+            return OVERFLOW;
+        }
+        if (position <= -MAX_BUCKET) {
+            return UNDERFLOW;
+        }
+        return BUCKET + (long) Math.floor(position);
+    }
+
+    /**
+     * Gets the keys of the buckets from the one holding the low position to
+     * the one holding the high position, padded by one bucket on either side.
+     */
+    private static Optional<Set<String>> bucketCandidates(final double low, final double high) {
+        if (!(low > 1 - MAX_BUCKET && high < MAX_BUCKET - 1)) {
+            return Optional.empty();
+        }
+        final long first = (long) Math.floor(low) - 1;
+        final long last = (long) Math.floor(high) + 1;
+        if (last - first >= MAX_CANDIDATE_KEYS) {
+            return Optional.empty();
+        }
+        final Set<String> keys = new LinkedHashSet<>();
+        for (long bucket = first; bucket <= last; bucket++) {
+            keys.add(BUCKET + bucket);
+        }
+        return Optional.of(keys);
+    }
+}
@@ -21,7 +21,10 @@ package org.apache.rya.indexing.smarturi.duplication;
 import static java.util.Objects.requireNonNull;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -31,6 +34,7 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 
 import org.apache.commons.configuration.ConfigurationException;
@@ -50,6 +54,10 @@ import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
 import org.joda.time.DateTime;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
 /**
  * Detects if two entities contain data that's nearly identical based on a set
@@ -63,10 +71,18 @@ import com.google.common.collect.ImmutableMap;
  * compared.
  */
 public class DuplicateDataDetector {
+    /**
+     * Identifies how blocking keys are built. Change it whenever the keys
+     * built for the same value may change.
+     */
+    private static final String BLOCKING_SCHEME_VERSION = "1";
+    private static final HashFunction BLOCKING_HASH = Hashing.murmur3_128();
+
     private final Map<IRI, ApproxEqualsDetector<?>> uriMap = new HashMap<>();
     private final Map<Class<?>, ApproxEqualsDetector<?>> classMap = new HashMap<>();
 
     private boolean isDetectionEnabled;
+    private String blockingScheme;
 
     /**
      * Creates a new instance of {@link DuplicateDataDetector} with the
@@ -179,6 +195,24 @@ public class DuplicateDataDetector {
         }
 
         this.isDetectionEnabled = isDetectionEnabled;
+
+        // Fingerprint everything the blocking keys depend on.
+        final Hasher hasher = BLOCKING_HASH.newHasher()
+            .putString(BLOCKING_SCHEME_VERSION, StandardCharsets.UTF_8);
+        final List<Tolerance> tolerances = Arrays.asList(booleanTolerance, byteTolerance, dateTolerance,
+            doubleTolerance, floatTolerance, integerTolerance, longTolerance, shortTolerance, stringTolerance,
+            uriTolerance);
+        for (final Tolerance tolerance : tolerances) {
+            hasher.putChar(';');
+            if (tolerance != null) {
+                hasher.putString(tolerance.getToleranceType().name(), StandardCharsets.UTF_8)
+                    .putDouble(tolerance.getValue());
+            }
+        }
+        if (equivalentTermsMap != null) {
+            hasher.putString(new TreeMap<>(equivalentTermsMap).toString(), StandardCharsets.UTF_8);
+        }
+        blockingScheme = hasher.hash().toString();
     }
 
     /**
@@ -292,6 +326,92 @@ public class DuplicateDataDetector {
         return allValuesNearlyEqual;
     }
 
+    /**
+     * @return an identifier of the tolerances and equivalent terms the
+     * blocking keys are built from. Blocking keys that were built with a
+     * different scheme can't be used to rule out duplicates.
+     */
+    public String getBlockingScheme() {
+        return blockingScheme;
+    }
+
+    /**
+     * Gets the blocking keys of an entity's property values. These should be
+     * stored alongside the entity so that the entities that may be nearly
+     * identical to another can be found using
+     * {@link #getCandidateBlockingKeys(Entity)}. Values that can't be parsed
+     * get no key, since they can't be nearly identical to anything.
+     * @param entity the {@link Entity}. (not {@code null})
+     * @return the {@link Set} of blocking keys.
+     */
+    public Set<String> getBlockingKeys(final Entity entity) {
+        requireNonNull(entity);
+        final Set<String> keys = new TreeSet<>();
+        for (final Entry<RyaIRI, ImmutableMap<RyaIRI, Property>> entry : entity.getProperties().entrySet()) {
+            for (final Property property : entry.getValue().values()) {
+                final ApproxEqualsDetector<?> approxEqualsDetector = uriMap.get(property.getValue().getDataType());
+                if (approxEqualsDetector != null) {
+                    try {
+                        final Optional<String> key = approxEqualsDetector.getBlockingKey(property.getValue().getData());
+                        if (key.isPresent()) {
+                            keys.add(makeBlockingKey(entry.getKey(), property.getName(), key.get()));
+                        }
+                    } catch (final SmartUriException | IllegalArgumentException e) {
+                        // Not comparable, so it doesn't need a key.
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Gets the blocking keys that an entity must have to be nearly identical
+     * to an entity. As long as both entities' blocking keys were built with
+     * the same {@link #getBlockingScheme()}, the other entity can only be a
+     * duplicate if its blocking keys contain at least one of the keys in each
+     * of the returned sets.
+     * @param entity the {@link Entity}. (not {@code null})
+     * @return the {@link List} of candidate blocking key sets. An empty list
+     * means that any entity may be a duplicate.
+     */
+    public List<Set<String>> getCandidateBlockingKeys(final Entity entity) {
+        requireNonNull(entity);
+        final List<Set<String>> candidates = new ArrayList<>();
+        for (final Entry<RyaIRI, ImmutableMap<RyaIRI, Property>> entry : entity.getProperties().entrySet()) {
+            for (final Property property : entry.getValue().values()) {
+                final ApproxEqualsDetector<?> approxEqualsDetector = uriMap.get(property.getValue().getDataType());
+                if (approxEqualsDetector != null) {
+                    try {
+                        final Optional<Set<String>> keys = approxEqualsDetector.getCandidateBlockingKeys(property.getValue().getData());
+                        if (keys.isPresent()) {
+                            final Set<String> propertyKeys = new TreeSet<>();
+                            for (final String key : keys.get()) {
+                                propertyKeys.add(makeBlockingKey(entry.getKey(), property.getName(), key));
+                            }
+                            candidates.add(propertyKeys);
+                        }
+                    } catch (final SmartUriException | IllegalArgumentException e) {
+                        // Leave it to compareEntities() to report the problem.
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static String makeBlockingKey(final RyaIRI typeId, final RyaIRI propertyName, final String valueKey) {
+        // Hash the key so that it's small enough to index.
+        return BLOCKING_HASH.newHasher()
+            .putString(typeId.getData(), StandardCharsets.UTF_8)
+            .putChar('\0')
+            .putString(propertyName.getData(), StandardCharsets.UTF_8)
+            .putChar('\0')
+            .putString(valueKey, StandardCharsets.UTF_8)
+            .hash()
+            .toString();
+    }
+
     /**
      * Gets the appropriate {@link ApproxEqualsDetector} for the specified
      * class.
@@ -331,6 +451,23 @@ public class DuplicateDataDetector {
             return tolerance.getValue() != 0 || Objects.equals(lhs, rhs);
         }
 
+        @Override
+        public Optional<String> getBlockingKey(final String string) throws SmartUriException {
+            if (tolerance.getValue() != 0) {
+                // Any tolerance makes all booleans equal
+                return Optional.empty();
+            }
+            return Optional.of(BlockingKeys.exactKey(convertStringToObject(string)));
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateBlockingKeys(final String string) throws SmartUriException {
+            if (tolerance.getValue() != 0) {
+                return Optional.empty();
+            }
+            return Optional.of(ImmutableSet.of(BlockingKeys.exactKey(convertStringToObject(string))));
+        }
+
         @Override
         public Tolerance getDefaultTolerance() {
             return DEFAULT_TOLERANCE;
@@ -396,6 +533,16 @@ public class DuplicateDataDetector {
             }
         }
 
+        @Override
+        public Optional<String> getBlockingKey(final String string) throws SmartUriException {
+            return Optional.of(BlockingKeys.integralKey(convertStringToObject(string).longValue(), tolerance));
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralCandidates(convertStringToObject(string).longValue(), tolerance);
+        }
+
         @Override
         public Tolerance getDefaultTolerance() {
             return DEFAULT_TOLERANCE;
@@ -463,6 +610,16 @@ public class DuplicateDataDetector {
             }
         }
 
+        @Override
+        public Optional<String> getBlockingKey(final String string) throws SmartUriException {
+            return Optional.of(BlockingKeys.integralKey(convertStringToObject(string).getTime(), tolerance));
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralCandidates(convertStringToObject(string).getTime(), tolerance);
+        }
+
         @Override
         public Tolerance getDefaultTolerance() {
             return DEFAULT_TOLERANCE;
@@ -537,6 +694,16 @@ public class DuplicateDataDetector {
             }
         }
 
+        @Override
+        public Optional<String> getBlockingKey(final String string) throws SmartUriException {
+            return Optional.of(BlockingKeys.integralKey(convertStringToObject(string).getMillis(), tolerance));
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralCandidates(convertStringToObject(string).getMillis(), tolerance);
+        }
+
         @Override
         public Tolerance getDefaultTolerance() {
             return DEFAULT_TOLERANCE;
@@ -622,6 +789,16 @@ public class DuplicateDataDetector {
             }
         }
 
+        @Override
+        public Optional<String> getBlockingKey(final String string) throws SmartUriException {
+            return Optional.of(BlockingKeys.decimalKey(convertStringToObject(string), tolerance));
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.decimalCandidates(convertStringToObject(string), tolerance);
+        }
+
         @Override
         public Tolerance getDefaultTolerance() {
             return DEFAULT_TOLERANCE;
@@ -702,6 +879,16 @@ public class DuplicateDataDetector {
             }
         }
 
+        @Override
+        public Optional<String> getBlockingKey(final String string) throws SmartUriException {
+            return Optional.of(BlockingKeys.decimalKey(Double.valueOf(String.valueOf(convertStringToObject(string))), tolerance));
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.decimalCandidates(Double.valueOf(String.valueOf(convertStringToObject(string))), tolerance);
+        }
+
         @Override
         public Tolerance getDefaultTolerance() {
             return DEFAULT_TOLERANCE;
@@ -767,6 +954,16 @@ public class DuplicateDataDetector {
             }
         }
 
+        @Override
+        public Optional<String> getBlockingKey(final String string) throws SmartUriException {
+            return Optional.of(BlockingKeys.integralKey(convertStringToObject(string).longValue(), tolerance));
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralCandidates(convertStringToObject(string).longValue(), tolerance);
+        }
+
         @Override
         public Tolerance getDefaultTolerance() {
             return DEFAULT_TOLERANCE;
@@ -832,6 +1029,16 @@ public class DuplicateDataDetector {
             }
         }
 
+        @Override
+        public Optional<String> getBlockingKey(final String string) throws SmartUriException {
+            return Optional.of(BlockingKeys.integralKey(convertStringToObject(string), tolerance));
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralCandidates(convertStringToObject(string), tolerance);
+        }
+
         @Override
         public Tolerance getDefaultTolerance() {
             return DEFAULT_TOLERANCE;
@@ -897,6 +1104,16 @@ public class DuplicateDataDetector {
             }
         }
 
+        @Override
+        public Optional<String> getBlockingKey(final String string) throws SmartUriException {
+            return Optional.of(BlockingKeys.integralKey(convertStringToObject(string).longValue(), tolerance));
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.integralCandidates(convertStringToObject(string).longValue(), tolerance);
+        }
+
         @Override
         public Tolerance getDefaultTolerance() {
             return DEFAULT_TOLERANCE;
@@ -972,6 +1189,18 @@ public class DuplicateDataDetector {
             }
         }
 
+        @Override
+        public Optional<String> getBlockingKey(final String string) throws SmartUriException {
+            return Optional.of(BlockingKeys.textKey(string, tolerance));
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateBlockingKeys(final String string) throws SmartUriException {
+            final List<String> termEquivalents = equivalentTermsMap.get(string);
+            return BlockingKeys.textCandidates(string, tolerance,
+                    termEquivalents != null ? termEquivalents : Collections.emptyList());
+        }
+
         @Override
         public Tolerance getDefaultTolerance() {
             return DEFAULT_TOLERANCE;
@@ -1043,6 +1272,16 @@ public class DuplicateDataDetector {
             }
         }
 
+        @Override
+        public Optional<String> getBlockingKey(final String string) throws SmartUriException {
+            return Optional.of(BlockingKeys.textKey(convertStringToObject(string).stringValue(), tolerance));
+        }
+
+        @Override
+        public Optional<Set<String>> getCandidateBlockingKeys(final String string) throws SmartUriException {
+            return BlockingKeys.textCandidates(convertStringToObject(string).stringValue(), tolerance, Collections.emptyList());
+        }
+
         @Override
         public Tolerance getDefaultTolerance() {
             return DEFAULT_TOLERANCE;
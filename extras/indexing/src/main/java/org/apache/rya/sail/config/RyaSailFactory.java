@@ -39,11 +39,13 @@ import org.apache.rya.api.layout.TablePrefixLayoutStrategy;
 import org.apache.rya.api.persist.RyaDAO;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.indexing.accumulo.ConfigUtils;
+import org.apache.rya.indexing.accumulo.closure.AccumuloClosureIndexer;
 import org.apache.rya.mongodb.MongoDBRdfConfiguration;
 import org.apache.rya.mongodb.MongoDBRyaDAO;
 import org.apache.rya.mongodb.MongoSecondaryIndex;
 import org.apache.rya.mongodb.StatefulMongoDBRdfConfiguration;
 import org.apache.rya.mongodb.instance.MongoRyaInstanceDetailsRepository;
+import org.apache.rya.prospector.service.ProspectorServiceEvalStatsDAO;
 import org.apache.rya.rdftriplestore.RdfCloudTripleStore;
 import org.apache.rya.rdftriplestore.inference.InferenceEngine;
 import org.apache.rya.rdftriplestore.inference.InferenceEngineException;
@@ -105,10 +107,21 @@ public class RyaSailFactory {
         store.setRyaDAO(dao);
         rdfConfig.setTablePrefix(ryaInstance);
 
+        if (!ConfigUtils.getUseMongo(config) && rdfConfig.isUseStats()) {
+            // Order joins by the Prospector's cardinalities, read through the cache every query shares.
+            store.setRdfEvalStatsDAO(ProspectorServiceEvalStatsDAO.make(ConfigUtils.getConnector(rdfConfig), rdfConfig));
+        }
+
         if (rdfConfig.isInfer()){
             final InferenceEngine inferenceEngine = new InferenceEngine();
             inferenceEngine.setConf(rdfConfig);
             inferenceEngine.setRyaDAO(dao);
+            if (!ConfigUtils.getUseMongo(config) && ConfigUtils.getUseClosure(rdfConfig)) {
+                // The DAO's own instance maintains the index, this one only reads it.
+                final AccumuloClosureIndexer closureIndex = new AccumuloClosureIndexer();
+                closureIndex.setConf(rdfConfig);
+                inferenceEngine.setClosureIndex(closureIndex);
+            }
             inferenceEngine.init();
             store.setInferenceEngine(inferenceEngine);
         }
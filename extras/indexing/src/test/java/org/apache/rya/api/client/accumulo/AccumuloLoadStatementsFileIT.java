@@ -20,6 +20,9 @@ package org.apache.rya.api.client.accumulo;
 
 import static org.junit.Assert.assertEquals;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -34,6 +37,7 @@ import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
 import org.apache.rya.api.client.Install;
 import org.apache.rya.api.client.Install.InstallConfiguration;
 import org.apache.rya.api.client.InstanceDoesNotExistException;
+import org.apache.rya.api.client.LoadStatementsFile.BulkLoadConfiguration;
 import org.apache.rya.api.client.RyaClient;
 import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.resolver.RyaToRdfConversions;
@@ -44,13 +48,18 @@ import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * Integration tests the methods of {@link AccumuloLoadStatementsFile}.
  */
 public class AccumuloLoadStatementsFileIT extends AccumuloITBase {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Test(expected = InstanceDoesNotExistException.class)
     public void instanceDoesNotExist() throws Exception {
         final AccumuloConnectionDetails connectionDetails = new AccumuloConnectionDetails(
@@ -90,6 +99,71 @@ public class AccumuloLoadStatementsFileIT extends AccumuloITBase {
         ryaClient.getLoadStatementsFile().loadStatements(getRyaInstanceName(), Paths.get("src/test/resources/example.ttl"), RDFFormat.TURTLE);
 
         // Verify that the statements were loaded.
+        assertExampleStatementsLoaded();
+    }
+
+    @Test
+    public void bulkLoadNTriplesFile() throws Exception {
+        final RyaClient ryaClient = installRya();
+
+        // Load the test statements using more than one parser thread.
+        final BulkLoadConfiguration bulkConfig = BulkLoadConfiguration.builder()
+                .setParserThreads(3)
+                .setBatchSize(1)
+                .setQueueSize(1)
+                .build();
+        ryaClient.getLoadStatementsFile().loadStatements(getRyaInstanceName(), writeExampleNTriples(), RDFFormat.NTRIPLES, bulkConfig);
+
+        // Verify that the statements were loaded.
+        assertExampleStatementsLoaded();
+    }
+
+    @Test
+    public void bulkLoadNTriplesFile_rfiles() throws Exception {
+        final RyaClient ryaClient = installRya();
+
+        // Load the test statements by bulk importing RFiles.
+        final BulkLoadConfiguration bulkConfig = BulkLoadConfiguration.builder()
+                .setParserThreads(2)
+                .setRFileDirectory(tempFolder.getRoot().toPath().resolve("rfiles").toUri().toString())
+                .build();
+        ryaClient.getLoadStatementsFile().loadStatements(getRyaInstanceName(), writeExampleNTriples(), RDFFormat.NTRIPLES, bulkConfig);
+
+        // Verify that the statements were loaded.
+        assertExampleStatementsLoaded();
+    }
+
+    private RyaClient installRya() throws Exception {
+        final InstallConfiguration installConfig = InstallConfiguration.builder()
+                .setEnableTableHashPrefix(false)
+                .setEnableEntityCentricIndex(false)
+                .setEnableFreeTextIndex(false)
+                .setEnableTemporalIndex(false)
+                .setEnablePcjIndex(false)
+                .setEnableGeoIndex(false)
+                .build();
+
+        final AccumuloConnectionDetails connectionDetails = new AccumuloConnectionDetails(
+                getUsername(),
+                getPassword().toCharArray(),
+                getInstanceName(),
+                getZookeepers());
+
+        final RyaClient ryaClient = AccumuloRyaClientFactory.build(connectionDetails, getConnector());
+        ryaClient.getInstall().install(getRyaInstanceName(), installConfig);
+        return ryaClient;
+    }
+
+    private Path writeExampleNTriples() throws Exception {
+        final Path file = tempFolder.newFile("example.nt").toPath();
+        Files.write(file, (
+                "<http://example#alice> <http://example#talksTo> <http://example#bob> .\n" +
+                "<http://example#bob> <http://example#talksTo> <http://example#charlie> .\n" +
+                "<http://example#charlie> <http://example#likes> <http://example#icecream> .\n").getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private void assertExampleStatementsLoaded() throws Exception {
         final ValueFactory vf = SimpleValueFactory.getInstance();
 
         final List<Statement> expected = new ArrayList<>();
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.accumulo.closure;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.accumulo.core.client.admin.TableOperations;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.api.domain.RyaIRI;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.indexing.accumulo.ConfigUtils;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.OWL;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class AccumuloClosureIndexerTest {
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+    private static final String PART_OF = "urn:partOf";
+
+    private AccumuloRdfConfiguration conf;
+
+    @Before
+    public void before() throws Exception {
+        conf = new AccumuloRdfConfiguration();
+        conf.setBoolean(ConfigUtils.USE_MOCK_INSTANCE, true);
+        conf.set(ConfigUtils.CLOUDBASE_USER, "USERNAME");
+        conf.set(ConfigUtils.CLOUDBASE_PASSWORD, "PASS");
+        conf.set(ConfigUtils.CLOUDBASE_AUTHS, "U");
+        conf.setTablePrefix("triplestore_");
+
+        final TableOperations tableOps = ConfigUtils.getConnector(conf).tableOperations();
+        final String table = AccumuloClosureIndexer.getTableName(conf);
+        if (tableOps.exists(table)) {
+            tableOps.delete(table);
+        }
+    }
+
+    @Test
+    public void testTransitiveClosure() throws Exception {
+        try (AccumuloClosureIndexer indexer = new AccumuloClosureIndexer()) {
+            indexer.setConf(conf);
+            indexer.setMultiTableBatchWriter(ConfigUtils.createMultitableBatchWriter(conf));
+            indexer.init();
+
+            indexer.storeStatement(statement(PART_OF, RDF.TYPE.stringValue(), OWL.TRANSITIVEPROPERTY.stringValue()));
+            indexer.storeStatement(statement("urn:a", PART_OF, "urn:b"));
+            indexer.storeStatement(statement("urn:c", PART_OF, "urn:d"));
+            indexer.storeStatement(statement("urn:b", PART_OF, "urn:c"));
+            indexer.flush();
+
+            final IRI partOf = VF.createIRI(PART_OF);
+            Assert.assertTrue(indexer.isIndexed(partOf));
+            Assert.assertFalse(indexer.isIndexed(VF.createIRI("urn:other")));
+            Assert.assertEquals(Sets.newHashSet("urn:b", "urn:c", "urn:d"), objects(indexer, "urn:a", partOf));
+            Assert.assertEquals(Sets.newHashSet("urn:a", "urn:b", "urn:c"), subjects(indexer, partOf, "urn:d"));
+
+            // Removing the middle statement splits the chain.
+            indexer.deleteStatement(statement("urn:b", PART_OF, "urn:c"));
+            indexer.flush();
+            Assert.assertEquals(Sets.newHashSet("urn:b"), objects(indexer, "urn:a", partOf));
+            Assert.assertEquals(Sets.newHashSet("urn:c"), subjects(indexer, partOf, "urn:d"));
+        }
+    }
+
+    @Test
+    public void testStatementInSeveralGraphs() throws Exception {
+        try (AccumuloClosureIndexer indexer = new AccumuloClosureIndexer()) {
+            indexer.setConf(conf);
+            indexer.setMultiTableBatchWriter(ConfigUtils.createMultitableBatchWriter(conf));
+            indexer.init();
+
+            indexer.storeStatement(statement(PART_OF, RDF.TYPE.stringValue(), OWL.TRANSITIVEPROPERTY.stringValue()));
+            final RyaStatement first = statement("urn:a", PART_OF, "urn:b");
+            first.setContext(new RyaIRI("urn:graph1"));
+            final RyaStatement second = statement("urn:a", PART_OF, "urn:b");
+            second.setContext(new RyaIRI("urn:graph2"));
+            indexer.storeStatement(first);
+            indexer.storeStatement(second);
+            indexer.storeStatement(statement("urn:b", PART_OF, "urn:c"));
+
+            final IRI partOf = VF.createIRI(PART_OF);
+            indexer.deleteStatement(first);
+            indexer.flush();
+            Assert.assertEquals(Sets.newHashSet("urn:b", "urn:c"), objects(indexer, "urn:a", partOf));
+
+            indexer.deleteStatement(second);
+            indexer.flush();
+            Assert.assertEquals(new HashSet<String>(), objects(indexer, "urn:a", partOf));
+        }
+    }
+
+    @Test
+    public void testSameAs() throws Exception {
+        try (AccumuloClosureIndexer indexer = new AccumuloClosureIndexer()) {
+            indexer.setConf(conf);
+            indexer.setMultiTableBatchWriter(ConfigUtils.createMultitableBatchWriter(conf));
+            indexer.init();
+
+            indexer.storeStatement(statement("urn:a", OWL.SAMEAS.stringValue(), "urn:b"));
+            indexer.storeStatement(statement("urn:c", OWL.SAMEAS.stringValue(), "urn:b"));
+            indexer.flush();
+
+            Assert.assertTrue(indexer.isIndexed(OWL.SAMEAS));
+            Assert.assertEquals(Sets.newHashSet("urn:b", "urn:c"), sameAs(indexer, "urn:a"));
+            Assert.assertEquals(Sets.newHashSet("urn:a", "urn:b"), sameAs(indexer, "urn:c"));
+
+            indexer.deleteStatement(statement("urn:c", OWL.SAMEAS.stringValue(), "urn:b"));
+            indexer.flush();
+            Assert.assertEquals(Sets.newHashSet("urn:b"), sameAs(indexer, "urn:a"));
+            Assert.assertEquals(new HashSet<String>(), sameAs(indexer, "urn:c"));
+        }
+    }
+
+    @Test
+    public void testPurgeAndDrop() throws Exception {
+        try (AccumuloClosureIndexer indexer = new AccumuloClosureIndexer()) {
+            indexer.setConf(conf);
+            indexer.setMultiTableBatchWriter(ConfigUtils.createMultitableBatchWriter(conf));
+            indexer.init();
+
+            indexer.storeStatement(statement(PART_OF, RDF.TYPE.stringValue(), OWL.TRANSITIVEPROPERTY.stringValue()));
+            indexer.storeStatement(statement("urn:a", PART_OF, "urn:b"));
+            indexer.storeStatement(statement("urn:b", PART_OF, "urn:c"));
+            indexer.flush();
+
+            final IRI partOf = VF.createIRI(PART_OF);
+            indexer.purge(conf);
+            Assert.assertFalse(indexer.isIndexed(partOf));
+            Assert.assertEquals(new HashSet<String>(), objects(indexer, "urn:a", partOf));
+
+            final TableOperations tableOps = ConfigUtils.getConnector(conf).tableOperations();
+            Assert.assertTrue(tableOps.exists(indexer.getTableName()));
+            indexer.dropAndDestroy();
+            Assert.assertFalse(tableOps.exists(indexer.getTableName()));
+        }
+    }
+
+    private static RyaStatement statement(final String subject, final String predicate, final String object) {
+        return new RyaStatement(new RyaIRI(subject), new RyaIRI(predicate), new RyaIRI(object));
+    }
+
+    private static Set<String> objects(final AccumuloClosureIndexer indexer, final String subject, final IRI property) throws Exception {
+        final Set<String> objects = new HashSet<>();
+        final CloseableIteration<org.eclipse.rdf4j.model.Statement, ?> iter = indexer.getClosure(VF.createIRI(subject), property, null);
+        while (iter.hasNext()) {
+            objects.add(iter.next().getObject().stringValue());
+        }
+        iter.close();
+        return objects;
+    }
+
+    private static Set<String> subjects(final AccumuloClosureIndexer indexer, final IRI property, final String object) throws Exception {
+        final Set<String> subjects = new HashSet<>();
+        final CloseableIteration<org.eclipse.rdf4j.model.Statement, ?> iter = indexer.getClosure(null, property, VF.createIRI(object));
+        while (iter.hasNext()) {
+            subjects.add(iter.next().getSubject().stringValue());
+        }
+        iter.close();
+        return subjects;
+    }
+
+    private static Set<String> sameAs(final AccumuloClosureIndexer indexer, final String resource) throws Exception {
+        final Set<String> same = new HashSet<>();
+        final CloseableIteration<org.eclipse.rdf4j.model.Resource, ?> iter = indexer.getSameAs(VF.createIRI(resource));
+        while (iter.hasNext()) {
+            same.add(iter.next().stringValue());
+        }
+        iter.close();
+        return same;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.accumulo.temporal;
+
+import static org.apache.rya.api.resolver.RdfToRyaConversions.convertStatement;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.admin.TableOperations;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.indexing.StatementConstraints;
+import org.apache.rya.indexing.TemporalInstantRfc3339;
+import org.apache.rya.indexing.TemporalInterval;
+import org.apache.rya.indexing.accumulo.ConfigUtils;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the bucketed interval layout of {@link AccumuloTemporalIndexer} and the {@link TemporalIntervalMigrator}.
+ */
+public class TemporalIntervalBucketsTest {
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+    private static final IRI AT_TIME = VF.createIRI("Property:atTime");
+    private static final StatementConstraints EMPTY_CONSTRAINTS = new StatementConstraints();
+    private static final DateTime ORIGIN = new DateTime(2015, 12, 30, 12, 0, 0, DateTimeZone.UTC);
+
+    private Configuration conf;
+    private final List<TemporalInterval> intervals = new ArrayList<>();
+    private final List<Statement> statements = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        conf = new Configuration();
+        conf.set(RdfCloudTripleStoreConfiguration.CONF_TBL_PREFIX, "triplestore_");
+        conf.setBoolean(ConfigUtils.USE_MOCK_INSTANCE, true);
+        conf.setStrings(ConfigUtils.TEMPORAL_PREDICATES_LIST, AT_TIME.stringValue());
+
+        // Intervals of every level, some of which cross their level's bucket boundaries.
+        final long[] lengths = { 0, 30, 59, 61, 3599, 7200, 86_400, 40L * 86_400, 400L * 86_400, 50_000L * 86_400 };
+        final long[] offsets = { -100_000, -3_630, -45, 0, 15, 3_590, 86_395, 1_000_000 };
+        for (final long length : lengths) {
+            for (final long offset : offsets) {
+                final TemporalInterval interval = interval(offset, offset + length);
+                intervals.add(interval);
+                statements.add(VF.createStatement(VF.createIRI("foo:event" + statements.size()), AT_TIME, VF.createLiteral(interval.toString())));
+            }
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        final TableOperations tableOps = ConfigUtils.getConnector(conf).tableOperations();
+        for (final String table : new String[] { "triplestore_temporal", "triplestore_temporal_interval" }) {
+            if (tableOps.exists(table)) {
+                tableOps.delete(table);
+            }
+        }
+    }
+
+    @Test
+    public void bucketedQueries() throws Exception {
+        conf.setBoolean(ConfigUtils.TEMPORAL_INTERVAL_BUCKETS, true);
+        final AccumuloTemporalIndexer indexer = makeIndexer();
+        for (final Statement statement : statements) {
+            indexer.storeStatement(convertStatement(statement));
+        }
+        indexer.flush();
+        assertQueries(indexer);
+
+        // Removing an interval removes its bucketed row.
+        indexer.deleteStatement(convertStatement(statements.get(0)));
+        indexer.flush();
+        assertEquals(new HashSet<Statement>(), toSet(indexer.queryIntervalEquals(intervals.get(0), EMPTY_CONSTRAINTS)));
+        indexer.close();
+    }
+
+    @Test
+    public void migrate() throws Exception {
+        // Write the intervals using the legacy layout.
+        final AccumuloTemporalIndexer legacy = makeIndexer();
+        for (final Statement statement : statements) {
+            legacy.storeStatement(convertStatement(statement));
+        }
+        legacy.close();
+
+        final Connector connector = ConfigUtils.getConnector(conf);
+        final long migrated = new TemporalIntervalMigrator(connector, "triplestore_", new Authorizations(), true).migrate();
+        assertEquals(statements.size(), migrated);
+        assertFalse(connector.createScanner("triplestore_temporal", new Authorizations()).iterator().hasNext());
+
+        conf.setBoolean(ConfigUtils.TEMPORAL_INTERVAL_BUCKETS, true);
+        final AccumuloTemporalIndexer bucketed = makeIndexer();
+        assertQueries(bucketed);
+        bucketed.close();
+    }
+
+    /**
+     * Compares each interval query against the intervals that it should match.
+     */
+    private void assertQueries(final AccumuloTemporalIndexer indexer) throws QueryEvaluationException {
+        for (final TemporalInterval query : new TemporalInterval[] { interval(0, 0), interval(15, 60), interval(-3_630, 86_395), interval(1_000_000, 1_000_030) }) {
+            final Set<Statement> before = new HashSet<>();
+            final Set<Statement> after = new HashSet<>();
+            final Set<Statement> equal = new HashSet<>();
+            for (int i = 0; i < intervals.size(); i++) {
+                final TemporalInterval interval = intervals.get(i);
+                if (interval.getHasEnd().compareTo(query.getHasBeginning()) < 0) {
+                    before.add(statements.get(i));
+                }
+                if (interval.getHasBeginning().compareTo(query.getHasEnd()) > 0) {
+                    after.add(statements.get(i));
+                }
+                if (interval.equals(query)) {
+                    equal.add(statements.get(i));
+                }
+            }
+
+            assertEquals("Before " + query, before, toSet(indexer.queryIntervalBefore(query, EMPTY_CONSTRAINTS)));
+            assertEquals("After " + query, after, toSet(indexer.queryIntervalAfter(query, EMPTY_CONSTRAINTS)));
+            assertEquals("Equals " + query, equal, toSet(indexer.queryIntervalEquals(query, EMPTY_CONSTRAINTS)));
+        }
+    }
+
+    private AccumuloTemporalIndexer makeIndexer() throws Exception {
+        final AccumuloTemporalIndexer indexer = new AccumuloTemporalIndexer();
+        indexer.setConf(conf);
+        indexer.setMultiTableBatchWriter(ConfigUtils.getConnector(conf).createMultiTableBatchWriter(new BatchWriterConfig()));
+        indexer.init();
+        return indexer;
+    }
+
+    private static TemporalInterval interval(final long beginSeconds, final long endSeconds) {
+        return new TemporalInterval(
+                new TemporalInstantRfc3339(ORIGIN.plus(beginSeconds * 1000L)),
+                new TemporalInstantRfc3339(ORIGIN.plus(endSeconds * 1000L)));
+    }
+
+    private static Set<Statement> toSet(final CloseableIteration<Statement, QueryEvaluationException> iter) throws QueryEvaluationException {
+        final Set<Statement> results = new HashSet<>();
+        try {
+            while (iter.hasNext()) {
+                results.add(iter.next());
+            }
+        } finally {
+            iter.close();
+        }
+        return results;
+    }
+}
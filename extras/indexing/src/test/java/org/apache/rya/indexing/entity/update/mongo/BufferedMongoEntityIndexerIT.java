@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.entity.update.mongo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import org.apache.rya.api.domain.RyaIRI;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.indexing.accumulo.ConfigUtils;
+import org.apache.rya.indexing.entity.model.Entity;
+import org.apache.rya.indexing.entity.model.Property;
+import org.apache.rya.indexing.entity.model.Type;
+import org.apache.rya.indexing.entity.storage.EntityStorage;
+import org.apache.rya.indexing.entity.storage.TypeStorage;
+import org.apache.rya.indexing.entity.storage.mongo.MongoEntityStorage;
+import org.apache.rya.indexing.entity.storage.mongo.MongoTypeStorage;
+import org.apache.rya.indexing.smarturi.duplication.EntityNearDuplicateException;
+import org.apache.rya.mongodb.MongoRyaITBase;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Integration tests the methods of {@link BufferedMongoEntityIndexer}.
+ */
+public class BufferedMongoEntityIndexerIT extends MongoRyaITBase {
+
+    private static final Type PERSON_TYPE =
+            new Type(new RyaIRI("urn:person"),
+                    ImmutableSet.<RyaIRI>builder()
+                    .add(new RyaIRI("urn:name"))
+                    .add(new RyaIRI("urn:age"))
+                    .add(new RyaIRI("urn:eye"))
+                    .build());
+
+    private static final Type EMPLOYEE_TYPE =
+            new Type(new RyaIRI("urn:employee"),
+                    ImmutableSet.<RyaIRI>builder()
+                    .add(new RyaIRI("urn:name"))
+                    .add(new RyaIRI("urn:hoursPerWeek"))
+                    .build());
+
+    @Test
+    public void addStatements_coalescedUntilFlush() throws Exception {
+        try(BufferedMongoEntityIndexer indexer = new BufferedMongoEntityIndexer()) {
+            indexer.setConf(conf);
+            indexer.init();
+            // Load the types into the TypeStorage.
+            final TypeStorage types = new MongoTypeStorage(getMongoClient(), conf.getRyaInstanceName());
+            types.create(PERSON_TYPE);
+            types.create(EMPLOYEE_TYPE);
+
+            // Index a bunch of RyaStatements.
+            final RyaIRI aliceSSN = new RyaIRI("urn:SSN/111-11-1111");
+            indexer.storeStatement(new RyaStatement(aliceSSN, new RyaIRI( RDF.TYPE.toString() ), new RyaType(XMLSchema.ANYURI, "urn:person")));
+            indexer.storeStatement(new RyaStatement(aliceSSN, new RyaIRI("urn:name"), new RyaType(XMLSchema.STRING, "Alice")));
+            indexer.storeStatement(new RyaStatement(aliceSSN, new RyaIRI("urn:age"), new RyaType(XMLSchema.INT, "30")));
+            indexer.storeStatement(new RyaStatement(aliceSSN, new RyaIRI("urn:eye"), new RyaType(XMLSchema.STRING, "blue")));
+
+            // Nothing is written until the indexer is flushed.
+            final EntityStorage entities = new MongoEntityStorage(getMongoClient(), conf.getRyaInstanceName());
+            assertFalse(entities.get(aliceSSN).isPresent());
+            indexer.flush();
+
+            // Fetch the Entity from storage and ensure it looks correct.
+            final Entity entity = entities.get(aliceSSN).get();
+
+            final Entity expected = Entity.builder()
+                    .setSubject(aliceSSN)
+                    .setExplicitType(new RyaIRI("urn:person"))
+                    .setProperty(new RyaIRI("urn:person"), new Property(new RyaIRI("urn:name"), new RyaType(XMLSchema.STRING, "Alice")))
+                    .setProperty(new RyaIRI("urn:person"), new Property(new RyaIRI("urn:age"), new RyaType(XMLSchema.INT, "30")))
+                    .setProperty(new RyaIRI("urn:person"), new Property(new RyaIRI("urn:eye"), new RyaType(XMLSchema.STRING, "blue")))
+                    .setProperty(new RyaIRI("urn:employee"), new Property(new RyaIRI("urn:name"), new RyaType(XMLSchema.STRING, "Alice")))
+                    .setVersion(1)
+                    .build();
+
+            assertEquals(expected, entity);
+        }
+    }
+
+    @Test
+    public void addStatements_mergedIntoExistingEntity() throws Exception {
+        try(BufferedMongoEntityIndexer indexer = new BufferedMongoEntityIndexer()) {
+            indexer.setConf(conf);
+            indexer.init();
+            // Load the types into the TypeStorage.
+            final TypeStorage types = new MongoTypeStorage(getMongoClient(), conf.getRyaInstanceName());
+            types.create(PERSON_TYPE);
+            types.create(EMPLOYEE_TYPE);
+
+            // Index the Entity's type and name, then more properties in a later flush.
+            final RyaIRI bobSSN = new RyaIRI("urn:SSN/222-22-2222");
+            indexer.storeStatement(new RyaStatement(bobSSN, new RyaIRI( RDF.TYPE.toString() ), new RyaType(XMLSchema.ANYURI, "urn:employee")));
+            indexer.storeStatement(new RyaStatement(bobSSN, new RyaIRI("urn:name"), new RyaType(XMLSchema.STRING, "Bob")));
+            indexer.flush();
+
+            indexer.storeStatement(new RyaStatement(bobSSN, new RyaIRI("urn:hoursPerWeek"), new RyaType(XMLSchema.INT, "40")));
+            indexer.storeStatement(new RyaStatement(bobSSN, new RyaIRI( RDF.TYPE.toString() ), new RyaType(XMLSchema.ANYURI, "urn:person")));
+            indexer.flush();
+
+            // Fetch the Entity from storage and ensure it looks correct.
+            final EntityStorage entities = new MongoEntityStorage(getMongoClient(), conf.getRyaInstanceName());
+            final Entity entity = entities.get(bobSSN).get();
+
+            final Entity expected = Entity.builder()
+                    .setSubject(bobSSN)
+                    .setExplicitType(new RyaIRI("urn:employee"))
+                    .setExplicitType(new RyaIRI("urn:person"))
+                    .setProperty(new RyaIRI("urn:employee"), new Property(new RyaIRI("urn:name"), new RyaType(XMLSchema.STRING, "Bob")))
+                    .setProperty(new RyaIRI("urn:employee"), new Property(new RyaIRI("urn:hoursPerWeek"), new RyaType(XMLSchema.INT, "40")))
+                    .setProperty(new RyaIRI("urn:person"), new Property(new RyaIRI("urn:name"), new RyaType(XMLSchema.STRING, "Bob")))
+                    .setVersion(2)
+                    .build();
+
+            assertEquals(expected, entity);
+        }
+    }
+
+    @Test
+    public void addStatements_flushedWhenBufferIsFull() throws Exception {
+        conf.setInt(ConfigUtils.ENTITY_BUFFER_SIZE, 2);
+        try(BufferedMongoEntityIndexer indexer = new BufferedMongoEntityIndexer()) {
+            indexer.setConf(conf);
+            indexer.init();
+            // Load a type into the TypeStorage.
+            final TypeStorage types = new MongoTypeStorage(getMongoClient(), conf.getRyaInstanceName());
+            types.create(PERSON_TYPE);
+
+            // Index enough statements to fill the buffer.
+            final RyaIRI aliceSSN = new RyaIRI("urn:SSN/111-11-1111");
+            indexer.storeStatement(new RyaStatement(aliceSSN, new RyaIRI( RDF.TYPE.toString() ), new RyaType(XMLSchema.ANYURI, "urn:person")));
+            indexer.storeStatement(new RyaStatement(aliceSSN, new RyaIRI("urn:name"), new RyaType(XMLSchema.STRING, "Alice")));
+
+            // Fetch the Entity from storage and ensure it looks correct.
+            final EntityStorage entities = new MongoEntityStorage(getMongoClient(), conf.getRyaInstanceName());
+            final Entity entity = entities.get(aliceSSN).get();
+
+            final Entity expected = Entity.builder()
+                    .setSubject(aliceSSN)
+                    .setExplicitType(new RyaIRI("urn:person"))
+                    .setProperty(new RyaIRI("urn:person"), new Property(new RyaIRI("urn:name"), new RyaType(XMLSchema.STRING, "Alice")))
+                    .setVersion(1)
+                    .build();
+
+            assertEquals(expected, entity);
+        }
+    }
+
+    @Test
+    public void deleteStatement_appliesBufferedStatementsFirst() throws Exception {
+        try(BufferedMongoEntityIndexer indexer = new BufferedMongoEntityIndexer()) {
+            indexer.setConf(conf);
+            indexer.init();
+            // Load a type into the TypeStorage.
+            final TypeStorage types = new MongoTypeStorage(getMongoClient(), conf.getRyaInstanceName());
+            types.create(PERSON_TYPE);
+
+            // Index an Entity, then delete one of its properties before flushing.
+            final RyaIRI aliceSSN = new RyaIRI("urn:SSN/111-11-1111");
+            indexer.storeStatement(new RyaStatement(aliceSSN, new RyaIRI( RDF.TYPE.toString() ), new RyaType(XMLSchema.ANYURI, "urn:person")));
+            indexer.storeStatement(new RyaStatement(aliceSSN, new RyaIRI("urn:name"), new RyaType(XMLSchema.STRING, "Alice")));
+            indexer.storeStatement(new RyaStatement(aliceSSN, new RyaIRI("urn:eye"), new RyaType(XMLSchema.STRING, "blue")));
+            indexer.deleteStatement(new RyaStatement(aliceSSN, new RyaIRI("urn:eye"), new RyaType(XMLSchema.STRING, "blue")));
+
+            // Fetch the Entity from storage and ensure it looks correct.
+            final EntityStorage entities = new MongoEntityStorage(getMongoClient(), conf.getRyaInstanceName());
+            final Entity entity = entities.get(aliceSSN).get();
+
+            final Entity expected = Entity.builder()
+                    .setSubject(aliceSSN)
+                    .setExplicitType(new RyaIRI("urn:person"))
+                    .setProperty(new RyaIRI("urn:person"), new Property(new RyaIRI("urn:name"), new RyaType(XMLSchema.STRING, "Alice")))
+                    .setVersion(2)
+                    .build();
+
+            assertEquals(expected, entity);
+        }
+    }
+
+    @Test
+    public void flush_nearDuplicatesReportedAndDropped() throws Exception {
+        try(BufferedMongoEntityIndexer indexer = new BufferedMongoEntityIndexer()) {
+            indexer.setConf(conf);
+            indexer.init();
+            // Load a type into the TypeStorage.
+            final TypeStorage types = new MongoTypeStorage(getMongoClient(), conf.getRyaInstanceName());
+            types.create(PERSON_TYPE);
+
+            final RyaIRI aliceSSN = new RyaIRI("urn:SSN/111-11-1111");
+            indexer.storeStatement(new RyaStatement(aliceSSN, new RyaIRI( RDF.TYPE.toString() ), new RyaType(XMLSchema.ANYURI, "urn:person")));
+            indexer.storeStatement(new RyaStatement(aliceSSN, new RyaIRI("urn:name"), new RyaType(XMLSchema.STRING, "Alice")));
+            indexer.storeStatement(new RyaStatement(aliceSSN, new RyaIRI("urn:age"), new RyaType(XMLSchema.INT, "30")));
+            indexer.flush();
+
+            // Index an Entity that is identical to Alice other than its Subject.
+            final RyaIRI copySSN = new RyaIRI("urn:SSN/333-33-3333");
+            indexer.storeStatement(new RyaStatement(copySSN, new RyaIRI( RDF.TYPE.toString() ), new RyaType(XMLSchema.ANYURI, "urn:person")));
+            indexer.storeStatement(new RyaStatement(copySSN, new RyaIRI("urn:name"), new RyaType(XMLSchema.STRING, "Alice")));
+            indexer.storeStatement(new RyaStatement(copySSN, new RyaIRI("urn:age"), new RyaType(XMLSchema.INT, "30")));
+            try {
+                indexer.flush();
+                fail("The near duplicate should have been reported.");
+            } catch(final IOException e) {
+                assertTrue(e.getCause() instanceof EntityNearDuplicateException);
+            }
+
+            // The rejected change is not written by a later flush.
+            indexer.flush();
+            final EntityStorage entities = new MongoEntityStorage(getMongoClient(), conf.getRyaInstanceName());
+            assertTrue(entities.get(aliceSSN).isPresent());
+            assertFalse(entities.get(copySSN).isPresent());
+        }
+    }
+}
@@ -269,6 +269,121 @@ public class AccumuloIndexSetTest {
         Assert.assertEquals(Sets.<BindingSet>newHashSet(alice,bob), fetchedResults);
     }
 
+    @Test
+    public void accumuloIndexSetTestWithBatchedBindingSets() throws Exception {
+        // Load some Triples into Rya.
+        final Set<Statement> triples = new HashSet<>();
+        triples.add( VF.createStatement(VF.createIRI("http://Alice"), VF.createIRI("http://hasAge"), VF.createLiteral(BigInteger.valueOf(14))) );
+        triples.add( VF.createStatement(VF.createIRI("http://Alice"), VF.createIRI("http://playsSport"), VF.createLiteral("Soccer")) );
+        triples.add( VF.createStatement(VF.createIRI("http://Bob"), VF.createIRI("http://hasAge"), VF.createLiteral(BigInteger.valueOf(16))) );
+        triples.add( VF.createStatement(VF.createIRI("http://Bob"), VF.createIRI("http://playsSport"), VF.createLiteral("Soccer")) );
+        triples.add( VF.createStatement(VF.createIRI("http://Charlie"), VF.createIRI("http://hasAge"), VF.createLiteral(BigInteger.valueOf(12))) );
+        triples.add( VF.createStatement(VF.createIRI("http://Charlie"), VF.createIRI("http://playsSport"), VF.createLiteral("Soccer")) );
+
+        for(final Statement triple : triples) {
+            ryaConn.add(triple);
+        }
+
+        // Create a PCJ table will include those triples in its results.
+        final String sparql =
+                "SELECT ?name ?age " +
+                "{" +
+                  "FILTER(?age < 30) ." +
+                  "?name <http://hasAge> ?age." +
+                  "?name <http://playsSport> \"Soccer\" " +
+                "}";
+
+        final String pcjTableName = new PcjTableNameFactory().makeTableName(prefix, "testPcj");
+
+        // Create and populate the PCJ table.
+        PcjIntegrationTestingUtil.createAndPopulatePcj(ryaConn, accumuloConn, pcjTableName, sparql, new String[]{"name", "age"}, Optional.absent());
+
+        // Join the binding sets against the PCJ two at a time.
+        final Configuration batchedConf = getConf();
+        batchedConf.setInt(ConfigUtils.PCJ_LOOKUP_BATCH_SIZE, 2);
+        final AccumuloIndexSet ais = new AccumuloIndexSet(batchedConf, pcjTableName);
+
+        final Set<BindingSet> bSets = new HashSet<>();
+        final Set<BindingSet> expected = new HashSet<>();
+        final String[] names = new String[] {"Alice", "Bob", "Charlie", "Dave", "Eve"};
+        final int[] ages = new int[] {14, 16, 12};
+        for(int i = 0; i < names.length; i++) {
+            final QueryBindingSet bs = new QueryBindingSet();
+            bs.addBinding("name", VF.createIRI("http://" + names[i]));
+            bs.addBinding("id", VF.createLiteral(i));
+            bSets.add(bs);
+
+            if(i < ages.length) {
+                final QueryBindingSet result = new QueryBindingSet(bs);
+                result.addBinding("age", VF.createLiteral(BigInteger.valueOf(ages[i])));
+                expected.add(result);
+            }
+        }
+
+        final Set<BindingSet> fetchedResults = new HashSet<>();
+        final CloseableIteration<BindingSet, QueryEvaluationException> results = ais.evaluate(bSets);
+        while(results.hasNext()) {
+            fetchedResults.add(results.next());
+        }
+        results.close();
+        ais.releaseResources();
+
+        Assert.assertEquals(expected, fetchedResults);
+    }
+
+    @Test
+    public void accumuloIndexSetReleasesScannersWhenClosed() throws Exception {
+        // Load some Triples into Rya.
+        final Set<Statement> triples = new HashSet<>();
+        triples.add( VF.createStatement(VF.createIRI("http://Alice"), VF.createIRI("http://hasAge"), VF.createLiteral(BigInteger.valueOf(14))) );
+        triples.add( VF.createStatement(VF.createIRI("http://Alice"), VF.createIRI("http://playsSport"), VF.createLiteral("Soccer")) );
+        triples.add( VF.createStatement(VF.createIRI("http://Bob"), VF.createIRI("http://hasAge"), VF.createLiteral(BigInteger.valueOf(16))) );
+        triples.add( VF.createStatement(VF.createIRI("http://Bob"), VF.createIRI("http://playsSport"), VF.createLiteral("Soccer")) );
+
+        for(final Statement triple : triples) {
+            ryaConn.add(triple);
+        }
+
+        // Create a PCJ table will include those triples in its results.
+        final String sparql =
+                "SELECT ?name ?age " +
+                "{" +
+                  "?name <http://hasAge> ?age." +
+                  "?name <http://playsSport> \"Soccer\" " +
+                "}";
+
+        final String pcjTableName = new PcjTableNameFactory().makeTableName(prefix, "testPcj");
+
+        // Create and populate the PCJ table.
+        PcjIntegrationTestingUtil.createAndPopulatePcj(ryaConn, accumuloConn, pcjTableName, sparql, new String[]{"name", "age"}, Optional.absent());
+
+        // Join the binding sets against the PCJ one at a time.
+        final Configuration batchedConf = getConf();
+        batchedConf.setInt(ConfigUtils.PCJ_LOOKUP_BATCH_SIZE, 1);
+        final AccumuloIndexSet ais = new AccumuloIndexSet(batchedConf, pcjTableName);
+
+        final Set<BindingSet> bSets = new HashSet<>();
+        for(final String name : new String[] {"Alice", "Bob"}) {
+            final QueryBindingSet bs = new QueryBindingSet();
+            bs.addBinding("name", VF.createIRI("http://" + name));
+            bSets.add(bs);
+        }
+
+        // The scanners are kept while the batches are read.
+        final CloseableIteration<BindingSet, QueryEvaluationException> results = ais.evaluate(bSets);
+        int count = 0;
+        while(results.hasNext()) {
+            results.next();
+            count++;
+        }
+        Assert.assertEquals(2, count);
+        Assert.assertTrue(ais.getIdleScannerCount() > 0);
+
+        // Closing the results releases them without a call to releaseResources().
+        results.close();
+        Assert.assertEquals(0, ais.getIdleScannerCount());
+    }
+
     @Test
     public void accumuloIndexSetTestWithNoBindingSet() throws RepositoryException, PcjException, TableNotFoundException,
     RyaTypeResolverException, MalformedQueryException, SailException, QueryEvaluationException, AccumuloException, AccumuloSecurityException {
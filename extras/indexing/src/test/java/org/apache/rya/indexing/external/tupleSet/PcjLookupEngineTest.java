@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.external.tupleSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.mock.MockInstance;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.hadoop.io.Text;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+/**
+ * Tests the methods of {@link PcjLookupEngine}.
+ */
+public class PcjLookupEngineTest {
+
+    private static final String TABLE = "pcjLookupEngineTest";
+    private static final Map<String, String> VAR_MAP = ImmutableMap.of("x", "x");
+
+    private Connector connector;
+
+    @Before
+    public void setup() throws Exception {
+        connector = new MockInstance("instance").getConnector("root", new PasswordToken(""));
+        if(!connector.tableOperations().exists(TABLE)) {
+            connector.tableOperations().create(TABLE);
+        }
+    }
+
+    @Test
+    public void coalesce() {
+        final List<Range> ranges = Lists.newArrayList(
+                Range.prefix(new Text("x")),
+                Range.prefix(new Text("ad")),
+                Range.prefix(new Text("abc")),
+                Range.prefix(new Text("ab")),
+                Range.prefix(new Text("ac")),
+                Range.prefix(new Text("ab")));
+
+        final List<Range> expected = Lists.newArrayList(
+                new Range(new Key("ab"), true, new Key("ae"), false),
+                Range.prefix(new Text("x")));
+        assertEquals(expected, PcjLookupEngine.coalesce(ranges));
+    }
+
+    @Test
+    public void exhaustedScannersAreReused() throws Exception {
+        try(final PcjLookupEngine engine = new PcjLookupEngine(connector, TABLE, new Authorizations(), 2, 1)) {
+            for(int i = 0; i < 3; i++) {
+                final CloseableIteration<Map.Entry<String, BindingSet>, QueryEvaluationException> rows =
+                        engine.lookup(Lists.newArrayList(Range.prefix("a")), VAR_MAP, 1);
+                assertEquals(0, engine.getIdleScannerCount());
+                assertFalse(rows.hasNext());
+                rows.close();
+                assertEquals(1, engine.getIdleScannerCount());
+            }
+
+            engine.close();
+            assertEquals(0, engine.getIdleScannerCount());
+        }
+    }
+
+    @Test
+    public void poolIsBounded() throws Exception {
+        try(final PcjLookupEngine engine = new PcjLookupEngine(connector, TABLE, new Authorizations(), 2, 1)) {
+            final CloseableIteration<Map.Entry<String, BindingSet>, QueryEvaluationException> first =
+                    engine.lookup(Lists.newArrayList(Range.prefix("a")), VAR_MAP, 1);
+            final CloseableIteration<Map.Entry<String, BindingSet>, QueryEvaluationException> second =
+                    engine.lookup(Lists.newArrayList(Range.prefix("b")), VAR_MAP, 1);
+            assertFalse(first.hasNext());
+            assertFalse(second.hasNext());
+            first.close();
+            second.close();
+            assertEquals(1, engine.getIdleScannerCount());
+        }
+    }
+
+    @Test
+    public void unfinishedLookupsAreNotReused() throws Exception {
+        try(final PcjLookupEngine engine = new PcjLookupEngine(connector, TABLE, new Authorizations(), 2, 1)) {
+            engine.lookup(Lists.newArrayList(Range.prefix("a")), VAR_MAP, 1).close();
+            assertEquals(0, engine.getIdleScannerCount());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.smarturi.duplication;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.rya.indexing.smarturi.duplication.DuplicateDataDetector.DoubleApproxEqualsDetector;
+import org.apache.rya.indexing.smarturi.duplication.DuplicateDataDetector.IntegerApproxEqualsDetector;
+import org.apache.rya.indexing.smarturi.duplication.DuplicateDataDetector.StringApproxEqualsDetector;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Tests the blocking keys of the {@link ApproxEqualsDetector}s.
+ */
+public class BlockingKeysTest {
+    /**
+     * Checks that whenever two values are approximately equal, the blocking
+     * key of the second is one of the candidate keys of the first.
+     */
+    private static void assertBlockingKeysCover(final ApproxEqualsDetector<?> detector, final List<String> values) throws Exception {
+        for (final String lhs : values) {
+            final Optional<Set<String>> candidates = detector.getCandidateBlockingKeys(lhs);
+            for (final String rhs : values) {
+                if (detector.areApproxEquals(lhs, rhs) && candidates.isPresent()) {
+                    final String key = detector.getBlockingKey(rhs).get();
+                    assertTrue(lhs + " ~ " + rhs + " but " + key + " isn't in " + candidates.get(),
+                            candidates.get().contains(key));
+                }
+            }
+        }
+    }
+
+    private static boolean isCandidate(final ApproxEqualsDetector<?> detector, final String lhs, final String rhs) throws Exception {
+        return detector.getCandidateBlockingKeys(lhs).get().contains(detector.getBlockingKey(rhs).get());
+    }
+
+    @Test
+    public void testIntegerDifference() throws Exception {
+        final ApproxEqualsDetector<?> detector = new IntegerApproxEqualsDetector(new Tolerance(2.5, ToleranceType.DIFFERENCE));
+        assertBlockingKeysCover(detector, Arrays.asList("-7", "-5", "-3", "-1", "0", "1", "2", "3", "4", "5", "6", "9", "12"));
+        assertFalse(isCandidate(detector, "0", "12"));
+    }
+
+    @Test
+    public void testIntegerPercentage() throws Exception {
+        final ApproxEqualsDetector<?> detector = new IntegerApproxEqualsDetector(new Tolerance(0.1, ToleranceType.PERCENTAGE));
+        assertBlockingKeysCover(detector, Arrays.asList("0", "1", "9", "10", "11", "90", "99", "100", "109", "110", "111", "1000"));
+        assertFalse(isCandidate(detector, "100", "1000"));
+    }
+
+    @Test
+    public void testDoubleDifference() throws Exception {
+        final ApproxEqualsDetector<?> detector = new DoubleApproxEqualsDetector(new Tolerance(0.01, ToleranceType.DIFFERENCE));
+        assertBlockingKeysCover(detector, Arrays.asList("-0.01", "-0.0", "0.0", "0.005", "0.01", "0.02", "0.03", "1.0", "1.01", "1.02"));
+        assertFalse(isCandidate(detector, "0.0", "1.0"));
+    }
+
+    @Test
+    public void testDoublePercentage() throws Exception {
+        final ApproxEqualsDetector<?> detector = new DoubleApproxEqualsDetector(new Tolerance(0.0001, ToleranceType.PERCENTAGE));
+        assertBlockingKeysCover(detector, Arrays.asList("1.0", "1.0001", "0.9999", "1.0002", "1000.0", "1000.1", "999.9", "1e300", "1.0001e300"));
+        assertFalse(isCandidate(detector, "1.0", "1.1"));
+    }
+
+    @Test
+    public void testStringDifference() throws Exception {
+        final Map<String, List<String>> equivalentTerms = ImmutableMap.of("test", Arrays.asList("examination"));
+        final ApproxEqualsDetector<?> detector = new StringApproxEqualsDetector(new Tolerance(1.0, ToleranceType.DIFFERENCE), equivalentTerms);
+        assertBlockingKeysCover(detector, Arrays.asList("", "a", "ab", "abc", "Abc", "abcd", "test", "examination"));
+        assertFalse(isCandidate(detector, "a", "abc"));
+        assertTrue(isCandidate(detector, "test", "examination"));
+    }
+
+    @Test
+    public void testStringExact() throws Exception {
+        final ApproxEqualsDetector<?> detector = new StringApproxEqualsDetector(new Tolerance(0.0, ToleranceType.DIFFERENCE), Collections.emptyMap());
+        assertBlockingKeysCover(detector, Arrays.asList("blue", "Blue", "BLUE", "bleu"));
+        assertFalse(isCandidate(detector, "blue", "bleu"));
+    }
+}
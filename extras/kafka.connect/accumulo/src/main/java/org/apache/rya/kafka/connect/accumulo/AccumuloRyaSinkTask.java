@@ -28,6 +28,8 @@ import org.apache.accumulo.core.client.Connector;
 import org.apache.accumulo.core.client.Instance;
 import org.apache.accumulo.core.client.ZooKeeperInstance;
 import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.rya.accumulo.AccumuloRdfConfiguration;
 import org.apache.rya.api.client.RyaClient;
@@ -37,6 +39,7 @@ import org.apache.rya.api.client.accumulo.AccumuloRyaClientFactory;
 import org.apache.rya.api.log.LogUtils;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.kafka.connect.api.sink.RyaSinkTask;
+import org.apache.rya.rdftriplestore.RdfCloudTripleStore;
 import org.apache.rya.rdftriplestore.inference.InferenceEngineException;
 import org.apache.rya.sail.config.RyaSailFactory;
 import org.eclipse.rdf4j.sail.Sail;
@@ -44,6 +47,7 @@ import org.eclipse.rdf4j.sail.SailException;
 
 import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 /**
  * A {@link RyaSinkTask} that uses the Accumulo implementation of Rya to store data.
@@ -51,6 +55,9 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 @DefaultAnnotation(NonNull.class)
 public class AccumuloRyaSinkTask extends RyaSinkTask {
 
+    @Nullable
+    private Sail sail = null;
+
     @Override
     protected void checkRyaInstanceExists(final Map<String, String> taskConfig) throws ConnectException {
         requireNonNull(taskConfig);
@@ -87,6 +94,20 @@ public class AccumuloRyaSinkTask extends RyaSinkTask {
         }
     }
 
+    @Override
+    public void flush(final Map<TopicPartition, OffsetAndMetadata> currentOffsets) {
+        super.flush(currentOffsets);
+
+        // Statements are written in the background, so wait for them to be durable before the offsets are committed.
+        if(sail instanceof RdfCloudTripleStore) {
+            try {
+                ((RdfCloudTripleStore<?>) sail).getRyaDAO().flush();
+            } catch (final RyaDAOException e) {
+                throw new ConnectException("Could not write the statements to the Rya Instance.", e);
+            }
+        }
+    }
+
     @Override
     protected Sail makeSail(final Map<String, String> taskConfig) throws ConnectException {
         requireNonNull(taskConfig);
@@ -102,10 +123,12 @@ public class AccumuloRyaSinkTask extends RyaSinkTask {
         ryaConfig.setAccumuloUser( config.getUsername() );
         ryaConfig.setAccumuloPassword( config.getPassword() );
         ryaConfig.setFlush(false);
+        ryaConfig.setAsyncIngest(true);
 
         // Create the Sail object.
         try {
-            return RyaSailFactory.getInstance(ryaConfig);
+            sail = RyaSailFactory.getInstance(ryaConfig);
+            return sail;
         } catch (SailException | AccumuloException | AccumuloSecurityException | RyaDAOException | InferenceEngineException e) {
             throw new ConnectException("Could not connect to the Rya Instance named " + config.getRyaInstanceName(), e);
         }
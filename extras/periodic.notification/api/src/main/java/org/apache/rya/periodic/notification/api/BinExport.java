@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.periodic.notification.api;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the export of every {@link BindingSetRecord} that belongs to one {@link NodeBin}.
+ * Records are exported asynchronously, so this object counts the records that have been
+ * handed to an exporter and not yet acknowledged. Once all of the bin's records have been
+ * added and acknowledged, the bin is passed to a callback so that it may be pruned. A bin
+ * with a record that its exporter gave up on, after retrying it, is never passed to the
+ * callback, which leaves its results in storage.
+ *
+ */
+public class BinExport {
+
+    private final NodeBin bin;
+    private final Consumer<NodeBin> onExported;
+
+    /**
+     * Starts at one so the count can not reach zero until {@link #allRecordsAdded()} is called.
+     */
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final AtomicBoolean failed = new AtomicBoolean(false);
+
+    /**
+     * Creates a BinExport.
+     * @param bin - the bin whose results are being exported
+     * @param onExported - called with the bin once all of its records have been exported
+     */
+    public BinExport(final NodeBin bin, final Consumer<NodeBin> onExported) {
+        this.bin = Objects.requireNonNull(bin);
+        this.onExported = Objects.requireNonNull(onExported);
+    }
+
+    /**
+     * @return the bin whose results are being exported
+     */
+    public NodeBin getBin() {
+        return bin;
+    }
+
+    /**
+     * Indicates that another record of the bin is about to be handed to an exporter.
+     */
+    public void recordAdded() {
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Indicates that a record of the bin has been acknowledged by the system it was exported to.
+     */
+    public void recordExported() {
+        release();
+    }
+
+    /**
+     * Indicates that a record of the bin could not be exported.
+     */
+    public void recordFailed() {
+        fail();
+        release();
+    }
+
+    /**
+     * Indicates that every record of the bin has been handed to an exporter.
+     */
+    public void allRecordsAdded() {
+        release();
+    }
+
+    /**
+     * Prevents the bin from being passed to the callback, for example because its results could not be read.
+     */
+    public void fail() {
+        failed.set(true);
+    }
+
+    /**
+     * @return true if a record of the bin could not be exported
+     */
+    public boolean isFailed() {
+        return failed.get();
+    }
+
+    private void release() {
+        if (pending.decrementAndGet() == 0 && !failed.get()) {
+            onExported.accept(bin);
+        }
+    }
+}
@@ -18,6 +18,8 @@
  */
 package org.apache.rya.periodic.notification.api;
 
+import java.util.Optional;
+
 import org.eclipse.rdf4j.query.BindingSet;
 
 import com.google.common.base.Objects;
@@ -32,10 +34,21 @@ public class BindingSetRecord {
 
     private BindingSet bs;
     private String topic;
+    private Optional<BinExport> binExport;
     
     public BindingSetRecord(BindingSet bs, String topic) {
+        this(bs, topic, Optional.empty());
+    }
+    
+    /**
+     * @param bs - BindingSet to export
+     * @param topic - Kafka topic the BindingSet is exported to
+     * @param binExport - notified once the BindingSet has been exported, if present
+     */
+    public BindingSetRecord(BindingSet bs, String topic, Optional<BinExport> binExport) {
         this.bs = bs;
         this.topic = topic;
+        this.binExport = binExport;
     }
     
     /**
@@ -52,6 +65,13 @@ public class BindingSetRecord {
         return topic;
     }
     
+    /**
+     * @return tracks the export of the bin this BindingSetRecord belongs to, if it is part of one
+     */
+    public Optional<BinExport> getBinExport() {
+        return binExport;
+    }
+    
     @Override 
     public boolean equals(Object o) {
         if(this == o) {
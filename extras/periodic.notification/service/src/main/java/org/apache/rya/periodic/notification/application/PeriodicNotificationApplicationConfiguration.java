@@ -40,6 +40,8 @@ public class PeriodicNotificationApplicationConfiguration extends AccumuloRdfCon
     public static final String COORDINATOR_THREADS = RYA_PERIODIC_PREFIX + "coordinator.threads";
     public static final String PRODUCER_THREADS = RYA_PERIODIC_PREFIX + "producer.threads";
     public static final String EXPORTER_THREADS = RYA_PERIODIC_PREFIX + "exporter.threads";
+    public static final String EXPORTER_QUEUE_SIZE = RYA_PERIODIC_PREFIX + "exporter.queue.size";
+    public static final String EXPORTER_RETRIES = RYA_PERIODIC_PREFIX + "exporter.retries";
     public static final String PROCESSOR_THREADS = RYA_PERIODIC_PREFIX + "processor.threads";
     public static final String PRUNER_THREADS = RYA_PERIODIC_PREFIX + "pruner.threads";
 
@@ -65,6 +67,8 @@ public class PeriodicNotificationApplicationConfiguration extends AccumuloRdfCon
      * <li>"rya.periodic.notification.coordinator.threads" - Number of threads used by coordinator. Default is 1.
      * <li>"rya.periodic.notification.producer.threads" - Number of threads used by producer.  Default is 1.
      * <li>"rya.periodic.notification.exporter.threads" - Number of threads used by exporter.  Default is 1.
+     * <li>"rya.periodic.notification.exporter.queue.size" - Number of results that may wait to be exported.  Default is 10000.
+     * <li>"rya.periodic.notification.exporter.retries" - Number of times a result that failed to export is sent again.  Default is 3.
      * <li>"rya.periodic.notification.processor.threads" - Number of threads used by processor.  Default is 1.
      * <li>"rya.periodic.notification.pruner.threads" - Number of threads used by pruner.  Default is 1.
      * </ul>
@@ -82,6 +86,8 @@ public class PeriodicNotificationApplicationConfiguration extends AccumuloRdfCon
        setProducerThreads(Integer.parseInt(props.getProperty(PRODUCER_THREADS, "1")));
        setProcessorThreads(Integer.parseInt(props.getProperty(PROCESSOR_THREADS, "1")));
        setExporterThreads(Integer.parseInt(props.getProperty(EXPORTER_THREADS, "1")));
+       setExporterQueueSize(Integer.parseInt(props.getProperty(EXPORTER_QUEUE_SIZE, "10000")));
+       setExporterRetries(Integer.parseInt(props.getProperty(EXPORTER_RETRIES, "3")));
        setPrunerThreads(Integer.parseInt(props.getProperty(PRUNER_THREADS, "1")));
        setCoordinatorThreads(Integer.parseInt(props.getProperty(COORDINATOR_THREADS, "1")));
     }
@@ -150,6 +156,22 @@ public class PeriodicNotificationApplicationConfiguration extends AccumuloRdfCon
         setInt(EXPORTER_THREADS, threads);
     }
 
+    /**
+     * Sets the number of results that may wait to be exported
+     * @param size
+     */
+    public void setExporterQueueSize(final int size) {
+        setInt(EXPORTER_QUEUE_SIZE, size);
+    }
+
+    /**
+     * Sets the number of times a result that failed to export is sent again
+     * @param retries
+     */
+    public void setExporterRetries(final int retries) {
+        setInt(EXPORTER_RETRIES, retries);
+    }
+
     /**
      * Sets the number of threads for the producer for reading new periodic notifications
      * @param threads
@@ -230,6 +252,20 @@ public class PeriodicNotificationApplicationConfiguration extends AccumuloRdfCon
         return getInt(EXPORTER_THREADS, 1);
     }
 
+    /**
+     * @return the number of results that may wait to be exported
+     */
+    public int getExporterQueueSize() {
+        return getInt(EXPORTER_QUEUE_SIZE, 10000);
+    }
+
+    /**
+     * @return the number of times a result that failed to export is sent again
+     */
+    public int getExporterRetries() {
+        return getInt(EXPORTER_RETRIES, 3);
+    }
+
     /**
      * @return the number of threads for the notification producer
      */
@@ -71,7 +71,8 @@ public class PeriodicNotificationApplicationFactory {
 
         final BlockingQueue<TimestampedNotification> notifications = new LinkedBlockingQueue<>();
         final BlockingQueue<NodeBin> bins = new LinkedBlockingQueue<>();
-        final BlockingQueue<BindingSetRecord> bindingSets = new LinkedBlockingQueue<>();
+        // Bounded so that a large bin is streamed to the exporters rather than read into memory.
+        final BlockingQueue<BindingSetRecord> bindingSets = new LinkedBlockingQueue<>(conf.getExporterQueueSize());
 
         FluoClient fluo = null;
         try {
@@ -79,7 +80,7 @@ public class PeriodicNotificationApplicationFactory {
             fluo = FluoClientFactory.getFluoClient(conf.getFluoAppName(), Optional.of(conf.getFluoTableName()), conf);
             final NotificationCoordinatorExecutor coordinator = getCoordinator(conf.getCoordinatorThreads(), notifications);
             addRegisteredNotices(coordinator, fluo.newSnapshot());
-            final KafkaExporterExecutor exporter = getExporter(conf.getExporterThreads(), kafkaProducerProps, bindingSets);
+            final KafkaExporterExecutor exporter = getExporter(conf.getExporterThreads(), conf.getExporterRetries(), kafkaProducerProps, bindingSets);
             final PeriodicQueryPrunerExecutor pruner = getPruner(storage, fluo, conf.getPrunerThreads(), bins);
             final NotificationProcessorExecutor processor = getProcessor(storage, notifications, bins, bindingSets, conf.getProcessorThreads());
             final KafkaNotificationProvider provider = getProvider(conf.getProducerThreads(), conf.getNotificationTopic(), coordinator, kafkaConsumerProps);
@@ -100,9 +101,9 @@ public class PeriodicNotificationApplicationFactory {
         return new PeriodicNotificationCoordinatorExecutor(numThreads, notifications);
     }
 
-    private static KafkaExporterExecutor getExporter(final int numThreads, final Properties props, final BlockingQueue<BindingSetRecord> bindingSets) {
+    private static KafkaExporterExecutor getExporter(final int numThreads, final int maxRetries, final Properties props, final BlockingQueue<BindingSetRecord> bindingSets) {
         final KafkaProducer<String, BindingSet> producer = new KafkaProducer<>(props, new StringSerializer(), new BindingSetSerDe());
-        return new KafkaExporterExecutor(producer, numThreads, bindingSets);
+        return new KafkaExporterExecutor(producer, numThreads, bindingSets, maxRetries);
     }
 
     private static PeriodicQueryPrunerExecutor getPruner(final PeriodicQueryResultStorage storage, final FluoClient fluo, final int numThreads,
@@ -143,6 +144,7 @@ public class PeriodicNotificationApplicationFactory {
     private static Properties getKafkaProducerProperties(final PeriodicNotificationApplicationConfiguration conf) {
         final Properties kafkaProps = new Properties();
         kafkaProps.setProperty(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, conf.getBootStrapServers());
+        kafkaProps.setProperty(ProducerConfig.LINGER_MS_CONFIG, "5");  // results are sent asynchronously, so give the producer a moment to batch them.
         return kafkaProps;
     }
 }
@@ -45,6 +45,7 @@ public class KafkaExporterExecutor implements LifeCycle {
     private ExecutorService executor;
     private final List<KafkaPeriodicBindingSetExporter> exporters;
     private final int numThreads;
+    private final int maxRetries;
     private boolean running = false;
 
     /**
@@ -54,9 +55,22 @@ public class KafkaExporterExecutor implements LifeCycle {
      * @param bindingSets - work queue containing {@link BindingSet}s to be published
      */
     public KafkaExporterExecutor(final KafkaProducer<String, BindingSet> producer, final int numThreads, final BlockingQueue<BindingSetRecord> bindingSets) {
+        this(producer, numThreads, bindingSets, KafkaPeriodicBindingSetExporter.DEFAULT_MAX_RETRIES);
+    }
+
+    /**
+     * Creates a KafkaExporterExecutor for exporting periodic query results to Kafka.
+     * @param producer for publishing results to Kafka
+     * @param numThreads number of threads used to publish results
+     * @param bindingSets - work queue containing {@link BindingSet}s to be published
+     * @param maxRetries - number of times a result that failed to export is sent again
+     */
+    public KafkaExporterExecutor(final KafkaProducer<String, BindingSet> producer, final int numThreads, final BlockingQueue<BindingSetRecord> bindingSets,
+            final int maxRetries) {
         this.producer = Objects.requireNonNull(producer);
         this.bindingSets = Objects.requireNonNull(bindingSets);
         this.numThreads = numThreads;
+        this.maxRetries = maxRetries;
         this.exporters = new ArrayList<>();
     }
 
@@ -67,7 +81,7 @@ public class KafkaExporterExecutor implements LifeCycle {
 
             for (int threadNumber = 0; threadNumber < numThreads; threadNumber++) {
                 log.info("Creating exporter: {}", threadNumber);
-                final KafkaPeriodicBindingSetExporter exporter = new KafkaPeriodicBindingSetExporter(producer, threadNumber, bindingSets);
+                final KafkaPeriodicBindingSetExporter exporter = new KafkaPeriodicBindingSetExporter(producer, threadNumber, bindingSets, maxRetries);
                 exporters.add(exporter);
                 executor.submit(exporter);
             }
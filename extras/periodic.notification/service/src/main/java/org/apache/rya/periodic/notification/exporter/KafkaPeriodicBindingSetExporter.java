@@ -19,15 +19,17 @@
 package org.apache.rya.periodic.notification.exporter;
 
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.Future;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
-import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants;
+import org.apache.rya.periodic.notification.api.BinExport;
 import org.apache.rya.periodic.notification.api.BindingSetExporter;
 import org.apache.rya.periodic.notification.api.BindingSetRecord;
 import org.apache.rya.periodic.notification.api.BindingSetRecordExportException;
@@ -39,53 +41,142 @@ import org.slf4j.LoggerFactory;
 /**
  * Object that exports {@link BindingSet}s to the Kafka topic indicated by
  * the {@link BindingSetRecord}.
+ * <p>
+ * A result that Kafka fails to acknowledge is sent again, up to a fixed number
+ * of times, before the next result is taken from the queue. A result that
+ * still fails after that marks its bin as failed, so the bin is never pruned,
+ * and is logged as an error.
  *
  */
 public class KafkaPeriodicBindingSetExporter implements BindingSetExporter, Runnable {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaPeriodicBindingSetExporter.class);
-    private final KafkaProducer<String, BindingSet> producer;
+
+    /**
+     * The number of times a result is sent again if no number is configured.
+     */
+    public static final int DEFAULT_MAX_RETRIES = 3;
+
+    /**
+     * How long, in milliseconds, an idle exporter waits for a result before it checks for retries again.
+     */
+    private static final long POLL_MILLIS = 100;
+
+    private final Producer<String, BindingSet> producer;
     private final BlockingQueue<BindingSetRecord> bindingSets;
+    private final Queue<Retry> retries = new ConcurrentLinkedQueue<>();
     private final AtomicBoolean closed = new AtomicBoolean(false);
     private final int threadNumber;
+    private final int maxRetries;
 
-    public KafkaPeriodicBindingSetExporter(final KafkaProducer<String, BindingSet> producer, final int threadNumber,
+    public KafkaPeriodicBindingSetExporter(final Producer<String, BindingSet> producer, final int threadNumber,
             final BlockingQueue<BindingSetRecord> bindingSets) {
+        this(producer, threadNumber, bindingSets, DEFAULT_MAX_RETRIES);
+    }
+
+    /**
+     * Creates a KafkaPeriodicBindingSetExporter.
+     * @param producer - for publishing results to Kafka
+     * @param threadNumber - identifies this exporter in the logs
+     * @param bindingSets - work queue containing the results to be published
+     * @param maxRetries - the number of times a result that Kafka failed to acknowledge is sent again
+     */
+    public KafkaPeriodicBindingSetExporter(final Producer<String, BindingSet> producer, final int threadNumber,
+            final BlockingQueue<BindingSetRecord> bindingSets, final int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("The number of retries may not be negative.");
+        }
         this.threadNumber = threadNumber;
         this.producer = Objects.requireNonNull(producer);
         this.bindingSets = Objects.requireNonNull(bindingSets);
+        this.maxRetries = maxRetries;
     }
 
     /**
      * Exports BindingSets to Kafka.  The BindingSet and topic are extracted from
      * the indicated BindingSetRecord and the BindingSet is then exported to the topic.
+     * The send is asynchronous so that the producer may batch records. The record's
+     * {@link BinExport} is notified once the broker acknowledges it, or once the
+     * record has failed more times than this exporter retries it.
      */
     @Override
     public void exportNotification(final BindingSetRecord record) throws BindingSetRecordExportException {
+        export(record, 0);
+    }
+
+    private void export(final BindingSetRecord record, final int attempt) throws BindingSetRecordExportException {
+        final Optional<BinExport> binExport = record.getBinExport();
         try {
-            log.info("Exporting {} records to Kafka to topic: {}", record.getBindingSet().size(), record.getTopic());
+            log.debug("Exporting {} bindings to Kafka to topic: {}", record.getBindingSet().size(), record.getTopic());
             final String bindingName = IncrementalUpdateConstants.PERIODIC_BIN_ID;
 
             final BindingSet bindingSet = record.getBindingSet();
             final String topic = record.getTopic();
             final long binId = ((Literal) bindingSet.getValue(bindingName)).longValue();
 
-            final Future<RecordMetadata> future = producer
-                .send(new ProducerRecord<String, BindingSet>(topic, Long.toString(binId), bindingSet));
-            //wait for confirmation that results have been received
-            future.get(5, TimeUnit.SECONDS);
+            producer.send(new ProducerRecord<String, BindingSet>(topic, Long.toString(binId), bindingSet), (metadata, exception) -> {
+                if (exception == null) {
+                    binExport.ifPresent(BinExport::recordExported);
+                } else {
+                    failed(record, attempt, exception);
+                }
+            });
         } catch (final Exception e) {  // catch all possible exceptional behavior and throw as our checked exception.
+            failed(record, attempt, e);
             throw new BindingSetRecordExportException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Queues a record that could not be exported to be sent again, or fails its bin
+     * if it has already been retried as often as this exporter allows.
+     */
+    private void failed(final BindingSetRecord record, final int attempt, final Exception e) {
+        if (attempt < maxRetries) {
+            log.warn("Unable to export a result to topic " + record.getTopic() + ". It will be sent again.", e);
+            retries.add(new Retry(record, attempt + 1));
+        } else {
+            log.error("Unable to export a result to topic " + record.getTopic() + " after " + (attempt + 1)
+                    + " attempts. Its bin will not be pruned.", e);
+            record.getBinExport().ifPresent(BinExport::recordFailed);
+        }
+    }
+
+    /**
+     * Sends the results that are waiting to be sent again.
+     * @return the number of results that were sent
+     */
+    int exportRetries() {
+        int sent = 0;
+        Retry retry;
+        while ((retry = retries.poll()) != null) {
+            try {
+                export(retry.record, retry.attempt);
+            } catch (final BindingSetRecordExportException e) {
+                // The record has been queued again or its bin has been failed.
+            }
+            sent++;
+        }
+        return sent;
+    }
+
     @Override
     public void run() {
         try {
             while (!closed.get()) {
-                exportNotification(bindingSets.take());
+                exportRetries();
+                final BindingSetRecord record = bindingSets.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (record == null) {
+                    continue;
+                }
+                try {
+                    exportNotification(record);
+                } catch (final BindingSetRecordExportException e) {
+                    // The record is retried or its bin is not pruned, so keep exporting the other results.
+                    log.warn("Thread " + threadNumber + " is unable to export a result.", e);
+                }
             }
-        } catch (InterruptedException | BindingSetRecordExportException e) {
+        } catch (final InterruptedException e) {
             log.warn("Thread " + threadNumber + " is unable to process message.", e);
         }
     }
@@ -95,4 +186,17 @@ public class KafkaPeriodicBindingSetExporter implements BindingSetExporter, Runn
         closed.set(true);
     }
 
+    /**
+     * A result that is waiting to be sent again.
+     */
+    private static class Retry {
+        private final BindingSetRecord record;
+        private final int attempt;
+
+        public Retry(final BindingSetRecord record, final int attempt) {
+            this.record = record;
+            this.attempt = attempt;
+        }
+    }
+
 }
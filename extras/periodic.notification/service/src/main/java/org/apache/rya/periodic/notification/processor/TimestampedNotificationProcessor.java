@@ -24,6 +24,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.rya.api.utils.CloseableIterator;
 import org.apache.rya.indexing.pcj.storage.PeriodicQueryResultStorage;
+import org.apache.rya.periodic.notification.api.BinExport;
 import org.apache.rya.periodic.notification.api.BinPruner;
 import org.apache.rya.periodic.notification.api.BindingSetRecord;
 import org.apache.rya.periodic.notification.api.NodeBin;
@@ -83,8 +84,9 @@ public class TimestampedNotificationProcessor implements NotificationProcessor,
      * entries in the bin corresponding to
      * {@link TimestampedNotification#getTimestamp()} and adding them to the
      * export BlockingQueue. The TimestampNotification is then used to form a
-     * {@link NodeBin} that is passed to the BinPruner BlockingQueue so that the
-     * bins can be deleted from Fluo and Accumulo.
+     * {@link NodeBin} that is passed to the BinPruner BlockingQueue once every
+     * entry has been acknowledged by the exporter, so that the bins can be
+     * deleted from Fluo and Accumulo.
      */
     @Override
     public void processNotification(final TimestampedNotification notification) {
@@ -95,16 +97,31 @@ public class TimestampedNotificationProcessor implements NotificationProcessor,
         final long bin = getBinFromTimestamp(ts, period);
         final NodeBin nodeBin = new NodeBin(id, bin);
 
-        try (CloseableIterator<BindingSet> iter = periodicStorage.listResults(id, Optional.of(bin))) {
+        // add NodeBin to BinPruner queue once every result has been exported so that
+        // bin can be deleted from Fluo and Accumulo
+        final BinExport export = new BinExport(nodeBin, bins::add);
 
+        try (CloseableIterator<BindingSet> iter = periodicStorage.listResults(id, Optional.of(bin))) {
+            // The export queue is bounded, so this blocks while the exporters catch up
+            // rather than reading the whole bin into memory.
             while(iter.hasNext()) {
-                bindingSets.add(new BindingSetRecord(iter.next(), id));
+                final BindingSetRecord record = new BindingSetRecord(iter.next(), id, Optional.of(export));
+                export.recordAdded();
+                try {
+                    bindingSets.put(record);
+                } catch (final InterruptedException e) {
+                    export.recordFailed();
+                    throw e;
+                }
             }
-            // add NodeBin to BinPruner queue so that bin can be deleted from
-            // Fluo and Accumulo
-            bins.add(nodeBin);
+        } catch (final InterruptedException e) {
+            log.warn("Interrupted while exporting periodic results for bin: " + bin + " for query: " + id);
+            Thread.currentThread().interrupt();
         } catch (final Exception e) {
+            export.fail();
             log.warn("Encountered exception while accessing periodic results for bin: " + bin + " for query: " + id, e);
+        } finally {
+            export.allRecordsAdded();
         }
     }
 
@@ -66,11 +66,12 @@ public class FluoBinPruner implements BinPruner {
                 log.trace("Unable to determine NodeType from id: " + id);
                 throw new RuntimeException();
             }
-            final Column batchInfoColumn = type.get().getResultColumn();
             final Bytes batchInfoSpanPrefix = BindingHashShardingFunction.getShardedScanPrefix(id, VF.createLiteral(bin));
-            final SpanBatchDeleteInformation batchInfo = SpanBatchDeleteInformation.builder().setColumn(batchInfoColumn)
-                    .setSpan(Span.prefix(batchInfoSpanPrefix)).build();
-            BatchInformationDAO.addBatch(tx, id, batchInfo);
+            for (final Column batchInfoColumn : type.get().getResultColumns()) {
+                final SpanBatchDeleteInformation batchInfo = SpanBatchDeleteInformation.builder().setColumn(batchInfoColumn)
+                        .setSpan(Span.prefix(batchInfoSpanPrefix)).build();
+                BatchInformationDAO.addBatch(tx, id, batchInfo);
+            }
             tx.commit();
         }
     }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.periodic.notification.exporter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants;
+import org.apache.rya.periodic.notification.api.BinExport;
+import org.apache.rya.periodic.notification.api.BindingSetRecord;
+import org.apache.rya.periodic.notification.api.NodeBin;
+import org.apache.rya.periodic.notification.serialization.BindingSetSerDe;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KafkaPeriodicBindingSetExporterTest {
+
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+    private static final String topic = "topic";
+    private static final NodeBin bin = new NodeBin("pcj", 1L);
+
+    private MockProducer<String, BindingSet> producer;
+    private List<NodeBin> exported;
+    private BinExport binExport;
+
+    @Before
+    public void setUp() {
+        // Sends are only acknowledged when the test completes them.
+        producer = new MockProducer<>(false, new StringSerializer(), new BindingSetSerDe());
+        exported = new ArrayList<>();
+        binExport = new BinExport(bin, exported::add);
+    }
+
+    @Test
+    public void acknowledgedBinIsExported() throws Exception {
+        final KafkaPeriodicBindingSetExporter exporter = new KafkaPeriodicBindingSetExporter(producer, 0, new LinkedBlockingQueue<>(), 1);
+        exporter.exportNotification(record("urn:a"));
+        exporter.exportNotification(record("urn:b"));
+        binExport.allRecordsAdded();
+
+        Assert.assertTrue(producer.completeNext());
+        Assert.assertTrue(exported.isEmpty());
+        Assert.assertTrue(producer.completeNext());
+
+        Assert.assertEquals(2, producer.history().size());
+        Assert.assertEquals(1, exported.size());
+        Assert.assertEquals(bin, exported.get(0));
+        Assert.assertFalse(binExport.isFailed());
+    }
+
+    @Test
+    public void failedResultIsSentAgain() throws Exception {
+        final KafkaPeriodicBindingSetExporter exporter = new KafkaPeriodicBindingSetExporter(producer, 0, new LinkedBlockingQueue<>(), 1);
+        exporter.exportNotification(record("urn:a"));
+        binExport.allRecordsAdded();
+
+        // The first send fails, so the bin is not exported yet.
+        Assert.assertTrue(producer.errorNext(new RuntimeException("Broker unavailable.")));
+        Assert.assertTrue(exported.isEmpty());
+        Assert.assertFalse(binExport.isFailed());
+
+        // The result is sent again and acknowledged.
+        Assert.assertEquals(1, exporter.exportRetries());
+        Assert.assertTrue(producer.completeNext());
+        Assert.assertEquals(1, exported.size());
+        Assert.assertFalse(binExport.isFailed());
+    }
+
+    @Test
+    public void binFailsOnceRetriesAreUsedUp() throws Exception {
+        final KafkaPeriodicBindingSetExporter exporter = new KafkaPeriodicBindingSetExporter(producer, 0, new LinkedBlockingQueue<>(), 1);
+        exporter.exportNotification(record("urn:a"));
+        binExport.allRecordsAdded();
+
+        Assert.assertTrue(producer.errorNext(new RuntimeException("Broker unavailable.")));
+        Assert.assertEquals(1, exporter.exportRetries());
+        Assert.assertTrue(producer.errorNext(new RuntimeException("Broker unavailable.")));
+
+        // The result is not sent a third time and its bin is never pruned.
+        Assert.assertEquals(0, exporter.exportRetries());
+        Assert.assertTrue(binExport.isFailed());
+        Assert.assertTrue(exported.isEmpty());
+    }
+
+    private BindingSetRecord record(final String value) {
+        final MapBindingSet bs = new MapBindingSet();
+        bs.addBinding("x", VF.createIRI(value));
+        bs.addBinding(IncrementalUpdateConstants.PERIODIC_BIN_ID, VF.createLiteral(bin.getBin()));
+        binExport.recordAdded();
+        return new BindingSetRecord(bs, topic, Optional.of(binExport));
+    }
+}
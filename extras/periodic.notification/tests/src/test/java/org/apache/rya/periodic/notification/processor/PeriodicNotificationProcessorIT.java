@@ -108,13 +108,19 @@ public class PeriodicNotificationProcessorIT extends AccumuloExportITBase {
 
         Thread.sleep(5000);
         
-        Assert.assertEquals(expectedBins.size(), bins.size());
-        Assert.assertEquals(true, bins.containsAll(expectedBins));
+        // The bins are not pruned until their results have been exported.
+        Assert.assertEquals(0, bins.size());
         
         Set<BindingSet> actual = new HashSet<>();
         bindingSets.forEach(x -> actual.add(x.getBindingSet()));
         Assert.assertEquals(expected, actual);
         
+        // Acknowledge the export of every result.
+        bindingSets.forEach(x -> x.getBinExport().get().recordExported());
+        
+        Assert.assertEquals(expectedBins.size(), bins.size());
+        Assert.assertEquals(true, bins.containsAll(expectedBins));
+        
         processor.stop();
     }
     
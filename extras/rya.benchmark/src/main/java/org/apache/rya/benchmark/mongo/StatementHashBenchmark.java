@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.mongo;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.rya.api.domain.RyaIRI;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
+import org.apache.rya.mongodb.dao.StatementHashVersion;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.mongodb.DBObject;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A benchmark that measures how many statements per second {@link SimpleMongoDBStorageStrategy} is able to
+ * turn into documents and queries for each {@link StatementHashVersion}. It does not need a MongoDB server;
+ * see {@link StatementHashIngestBenchmark} for the ingest rate and index size of each version.
+ * <p>
+ * To execute this benchmark, build the project by executing:
+ * <pre>
+ * mvn clean install
+ * </pre>
+ * Transport the "target/benchmarking.jar" file to the system that will execute
+ * the benchmark and then execute:
+ * <pre>
+ * java -cp benchmarks.jar org.apache.rya.benchmark.mongo.StatementHashBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@DefaultAnnotation(NonNull.class)
+public class StatementHashBenchmark {
+
+    @Param({"V1", "V2"})
+    public String hashVersion;
+
+    // Cached benchmark data that is generated during the setup phase.
+    private SimpleMongoDBStorageStrategy strategy;
+    private RyaStatement statement;
+
+    @Setup
+    public void buildBenchmarkValues() {
+        strategy = new SimpleMongoDBStorageStrategy(StatementHashVersion.valueOf(hashVersion));
+        statement = new RyaStatement(
+                new RyaIRI("urn:example:subject"),
+                new RyaIRI("urn:example:predicate"),
+                new RyaType(XMLSchema.STRING, "An object literal that is about as long as a typical label."));
+    }
+
+    @Benchmark
+    public DBObject serialize() {
+        return strategy.serialize(statement);
+    }
+
+    @Benchmark
+    public DBObject getQuery() {
+        return strategy.getQuery(statement);
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final OptionsBuilder opts = new OptionsBuilder();
+        opts.parent( new CommandLineOptions(args) );
+        opts.include(StatementHashBenchmark.class.getSimpleName());
+
+        new Runner(opts.build()).run();
+    }
+}
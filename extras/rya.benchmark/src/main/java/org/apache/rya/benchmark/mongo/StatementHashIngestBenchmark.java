@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.mongo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.rya.api.domain.RyaIRI;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.mongodb.dao.SimpleMongoDBStorageStrategy;
+import org.apache.rya.mongodb.dao.StatementHashVersion;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.CommandResult;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.MongoClient;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A benchmark that measures how many statements per second may be inserted into a Rya triples collection
+ * for each {@link StatementHashVersion}. Once each trial has finished, the size of the collection's indices
+ * is printed so that the versions' index sizes may be compared as well.
+ * <p>
+ * The benchmark writes to, and drops, the "rya_hash_benchmark" database of the MongoDB server that is
+ * specified by the {@code mongoHostname} and {@code mongoPort} parameters. For example:
+ * <pre>
+ * java -cp benchmarks.jar org.apache.rya.benchmark.mongo.StatementHashIngestBenchmark -p mongoHostname=mongo.example.com
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@DefaultAnnotation(NonNull.class)
+public class StatementHashIngestBenchmark {
+
+    private static final String DATABASE = "rya_hash_benchmark";
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"V1", "V2"})
+    public String hashVersion;
+
+    @Param({"localhost"})
+    public String mongoHostname;
+
+    @Param({"27017"})
+    public int mongoPort;
+
+    private MongoClient client;
+    private DBCollection triples;
+    private SimpleMongoDBStorageStrategy strategy;
+    private long nextStatement = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        client = new MongoClient(mongoHostname, mongoPort);
+        final DB db = client.getDB(DATABASE);
+        triples = db.getCollection("rya_" + hashVersion + "_triples");
+        triples.drop();
+
+        strategy = new SimpleMongoDBStorageStrategy(StatementHashVersion.valueOf(hashVersion));
+        strategy.createIndices(triples);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        final CommandResult stats = triples.getDB().command(new BasicDBObject("collStats", triples.getName()));
+        System.out.println();
+        System.out.println("Hash version " + hashVersion + ": " + stats.get("count") + " statements, "
+                + stats.get("totalIndexSize") + " bytes of indices " + stats.get("indexSizes"));
+
+        client.dropDatabase(DATABASE);
+        client.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insert() {
+        final List<DBObject> batch = new ArrayList<>(BATCH_SIZE);
+        for(int i = 0; i < BATCH_SIZE; i++) {
+            final long id = nextStatement++;
+            final RyaStatement statement = new RyaStatement(
+                    new RyaIRI("urn:example:subject:" + id),
+                    new RyaIRI("urn:example:predicate:" + (id % 100)),
+                    new RyaType(XMLSchema.STRING, "Object literal " + id));
+            batch.add(strategy.serialize(statement));
+        }
+        triples.insert(batch);
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final OptionsBuilder opts = new OptionsBuilder();
+        opts.parent( new CommandLineOptions(args) );
+        opts.include(StatementHashIngestBenchmark.class.getSimpleName());
+
+        new Runner(opts.build()).run();
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.pcj;
+
+import static org.apache.rya.api.RdfCloudTripleStoreConstants.DELIM_BYTE;
+import static org.apache.rya.api.RdfCloudTripleStoreConstants.TYPE_DELIM_BYTE;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.rya.api.resolver.RyaContext;
+import org.apache.rya.api.resolver.RyaToRdfConversions;
+import org.apache.rya.indexing.pcj.storage.accumulo.AccumuloPcjRowCodec;
+import org.apache.rya.indexing.pcj.storage.accumulo.AccumuloPcjSerializer;
+import org.apache.rya.indexing.pcj.storage.accumulo.VariableOrder;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.primitives.Bytes;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A benchmark that measures how long it takes to decode the rows of a PCJ table scan. Each invocation
+ * decodes {@code rows} rows, cycling through a pool of distinct rows that is built during setup so
+ * that the scan is not limited by the size of the heap. The decoders are:
+ * <ul>
+ *   <li>LEGACY - splits and copies each row the way {@link AccumuloPcjSerializer} did before it used an
+ *       {@link AccumuloPcjRowCodec}.</li>
+ *   <li>SERIALIZER - {@link AccumuloPcjSerializer}, which copies every value into a new binding set.</li>
+ *   <li>CODEC - {@link AccumuloPcjRowCodec}, which only deserializes the values that are read.</li>
+ * </ul>
+ * Both a scan that reads every binding and one that only reads the first binding are measured.
+ * <p>
+ * To execute this benchmark, build the project by executing:
+ * <pre>
+ * mvn clean install
+ * </pre>
+ * Transport the "target/benchmarking.jar" file to the system that will execute
+ * the benchmark and then execute:
+ * <pre>
+ * java -cp benchmarks.jar org.apache.rya.benchmark.pcj.PcjRowScanBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@DefaultAnnotation(NonNull.class)
+public class PcjRowScanBenchmark {
+
+    private static final int POOL_SIZE = 100_000;
+
+    /**
+     * The decoder that is benchmarked.
+     */
+    @Param({"LEGACY", "SERIALIZER", "CODEC"})
+    public String decoder;
+
+    /**
+     * The number of rows each scan decodes.
+     */
+    @Param({"10000000"})
+    public int rows;
+
+    private final VariableOrder varOrder = new VariableOrder("person", "name", "age", "employer");
+    private final AccumuloPcjSerializer serializer = new AccumuloPcjSerializer();
+    private final AccumuloPcjRowCodec codec = new AccumuloPcjRowCodec();
+    private byte[][] pool;
+
+    @Setup(Level.Trial)
+    public void buildRows() throws Exception {
+        final ValueFactory vf = SimpleValueFactory.getInstance();
+        pool = new byte[POOL_SIZE][];
+        for(int i = 0; i < POOL_SIZE; i++) {
+            final MapBindingSet bs = new MapBindingSet();
+            bs.addBinding("person", vf.createIRI("urn:example:person" + i));
+            bs.addBinding("name", vf.createLiteral("Person Number " + i));
+            bs.addBinding("age", vf.createLiteral(i % 100));
+            bs.addBinding("employer", vf.createIRI("urn:example:employer" + (i % 1000)));
+            pool[i] = codec.encode(bs, varOrder);
+        }
+    }
+
+    @Benchmark
+    public int scanReadAllBindings() throws Exception {
+        int hash = 0;
+        for(int i = 0; i < rows; i++) {
+            final BindingSet bs = decode(pool[i % POOL_SIZE]);
+            for(final String name : varOrder) {
+                hash += bs.getValue(name).hashCode();
+            }
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public int scanReadFirstBinding() throws Exception {
+        int hash = 0;
+        for(int i = 0; i < rows; i++) {
+            hash += decode(pool[i % POOL_SIZE]).getValue("person").hashCode();
+        }
+        return hash;
+    }
+
+    private BindingSet decode(final byte[] row) throws Exception {
+        switch(decoder) {
+            case "LEGACY":
+                return legacyDecode(row, varOrder);
+            case "SERIALIZER":
+                return serializer.convert(row, varOrder);
+            default:
+                return codec.decode(row, varOrder);
+        }
+    }
+
+    /**
+     * How rows were decoded before {@link AccumuloPcjRowCodec} was introduced.
+     */
+    private static BindingSet legacyDecode(final byte[] bindingSetBytes, final VariableOrder varOrder) throws Exception {
+        final List<byte[]> values = new LinkedList<>();
+        final ByteBuffer buff = ByteBuffer.wrap(bindingSetBytes);
+        int start = 0;
+        while(buff.hasRemaining()) {
+            if(buff.get() == DELIM_BYTE) {
+                final int end = buff.position();
+                final byte[] valueBytes = new byte[(end - start) - 1];
+                buff.position(start);
+                buff.get(valueBytes);
+                buff.position(end);
+                values.add(valueBytes);
+                start = end;
+            }
+        }
+
+        final String[] varOrderStrings = varOrder.toArray();
+        final QueryBindingSet bindingSet = new QueryBindingSet();
+        for(int i = 0; i < varOrderStrings.length; i++) {
+            final byte[] byteVal = values.get(i);
+            if(byteVal.length > 0) {
+                final int typeIndex = Bytes.indexOf(byteVal, TYPE_DELIM_BYTE);
+                final byte[] data = Arrays.copyOf(byteVal, typeIndex);
+                final byte[] type = Arrays.copyOfRange(byteVal, typeIndex, byteVal.length);
+                bindingSet.addBinding(varOrderStrings[i], RyaToRdfConversions.convertValue(RyaContext.getInstance().deserialize(Bytes.concat(data, type))));
+            }
+        }
+        return bindingSet;
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final OptionsBuilder opts = new OptionsBuilder();
+        opts.parent( new CommandLineOptions(args) );
+        opts.include(PcjRowScanBenchmark.class.getSimpleName());
+
+        new Runner(opts.build()).run();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.serialization;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.rya.api.RdfCloudTripleStoreConstants.TABLE_LAYOUT;
+import org.apache.rya.api.domain.RyaIRI;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.resolver.triple.TripleRow;
+import org.apache.rya.api.resolver.triple.TripleRowResolver;
+import org.apache.rya.api.resolver.triple.TripleRowResolverException;
+import org.apache.rya.api.resolver.triple.impl.WholeRowTripleResolver;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A benchmark that measures how many statements per second a single thread is able to
+ * serialize into and deserialize out of the core Rya tables using {@link WholeRowTripleResolver}.
+ * Run it with {@code -t <threads>} to see how the throughput scales across cores, and run it
+ * against two builds to compare a change to the resolver.
+ * <p>
+ * To execute this benchmark, build the project by executing:
+ * <pre>
+ * mvn clean install
+ * </pre>
+ * Transport the "target/benchmarking.jar" file to the system that will execute
+ * the benchmark and then execute:
+ * <pre>
+ * java -cp benchmarks.jar org.apache.rya.benchmark.serialization.TripleRowResolverBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@DefaultAnnotation(NonNull.class)
+public class TripleRowResolverBenchmark {
+
+    /**
+     * The table layout rows are read from.
+     */
+    @Param({"SPO", "PO", "OSP"})
+    public String layout;
+
+    /**
+     * The length of the object literal, which dominates the size of the row.
+     */
+    @Param({"16", "256"})
+    public int objectLength;
+
+    private final TripleRowResolver resolver = new WholeRowTripleResolver();
+
+    // Cached benchmark data that is generated during the setup phase.
+    private TABLE_LAYOUT tableLayout;
+    private RyaStatement statement;
+    private TripleRow row;
+    private byte[] paddedRow;
+
+    @Setup
+    public void buildBenchmarkValues() throws TripleRowResolverException {
+        tableLayout = TABLE_LAYOUT.valueOf(layout);
+
+        final StringBuilder object = new StringBuilder(objectLength);
+        while(object.length() < objectLength) {
+            object.append('x');
+        }
+
+        statement = new RyaStatement(
+                new RyaIRI("urn:example:subject"),
+                new RyaIRI("urn:example:predicate"),
+                new RyaType(XMLSchema.STRING, object.toString()),
+                new RyaIRI("urn:example:context"));
+        statement.setColumnVisibility(new byte[0]);
+        statement.setTimestamp(System.currentTimeMillis());
+
+        final Map<TABLE_LAYOUT, TripleRow> rows = resolver.serialize(statement);
+        row = rows.get(tableLayout);
+
+        // Embed the row within a larger buffer the same way a Key's backing array holds it.
+        final byte[] rowBytes = row.getRow();
+        paddedRow = new byte[rowBytes.length + 8];
+        System.arraycopy(rowBytes, 0, paddedRow, 4, rowBytes.length);
+    }
+
+    @Benchmark
+    public Map<TABLE_LAYOUT, TripleRow> serialize() throws TripleRowResolverException {
+        return resolver.serialize(statement);
+    }
+
+    @Benchmark
+    public RyaStatement deserialize() throws TripleRowResolverException {
+        return resolver.deserialize(tableLayout, row);
+    }
+
+    @Benchmark
+    public RyaStatement deserializeSlice() throws TripleRowResolverException {
+        return resolver.deserialize(tableLayout, paddedRow, 4, paddedRow.length - 8,
+                row.getColumnFamily(), row.getColumnQualifier(), row.getTimestamp(),
+                row.getColumnVisibility(), row.getValue());
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final OptionsBuilder opts = new OptionsBuilder();
+        opts.parent( new CommandLineOptions(args) );
+        opts.include(TripleRowResolverBenchmark.class.getSimpleName());
+
+        new Runner(opts.build()).run();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.streams;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.api.model.VisibilityStatement;
+import org.apache.rya.streams.kafka.serialization.SerializationFormat;
+import org.apache.rya.streams.kafka.serialization.VisibilityBindingSetDeserializer;
+import org.apache.rya.streams.kafka.serialization.VisibilityStatementDeserializer;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A benchmark that compares how quickly each {@link SerializationFormat} writes and reads the
+ * {@link VisibilityStatement}s and {@link VisibilityBindingSet}s that Rya Streams moves through
+ * Kafka topics and state stores. The size in bytes of each serialized value is printed during
+ * setup so the formats may also be compared by how much they put on the wire.
+ * <p>
+ * To execute this benchmark, build the project by executing:
+ * <pre>
+ * mvn clean install
+ * </pre>
+ * Transport the "target/benchmarking.jar" file to the system that will execute
+ * the benchmark and then execute:
+ * <pre>
+ * java -cp benchmarks.jar org.apache.rya.benchmark.streams.StreamsSerializationBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@DefaultAnnotation(NonNull.class)
+public class StreamsSerializationBenchmark {
+
+    /**
+     * The format that is benchmarked.
+     */
+    @Param({"JAVA", "BINARY"})
+    public String format;
+
+    /**
+     * The number of bindings in the benchmarked binding set.
+     */
+    @Param({"2", "8"})
+    public int bindings;
+
+    private final Deserializer<VisibilityStatement> statementDeserializer = new VisibilityStatementDeserializer();
+    private final Deserializer<VisibilityBindingSet> bindingSetDeserializer = new VisibilityBindingSetDeserializer();
+
+    // Cached benchmark data that is generated during the setup phase.
+    private Serializer<VisibilityStatement> statementSerializer;
+    private Serializer<VisibilityBindingSet> bindingSetSerializer;
+    private VisibilityStatement statement;
+    private VisibilityBindingSet bindingSet;
+    private byte[] statementBytes;
+    private byte[] bindingSetBytes;
+
+    @Setup
+    public void buildBenchmarkValues() {
+        final SerializationFormat serializationFormat = SerializationFormat.valueOf(format);
+        statementSerializer = serializationFormat.statementSerializer();
+        bindingSetSerializer = serializationFormat.bindingSetSerializer();
+
+        final ValueFactory vf = SimpleValueFactory.getInstance();
+        statement = new VisibilityStatement(vf.createStatement(
+                vf.createIRI("urn:example:subject"),
+                vf.createIRI("urn:example:predicate"),
+                vf.createLiteral(42),
+                vf.createIRI("urn:example:context")),
+                "a&(b|c)");
+
+        final MapBindingSet bs = new MapBindingSet();
+        for (int i = 0; i < bindings; i++) {
+            if (i % 2 == 0) {
+                bs.addBinding("entity" + i, vf.createIRI("urn:example:entity" + i));
+            } else {
+                bs.addBinding("value" + i, vf.createLiteral((double) i));
+            }
+        }
+        bindingSet = new VisibilityBindingSet(bs, "a&(b|c)");
+
+        statementBytes = statementSerializer.serialize("topic", statement);
+        bindingSetBytes = bindingSetSerializer.serialize("topic", bindingSet);
+        System.out.println(format + " statement bytes: " + statementBytes.length + ", binding set bytes: " + bindingSetBytes.length);
+    }
+
+    @Benchmark
+    public byte[] serializeStatement() {
+        return statementSerializer.serialize("topic", statement);
+    }
+
+    @Benchmark
+    public VisibilityStatement deserializeStatement() {
+        return statementDeserializer.deserialize("topic", statementBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeBindingSet() {
+        return bindingSetSerializer.serialize("topic", bindingSet);
+    }
+
+    @Benchmark
+    public VisibilityBindingSet deserializeBindingSet() {
+        return bindingSetDeserializer.deserialize("topic", bindingSetBytes);
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final OptionsBuilder opts = new OptionsBuilder();
+        opts.parent( new CommandLineOptions(args) );
+        opts.include(StreamsSerializationBenchmark.class.getSimpleName());
+
+        new Runner(opts.build()).run();
+    }
+}
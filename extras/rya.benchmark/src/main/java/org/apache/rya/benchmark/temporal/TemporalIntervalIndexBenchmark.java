@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.benchmark.temporal;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.resolver.RdfToRyaConversions;
+import org.apache.rya.indexing.StatementConstraints;
+import org.apache.rya.indexing.TemporalInstantRfc3339;
+import org.apache.rya.indexing.TemporalInterval;
+import org.apache.rya.indexing.accumulo.ConfigUtils;
+import org.apache.rya.indexing.accumulo.temporal.AccumuloTemporalIndexer;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A benchmark that compares how quickly {@link AccumuloTemporalIndexer} answers interval queries when intervals
+ * are kept as begin and end rows of the temporal table, and when they are kept in the bucketed interval table.
+ * <p>
+ * Each trial loads a mock Accumulo instance with a number of instants and of intervals that are spread over ten
+ * years. The intervals last from a few seconds to a few months. Each query asks about a day that is picked at
+ * random, so "before" and "after" queries both match about half of the intervals, while the legacy layout also
+ * scans past instant rows.
+ * <p>
+ * To execute this benchmark, build the project by executing:
+ * <pre>
+ * mvn clean install
+ * </pre>
+ * Transport the "target/benchmarking.jar" file to the system that will execute
+ * the benchmark and then execute:
+ * <pre>
+ * java -cp benchmarks.jar org.apache.rya.benchmark.temporal.TemporalIntervalIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@DefaultAnnotation(NonNull.class)
+public class TemporalIntervalIndexBenchmark {
+
+    private static final StatementConstraints EMPTY_CONSTRAINTS = new StatementConstraints();
+    private static final DateTime ORIGIN = new DateTime(2010, 1, 1, 0, 0, 0, DateTimeZone.UTC);
+    private static final long TEN_YEARS_SECONDS = 10L * 365 * 86_400;
+    private static final long DAY_SECONDS = 86_400;
+
+    /**
+     * Whether the intervals are kept in the bucketed interval table.
+     */
+    @Param({"false", "true"})
+    public boolean buckets;
+
+    /**
+     * The number of intervals that are indexed.
+     */
+    @Param({"10000", "100000"})
+    public int intervals;
+
+    /**
+     * The number of instants that are indexed.
+     */
+    @Param({"0", "100000"})
+    public int instants;
+
+    private final Random random = new Random(42);
+    private Configuration conf;
+    private AccumuloTemporalIndexer indexer;
+
+    @Setup(Level.Trial)
+    public void loadIndex() throws Exception {
+        conf = new Configuration();
+        conf.set(RdfCloudTripleStoreConfiguration.CONF_TBL_PREFIX, "benchmark_");
+        conf.setBoolean(ConfigUtils.USE_MOCK_INSTANCE, true);
+        conf.setBoolean(ConfigUtils.TEMPORAL_INTERVAL_BUCKETS, buckets);
+
+        final Connector connector = ConfigUtils.getConnector(conf);
+        indexer = new AccumuloTemporalIndexer();
+        indexer.setConf(conf);
+        indexer.setMultiTableBatchWriter(connector.createMultiTableBatchWriter(new BatchWriterConfig()));
+        indexer.init();
+
+        final ValueFactory vf = SimpleValueFactory.getInstance();
+        final IRI atTime = vf.createIRI("urn:example:atTime");
+        for (int i = 0; i < intervals; i++) {
+            final long begin = randomSeconds(TEN_YEARS_SECONDS);
+            final TemporalInterval interval = interval(begin, begin + randomSeconds(90 * DAY_SECONDS));
+            final Statement statement = vf.createStatement(vf.createIRI("urn:example:interval" + i), atTime, vf.createLiteral(interval.toString()));
+            indexer.storeStatement(RdfToRyaConversions.convertStatement(statement));
+        }
+        for (int i = 0; i < instants; i++) {
+            final TemporalInstantRfc3339 instant = new TemporalInstantRfc3339(ORIGIN.plus(randomSeconds(TEN_YEARS_SECONDS) * 1000L));
+            final Statement statement = vf.createStatement(vf.createIRI("urn:example:instant" + i), atTime, vf.createLiteral(instant.getAsReadable()));
+            indexer.storeStatement(RdfToRyaConversions.convertStatement(statement));
+        }
+        indexer.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void dropIndex() throws Exception {
+        indexer.close();
+        final Connector connector = ConfigUtils.getConnector(conf);
+        for (final String table : new String[] { indexer.getTableName(), indexer.getIntervalTableName() }) {
+            if (connector.tableOperations().exists(table)) {
+                connector.tableOperations().delete(table);
+            }
+        }
+    }
+
+    @Benchmark
+    public int queryIntervalBefore() throws QueryEvaluationException {
+        return count(indexer.queryIntervalBefore(randomDay(), EMPTY_CONSTRAINTS));
+    }
+
+    @Benchmark
+    public int queryIntervalAfter() throws QueryEvaluationException {
+        return count(indexer.queryIntervalAfter(randomDay(), EMPTY_CONSTRAINTS));
+    }
+
+    @Benchmark
+    public int queryIntervalEquals() throws QueryEvaluationException {
+        return count(indexer.queryIntervalEquals(randomDay(), EMPTY_CONSTRAINTS));
+    }
+
+    private TemporalInterval randomDay() {
+        final long begin = randomSeconds(TEN_YEARS_SECONDS);
+        return interval(begin, begin + DAY_SECONDS);
+    }
+
+    private long randomSeconds(final long bound) {
+        return (long) (random.nextDouble() * bound);
+    }
+
+    private static TemporalInterval interval(final long beginSeconds, final long endSeconds) {
+        return new TemporalInterval(
+                new TemporalInstantRfc3339(ORIGIN.plus(beginSeconds * 1000L)),
+                new TemporalInstantRfc3339(ORIGIN.plus(endSeconds * 1000L)));
+    }
+
+    private static int count(final CloseableIteration<Statement, QueryEvaluationException> results) throws QueryEvaluationException {
+        int count = 0;
+        try {
+            while (results.hasNext()) {
+                results.next();
+                count++;
+            }
+        } finally {
+            results.close();
+        }
+        return count;
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final OptionsBuilder opts = new OptionsBuilder();
+        opts.parent( new CommandLineOptions(args) );
+        opts.include(TemporalIntervalIndexBenchmark.class.getSimpleName());
+
+        new Runner(opts.build()).run();
+    }
+}
@@ -75,7 +75,7 @@ public class MongoRyaStatementStore implements RyaStatementStore {
         ryaInstanceName = checkNotNull(ryaInstance);
         this.dao = checkNotNull(dao);
         db = this.client.getDB(ryaInstanceName);
-        adapter = new SimpleMongoDBStorageStrategy();
+        adapter = new SimpleMongoDBStorageStrategy(dao.getConf());
         parentMetadataRepo = new MongoParentMetadataRepository(client, ryaInstance);
     }
 
@@ -48,6 +48,13 @@ import com.google.common.base.Preconditions;
 public abstract class AbstractForwardChainTool implements Tool {
     private static final Logger logger = Logger.getLogger(AbstractForwardChainTool.class);
 
+    /**
+     * Configuration key for the number of rules the default strategy may
+     * execute at the same time. Only rules that can't trigger each other are
+     * executed together. Defaults to one, which executes rules one at a time.
+     */
+    public static final String NUM_THREADS = "rya.forwardchain.threads";
+
     private RdfCloudTripleStoreConfiguration conf;
 
     private long numInferences = 0;
@@ -98,13 +105,19 @@ public abstract class AbstractForwardChainTool implements Tool {
      * Get the high-level {@link AbstractForwardChainStrategy} that governs how
      * reasoning will proceed. By default, returns a {@link RoundRobinStrategy}
      * which executes each relevant rule one-by-one, then moves to the next
-     * iteration and repeats, until no rules are still relevant. Subclasses may
-     * override this method to provide alternative strategies.
+     * iteration and repeats, until no rules are still relevant. If
+     * {@link #NUM_THREADS} is greater than one, independent rules are executed
+     * in parallel. Subclasses may override this method to provide alternative
+     * strategies.
      * @return The high-level forward chaining logic.
      * @throws ForwardChainException if the strategy can't be instantiated.
      */
     protected AbstractForwardChainStrategy getStrategy() throws ForwardChainException {
-        return new RoundRobinStrategy(getRuleStrategy());
+        final int numThreads = conf.getInt(NUM_THREADS, 1);
+        if (numThreads < 1) {
+            throw new ForwardChainException(NUM_THREADS + " must be positive, but was " + numThreads);
+        }
+        return new RoundRobinStrategy(getRuleStrategy(), numThreads);
     }
 
     /**
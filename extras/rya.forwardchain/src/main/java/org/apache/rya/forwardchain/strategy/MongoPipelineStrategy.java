@@ -28,6 +28,7 @@ import org.apache.rya.api.domain.StatementMetadata;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.api.persist.query.RyaQuery;
 import org.apache.rya.api.persist.query.RyaQueryEngine;
+import org.apache.rya.api.resolver.RyaToRdfConversions;
 import org.apache.rya.forwardchain.ForwardChainException;
 import org.apache.rya.forwardchain.rule.AbstractConstructRule;
 import org.apache.rya.forwardchain.rule.Rule;
@@ -61,6 +62,11 @@ import com.mongodb.util.JSON;
  * A rule execution strategy for MongoDB Rya that converts a single rule into an
  * aggregation pipeline whenever possible. Falls back on an internal
  * {@link SailExecutionStrategy} to handle any rules that can't be converted.
+ * <p>
+ * Rules are evaluated semi-naively: once a rule has been applied, its pipeline
+ * only matches solutions that use a triple inserted since then, so the
+ * insertion timestamp bounds the new facts. Triples that pipelines derive are
+ * also reported to the fallback strategy, so that it can do the same.
  */
 public class MongoPipelineStrategy extends AbstractRuleExecutionStrategy {
     private static final Logger logger = Logger.getLogger(MongoPipelineStrategy.class);
@@ -71,11 +77,11 @@ public class MongoPipelineStrategy extends AbstractRuleExecutionStrategy {
     private final MongoCollection<Document> baseCollection;
     private final MongoDbBatchWriter<Document> batchWriter;
     private final MongoDBRyaDAO dao;
-    private final SimpleMongoDBStorageStrategy storageStrategy = new SimpleMongoDBStorageStrategy();
+    private final SimpleMongoDBStorageStrategy storageStrategy;
     private final ConcurrentHashMap<Rule, Long> executionTimes = new ConcurrentHashMap<>();
-    private final AbstractRuleExecutionStrategy backup;
+    private final SailExecutionStrategy backup;
     private final RyaQueryEngine<StatefulMongoDBRdfConfiguration> engine;
-    private boolean usedBackup = false;
+    private volatile boolean usedBackup = false;
 
     /**
      * Initialize based on a configuration.
@@ -106,7 +112,8 @@ public class MongoPipelineStrategy extends AbstractRuleExecutionStrategy {
         final MongoClient mongoClient = statefulConf.getMongoClient();
         final MongoDatabase mongoDB = mongoClient.getDatabase(mongoDBName);
         this.baseCollection = mongoDB.getCollection(collectionName);
-        this.pipelineVisitor = new SparqlToPipelineTransformVisitor(this.baseCollection);
+        this.storageStrategy = new SimpleMongoDBStorageStrategy(statefulConf);
+        this.pipelineVisitor = new SparqlToPipelineTransformVisitor(this.baseCollection, this.storageStrategy);
         this.engine = this.dao.getQueryEngine();
         this.backup = new SailExecutionStrategy(statefulConf);
         final MongoDbBatchWriterConfig writerConfig = MongoDbBatchWriterUtils.getMongoDbBatchWriterConfig(statefulConf);
@@ -188,6 +195,7 @@ public class MongoPipelineStrategy extends AbstractRuleExecutionStrategy {
                         doc.replace(SimpleMongoDBStorageStrategy.STATEMENT_METADATA, metadata.toString());
                         try {
                             batchWriter.addObjectToQueue(doc);
+                            backup.recordDerivation(RyaToRdfConversions.convertStatement(rstmt));
                         } catch (MongoDbBatchWriterException e) {
                             logger.error("Couldn't insert " + rstmt, e);
                         }
@@ -211,6 +219,15 @@ public class MongoPipelineStrategy extends AbstractRuleExecutionStrategy {
         return count.longValue();
     }
 
+    /**
+     * Also passes the derivation level to the fallback strategy.
+     */
+    @Override
+    public void setRequiredLevel(int derivationLevel) {
+        super.setRequiredLevel(derivationLevel);
+        backup.setRequiredLevel(derivationLevel);
+    }
+
     private boolean statementExists(RyaStatement rstmt) {
         try {
             return engine.query(new RyaQuery(rstmt)).iterator().hasNext();
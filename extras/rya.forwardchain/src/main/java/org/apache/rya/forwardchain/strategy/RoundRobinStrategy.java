@@ -18,11 +18,17 @@
  */
 package org.apache.rya.forwardchain.strategy;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.log4j.Logger;
@@ -59,6 +65,13 @@ import com.google.common.base.Preconditions;
  * many other rules is given priority over a rule that may be triggered by many
  * other rules.
  * <p>
+ * If given more than one thread, rules that are independent of each other
+ * (neither can trigger the other, directly or indirectly, by way of the rules
+ * still to be executed in the iteration) are executed at the same time. Each
+ * step executes the highest priority rule along with as many lower priority
+ * rules as are independent of it and of each other, up to the number of
+ * threads.
+ * <p>
  * The observation that one rule may trigger another is based on the
  * relationships between triple patterns produced and consumed by the rules in
  * general, not based on any triples that were actually generated. Therefore,
@@ -68,12 +81,18 @@ import com.google.common.base.Preconditions;
  * <p>
  * The procedure for executing the individual rules is governed by the
  * {@link RuleExecutionStrategy}. This class uses the strategy's reported counts
- * to determine whether or not a rule has produced inferences.
+ * to determine whether or not a rule has produced inferences. Each execution is
+ * told which iteration the new statements will belong to, and the strategy
+ * may use that to only consider statements derived since the rule last ran.
+ * The strategy must be safe to use from several threads if more than one is
+ * used.
  */
 public class RoundRobinStrategy extends AbstractForwardChainStrategy {
     private static final Logger logger = Logger.getLogger(RoundRobinStrategy.class);
 
     private final AbstractRuleExecutionStrategy ruleStrategy;
+    private final int numThreads;
+    private ExecutorService executor = null;
     private int iteration;
     private Ruleset ruleset;
     private Set<Rule> activeNow;
@@ -86,8 +105,21 @@ public class RoundRobinStrategy extends AbstractForwardChainStrategy {
      * @param ruleStrategy Defines how to execute individual rules; not null.
      */
     public RoundRobinStrategy(AbstractRuleExecutionStrategy ruleStrategy) {
+        this(ruleStrategy, 1);
+    }
+
+    /**
+     * Instantiate a RoundRobinStrategy that executes independent rules in
+     * parallel.
+     * @param ruleStrategy Defines how to execute individual rules; not null.
+     *  Must be thread-safe if numThreads is greater than one.
+     * @param numThreads The most rules to execute at once; must be positive.
+     */
+    public RoundRobinStrategy(AbstractRuleExecutionStrategy ruleStrategy, int numThreads) {
         Preconditions.checkNotNull(ruleStrategy);
+        Preconditions.checkArgument(numThreads > 0, "Number of threads must be positive");
         this.ruleStrategy = ruleStrategy;
+        this.numThreads = numThreads;
     }
 
     @Override
@@ -99,6 +131,9 @@ public class RoundRobinStrategy extends AbstractForwardChainStrategy {
         activeNextIteration = new HashSet<>(ruleset.getRules());
         logger.info("Initializing round robin forward chaining, with " +
                 activeNextIteration.size() + " rules.");
+        if (numThreads > 1 && executor == null) {
+            executor = Executors.newFixedThreadPool(numThreads);
+        }
         initialized.set(true);
         prepareQueue();
     }
@@ -129,6 +164,10 @@ public class RoundRobinStrategy extends AbstractForwardChainStrategy {
 
     private void setDone() throws ForwardChainException {
         initialized.set(false);
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
         if (ruleStrategy != null) {
             ruleStrategy.shutDown();
         }
@@ -144,31 +183,72 @@ public class RoundRobinStrategy extends AbstractForwardChainStrategy {
         if (!initialized.get()) {
             return 0;
         }
-        Rule rule = getNextRule();
-        if (rule == null) {
+        List<Rule> rules = getNextRules();
+        if (rules.isEmpty()) {
             return 0;
         }
-        StatementMetadata metadata = new StatementMetadata();
-        metadata.addMetadata(ForwardChainConstants.RYA_DERIVATION_TIME,
-                new RyaType(XMLSchema.INT, Integer.toString(iteration)));
-        long inferences = rule.execute(ruleStrategy, metadata);
-        inferencesThisIteration += inferences;
-        if (inferences > 0) {
-            for (Rule successor : ruleset.getSuccessorsOf(rule)) {
-                // If we'll handle the triggered rule in the current iteration,
-                // it may not need  to be checked in the next one.
-                if (!activeNow.contains(successor)) {
-                    activeNextIteration.add(successor);
+        List<Long> results = new ArrayList<>();
+        if (rules.size() == 1) {
+            results.add(execute(rules.get(0), iteration));
+        }
+        else {
+            final int currentIteration = iteration;
+            List<Future<Long>> futures = new ArrayList<>();
+            for (Rule rule : rules) {
+                futures.add(executor.submit(() -> execute(rule, currentIteration)));
+            }
+            for (Future<Long> future : futures) {
+                results.add(getResult(future));
+            }
+        }
+        long inferences = 0;
+        for (int i = 0; i < rules.size(); i++) {
+            inferences += results.get(i);
+            if (results.get(i) > 0) {
+                for (Rule successor : ruleset.getSuccessorsOf(rules.get(i))) {
+                    // If we'll handle the triggered rule in the current iteration,
+                    // it may not need  to be checked in the next one.
+                    if (!activeNow.contains(successor)) {
+                        activeNextIteration.add(successor);
+                    }
                 }
             }
         }
+        inferencesThisIteration += inferences;
         prepareQueue();
         return inferences;
     }
 
-    private Rule getNextRule() {
+    private long execute(Rule rule, int derivationTime) throws ForwardChainException {
+        StatementMetadata metadata = new StatementMetadata();
+        metadata.addMetadata(ForwardChainConstants.RYA_DERIVATION_TIME,
+                new RyaType(XMLSchema.INT, Integer.toString(derivationTime)));
+        return rule.execute(ruleStrategy, metadata);
+    }
+
+    private static long getResult(Future<Long> future) throws ForwardChainException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ForwardChainException("Interrupted while executing rules", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ForwardChainException) {
+                throw (ForwardChainException) e.getCause();
+            }
+            throw new ForwardChainException("Error executing rule", e);
+        }
+    }
+
+    /**
+     * Choose the rules to execute next: the highest priority rule, along with
+     * any lower priority rules that are independent of it and of each other,
+     * up to the number of threads.
+     */
+    private List<Rule> getNextRules() {
+        List<Rule> next = new ArrayList<>();
         if (activeNow.isEmpty()) {
-            return null;
+            return next;
         }
         Ruleset subset = new Ruleset(activeNow);
         SortedSet<Rule> sorted = new TreeSet<>(new Comparator<Rule>() {
@@ -193,8 +273,22 @@ public class RoundRobinStrategy extends AbstractForwardChainStrategy {
             return remainingPredecessors(rule).size() - remainingSuccessors(rule).size();
         }).thenComparing(Rule::toString)); // Fall back on string comparison
         sorted.addAll(activeNow);
-        Rule next = sorted.first();
-        activeNow.remove(next);
+        for (Rule candidate : sorted) {
+            if (next.size() >= numThreads) {
+                break;
+            }
+            boolean independent = true;
+            for (Rule chosen : next) {
+                if (subset.pathExists(chosen, candidate) || subset.pathExists(candidate, chosen)) {
+                    independent = false;
+                    break;
+                }
+            }
+            if (independent) {
+                next.add(candidate);
+            }
+        }
+        activeNow.removeAll(next);
         return next;
     }
 
@@ -18,6 +18,14 @@
  */
 package org.apache.rya.forwardchain.strategy;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
 import org.apache.log4j.Logger;
@@ -32,6 +40,7 @@ import org.apache.rya.api.persist.query.RyaQueryEngine;
 import org.apache.rya.api.resolver.RdfToRyaConversions;
 import org.apache.rya.forwardchain.ForwardChainException;
 import org.apache.rya.forwardchain.rule.AbstractConstructRule;
+import org.apache.rya.forwardchain.rule.Rule;
 import org.apache.rya.indexing.accumulo.ConfigUtils;
 import org.apache.rya.mongodb.MongoDBRdfConfiguration;
 import org.apache.rya.sail.config.RyaSailFactory;
@@ -54,16 +63,38 @@ import com.google.common.base.Preconditions;
  * construct rule by submitting the associated query to a Rya SAIL, then
  * converting the resulting bindings (expecting variables "subject",
  * "predicate", and "object") into triples and inserting them into a Rya DAO.
+ * <p>
+ * Rules are evaluated semi-naively: the first time a rule is applied during a
+ * round of forward chaining its whole query is evaluated, but afterwards only
+ * solutions that use a statement derived since the rule's last application are
+ * computed (see {@link SemiNaiveQueryRewriter}). Derived statements are
+ * remembered in memory for this purpose, up to a limit; if more than that are
+ * derived, rules go back to evaluating their whole queries once.
+ * <p>
+ * Rules may be applied concurrently; each application uses its own connection.
  */
 public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
     private static final Logger logger = Logger.getLogger(SailExecutionStrategy.class);
 
+    /**
+     * The most derived statements that will be remembered for semi-naive
+     * evaluation.
+     */
+    private static final int MAX_DELTA_SIZE = 100000;
+
     private final RdfCloudTripleStoreConfiguration conf;
 
     private SailRepository repo = null;
-    private SailRepositoryConnection conn = null;
     private RyaDAO<?> dao = null;
-    private boolean initialized = false;
+    private volatile boolean initialized = false;
+
+    // Statements derived during this round of forward chaining, each numbered
+    // in order of derivation, and the number of the first one remembered.
+    private final List<Statement> derived = new ArrayList<>();
+    private long firstDerived = 0;
+    // For each rule, the number of the first statement derived after it was
+    // last applied
+    private final Map<Rule, Long> lastApplications = new ConcurrentHashMap<>();
 
     /**
      * Initialize a SailExecutionStrategy with the given configuration.
@@ -76,7 +107,8 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
 
     /**
      * Executes a CONSTRUCT query through the SAIL and inserts the results into
-     * the DAO.
+     * the DAO. If the rule was applied before during this round of forward
+     * chaining, only evaluates it against the statements derived since.
      * @param rule A construct query; not null.
      * @param metadata Metadata to add to any inferred triples; not null.
      * @return The number of inferred triples.
@@ -91,15 +123,32 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
             initialize();
         }
         ParsedGraphQuery graphQuery = rule.getQuery();
-        long statementsAdded = 0;
-        logger.info("Applying inference rule " + rule + "...");
+        List<ParsedGraphQuery> queries = null;
+        Long lastApplication = lastApplications.put(rule, nextDerivation());
+        if (lastApplication != null) {
+            Optional<List<Statement>> delta = getDerivedSince(lastApplication);
+            if (delta.isPresent()) {
+                queries = SemiNaiveQueryRewriter.rewrite(graphQuery, delta.get()).orElse(null);
+                if (queries != null) {
+                    logger.info("Applying inference rule " + rule + " to "
+                            + delta.get().size() + " newly derived statements...");
+                }
+            }
+        }
+        if (queries == null) {
+            queries = Collections.singletonList(graphQuery);
+            logger.info("Applying inference rule " + rule + "...");
+        }
         for (String line : graphQuery.getTupleExpr().toString().split("\n")) {
             logger.debug("\t" + line);
         }
-        InferredStatementHandler<?> handler = new InferredStatementHandler<>(dao, metadata);
-        try {
-            GraphQuery executableQuery = new SailGraphQuery(graphQuery, conn) { };
-            executableQuery.evaluate(handler);
+        long statementsAdded = 0;
+        InferredStatementHandler<?> handler = new InferredStatementHandler<>(dao, metadata, this::recordDerivation);
+        try (SailRepositoryConnection conn = repo.getConnection()) {
+            for (ParsedGraphQuery query : queries) {
+                GraphQuery executableQuery = new SailGraphQuery(query, conn) { };
+                executableQuery.evaluate(handler);
+            }
             statementsAdded = handler.getNumStatementsAdded();
             logger.info("Added " + statementsAdded + " inferred statements.");
             return statementsAdded;
@@ -107,6 +156,58 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
             throw new ForwardChainException("Error evaluating query portion of construct rule", e);
         } catch (RDFHandlerException e) {
             throw new ForwardChainException("Error processing results of construct rule", e);
+        } catch (RepositoryException e) {
+            throw new ForwardChainException("Error connecting to SAIL", e);
+        }
+    }
+
+    /**
+     * Starting a new round of forward chaining (derivation level zero) forgets
+     * the statements derived so far, so that every rule is first evaluated in
+     * full.
+     */
+    @Override
+    public void setRequiredLevel(int derivationLevel) {
+        super.setRequiredLevel(derivationLevel);
+        if (derivationLevel == 0) {
+            synchronized (derived) {
+                firstDerived += derived.size();
+                derived.clear();
+            }
+            lastApplications.clear();
+        }
+    }
+
+    /**
+     * Remember a statement that was newly derived, so that rules applied later
+     * can be evaluated against it. Rule execution strategies that insert
+     * inferences without going through this one should report them here.
+     * @param statement A newly inserted inference; not null.
+     */
+    void recordDerivation(Statement statement) {
+        Preconditions.checkNotNull(statement);
+        synchronized (derived) {
+            if (derived.size() >= MAX_DELTA_SIZE) {
+                firstDerived += derived.size();
+                derived.clear();
+            }
+            derived.add(statement);
+        }
+    }
+
+    private long nextDerivation() {
+        synchronized (derived) {
+            return firstDerived + derived.size();
+        }
+    }
+
+    private Optional<List<Statement>> getDerivedSince(long derivation) {
+        synchronized (derived) {
+            if (derivation < firstDerived) {
+                return Optional.empty();
+            }
+            int start = (int) (derivation - firstDerived);
+            return Optional.of(new ArrayList<>(derived.subList(start, derived.size())));
         }
     }
 
@@ -116,13 +217,15 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
      * @throws ForwardChainException if connecting fails.
      */
     @Override
-    public void initialize() throws ForwardChainException {
+    public synchronized void initialize() throws ForwardChainException {
+        if (initialized) {
+            return;
+        }
         try {
             if (dao == null) {
                 dao = getDAO();
             }
             repo = new SailRepository(RyaSailFactory.getInstance(conf));
-            conn = repo.getConnection();
             initialized = true;
         } catch (Exception e) {
             shutDown();
@@ -161,15 +264,8 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
      * Shut down the SAIL connection objects.
      */
     @Override
-    public void shutDown() {
+    public synchronized void shutDown() {
         initialized = false;
-        if (conn != null) {
-            try {
-                conn.close();
-            } catch (RepositoryException e) {
-                logger.warn("Error closing SailRepositoryConnection", e);
-            }
-        }
         if (repo != null && repo.isInitialized()) {
             try {
                 repo.shutDown();
@@ -191,11 +287,14 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
         private RyaQueryEngine<T> engine;
         private long numStatementsAdded = 0;
         private StatementMetadata metadata;
+        private Consumer<Statement> onInsert;
 
-        InferredStatementHandler(RyaDAO<T> dao, StatementMetadata metadata) {
+        InferredStatementHandler(RyaDAO<T> dao, StatementMetadata metadata,
+                Consumer<Statement> onInsert) {
             this.dao = dao;
             this.engine = dao.getQueryEngine();
             this.metadata = metadata;
+            this.onInsert = onInsert;
             this.engine.setConf(dao.getConf());
         }
 
@@ -209,6 +308,7 @@ public class SailExecutionStrategy extends AbstractRuleExecutionStrategy {
                 CloseableIterable<RyaStatement> iter = engine.query(new RyaQuery(ryaStatement));
                 if (!iter.iterator().hasNext()) {
                     dao.add(ryaStatement);
+                    onInsert.accept(statement);
                     numStatementsAdded++;
                 }
             } catch (RyaDAOException e) {
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.forwardchain.strategy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.ArbitraryLengthPath;
+import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
+import org.eclipse.rdf4j.query.algebra.Difference;
+import org.eclipse.rdf4j.query.algebra.Group;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.LeftJoin;
+import org.eclipse.rdf4j.query.algebra.Not;
+import org.eclipse.rdf4j.query.algebra.Slice;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.eclipse.rdf4j.query.parser.ParsedGraphQuery;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Rewrites a construct rule's query for semi-naive evaluation. Any new
+ * conclusion of a monotonic rule must use at least one statement that was
+ * derived since the rule last ran, so instead of evaluating the whole query
+ * again, each statement pattern in turn is restricted to the matching newly
+ * derived statements and joined against the full data store.
+ * <p>
+ * Patterns within a negation (FILTER NOT EXISTS or MINUS) are never
+ * restricted, since new statements can only remove solutions there. Queries
+ * that aggregate, have an OPTIONAL, or have a LIMIT or OFFSET can't be
+ * evaluated this way at all: a new statement matching an optional pattern
+ * can both add a solution and take one away, so neither restricting the
+ * pattern nor leaving it alone gives the right answer. Neither can queries
+ * with a property path such as {@code :parent+}, since restricting the path's
+ * pattern would only follow newly derived edges, missing any path that also
+ * uses older ones.
+ */
+final class SemiNaiveQueryRewriter {
+    private SemiNaiveQueryRewriter() { }
+
+    /**
+     * Build the queries whose results, taken together, include every solution
+     * of the original query that uses at least one of the delta statements.
+     * @param query The rule's query; not null.
+     * @param delta Statements derived since the rule was last applied; not
+     *  null.
+     * @return One query for each statement pattern that matches some of the
+     *  delta statements, or empty if the query must be evaluated in full.
+     */
+    static Optional<List<ParsedGraphQuery>> rewrite(ParsedGraphQuery query,
+            Collection<Statement> delta) {
+        Preconditions.checkNotNull(query);
+        Preconditions.checkNotNull(delta);
+        PositivePatternCollector original = new PositivePatternCollector();
+        query.getTupleExpr().visit(original);
+        if (original.requiresFullEvaluation) {
+            return Optional.empty();
+        }
+        List<ParsedGraphQuery> rewritten = new ArrayList<>();
+        for (int i = 0; i < original.patterns.size(); i++) {
+            Set<String> bindingNames = new HashSet<>();
+            Set<BindingSet> bindingSets = new LinkedHashSet<>();
+            for (Statement statement : delta) {
+                MapBindingSet bindings = match(original.patterns.get(i), statement);
+                if (bindings != null) {
+                    bindingNames.addAll(bindings.getBindingNames());
+                    bindingSets.add(bindings);
+                }
+            }
+            if (bindingSets.isEmpty()) {
+                continue;
+            }
+            // Restrict the i-th pattern of a copy of the query to the delta
+            TupleExpr copy = query.getTupleExpr().clone();
+            PositivePatternCollector collector = new PositivePatternCollector();
+            copy.visit(collector);
+            StatementPattern sp = collector.patterns.get(i);
+            BindingSetAssignment values = new BindingSetAssignment();
+            values.setBindingNames(bindingNames);
+            values.setBindingSets(bindingSets);
+            Join join = new Join();
+            sp.replaceWith(join);
+            join.setLeftArg(values);
+            join.setRightArg(sp);
+            ParsedGraphQuery deltaQuery = new ParsedGraphQuery(query.getSourceString(),
+                    copy, query.getQueryNamespaces());
+            deltaQuery.setDataset(query.getDataset());
+            rewritten.add(deltaQuery);
+        }
+        return Optional.of(rewritten);
+    }
+
+    /**
+     * Get the bindings a statement would give a pattern's variables.
+     * @return The bindings, or null if the statement doesn't match.
+     */
+    private static MapBindingSet match(StatementPattern sp, Statement statement) {
+        MapBindingSet bindings = new MapBindingSet();
+        if (bind(sp.getSubjectVar(), statement.getSubject(), bindings)
+                && bind(sp.getPredicateVar(), statement.getPredicate(), bindings)
+                && bind(sp.getObjectVar(), statement.getObject(), bindings)
+                && bind(sp.getContextVar(), statement.getContext(), bindings)) {
+            return bindings;
+        }
+        return null;
+    }
+
+    private static boolean bind(Var var, Value value, MapBindingSet bindings) {
+        if (var == null) {
+            return true;
+        }
+        if (var.hasValue()) {
+            return var.getValue().equals(value);
+        }
+        if (value == null) {
+            // Statements in the default graph leave a context variable unbound
+            return true;
+        }
+        Value existing = bindings.getValue(var.getName());
+        if (existing == null) {
+            bindings.addBinding(var.getName(), value);
+            return true;
+        }
+        return existing.equals(value);
+    }
+
+    /**
+     * Lists the statement patterns outside any negation, in the order they
+     * appear in the tree, so that the same pattern can be found in a copy.
+     */
+    private static class PositivePatternCollector extends AbstractQueryModelVisitor<RuntimeException> {
+        private final List<StatementPattern> patterns = new ArrayList<>();
+        private boolean requiresFullEvaluation = false;
+
+        @Override
+        public void meet(StatementPattern sp) {
+            patterns.add(sp);
+        }
+
+        @Override
+        public void meet(Not node) {
+            // New statements can't add solutions by way of a negation
+        }
+
+        @Override
+        public void meet(Difference node) {
+            node.getLeftArg().visit(this);
+        }
+
+        @Override
+        public void meet(LeftJoin node) {
+            requiresFullEvaluation = true;
+            super.meet(node);
+        }
+
+        @Override
+        public void meet(Group node) {
+            requiresFullEvaluation = true;
+            super.meet(node);
+        }
+
+        @Override
+        public void meet(Slice node) {
+            requiresFullEvaluation = true;
+            super.meet(node);
+        }
+
+        @Override
+        public void meet(ArbitraryLengthPath node) {
+            requiresFullEvaluation = true;
+            super.meet(node);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.forwardchain.strategy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.rya.api.domain.StatementMetadata;
+import org.apache.rya.api.domain.VarNameUtils;
+import org.apache.rya.forwardchain.ForwardChainException;
+import org.apache.rya.forwardchain.rule.Rule;
+import org.apache.rya.forwardchain.rule.Ruleset;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.OWL;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class RoundRobinStrategyTest {
+    private static Var c(Value val) {
+        final Var v = VarNameUtils.createUniqueConstVar(val);
+        v.setAnonymous(true);
+        return v;
+    }
+
+    private static StatementPattern sp(Value predicate) {
+        return new StatementPattern(new Var("x"), c(predicate), new Var("y"));
+    }
+
+    /**
+     * Records which rules were executed during each step.
+     */
+    private static class Recorder {
+        private final List<Set<Rule>> steps = new ArrayList<>();
+        private Set<Rule> current = new HashSet<>();
+
+        synchronized void record(Rule rule) {
+            current.add(rule);
+        }
+
+        synchronized void endStep() {
+            steps.add(current);
+            current = new HashSet<>();
+        }
+    }
+
+    private static class TestRule implements Rule {
+        private final String name;
+        private final Collection<StatementPattern> consume;
+        private final Collection<StatementPattern> produce;
+        private final Recorder recorder;
+        TestRule(String name, Collection<StatementPattern> consume,
+                Collection<StatementPattern> produce, Recorder recorder) {
+            this.name = name;
+            this.consume = consume;
+            this.produce = produce;
+            this.recorder = recorder;
+        }
+        @Override
+        public boolean canConclude(StatementPattern sp) {
+            return produce.contains(sp);
+        }
+        @Override
+        public Collection<StatementPattern> getAntecedentPatterns() {
+            return consume;
+        }
+        @Override
+        public Collection<StatementPattern> getConsequentPatterns() {
+            return produce;
+        }
+        @Override
+        public long execute(AbstractRuleExecutionStrategy strategy,
+                StatementMetadata metadata) throws ForwardChainException {
+            recorder.record(this);
+            return 0;
+        }
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Test
+    public void testDependentRulesNotScheduledTogether() throws Exception {
+        Recorder recorder = new Recorder();
+        StatementPattern typeSP = sp(RDF.TYPE);
+        StatementPattern scoSP = sp(RDFS.SUBCLASSOF);
+        StatementPattern spoSP = sp(RDFS.SUBPROPERTYOF);
+        StatementPattern domainSP = sp(RDFS.DOMAIN);
+        StatementPattern sameAsSP = sp(OWL.SAMEAS);
+        // typeToSubclass and subclassToType trigger each other, and
+        // subclassToType triggers typeToNothing.
+        Rule typeToSubclass = new TestRule("typeToSubclass",
+                Sets.newHashSet(typeSP), Sets.newHashSet(scoSP), recorder);
+        Rule subclassToType = new TestRule("subclassToType",
+                Sets.newHashSet(scoSP), Sets.newHashSet(typeSP), recorder);
+        Rule typeToNothing = new TestRule("typeToNothing",
+                Sets.newHashSet(typeSP), Sets.newHashSet(), recorder);
+        // These rules are independent of every other rule.
+        Rule subpropToDomain = new TestRule("subpropToDomain",
+                Sets.newHashSet(spoSP), Sets.newHashSet(domainSP), recorder);
+        Rule sameAsToNothing = new TestRule("sameAsToNothing",
+                Sets.newHashSet(sameAsSP), Sets.newHashSet(), recorder);
+        Ruleset ruleset = new Ruleset(Sets.newHashSet(typeToSubclass, subclassToType,
+                typeToNothing, subpropToDomain, sameAsToNothing));
+
+        RoundRobinStrategy strategy = new RoundRobinStrategy(new AbstractRuleExecutionStrategy() { }, 4);
+        strategy.initialize(ruleset);
+        while (strategy.isActive()) {
+            strategy.executeNext();
+            recorder.endStep();
+        }
+
+        Set<Rule> executed = new HashSet<>();
+        boolean parallel = false;
+        for (Set<Rule> step : recorder.steps) {
+            Assert.assertTrue(step.size() <= 4);
+            parallel |= step.size() > 1;
+            for (Rule r1 : step) {
+                Assert.assertTrue("Executed twice: " + r1, executed.add(r1));
+                for (Rule r2 : step) {
+                    if (r1 != r2) {
+                        Assert.assertFalse(r1 + " and " + r2 + " were executed together",
+                                ruleset.pathExists(r1, r2));
+                    }
+                }
+            }
+        }
+        Assert.assertEquals(ruleset.getRules(), executed);
+        Assert.assertTrue(parallel);
+    }
+
+    @Test
+    public void testOneThreadExecutesRulesOneAtATime() throws Exception {
+        Recorder recorder = new Recorder();
+        Rule subpropToDomain = new TestRule("subpropToDomain",
+                Sets.newHashSet(sp(RDFS.SUBPROPERTYOF)), Sets.newHashSet(sp(RDFS.DOMAIN)), recorder);
+        Rule sameAsToNothing = new TestRule("sameAsToNothing",
+                Sets.newHashSet(sp(OWL.SAMEAS)), Sets.newHashSet(), recorder);
+        Ruleset ruleset = new Ruleset(Sets.newHashSet(subpropToDomain, sameAsToNothing));
+
+        RoundRobinStrategy strategy = new RoundRobinStrategy(new AbstractRuleExecutionStrategy() { });
+        strategy.initialize(ruleset);
+        while (strategy.isActive()) {
+            strategy.executeNext();
+            recorder.endStep();
+        }
+
+        Assert.assertEquals(2, recorder.steps.size());
+        for (Set<Rule> step : recorder.steps) {
+            Assert.assertEquals(1, step.size());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.forwardchain.strategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.parser.ParsedGraphQuery;
+import org.eclipse.rdf4j.query.parser.sparql.SPARQLParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SemiNaiveQueryRewriterTest {
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+    private static final String EX = "http://example.org/";
+    private static final IRI ALICE = VF.createIRI(EX, "Alice");
+    private static final IRI BOB = VF.createIRI(EX, "Bob");
+
+    private static ParsedGraphQuery parse(String text) throws Exception {
+        return (ParsedGraphQuery) new SPARQLParser().parseQuery(text, null);
+    }
+
+    private static List<BindingSetAssignment> getAssignments(ParsedGraphQuery query) {
+        List<BindingSetAssignment> assignments = new ArrayList<>();
+        query.getTupleExpr().visit(new AbstractQueryModelVisitor<RuntimeException>() {
+            @Override
+            public void meet(BindingSetAssignment node) {
+                assignments.add(node);
+            }
+        });
+        return assignments;
+    }
+
+    @Test
+    public void testRestrictEachMatchingPattern() throws Exception {
+        ParsedGraphQuery query = parse("PREFIX foaf: <" + FOAF.NAMESPACE + ">\n"
+                + "CONSTRUCT {\n"
+                + "  ?y foaf:knows ?x .\n"
+                + "} WHERE {\n"
+                + "  ?x a foaf:Person .\n"
+                + "  ?x foaf:knows ?y .\n"
+                + "}");
+        List<Statement> delta = Arrays.asList(
+                VF.createStatement(ALICE, FOAF.KNOWS, BOB),
+                VF.createStatement(BOB, FOAF.KNOWS, BOB));
+        Optional<List<ParsedGraphQuery>> rewritten = SemiNaiveQueryRewriter.rewrite(query, delta);
+        Assert.assertTrue(rewritten.isPresent());
+        // Only the foaf:knows pattern matches the delta
+        Assert.assertEquals(1, rewritten.get().size());
+        List<BindingSetAssignment> assignments = getAssignments(rewritten.get().get(0));
+        Assert.assertEquals(1, assignments.size());
+        List<BindingSet> bindingSets = new ArrayList<>();
+        assignments.get(0).getBindingSets().forEach(bindingSets::add);
+        Assert.assertEquals(2, bindingSets.size());
+        Assert.assertEquals(ALICE, bindingSets.get(0).getValue("x"));
+        Assert.assertEquals(BOB, bindingSets.get(0).getValue("y"));
+        // The original query is unchanged
+        Assert.assertTrue(getAssignments(query).isEmpty());
+    }
+
+    @Test
+    public void testRepeatedVariable() throws Exception {
+        ParsedGraphQuery query = parse("PREFIX foaf: <" + FOAF.NAMESPACE + ">\n"
+                + "CONSTRUCT {\n"
+                + "  ?x a foaf:Person .\n"
+                + "} WHERE {\n"
+                + "  ?x foaf:knows ?x .\n"
+                + "}");
+        List<Statement> delta = Arrays.asList(VF.createStatement(ALICE, FOAF.KNOWS, BOB));
+        Optional<List<ParsedGraphQuery>> rewritten = SemiNaiveQueryRewriter.rewrite(query, delta);
+        Assert.assertTrue(rewritten.isPresent());
+        Assert.assertTrue(rewritten.get().isEmpty());
+    }
+
+    @Test
+    public void testNegatedPatternNotRestricted() throws Exception {
+        ParsedGraphQuery query = parse("PREFIX foaf: <" + FOAF.NAMESPACE + ">\n"
+                + "CONSTRUCT {\n"
+                + "  ?x a foaf:Person .\n"
+                + "} WHERE {\n"
+                + "  ?x foaf:knows ?y .\n"
+                + "  FILTER NOT EXISTS { ?x a foaf:Person }\n"
+                + "}");
+        List<Statement> delta = Arrays.asList(VF.createStatement(ALICE, RDF.TYPE, FOAF.PERSON));
+        Optional<List<ParsedGraphQuery>> rewritten = SemiNaiveQueryRewriter.rewrite(query, delta);
+        Assert.assertTrue(rewritten.isPresent());
+        Assert.assertTrue(rewritten.get().isEmpty());
+    }
+
+    @Test
+    public void testAggregationNotRewritten() throws Exception {
+        ParsedGraphQuery query = parse("PREFIX foaf: <" + FOAF.NAMESPACE + ">\n"
+                + "CONSTRUCT {\n"
+                + "  ?x <urn:numFriends> ?n .\n"
+                + "} WHERE {\n"
+                + "  SELECT ?x (COUNT(?y) AS ?n) WHERE { ?x foaf:knows ?y } GROUP BY ?x\n"
+                + "}");
+        List<Statement> delta = Arrays.asList(VF.createStatement(ALICE, FOAF.KNOWS, BOB));
+        Assert.assertFalse(SemiNaiveQueryRewriter.rewrite(query, delta).isPresent());
+    }
+
+    @Test
+    public void testOptionalNotRewritten() throws Exception {
+        ParsedGraphQuery query = parse("PREFIX foaf: <" + FOAF.NAMESPACE + ">\n"
+                + "CONSTRUCT {\n"
+                + "  ?x a <urn:Loner> .\n"
+                + "} WHERE {\n"
+                + "  ?x a foaf:Person .\n"
+                + "  OPTIONAL { ?x foaf:knows ?y }\n"
+                + "  FILTER(!bound(?y))\n"
+                + "}");
+        // Restricting the optional pattern to the delta would leave ?y
+        // unbound for Alice, even though she knows Bob.
+        List<Statement> delta = Arrays.asList(VF.createStatement(ALICE, FOAF.KNOWS, BOB));
+        Assert.assertFalse(SemiNaiveQueryRewriter.rewrite(query, delta).isPresent());
+    }
+
+    @Test
+    public void testPropertyPathNotRewritten() throws Exception {
+        ParsedGraphQuery query = parse("CONSTRUCT {\n"
+                + "  ?x <urn:ancestor> ?y .\n"
+                + "} WHERE {\n"
+                + "  ?x <urn:parent>+ ?y .\n"
+                + "}");
+        // Following only the new edge would miss Alice's path through the
+        // older edge from Bob to Carol.
+        List<Statement> delta = Arrays.asList(VF.createStatement(ALICE, VF.createIRI("urn:parent"), BOB));
+        Assert.assertFalse(SemiNaiveQueryRewriter.rewrite(query, delta).isPresent());
+    }
+
+    @Test
+    public void testLimitNotRewritten() throws Exception {
+        ParsedGraphQuery query = parse("PREFIX foaf: <" + FOAF.NAMESPACE + ">\n"
+                + "CONSTRUCT {\n"
+                + "  ?x a <urn:Popular> .\n"
+                + "} WHERE {\n"
+                + "  SELECT ?x WHERE { ?y foaf:knows ?x } LIMIT 10\n"
+                + "}");
+        List<Statement> delta = Arrays.asList(VF.createStatement(ALICE, FOAF.KNOWS, BOB));
+        Assert.assertFalse(SemiNaiveQueryRewriter.rewrite(query, delta).isPresent());
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.pcj.storage.accumulo;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.apache.rya.api.RdfCloudTripleStoreConstants.DELIM_BYTE;
+import static org.apache.rya.api.RdfCloudTripleStoreConstants.TYPE_DELIM_BYTE;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.rya.api.resolver.RdfToRyaConversions;
+import org.apache.rya.api.resolver.RyaContext;
+import org.apache.rya.api.resolver.RyaToRdfConversions;
+import org.apache.rya.api.resolver.RyaTypeResolverException;
+import org.apache.rya.indexing.pcj.storage.accumulo.BindingSetConverter.BindingSetConversionException;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.AbstractBindingSet;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.SimpleBinding;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Encodes {@link BindingSet}s into PCJ table rows and decodes them again using the same format as
+ * {@link AccumuloPcjSerializer}: each variable of a {@link VariableOrder} is written as the value's
+ * serialized type followed by a delimiter, and a variable that is not bound is only a delimiter.
+ * <p>
+ * Rows are encoded into a buffer that is reused between calls, so an instance must not be shared
+ * between threads. Decoded binding sets keep a reference to the row's bytes and only deserialize a
+ * value the first time it is read, so scans that read a few of a row's bindings, or that only pass
+ * rows along, do not pay for the rest.
+ */
+@DefaultAnnotation(NonNull.class)
+public class AccumuloPcjRowCodec {
+
+    private final RyaContext context = RyaContext.getInstance();
+
+    private byte[] buffer = new byte[256];
+    private int length = 0;
+
+    /**
+     * Encodes a binding set into a row.
+     *
+     * @param bindingSet - The binding set to encode. (not null)
+     * @param varOrder - The order the binding set's values are written in. (not null)
+     * @return The row's bytes.
+     * @throws BindingSetConversionException One of the values could not be serialized.
+     */
+    public byte[] encode(final BindingSet bindingSet, final VariableOrder varOrder) throws BindingSetConversionException {
+        checkNotNull(bindingSet);
+        checkNotNull(varOrder);
+
+        length = 0;
+        try {
+            for(final String varName : varOrder.getVariableOrders()) {
+                final Value value = bindingSet.getValue(varName);
+                if(value != null) {
+                    final byte[][] serialized = context.serializeType(RdfToRyaConversions.convertValue(value));
+                    append(serialized[0]);
+                    append(serialized[1]);
+                }
+
+                // Always write the delimiter. A missing value is two delimiters next to each-other.
+                ensureCapacity(1);
+                buffer[length++] = DELIM_BYTE;
+            }
+        } catch (final RyaTypeResolverException e) {
+            throw new BindingSetConversionException("Could not convert the BindingSet into a byte[].", e);
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Decodes a row into a binding set whose values are deserialized when they are first read.
+     * The row's bytes must not be modified while the binding set is in use.
+     *
+     * @param row - Holds the row's bytes. (not null)
+     * @param offset - The index of the row's first byte within {@code row}.
+     * @param rowLength - The number of bytes in the row.
+     * @param varOrder - The order the binding set's values were written in. (not null)
+     * @return The binding set the row holds.
+     * @throws BindingSetConversionException The row does not hold a value for each variable.
+     */
+    public BindingSet decode(final byte[] row, final int offset, final int rowLength, final VariableOrder varOrder) throws BindingSetConversionException {
+        checkNotNull(row);
+        checkNotNull(varOrder);
+
+        final List<String> varNames = varOrder.getVariableOrders();
+        final int[] ends = new int[varNames.size()];
+        int found = 0;
+        final int rowEnd = offset + rowLength;
+        for(int i = offset; i < rowEnd; i++) {
+            if(row[i] == DELIM_BYTE) {
+                if(found == ends.length) {
+                    throw new BindingSetConversionException("The row holds more values than the variable order " + varOrder + ".");
+                }
+                ends[found++] = i;
+            }
+        }
+        if(found != ends.length) {
+            throw new BindingSetConversionException("The row holds " + found + " values, but the variable order " + varOrder + " has " + ends.length + ".");
+        }
+        return new RowBindingSet(row, offset, ends, varNames);
+    }
+
+    /**
+     * Decodes a row into a binding set.
+     *
+     * @param row - The row's bytes. (not null)
+     * @param varOrder - The order the binding set's values were written in. (not null)
+     * @return The binding set the row holds.
+     * @throws BindingSetConversionException The row does not hold a value for each variable.
+     */
+    public BindingSet decode(final byte[] row, final VariableOrder varOrder) throws BindingSetConversionException {
+        checkNotNull(row);
+        return decode(row, 0, row.length, varOrder);
+    }
+
+    private void append(final byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void ensureCapacity(final int extra) {
+        if(length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    /**
+     * A {@link BindingSet} that reads its values from a PCJ row the first time they are asked for.
+     */
+    private static final class RowBindingSet extends AbstractBindingSet {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] row;
+        private final int offset;
+        private final int[] ends;
+        private final List<String> varNames;
+        private final Value[] values;
+
+        private Set<String> bindingNames = null;
+
+        RowBindingSet(final byte[] row, final int offset, final int[] ends, final List<String> varNames) {
+            this.row = row;
+            this.offset = offset;
+            this.ends = ends;
+            this.varNames = varNames;
+            this.values = new Value[ends.length];
+        }
+
+        private int start(final int index) {
+            return index == 0 ? offset : ends[index - 1] + 1;
+        }
+
+        private boolean isBound(final int index) {
+            return start(index) < ends[index];
+        }
+
+        private @Nullable Value value(final int index) {
+            if(!isBound(index)) {
+                return null;
+            }
+            if(values[index] == null) {
+                final int start = start(index);
+                int typeIndex = start;
+                while(typeIndex < ends[index] && row[typeIndex] != TYPE_DELIM_BYTE) {
+                    typeIndex++;
+                }
+                if(typeIndex == ends[index]) {
+                    throw new IllegalStateException("The value of " + varNames.get(index) + " does not have a type.");
+                }
+                try {
+                    values[index] = RyaToRdfConversions.convertValue(RyaContext.getInstance().deserialize(Arrays.copyOfRange(row, start, ends[index])));
+                } catch (final RyaTypeResolverException e) {
+                    throw new IllegalStateException("Could not deserialize the value of " + varNames.get(index) + ".", e);
+                }
+            }
+            return values[index];
+        }
+
+        @Override
+        public Iterator<Binding> iterator() {
+            return new Iterator<Binding>() {
+                private int next = advance(0);
+
+                private int advance(int index) {
+                    while(index < ends.length && !isBound(index)) {
+                        index++;
+                    }
+                    return index;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next < ends.length;
+                }
+
+                @Override
+                public Binding next() {
+                    if(!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final Binding binding = new SimpleBinding(varNames.get(next), value(next));
+                    next = advance(next + 1);
+                    return binding;
+                }
+            };
+        }
+
+        @Override
+        public Set<String> getBindingNames() {
+            if(bindingNames == null) {
+                final Set<String> names = new LinkedHashSet<>();
+                for(int i = 0; i < ends.length; i++) {
+                    if(isBound(i)) {
+                        names.add(varNames.get(i));
+                    }
+                }
+                bindingNames = names;
+            }
+            return bindingNames;
+        }
+
+        @Override
+        public @Nullable Binding getBinding(final String bindingName) {
+            final Value value = getValue(bindingName);
+            return value == null ? null : new SimpleBinding(bindingName, value);
+        }
+
+        @Override
+        public boolean hasBinding(final String bindingName) {
+            final int index = varNames.indexOf(bindingName);
+            return index >= 0 && isBound(index);
+        }
+
+        @Override
+        public @Nullable Value getValue(final String bindingName) {
+            final int index = varNames.indexOf(bindingName);
+            return index >= 0 ? value(index) : null;
+        }
+
+        @Override
+        public int size() {
+            return getBindingNames().size();
+        }
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.Map.Entry;
 
 import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.data.ByteSequence;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import org.apache.rya.api.utils.CloseableIterator;
@@ -37,12 +38,13 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 /**
  * Iterates over the results of a {@link Scanner} assuming the results are
  * binding sets that can be converted using a {@link AccumuloPcjSerializer}.
+ * The binding sets are decoded straight from each {@link Key}'s row bytes by an
+ * {@link AccumuloPcjRowCodec}, so their values are only deserialized when they are read.
  */
 @DefaultAnnotation(NonNull.class)
 public class ScannerBindingSetIterator implements CloseableIterator<BindingSet> {
 
-    private static final AccumuloPcjSerializer converter = new AccumuloPcjSerializer();
-
+    private final AccumuloPcjRowCodec codec = new AccumuloPcjRowCodec();
     private final Scanner scanner;
     private final Iterator<Entry<Key, Value>> accEntries;
     private final VariableOrder varOrder;
@@ -67,9 +69,9 @@ public class ScannerBindingSetIterator implements CloseableIterator<BindingSet>
     @Override
     public BindingSet next() {
         final Entry<Key, Value> entry = accEntries.next();
-        final byte[] bindingSetBytes = entry.getKey().getRow().getBytes();
+        final ByteSequence row = entry.getKey().getRowData();
         try {
-            return converter.convert(bindingSetBytes, varOrder);
+            return codec.decode(row.getBackingArray(), row.offset(), row.length(), varOrder);
         } catch (final BindingSetConversionException e) {
             throw new RuntimeException("Could not deserialize a BindingSet from Accumulo.", e);
         }
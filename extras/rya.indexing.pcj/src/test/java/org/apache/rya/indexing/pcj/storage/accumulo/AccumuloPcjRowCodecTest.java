@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.pcj.storage.accumulo;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import org.apache.rya.api.RdfCloudTripleStoreConstants;
+import org.apache.rya.api.resolver.RdfToRyaConversions;
+import org.apache.rya.api.resolver.RyaContext;
+import org.apache.rya.indexing.pcj.storage.accumulo.BindingSetConverter.BindingSetConversionException;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Tests the methods of {@link AccumuloPcjRowCodec}.
+ */
+public class AccumuloPcjRowCodecTest {
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    @Test
+    public void encode_sameFormat() throws Exception {
+        final MapBindingSet bs = new MapBindingSet();
+        bs.addBinding("x", VF.createIRI("http://a"));
+        bs.addBinding("y", VF.createLiteral(5));
+        final VariableOrder varOrder = new VariableOrder("x", "a", "y");
+
+        // Each value is followed by a delimiter, and a missing value is only a delimiter.
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for(final Value value : new Value[] { bs.getValue("x"), null, bs.getValue("y") }) {
+            if(value != null) {
+                for(final byte[] part : RyaContext.getInstance().serializeType(RdfToRyaConversions.convertValue(value))) {
+                    expected.write(part);
+                }
+            }
+            expected.write(RdfCloudTripleStoreConstants.DELIM_BYTE);
+        }
+
+        final AccumuloPcjRowCodec codec = new AccumuloPcjRowCodec();
+        assertArrayEquals(expected.toByteArray(), codec.encode(bs, varOrder));
+
+        // The reused buffer does not leak into the next row.
+        final MapBindingSet small = new MapBindingSet();
+        small.addBinding("x", VF.createIRI("http://b"));
+        assertEquals(small, codec.decode(codec.encode(small, varOrder), varOrder));
+    }
+
+    @Test
+    public void decode_fromWithinArray() throws Exception {
+        final MapBindingSet bs = new MapBindingSet();
+        bs.addBinding("x", VF.createIRI("http://a"));
+        bs.addBinding("z", VF.createLiteral("hello", "en"));
+        final VariableOrder varOrder = new VariableOrder("x", "y", "z");
+
+        final AccumuloPcjRowCodec codec = new AccumuloPcjRowCodec();
+        final byte[] row = codec.encode(bs, varOrder);
+
+        // Decode the row while it sits in the middle of a larger array, like a Key's row data can.
+        final byte[] padded = new byte[row.length + 7];
+        Arrays.fill(padded, (byte) 9);
+        System.arraycopy(row, 0, padded, 3, row.length);
+        final BindingSet decoded = codec.decode(padded, 3, row.length, varOrder);
+
+        assertEquals(bs, decoded);
+        assertEquals(bs.hashCode(), decoded.hashCode());
+        assertEquals(Sets.newHashSet("x", "z"), decoded.getBindingNames());
+        assertEquals(2, decoded.size());
+        assertTrue(decoded.hasBinding("z"));
+        assertFalse(decoded.hasBinding("y"));
+        assertNull(decoded.getValue("y"));
+        assertNull(decoded.getBinding("notInVarOrder"));
+        assertEquals(VF.createLiteral("hello", "en"), decoded.getValue("z"));
+    }
+
+    @Test(expected = BindingSetConversionException.class)
+    public void decode_wrongNumberOfValues() throws Exception {
+        final MapBindingSet bs = new MapBindingSet();
+        bs.addBinding("x", VF.createIRI("http://a"));
+
+        final AccumuloPcjRowCodec codec = new AccumuloPcjRowCodec();
+        final byte[] row = codec.encode(bs, new VariableOrder("x"));
+        codec.decode(row, new VariableOrder("x", "y"));
+    }
+}
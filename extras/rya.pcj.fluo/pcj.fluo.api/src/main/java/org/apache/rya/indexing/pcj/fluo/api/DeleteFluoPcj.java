@@ -183,9 +183,11 @@ public class DeleteFluoPcj {
         final NodeType type = NodeType.fromNodeId(nodeId).get();
         Transaction tx = client.newTransaction();
         Bytes prefixBytes = Bytes.of(type.getNodeTypePrefix());
-        SpanBatchDeleteInformation batch = SpanBatchDeleteInformation.builder().setColumn(type.getResultColumn())
-                .setSpan(Span.prefix(prefixBytes)).setBatchSize(batchSize).setNodeId(Optional.of(nodeId)).build();
-        BatchInformationDAO.addBatch(tx, nodeId, batch);
+        for (Column column : type.getResultColumns()) {
+            SpanBatchDeleteInformation batch = SpanBatchDeleteInformation.builder().setColumn(column)
+                    .setSpan(Span.prefix(prefixBytes)).setBatchSize(batchSize).setNodeId(Optional.of(nodeId)).build();
+            BatchInformationDAO.addBatch(tx, nodeId, batch);
+        }
         tx.commit();
     }
 
@@ -22,15 +22,25 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.apache.commons.io.serialization.ValidatingObjectInputStream;
 import org.apache.fluo.api.client.TransactionBase;
 import org.apache.fluo.api.data.Bytes;
+import org.apache.fluo.api.data.Column;
 import org.apache.log4j.Logger;
-import org.apache.rya.accumulo.utils.VisibilitySimplifier;
 import org.apache.rya.api.function.aggregation.AggregationElement;
 import org.apache.rya.api.function.aggregation.AggregationFunction;
 import org.apache.rya.api.function.aggregation.AggregationState;
@@ -43,9 +53,18 @@ import org.apache.rya.api.function.aggregation.MinFunction;
 import org.apache.rya.api.function.aggregation.SumFunction;
 import org.apache.rya.api.log.LogUtils;
 import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.api.model.visibility.VisibilitySimplifier;
+import org.apache.rya.indexing.pcj.fluo.app.observers.AggregationObserver;
 import org.apache.rya.indexing.pcj.fluo.app.query.AggregationMetadata;
 import org.apache.rya.indexing.pcj.fluo.app.query.FluoQueryColumns;
 import org.apache.rya.indexing.pcj.storage.accumulo.VariableOrder;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.Binding;
 import org.eclipse.rdf4j.query.impl.MapBindingSet;
 
 import com.google.common.collect.ImmutableMap;
@@ -55,12 +74,19 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 
 /**
  * Updates the results of an Aggregate node when its child has added a new Binding Set to its results.
+ * <p>
+ * The state of a group is spread across {@link FluoQueryColumns#AGGREGATION_STATE_SHARD_COUNT} partial
+ * states, and each child Binding Set only updates the partial state it hashes to. Updates to a popular
+ * group, such as a COUNT without a GROUP BY, therefore rarely write the same cell and collide. The
+ * {@link AggregationObserver} is weakly notified of the updates and merges the partial states into the
+ * group's result using {@link #readAggregationState(TransactionBase, Bytes, AggregationMetadata)}.
  */
 @DefaultAnnotation(NonNull.class)
 public class AggregationResultUpdater extends AbstractNodeUpdater {
     private static final Logger log = Logger.getLogger(AggregationResultUpdater.class);
 
-    private static final AggregationStateSerDe AGG_STATE_SERDE = new ObjectSerializationAggregationStateSerDe();
+    private static final AggregationStateSerDe AGG_STATE_SERDE = new BinaryAggregationStateSerDe();
+    private static final AggregationStateSerDe LEGACY_AGG_STATE_SERDE = new ObjectSerializationAggregationStateSerDe();
 
     private static final ImmutableMap<AggregationType, AggregationFunction> FUNCTIONS;
     static {
@@ -98,8 +124,12 @@ public class AggregationResultUpdater extends AbstractNodeUpdater {
         final VariableOrder groupByVars = aggregationMetadata.getGroupByVariableOrder();
         final Bytes rowId = makeRowKey(aggregationNodeId, groupByVars, childBindingSet);
 
+        // Only the partial state the child Binding Set hashes to is updated.
+        final int shard = Math.floorMod(childBindingSet.hashCode(), FluoQueryColumns.AGGREGATION_STATE_SHARD_COUNT);
+        final Column stateColumn = FluoQueryColumns.AGGREGATION_PARTIAL_STATES.get(shard);
+
         // Load the old state from the bytes if one was found; otherwise initialize the state.
-        final Optional<Bytes> stateBytes = Optional.ofNullable( tx.get(rowId, FluoQueryColumns.AGGREGATION_BINDING_SET) );
+        final Optional<Bytes> stateBytes = Optional.ofNullable( tx.get(rowId, stateColumn) );
 
         final AggregationState state;
         if(stateBytes.isPresent()) {
@@ -141,8 +171,77 @@ public class AggregationResultUpdater extends AbstractNodeUpdater {
                 "Transaction ID: " + tx.getStartTimestamp() + "\n" +
                 "After Update:" + LogUtils.clean(state.getBindingSet().toString()) + "\n" );
 
-        // Store the updated state. This will write on top of any old state that was present for the Group By values.
-        tx.set(rowId, FluoQueryColumns.AGGREGATION_BINDING_SET, Bytes.of(AGG_STATE_SERDE.serialize(state)));
+        // Store the updated state. This will write on top of any old partial state that was present for the Group By values.
+        tx.set(rowId, stateColumn, Bytes.of(AGG_STATE_SERDE.serialize(state)));
+
+        // Weak notifications do not collide, so many transactions may ask for the group to be merged at once.
+        tx.setWeakNotification(rowId, FluoQueryColumns.AGGREGATION_BINDING_SET);
+    }
+
+    /**
+     * Reads the partial states of an Aggregation node's group and merges them into the group's result.
+     *
+     * @param tx - The transaction all Fluo queries will use. (not null)
+     * @param rowId - The row the group's state is stored in. (not null)
+     * @param aggregationMetadata - The metadata of the Aggregation node whose state is read. (not null)
+     * @return The merged state of the group, if any Binding Sets have been aggregated into it.
+     */
+    public Optional<AggregationState> readAggregationState(
+            final TransactionBase tx,
+            final Bytes rowId,
+            final AggregationMetadata aggregationMetadata) {
+        requireNonNull(tx);
+        requireNonNull(rowId);
+        requireNonNull(aggregationMetadata);
+
+        // The state that was written before the partial states were introduced is merged as one more partial state.
+        final List<Column> columns = new ArrayList<>(FluoQueryColumns.AGGREGATION_PARTIAL_STATES);
+        columns.add(FluoQueryColumns.AGGREGATION_BINDING_SET);
+        final Map<Column, Bytes> values = tx.get(rowId, new HashSet<>(columns));
+
+        AggregationState merged = null;
+        for(final Column column : columns) {
+            final Bytes bytes = values.get(column);
+            if(bytes != null) {
+                final AggregationState state = column.equals(FluoQueryColumns.AGGREGATION_BINDING_SET) ?
+                        LEGACY_AGG_STATE_SERDE.deserialize(bytes.toArray()) :
+                        AGG_STATE_SERDE.deserialize(bytes.toArray());
+                if(merged == null) {
+                    merged = state;
+                } else {
+                    mergeAggregationStates(merged, state, aggregationMetadata);
+                }
+            }
+        }
+        return Optional.ofNullable(merged);
+    }
+
+    /**
+     * Combines the results of one {@link AggregationState} into another.
+     *
+     * @param state - The state that will be updated. (not null)
+     * @param other - A state of the same group that was updated with other child Binding Sets. (not null)
+     * @param aggregationMetadata - The metadata of the Aggregation node the states belong to. (not null)
+     */
+    public static void mergeAggregationStates(
+            final AggregationState state,
+            final AggregationState other,
+            final AggregationMetadata aggregationMetadata) {
+        requireNonNull(state);
+        requireNonNull(other);
+        requireNonNull(aggregationMetadata);
+
+        state.setVisibility( VisibilitySimplifier.unionAndSimplify(state.getVisibility(), other.getVisibility()) );
+
+        for(final AggregationElement aggregation : aggregationMetadata.getAggregations()) {
+            final AggregationType type = aggregation.getAggregationType();
+            final AggregationFunction function = FUNCTIONS.get(type);
+            if(function == null) {
+                throw new RuntimeException("Unrecognized aggregation function: " + type);
+            }
+
+            function.merge(aggregation, state, other);
+        }
     }
 
     /**
@@ -164,7 +263,150 @@ public class AggregationResultUpdater extends AbstractNodeUpdater {
     }
 
     /**
-     * An implementation of {@link AggregationStateSerDe} that uses Java Serialization.
+     * An implementation of {@link AggregationStateSerDe} that writes a compact binary form. Strings are
+     * written as length prefixed UTF-8, and values as a type byte followed by their strings.
+     */
+    public static final class BinaryAggregationStateSerDe implements AggregationStateSerDe {
+
+        private static final byte VERSION = 1;
+
+        private static final byte IRI_VALUE = 1;
+        private static final byte BNODE_VALUE = 2;
+        private static final byte LITERAL_VALUE = 3;
+        private static final byte LANGUAGE_LITERAL_VALUE = 4;
+
+        private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+        @Override
+        public byte[] serialize(final AggregationState state) {
+            requireNonNull(state);
+
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try(final DataOutputStream out = new DataOutputStream(baos)) {
+                out.writeByte(VERSION);
+                writeString(out, state.getVisibility());
+
+                final MapBindingSet bindingSet = state.getBindingSet();
+                out.writeInt(bindingSet.size());
+                for(final Binding binding : bindingSet) {
+                    writeString(out, binding.getName());
+                    writeValue(out, binding.getValue());
+                }
+
+                final Map<String, AverageState> avgStates = state.getAverageStates();
+                out.writeInt(avgStates.size());
+                for(final Map.Entry<String, AverageState> avgState : avgStates.entrySet()) {
+                    writeString(out, avgState.getKey());
+                    final BigDecimal sum = avgState.getValue().getSum();
+                    writeBytes(out, sum.unscaledValue().toByteArray());
+                    out.writeInt(sum.scale());
+                    writeBytes(out, avgState.getValue().getCount().toByteArray());
+                }
+            } catch (final IOException e) {
+                throw new RuntimeException("A problem was encountered while serializing an AggregationState object.", e);
+            }
+
+            return baos.toByteArray();
+        }
+
+        @Override
+        public AggregationState deserialize(final byte[] bytes) {
+            requireNonNull(bytes);
+
+            try(final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                final byte version = in.readByte();
+                if(version != VERSION) {
+                    throw new IOException("Unsupported AggregationState version: " + version);
+                }
+                final String visibility = readString(in);
+
+                final MapBindingSet bindingSet = new MapBindingSet();
+                final int bindingCount = in.readInt();
+                for(int i = 0; i < bindingCount; i++) {
+                    final String name = readString(in);
+                    bindingSet.addBinding(name, readValue(in));
+                }
+
+                final Map<String, AverageState> avgStates = new HashMap<>();
+                final int avgStateCount = in.readInt();
+                for(int i = 0; i < avgStateCount; i++) {
+                    final String name = readString(in);
+                    final BigInteger unscaledSum = new BigInteger(readBytes(in));
+                    final BigDecimal sum = new BigDecimal(unscaledSum, in.readInt());
+                    final BigInteger count = new BigInteger(readBytes(in));
+                    avgStates.put(name, new AverageState(sum, count));
+                }
+
+                return new AggregationState(visibility, bindingSet, avgStates);
+            } catch (final IOException | IllegalArgumentException e) {
+                throw new RuntimeException("A problem was encountered while deserializing an AggregationState object.", e);
+            }
+        }
+
+        private static void writeValue(final DataOutputStream out, final Value value) throws IOException {
+            if(value instanceof IRI) {
+                out.writeByte(IRI_VALUE);
+                writeString(out, value.stringValue());
+            } else if(value instanceof BNode) {
+                out.writeByte(BNODE_VALUE);
+                writeString(out, ((BNode) value).getID());
+            } else if(value instanceof Literal) {
+                final Literal literal = (Literal) value;
+                if(literal.getLanguage().isPresent()) {
+                    out.writeByte(LANGUAGE_LITERAL_VALUE);
+                    writeString(out, literal.getLabel());
+                    writeString(out, literal.getLanguage().get());
+                } else {
+                    out.writeByte(LITERAL_VALUE);
+                    writeString(out, literal.getLabel());
+                    writeString(out, literal.getDatatype().stringValue());
+                }
+            } else {
+                throw new IOException("Unsupported value type: " + value.getClass().getName());
+            }
+        }
+
+        private static Value readValue(final DataInputStream in) throws IOException {
+            final byte type = in.readByte();
+            switch(type) {
+                case IRI_VALUE:
+                    return VF.createIRI(readString(in));
+                case BNODE_VALUE:
+                    return VF.createBNode(readString(in));
+                case LITERAL_VALUE:
+                    final String label = readString(in);
+                    return VF.createLiteral(label, VF.createIRI(readString(in)));
+                case LANGUAGE_LITERAL_VALUE:
+                    final String languageLabel = readString(in);
+                    return VF.createLiteral(languageLabel, readString(in));
+                default:
+                    throw new IOException("Unknown value type: " + type);
+            }
+        }
+
+        private static void writeString(final DataOutputStream out, final String value) throws IOException {
+            writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static String readString(final DataInputStream in) throws IOException {
+            return new String(readBytes(in), StandardCharsets.UTF_8);
+        }
+
+        private static void writeBytes(final DataOutputStream out, final byte[] bytes) throws IOException {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private static byte[] readBytes(final DataInputStream in) throws IOException {
+            final byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    /**
+     * An implementation of {@link AggregationStateSerDe} that uses Java Serialization. Only used to read
+     * the states that were written before {@link BinaryAggregationStateSerDe} was introduced.
      */
     public static final class ObjectSerializationAggregationStateSerDe implements AggregationStateSerDe {
 
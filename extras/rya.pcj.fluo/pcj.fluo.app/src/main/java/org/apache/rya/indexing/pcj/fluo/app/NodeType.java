@@ -28,6 +28,8 @@ import static org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants.PR
 import static org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants.SP_PREFIX;
 import static org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants.PERIODIC_QUERY_PREFIX;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -92,6 +94,19 @@ public enum NodeType {
     	return resultColumn;
     }
 
+    /**
+     * @return Every {@link Column} this {@link NodeType}'s results are stored or built within. All of them
+     *   must be deleted to delete the node's results.
+     */
+    public List<Column> getResultColumns() {
+        if(this == AGGREGATION) {
+            final List<Column> columns = new ArrayList<>(FluoQueryColumns.AGGREGATION_PARTIAL_STATES);
+            columns.add(resultColumn);
+            return columns;
+        }
+        return Collections.singletonList(resultColumn);
+    }
+
     /**
      * Get the {@link NodeType} of a node based on its Node ID.
      *
@@ -25,8 +25,7 @@ import org.apache.fluo.api.client.TransactionBase;
 import org.apache.fluo.api.data.Bytes;
 import org.apache.rya.api.function.aggregation.AggregationState;
 import org.apache.rya.api.model.VisibilityBindingSet;
-import org.apache.rya.indexing.pcj.fluo.app.AggregationResultUpdater.AggregationStateSerDe;
-import org.apache.rya.indexing.pcj.fluo.app.AggregationResultUpdater.ObjectSerializationAggregationStateSerDe;
+import org.apache.rya.indexing.pcj.fluo.app.AggregationResultUpdater;
 import org.apache.rya.indexing.pcj.fluo.app.BindingSetRow;
 import org.apache.rya.indexing.pcj.fluo.app.query.AggregationMetadata;
 import org.apache.rya.indexing.pcj.fluo.app.query.FluoQueryColumns;
@@ -39,15 +38,18 @@ import edu.umd.cs.findbugs.annotations.NonNull;
  * Notified when the results of an Aggregation have been updated to include a new
  * {@link BindingSet} value. This observer updates its parent if the new Binding Set
  * effects the parent's results.
+ * <p>
+ * The Aggregation's partial states are merged before the result is handed to the parent. The
+ * notification is weak, so a burst of updates to a group is merged and reported once.
  */
 @DefaultAnnotation(NonNull.class)
 public class AggregationObserver extends BindingSetUpdater {
 
-    private static final AggregationStateSerDe STATE_SERDE = new ObjectSerializationAggregationStateSerDe();
+    private final AggregationResultUpdater aggregationUpdater = new AggregationResultUpdater();
 
     @Override
     public ObservedColumn getObservedColumn() {
-        return new ObservedColumn(FluoQueryColumns.AGGREGATION_BINDING_SET, NotificationType.STRONG);
+        return new ObservedColumn(FluoQueryColumns.AGGREGATION_BINDING_SET, NotificationType.WEAK);
     }
 
     @Override
@@ -59,9 +61,9 @@ public class AggregationObserver extends BindingSetUpdater {
         final String nodeId = BindingSetRow.makeFromShardedRow(Bytes.of(AGGREGATION_PREFIX), row).getNodeId();
         final AggregationMetadata metadata = queryDao.readAggregationMetadata(tx, nodeId);
 
-        // Read the Visibility Binding Set from the value.
-        final Bytes stateBytes = tx.get(row, FluoQueryColumns.AGGREGATION_BINDING_SET);
-        final AggregationState state = STATE_SERDE.deserialize( stateBytes.toArray() );
+        // Merge the partial states into the Visibility Binding Set of the group.
+        final AggregationState state = aggregationUpdater.readAggregationState(tx, row, metadata)
+                .orElseThrow(() -> new IllegalStateException("No aggregation state was found for row: " + row));
         final VisibilityBindingSet aggBindingSet = new VisibilityBindingSet(state.getBindingSet(), state.getVisibility());
 
         // Figure out which node needs to handle the new metadata.
@@ -20,7 +20,9 @@ package org.apache.rya.indexing.pcj.fluo.app.query;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.fluo.api.data.Column;
@@ -134,7 +136,8 @@ import edu.umd.cs.findbugs.annotations.NonNull;
  *     <tr> <td>Node ID</td> <td>aggregationMetadata:childNodeId</td> <td>The Node ID of the node that feeds this node Binding Sets.</td> </tr>
  *     <tr> <td>Node ID</td> <td>aggregationMetadata:groupByBindingNames</td> <td>An ordered list of the binding names the aggregation's results will be grouped by.</td> </tr>
  *     <tr> <td>Node ID</td> <td>aggregationMetadata:aggregations</td> <td>A serialized form of the aggregations that need to be performed by this aggregation node.</td> </tr>
- *     <tr> <td>Node ID + DELIM + Group By Values Binding Set String</td> <td>aggregationMetadata:bindingSet</td><td>An {@link AggregationState} object.</td> </tr>
+ *     <tr> <td>Node ID + DELIM + Group By Values Binding Set String</td> <td>aggregationMetadata:partialState&lt;shard&gt;</td><td>A binary {@link AggregationState} of the child Binding Sets that hashed to the shard.</td> </tr>
+ *     <tr> <td>Node ID + DELIM + Group By Values Binding Set String</td> <td>aggregationMetadata:bindingSet</td><td>Weakly notified when a partial state changes. Older versions stored a Java serialized {@link AggregationState} here.</td> </tr>
  *   </table>
  * </p>
  */
@@ -233,6 +236,24 @@ public class FluoQueryColumns {
     public static final Column AGGREGATION_AGGREGATIONS = new Column(AGGREGATION_METADATA_CF, "aggregations");
     public static final Column AGGREGATION_BINDING_SET = new Column(AGGREGATION_METADATA_CF, "bindingSet");
 
+    /**
+     * The number of partial states the state of an Aggregation's group is spread across, so that
+     * concurrent updates to a popular group do not all write the same cell.
+     */
+    public static final int AGGREGATION_STATE_SHARD_COUNT = 16;
+
+    /**
+     * The columns that hold the partial states of an Aggregation's group, indexed by shard.
+     */
+    public static final List<Column> AGGREGATION_PARTIAL_STATES;
+    static {
+        final List<Column> partialStates = new ArrayList<>(AGGREGATION_STATE_SHARD_COUNT);
+        for(int shard = 0; shard < AGGREGATION_STATE_SHARD_COUNT; shard++) {
+            partialStates.add(new Column(AGGREGATION_METADATA_CF, "partialState" + shard));
+        }
+        AGGREGATION_PARTIAL_STATES = Collections.unmodifiableList(partialStates);
+    }
+
     /**
      * BatchObserver column for processing tasks that need to be broken into
      * batches. Entries stored stored in this column are of the form Row:
@@ -24,7 +24,9 @@ import static org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants.VA
 import static org.apache.rya.indexing.pcj.fluo.app.query.FluoQueryColumns.STATEMENT_PATTERN_IDS;
 import static org.apache.rya.indexing.pcj.fluo.app.query.FluoQueryColumns.STATEMENT_PATTERN_IDS_HASH;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
@@ -37,7 +39,8 @@ import com.google.common.collect.Sets;
 /**
  * This class caches the StatementPattern Ids so they don't have
  * to be looked up each time a new Statement needs to be processed
- * in the TripleObserver.
+ * in the TripleObserver.  It also maintains a {@link StatementPatternIndex}
+ * over the cached ids that is rebuilt whenever the ids change.
  *
  */
 public class StatementPatternIdCache {
@@ -45,6 +48,8 @@ public class StatementPatternIdCache {
     private final ReentrantLock lock = new ReentrantLock();
     private static Optional<String> HASH = Optional.empty();
     private static Set<String> IDS = new HashSet<>();
+    private static volatile Optional<String> INDEX_HASH = Optional.empty();
+    private static volatile StatementPatternIndex INDEX = null;
 
     /**
      * This method retrieves the StatementPattern NodeIds registered in the Fluo table.
@@ -77,6 +82,43 @@ public class StatementPatternIdCache {
         return IDS;
     }
 
+    /**
+     * This method retrieves a {@link StatementPatternIndex} over the StatementPatterns registered in the Fluo table.
+     * The index is only rebuilt when the hash of the StatementPattern nodeIds returned by
+     * {@link StatementPatternIdCache#getStatementPatternIds(TransactionBase)} differs from the hash the current
+     * index was built for.  Otherwise, the locally cached index is returned.  This method is thread safe.
+     * @param tx
+     * @param metadataDao - used to read the {@link StatementPatternMetadata} of each nodeId when the index is rebuilt
+     * @return - index over the registered StatementPatterns
+     */
+    public StatementPatternIndex getStatementPatternIndex(TransactionBase tx, FluoQueryMetadataDAO metadataDao) {
+        checkNotNull(tx);
+        checkNotNull(metadataDao);
+        getStatementPatternIds(tx);
+
+        StatementPatternIndex index = INDEX;
+        if (index != null && INDEX_HASH.equals(HASH)) {
+            return index;
+        }
+        lock.lock();
+        try {
+            if (INDEX == null || !INDEX_HASH.equals(HASH)) {
+                List<StatementPatternMetadata> patterns = new ArrayList<>(IDS.size());
+                for (String id : IDS) {
+                    if (id.isEmpty()) {
+                        continue;
+                    }
+                    patterns.add(metadataDao.readStatementPatternMetadata(tx, id));
+                }
+                INDEX = new StatementPatternIndex(patterns);
+                INDEX_HASH = HASH;
+            }
+            return INDEX;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Clears contexts of cache so that it will be re-populated next time
      * {@link StatementPatternIdCache#getStatementPatternIds(TransactionBase)} is called.
@@ -84,6 +126,8 @@ public class StatementPatternIdCache {
     public void clear() {
         HASH = Optional.empty();
         IDS.clear();
+        INDEX_HASH = Optional.empty();
+        INDEX = null;
     }
 
 }
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.pcj.fluo.app.query;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants.DELIM;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.rya.api.domain.VarNameUtils;
+import org.apache.rya.indexing.pcj.storage.accumulo.VariableOrder;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import net.jcip.annotations.Immutable;
+
+/**
+ * An in memory discrimination index over the Statement Patterns that are registered with the Fluo application.
+ * Each pattern is filed under its shape (which of the subject, predicate, and object positions hold a constant)
+ * and the values of those constants. A triple is then only tested against the patterns whose constants it
+ * can match, which costs at most one hash lookup per shape rather than one metadata read and split per
+ * registered pattern.
+ * <p>
+ * Instances are immutable and are rebuilt by {@link StatementPatternIdCache} whenever the set of registered
+ * Statement Pattern ids changes.
+ */
+@Immutable
+@DefaultAnnotation(NonNull.class)
+public class StatementPatternIndex {
+
+    /**
+     * An index that does not contain any patterns.
+     */
+    public static final StatementPatternIndex EMPTY = new StatementPatternIndex(Collections.emptyList());
+
+    private static final int SUBJECT = 0;
+    private static final int PREDICATE = 1;
+    private static final int OBJECT = 2;
+    private static final int SHAPE_COUNT = 1 << 3;
+
+    /**
+     * The patterns, indexed first by shape and then by the concatenation of their constant values.
+     * A null entry means no registered pattern has that shape.
+     */
+    private final List<Map<String, List<IndexedStatementPattern>>> patternsByShape;
+    private final int[] shapes;
+    private final int size;
+
+    /**
+     * Constructs an instance of {@link StatementPatternIndex}.
+     *
+     * @param patterns - The Statement Patterns that will be indexed. (not null)
+     */
+    public StatementPatternIndex(final Collection<StatementPatternMetadata> patterns) {
+        checkNotNull(patterns);
+
+        final List<Map<String, List<IndexedStatementPattern>>> byShape = new ArrayList<>(SHAPE_COUNT);
+        for(int i = 0; i < SHAPE_COUNT; i++) {
+            byShape.add(null);
+        }
+
+        for(final StatementPatternMetadata metadata : patterns) {
+            final IndexedStatementPattern indexed = new IndexedStatementPattern(metadata);
+            final int shape = indexed.getShape();
+
+            Map<String, List<IndexedStatementPattern>> keyed = byShape.get(shape);
+            if(keyed == null) {
+                keyed = new HashMap<>();
+                byShape.set(shape, keyed);
+            }
+            keyed.computeIfAbsent(makeKey(shape, indexed.constants), k -> new ArrayList<>()).add(indexed);
+        }
+
+        int shapeCount = 0;
+        for(final Map<String, List<IndexedStatementPattern>> keyed : byShape) {
+            if(keyed != null) {
+                shapeCount++;
+            }
+        }
+        shapes = new int[shapeCount];
+        int next = 0;
+        for(int shape = 0; shape < SHAPE_COUNT; shape++) {
+            if(byShape.get(shape) != null) {
+                shapes[next++] = shape;
+            }
+        }
+
+        patternsByShape = byShape;
+        size = patterns.size();
+    }
+
+    /**
+     * @return The number of Statement Patterns held by this index.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the Statement Patterns whose constants match a triple.
+     *
+     * @param triple - The subject, predicate, and object of the triple, each formatted the way
+     *   {@link org.apache.rya.indexing.pcj.fluo.app.IncUpdateDAO#getTripleString(org.apache.rya.api.domain.RyaStatement)}
+     *   formats them. (not null)
+     * @return The patterns whose constant positions are all equal to the triple's values in those positions.
+     */
+    public List<IndexedStatementPattern> getCandidates(final String[] triple) {
+        checkNotNull(triple);
+        checkArgument(triple.length == 3, "Invald number of components");
+
+        // The lists held by the index are shared, so only copy them when more than one shape matches.
+        List<IndexedStatementPattern> candidates = Collections.emptyList();
+        boolean copied = false;
+        for(final int shape : shapes) {
+            final List<IndexedStatementPattern> matched = patternsByShape.get(shape).get( makeKey(shape, triple) );
+            if(matched != null) {
+                if(candidates.isEmpty()) {
+                    candidates = matched;
+                } else {
+                    if(!copied) {
+                        candidates = new ArrayList<>(candidates);
+                        copied = true;
+                    }
+                    candidates.addAll(matched);
+                }
+            }
+        }
+        return Collections.unmodifiableList(candidates);
+    }
+
+    private static String makeKey(final int shape, final String[] values) {
+        final StringBuilder key = new StringBuilder();
+        for(int i = SUBJECT; i <= OBJECT; i++) {
+            if((shape & (1 << i)) != 0) {
+                key.append(values[i]);
+            }
+            key.append(DELIM);
+        }
+        return key.toString();
+    }
+
+    /**
+     * A Statement Pattern whose string form has already been split into its components.
+     */
+    @Immutable
+    @DefaultAnnotation(NonNull.class)
+    public static final class IndexedStatementPattern {
+        private final StatementPatternMetadata metadata;
+        private final String[] varOrder;
+
+        /**
+         * The constant value at each position with its prefix removed, or null if that position is a variable.
+         */
+        private final String[] constants = new String[3];
+
+        /**
+         * The variable name at each position, or null if that position is a constant.
+         */
+        private final String[] varNames = new String[3];
+
+        private IndexedStatementPattern(final StatementPatternMetadata metadata) {
+            this.metadata = checkNotNull(metadata);
+            varOrder = metadata.getVariableOrder().toArray();
+
+            final String[] patternArray = metadata.getStatementPattern().split(DELIM);
+            if(patternArray.length != 3) {
+                throw new IllegalArgumentException("Invald number of components");
+            }
+
+            for(int i = SUBJECT; i <= OBJECT; i++) {
+                if(VarNameUtils.isConstant(patternArray[i])) {
+                    constants[i] = patternArray[i].substring(7);
+                } else {
+                    varNames[i] = patternArray[i];
+                }
+            }
+        }
+
+        private int getShape() {
+            int shape = 0;
+            for(int i = SUBJECT; i <= OBJECT; i++) {
+                if(constants[i] != null) {
+                    shape |= 1 << i;
+                }
+            }
+            return shape;
+        }
+
+        /**
+         * @return The metadata of the Statement Pattern.
+         */
+        public StatementPatternMetadata getMetadata() {
+            return metadata;
+        }
+
+        /**
+         * @return The ID the Fluo app uses to reference the Statement Pattern.
+         */
+        public String getNodeId() {
+            return metadata.getNodeId();
+        }
+
+        /**
+         * @return The variable order of binding sets that are emitted by the Statement Pattern.
+         */
+        public VariableOrder getVariableOrder() {
+            return metadata.getVariableOrder();
+        }
+
+        /**
+         * Generates a string representation of the Binding Set that is produced by matching a triple against
+         * this pattern. The triple's constant positions must already be known to match, which is the case for
+         * every pattern returned by {@link StatementPatternIndex#getCandidates(String[])}.
+         *
+         * @param triple - The subject, predicate, and object of the triple. (not null)
+         * @return The string representation of a Binding Set whose order is determined by the pattern's
+         *   variable order.
+         */
+        public String getBindingSetString(final String[] triple) {
+            checkNotNull(triple);
+
+            final Map<String, String> bindingValues = new HashMap<>(4);
+            for(int i = SUBJECT; i <= OBJECT; i++) {
+                if(varNames[i] != null) {
+                    bindingValues.put(varNames[i], triple[i]);
+                }
+            }
+
+            final StringBuilder bindingSetString = new StringBuilder();
+            for(final String bindingName : varOrder) {
+                if(bindingSetString.length() != 0) {
+                    bindingSetString.append(DELIM);
+                }
+                bindingSetString.append(bindingValues.get(bindingName));
+            }
+            return bindingSetString.toString();
+        }
+    }
+}
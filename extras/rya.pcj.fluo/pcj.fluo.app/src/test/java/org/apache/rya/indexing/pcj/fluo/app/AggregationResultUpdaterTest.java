@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.pcj.fluo.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.rya.api.function.aggregation.AggregationElement;
+import org.apache.rya.api.function.aggregation.AggregationFunction;
+import org.apache.rya.api.function.aggregation.AggregationState;
+import org.apache.rya.api.function.aggregation.AggregationType;
+import org.apache.rya.api.function.aggregation.AverageFunction;
+import org.apache.rya.api.function.aggregation.AverageState;
+import org.apache.rya.api.function.aggregation.CountFunction;
+import org.apache.rya.api.function.aggregation.MaxFunction;
+import org.apache.rya.api.function.aggregation.MinFunction;
+import org.apache.rya.api.function.aggregation.SumFunction;
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.indexing.pcj.fluo.app.AggregationResultUpdater.AggregationStateSerDe;
+import org.apache.rya.indexing.pcj.fluo.app.AggregationResultUpdater.BinaryAggregationStateSerDe;
+import org.apache.rya.indexing.pcj.fluo.app.AggregationResultUpdater.ObjectSerializationAggregationStateSerDe;
+import org.apache.rya.indexing.pcj.fluo.app.query.AggregationMetadata;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Tests the methods of {@link AggregationResultUpdater}.
+ */
+public class AggregationResultUpdaterTest {
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    private static final Map<AggregationType, AggregationFunction> FUNCTIONS = ImmutableMap.of(
+            AggregationType.COUNT, new CountFunction(),
+            AggregationType.SUM, new SumFunction(),
+            AggregationType.AVERAGE, new AverageFunction(),
+            AggregationType.MIN, new MinFunction(),
+            AggregationType.MAX, new MaxFunction());
+
+    @Test
+    public void binarySerDe_roundTrip() {
+        final MapBindingSet bindingSet = new MapBindingSet();
+        bindingSet.addBinding("item", VF.createIRI("urn:apple"));
+        bindingSet.addBinding("owner", VF.createBNode("b1"));
+        bindingSet.addBinding("label", VF.createLiteral("pomme", "fr"));
+        bindingSet.addBinding("count", VF.createLiteral(BigInteger.valueOf(42)));
+        bindingSet.addBinding("avg", VF.createLiteral(new BigDecimal("2.5")));
+
+        final Map<String, AverageState> avgStates = new HashMap<>();
+        avgStates.put("avg", new AverageState(new BigDecimal("-12.125"), BigInteger.valueOf(5)));
+        final AggregationState original = new AggregationState("a&(b|c)", bindingSet, avgStates);
+
+        final AggregationStateSerDe serde = new BinaryAggregationStateSerDe();
+        final byte[] bytes = serde.serialize(original);
+        assertEquals(original, serde.deserialize(bytes));
+
+        // The binary form is much smaller than the Java serialized form.
+        assertTrue(bytes.length * 4 < new ObjectSerializationAggregationStateSerDe().serialize(original).length);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void binarySerDe_unknownVersion() {
+        final AggregationStateSerDe serde = new BinaryAggregationStateSerDe();
+        final byte[] bytes = serde.serialize(new AggregationState());
+        bytes[0] = 127;
+        serde.deserialize(bytes);
+    }
+
+    @Test
+    public void mergeAggregationStates() {
+        final AggregationMetadata metadata = AggregationMetadata.builder("aggregation")
+                .addAggregation(new AggregationElement(AggregationType.COUNT, "price", "count"))
+                .addAggregation(new AggregationElement(AggregationType.SUM, "price", "sum"))
+                .addAggregation(new AggregationElement(AggregationType.AVERAGE, "price", "avg"))
+                .addAggregation(new AggregationElement(AggregationType.MIN, "price", "min"))
+                .addAggregation(new AggregationElement(AggregationType.MAX, "price", "max"))
+                .build();
+
+        // Update one state with every child and two partial states with half of the children each.
+        final AggregationState full = new AggregationState();
+        final AggregationState even = new AggregationState();
+        final AggregationState odd = new AggregationState();
+        for(int i = 0; i < 10; i++) {
+            final MapBindingSet bs = new MapBindingSet();
+            bs.addBinding("price", VF.createLiteral(i * 3 % 7));
+            final VisibilityBindingSet child = new VisibilityBindingSet(bs, "a");
+            update(metadata.getAggregations(), full, child);
+            update(metadata.getAggregations(), i % 2 == 0 ? even : odd, child);
+        }
+
+        AggregationResultUpdater.mergeAggregationStates(even, odd, metadata);
+        assertEquals(full.getBindingSet(), even.getBindingSet());
+        assertEquals(full.getAverageStates(), even.getAverageStates());
+        assertEquals("a", even.getVisibility());
+    }
+
+    @Test
+    public void mergeAggregationStates_emptyOther() {
+        final AggregationMetadata metadata = AggregationMetadata.builder("aggregation")
+                .addAggregation(new AggregationElement(AggregationType.COUNT, "price", "count"))
+                .addAggregation(new AggregationElement(AggregationType.MIN, "price", "min"))
+                .build();
+
+        final MapBindingSet bs = new MapBindingSet();
+        bs.addBinding("price", VF.createLiteral(5));
+        final AggregationState state = new AggregationState();
+        update(metadata.getAggregations(), state, new VisibilityBindingSet(bs, "a"));
+        final MapBindingSet expected = new MapBindingSet();
+        expected.addBinding("count", VF.createLiteral(BigInteger.ONE));
+        expected.addBinding("min", VF.createLiteral(5));
+
+        // A state that has not aggregated anything leaves the results alone.
+        AggregationResultUpdater.mergeAggregationStates(state, new AggregationState(), metadata);
+        assertEquals(expected, state.getBindingSet());
+    }
+
+    private static void update(final Collection<AggregationElement> aggregations, final AggregationState state, final VisibilityBindingSet child) {
+        state.setVisibility(child.getVisibility());
+        for(final AggregationElement aggregation : aggregations) {
+            FUNCTIONS.get(aggregation.getAggregationType()).update(aggregation, state, child);
+        }
+    }
+}
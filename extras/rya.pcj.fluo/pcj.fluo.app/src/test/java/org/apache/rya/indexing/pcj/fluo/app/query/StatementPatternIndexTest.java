@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.indexing.pcj.fluo.app.query;
+
+import static org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants.DELIM;
+import static org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants.TYPE_DELIM;
+import static org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants.URI_TYPE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.fluo.api.client.Transaction;
+import org.apache.fluo.api.data.Bytes;
+import org.apache.rya.indexing.pcj.fluo.app.IncrementalUpdateConstants;
+import org.apache.rya.indexing.pcj.fluo.app.NodeType;
+import org.apache.rya.indexing.pcj.fluo.app.query.StatementPatternIndex.IndexedStatementPattern;
+import org.apache.rya.indexing.pcj.storage.accumulo.VariableOrder;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class StatementPatternIndexTest {
+
+    private static final String ALICE = "urn:Alice" + TYPE_DELIM + URI_TYPE;
+    private static final String BOB = "urn:Bob" + TYPE_DELIM + URI_TYPE;
+    private static final String TALKS_TO = "urn:talksTo" + TYPE_DELIM + URI_TYPE;
+    private static final String WORKS_AT = "urn:worksAt" + TYPE_DELIM + URI_TYPE;
+
+    @Test
+    public void candidatesMatchConstants() {
+        final StatementPatternMetadata talksTo = makePattern("x;y", "x" + DELIM + constant(TALKS_TO) + DELIM + "y");
+        final StatementPatternMetadata aliceTalksTo = makePattern("y", constant(ALICE) + DELIM + constant(TALKS_TO) + DELIM + "y");
+        final StatementPatternMetadata worksAt = makePattern("x;y", "x" + DELIM + constant(WORKS_AT) + DELIM + "y");
+        final StatementPatternMetadata anything = makePattern("o;p;s", "s" + DELIM + "p" + DELIM + "o");
+
+        final StatementPatternIndex index = new StatementPatternIndex(Lists.newArrayList(talksTo, aliceTalksTo, worksAt, anything));
+        assertEquals(4, index.size());
+
+        final String[] triple = new String[] { ALICE, TALKS_TO, BOB };
+        final Set<StatementPatternMetadata> matched = new HashSet<>();
+        for(final IndexedStatementPattern candidate : index.getCandidates(triple)) {
+            matched.add(candidate.getMetadata());
+        }
+        assertEquals(Sets.newHashSet(talksTo, aliceTalksTo, anything), matched);
+
+        final String[] bobTriple = new String[] { BOB, TALKS_TO, ALICE };
+        matched.clear();
+        for(final IndexedStatementPattern candidate : index.getCandidates(bobTriple)) {
+            matched.add(candidate.getMetadata());
+        }
+        assertEquals(Sets.newHashSet(talksTo, anything), matched);
+    }
+
+    @Test
+    public void bindingSetString() {
+        final StatementPatternMetadata anything = makePattern("o;s", "s" + DELIM + constant(TALKS_TO) + DELIM + "o");
+        final StatementPatternIndex index = new StatementPatternIndex(Lists.newArrayList(anything));
+
+        final List<IndexedStatementPattern> candidates = index.getCandidates(new String[] { ALICE, TALKS_TO, BOB });
+        assertEquals(1, candidates.size());
+        assertEquals(BOB + DELIM + ALICE, candidates.get(0).getBindingSetString(new String[] { ALICE, TALKS_TO, BOB }));
+    }
+
+    @Test
+    public void noCandidates() {
+        final StatementPatternMetadata worksAt = makePattern("x;y", "x" + DELIM + constant(WORKS_AT) + DELIM + "y");
+        final StatementPatternIndex index = new StatementPatternIndex(Lists.newArrayList(worksAt));
+        assertTrue(index.getCandidates(new String[] { ALICE, TALKS_TO, BOB }).isEmpty());
+        assertTrue(StatementPatternIndex.EMPTY.getCandidates(new String[] { ALICE, TALKS_TO, BOB }).isEmpty());
+    }
+
+    @Test
+    public void indexCachedUntilIdsChange() {
+        final Transaction mockTx = Mockito.mock(Transaction.class);
+        final FluoQueryMetadataDAO mockDAO = Mockito.mock(FluoQueryMetadataDAO.class);
+        final StatementPatternMetadata talksTo = makePattern("x;y", "x" + DELIM + constant(TALKS_TO) + DELIM + "y");
+        when(mockTx.get(Bytes.of(IncrementalUpdateConstants.STATEMENT_PATTERN_ID), FluoQueryColumns.STATEMENT_PATTERN_IDS))
+                .thenReturn(Bytes.of(talksTo.getNodeId()));
+        when(mockTx.get(Bytes.of(IncrementalUpdateConstants.STATEMENT_PATTERN_ID), FluoQueryColumns.STATEMENT_PATTERN_IDS_HASH))
+                .thenReturn(Bytes.of("123"));
+        when(mockDAO.readStatementPatternMetadata(mockTx, talksTo.getNodeId())).thenReturn(talksTo);
+
+        final StatementPatternIdCache cache = new StatementPatternIdCache();
+        cache.clear();
+        final StatementPatternIndex index1 = cache.getStatementPatternIndex(mockTx, mockDAO);
+        final StatementPatternIndex index2 = cache.getStatementPatternIndex(mockTx, mockDAO);
+
+        assertTrue(index1 == index2);
+        assertEquals(1, index1.size());
+        Mockito.verify(mockDAO, Mockito.times(1)).readStatementPatternMetadata(mockTx, talksTo.getNodeId());
+        cache.clear();
+    }
+
+    private static String constant(final String value) {
+        return "_const_" + value;
+    }
+
+    private static StatementPatternMetadata makePattern(final String varOrder, final String pattern) {
+        return StatementPatternMetadata.builder(NodeType.generateNewFluoIdForType(NodeType.STATEMENT_PATTERN))
+                .setParentNodeId("parent")
+                .setVarOrder(new VariableOrder(varOrder))
+                .setStatementPattern(pattern)
+                .build();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.prospector.domain;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * A Count-Min sketch that estimates how many times a value was counted using a fixed amount of memory.
+ * <p>
+ * An estimate is never lower than the true count. With a width of {@code w} and a depth of {@code d}, it is
+ * higher than the true count by more than {@code e / w} of the total count with a probability of at most
+ * {@code e^-d}. Sketches of the same dimensions may be merged, so each reducer of a Prospector run may
+ * publish a partial sketch that readers add together.
+ */
+public class CountMinSketch {
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final int width;
+    private final int depth;
+    private final long[][] table;
+    private long total = 0;
+
+    /**
+     * Constructs an empty instance of {@link CountMinSketch}.
+     *
+     * @param width - The number of counters in each row. (&gt; 0)
+     * @param depth - The number of rows, each of which uses a different hash. (&gt; 0)
+     */
+    public CountMinSketch(final int width, final int depth) {
+        checkArgument(width > 0, "The width must be positive.");
+        checkArgument(depth > 0, "The depth must be positive.");
+        this.width = width;
+        this.depth = depth;
+        table = new long[depth][width];
+    }
+
+    /**
+     * @return The number of counters in each row.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return The sum of every count that has been added to the sketch.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Adds to the count of a value.
+     *
+     * @param value - The value that was counted. (not null)
+     * @param count - How many times it was counted. (&gt;= 0)
+     */
+    public void add(final String value, final long count) {
+        requireNonNull(value);
+        checkArgument(count >= 0, "The count must not be negative.");
+
+        final long[] hashes = hashes(value);
+        for(int i = 0; i < depth; i++) {
+            table[i][index(hashes, i)] += count;
+        }
+        total += count;
+    }
+
+    /**
+     * @param value - The value whose count will be estimated. (not null)
+     * @return An estimate of how many times the value was counted.
+     */
+    public long estimate(final String value) {
+        requireNonNull(value);
+
+        final long[] hashes = hashes(value);
+        long estimate = Long.MAX_VALUE;
+        for(int i = 0; i < depth; i++) {
+            estimate = Math.min(estimate, table[i][index(hashes, i)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Adds the counts of another sketch to this one.
+     *
+     * @param other - The sketch whose counts will be added. It must have the same dimensions. (not null)
+     */
+    public void merge(final CountMinSketch other) {
+        requireNonNull(other);
+        checkArgument(width == other.width && depth == other.depth,
+                "Only sketches with the same dimensions may be merged.");
+
+        for(int i = 0; i < depth; i++) {
+            for(int j = 0; j < width; j++) {
+                table[i][j] += other.table[i][j];
+            }
+        }
+        total += other.total;
+    }
+
+    /**
+     * @return The sketch's dimensions and counters, in a form that {@link #fromBytes(byte[])} reads.
+     */
+    public byte[] toBytes() {
+        final ByteBuffer buffer = ByteBuffer.allocate(16 + 8 * width * depth);
+        buffer.putInt(width);
+        buffer.putInt(depth);
+        buffer.putLong(total);
+        for(final long[] row : table) {
+            for(final long counter : row) {
+                buffer.putLong(counter);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @param bytes - A sketch that was written by {@link #toBytes()}. (not null)
+     * @return The sketch that the bytes hold.
+     */
+    public static CountMinSketch fromBytes(final byte[] bytes) {
+        requireNonNull(bytes);
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final CountMinSketch sketch = new CountMinSketch(buffer.getInt(), buffer.getInt());
+        checkArgument(bytes.length == 16 + 8 * sketch.width * sketch.depth, "The bytes do not hold a sketch.");
+
+        sketch.total = buffer.getLong();
+        for(final long[] row : sketch.table) {
+            for(int j = 0; j < row.length; j++) {
+                row[j] = buffer.getLong();
+            }
+        }
+        return sketch;
+    }
+
+    private static long[] hashes(final String value) {
+        final ByteBuffer hash = ByteBuffer.wrap(HASH.hashString(value, StandardCharsets.UTF_8).asBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        return new long[] { hash.getLong(0), hash.getLong(8) };
+    }
+
+    /**
+     * Derives the hash of each row from two independent hashes, as described by Kirsch and Mitzenmacher.
+     */
+    private int index(final long[] hashes, final int row) {
+        final long combined = hashes[0] + row * hashes[1];
+        return (int) ((combined & Long.MAX_VALUE) % width);
+    }
+}
@@ -18,16 +18,32 @@
  */
 package org.apache.rya.prospector.mr;
 
+import static org.apache.rya.prospector.utils.ProspectorConstants.COUNT;
+import static org.apache.rya.prospector.utils.ProspectorConstants.DEFAULT_SKETCH_DEPTH;
+import static org.apache.rya.prospector.utils.ProspectorConstants.DEFAULT_SKETCH_WIDTH;
+import static org.apache.rya.prospector.utils.ProspectorConstants.DEFAULT_VIS;
+import static org.apache.rya.prospector.utils.ProspectorConstants.SKETCH;
+import static org.apache.rya.prospector.utils.ProspectorConstants.SKETCH_DEPTH;
+import static org.apache.rya.prospector.utils.ProspectorConstants.SKETCH_ENABLED;
+import static org.apache.rya.prospector.utils.ProspectorConstants.SKETCH_WIDTH;
+
 import java.io.IOException;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.Map;
 
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.ColumnVisibility;
 import org.apache.commons.lang.time.DateUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.rya.prospector.domain.CountMinSketch;
 import org.apache.rya.prospector.domain.IntermediateProspect;
+import org.apache.rya.prospector.domain.TripleValueType;
 import org.apache.rya.prospector.plans.IndexWorkPlan;
 import org.apache.rya.prospector.plans.IndexWorkPlanManager;
 import org.apache.rya.prospector.plans.impl.ServicesBackedIndexWorkPlanManager;
@@ -37,6 +53,10 @@ import org.apache.rya.prospector.utils.ProspectorUtils;
  * Reduces the {@link IntermediateProspect} counts into their final values and
  * writes them to their final storage location during the Reduce step of the
  * Hadoop Map Reduce framework.
+ * <p>
+ * When {@link org.apache.rya.prospector.utils.ProspectorConstants#SKETCH_ENABLED} is set, the counts are also
+ * added to a {@link CountMinSketch} for each {@link TripleValueType}. Each reducer writes its partial sketches
+ * once it has finished; readers merge the partial sketches of a run.
  */
 public class ProspectorReducer extends Reducer<IntermediateProspect, LongWritable, IntermediateProspect, LongWritable> {
 
@@ -44,6 +64,11 @@ public class ProspectorReducer extends Reducer<IntermediateProspect, LongWritabl
     private final IndexWorkPlanManager manager = new ServicesBackedIndexWorkPlanManager();
     private Map<String, IndexWorkPlan> plans;
 
+    private boolean sketchEnabled;
+    private int sketchWidth;
+    private int sketchDepth;
+    private final Map<TripleValueType, CountMinSketch> sketches = new EnumMap<>(TripleValueType.class);
+
     @Override
     public void setup(Context context) throws IOException, InterruptedException {
         super.setup(context);
@@ -53,13 +78,77 @@ public class ProspectorReducer extends Reducer<IntermediateProspect, LongWritabl
         truncatedDate = DateUtils.truncate(new Date(now), Calendar.MINUTE);
 
         this.plans = ProspectorUtils.planMap(manager.getPlans());
+
+        sketchEnabled = conf.getBoolean(SKETCH_ENABLED, false);
+        sketchWidth = conf.getInt(SKETCH_WIDTH, DEFAULT_SKETCH_WIDTH);
+        sketchDepth = conf.getInt(SKETCH_DEPTH, DEFAULT_SKETCH_DEPTH);
     }
 
     @Override
     protected void reduce(IntermediateProspect prospect, Iterable<LongWritable> values, Context context) throws IOException, InterruptedException {
         final IndexWorkPlan plan = plans.get(prospect.getIndex());
-        if (plan != null) {
+        if (plan == null) {
+            return;
+        }
+
+        if (sketchEnabled && COUNT.equals(prospect.getIndex())) {
+            // The values may only be iterated once, so sum them while the plan reads them.
+            final SummingIterable summing = new SummingIterable(values);
+            plan.reduce(prospect, summing, truncatedDate, context);
+
+            CountMinSketch sketch = sketches.get(prospect.getTripleValueType());
+            if (sketch == null) {
+                sketch = new CountMinSketch(sketchWidth, sketchDepth);
+                sketches.put(prospect.getTripleValueType(), sketch);
+            }
+            sketch.add(prospect.getData(), summing.sum);
+        } else {
             plan.reduce(prospect, values, truncatedDate, context);
         }
     }
+
+    @Override
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+        final String row = SKETCH + IndexWorkPlan.DELIM + ProspectorUtils.getReverseIndexDateTime(truncatedDate);
+        final String task = context.getTaskAttemptID().getTaskID().toString();
+        for (final Map.Entry<TripleValueType, CountMinSketch> entry : sketches.entrySet()) {
+            final Mutation m = new Mutation(row);
+            m.put(entry.getKey().getIndexType(), task, new ColumnVisibility(DEFAULT_VIS), truncatedDate.getTime(), new Value(entry.getValue().toBytes()));
+            ((Reducer.Context) context).write(null, m);
+        }
+        sketches.clear();
+
+        super.cleanup(context);
+    }
+
+    /**
+     * Sums the counts of an {@link Iterable} as they are read.
+     */
+    private static final class SummingIterable implements Iterable<LongWritable> {
+        private final Iterable<LongWritable> values;
+        private long sum = 0;
+
+        public SummingIterable(Iterable<LongWritable> values) {
+            this.values = values;
+        }
+
+        @Override
+        public Iterator<LongWritable> iterator() {
+            final Iterator<LongWritable> it = values.iterator();
+            return new Iterator<LongWritable>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public LongWritable next() {
+                    final LongWritable value = it.next();
+                    sum += value.get();
+                    return value;
+                }
+            };
+        }
+    }
 }
\ No newline at end of file
@@ -21,8 +21,11 @@ package org.apache.rya.prospector.service;
 import static java.util.Objects.requireNonNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
@@ -32,6 +35,7 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.rya.accumulo.AccumuloRdfConfiguration;
 import org.apache.rya.accumulo.utils.ConnectorFactory;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.persist.CachingRdfEvalStatsDAO;
 import org.apache.rya.api.persist.RdfDAOException;
 import org.apache.rya.api.persist.RdfEvalStatsDAO;
 import org.apache.rya.prospector.domain.IndexEntry;
@@ -45,6 +49,11 @@ import org.eclipse.rdf4j.model.Value;
  */
 public class ProspectorServiceEvalStatsDAO implements RdfEvalStatsDAO<RdfCloudTripleStoreConfiguration> {
 
+    /**
+     * The cached DAOs {@link #make(Connector, RdfCloudTripleStoreConfiguration)} hands out, keyed by what they read.
+     */
+    private static final Map<List<Object>, RdfEvalStatsDAO<RdfCloudTripleStoreConfiguration>> SHARED = new HashMap<>();
+
     private ProspectorService prospectorService;
 
     public ProspectorServiceEvalStatsDAO() {
@@ -73,6 +82,49 @@ public class ProspectorServiceEvalStatsDAO implements RdfEvalStatsDAO<RdfCloudTr
         return new ProspectorServiceEvalStatsDAO(ConnectorFactory.connect(accConfig), accConfig);
     }
 
+    /**
+     * Gets the {@link RdfEvalStatsDAO} that reads the Prospector's cardinalities for query optimization. It reads
+     * from a {@link SketchEvalStatsDAO} if {@link RdfCloudTripleStoreConfiguration#isUseStatsSketch()} is set, and
+     * from a {@link ProspectorServiceEvalStatsDAO} otherwise.
+     * <p>
+     * If {@link RdfCloudTripleStoreConfiguration#getStatsCacheSize()} is positive, the DAO is a
+     * {@link CachingRdfEvalStatsDAO} that is shared by every caller that reads the same prospects table as the
+     * same Accumulo user with the same authorizations. The first of those callers' cache settings are used.
+     * Otherwise a new, uncached DAO is created.
+     *
+     * @param connector - The Accumulo connector used to read the prospects table. (not null)
+     * @param conf - Names the prospects table and chooses which DAO is used. (not null)
+     * @return An {@link RdfEvalStatsDAO} that may not be initialized yet.
+     * @throws AccumuloException The prospects table couldn't be read because of an Accumulo problem.
+     * @throws AccumuloSecurityException The prospects table couldn't be read because of an Accumulo security violation.
+     */
+    public static RdfEvalStatsDAO<RdfCloudTripleStoreConfiguration> make(Connector connector, RdfCloudTripleStoreConfiguration conf) throws AccumuloException, AccumuloSecurityException {
+        requireNonNull(connector);
+        requireNonNull(conf);
+        if (conf.getStatsCacheSize() <= 0) {
+            return create(connector, conf);
+        }
+
+        final String[] auths = conf.getAuths();
+        final List<Object> key = Arrays.asList(connector.getInstance().getInstanceName(), connector.whoami(),
+                getProspectTableName(conf), conf.isUseStatsSketch(), auths == null ? null : Arrays.asList(auths));
+        synchronized (SHARED) {
+            RdfEvalStatsDAO<RdfCloudTripleStoreConfiguration> dao = SHARED.get(key);
+            if (dao == null) {
+                dao = new CachingRdfEvalStatsDAO<>(create(connector, conf), conf.getStatsCacheSize(), conf.getStatsCacheTtl());
+                SHARED.put(key, dao);
+            }
+            return dao;
+        }
+    }
+
+    private static RdfEvalStatsDAO<RdfCloudTripleStoreConfiguration> create(Connector connector, RdfCloudTripleStoreConfiguration conf) throws AccumuloException, AccumuloSecurityException {
+        if (conf.isUseStatsSketch()) {
+            return new SketchEvalStatsDAO(connector, conf);
+        }
+        return new ProspectorServiceEvalStatsDAO(connector, conf);
+    }
+
 
     @Override
     public void init() {
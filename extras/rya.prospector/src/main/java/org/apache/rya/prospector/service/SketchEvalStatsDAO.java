@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.prospector.service;
+
+import static java.util.Objects.requireNonNull;
+import static org.apache.rya.prospector.utils.ProspectorConstants.SKETCH;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.persist.RdfDAOException;
+import org.apache.rya.api.persist.RdfEvalStatsDAO;
+import org.apache.rya.prospector.domain.CountMinSketch;
+import org.apache.rya.prospector.domain.TripleValueType;
+import org.apache.rya.prospector.plans.IndexWorkPlan;
+import org.apache.rya.prospector.utils.ProspectorUtils;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+
+/**
+ * An {@link RdfEvalStatsDAO} that estimates cardinalities from the Count-Min sketches that the most recent
+ * Prospector run published. The sketches are read into memory when the DAO is initialized and whenever
+ * {@link #refresh()} is called, so answering a cardinality request does not touch Accumulo.
+ * <p>
+ * The Prospector only publishes sketches when {@link org.apache.rya.prospector.utils.ProspectorConstants#SKETCH_ENABLED}
+ * is set. An estimate is never lower than the count {@link ProspectorServiceEvalStatsDAO} would return for the
+ * same run, and it does not depend on the authorizations of the request.
+ * <p>
+ * Query optimization uses this DAO instead of {@link ProspectorServiceEvalStatsDAO} when
+ * {@link RdfCloudTripleStoreConfiguration#isUseStatsSketch()} is set; see
+ * {@link ProspectorServiceEvalStatsDAO#make(Connector, RdfCloudTripleStoreConfiguration)}.
+ */
+public class SketchEvalStatsDAO implements RdfEvalStatsDAO<RdfCloudTripleStoreConfiguration> {
+
+    private final Connector connector;
+    private final String tableName;
+    private final String[] auths;
+
+    private volatile Map<TripleValueType, CountMinSketch> sketches = Collections.emptyMap();
+    private volatile boolean initialized = false;
+
+    /**
+     * Constructs an instance of {@link SketchEvalStatsDAO}.
+     *
+     * @param connector - The Accumulo connector used to read the prospects table. (not null)
+     * @param conf - Names the prospects table and holds the authorizations it is read with. (not null)
+     */
+    public SketchEvalStatsDAO(final Connector connector, final RdfCloudTripleStoreConfiguration conf) {
+        this.connector = requireNonNull(connector);
+        requireNonNull(conf);
+        tableName = ProspectorServiceEvalStatsDAO.getProspectTableName(conf);
+        auths = conf.getAuths();
+    }
+
+    @Override
+    public void init() throws RdfDAOException {
+        refresh();
+        initialized = true;
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    @Override
+    public void destroy() {
+        sketches = Collections.emptyMap();
+        initialized = false;
+    }
+
+    /**
+     * Reads the sketches of the most recent Prospector run, replacing the ones that were read before.
+     *
+     * @throws RdfDAOException The prospects table could not be read.
+     */
+    public void refresh() throws RdfDAOException {
+        try {
+            final Iterator<Long> prospects = new ProspectorService(connector, tableName).getProspects(auths);
+            if (!prospects.hasNext()) {
+                sketches = Collections.emptyMap();
+                return;
+            }
+
+            // The metadata row is sorted by reverse index time, so the first prospect is the latest.
+            final Date latest = new Date(prospects.next());
+            final Scanner scanner = connector.createScanner(tableName, new Authorizations(auths));
+            scanner.setRange(Range.exact(SKETCH + IndexWorkPlan.DELIM + ProspectorUtils.getReverseIndexDateTime(latest)));
+
+            final Map<TripleValueType, CountMinSketch> read = new EnumMap<>(TripleValueType.class);
+            for (final Entry<Key, org.apache.accumulo.core.data.Value> entry : scanner) {
+                final TripleValueType type = fromIndexType(entry.getKey().getColumnFamily().toString());
+                if (type == null) {
+                    continue;
+                }
+
+                final CountMinSketch partial = CountMinSketch.fromBytes(entry.getValue().get());
+                final CountMinSketch sketch = read.get(type);
+                if (sketch == null) {
+                    read.put(type, partial);
+                } else {
+                    sketch.merge(partial);
+                }
+            }
+            sketches = read;
+        } catch (final AccumuloException | AccumuloSecurityException | TableNotFoundException e) {
+            throw new RdfDAOException("Could not read the Prospector's sketches from " + tableName, e);
+        }
+    }
+
+    @Override
+    public double getCardinality(final RdfCloudTripleStoreConfiguration conf, final CARDINALITY_OF card, final List<Value> val) throws RdfDAOException {
+        requireNonNull(card);
+        requireNonNull(val);
+
+        final CountMinSketch sketch = sketches.get(toTripleValueType(card));
+        if (sketch == null) {
+            return -1;
+        }
+
+        final StringBuilder data = new StringBuilder();
+        for (final Value value : val) {
+            if (data.length() > 0) {
+                data.append(IndexWorkPlan.DELIM);
+            }
+            data.append(value.stringValue());
+        }
+        return sketch.estimate(data.toString());
+    }
+
+    @Override
+    public double getCardinality(final RdfCloudTripleStoreConfiguration conf, final CARDINALITY_OF card, final List<Value> val, final Resource context) throws RdfDAOException {
+        return getCardinality(conf, card, val);
+    }
+
+    @Override
+    public void setConf(final RdfCloudTripleStoreConfiguration conf) {
+    }
+
+    @Override
+    public RdfCloudTripleStoreConfiguration getConf() {
+        return null;
+    }
+
+    private static TripleValueType toTripleValueType(final CARDINALITY_OF card) {
+        switch (card) {
+            case SUBJECT:
+                return TripleValueType.SUBJECT;
+            case PREDICATE:
+                return TripleValueType.PREDICATE;
+            case OBJECT:
+                return TripleValueType.OBJECT;
+            case SUBJECTPREDICATE:
+                return TripleValueType.SUBJECT_PREDICATE;
+            case SUBJECTOBJECT:
+                return TripleValueType.SUBJECT_OBJECT;
+            case PREDICATEOBJECT:
+                return TripleValueType.PREDICATE_OBJECT;
+            default:
+                return null;
+        }
+    }
+
+    private static TripleValueType fromIndexType(final String indexType) {
+        for (final TripleValueType type : TripleValueType.values()) {
+            if (type.getIndexType().equals(indexType)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -38,6 +38,12 @@ public class ProspectorConstants {
      */
     public static final String PROSPECT_TIME = "prospectTime";
 
+    /**
+     * The Row ID prefix within Accumulo for the Count-Min sketches of a Prospect run.
+     * The rest of the Row ID is the reverse index time of the run.
+     */
+    public static final String SKETCH = "sketch";
+
     public static final String DEFAULT_VIS = "U&FOUO";
     public static final byte[] EMPTY = new byte [0];
 
@@ -49,4 +55,14 @@ public class ProspectorConstants {
     public static final String INSTANCE = "instance";
     public static final String ZOOKEEPERS = "zookeepers";
     public static final String MOCK = "mock";
+
+    /**
+     * Whether the Prospector publishes a Count-Min sketch of the counts of each {@link org.apache.rya.prospector.domain.TripleValueType}.
+     */
+    public static final String SKETCH_ENABLED = "prospector.sketch.enabled";
+    public static final String SKETCH_WIDTH = "prospector.sketch.width";
+    public static final String SKETCH_DEPTH = "prospector.sketch.depth";
+
+    public static final int DEFAULT_SKETCH_WIDTH = 1 << 14;
+    public static final int DEFAULT_SKETCH_DEPTH = 5;
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.prospector.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the methods of {@link CountMinSketch}.
+ */
+public class CountMinSketchTest {
+
+    @Test
+    public void estimateIsNeverLow() {
+        final CountMinSketch sketch = new CountMinSketch(64, 4);
+        for(int i = 0; i < 1000; i++) {
+            sketch.add("urn:value:" + i, i % 10 + 1);
+        }
+
+        for(int i = 0; i < 1000; i++) {
+            assertTrue(sketch.estimate("urn:value:" + i) >= i % 10 + 1);
+        }
+    }
+
+    @Test
+    public void estimateIsExactWithoutCollisions() {
+        final CountMinSketch sketch = new CountMinSketch(1 << 14, 5);
+        sketch.add("urn:alice", 3);
+        sketch.add("urn:bob", 5);
+        sketch.add("urn:alice", 2);
+
+        assertEquals(5, sketch.estimate("urn:alice"));
+        assertEquals(5, sketch.estimate("urn:bob"));
+        assertEquals(0, sketch.estimate("urn:charlie"));
+        assertEquals(10, sketch.getTotal());
+    }
+
+    @Test
+    public void mergeAndSerialize() {
+        final CountMinSketch first = new CountMinSketch(1 << 10, 3);
+        first.add("urn:alice", 3);
+        final CountMinSketch second = new CountMinSketch(1 << 10, 3);
+        second.add("urn:alice", 4);
+        second.add("urn:bob", 1);
+
+        first.merge(CountMinSketch.fromBytes(second.toBytes()));
+
+        assertEquals(7, first.estimate("urn:alice"));
+        assertEquals(1, first.estimate("urn:bob"));
+        assertEquals(8, first.getTotal());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mergeDifferentDimensions() {
+        new CountMinSketch(16, 2).merge(new CountMinSketch(32, 2));
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.prospector.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.Instance;
+import org.apache.accumulo.core.client.mock.MockInstance;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.util.ToolRunner;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.AccumuloRyaDAO;
+import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.domain.RyaIRI;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.api.domain.RyaType;
+import org.apache.rya.api.persist.CachingRdfEvalStatsDAO;
+import org.apache.rya.api.persist.RdfEvalStatsDAO;
+import org.apache.rya.api.persist.RdfEvalStatsDAO.CARDINALITY_OF;
+import org.apache.rya.prospector.mr.Prospector;
+import org.apache.rya.prospector.utils.ProspectorConstants;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.junit.Test;
+
+/**
+ * Tests that show when the {@link Prospector} job is run with sketches enabled,
+ * the {@link SketchEvalStatsDAO} estimates the same counts the job wrote.
+ */
+public class SketchEvalStatsDAOTest {
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    @Test
+    public void testCount() throws Exception {
+        // Load some data into a mock Accumulo and run the Prospector MapReduce job.
+        final Instance mock = new MockInstance("accumulo");
+
+        final Connector connector = mock.getConnector("user", new PasswordToken("pass"));
+        final String outtable = "rya_prospects";
+        if (connector.tableOperations().exists(outtable)) {
+            connector.tableOperations().delete(outtable);
+        }
+        connector.tableOperations().create(outtable);
+
+        final AccumuloRyaDAO ryaDAO = new AccumuloRyaDAO();
+        ryaDAO.setConnector(connector);
+        ryaDAO.init();
+
+        ryaDAO.add(new RyaStatement(new RyaIRI("urn:gem:etype#1234"), new RyaIRI("urn:gem#pred"), new RyaType("mydata1")));
+        ryaDAO.add(new RyaStatement(new RyaIRI("urn:gem:etype#1234"), new RyaIRI("urn:gem#pred"), new RyaType("mydata2")));
+        ryaDAO.add(new RyaStatement(new RyaIRI("urn:gem:etype#1234"), new RyaIRI("urn:gem#pred"), new RyaType("12")));
+        ryaDAO.add(new RyaStatement(new RyaIRI("urn:gem:etype#1235"), new RyaIRI("urn:gem#pred"), new RyaType(XMLSchema.INTEGER, "12")));
+        ryaDAO.add(new RyaStatement(new RyaIRI("urn:gem:etype#1235"), new RyaIRI("urn:gem#pred1"), new RyaType("12")));
+
+        final String confFile = "stats_cluster_config.xml";
+        final Path confPath = new Path(getClass().getClassLoader().getResource(confFile).toString());
+        final String[] args = { confPath.toString() };
+        final Configuration jobConf = new Configuration();
+        jobConf.setBoolean(ProspectorConstants.SKETCH_ENABLED, true);
+        ToolRunner.run(jobConf, new Prospector(), args);
+
+        ryaDAO.destroy();
+
+        final Configuration conf = new Configuration();
+        conf.addResource(confPath);
+
+        final AccumuloRdfConfiguration rdfConf = new AccumuloRdfConfiguration(conf);
+        rdfConf.setAuths("U","FOUO");
+        rdfConf.setUseStatsSketch(true);
+        final RdfEvalStatsDAO<RdfCloudTripleStoreConfiguration> evalDao = ProspectorServiceEvalStatsDAO.make(connector, rdfConf);
+        assertTrue(evalDao instanceof CachingRdfEvalStatsDAO);
+        evalDao.init();
+
+        // Every caller that reads the sketches with the same authorizations shares the cached DAO.
+        assertSame(evalDao, ProspectorServiceEvalStatsDAO.make(connector, rdfConf));
+        final AccumuloRdfConfiguration otherAuths = new AccumuloRdfConfiguration(rdfConf);
+        otherAuths.setAuths("U");
+        assertNotSame(evalDao, ProspectorServiceEvalStatsDAO.make(connector, otherAuths));
+
+        // Without a cache, the sketches are read directly.
+        final AccumuloRdfConfiguration uncached = new AccumuloRdfConfiguration(rdfConf);
+        uncached.setStatsCacheSize(0);
+        assertTrue(ProspectorServiceEvalStatsDAO.make(connector, uncached) instanceof SketchEvalStatsDAO);
+
+        // Get the cardinality of the 'urn:gem#pred' predicate.
+        double count = evalDao.getCardinality(rdfConf, CARDINALITY_OF.PREDICATE, Arrays.asList(VF.createIRI("urn:gem#pred")));
+        assertEquals(4.0, count, 0.001);
+
+        // Get the cardinality of the 'mydata1' object.
+        count = evalDao.getCardinality(rdfConf, CARDINALITY_OF.OBJECT, Arrays.asList(VF.createLiteral("mydata1")));
+        assertEquals(1.0, count, 0.001);
+
+        // Get the cardinality of the 'urn:gem:etype#1234' subject with the 'urn:gem#pred' predicate.
+        count = evalDao.getCardinality(rdfConf, CARDINALITY_OF.SUBJECTPREDICATE,
+                Arrays.asList(VF.createIRI("urn:gem:etype#1234"), VF.createIRI("urn:gem#pred")));
+        assertEquals(3.0, count, 0.001);
+
+        // The 'mydata3' object was never counted.
+        count = evalDao.getCardinality(rdfConf, CARDINALITY_OF.OBJECT, Arrays.asList(VF.createLiteral("mydata3")));
+        assertEquals(0.0, count, 0.001);
+    }
+
+    @Test
+    public void testNoSketches() throws Exception {
+        final Connector connector = new MockInstance("sketches").getConnector("user", new PasswordToken("pass"));
+        final AccumuloRdfConfiguration rdfConf = new AccumuloRdfConfiguration();
+        rdfConf.setTablePrefix("rya_");
+        connector.tableOperations().create(ProspectorServiceEvalStatsDAO.getProspectTableName(rdfConf));
+
+        // The Prospector has not run, so there is nothing to estimate from.
+        final SketchEvalStatsDAO evalDao = new SketchEvalStatsDAO(connector, rdfConf);
+        evalDao.init();
+        final double count = evalDao.getCardinality(rdfConf, CARDINALITY_OF.PREDICATE, Arrays.asList(VF.createIRI("urn:gem#pred")));
+        assertEquals(-1.0, count, 0.001);
+    }
+}
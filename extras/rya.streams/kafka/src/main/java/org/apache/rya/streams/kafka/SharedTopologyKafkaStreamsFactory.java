@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.kafka;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Function;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.processor.TopologyBuilder;
+import org.apache.rya.api.function.projection.RandomUUIDFactory;
+import org.apache.rya.streams.api.entity.StreamsQuery;
+import org.apache.rya.streams.kafka.KafkaStreamsFactory.KafkaStreamsFactoryException;
+import org.apache.rya.streams.kafka.serialization.SerializationFormat;
+import org.apache.rya.streams.kafka.topology.SharedTopologyFactory;
+import org.apache.rya.streams.kafka.topology.TopologyBuilderFactory.TopologyBuilderException;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Creates {@link KafkaStreams} objects that process a group of {@link StreamsQuery}s using one
+ * topology that is built by {@link SharedTopologyFactory}. The jobs start from the earliest point
+ * within the input topic.
+ * <p>
+ * Kafka Streams runs one task per partition of the statements topic, so a job runs as many stream
+ * threads as this factory was configured with, but no more than the topic has partitions. The
+ * topology does not repartition the statements by join key, so each join only sees the statements
+ * of its own partition. Statements topics that are joined against should have a single partition.
+ */
+@DefaultAnnotation(NonNull.class)
+public class SharedTopologyKafkaStreamsFactory {
+
+    private final String bootstrapServersConfig;
+    private final int numThreads;
+    private final Function<StreamsQuery, SerializationFormat> formats;
+
+    /**
+     * Constructs an instance of {@link SharedTopologyKafkaStreamsFactory} whose jobs use up to a stream
+     * thread for each available processor and {@link SerializationFormat#JAVA}.
+     *
+     * @param bootstrapServersConfig - Configures which Kafka cluster the jobs will interact with. (not null)
+     */
+    public SharedTopologyKafkaStreamsFactory(final String bootstrapServersConfig) {
+        this(bootstrapServersConfig, Runtime.getRuntime().availableProcessors(), query -> SerializationFormat.JAVA);
+    }
+
+    /**
+     * Constructs an instance of {@link SharedTopologyKafkaStreamsFactory}.
+     *
+     * @param bootstrapServersConfig - Configures which Kafka cluster the jobs will interact with. (not null)
+     * @param numThreads - The most stream threads each job runs. (&gt; 0)
+     * @param formats - Picks the format each query's state and results are serialized with. (not null)
+     */
+    public SharedTopologyKafkaStreamsFactory(
+            final String bootstrapServersConfig,
+            final int numThreads,
+            final Function<StreamsQuery, SerializationFormat> formats) {
+        this.bootstrapServersConfig = requireNonNull(bootstrapServersConfig);
+        checkArgument(numThreads > 0, "A job must run at least one stream thread.");
+        this.numThreads = numThreads;
+        this.formats = requireNonNull(formats);
+    }
+
+    /**
+     * Builds a {@link KafkaStreams} object that processes a group of queries.
+     *
+     * @param ryaInstance - The Rya Instance the streams job is for. (not null)
+     * @param applicationId - The Application ID the job uses. A job that is restarted with the same
+     *   ID resumes where it left off. (not null)
+     * @param queries - Defines the queries that will be executed. (not null, not empty)
+     * @return A {@link KafkaStreams} object that will process the provided queries.
+     * @throws KafkaStreamsFactoryException Unable to create a {@link KafkaStreams} object from the provided values.
+     */
+    public KafkaStreams make(
+            final String ryaInstance,
+            final String applicationId,
+            final Collection<StreamsQuery> queries) throws KafkaStreamsFactoryException {
+        requireNonNull(ryaInstance);
+        requireNonNull(applicationId);
+        requireNonNull(queries);
+
+        // Setup the Kafka Stream program.
+        final Properties streamsProps = new Properties();
+
+        // Configure the Kafka servers that will be talked to.
+        streamsProps.setProperty(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServersConfig);
+
+        // The caller picks the Application ID so that a group of queries resumes where it left off.
+        streamsProps.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+
+        // Spread the job's tasks over the configured number of threads. Threads without a task stay idle.
+        final int partitions = countPartitions(KafkaTopics.statementsTopic(ryaInstance));
+        streamsProps.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, Math.min(numThreads, partitions));
+
+        // Always start at the beginning of the input topic.
+        streamsProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        try {
+            final TopologyBuilder topologyBuilder = new SharedTopologyFactory().build(ryaInstance, queries, new RandomUUIDFactory(), formats);
+            return new KafkaStreams(topologyBuilder, new StreamsConfig(streamsProps));
+        } catch (final MalformedQueryException | TopologyBuilderException e) {
+            throw new KafkaStreamsFactoryException("Could not create a KafkaStreams processing topology for job " + applicationId, e);
+        }
+    }
+
+    /**
+     * @param topic - The topic whose partitions are counted. (not null)
+     * @return The number of partitions of the topic, or 1 if it does not exist yet.
+     */
+    private int countPartitions(final String topic) {
+        final Properties consumerProps = new Properties();
+        consumerProps.setProperty(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServersConfig);
+        try(final KafkaConsumer<byte[], byte[]> consumer =
+                new KafkaConsumer<>(consumerProps, new ByteArrayDeserializer(), new ByteArrayDeserializer())) {
+            final List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+            return partitions == null || partitions.isEmpty() ? 1 : partitions.size();
+        }
+    }
+}
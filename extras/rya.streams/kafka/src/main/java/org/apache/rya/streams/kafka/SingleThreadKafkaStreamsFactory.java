@@ -21,6 +21,7 @@ package org.apache.rya.streams.kafka;
 import static java.util.Objects.requireNonNull;
 
 import java.util.Properties;
+import java.util.function.Function;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.streams.KafkaStreams;
@@ -28,6 +29,7 @@ import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.processor.TopologyBuilder;
 import org.apache.rya.api.function.projection.RandomUUIDFactory;
 import org.apache.rya.streams.api.entity.StreamsQuery;
+import org.apache.rya.streams.kafka.serialization.SerializationFormat;
 import org.apache.rya.streams.kafka.topology.TopologyBuilderFactory;
 import org.apache.rya.streams.kafka.topology.TopologyBuilderFactory.TopologyBuilderException;
 import org.apache.rya.streams.kafka.topology.TopologyFactory;
@@ -49,14 +51,29 @@ public class SingleThreadKafkaStreamsFactory implements KafkaStreamsFactory {
     private final TopologyBuilderFactory topologyFactory = new TopologyFactory();
 
     private final String bootstrapServersConfig;
+    private final Function<StreamsQuery, SerializationFormat> formats;
 
     /**
-     * Constructs an instance of {@link SingleThreadKafkaStreamsFactory}.
+     * Constructs an instance of {@link SingleThreadKafkaStreamsFactory} whose jobs use
+     * {@link SerializationFormat#JAVA}.
      *
      * @param bootstrapServersConfig - Configures which Kafka cluster the jobs will interact with. (not null)
      */
     public SingleThreadKafkaStreamsFactory(final String bootstrapServersConfig) {
+        this(bootstrapServersConfig, query -> SerializationFormat.JAVA);
+    }
+
+    /**
+     * Constructs an instance of {@link SingleThreadKafkaStreamsFactory}.
+     *
+     * @param bootstrapServersConfig - Configures which Kafka cluster the jobs will interact with. (not null)
+     * @param formats - Picks the format each query's state and results are serialized with. (not null)
+     */
+    public SingleThreadKafkaStreamsFactory(
+            final String bootstrapServersConfig,
+            final Function<StreamsQuery, SerializationFormat> formats) {
         this.bootstrapServersConfig = requireNonNull(bootstrapServersConfig);
+        this.formats = requireNonNull(formats);
     }
 
     @Override
@@ -81,7 +98,8 @@ public class SingleThreadKafkaStreamsFactory implements KafkaStreamsFactory {
         final String resultsTopic = KafkaTopics.queryResultsTopic(ryaInstance, query.getQueryId());
 
         try {
-            final TopologyBuilder topologyBuilder = topologyFactory.build(query.getSparql(), statementsTopic, resultsTopic, new RandomUUIDFactory());
+            final TopologyBuilder topologyBuilder = topologyFactory.build(query.getSparql(), statementsTopic, resultsTopic,
+                    new RandomUUIDFactory(), formats.apply(query));
             return new KafkaStreams(topologyBuilder, new StreamsConfig(streamsProps));
         } catch (final MalformedQueryException | TopologyBuilderException e) {
             throw new KafkaStreamsFactoryException("Could not create a KafkaStreams processing topology for query " + query.getQueryId(), e);
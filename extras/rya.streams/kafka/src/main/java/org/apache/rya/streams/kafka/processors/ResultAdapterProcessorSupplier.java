@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.kafka.processors;
+
+import org.apache.kafka.streams.processor.Processor;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.rya.streams.kafka.processors.ProcessorResult.ResultType;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Supplies {@link ResultAdapterProcessor} instances.
+ */
+@DefaultAnnotation(NonNull.class)
+public class ResultAdapterProcessorSupplier extends RyaStreamsProcessorSupplier {
+
+    /**
+     * Constructs an instance of {@link ResultAdapterProcessorSupplier}.
+     *
+     * @param resultFactory - The factory that the supplied processors will use to create results. (not null)
+     */
+    public ResultAdapterProcessorSupplier(final ProcessorResultFactory resultFactory) {
+        super(resultFactory);
+    }
+
+    @Override
+    public Processor<Object, ProcessorResult> get() {
+        return new ResultAdapterProcessor(super.getResultFactory());
+    }
+
+    /**
+     * Forwards every unary result it is given after rewrapping its binding set using its
+     * {@link ProcessorResultFactory}. This lets a processor whose results are read by many downstream
+     * processors emit unary results, while each downstream processor still receives the side it expects.
+     */
+    @DefaultAnnotation(NonNull.class)
+    public static class ResultAdapterProcessor extends RyaStreamsProcessor {
+
+        private ProcessorContext context;
+
+        /**
+         * Constructs an instance of {@link ResultAdapterProcessor}.
+         *
+         * @param resultFactory - The factory that the processor will use to create results. (not null)
+         */
+        public ResultAdapterProcessor(final ProcessorResultFactory resultFactory) {
+            super(resultFactory);
+        }
+
+        @Override
+        public void init(final ProcessorContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public void process(final Object key, final ProcessorResult value) {
+            // Only unary results are rewrapped.
+            if (value.getType() != ResultType.UNARY) {
+                throw new RuntimeException("The ProcessorResult to be processed must be Unary.");
+            }
+            context.forward(key, super.getResultFactory().make(value.getUnary().getResult()));
+        }
+
+        @Override
+        public void punctuate(final long timestamp) {
+            // Do nothing.
+        }
+
+        @Override
+        public void close() {
+            // Do nothing.
+        }
+    }
+}
@@ -22,6 +22,7 @@ import static java.util.Objects.requireNonNull;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.apache.kafka.streams.processor.Processor;
@@ -53,9 +54,12 @@ public class JoinProcessorSupplier extends RyaStreamsProcessorSupplier {
     private final IterativeJoin join;
     private final List<String> joinVars;
     private final List<String> allVars;
+    private final Optional<JoinWindow> window;
+    private final Optional<UUID> queryId;
 
     /**
-     * Constructs an instance of {@link JoinProcessorSupplier}.
+     * Constructs an instance of {@link JoinProcessorSupplier} whose processors join against
+     * every binding set that has ever been emitted.
      *
      * @param stateStoreName - The name of the state store the processor will use. (not null)
      * @param join - The join function the supplied processor will use. (not null)
@@ -71,11 +75,66 @@ public class JoinProcessorSupplier extends RyaStreamsProcessorSupplier {
             final List<String> joinVars,
             final List<String> allVars,
             final ProcessorResultFactory resultFactory) throws IllegalArgumentException {
+        this(stateStoreName, join, joinVars, allVars, Optional.empty(), resultFactory);
+    }
+
+    /**
+     * Constructs an instance of {@link JoinProcessorSupplier} whose processors take the ID of their query
+     * from the end of the application ID.
+     *
+     * @param stateStoreName - The name of the state store the processor will use. If {@code window} is present,
+     *   the store must have byte[] keys and values, otherwise it must have String keys and
+     *   {@link VisibilityBindingSet} values. (not null)
+     * @param join - The join function the supplied processor will use. (not null)
+     * @param joinVars - The variables that the supplied processor will join over. (not null)
+     * @param allVars - An ordered list of all the variables that may appear in resulting Binding Sets.
+     *   This list must lead with the same variables and order as {@code joinVars}. (not null)
+     * @param window - Limits which binding sets are joined with, if present. (not null)
+     * @param resultFactory - The factory that the supplied processors will use to create results. (not null)
+     * @throws IllegalArgumentException Thrown if {@code allVars} does not start with {@code joinVars}.
+     */
+    public JoinProcessorSupplier(
+            final String stateStoreName,
+            final IterativeJoin join,
+            final List<String> joinVars,
+            final List<String> allVars,
+            final Optional<JoinWindow> window,
+            final ProcessorResultFactory resultFactory) throws IllegalArgumentException {
+        this(stateStoreName, join, joinVars, allVars, window, Optional.empty(), resultFactory);
+    }
+
+    /**
+     * Constructs an instance of {@link JoinProcessorSupplier}.
+     *
+     * @param stateStoreName - The name of the state store the processor will use. If {@code window} is present,
+     *   the store must have byte[] keys and values, otherwise it must have String keys and
+     *   {@link VisibilityBindingSet} values. (not null)
+     * @param join - The join function the supplied processor will use. (not null)
+     * @param joinVars - The variables that the supplied processor will join over. (not null)
+     * @param allVars - An ordered list of all the variables that may appear in resulting Binding Sets.
+     *   This list must lead with the same variables and order as {@code joinVars}. (not null)
+     * @param window - Limits which binding sets are joined with, if present. (not null)
+     * @param queryId - The ID of the query the join belongs to. If it is not present, the processors take it
+     *   from the end of the application ID, which only names the query when the application runs just that
+     *   query. (not null)
+     * @param resultFactory - The factory that the supplied processors will use to create results. (not null)
+     * @throws IllegalArgumentException Thrown if {@code allVars} does not start with {@code joinVars}.
+     */
+    public JoinProcessorSupplier(
+            final String stateStoreName,
+            final IterativeJoin join,
+            final List<String> joinVars,
+            final List<String> allVars,
+            final Optional<JoinWindow> window,
+            final Optional<UUID> queryId,
+            final ProcessorResultFactory resultFactory) throws IllegalArgumentException {
         super(resultFactory);
         this.stateStoreName = requireNonNull(stateStoreName);
         this.join = requireNonNull(join);
         this.joinVars = requireNonNull(joinVars);
         this.allVars = requireNonNull(allVars);
+        this.window = requireNonNull(window);
+        this.queryId = requireNonNull(queryId);
 
         if(!allVars.subList(0, joinVars.size()).equals(joinVars)) {
             throw new IllegalArgumentException("The allVars list must start with the joinVars list, but it did not. " +
@@ -85,14 +144,14 @@ public class JoinProcessorSupplier extends RyaStreamsProcessorSupplier {
 
     @Override
     public Processor<Object, ProcessorResult> get() {
-        return new JoinProcessor(stateStoreName, join, joinVars, allVars, super.getResultFactory());
+        return new JoinProcessor(stateStoreName, join, joinVars, allVars, window, queryId, super.getResultFactory());
     }
 
     /**
-     * Joins {@link VisibilityBindingSet}s against all binding sets that were emitted on the other side. This function
-     * does not have an age off policy, so it will match everything that could have ever possibly matched, however this
-     * may become prohibitive for joins that match a large volume of binding sets since this will indefinitely grow
-     * within the state store.
+     * Joins {@link VisibilityBindingSet}s against the binding sets that were emitted on the other side. Without a
+     * {@link JoinWindow} there is no age off policy, so it will match everything that could have ever possibly matched,
+     * however this may become prohibitive for joins that match a large volume of binding sets since this will
+     * indefinitely grow within the state store. With one, only the binding sets within the window are kept.
      */
     @DefaultAnnotation(NonNull.class)
     public static class JoinProcessor extends RyaStreamsProcessor {
@@ -103,10 +162,13 @@ public class JoinProcessorSupplier extends RyaStreamsProcessorSupplier {
         private final IterativeJoin join;
         private final List<String> joinVars;
         private final List<String> allVars;
+        private final Optional<JoinWindow> window;
+        private final Optional<UUID> queryId;
         private final ProcessorResultFactory resultFactory;
 
         private ProcessorContext context;
         private JoinStateStore joinStateStore;
+        private WindowedJoinStateStore windowedStateStore = null;
 
         /**
          * Constructs an instance of {@link JoinProcessor}.
@@ -116,6 +178,9 @@ public class JoinProcessorSupplier extends RyaStreamsProcessorSupplier {
          * @param joinVars - The variables that the processor will join over. (not null)
          * @param allVars - An ordered list of all the variables that may appear in resulting Binding Sets.
          *   This list must lead with the same variables and order as {@code joinVars}. (not null)
+         * @param window - Limits which binding sets are joined with, if present. (not null)
+         * @param queryId - The ID of the query the join belongs to. If it is not present, it is taken
+         *   from the end of the application ID. (not null)
          * @param resultFactory - The factory that will format this processor's final results
          *   for the downstream processor. (not null)
          */
@@ -124,12 +189,16 @@ public class JoinProcessorSupplier extends RyaStreamsProcessorSupplier {
                 final IterativeJoin join,
                 final List<String> joinVars,
                 final List<String> allVars,
+                final Optional<JoinWindow> window,
+                final Optional<UUID> queryId,
                 final ProcessorResultFactory resultFactory) {
             super(resultFactory);
             this.stateStoreName = requireNonNull(stateStoreName);
             this.join = requireNonNull(join);
             this.joinVars = requireNonNull(joinVars);
             this.allVars = requireNonNull(allVars);
+            this.window = requireNonNull(window);
+            this.queryId = requireNonNull(queryId);
             this.resultFactory = requireNonNull(resultFactory);
 
             if(!allVars.subList(0, joinVars.size()).equals(joinVars)) {
@@ -143,13 +212,27 @@ public class JoinProcessorSupplier extends RyaStreamsProcessorSupplier {
             // Hold onto the context so that we can forward results.
             this.context = context;
 
-            final String appId = context.applicationId();
-            final UUID queryId = UuidUtils.extractUuidFromStringEnd(appId);
+            if(window.isPresent()) {
+                // Get a reference to the state store that keeps track of what can be joined with.
+                final KeyValueStore<byte[], byte[]> stateStore =
+                        (KeyValueStore<byte[], byte[]>) context.getStateStore( stateStoreName );
+                windowedStateStore = new WindowedJoinStateStore( stateStore, joinVars, allVars, window.get(), context::timestamp );
+                joinStateStore = windowedStateStore;
+
+                // Periodically sweep away the binding sets of join values that are no longer being read.
+                if(window.get().getType() == JoinWindow.Type.TIME) {
+                    context.schedule( window.get().getSize() );
+                }
+                return;
+            }
+
+            // An application that runs a single query is named after it.
+            final UUID id = queryId.orElseGet(() -> UuidUtils.extractUuidFromStringEnd(context.applicationId()));
 
             // Get a reference to the state store that keeps track of what can be joined with.
             final KeyValueStore<String, VisibilityBindingSet> stateStore =
                     (KeyValueStore<String, VisibilityBindingSet>) context.getStateStore( stateStoreName );
-            joinStateStore = new KeyValueJoinStateStore( stateStore, queryId.toString(), joinVars, allVars );
+            joinStateStore = new KeyValueJoinStateStore( stateStore, id.toString(), joinVars, allVars );
         }
 
         @Override
@@ -186,7 +269,9 @@ public class JoinProcessorSupplier extends RyaStreamsProcessorSupplier {
 
         @Override
         public void punctuate(final long timestamp) {
-            // Nothing to do.
+            if(windowedStateStore != null) {
+                windowedStateStore.evictExpired(timestamp);
+            }
         }
 
         @Override
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.kafka.processors.join;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Limits which previously emitted binding sets a streaming join will match against. A time window
+ * only matches binding sets that were emitted at most {@link #getSize()} milliseconds before the
+ * one being joined, and a count window only matches the {@link #getSize()} most recent binding sets
+ * that share its join values. Binding sets that fall out of the window are removed from the join's
+ * state store.
+ * <p>
+ * A query asks for a window with a comment hint on a line of its own, for example:
+ * <pre>
+ * # rya:joinWindow time=PT10M
+ * SELECT * WHERE { ... }
+ * </pre>
+ * The time is an ISO-8601 duration. {@code count=1000} asks for a count window instead.
+ */
+@DefaultAnnotation(NonNull.class)
+public class JoinWindow {
+
+    private static final Pattern HINT = Pattern.compile("(?m)^\\s*#\\s*rya:joinWindow\\s+(time|count)\\s*=\\s*(\\S+)\\s*$");
+
+    /**
+     * How a {@link JoinWindow} is measured.
+     */
+    public static enum Type {
+        /**
+         * The window is a number of milliseconds.
+         */
+        TIME,
+
+        /**
+         * The window is a number of binding sets per join value.
+         */
+        COUNT;
+    }
+
+    private final Type type;
+    private final long size;
+
+    private JoinWindow(final Type type, final long size) {
+        this.type = requireNonNull(type);
+        checkArgument(size > 0, "The size of a join window must be positive.");
+        this.size = size;
+    }
+
+    /**
+     * @param millis - How long a binding set may be joined with after it was emitted. (&gt; 0)
+     * @return A time window.
+     */
+    public static JoinWindow ofTime(final long millis) {
+        return new JoinWindow(Type.TIME, millis);
+    }
+
+    /**
+     * @param count - How many of the most recent binding sets for each join value are kept. (&gt; 0)
+     * @return A count window.
+     */
+    public static JoinWindow ofCount(final long count) {
+        return new JoinWindow(Type.COUNT, count);
+    }
+
+    /**
+     * Finds the join window hint within a SPARQL query.
+     *
+     * @param sparql - The query that may hold a hint. (not null)
+     * @return The window the query asked for, if it asked for one.
+     * @throws IllegalArgumentException The hint's size could not be parsed.
+     */
+    public static Optional<JoinWindow> fromSparql(final String sparql) throws IllegalArgumentException {
+        requireNonNull(sparql);
+        final Matcher matcher = HINT.matcher(sparql);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+
+        final String value = matcher.group(2);
+        try {
+            if (matcher.group(1).equals("time")) {
+                return Optional.of(ofTime(Duration.parse(value).toMillis()));
+            }
+            return Optional.of(ofCount(Long.parseLong(value)));
+        } catch (final DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Could not parse the join window size: " + value, e);
+        }
+    }
+
+    /**
+     * @return How the window is measured.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The number of milliseconds or binding sets the window holds.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, size);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o instanceof JoinWindow) {
+            final JoinWindow other = (JoinWindow) o;
+            return type == other.type && size == other.size;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "JoinWindow " + type + " " + size;
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.kafka.processors.join;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.LongSupplier;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.api.utils.CloseableIterator;
+import org.apache.rya.streams.kafka.processors.ProcessorResult.BinaryResult;
+import org.apache.rya.streams.kafka.processors.ProcessorResult.BinaryResult.Side;
+import org.apache.rya.streams.kafka.processors.join.JoinWindow.Type;
+import org.apache.rya.streams.kafka.serialization.BinarySerialization;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A {@link JoinStateStore} that only holds the binding sets that fall within a {@link JoinWindow}.
+ * <p>
+ * Keys are binary. They start with a byte for the side, followed by the join variables' values and
+ * then the remaining variables' values. Each value is written as a type byte followed by
+ * length prefixed strings, so no value's encoding is a prefix of another's. That means every
+ * binding set that joins with a side and set of join values can be fetched by scanning from the
+ * key's prefix to the prefix followed by 0xFF, without the range marker rows that
+ * {@link KeyValueJoinStateStore} writes. Values hold the time the binding set was stored followed
+ * by the binding set written using {@link BinarySerialization}.
+ * <p>
+ * Binding sets are evicted one join key at a time. A count window trims the stored side's join key
+ * whenever a binding set is stored. A time window drops expired binding sets while the other side
+ * reads them, and {@link #evictExpired(long)} sweeps the join keys that are no longer read.
+ * <p>
+ * So that the sweep does not scan the whole store, a time window also writes an index row for each
+ * binding set it stores. Index rows start with a byte that sorts after both sides, followed by the
+ * time the binding set was stored and then the binding set's key, so the binding sets that have
+ * expired are the index rows in a single range.
+ */
+@DefaultAnnotation(NonNull.class)
+public class WindowedJoinStateStore implements JoinStateStore {
+
+    private static final Logger log = LoggerFactory.getLogger(WindowedJoinStateStore.class);
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte IRI_VALUE = 1;
+    private static final byte BNODE_VALUE = 2;
+    private static final byte LITERAL_VALUE = 3;
+
+    /**
+     * The first byte of the rows that index a time window's binding sets by the time they were stored.
+     */
+    private static final byte TIME_INDEX = 2;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * Sorts after the type byte of every value, so it ends a range scan over a key prefix.
+     */
+    private static final byte END_OF_RANGE = (byte) 0xFF;
+
+    private final KeyValueStore<byte[], byte[]> store;
+    private final List<String> joinVars;
+    private final List<String> allVars;
+    private final JoinWindow window;
+    private final LongSupplier clock;
+
+    /**
+     * Constructs an instance of {@link WindowedJoinStateStore}.
+     *
+     * @param store - The state store that will be used. (not null)
+     * @param joinVars - The variables that are used to build grouping keys. (not null)
+     * @param allVars - The variables that are used to build full value keys. (not null)
+     * @param window - Which binding sets are kept. (not null)
+     * @param clock - Provides the time of the binding set that is being stored or joined. (not null)
+     * @throws IllegalArgumentException Thrown if {@code allVars} does not start with {@code joinVars}.
+     */
+    public WindowedJoinStateStore(
+            final KeyValueStore<byte[], byte[]> store,
+            final List<String> joinVars,
+            final List<String> allVars,
+            final JoinWindow window,
+            final LongSupplier clock) throws IllegalArgumentException {
+        this.store = requireNonNull(store);
+        this.joinVars = requireNonNull(joinVars);
+        this.allVars = requireNonNull(allVars);
+        this.window = requireNonNull(window);
+        this.clock = requireNonNull(clock);
+
+        if(!allVars.subList(0, joinVars.size()).equals(joinVars)) {
+            throw new IllegalArgumentException("All vars must be lead by the join vars, but it did not. " +
+                    "Join Vars: " + joinVars + ", All Vars: " + allVars);
+        }
+    }
+
+    @Override
+    public void store(final BinaryResult result) {
+        requireNonNull(result);
+
+        final VisibilityBindingSet bs = result.getResult();
+        final ByteArrayOutputStream key = new ByteArrayOutputStream();
+        writeKey(key, result.getSide(), bs, joinVars);
+        final byte[] prefix = key.toByteArray();
+        for(final String var : allVars.subList(joinVars.size(), allVars.size())) {
+            writeValue(key, bs.hasBinding(var) ? bs.getValue(var) : null);
+        }
+
+        final byte[] valueKey = key.toByteArray();
+        final long now = clock.getAsLong();
+        final byte[] value = ByteBuffer.allocate(8).putLong(now).array();
+        store.put(valueKey, concat(value, BinarySerialization.serialize(bs)));
+
+        if(window.getType() == Type.COUNT) {
+            trim(prefix, valueKey);
+        } else {
+            store.put(indexKey(now, valueKey), EMPTY);
+        }
+    }
+
+    @Override
+    public CloseableIterator<VisibilityBindingSet> getJoinedValues(final BinaryResult result) {
+        requireNonNull(result);
+
+        final Side otherSide = result.getSide() == Side.LEFT ? Side.RIGHT : Side.LEFT;
+        final ByteArrayOutputStream key = new ByteArrayOutputStream();
+        writeKey(key, otherSide, result.getResult(), joinVars);
+        final byte[] prefix = key.toByteArray();
+
+        final long oldest = window.getType() == Type.TIME ? clock.getAsLong() - window.getSize() : Long.MIN_VALUE;
+        final KeyValueIterator<byte[], byte[]> rangeIt = store.range(prefix, concat(prefix, new byte[] { END_OF_RANGE }));
+
+        // Skip the binding sets that have aged out of the window, and evict them once the scan is closed.
+        return new CloseableIterator<VisibilityBindingSet>() {
+            private final List<KeyValue<byte[], Long>> expired = new ArrayList<>();
+            private VisibilityBindingSet next = null;
+
+            @Override
+            public boolean hasNext() {
+                while(next == null && rangeIt.hasNext()) {
+                    final KeyValue<byte[], byte[]> entry = rangeIt.next();
+                    final long timestamp = timestamp(entry.value);
+                    if(timestamp < oldest) {
+                        expired.add(new KeyValue<>(entry.key, timestamp));
+                    } else {
+                        next = bindingSet(entry.value);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public VisibilityBindingSet next() {
+                if(!hasNext()) {
+                    throw new NoSuchElementException("May not invoke next() when there is nothing left in the Iterator.");
+                }
+                final VisibilityBindingSet ret = next;
+                next = null;
+                return ret;
+            }
+
+            @Override
+            public void close() throws Exception {
+                rangeIt.close();
+                for(final KeyValue<byte[], Long> expiredEntry : expired) {
+                    store.delete(expiredEntry.key);
+                    store.delete(indexKey(expiredEntry.value, expiredEntry.key));
+                }
+                if(!expired.isEmpty()) {
+                    log.debug("Evicted {} binding sets that fell out of the {}.", expired.size(), window);
+                }
+            }
+        };
+    }
+
+    /**
+     * Removes every binding set that has fallen out of a time window. Only the index rows of the
+     * binding sets that were stored before the window began are read. Does nothing for count windows,
+     * which are trimmed as binding sets are stored.
+     *
+     * @param now - The current stream time.
+     */
+    public void evictExpired(final long now) {
+        if(window.getType() != Type.TIME) {
+            return;
+        }
+
+        // Index rows sort by time, and a row stored at the oldest time sorts after the bare time.
+        final long oldest = now - window.getSize();
+        final List<byte[]> expired = new ArrayList<>();
+        final KeyValueIterator<byte[], byte[]> it = store.range(new byte[] { TIME_INDEX }, indexKey(oldest, EMPTY));
+        try {
+            while(it.hasNext()) {
+                expired.add(it.next().key);
+            }
+        } finally {
+            it.close();
+        }
+
+        int evicted = 0;
+        for(final byte[] indexKey : expired) {
+            // The binding set may have been stored again since, in which case a newer index row covers it.
+            final byte[] valueKey = Arrays.copyOfRange(indexKey, 9, indexKey.length);
+            final byte[] value = store.get(valueKey);
+            if(value != null && timestamp(value) < oldest) {
+                store.delete(valueKey);
+                evicted++;
+            }
+            store.delete(indexKey);
+        }
+        log.debug("Evicted {} binding sets that fell out of the {}.", evicted, window);
+    }
+
+    /**
+     * Removes the oldest binding sets of a join key once it holds more than a count window allows.
+     * The binding set that was just stored is always kept, even if others were stored at the same time.
+     */
+    private void trim(final byte[] prefix, final byte[] storedKey) {
+        final List<KeyValue<byte[], Long>> entries = new ArrayList<>();
+        final KeyValueIterator<byte[], byte[]> it = store.range(prefix, concat(prefix, new byte[] { END_OF_RANGE }));
+        try {
+            while(it.hasNext()) {
+                final KeyValue<byte[], byte[]> entry = it.next();
+                if(!Arrays.equals(entry.key, storedKey)) {
+                    entries.add(new KeyValue<>(entry.key, timestamp(entry.value)));
+                }
+            }
+        } finally {
+            it.close();
+        }
+
+        final long excess = entries.size() + 1 - window.getSize();
+        if(excess > 0) {
+            entries.sort(Comparator.comparing(entry -> entry.value));
+            for(int i = 0; i < excess; i++) {
+                store.delete(entries.get(i).key);
+            }
+        }
+    }
+
+    private static void writeKey(final ByteArrayOutputStream key, final Side side, final VisibilityBindingSet bs, final List<String> vars) {
+        key.write(side == Side.LEFT ? 0 : 1);
+        for(final String var : vars) {
+            writeValue(key, bs.hasBinding(var) ? bs.getValue(var) : null);
+        }
+    }
+
+    private static void writeValue(final ByteArrayOutputStream key, final Value value) {
+        if(value == null) {
+            key.write(NULL_VALUE);
+        } else if(value instanceof IRI) {
+            key.write(IRI_VALUE);
+            writeString(key, value.stringValue());
+        } else if(value instanceof BNode) {
+            key.write(BNODE_VALUE);
+            writeString(key, value.stringValue());
+        } else {
+            final Literal literal = (Literal) value;
+            key.write(LITERAL_VALUE);
+            writeString(key, literal.getLabel());
+            writeString(key, literal.getLanguage().isPresent() ? "@" + literal.getLanguage().get() : literal.getDatatype().stringValue());
+        }
+    }
+
+    private static void writeString(final ByteArrayOutputStream key, final String value) {
+        final byte[] bytes = value.getBytes(UTF_8);
+        int length = bytes.length;
+        while((length & ~0x7F) != 0) {
+            key.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        key.write(length);
+        key.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The time is written with its sign bit flipped, so that the bytes of earlier times sort first.
+     */
+    private static byte[] indexKey(final long timestamp, final byte[] valueKey) {
+        final byte[] time = ByteBuffer.allocate(9).put(TIME_INDEX).putLong(timestamp ^ Long.MIN_VALUE).array();
+        return concat(time, valueKey);
+    }
+
+    private static long timestamp(final byte[] value) {
+        return ByteBuffer.wrap(value).getLong();
+    }
+
+    private static VisibilityBindingSet bindingSet(final byte[] value) {
+        try {
+            return BinarySerialization.deserializeBindingSet(Arrays.copyOfRange(value, 8, value.length));
+        } catch (final IOException e) {
+            throw new IllegalStateException("Could not read a binding set from the join state store.", e);
+        }
+    }
+
+    private static byte[] concat(final byte[] first, final byte[] second) {
+        final byte[] joined = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.kafka.serialization;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.api.model.VisibilityStatement;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.OWL;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A utility class used to serialize {@link VisibilityStatement}s and {@link VisibilityBindingSet}s
+ * using a compact binary format.
+ * <p>
+ * Every message starts with a header of three bytes: a marker that can not begin a Java object
+ * serialization stream, the version of the format, and the kind of value that follows. Strings are
+ * written as a variable length length followed by their UTF-8 bytes. IRIs that appear in
+ * {@link #WELL_KNOWN} are written as their index within that list, and every other IRI is split into
+ * a namespace and a local name. The first time a namespace appears within a message it is written
+ * out and added to the message's dictionary, after which it is written as its dictionary index.
+ * Literal datatypes are IRIs, so the common ones take a single byte.
+ */
+@DefaultAnnotation(NonNull.class)
+public final class BinarySerialization {
+
+    /**
+     * The first byte of every message. Java object serialization streams start with 0xAC.
+     */
+    public static final byte MARKER = (byte) 0xB1;
+
+    /**
+     * The version of the format that is written.
+     */
+    public static final byte VERSION = 1;
+
+    private static final byte STATEMENT = 1;
+    private static final byte BINDING_SET = 2;
+
+    private static final byte NULL = 0;
+    private static final byte WELL_KNOWN_IRI = 1;
+    private static final byte NEW_NAMESPACE_IRI = 2;
+    private static final byte SEEN_NAMESPACE_IRI = 3;
+    private static final byte BNODE = 4;
+    private static final byte PLAIN_LITERAL = 5;
+    private static final byte LANGUAGE_LITERAL = 6;
+    private static final byte TYPED_LITERAL = 7;
+
+    /**
+     * IRIs that are written as their index within this list. The indices are part of the wire
+     * format, so IRIs may only ever be appended to the end of the list.
+     */
+    private static final List<IRI> WELL_KNOWN = Arrays.asList(
+            XMLSchema.STRING, XMLSchema.BOOLEAN, XMLSchema.INTEGER, XMLSchema.INT, XMLSchema.LONG,
+            XMLSchema.SHORT, XMLSchema.BYTE, XMLSchema.DOUBLE, XMLSchema.FLOAT, XMLSchema.DECIMAL,
+            XMLSchema.DATETIME, XMLSchema.DATE, XMLSchema.TIME, XMLSchema.DURATION, XMLSchema.ANYURI,
+            XMLSchema.NON_NEGATIVE_INTEGER, XMLSchema.POSITIVE_INTEGER, XMLSchema.NON_POSITIVE_INTEGER,
+            XMLSchema.NEGATIVE_INTEGER, XMLSchema.UNSIGNED_LONG, XMLSchema.UNSIGNED_INT,
+            XMLSchema.UNSIGNED_SHORT, XMLSchema.UNSIGNED_BYTE, XMLSchema.GYEAR, XMLSchema.GYEARMONTH,
+            XMLSchema.HEXBINARY, XMLSchema.BASE64BINARY, XMLSchema.NORMALIZEDSTRING, XMLSchema.TOKEN,
+            RDF.LANGSTRING, RDF.TYPE, RDFS.LABEL, RDFS.COMMENT, RDFS.SUBCLASSOF, RDFS.SUBPROPERTYOF,
+            RDFS.DOMAIN, RDFS.RANGE, OWL.SAMEAS);
+
+    private static final Map<IRI, Integer> WELL_KNOWN_INDEX = new HashMap<>();
+    static {
+        for (int i = 0; i < WELL_KNOWN.size(); i++) {
+            WELL_KNOWN_INDEX.put(WELL_KNOWN.get(i), i);
+        }
+    }
+
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    private BinarySerialization() { }
+
+    /**
+     * @param data - Serialized data. (not null)
+     * @return {@code true} if the data was written by this class, {@code false} if it must have
+     *   been written some other way, such as by {@link ObjectSerialization}.
+     */
+    public static boolean isBinary(final byte[] data) {
+        requireNonNull(data);
+        return data.length > 0 && data[0] == MARKER;
+    }
+
+    /**
+     * Serialize a {@link VisibilityStatement}.
+     *
+     * @param statement - The statement to serialize. (not null)
+     * @return A byte[] representation of the statement.
+     */
+    public static byte[] serialize(final VisibilityStatement statement) {
+        requireNonNull(statement);
+        final Writer writer = new Writer(STATEMENT);
+        writer.writeString(statement.getVisibility());
+        writer.writeValue(statement.getSubject());
+        writer.writeValue(statement.getPredicate());
+        writer.writeValue(statement.getObject());
+        writer.writeValue(statement.getContext());
+        return writer.toByteArray();
+    }
+
+    /**
+     * Serialize a {@link VisibilityBindingSet}.
+     *
+     * @param bindingSet - The binding set to serialize. (not null)
+     * @return A byte[] representation of the binding set.
+     */
+    public static byte[] serialize(final VisibilityBindingSet bindingSet) {
+        requireNonNull(bindingSet);
+        final Writer writer = new Writer(BINDING_SET);
+        writer.writeString(bindingSet.getVisibility());
+        writer.writeVarInt(bindingSet.size());
+        for (final Binding binding : bindingSet) {
+            writer.writeString(binding.getName());
+            writer.writeValue(binding.getValue());
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Deserialize a {@link VisibilityStatement}.
+     *
+     * @param data - Data that was written by {@link #serialize(VisibilityStatement)}. (not null)
+     * @return The statement that was read from the data.
+     * @throws IOException The data is not a serialized statement, or was written by an unknown
+     *   version of the format.
+     */
+    public static VisibilityStatement deserializeStatement(final byte[] data) throws IOException {
+        requireNonNull(data);
+        final Reader reader = new Reader(data, STATEMENT);
+        final String visibility = reader.readString();
+        final Value subject = reader.readValue();
+        final Value predicate = reader.readValue();
+        final Value object = reader.readValue();
+        final Value context = reader.readValue();
+        if (!(subject instanceof Resource) || !(predicate instanceof IRI) || object == null
+                || (context != null && !(context instanceof Resource))) {
+            throw new IOException("The data does not hold a valid statement.");
+        }
+        return new VisibilityStatement(
+                VF.createStatement((Resource) subject, (IRI) predicate, object, (Resource) context),
+                visibility);
+    }
+
+    /**
+     * Deserialize a {@link VisibilityBindingSet}.
+     *
+     * @param data - Data that was written by {@link #serialize(VisibilityBindingSet)}. (not null)
+     * @return The binding set that was read from the data.
+     * @throws IOException The data is not a serialized binding set, or was written by an unknown
+     *   version of the format.
+     */
+    public static VisibilityBindingSet deserializeBindingSet(final byte[] data) throws IOException {
+        requireNonNull(data);
+        final Reader reader = new Reader(data, BINDING_SET);
+        final String visibility = reader.readString();
+        final int size = reader.readVarInt();
+        final MapBindingSet bindingSet = new MapBindingSet(size);
+        for (int i = 0; i < size; i++) {
+            final String name = reader.readString();
+            bindingSet.addBinding(name, reader.readValue());
+        }
+        return new VisibilityBindingSet(bindingSet, visibility);
+    }
+
+    /**
+     * Writes a single message.
+     */
+    private static final class Writer {
+        private final Map<String, Integer> namespaces = new HashMap<>();
+        private byte[] buffer = new byte[128];
+        private int length = 0;
+
+        public Writer(final byte kind) {
+            writeByte(MARKER);
+            writeByte(VERSION);
+            writeByte(kind);
+        }
+
+        public void writeValue(final Value value) {
+            if (value == null) {
+                writeByte(NULL);
+            } else if (value instanceof IRI) {
+                writeIRI((IRI) value);
+            } else if (value instanceof BNode) {
+                writeByte(BNODE);
+                writeString(((BNode) value).getID());
+            } else {
+                final Literal literal = (Literal) value;
+                if (literal.getLanguage().isPresent()) {
+                    writeByte(LANGUAGE_LITERAL);
+                    writeString(literal.getLabel());
+                    writeString(literal.getLanguage().get());
+                } else if (XMLSchema.STRING.equals(literal.getDatatype())) {
+                    writeByte(PLAIN_LITERAL);
+                    writeString(literal.getLabel());
+                } else {
+                    writeByte(TYPED_LITERAL);
+                    writeString(literal.getLabel());
+                    writeIRI(literal.getDatatype());
+                }
+            }
+        }
+
+        private void writeIRI(final IRI iri) {
+            final Integer wellKnown = WELL_KNOWN_INDEX.get(iri);
+            if (wellKnown != null) {
+                writeByte(WELL_KNOWN_IRI);
+                writeVarInt(wellKnown);
+                return;
+            }
+
+            final String namespace = iri.getNamespace();
+            final Integer seen = namespaces.get(namespace);
+            if (seen != null) {
+                writeByte(SEEN_NAMESPACE_IRI);
+                writeVarInt(seen);
+            } else {
+                writeByte(NEW_NAMESPACE_IRI);
+                writeString(namespace);
+                namespaces.put(namespace, namespaces.size());
+            }
+            writeString(iri.getLocalName());
+        }
+
+        public void writeString(final String value) {
+            final byte[] bytes = value.getBytes(UTF_8);
+            writeVarInt(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        public void writeVarInt(final int value) {
+            int remaining = value;
+            while ((remaining & ~0x7F) != 0) {
+                writeByte((byte) ((remaining & 0x7F) | 0x80));
+                remaining >>>= 7;
+            }
+            writeByte((byte) remaining);
+        }
+
+        private void writeByte(final byte value) {
+            ensureCapacity(1);
+            buffer[length++] = value;
+        }
+
+        private void ensureCapacity(final int needed) {
+            if (length + needed > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + needed));
+            }
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    /**
+     * Reads a single message.
+     */
+    private static final class Reader {
+        private final List<String> namespaces = new ArrayList<>();
+        private final byte[] data;
+        private int position = 0;
+
+        public Reader(final byte[] data, final byte kind) throws IOException {
+            this.data = data;
+            if (readByte() != MARKER) {
+                throw new IOException("The data was not written using the binary format.");
+            }
+            final byte version = readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary format version " + version + ".");
+            }
+            if (readByte() != kind) {
+                throw new IOException("The data does not hold the expected kind of value.");
+            }
+        }
+
+        public Value readValue() throws IOException {
+            final byte tag = readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case WELL_KNOWN_IRI:
+                case NEW_NAMESPACE_IRI:
+                case SEEN_NAMESPACE_IRI:
+                    return readIRI(tag);
+                case BNODE:
+                    return VF.createBNode(readString());
+                case PLAIN_LITERAL:
+                    return VF.createLiteral(readString());
+                case LANGUAGE_LITERAL: {
+                    final String label = readString();
+                    return VF.createLiteral(label, readString());
+                }
+                case TYPED_LITERAL: {
+                    final String label = readString();
+                    return VF.createLiteral(label, readIRI(readByte()));
+                }
+                default:
+                    throw new IOException("Unknown value tag " + tag + ".");
+            }
+        }
+
+        private IRI readIRI(final byte tag) throws IOException {
+            switch (tag) {
+                case WELL_KNOWN_IRI: {
+                    final int index = readVarInt();
+                    if (index >= WELL_KNOWN.size()) {
+                        throw new IOException("Unknown well known IRI " + index + ".");
+                    }
+                    return WELL_KNOWN.get(index);
+                }
+                case NEW_NAMESPACE_IRI: {
+                    final String namespace = readString();
+                    namespaces.add(namespace);
+                    return VF.createIRI(namespace, readString());
+                }
+                case SEEN_NAMESPACE_IRI: {
+                    final int index = readVarInt();
+                    if (index >= namespaces.size()) {
+                        throw new IOException("Unknown namespace " + index + ".");
+                    }
+                    return VF.createIRI(namespaces.get(index), readString());
+                }
+                default:
+                    throw new IOException("Expected an IRI, but found value tag " + tag + ".");
+            }
+        }
+
+        public String readString() throws IOException {
+            final int size = readVarInt();
+            if (size > data.length - position) {
+                throw new IOException("The data ended before a string of " + size + " bytes.");
+            }
+            final String value = new String(data, position, size, UTF_8);
+            position += size;
+            return value;
+        }
+
+        public int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                final byte b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    if (value < 0) {
+                        throw new IOException("Invalid length " + value + ".");
+                    }
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable length integer.");
+        }
+
+        private byte readByte() throws IOException {
+            if (position >= data.length) {
+                throw new IOException("The data ended unexpectedly.");
+            }
+            return data[position++];
+        }
+    }
+}
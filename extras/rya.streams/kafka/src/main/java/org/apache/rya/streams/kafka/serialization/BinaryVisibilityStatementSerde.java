@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.kafka.serialization;
+
+import java.util.Map;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.rya.api.model.VisibilityStatement;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Provides a {@link Serializer} that writes {@link VisibilityStatement}s using {@link BinarySerialization}
+ * and a {@link Deserializer} that reads them whether or not they were written that way.
+ */
+@DefaultAnnotation(NonNull.class)
+public class BinaryVisibilityStatementSerde implements Serde<VisibilityStatement> {
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+        // Nothing to do.
+    }
+
+    @Override
+    public Serializer<VisibilityStatement> serializer() {
+        return new BinaryVisibilityStatementSerializer();
+    }
+
+    @Override
+    public Deserializer<VisibilityStatement> deserializer() {
+        return new VisibilityStatementDeserializer();
+    }
+
+    @Override
+    public void close() {
+        // Nothing to do.
+    }
+}
@@ -29,7 +29,9 @@ import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
 /**
- * A Kafka {@link Deserializer} that is able to deserialize entities.
+ * A Kafka {@link Deserializer} that is able to deserialize entities. Data that was written
+ * using {@link BinarySerialization} is handed to {@link #deserializeBinary(byte[])}, and
+ * all other data is read using Java object deserialization.
  *
  * @param T - The type of entity to deserialize.
  */
@@ -51,6 +53,9 @@ public abstract class ObjectDeserializer<T> implements Deserializer<T> {
         }
 
         try {
+            if(BinarySerialization.isBinary(data)) {
+                return deserializeBinary(data);
+            }
             return ObjectSerialization.deserialize(data, getDeserializedClass());
         } catch (final ClassNotFoundException | ClassCastException | IOException e) {
             log.error("Could not deserialize some data into a " + getDeserializedClass().getName() + ". This data will be skipped.", e);
@@ -65,6 +70,18 @@ public abstract class ObjectDeserializer<T> implements Deserializer<T> {
         // Nothing to do.
     }
 
+    /**
+     * Deserialize data that was written using {@link BinarySerialization}.
+     *
+     * @param data - The data that will be deserialized. (not null)
+     * @return The object that was read from the data.
+     * @throws IOException The data could not be deserialized. Thrown by default because
+     *   only some entities have a binary form.
+     */
+    protected T deserializeBinary(final byte[] data) throws IOException {
+        throw new IOException(getDeserializedClass().getName() + " does not have a binary form.");
+    }
+
     /**
      * @return - Used by the {@link ObjectSerialization#deserialize()} and the logger.
      */
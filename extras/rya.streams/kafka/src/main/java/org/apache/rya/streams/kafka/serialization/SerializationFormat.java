@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.kafka.serialization;
+
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.api.model.VisibilityStatement;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * The ways a Rya Streams query may write the {@link VisibilityStatement}s and
+ * {@link VisibilityBindingSet}s that it stores and outputs. Every format is read by
+ * {@link VisibilityStatementDeserializer} and {@link VisibilityBindingSetDeserializer},
+ * so queries that use different formats may share topics.
+ */
+@DefaultAnnotation(NonNull.class)
+public enum SerializationFormat {
+    /**
+     * Java object serialization, see {@link ObjectSerialization}.
+     */
+    JAVA {
+        @Override
+        public Serializer<VisibilityStatement> statementSerializer() {
+            return new VisibilityStatementSerializer();
+        }
+
+        @Override
+        public Serializer<VisibilityBindingSet> bindingSetSerializer() {
+            return new VisibilityBindingSetSerializer();
+        }
+
+        @Override
+        public Serde<VisibilityBindingSet> bindingSetSerde() {
+            return new VisibilityBindingSetSerde();
+        }
+    },
+
+    /**
+     * A compact binary format, see {@link BinarySerialization}.
+     */
+    BINARY {
+        @Override
+        public Serializer<VisibilityStatement> statementSerializer() {
+            return new BinaryVisibilityStatementSerializer();
+        }
+
+        @Override
+        public Serializer<VisibilityBindingSet> bindingSetSerializer() {
+            return new BinaryVisibilityBindingSetSerializer();
+        }
+
+        @Override
+        public Serde<VisibilityBindingSet> bindingSetSerde() {
+            return new BinaryVisibilityBindingSetSerde();
+        }
+    };
+
+    /**
+     * @return A serializer that writes {@link VisibilityStatement}s in this format.
+     */
+    public abstract Serializer<VisibilityStatement> statementSerializer();
+
+    /**
+     * @return A serializer that writes {@link VisibilityBindingSet}s in this format.
+     */
+    public abstract Serializer<VisibilityBindingSet> bindingSetSerializer();
+
+    /**
+     * @return A serde that writes {@link VisibilityBindingSet}s in this format.
+     */
+    public abstract Serde<VisibilityBindingSet> bindingSetSerde();
+}
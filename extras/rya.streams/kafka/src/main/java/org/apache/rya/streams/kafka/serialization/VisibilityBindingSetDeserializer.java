@@ -18,6 +18,8 @@
  */
 package org.apache.rya.streams.kafka.serialization;
 
+import java.io.IOException;
+
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.rya.api.model.VisibilityBindingSet;
 
@@ -25,7 +27,8 @@ import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
 /**
- * A Kafka {@link Deserializer} that is able to deserialize Java object serialized {@link VisibilityBindingSet}s.
+ * A Kafka {@link Deserializer} that is able to deserialize {@link VisibilityBindingSet}s that were written
+ * using either Java object serialization or {@link BinarySerialization}.
  */
 @DefaultAnnotation(NonNull.class)
 public class VisibilityBindingSetDeserializer extends ObjectDeserializer<VisibilityBindingSet> {
@@ -33,4 +36,9 @@ public class VisibilityBindingSetDeserializer extends ObjectDeserializer<Visibil
     protected Class<VisibilityBindingSet> getDeserializedClass() {
         return VisibilityBindingSet.class;
     }
+
+    @Override
+    protected VisibilityBindingSet deserializeBinary(final byte[] data) throws IOException {
+        return BinarySerialization.deserializeBindingSet(data);
+    }
 }
\ No newline at end of file
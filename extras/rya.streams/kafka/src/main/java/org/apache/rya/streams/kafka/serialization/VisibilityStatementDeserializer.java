@@ -18,6 +18,8 @@
  */
 package org.apache.rya.streams.kafka.serialization;
 
+import java.io.IOException;
+
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.rya.api.model.VisibilityStatement;
 
@@ -25,7 +27,8 @@ import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
 /**
- * A Kafka {@link Deserializer} that is able to deserialize Java object serialized {@link VisibilityStatement}s.
+ * A Kafka {@link Deserializer} that is able to deserialize {@link VisibilityStatement}s that were written
+ * using either Java object serialization or {@link BinarySerialization}.
  */
 @DefaultAnnotation(NonNull.class)
 public class VisibilityStatementDeserializer extends ObjectDeserializer<VisibilityStatement> {
@@ -33,4 +36,9 @@ public class VisibilityStatementDeserializer extends ObjectDeserializer<Visibili
     protected Class<VisibilityStatement> getDeserializedClass() {
         return VisibilityStatement.class;
     }
+
+    @Override
+    protected VisibilityStatement deserializeBinary(final byte[] data) throws IOException {
+        return BinarySerialization.deserializeStatement(data);
+    }
 }
\ No newline at end of file
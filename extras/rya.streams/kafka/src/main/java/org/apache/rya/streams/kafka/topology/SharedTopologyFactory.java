@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.kafka.topology;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.streams.processor.TopologyBuilder;
+import org.apache.rya.api.function.projection.BNodeIdFactory;
+import org.apache.rya.streams.api.entity.StreamsQuery;
+import org.apache.rya.streams.kafka.KafkaTopics;
+import org.apache.rya.streams.kafka.processors.ProcessorResult;
+import org.apache.rya.streams.kafka.processors.ProcessorResult.BinaryResult.Side;
+import org.apache.rya.streams.kafka.processors.ProcessorResult.UnaryResult;
+import org.apache.rya.streams.kafka.processors.ResultAdapterProcessorSupplier;
+import org.apache.rya.streams.kafka.processors.StatementPatternProcessorSupplier;
+import org.apache.rya.streams.kafka.serialization.SerializationFormat;
+import org.apache.rya.streams.kafka.serialization.VisibilityStatementDeserializer;
+import org.apache.rya.streams.kafka.topology.TopologyBuilderFactory.TopologyBuilderException;
+import org.apache.rya.streams.kafka.topology.TopologyFactory.ProcessorEntry;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.Var;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Builds a single {@link TopologyBuilder} that evaluates many {@link StreamsQuery}s over the
+ * statements of one Rya instance.
+ * <p>
+ * Every statement is read and deserialized once by a shared source. Statement patterns that appear in
+ * more than one query, using the same variable names and constants, are matched by a single shared
+ * processor whose results are fanned out to each query that uses the pattern. Everything downstream of
+ * the statement patterns belongs to one query, and each query writes to its own results topic.
+ * <p>
+ * The names of a query's processors and state stores only depend on the query's ID and SPARQL, so a
+ * query keeps its state when the topology is rebuilt with a different set of queries.
+ */
+@DefaultAnnotation(NonNull.class)
+public class SharedTopologyFactory {
+    private static final String SOURCE = "SOURCE";
+    private static final String SHARED_STATEMENT_PATTERN_PREFIX = "SHARED_SP_";
+
+    private Map<String, String> sharedPatterns;
+
+    /**
+     * Builds a topology that evaluates a group of queries.
+     *
+     * @param ryaInstance - The Rya Instance whose statements are read by the queries. (not null)
+     * @param queries - The queries that will be evaluated. (not null, not empty)
+     * @param bNodeIdFactory - Builds Blank Node IDs for the queries' results. (not null)
+     * @param formats - Picks the format each query's state and results are serialized with. (not null)
+     * @return A {@link TopologyBuilder} that evaluates all of the queries.
+     * @throws MalformedQueryException One of the queries' SPARQL is not valid.
+     * @throws TopologyBuilderException A problem occurred while building one of the queries' nodes.
+     */
+    public TopologyBuilder build(
+            final String ryaInstance,
+            final Collection<StreamsQuery> queries,
+            final BNodeIdFactory bNodeIdFactory,
+            final Function<StreamsQuery, SerializationFormat> formats)
+            throws MalformedQueryException, TopologyBuilderException {
+        requireNonNull(ryaInstance);
+        requireNonNull(queries);
+        requireNonNull(bNodeIdFactory);
+        requireNonNull(formats);
+        checkArgument(!queries.isEmpty(), "At least one query must be provided.");
+
+        final TopologyBuilder builder = new TopologyBuilder();
+        builder.addSource(SOURCE, new StringDeserializer(), new VisibilityStatementDeserializer(), KafkaTopics.statementsTopic(ryaInstance));
+
+        sharedPatterns = new HashMap<>();
+        for(final StreamsQuery query : queries) {
+            final String suffix = "_" + query.getQueryId();
+            final AtomicInteger nextNode = new AtomicInteger();
+
+            TopologyFactory.addQuery(builder, query.getSparql(), Optional.of(query.getQueryId()),
+                    KafkaTopics.queryResultsTopic(ryaInstance, query.getQueryId()),
+                    bNodeIdFactory,
+                    formats.apply(query),
+                    prefix -> prefix + query.getQueryId() + "_" + nextNode.getAndIncrement(),
+                    suffix,
+                    entry -> connectStatementPattern(builder, entry));
+        }
+
+        return builder;
+    }
+
+    /**
+     * @return The names of the shared statement pattern processors that were created by the most recent
+     *   call to {@link #build(String, Collection, BNodeIdFactory, Function)}, keyed by the pattern they match.
+     */
+    @VisibleForTesting
+    public Map<String, String> getSharedPatterns() {
+        return sharedPatterns;
+    }
+
+    /**
+     * Connects a query's statement pattern to the shared processor that matches it, creating that
+     * processor if this is the first query that uses the pattern.
+     */
+    private void connectStatementPattern(final TopologyBuilder builder, final ProcessorEntry entry) {
+        final StatementPattern sp = (StatementPattern) entry.getNode();
+        final String key = patternKey(sp);
+
+        String sharedId = sharedPatterns.get(key);
+        if(sharedId == null) {
+            sharedId = SHARED_STATEMENT_PATTERN_PREFIX + sharedPatterns.size();
+            builder.addProcessor(sharedId,
+                    new StatementPatternProcessorSupplier(sp, result -> ProcessorResult.make(new UnaryResult(result))),
+                    SOURCE);
+            sharedPatterns.put(key, sharedId);
+        }
+
+        // The query's node rewraps the shared results for the side of the processor it feeds.
+        final Optional<Side> side = entry.getDownstreamSide();
+        builder.addProcessor(entry.getID(),
+                new ResultAdapterProcessorSupplier(result -> TopologyFactory.QueryVisitor.getResult(side, result)),
+                sharedId);
+    }
+
+    /**
+     * Two statement patterns produce the same binding sets when they have the same scope and their
+     * variables have the same names and values, so that is what identifies a shared pattern.
+     */
+    private static String patternKey(final StatementPattern sp) {
+        final StringBuilder key = new StringBuilder( sp.getScope().name() );
+        for(final Var var : sp.getVarList()) {
+            key.append(" (").append(var.getName());
+            if(var.hasValue()) {
+                key.append("=").append(var.getValue());
+            }
+            key.append(")");
+        }
+        return key.toString();
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.rya.streams.kafka.topology;
 
 import org.apache.kafka.streams.processor.TopologyBuilder;
 import org.apache.rya.api.function.projection.BNodeIdFactory;
+import org.apache.rya.streams.kafka.serialization.SerializationFormat;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 
 import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
@@ -44,11 +45,35 @@ public interface TopologyBuilderFactory {
      * @throws MalformedQueryException - The provided query is not a valid SPARQL query.
      * @throws TopologyBuilderException - A problem occurred while constructing the topology.
      */
+    public default TopologyBuilder build(
+            final String sparqlQuery,
+            final String statementsTopic,
+            final String resultsTopic,
+            final BNodeIdFactory bNodeIdFactory) throws MalformedQueryException, TopologyBuilderException {
+        return build(sparqlQuery, statementsTopic, resultsTopic, bNodeIdFactory, SerializationFormat.JAVA);
+    }
+
+    /**
+     * Builds a {@link TopologyBuilder} based on the provided SPARQL query that
+     * pulls from {@code statementsTopic} for input and writes the query's results
+     * to {@code resultsTopic}. The query's state stores and results are written
+     * using {@code format}.
+     *
+     * @param sparqlQuery - The SPARQL query to build a topology for. (not null)
+     * @param statementsTopic - The topic for the source to read from. (not null)
+     * @param resultsTopic - The topic for the sink to write to. (not null)
+     * @param bNodeIdFactory - A factory that generates Blank Node IDs if any are required. (not null)
+     * @param format - How the query's state and results are serialized. (not null)
+     * @return The created {@link TopologyBuilder}.
+     * @throws MalformedQueryException - The provided query is not a valid SPARQL query.
+     * @throws TopologyBuilderException - A problem occurred while constructing the topology.
+     */
     public TopologyBuilder build(
             final String sparqlQuery,
             final String statementsTopic,
             final String resultsTopic,
-            final BNodeIdFactory bNodeIdFactory) throws MalformedQueryException, TopologyBuilderException;
+            final BNodeIdFactory bNodeIdFactory,
+            final SerializationFormat format) throws MalformedQueryException, TopologyBuilderException;
 
     /**
      * An Exception thrown when a problem occurs when constructing the processor
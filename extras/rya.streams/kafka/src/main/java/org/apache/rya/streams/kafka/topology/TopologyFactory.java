@@ -29,6 +29,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -54,14 +56,13 @@ import org.apache.rya.streams.kafka.processors.StatementPatternProcessorSupplier
 import org.apache.rya.streams.kafka.processors.aggregation.AggregationProcessorSupplier;
 import org.apache.rya.streams.kafka.processors.filter.FilterProcessorSupplier;
 import org.apache.rya.streams.kafka.processors.join.JoinProcessorSupplier;
+import org.apache.rya.streams.kafka.processors.join.JoinWindow;
 import org.apache.rya.streams.kafka.processors.output.BindingSetOutputFormatterSupplier;
 import org.apache.rya.streams.kafka.processors.output.StatementOutputFormatterSupplier;
 import org.apache.rya.streams.kafka.processors.projection.MultiProjectionProcessorSupplier;
 import org.apache.rya.streams.kafka.processors.projection.ProjectionProcessorSupplier;
-import org.apache.rya.streams.kafka.serialization.VisibilityBindingSetSerde;
-import org.apache.rya.streams.kafka.serialization.VisibilityBindingSetSerializer;
+import org.apache.rya.streams.kafka.serialization.SerializationFormat;
 import org.apache.rya.streams.kafka.serialization.VisibilityStatementDeserializer;
-import org.apache.rya.streams.kafka.serialization.VisibilityStatementSerializer;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.algebra.BinaryTupleOperator;
 import org.eclipse.rdf4j.query.algebra.Extension;
@@ -97,6 +98,7 @@ public class TopologyFactory implements TopologyBuilderFactory {
     private static final String PROJECTION_PREFIX = "PROJECTION_";
     private static final String FILTER_PREFIX = "FILTER_";
     private static final String AGGREGATION_PREFIX = "AGGREGATION_";
+    private static final String OUTPUT_FORMATTER = "OUTPUT_FORMATTER";
     private static final String SINK = "SINK";
 
     private List<ProcessorEntry> processorEntryList;
@@ -106,23 +108,70 @@ public class TopologyFactory implements TopologyBuilderFactory {
             final String sparqlQuery,
             final String statementsTopic,
             final String resultsTopic,
-            final BNodeIdFactory bNodeIdFactory)
+            final BNodeIdFactory bNodeIdFactory,
+            final SerializationFormat format)
             throws MalformedQueryException, TopologyBuilderException {
         requireNonNull(sparqlQuery);
         requireNonNull(statementsTopic);
         requireNonNull(resultsTopic);
+        requireNonNull(format);
 
-        final ParsedQuery parsedQuery = new SPARQLParser().parseQuery(sparqlQuery, null);
         final TopologyBuilder builder = new TopologyBuilder();
 
+        // add source node
+        builder.addSource(SOURCE, new StringDeserializer(), new VisibilityStatementDeserializer(), statementsTopic);
+
+        //statement patterns need to be connected to the Source.
+        processorEntryList = addQuery(builder, sparqlQuery, Optional.empty(), resultsTopic, bNodeIdFactory, format,
+                prefix -> prefix + UUID.randomUUID(), "",
+                entry -> builder.addProcessor(entry.getID(), entry.getSupplier(), SOURCE));
+
+        return builder;
+    }
+
+    /**
+     * Adds the processors, state stores, and sink that evaluate a SPARQL query to a {@link TopologyBuilder}.
+     * The statement pattern processors are handed to {@code statementPatternConnector}, which is responsible
+     * for adding them to the builder in a way that connects them to the statements they match.
+     *
+     * @param builder - The builder the query's nodes are added to. (not null)
+     * @param sparqlQuery - The query that will be evaluated. (not null)
+     * @param queryId - The ID of the query, if the application does not run only this query. (not null)
+     * @param resultsTopic - The topic the query's results are written to. (not null)
+     * @param bNodeIdFactory - Builds Blank Node IDs for the query's results. (not null)
+     * @param format - How the query's state and results are serialized. (not null)
+     * @param nodeIds - Makes the name of a processor node from its type's prefix. (not null)
+     * @param outputSuffix - Appended to the names of the output formatter and sink nodes. (not null)
+     * @param statementPatternConnector - Adds a statement pattern's processor to the builder. (not null)
+     * @return The processor entries that were created for the query.
+     * @throws MalformedQueryException The SPARQL query is not valid.
+     * @throws TopologyBuilderException A problem occurred while adding the query's nodes.
+     */
+    static List<ProcessorEntry> addQuery(
+            final TopologyBuilder builder,
+            final String sparqlQuery,
+            final Optional<UUID> queryId,
+            final String resultsTopic,
+            final BNodeIdFactory bNodeIdFactory,
+            final SerializationFormat format,
+            final Function<String, String> nodeIds,
+            final String outputSuffix,
+            final Consumer<ProcessorEntry> statementPatternConnector)
+            throws MalformedQueryException, TopologyBuilderException {
+        final ParsedQuery parsedQuery = new SPARQLParser().parseQuery(sparqlQuery, null);
+
         final TupleExpr expr = parsedQuery.getTupleExpr();
-        final QueryVisitor visitor = new QueryVisitor(bNodeIdFactory);
+        final Optional<JoinWindow> joinWindow;
+        try {
+            joinWindow = JoinWindow.fromSparql(sparqlQuery);
+        } catch (final IllegalArgumentException e) {
+            throw new TopologyBuilderException("The query's join window hint is invalid.", e);
+        }
+        final QueryVisitor visitor = new QueryVisitor(bNodeIdFactory, format, joinWindow, queryId, nodeIds);
         expr.visit(visitor);
 
-        processorEntryList = visitor.getProcessorEntryList();
+        final List<ProcessorEntry> processorEntryList = visitor.getProcessorEntryList();
         final Map<TupleExpr, String> idMap = visitor.getIDs();
-        // add source node
-        builder.addSource(SOURCE, new StringDeserializer(), new VisibilityStatementDeserializer(), statementsTopic);
 
         // processing the processor entry list in reverse order means we go from leaf
         // nodes -> parent nodes.
@@ -132,9 +181,8 @@ public class TopologyFactory implements TopologyBuilderFactory {
         ProcessorEntry entry = null;
         for (int ii = processorEntryList.size() - 1; ii >= 0; ii--) {
             entry = processorEntryList.get(ii);
-            //statement patterns need to be connected to the Source.
             if(entry.getNode() instanceof StatementPattern) {
-                builder.addProcessor(entry.getID(), entry.getSupplier(), SOURCE);
+                statementPatternConnector.accept(entry);
             } else {
                 final List<TupleExpr> parents = entry.getUpstreamNodes();
                 final String[] parentIDs = new String[parents.size()];
@@ -145,12 +193,22 @@ public class TopologyFactory implements TopologyBuilderFactory {
             }
 
             // Add a state store for any node type that requires one.
-            if (entry.getNode() instanceof Join ||  entry.getNode() instanceof LeftJoin || entry.getNode() instanceof Group) {
+            final boolean isJoin = entry.getNode() instanceof Join || entry.getNode() instanceof LeftJoin;
+            if (isJoin && joinWindow.isPresent()) {
+                // Windowed joins use binary keys and values.
+                final StateStoreSupplier joinStoreSupplier =
+                        Stores.create( entry.getID() )
+                            .withByteArrayKeys()
+                            .withByteArrayValues()
+                            .persistent()
+                            .build();
+                builder.addStateStore(joinStoreSupplier, entry.getID());
+            } else if (isJoin || entry.getNode() instanceof Group) {
                 // Add a state store for the join processor.
                 final StateStoreSupplier joinStoreSupplier =
                         Stores.create( entry.getID() )
                             .withStringKeys()
-                            .withValues(new VisibilityBindingSetSerde())
+                            .withValues(format.bindingSetSerde())
                             .persistent()
                             .build();
                 builder.addStateStore(joinStoreSupplier, entry.getID());
@@ -163,12 +221,13 @@ public class TopologyFactory implements TopologyBuilderFactory {
 
         // Add a formatter that converts the ProcessorResults into the output format.
         final SinkEntry<?,?> sinkEntry = visitor.getSinkEntry();
-        builder.addProcessor("OUTPUT_FORMATTER", sinkEntry.getFormatterSupplier(), entry.getID());
+        final String formatterId = OUTPUT_FORMATTER + outputSuffix;
+        builder.addProcessor(formatterId, sinkEntry.getFormatterSupplier(), entry.getID());
 
         // Add the sink.
-        builder.addSink(SINK, resultsTopic, sinkEntry.getKeySerializer(), sinkEntry.getValueSerializer(), "OUTPUT_FORMATTER");
+        builder.addSink(SINK + outputSuffix, resultsTopic, sinkEntry.getKeySerializer(), sinkEntry.getValueSerializer(), formatterId);
 
-        return builder;
+        return processorEntryList;
     }
 
     @VisibleForTesting
@@ -339,21 +398,51 @@ public class TopologyFactory implements TopologyBuilderFactory {
         private final List<ProcessorEntry> entries = new ArrayList<>();
         private final Map<TupleExpr, String> idMap = new HashMap<>();
 
-        // Default to a Binding Set outputting sink entry.
-        private SinkEntry<?, ?> sinkEntry = new SinkEntry<>(
-                new BindingSetOutputFormatterSupplier(),
-                new StringSerializer(),
-                new VisibilityBindingSetSerializer());
+        private SinkEntry<?, ?> sinkEntry;
 
         private final BNodeIdFactory bNodeIdFactory;
+        private final SerializationFormat format;
+        private final Optional<JoinWindow> joinWindow;
+        private final Optional<UUID> queryId;
+        private final Function<String, String> nodeIds;
+
+        /**
+         * Constructs an instance of {@link QueryVisitor} that names its nodes using random UUIDs.
+         *
+         * @param bNodeIdFactory - Builds Blank Node IDs for the query's results. (not null)
+         * @param format - How the query's results are serialized. (not null)
+         * @param joinWindow - Limits which binding sets the query's joins match, if present. (not null)
+         */
+        public QueryVisitor(final BNodeIdFactory bNodeIdFactory, final SerializationFormat format, final Optional<JoinWindow> joinWindow) {
+            this(bNodeIdFactory, format, joinWindow, Optional.empty(), prefix -> prefix + UUID.randomUUID());
+        }
 
         /**
          * Constructs an instance of {@link QueryVisitor}.
          *
          * @param bNodeIdFactory - Builds Blank Node IDs for the query's results. (not null)
+         * @param format - How the query's results are serialized. (not null)
+         * @param joinWindow - Limits which binding sets the query's joins match, if present. (not null)
+         * @param queryId - The ID of the query, if the application does not run only this query. (not null)
+         * @param nodeIds - Makes the name of a processor node from its type's prefix. (not null)
          */
-        public QueryVisitor(final BNodeIdFactory bNodeIdFactory) {
+        public QueryVisitor(
+                final BNodeIdFactory bNodeIdFactory,
+                final SerializationFormat format,
+                final Optional<JoinWindow> joinWindow,
+                final Optional<UUID> queryId,
+                final Function<String, String> nodeIds) {
             this.bNodeIdFactory = requireNonNull(bNodeIdFactory);
+            this.format = requireNonNull(format);
+            this.joinWindow = requireNonNull(joinWindow);
+            this.queryId = requireNonNull(queryId);
+            this.nodeIds = requireNonNull(nodeIds);
+
+            // Default to a Binding Set outputting sink entry.
+            sinkEntry = new SinkEntry<>(
+                    new BindingSetOutputFormatterSupplier(),
+                    new StringSerializer(),
+                    format.bindingSetSerializer());
         }
 
         /**
@@ -383,14 +472,14 @@ public class TopologyFactory implements TopologyBuilderFactory {
             sinkEntry = new SinkEntry<>(
                     new StatementOutputFormatterSupplier(),
                     new StringSerializer(),
-                    new VisibilityStatementSerializer());
+                    format.statementSerializer());
             super.meet(node);
         }
 
         @Override
         public void meet(final StatementPattern node) throws TopologyBuilderException {
             // topology parent for Statement Patterns will always be a source
-            final String id = STATEMENT_PATTERN_PREFIX + UUID.randomUUID();
+            final String id = nodeIds.apply(STATEMENT_PATTERN_PREFIX);
             final Optional<Side> side = getSide(node);
             final StatementPatternProcessorSupplier supplier = new StatementPatternProcessorSupplier(node, result -> getResult(side, result));
             entries.add(new ProcessorEntry(node, id, side, supplier, Lists.newArrayList()));
@@ -400,7 +489,7 @@ public class TopologyFactory implements TopologyBuilderFactory {
 
         @Override
         public void meet(final Projection node) throws TopologyBuilderException {
-            final String id = PROJECTION_PREFIX + UUID.randomUUID();
+            final String id = nodeIds.apply(PROJECTION_PREFIX);
             final Optional<Side> side = getSide(node);
 
             // If the arg is an Extension, there are rebindings that need to be
@@ -421,7 +510,7 @@ public class TopologyFactory implements TopologyBuilderFactory {
 
         @Override
         public void meet(final MultiProjection node) throws TopologyBuilderException {
-            final String id = PROJECTION_PREFIX + UUID.randomUUID();
+            final String id = nodeIds.apply(PROJECTION_PREFIX);
             final Optional<Side> side = getSide(node);
 
             final MultiProjectionProcessorSupplier supplier = new MultiProjectionProcessorSupplier(
@@ -441,7 +530,7 @@ public class TopologyFactory implements TopologyBuilderFactory {
 
         @Override
         public void meet(final Filter node) throws TopologyBuilderException {
-            final String id = FILTER_PREFIX + UUID.randomUUID();
+            final String id = nodeIds.apply(FILTER_PREFIX);
             final Optional<Side> side = getSide(node);
 
             final FilterProcessorSupplier supplier = new FilterProcessorSupplier(
@@ -455,21 +544,21 @@ public class TopologyFactory implements TopologyBuilderFactory {
 
         @Override
         public void meet(final Join node) throws TopologyBuilderException {
-            final String id = JOIN_PREFIX + UUID.randomUUID();
+            final String id = nodeIds.apply(JOIN_PREFIX);
             meetJoin(id, new NaturalJoin(), node);
             super.meet(node);
         }
 
         @Override
         public void meet(final LeftJoin node) throws TopologyBuilderException {
-            final String id = JOIN_PREFIX + UUID.randomUUID();
+            final String id = nodeIds.apply(JOIN_PREFIX);
             meetJoin(id, new LeftOuterJoin(), node);
             super.meet(node);
         }
 
         @Override
         public void meet(final Group node) throws TopologyBuilderException {
-            final String id = AGGREGATION_PREFIX + UUID.randomUUID();
+            final String id = nodeIds.apply(AGGREGATION_PREFIX);
             final Optional<Side> side = getSide(node);
             final AggregationProcessorSupplier supplier = new AggregationProcessorSupplier(id, node, (result) -> getResult(side, result));
             entries.add( new ProcessorEntry(node, id, side, supplier, Lists.newArrayList(node.getArg())) );
@@ -527,7 +616,7 @@ public class TopologyFactory implements TopologyBuilderFactory {
             allVars.addAll(otherVars);
 
             final Optional<Side> side = getSide(node);
-            final JoinProcessorSupplier supplier = new JoinProcessorSupplier(id, joinFunction, joinVars, allVars, result -> getResult(side, result));
+            final JoinProcessorSupplier supplier = new JoinProcessorSupplier(id, joinFunction, joinVars, allVars, joinWindow, queryId, result -> getResult(side, result));
             entries.add(new ProcessorEntry(node, id, side, supplier, Lists.newArrayList(node.getLeftArg(), node.getRightArg())));
             idMap.put(node, id);
         }
@@ -539,7 +628,7 @@ public class TopologyFactory implements TopologyBuilderFactory {
          * @param result - The result to wrap in a {@link ProcessorResult}.
          * @return The {@link ProcessorResult} used by the {@link Processor}.
          */
-        private ProcessorResult getResult(final Optional<Side> side, final VisibilityBindingSet result) {
+        static ProcessorResult getResult(final Optional<Side> side, final VisibilityBindingSet result) {
             if (side.isPresent()) {
                 return ProcessorResult.make(new BinaryResult(side.get(), result));
             } else {
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.kafka.processors.join;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.Processor;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.rya.api.function.join.NaturalJoin;
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.streams.kafka.processors.ProcessorResult;
+import org.apache.rya.streams.kafka.processors.ProcessorResult.BinaryResult;
+import org.apache.rya.streams.kafka.processors.ProcessorResult.BinaryResult.Side;
+import org.apache.rya.streams.kafka.processors.ProcessorResult.UnaryResult;
+import org.apache.rya.streams.kafka.processors.join.JoinProcessorSupplier.JoinProcessor;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit tests the methods of {@link JoinProcessor}.
+ */
+public class JoinProcessorTest {
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void storesStateUnderTheQueryId() throws Exception {
+        final UUID queryId = UUID.randomUUID();
+        final UUID groupId = UUID.randomUUID();
+
+        // A shared topology's application is named after the group of queries it runs.
+        final KeyValueStore<String, VisibilityBindingSet> store = mock(KeyValueStore.class);
+        when(store.range(anyString(), anyString())).thenReturn(mock(KeyValueIterator.class));
+        final ProcessorContext context = mock(ProcessorContext.class);
+        when(context.applicationId()).thenReturn("RyaStreams-Shared-rya-" + groupId);
+        when(context.getStateStore(eq("join"))).thenReturn(store);
+
+        final List<String> vars = Arrays.asList("employee", "person");
+        final Processor<Object, ProcessorResult> processor = new JoinProcessorSupplier("join", new NaturalJoin(),
+                Arrays.asList("employee"), vars, Optional.empty(), Optional.of(queryId),
+                result -> ProcessorResult.make(new UnaryResult(result))).get();
+        processor.init(context);
+
+        final ValueFactory vf = SimpleValueFactory.getInstance();
+        final MapBindingSet bs = new MapBindingSet();
+        bs.addBinding("person", vf.createIRI("urn:Alice"));
+        bs.addBinding("employee", vf.createIRI("urn:Bob"));
+        processor.process("key", ProcessorResult.make(new BinaryResult(Side.LEFT, new VisibilityBindingSet(bs, "a"))));
+
+        // Every row is keyed by the query's ID instead of the application's.
+        final ArgumentCaptor<List> stored = ArgumentCaptor.forClass(List.class);
+        verify(store).putAll(stored.capture());
+        for(final Object entry : stored.getValue()) {
+            final String key = ((KeyValue<String, VisibilityBindingSet>) entry).key;
+            assertTrue(key.contains(queryId.toString()));
+            assertFalse(key.contains(groupId.toString()));
+        }
+        verify(context, never()).forward(any(), any());
+    }
+}
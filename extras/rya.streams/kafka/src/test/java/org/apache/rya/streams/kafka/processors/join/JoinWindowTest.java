@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.kafka.processors.join;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+/**
+ * Unit tests the methods of {@link JoinWindow}.
+ */
+public class JoinWindowTest {
+
+    @Test
+    public void noHint() {
+        final String sparql = "SELECT * WHERE { ?a <urn:talksTo> ?b . ?b <urn:worksAt> ?c }";
+        assertEquals(Optional.empty(), JoinWindow.fromSparql(sparql));
+    }
+
+    @Test
+    public void timeHint() {
+        final String sparql =
+                "# rya:joinWindow time=PT10M\n" +
+                "SELECT * WHERE { ?a <urn:talksTo> ?b . ?b <urn:worksAt> ?c }";
+        assertEquals(Optional.of(JoinWindow.ofTime(600_000L)), JoinWindow.fromSparql(sparql));
+    }
+
+    @Test
+    public void countHint() {
+        final String sparql =
+                "PREFIX ex: <urn:example#>\n" +
+                "  #rya:joinWindow count=25  \n" +
+                "SELECT * WHERE { ?a ex:talksTo ?b . ?b ex:worksAt ?c }";
+        assertEquals(Optional.of(JoinWindow.ofCount(25)), JoinWindow.fromSparql(sparql));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidHint() {
+        JoinWindow.fromSparql("# rya:joinWindow time=tenMinutes\nSELECT * WHERE { ?a ?b ?c }");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveSize() {
+        JoinWindow.fromSparql("# rya:joinWindow count=0\nSELECT * WHERE { ?a ?b ?c }");
+    }
+}
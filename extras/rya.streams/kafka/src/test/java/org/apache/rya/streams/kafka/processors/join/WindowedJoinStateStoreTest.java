@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.kafka.processors.join;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.api.utils.CloseableIterator;
+import org.apache.rya.streams.kafka.processors.ProcessorResult.BinaryResult;
+import org.apache.rya.streams.kafka.processors.ProcessorResult.BinaryResult.Side;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * Unit tests the methods of {@link WindowedJoinStateStore}.
+ */
+public class WindowedJoinStateStoreTest {
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    private static final List<String> JOIN_VARS = Arrays.asList("x");
+    private static final List<String> ALL_VARS = Arrays.asList("x", "y");
+
+    private final AtomicLong clock = new AtomicLong();
+
+    // Sorts its keys the same way a RocksDB store does.
+    private final NavigableMap<byte[], byte[]> map = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+    private KeyValueStore<byte[], byte[]> store;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        store = mock(KeyValueStore.class);
+        doAnswer(invocation -> {
+            map.put((byte[]) invocation.getArguments()[0], (byte[]) invocation.getArguments()[1]);
+            return null;
+        }).when(store).put(any(byte[].class), any(byte[].class));
+        doAnswer(invocation -> map.get(invocation.getArguments()[0])).when(store).get(any(byte[].class));
+        doAnswer(invocation -> map.remove(invocation.getArguments()[0])).when(store).delete(any(byte[].class));
+        doAnswer(invocation -> iterator(map.subMap((byte[]) invocation.getArguments()[0], true, (byte[]) invocation.getArguments()[1], true)))
+                .when(store).range(any(byte[].class), any(byte[].class));
+        doAnswer(invocation -> iterator(map)).when(store).all();
+    }
+
+    @Test
+    public void evictExpired_removesBindingSetsOlderThanWindow() throws Exception {
+        final WindowedJoinStateStore joinStore = new WindowedJoinStateStore(store, JOIN_VARS, ALL_VARS, JoinWindow.ofTime(100), clock::get);
+        storeAt(joinStore, 0, result(Side.LEFT, "urn:1", "urn:Alice"));
+        storeAt(joinStore, 50, result(Side.LEFT, "urn:2", "urn:Bob"));
+        storeAt(joinStore, 80, result(Side.RIGHT, "urn:1", "urn:Charlie"));
+
+        joinStore.evictExpired(120);
+
+        // Only Alice was stored before the window began. Each binding set that is left has an index row.
+        assertEquals(4, map.size());
+        clock.set(120);
+        assertEquals(0, joinedYs(joinStore, result(Side.RIGHT, "urn:1", "urn:Dave")).size());
+        assertEquals(Arrays.asList(VF.createIRI("urn:Bob")), joinedYs(joinStore, result(Side.RIGHT, "urn:2", "urn:Dave")));
+        assertEquals(Arrays.asList(VF.createIRI("urn:Charlie")), joinedYs(joinStore, result(Side.LEFT, "urn:1", "urn:Dave")));
+    }
+
+    @Test
+    public void evictExpired_acrossWindows() throws Exception {
+        final WindowedJoinStateStore joinStore = new WindowedJoinStateStore(store, JOIN_VARS, ALL_VARS, JoinWindow.ofTime(100), clock::get);
+        storeAt(joinStore, 0, result(Side.LEFT, "urn:1", "urn:Alice"));
+        storeAt(joinStore, 100, result(Side.LEFT, "urn:1", "urn:Bob"));
+        storeAt(joinStore, 200, result(Side.LEFT, "urn:1", "urn:Charlie"));
+
+        joinStore.evictExpired(150);
+        assertEquals(4, map.size());
+        clock.set(150);
+        assertEquals(Arrays.asList(VF.createIRI("urn:Bob"), VF.createIRI("urn:Charlie")),
+                joinedYs(joinStore, result(Side.RIGHT, "urn:1", "urn:Dave")));
+
+        joinStore.evictExpired(250);
+        assertEquals(2, map.size());
+        clock.set(250);
+        assertEquals(Arrays.asList(VF.createIRI("urn:Charlie")), joinedYs(joinStore, result(Side.RIGHT, "urn:1", "urn:Dave")));
+
+        joinStore.evictExpired(1000);
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void evictExpired_keepsBindingSetsStoredAgain() throws Exception {
+        final WindowedJoinStateStore joinStore = new WindowedJoinStateStore(store, JOIN_VARS, ALL_VARS, JoinWindow.ofTime(100), clock::get);
+        storeAt(joinStore, 0, result(Side.LEFT, "urn:1", "urn:Alice"));
+        storeAt(joinStore, 90, result(Side.LEFT, "urn:1", "urn:Alice"));
+
+        joinStore.evictExpired(150);
+
+        // The index row from the first time Alice was stored is gone, but Alice is still within the window.
+        assertEquals(2, map.size());
+        clock.set(150);
+        assertEquals(Arrays.asList(VF.createIRI("urn:Alice")), joinedYs(joinStore, result(Side.RIGHT, "urn:1", "urn:Dave")));
+    }
+
+    @Test
+    public void evictExpired_doesNotScanTheStore() throws Exception {
+        final WindowedJoinStateStore joinStore = new WindowedJoinStateStore(store, JOIN_VARS, ALL_VARS, JoinWindow.ofTime(100), clock::get);
+        for(int i = 0; i < 10; i++) {
+            storeAt(joinStore, i * 100, result(Side.LEFT, "urn:" + i, "urn:Alice"));
+        }
+
+        joinStore.evictExpired(1000);
+
+        verify(store, never()).all();
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void getJoinedValues_evictsExpiredBindingSets() throws Exception {
+        final WindowedJoinStateStore joinStore = new WindowedJoinStateStore(store, JOIN_VARS, ALL_VARS, JoinWindow.ofTime(100), clock::get);
+        storeAt(joinStore, 0, result(Side.LEFT, "urn:1", "urn:Alice"));
+
+        clock.set(200);
+        assertEquals(0, joinedYs(joinStore, result(Side.RIGHT, "urn:1", "urn:Dave")).size());
+
+        // Both the binding set and its index row were removed.
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void countWindow_trimsOldest() throws Exception {
+        final WindowedJoinStateStore joinStore = new WindowedJoinStateStore(store, JOIN_VARS, ALL_VARS, JoinWindow.ofCount(2), clock::get);
+        storeAt(joinStore, 0, result(Side.LEFT, "urn:1", "urn:Alice"));
+        storeAt(joinStore, 10, result(Side.LEFT, "urn:1", "urn:Bob"));
+        storeAt(joinStore, 20, result(Side.LEFT, "urn:1", "urn:Charlie"));
+
+        // Count windows are not indexed by time, and evicting by time leaves them alone.
+        joinStore.evictExpired(1000);
+        assertEquals(2, map.size());
+        assertEquals(Arrays.asList(VF.createIRI("urn:Bob"), VF.createIRI("urn:Charlie")),
+                joinedYs(joinStore, result(Side.RIGHT, "urn:1", "urn:Dave")));
+    }
+
+    private void storeAt(final WindowedJoinStateStore joinStore, final long time, final BinaryResult result) {
+        clock.set(time);
+        joinStore.store(result);
+    }
+
+    private static BinaryResult result(final Side side, final String x, final String y) {
+        final MapBindingSet bs = new MapBindingSet();
+        bs.addBinding("x", VF.createIRI(x));
+        bs.addBinding("y", VF.createIRI(y));
+        return new BinaryResult(side, new VisibilityBindingSet(bs, "a"));
+    }
+
+    /**
+     * @return The values of ?y of the binding sets that join with {@code result}, in the order of their keys.
+     */
+    private static List<Value> joinedYs(final WindowedJoinStateStore joinStore, final BinaryResult result) throws Exception {
+        final List<Value> ys = new ArrayList<>();
+        try(final CloseableIterator<VisibilityBindingSet> it = joinStore.getJoinedValues(result)) {
+            while(it.hasNext()) {
+                ys.add(it.next().getValue("y"));
+            }
+        }
+        return ys;
+    }
+
+    /**
+     * Iterates over a copy of the entries, so the store may be changed while they are read.
+     */
+    private static KeyValueIterator<byte[], byte[]> iterator(final Map<byte[], byte[]> entries) {
+        final Iterator<Entry<byte[], byte[]>> it = new ArrayList<>(entries.entrySet()).iterator();
+        return new KeyValueIterator<byte[], byte[]>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public KeyValue<byte[], byte[]> next() {
+                final Entry<byte[], byte[]> entry = it.next();
+                return new KeyValue<>(entry.getKey(), entry.getValue());
+            }
+
+            @Override
+            public void close() {
+                // Nothing to release.
+            }
+        };
+    }
+}
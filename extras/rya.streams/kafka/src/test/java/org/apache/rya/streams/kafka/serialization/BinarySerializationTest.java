@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.kafka.serialization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.rya.api.model.VisibilityBindingSet;
+import org.apache.rya.api.model.VisibilityStatement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.junit.Test;
+
+/**
+ * Tests the methods of {@link BinarySerialization}.
+ */
+public class BinarySerializationTest {
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    @Test
+    public void statement() throws Exception {
+        final VisibilityStatement original = new VisibilityStatement(VF.createStatement(
+                VF.createIRI("urn:people#alice"),
+                VF.createIRI("urn:people#talksTo"),
+                VF.createIRI("urn:people#bob"),
+                VF.createIRI("urn:graph")),
+                "a|b");
+
+        final byte[] bytes = BinarySerialization.serialize(original);
+        assertTrue(BinarySerialization.isBinary(bytes));
+        assertEquals(original, BinarySerialization.deserializeStatement(bytes));
+
+        // The binary form is much smaller than the Java object serialized form.
+        assertTrue(bytes.length * 4 < ObjectSerialization.serialize(original).length);
+    }
+
+    @Test
+    public void statement_noContext() throws Exception {
+        final VisibilityStatement original = new VisibilityStatement(VF.createStatement(
+                VF.createBNode("b1"),
+                VF.createIRI("urn:label"),
+                VF.createLiteral("hello", "en")));
+
+        assertEquals(original, BinarySerialization.deserializeStatement(BinarySerialization.serialize(original)));
+    }
+
+    @Test
+    public void bindingSet() throws Exception {
+        final MapBindingSet bs = new MapBindingSet();
+        bs.addBinding("name", VF.createLiteral("alice"));
+        bs.addBinding("age", VF.createLiteral(37));
+        bs.addBinding("weight", VF.createLiteral("61.5", XMLSchema.DECIMAL));
+        bs.addBinding("born", VF.createLiteral("1980", VF.createIRI("urn:types#year")));
+        bs.addBinding("friend", VF.createIRI("urn:types#bob"));
+        final VisibilityBindingSet original = new VisibilityBindingSet(bs, "a&b");
+
+        assertEquals(original, BinarySerialization.deserializeBindingSet(BinarySerialization.serialize(original)));
+    }
+
+    @Test
+    public void deserializersReadBothFormats() throws Exception {
+        final MapBindingSet bs = new MapBindingSet();
+        bs.addBinding("name", VF.createLiteral("alice"));
+        final VisibilityBindingSet original = new VisibilityBindingSet(bs, "a");
+
+        try(final Serde<VisibilityBindingSet> binary = new BinaryVisibilityBindingSetSerde();
+                final Serde<VisibilityBindingSet> java = new VisibilityBindingSetSerde()) {
+            final byte[] binaryBytes = binary.serializer().serialize("topic", original);
+            final byte[] javaBytes = java.serializer().serialize("topic", original);
+            assertFalse(BinarySerialization.isBinary(javaBytes));
+
+            assertEquals(original, java.deserializer().deserialize("topic", binaryBytes));
+            assertEquals(original, binary.deserializer().deserialize("topic", javaBytes));
+        }
+    }
+
+    @Test
+    public void deserializeWrongKind() {
+        final VisibilityStatement statement = new VisibilityStatement(VF.createStatement(
+                VF.createIRI("urn:alice"), VF.createIRI("urn:talksTo"), VF.createIRI("urn:bob")));
+        try(final Serde<VisibilityBindingSet> serde = new BinaryVisibilityBindingSetSerde()) {
+            assertNull( serde.deserializer().deserialize("topic", BinarySerialization.serialize(statement)) );
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void deserializeUnknownVersion() throws Exception {
+        final byte[] bytes = BinarySerialization.serialize(new VisibilityBindingSet(new MapBindingSet()));
+        bytes[1] = BinarySerialization.VERSION + 1;
+        BinarySerialization.deserializeBindingSet(bytes);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.kafka.topology;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.UUID;
+
+import org.apache.rya.api.function.projection.RandomUUIDFactory;
+import org.apache.rya.streams.api.entity.StreamsQuery;
+import org.apache.rya.streams.kafka.serialization.SerializationFormat;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Unit tests the methods of {@link SharedTopologyFactory}.
+ */
+public class SharedTopologyFactoryTest {
+
+    @Test
+    public void commonPatternsAreShared() throws Exception {
+        final StreamsQuery query1 = new StreamsQuery(UUID.randomUUID(),
+                "SELECT * WHERE { ?person <urn:talksTo> ?otherPerson . ?otherPerson <urn:worksAt> ?shop . }", true, false);
+        final StreamsQuery query2 = new StreamsQuery(UUID.randomUUID(),
+                "SELECT * WHERE { ?person <urn:talksTo> ?otherPerson . }", true, false);
+        final StreamsQuery query3 = new StreamsQuery(UUID.randomUUID(),
+                "SELECT * WHERE { ?otherPerson <urn:worksAt> ?shop . ?shop <urn:sells> ?product . }", true, false);
+
+        final SharedTopologyFactory factory = new SharedTopologyFactory();
+        factory.build("rya", Lists.newArrayList(query1, query2, query3), new RandomUUIDFactory(), query -> SerializationFormat.JAVA);
+
+        // Five statement patterns, but only three distinct ones.
+        assertEquals(3, factory.getSharedPatterns().size());
+    }
+
+    @Test
+    public void variableNamesMatter() throws Exception {
+        final StreamsQuery query1 = new StreamsQuery(UUID.randomUUID(),
+                "SELECT * WHERE { ?person <urn:talksTo> ?otherPerson . }", true, false);
+        final StreamsQuery query2 = new StreamsQuery(UUID.randomUUID(),
+                "SELECT * WHERE { ?a <urn:talksTo> ?b . }", true, false);
+
+        final SharedTopologyFactory factory = new SharedTopologyFactory();
+        factory.build("rya", Lists.newArrayList(query1, query2), new RandomUUIDFactory(), query -> SerializationFormat.JAVA);
+
+        // The patterns bind different names, so they produce different binding sets.
+        assertEquals(2, factory.getSharedPatterns().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noQueries() throws Exception {
+        new SharedTopologyFactory().build("rya", Lists.newArrayList(), new RandomUUIDFactory(), query -> SerializationFormat.JAVA);
+    }
+}
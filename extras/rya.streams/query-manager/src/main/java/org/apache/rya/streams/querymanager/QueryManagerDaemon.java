@@ -32,14 +32,18 @@ import org.apache.commons.daemon.Daemon;
 import org.apache.commons.daemon.DaemonContext;
 import org.apache.commons.daemon.DaemonInitException;
 import org.apache.rya.streams.kafka.KafkaStreamsFactory;
+import org.apache.rya.streams.kafka.SharedTopologyKafkaStreamsFactory;
 import org.apache.rya.streams.kafka.SingleThreadKafkaStreamsFactory;
 import org.apache.rya.streams.kafka.interactor.CreateKafkaTopic;
+import org.apache.rya.streams.kafka.serialization.SerializationFormat;
 import org.apache.rya.streams.querymanager.kafka.KafkaQueryChangeLogSource;
 import org.apache.rya.streams.querymanager.kafka.LocalQueryExecutor;
+import org.apache.rya.streams.querymanager.kafka.SharedTopologyQueryExecutor;
 import org.apache.rya.streams.querymanager.xml.Kafka;
 import org.apache.rya.streams.querymanager.xml.QueryManagerConfig;
 import org.apache.rya.streams.querymanager.xml.QueryManagerConfig.PerformanceTunning.QueryChanngeLogDiscoveryPeriod;
 import org.apache.rya.streams.querymanager.xml.QueryManagerConfigUnmarshaller;
+import org.apache.rya.streams.querymanager.xml.SharedKafkaStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
@@ -111,9 +115,21 @@ public class QueryManagerDaemon implements Daemon {
         final QueryChangeLogSource source = new KafkaQueryChangeLogSource(kafka.getHostname(), kafka.getPort(), scheduler);
 
         // Initialize a QueryExecutor.
-        final String zookeeperServers = config.getQueryExecutor().getLocalKafkaStreams().getZookeepers();
-        final KafkaStreamsFactory streamsFactory = new SingleThreadKafkaStreamsFactory(kafka.getHostname() + ":" + kafka.getPort());
-        final QueryExecutor queryExecutor = new LocalQueryExecutor(new CreateKafkaTopic(zookeeperServers), streamsFactory);
+        final String bootstrapServers = kafka.getHostname() + ":" + kafka.getPort();
+        final SharedKafkaStreams sharedConfig = config.getQueryExecutor().getSharedKafkaStreams();
+        final QueryExecutor queryExecutor;
+        if(sharedConfig != null) {
+            final int streamThreads = sharedConfig.getStreamThreads() != null ?
+                    sharedConfig.getStreamThreads().intValue() : Runtime.getRuntime().availableProcessors();
+            log.info("Shared Kafka Streams jobs will use up to " + streamThreads + " stream threads.");
+            final SharedTopologyKafkaStreamsFactory streamsFactory =
+                    new SharedTopologyKafkaStreamsFactory(bootstrapServers, streamThreads, query -> SerializationFormat.JAVA);
+            queryExecutor = new SharedTopologyQueryExecutor(new CreateKafkaTopic(sharedConfig.getZookeepers()), streamsFactory);
+        } else {
+            final String zookeeperServers = config.getQueryExecutor().getLocalKafkaStreams().getZookeepers();
+            final KafkaStreamsFactory streamsFactory = new SingleThreadKafkaStreamsFactory(bootstrapServers);
+            queryExecutor = new LocalQueryExecutor(new CreateKafkaTopic(zookeeperServers), streamsFactory);
+        }
 
         // Initialize the QueryManager using the configured resources.
         manager = new QueryManager(queryExecutor, source, period, units);
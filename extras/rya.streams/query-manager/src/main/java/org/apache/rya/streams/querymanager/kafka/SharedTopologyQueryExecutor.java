@@ -0,0 +1,412 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.querymanager.kafka;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.rya.streams.api.entity.StreamsQuery;
+import org.apache.rya.streams.kafka.KafkaStreamsFactory.KafkaStreamsFactoryException;
+import org.apache.rya.streams.kafka.KafkaTopics;
+import org.apache.rya.streams.kafka.SharedTopologyKafkaStreamsFactory;
+import org.apache.rya.streams.kafka.interactor.CreateKafkaTopic;
+import org.apache.rya.streams.querymanager.QueryExecutor;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.parser.sparql.SPARQLParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.AbstractIdleService;
+
+import edu.umd.cs.findbugs.annotations.DefaultAnnotation;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A {@link QueryExecutor} that runs groups of queries within shared {@link KafkaStreams} jobs
+ * inside this JVM, rather than a job per query.
+ * <p>
+ * Queries that are started within a short delay of each other, such as all of the queries that are
+ * found when the Query Manager starts, are compiled into one topology by {@link SharedTopologyKafkaStreamsFactory}.
+ * The job reads and deserializes each statement once, and statement patterns the queries have in common
+ * are only evaluated once. The job's stream threads are sized by the factory, which never runs more
+ * threads than the statements topic has partitions. The statements topics this executor creates have a
+ * single partition, because the queries' joins do not repartition the statements by join key.
+ * <p>
+ * A Kafka Streams topology can not be changed while it is running. Starting a query never changes a
+ * running job, so the new query reads the statements topic from the beginning within a new job, the same
+ * as it would using {@link LocalQueryExecutor}. Stopping a query restarts its job without that query's
+ * sub-topology. The job keeps its Application ID and the remaining queries' state store names, so the
+ * remaining queries resume where they left off.
+ * <p>
+ * The first job of each Rya Instance after this executor starts, which holds all of the queries that
+ * were running when the Query Manager stopped, is named after the Rya Instance alone, so it resumes the
+ * previous run's first job even if some of its queries have been stopped since. Jobs that are started
+ * later are named after their first query. Their queries are grouped into the Rya Instance's first job
+ * when the Query Manager restarts, so they resume from that job's offsets instead of their own.
+ */
+@DefaultAnnotation(NonNull.class)
+public class SharedTopologyQueryExecutor extends AbstractIdleService implements QueryExecutor {
+    private static final Logger log = LoggerFactory.getLogger(SharedTopologyQueryExecutor.class);
+
+    /**
+     * Provides thread safety when interacting with this class.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Lookup the Rya Instance of a specific Query Id. Holds both the pending and the running queries.
+     */
+    private final Map<UUID, String> ryaInstanceById = new HashMap<>();
+
+    /**
+     * The queries of each Rya Instance that are waiting to be started as a group.
+     */
+    private final Map<String, Map<UUID, StreamsQuery>> pendingByRyaInstance = new HashMap<>();
+
+    /**
+     * The Rya Instances whose first job has been started since this executor started.
+     */
+    private final Set<String> startedRyaInstances = new HashSet<>();
+
+    /**
+     * Lookup the shared job that executes a running Query Id.
+     */
+    private final Map<UUID, SharedJob> jobByQueryId = new HashMap<>();
+
+    /**
+     * Used to create the input and output topics for a Kafka Streams job.
+     */
+    private final CreateKafkaTopic createKafkaTopic;
+
+    /**
+     * Builds the {@link KafkaStreams} objects that execute groups of queries.
+     */
+    private final SharedTopologyKafkaStreamsFactory streamsFactory;
+
+    /**
+     * How long a started query waits for other queries to share its job.
+     */
+    private final long groupingDelay;
+    private final TimeUnit groupingDelayUnits;
+
+    /**
+     * Starts the pending groups of queries.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs an instance of {@link SharedTopologyQueryExecutor} that waits one second for
+     * queries to share a job.
+     *
+     * @param createKafkaTopic - Used to create the input and output topics for a Kafka Streams job. (not null)
+     * @param streamsFactory - Builds the {@link KafkaStreams} objects that execute groups of queries. (not null)
+     */
+    public SharedTopologyQueryExecutor(
+            final CreateKafkaTopic createKafkaTopic,
+            final SharedTopologyKafkaStreamsFactory streamsFactory) {
+        this(createKafkaTopic, streamsFactory, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Constructs an instance of {@link SharedTopologyQueryExecutor}.
+     *
+     * @param createKafkaTopic - Used to create the input and output topics for a Kafka Streams job. (not null)
+     * @param streamsFactory - Builds the {@link KafkaStreams} objects that execute groups of queries. (not null)
+     * @param groupingDelay - How long a started query waits for other queries to share its job. (&gt;= 0)
+     * @param groupingDelayUnits - The units of {@code groupingDelay}. (not null)
+     */
+    public SharedTopologyQueryExecutor(
+            final CreateKafkaTopic createKafkaTopic,
+            final SharedTopologyKafkaStreamsFactory streamsFactory,
+            final long groupingDelay,
+            final TimeUnit groupingDelayUnits) {
+        this.createKafkaTopic = requireNonNull(createKafkaTopic);
+        this.streamsFactory = requireNonNull(streamsFactory);
+        checkArgument(groupingDelay >= 0, "The grouping delay may not be negative.");
+        this.groupingDelay = groupingDelay;
+        this.groupingDelayUnits = requireNonNull(groupingDelayUnits);
+    }
+
+    @Override
+    protected void startUp() throws Exception {
+        log.info("Shared Topology Query Executor starting up.");
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @Override
+    protected void shutDown() throws Exception {
+        log.info("Shared Topology Query Executor shutting down. Stopping all jobs...");
+
+        lock.lock();
+        try {
+            scheduler.shutdownNow();
+
+            // Stop all of the running jobs.
+            for(final SharedJob job : new HashSet<>( jobByQueryId.values() )) {
+                job.getStreams().close();
+            }
+
+            ryaInstanceById.clear();
+            pendingByRyaInstance.clear();
+            jobByQueryId.clear();
+            startedRyaInstances.clear();
+        } finally {
+            lock.unlock();
+        }
+
+        log.info("Shared Topology Query Executor shut down.");
+    }
+
+    @Override
+    public void startQuery(final String ryaInstance, final StreamsQuery query) throws QueryExecutorException {
+        requireNonNull(ryaInstance);
+        requireNonNull(query);
+        checkState(state() == State.RUNNING, "The service must be RUNNING to execute this method.");
+
+        // The query is started later, so make sure it can be parsed before reporting it as started.
+        try {
+            new SPARQLParser().parseQuery(query.getSparql(), null);
+        } catch (final MalformedQueryException e) {
+            throw new QueryExecutorException("Could not start query " + query.getQueryId(), e);
+        }
+
+        lock.lock();
+        try {
+            if(ryaInstanceById.containsKey(query.getQueryId())) {
+                log.debug("Query {} is already running.", query.getQueryId());
+                return;
+            }
+
+            // Make sure the Statements topic and the Query Results topic exist for the query.
+            // Since this is running in the JVM, the properties are left empty
+            //   so the cleanup.policy will default to delete to reduce memory usage.
+            // The topics have a single partition so that each join sees all of the statements.
+            final Set<String> topics = Sets.newHashSet(
+                    KafkaTopics.statementsTopic(ryaInstance),
+                    KafkaTopics.queryResultsTopic(ryaInstance, query.getQueryId()));
+            createKafkaTopic.createTopics(topics, 1, 1, Optional.empty());
+
+            // Add the query to the Rya Instance's pending group. The first query of a group schedules its start.
+            Map<UUID, StreamsQuery> pending = pendingByRyaInstance.get(ryaInstance);
+            if(pending == null) {
+                pending = new LinkedHashMap<>();
+                pendingByRyaInstance.put(ryaInstance, pending);
+                scheduler.schedule(() -> startPending(ryaInstance), groupingDelay, groupingDelayUnits);
+            }
+            pending.put(query.getQueryId(), query);
+            ryaInstanceById.put(query.getQueryId(), ryaInstance);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a job that executes all of a Rya Instance's pending queries.
+     */
+    private void startPending(final String ryaInstance) {
+        lock.lock();
+        try {
+            final Map<UUID, StreamsQuery> queries = pendingByRyaInstance.remove(ryaInstance);
+            if(queries == null || queries.isEmpty()) {
+                return;
+            }
+
+            final String applicationId = startedRyaInstances.add(ryaInstance) ?
+                    applicationId(ryaInstance) : applicationId(ryaInstance) + "-" + queries.keySet().iterator().next();
+            final SharedJob job = new SharedJob(ryaInstance, applicationId, queries);
+            try {
+                job.start();
+                for(final UUID queryId : queries.keySet()) {
+                    jobByQueryId.put(queryId, job);
+                }
+                log.info("Started job {} for {} queries.", job.getApplicationId(), queries.size());
+            } catch (final KafkaStreamsFactoryException e) {
+                log.error("Could not start the queries " + queries.keySet(), e);
+                ryaInstanceById.keySet().removeAll(queries.keySet());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void stopQuery(final UUID queryId) throws QueryExecutorException {
+        requireNonNull(queryId);
+        checkState(state() == State.RUNNING, "The service must be RUNNING to execute this method.");
+
+        lock.lock();
+        try {
+            final String ryaInstance = ryaInstanceById.remove(queryId);
+            if(ryaInstance == null) {
+                return;
+            }
+
+            // A query that has not been started yet only needs to be removed from its group.
+            final Map<UUID, StreamsQuery> pending = pendingByRyaInstance.get(ryaInstance);
+            if(pending != null && pending.remove(queryId) != null) {
+                return;
+            }
+
+            // Otherwise restart the query's job without it.
+            final SharedJob job = jobByQueryId.remove(queryId);
+            job.getStreams().close();
+            job.getQueries().remove(queryId);
+            if(!job.getQueries().isEmpty()) {
+                try {
+                    job.start();
+                } catch (final KafkaStreamsFactoryException e) {
+                    // The other queries of the job are no longer running either.
+                    for(final UUID otherId : job.getQueries().keySet()) {
+                        ryaInstanceById.remove(otherId);
+                        jobByQueryId.remove(otherId);
+                    }
+                    throw new QueryExecutorException("Could not restart job " + job.getApplicationId() +
+                            " after stopping query " + queryId, e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void stopAll(final String ryaInstanceName) throws QueryExecutorException {
+        requireNonNull(ryaInstanceName);
+        checkState(state() == State.RUNNING, "The service must be RUNNING to execute this method.");
+
+        lock.lock();
+        try {
+            pendingByRyaInstance.remove(ryaInstanceName);
+
+            // Stop each of the Rya Instance's jobs once rather than restarting them for each query.
+            final Set<SharedJob> stopped = new HashSet<>();
+            final List<UUID> queryIds = new ArrayList<>();
+            for(final Map.Entry<UUID, String> entry : ryaInstanceById.entrySet()) {
+                if(entry.getValue().equals(ryaInstanceName)) {
+                    queryIds.add(entry.getKey());
+                }
+            }
+
+            for(final UUID queryId : queryIds) {
+                ryaInstanceById.remove(queryId);
+                final SharedJob job = jobByQueryId.remove(queryId);
+                if(job != null && stopped.add(job)) {
+                    job.getStreams().close();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The IDs of the queries that are running, including the ones that are waiting to be started
+     *   along with the other queries of their group.
+     */
+    @Override
+    public Set<UUID> getRunningQueryIds() throws QueryExecutorException {
+        checkState(state() == State.RUNNING, "The service must be RUNNING to execute this method.");
+
+        lock.lock();
+        try {
+            return new HashSet<>( ryaInstanceById.keySet() );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The Application ID of a Rya Instance's first job. It does not depend on which queries
+     *   the job runs, so the job resumes where it left off when the Query Manager is restarted.
+     */
+    private static String applicationId(final String ryaInstance) {
+        return "RyaStreams-Shared-" + ryaInstance;
+    }
+
+    /**
+     * A {@link KafkaStreams} job that executes a group of queries.
+     */
+    private final class SharedJob {
+        private final String ryaInstance;
+        private final String applicationId;
+        private final Map<UUID, StreamsQuery> queries;
+        private KafkaStreams streams;
+
+        /**
+         * Constructs an instance of {@link SharedJob}.
+         *
+         * @param ryaInstance - The Rya Instance the job is for. (not null)
+         * @param applicationId - The Application ID the job runs with. (not null)
+         * @param queries - The queries the job executes. (not null)
+         */
+        public SharedJob(final String ryaInstance, final String applicationId, final Map<UUID, StreamsQuery> queries) {
+            this.ryaInstance = requireNonNull(ryaInstance);
+            this.applicationId = requireNonNull(applicationId);
+            this.queries = requireNonNull(queries);
+        }
+
+        /**
+         * Builds a {@link KafkaStreams} object for the job's current queries and starts it.
+         *
+         * @throws KafkaStreamsFactoryException The job's topology could not be built.
+         */
+        public void start() throws KafkaStreamsFactoryException {
+            streams = streamsFactory.make(ryaInstance, applicationId, queries.values());
+            streams.start();
+        }
+
+        /**
+         * @return The Application ID the job runs with.
+         */
+        public String getApplicationId() {
+            return applicationId;
+        }
+
+        /**
+         * @return The queries the job executes.
+         */
+        public Map<UUID, StreamsQuery> getQueries() {
+            return queries;
+        }
+
+        /**
+         * @return The most recently started {@link KafkaStreams} object of the job.
+         */
+        public KafkaStreams getStreams() {
+            return streams;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.streams.querymanager.kafka;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.rya.streams.api.entity.StreamsQuery;
+import org.apache.rya.streams.kafka.SharedTopologyKafkaStreamsFactory;
+import org.apache.rya.streams.kafka.interactor.CreateKafkaTopic;
+import org.apache.rya.streams.querymanager.QueryExecutor;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Unit tests the methods of {@link SharedTopologyQueryExecutor}.
+ */
+public class SharedTopologyQueryExecutorTest {
+
+    @Test(expected = IllegalStateException.class)
+    public void startQuery_serviceNotStarted() throws Exception {
+        final QueryExecutor executor = new SharedTopologyQueryExecutor(mock(CreateKafkaTopic.class), mock(SharedTopologyKafkaStreamsFactory.class));
+        executor.startQuery("rya", new StreamsQuery(UUID.randomUUID(), "query", true, false));
+    }
+
+    @Test
+    public void startQuery_groupsQueries() throws Exception {
+        // Test values.
+        final String ryaInstance = "rya";
+        final StreamsQuery query1 = new StreamsQuery(UUID.randomUUID(), "SELECT * WHERE { ?a ?b ?c. }", true, false);
+        final StreamsQuery query2 = new StreamsQuery(UUID.randomUUID(), "SELECT * WHERE { ?a ?b ?c. }", true, false);
+
+        // Mock the streams factory so that we can tell which queries were started together.
+        final SharedTopologyKafkaStreamsFactory jobFactory = mock(SharedTopologyKafkaStreamsFactory.class);
+        final KafkaStreams job = mock(KafkaStreams.class);
+        when(jobFactory.make(eq(ryaInstance), any(String.class), argThat(holds(query1, query2)))).thenReturn(job);
+
+        // Start the executor that will be tested.
+        final QueryExecutor executor = new SharedTopologyQueryExecutor(mock(CreateKafkaTopic.class), jobFactory, 500, TimeUnit.MILLISECONDS);
+        executor.startAndWait();
+        try {
+            // Tell the executor to start the queries.
+            executor.startQuery(ryaInstance, query1);
+            executor.startQuery(ryaInstance, query2);
+            assertEquals(Sets.newHashSet(query1.getQueryId(), query2.getQueryId()), executor.getRunningQueryIds());
+
+            // Show a single job was started for both of them.
+            verify(job, timeout(5000)).start();
+        } finally {
+            executor.stopAndWait();
+        }
+
+        verify(job).close();
+    }
+
+    @Test
+    public void stopQuery_restartsJob() throws Exception {
+        // Test values.
+        final String ryaInstance = "rya";
+        final StreamsQuery query1 = new StreamsQuery(UUID.randomUUID(), "SELECT * WHERE { ?a ?b ?c. }", true, false);
+        final StreamsQuery query2 = new StreamsQuery(UUID.randomUUID(), "SELECT * WHERE { ?a ?b ?c. }", true, false);
+
+        // Mock the streams factory so that we can tell which jobs are started and stopped.
+        final SharedTopologyKafkaStreamsFactory jobFactory = mock(SharedTopologyKafkaStreamsFactory.class);
+        final KafkaStreams bothJob = mock(KafkaStreams.class);
+        final KafkaStreams remainingJob = mock(KafkaStreams.class);
+        when(jobFactory.make(eq(ryaInstance), any(String.class), argThat(holds(query1, query2)))).thenReturn(bothJob);
+        when(jobFactory.make(eq(ryaInstance), any(String.class), argThat(holds(query2)))).thenReturn(remainingJob);
+
+        // Start the executor that will be tested.
+        final QueryExecutor executor = new SharedTopologyQueryExecutor(mock(CreateKafkaTopic.class), jobFactory, 500, TimeUnit.MILLISECONDS);
+        executor.startAndWait();
+        try {
+            executor.startQuery(ryaInstance, query1);
+            executor.startQuery(ryaInstance, query2);
+            verify(bothJob, timeout(5000)).start();
+
+            // Stop one of the queries.
+            executor.stopQuery(query1.getQueryId());
+
+            // Show the job was restarted with only the remaining query.
+            verify(bothJob).close();
+            verify(remainingJob).start();
+            assertEquals(Sets.newHashSet(query2.getQueryId()), executor.getRunningQueryIds());
+        } finally {
+            executor.stopAndWait();
+        }
+    }
+
+    @Test
+    public void startQuery_applicationIds() throws Exception {
+        // Test values.
+        final String ryaInstance = "rya";
+        final StreamsQuery query1 = new StreamsQuery(UUID.randomUUID(), "SELECT * WHERE { ?a ?b ?c. }", true, false);
+        final StreamsQuery query2 = new StreamsQuery(UUID.randomUUID(), "SELECT * WHERE { ?a ?b ?c. }", true, false);
+
+        // Mock the streams factory so that we can tell which Application IDs the jobs use.
+        final SharedTopologyKafkaStreamsFactory jobFactory = mock(SharedTopologyKafkaStreamsFactory.class);
+        final KafkaStreams job1 = mock(KafkaStreams.class);
+        final KafkaStreams job2 = mock(KafkaStreams.class);
+        when(jobFactory.make(eq(ryaInstance), any(String.class), argThat(holds(query1)))).thenReturn(job1);
+        when(jobFactory.make(eq(ryaInstance), any(String.class), argThat(holds(query2)))).thenReturn(job2);
+
+        // Start the executor that will be tested.
+        final QueryExecutor executor = new SharedTopologyQueryExecutor(mock(CreateKafkaTopic.class), jobFactory, 100, TimeUnit.MILLISECONDS);
+        executor.startAndWait();
+        try {
+            executor.startQuery(ryaInstance, query1);
+            verify(job1, timeout(5000)).start();
+            executor.startQuery(ryaInstance, query2);
+            verify(job2, timeout(5000)).start();
+
+            // The first job is named after the Rya Instance alone, so it is the same however its queries change.
+            verify(jobFactory).make(eq(ryaInstance), eq("RyaStreams-Shared-rya"), argThat(holds(query1)));
+
+            // The later job is named after its first query.
+            verify(jobFactory).make(eq(ryaInstance), eq("RyaStreams-Shared-rya-" + query2.getQueryId()), argThat(holds(query2)));
+        } finally {
+            executor.stopAndWait();
+        }
+    }
+
+    @Test
+    public void stopQuery_pending() throws Exception {
+        // Test values.
+        final String ryaInstance = "rya";
+        final StreamsQuery query = new StreamsQuery(UUID.randomUUID(), "SELECT * WHERE { ?a ?b ?c. }", true, false);
+
+        final SharedTopologyKafkaStreamsFactory jobFactory = mock(SharedTopologyKafkaStreamsFactory.class);
+
+        // Start the executor with a delay long enough that the query is still pending when it is stopped.
+        final QueryExecutor executor = new SharedTopologyQueryExecutor(mock(CreateKafkaTopic.class), jobFactory, 1, TimeUnit.HOURS);
+        executor.startAndWait();
+        try {
+            executor.startQuery(ryaInstance, query);
+            executor.stopQuery(query.getQueryId());
+
+            // Show the query is not running and no job was created for it.
+            assertEquals(Sets.newHashSet(), executor.getRunningQueryIds());
+            verify(jobFactory, never()).make(any(String.class), any(String.class), any(Collection.class));
+        } finally {
+            executor.stopAndWait();
+        }
+    }
+
+    @Test
+    public void stopAll() throws Exception {
+        // Test values.
+        final StreamsQuery query1 = new StreamsQuery(UUID.randomUUID(), "SELECT * WHERE { ?a ?b ?c. }", true, false);
+        final StreamsQuery query2 = new StreamsQuery(UUID.randomUUID(), "SELECT * WHERE { ?a ?b ?c. }", true, false);
+
+        // Mock the streams factory so that we can tell which jobs are stopped.
+        final SharedTopologyKafkaStreamsFactory jobFactory = mock(SharedTopologyKafkaStreamsFactory.class);
+        final KafkaStreams job1 = mock(KafkaStreams.class);
+        final KafkaStreams job2 = mock(KafkaStreams.class);
+        when(jobFactory.make(eq("rya1"), any(String.class), argThat(holds(query1)))).thenReturn(job1);
+        when(jobFactory.make(eq("rya2"), any(String.class), argThat(holds(query2)))).thenReturn(job2);
+
+        // Start the executor that will be tested.
+        final QueryExecutor executor = new SharedTopologyQueryExecutor(mock(CreateKafkaTopic.class), jobFactory, 500, TimeUnit.MILLISECONDS);
+        executor.startAndWait();
+        try {
+            executor.startQuery("rya1", query1);
+            executor.startQuery("rya2", query2);
+            verify(job1, timeout(5000)).start();
+            verify(job2, timeout(5000)).start();
+
+            // Stop the queries of one of the Rya instances.
+            executor.stopAll("rya1");
+
+            // Show only that Rya instance's job was stopped.
+            verify(job1).close();
+            verify(job2, never()).close();
+            assertEquals(Sets.newHashSet(query2.getQueryId()), executor.getRunningQueryIds());
+        } finally {
+            executor.stopAndWait();
+        }
+    }
+
+    /**
+     * Matches a collection of queries that holds exactly the provided queries.
+     */
+    private static ArgumentMatcher<Collection<StreamsQuery>> holds(final StreamsQuery... queries) {
+        return new ArgumentMatcher<Collection<StreamsQuery>>() {
+            @Override
+            public boolean matches(final Object argument) {
+                return argument instanceof Collection && Sets.newHashSet((Collection<?>) argument).equals(Sets.newHashSet(queries));
+            }
+        };
+    }
+}
@@ -18,7 +18,9 @@
  */
 package org.apache.rya.streams.querymanager.xml;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
@@ -63,6 +65,38 @@ public class QueryManagerConfigMarshallerTest {
         assertNotNull(config);
     }
 
+    @Test
+    public void unmarshal_sharedKafkaStreams() throws Exception {
+        final String xml =
+                "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n" +
+                "<queryManagerConfig>\n" +
+                "    <queryChangeLogSource>\n" +
+                "        <kafka>\n" +
+                "            <hostname>localhost</hostname>\n" +
+                "            <port>6</port>\n" +
+                "        </kafka>\n" +
+                "    </queryChangeLogSource>\n" +
+                "    <queryExecutor>\n" +
+                "        <sharedKafkaStreams>\n" +
+                "            <zookeepers>zoo1,zoo2,zoo3</zookeepers>\n" +
+                "            <streamThreads>4</streamThreads>\n" +
+                "        </sharedKafkaStreams>\n" +
+                "    </queryExecutor>\n" +
+                "    <performanceTunning>\n" +
+                "        <queryChanngeLogDiscoveryPeriod>\n" +
+                "            <value>1</value>\n" +
+                "            <units>MINUTES</units>\n" +
+                "        </queryChanngeLogDiscoveryPeriod>\n" +
+                "    </performanceTunning>\n" +
+                "</queryManagerConfig>";
+
+        final InputStream xmlStream = new ByteArrayInputStream(xml.getBytes(Charsets.UTF_8));
+        final QueryManagerConfig config = QueryManagerConfigUnmarshaller.unmarshall(xmlStream);
+        assertNull(config.getQueryExecutor().getLocalKafkaStreams());
+        assertEquals("zoo1,zoo2,zoo3", config.getQueryExecutor().getSharedKafkaStreams().getZookeepers());
+        assertEquals(4, config.getQueryExecutor().getSharedKafkaStreams().getStreamThreads().intValue());
+    }
+
     @Test(expected = UnmarshalException.class)
     public void unmarshal_invalidXml() throws Exception {
         final String xml =
@@ -20,6 +20,9 @@ package org.apache.rya.accumulo.mr;
  */
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
@@ -27,16 +30,28 @@ import org.apache.accumulo.core.client.ClientConfiguration;
 import org.apache.accumulo.core.client.Connector;
 import org.apache.accumulo.core.client.Instance;
 import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.client.TableExistsException;
+import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.client.ZooKeeperInstance;
+import org.apache.accumulo.core.client.admin.TableOperations;
+import org.apache.accumulo.core.client.mapreduce.AccumuloFileOutputFormat;
 import org.apache.accumulo.core.client.mapreduce.AccumuloInputFormat;
 import org.apache.accumulo.core.client.mapreduce.AccumuloOutputFormat;
 import org.apache.accumulo.core.client.mock.MockInstance;
 import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.iterators.user.AgeOffFilter;
 import org.apache.accumulo.core.security.Authorizations;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FsShell;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.LazyOutputFormat;
 import org.apache.hadoop.util.Tool;
 import org.apache.rya.accumulo.AccumuloRdfConstants;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
@@ -57,11 +72,13 @@ import com.google.common.base.Preconditions;
  * RDF files.
  * <p>
  * Can be configured to send output either by inserting RyaStatementWritables to
- * a Rya instance, or by writing arbitrary
- * {@link org.apache.accumulo.core.data.Mutation}s directly to Accumulo tables.
+ * a Rya instance, by bulk importing RyaStatementWritables into a Rya instance,
+ * or by writing arbitrary {@link org.apache.accumulo.core.data.Mutation}s
+ * directly to Accumulo tables.
  */
 public abstract class AbstractAccumuloMRTool implements Tool {
     static int DEFAULT_IO_SORT_MB = 256;
+    static int DEFAULT_BULK_MAX_SPLITS = 100;
 
     protected Configuration conf;
 
@@ -283,6 +300,97 @@ public abstract class AbstractAccumuloMRTool implements Tool {
         }
     }
 
+    /**
+     * Sets up bulk Rya output for a job: like {@link #setupRyaOutput(Job)},
+     * the job's mappers receive {@link RyaStatementWritable}s and the
+     * statements are written to the core tables and any enabled secondary
+     * indexes. Instead of being written through BatchWriters, the rows of
+     * every table are sorted into RFiles beneath a directory, partitioned
+     * along the table's existing splits so each file falls within a single
+     * tablet. Call {@link #importRyaBulkOutput(Job)} once the job succeeds to
+     * bulk import them.
+     * <p>
+     * The job must not set its own mapper or reducer.
+     * @param   job Job to configure
+     * @param   bulkDir HDFS directory the RFiles are written to. It must not
+     *          exist yet.
+     * @throws  AccumuloSecurityException if connecting to Accumulo with the
+     *          given username and password fails
+     * @throws  AccumuloException if an output table can't be created
+     * @throws  TableNotFoundException if an output table is deleted while its
+     *          splits are listed
+     * @throws  IOException if an enabled indexer can't be initialized
+     */
+    protected void setupRyaBulkOutput(Job job, String bulkDir) throws AccumuloSecurityException, AccumuloException,
+            TableNotFoundException, IOException {
+        // The mappers read the same settings as RyaOutputFormat
+        setupRyaOutput(job);
+        Configuration jobConf = job.getConfiguration();
+        int maxSplits = jobConf.getInt(MRUtils.AC_BULK_MAX_SPLITS_PROP, DEFAULT_BULK_MAX_SPLITS);
+        TableOperations tableOps = getConnector().tableOperations();
+        Map<String, Collection<Text>> tableSplits = new HashMap<>();
+        for (String table : RyaOutputFormat.getOutputTableNames(jobConf)) {
+            try {
+                ConfigUtils.createTableIfNotExists(jobConf, table);
+            } catch (TableExistsException e) {
+                // Created concurrently; use it as it is
+            }
+            tableSplits.put(table, tableOps.listSplits(table, maxSplits));
+        }
+        job.setMapperClass(RyaBulkMapper.class);
+        job.setMapOutputKeyClass(TableKeyWritable.class);
+        job.setMapOutputValueClass(Value.class);
+        job.setPartitionerClass(TableSplitPartitioner.class);
+        job.setNumReduceTasks(TableSplitPartitioner.setTableSplits(job, tableSplits));
+        job.setReducerClass(RyaBulkReducer.class);
+        job.setOutputKeyClass(Key.class);
+        job.setOutputValueClass(Value.class);
+        LazyOutputFormat.setOutputFormatClass(job, AccumuloFileOutputFormat.class);
+        FileOutputFormat.setOutputPath(job, new Path(bulkDir));
+        RyaBulkMapper.setLoadTime(job, System.currentTimeMillis());
+    }
+
+    /**
+     * Bulk imports the RFiles written by a job that was configured by
+     * {@link #setupRyaBulkOutput(Job, String)}. Each table is imported once,
+     * from its own directory of files.
+     * @param   job Job that wrote the RFiles
+     * @throws  IOException if the files can't be read, or any of them could
+     *          not be imported. Files that were not imported are left in a
+     *          "failures" directory next to their table's files.
+     * @throws  AccumuloException if the import fails.
+     * @throws  AccumuloSecurityException if the user may not bulk import
+     *          into a table.
+     * @throws  TableNotFoundException if an output table no longer exists.
+     */
+    protected void importRyaBulkOutput(Job job) throws IOException, AccumuloException, AccumuloSecurityException,
+            TableNotFoundException {
+        Path bulkDir = FileOutputFormat.getOutputPath(job);
+        FileSystem fs = bulkDir.getFileSystem(conf);
+        // With HDFS permissions on, make sure the Accumulo user can read/move the files
+        try {
+            new FsShell(conf).run(new String[] {"-chmod", "-R", "777", bulkDir.toString()});
+        } catch (Exception e) {
+            throw new IOException("Could not open the permissions of " + bulkDir, e);
+        }
+        TableOperations tableOps = getConnector().tableOperations();
+        for (String table : TableSplitPartitioner.getTableNames(job.getConfiguration())) {
+            Path files = new Path(bulkDir, RyaBulkReducer.getFilesDirectory(table));
+            if (!fs.exists(files)) {
+                // Nothing was written to this table
+                continue;
+            }
+            Path failures = new Path(files.getParent(), "failures");
+            fs.mkdirs(failures);
+            tableOps.importDirectory(table, files.toString(), failures.toString(), false);
+            FileStatus[] failed = fs.listStatus(failures);
+            if (failed != null && failed.length > 0) {
+                throw new IOException(failed.length + " RFile(s) could not be imported into " + table
+                        + ". They were moved to " + failures);
+            }
+        }
+    }
+
     /**
      * Connects to Accumulo, using the stored connection parameters.
      * @return  A Connector to an Accumulo instance, which could be a mock
@@ -86,6 +86,19 @@ public class MRUtils {
      * as opposed to through Accumulo itself.
      */
     public static final String AC_HDFS_INPUT_PROP = "ac.hdfsinput";
+    /**
+     * Property name for an HDFS directory to write sorted RFiles to. If set,
+     * tools that support it bulk import their output from this directory
+     * instead of writing it through BatchWriters. The directory must not
+     * exist yet.
+     */
+    public static final String AC_BULK_DIR_PROP = "ac.bulk.dir";
+    /**
+     * Property name for the maximum number of a table's split points that
+     * bulk output is partitioned along; a table with more splits is
+     * partitioned along an even sample of them. Defaults to 100.
+     */
+    public static final String AC_BULK_MAX_SPLITS_PROP = "ac.bulk.maxsplits";
     /**
      * Property name for the table layout to use when reading data from Rya.
      */
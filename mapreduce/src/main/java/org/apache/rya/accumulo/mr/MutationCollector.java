@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.mr;
+
+import java.util.ArrayList;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.MultiTableBatchWriter;
+import org.apache.accumulo.core.data.ColumnUpdate;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+
+/**
+ * {@link MultiTableBatchWriter} that keeps the entries of every {@link Mutation}
+ * it is given instead of sending them to Accumulo. Lets the indexers used by
+ * {@link RyaOutputFormat} produce the rows of their tables so they may be
+ * written to RFiles and bulk imported.
+ * <p>
+ * Updates that were not given a timestamp are stamped with a single load time,
+ * since no tablet server will assign one.
+ */
+class MutationCollector implements MultiTableBatchWriter {
+    private final long loadTime;
+    private final Set<String> tableNames = new LinkedHashSet<>();
+    private final List<Map.Entry<TableKeyWritable, Value>> entries = new ArrayList<>();
+    private boolean closed = false;
+
+    /**
+     * Constructor.
+     * @param loadTime Timestamp of updates that do not have one.
+     */
+    MutationCollector(final long loadTime) {
+        this.loadTime = loadTime;
+    }
+
+    /**
+     * Get a BatchWriter whose mutations are collected for a table.
+     * @param tableName Table the mutations are meant for.
+     * @return A BatchWriter that never writes to Accumulo.
+     */
+    @Override
+    public BatchWriter getBatchWriter(final String tableName) {
+        tableNames.add(tableName);
+        return new BatchWriter() {
+            @Override
+            public void addMutation(final Mutation m) {
+                collect(tableName, m);
+            }
+
+            @Override
+            public void addMutations(final Iterable<Mutation> iterable) {
+                for (final Mutation m : iterable) {
+                    collect(tableName, m);
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Get the names of the tables that BatchWriters were requested for.
+     * @return Every table this collector was asked to write to, in the order
+     *      they were first requested.
+     */
+    Set<String> getTableNames() {
+        return tableNames;
+    }
+
+    /**
+     * Get the entries collected since the last call, and forget them.
+     * @return The collected entries, keyed by table and Accumulo Key.
+     */
+    List<Map.Entry<TableKeyWritable, Value>> drain() {
+        final List<Map.Entry<TableKeyWritable, Value>> drained = new ArrayList<>(entries);
+        entries.clear();
+        return drained;
+    }
+
+    /**
+     * Adds an entry to the collected entries.
+     * @param tableName Table the entry belongs to.
+     * @param key Accumulo Key of the entry.
+     * @param value Accumulo Value of the entry.
+     */
+    void add(final String tableName, final Key key, final Value value) {
+        entries.add(new SimpleEntry<>(new TableKeyWritable(tableName, key), value));
+    }
+
+    private void collect(final String tableName, final Mutation m) {
+        final byte[] row = m.getRow();
+        for (final ColumnUpdate update : m.getUpdates()) {
+            final long timestamp = update.hasTimestamp() ? update.getTimestamp() : loadTime;
+            final Key key = new Key(row, update.getColumnFamily(), update.getColumnQualifier(),
+                    update.getColumnVisibility(), timestamp, update.isDeleted(), true);
+            add(tableName, key, new Value(update.getValue()));
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.mr;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.log4j.Logger;
+import org.apache.rya.accumulo.AccumuloRdfConfiguration;
+import org.apache.rya.accumulo.RyaTableKeyValues;
+import org.apache.rya.api.domain.RyaIRI;
+import org.apache.rya.api.domain.RyaStatement;
+import org.apache.rya.indexing.FreeTextIndexer;
+import org.apache.rya.indexing.TemporalIndexer;
+import org.apache.rya.indexing.accumulo.entity.EntityCentricIndex;
+
+/**
+ * Mapper that turns {@link RyaStatementWritable}s into the rows Rya and its
+ * enabled indexers would have written for them, keyed by the table each row
+ * belongs to. Paired with the {@link TableSplitPartitioner} and the
+ * {@link RyaBulkReducer}, this is the bulk import counterpart of
+ * {@link RyaOutputFormat}: it reads the same settings, but instead of writing
+ * through BatchWriters its output is sorted into RFiles that are bulk imported
+ * once the job is done.
+ * <p>
+ * The free text, temporal, and entity indexers are given a BatchWriter that
+ * collects their mutations rather than sending them to Accumulo, so the rows of
+ * their tables are exactly the rows the live indexers write.
+ */
+public class RyaBulkMapper extends Mapper<Writable, RyaStatementWritable, TableKeyWritable, Value> {
+    private static final Logger logger = Logger.getLogger(RyaBulkMapper.class);
+
+    private static final String LOAD_TIME_PROPERTY = RyaBulkMapper.class.getSimpleName() + ".loadTime";
+
+    private MutationCollector collector;
+    private FreeTextIndexer freeTextIndexer;
+    private TemporalIndexer temporalIndexer;
+    private EntityCentricIndex entityIndexer;
+    private AccumuloRdfConfiguration ryaConf;
+    private String spoTable;
+    private String poTable;
+    private String ospTable;
+    private byte[] cv;
+    private RyaIRI defaultContext;
+
+    /**
+     * Set the timestamp of every index row that its indexer did not give one.
+     * If not specified, each map task uses the time it started.
+     * @param job Job to apply the setting to.
+     * @param loadTime Timestamp of the rows, in milliseconds since the epoch.
+     */
+    public static void setLoadTime(final Job job, final long loadTime) {
+        job.getConfiguration().setLong(LOAD_TIME_PROPERTY, loadTime);
+    }
+
+    @Override
+    protected void setup(final Context context) throws IOException {
+        final Configuration conf = context.getConfiguration();
+        cv = RyaOutputFormat.getDefaultVisibility(conf);
+        defaultContext = RyaOutputFormat.getDefaultContext(conf);
+        collector = new MutationCollector(conf.getLong(LOAD_TIME_PROPERTY, System.currentTimeMillis()));
+        freeTextIndexer = RyaOutputFormat.getFreeTextIndexer(conf, collector);
+        temporalIndexer = RyaOutputFormat.getTemporalIndexer(conf, collector);
+        entityIndexer = RyaOutputFormat.getEntityIndexer(conf);
+        if (entityIndexer != null) {
+            entityIndexer.setMultiTableBatchWriter(collector);
+        }
+        if (RyaOutputFormat.isCoreTablesEnabled(conf)) {
+            ryaConf = RyaOutputFormat.getRyaConfiguration(conf);
+            spoTable = ryaConf.getTableLayoutStrategy().getSpo();
+            poTable = ryaConf.getTableLayoutStrategy().getPo();
+            ospTable = ryaConf.getTableLayoutStrategy().getOsp();
+        }
+    }
+
+    /**
+     * Emits every row of a statement, keyed by table.
+     * @param key Unused.
+     * @param value Contains the statement to load.
+     * @param context Context for writing.
+     */
+    @Override
+    protected void map(final Writable key, final RyaStatementWritable value, final Context context)
+            throws IOException, InterruptedException {
+        final RyaStatement ryaStatement = value.getRyaStatement();
+        if (ryaStatement.getColumnVisibility() == null) {
+            ryaStatement.setColumnVisibility(cv);
+        }
+        if (ryaStatement.getContext() == null) {
+            ryaStatement.setContext(defaultContext);
+        }
+
+        if (ryaConf != null) {
+            final RyaTableKeyValues keyValues = new RyaTableKeyValues(ryaStatement, ryaConf).invoke();
+            add(spoTable, keyValues.getSpo());
+            add(poTable, keyValues.getPo());
+            add(ospTable, keyValues.getOsp());
+        }
+        if (freeTextIndexer != null) {
+            freeTextIndexer.storeStatement(ryaStatement);
+        }
+        if (temporalIndexer != null) {
+            temporalIndexer.storeStatement(ryaStatement);
+        }
+        if (entityIndexer != null) {
+            entityIndexer.storeStatement(ryaStatement);
+        }
+
+        for (final Map.Entry<TableKeyWritable, Value> entry : collector.drain()) {
+            context.write(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    protected void cleanup(final Context context) {
+        try {
+            if (freeTextIndexer != null) {
+                freeTextIndexer.close();
+            }
+        } catch (final IOException e) {
+            logger.error("Error closing the freetextIndexer on RyaBulkMapper cleanup", e);
+        }
+        try {
+            if (temporalIndexer != null) {
+                temporalIndexer.close();
+            }
+        } catch (final IOException e) {
+            logger.error("Error closing the temporalIndexer on RyaBulkMapper cleanup", e);
+        }
+        try {
+            if (entityIndexer != null) {
+                entityIndexer.close();
+            }
+        } catch (final IOException e) {
+            logger.error("Error closing the entityIndexer on RyaBulkMapper cleanup", e);
+        }
+    }
+
+    private void add(final String table, final Iterable<Map.Entry<Key, Value>> entries) {
+        for (final Map.Entry<Key, Value> entry : entries) {
+            collector.add(table, entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.mr;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.lib.output.MultipleOutputs;
+
+/**
+ * Writes the rows emitted by the {@link RyaBulkMapper} to one RFile per table,
+ * for use with {@link org.apache.accumulo.core.client.mapreduce.AccumuloFileOutputFormat}.
+ * Each table's files are written to "&lt;table&gt;/files" beneath the job's
+ * output directory, which is the directory that table is bulk imported from.
+ * <p>
+ * A statement that appears more than once produces the same key each time, so
+ * only the first value of each key is written.
+ */
+public class RyaBulkReducer extends Reducer<TableKeyWritable, Value, Key, Value> {
+    private MultipleOutputs<Key, Value> mos;
+
+    /**
+     * Get the directory beneath a job's output directory that a table's RFiles are written to.
+     * @param tableName Name of the table.
+     * @return The table's directory of RFiles, relative to the job's output directory.
+     */
+    public static String getFilesDirectory(final String tableName) {
+        return tableName + "/files";
+    }
+
+    @Override
+    protected void setup(final Context context) {
+        mos = new MultipleOutputs<>(context);
+    }
+
+    @Override
+    protected void cleanup(final Context context) throws IOException, InterruptedException {
+        if (mos != null) {
+            mos.close();
+        }
+    }
+
+    /**
+     * Writes the first value of a key to the RFile of its table.
+     * @param key The table name and Accumulo Key of the row.
+     * @param values Values of the row; all but the first are duplicates.
+     * @param context Context for writing.
+     */
+    @Override
+    protected void reduce(final TableKeyWritable key, final Iterable<Value> values, final Context context)
+            throws IOException, InterruptedException {
+        final Iterator<Value> it = values.iterator();
+        if (it.hasNext()) {
+            mos.write(key.getKey(), it.next(), getFilesDirectory(key.getTable().toString()) + "/part");
+        }
+    }
+}
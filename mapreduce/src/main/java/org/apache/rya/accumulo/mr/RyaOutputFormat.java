@@ -24,6 +24,8 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.accumulo.core.client.AccumuloException;
@@ -74,6 +76,9 @@ import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
  * The user must specify connection parameters for Rya, {@link GeoIndexer},
  * {@link FreeTextIndexer}, {@link TemporalIndexer}, and
  * {@link EntityCentricIndex}, if secondary indexing is desired.
+ * <p>
+ * To bulk import the same output instead of writing it through BatchWriters,
+ * use the {@link RyaBulkMapper}, which reads the same settings.
  */
 public class RyaOutputFormat extends OutputFormat<Writable, RyaStatementWritable> {
     private static final Logger logger = Logger.getLogger(RyaOutputFormat.class);
@@ -208,6 +213,18 @@ public class RyaOutputFormat extends OutputFormat<Writable, RyaStatementWritable
 
 
     private static FreeTextIndexer getFreeTextIndexer(final Configuration conf) throws IOException {
+        return getFreeTextIndexer(conf, null);
+    }
+
+    /**
+     * Get the free text indexer, if it is enabled.
+     * @param   conf    Configuration containing any relevant options.
+     * @param   mtbw    Writer the indexer's mutations are sent to, or null to
+     *                  create one that writes to Accumulo.
+     * @return  An initialized indexer, or null if free text indexing is disabled.
+     * @throws  IOException if connecting to Accumulo fails.
+     */
+    static FreeTextIndexer getFreeTextIndexer(final Configuration conf, final MultiTableBatchWriter mtbw) throws IOException {
         if (!conf.getBoolean(ENABLE_FREETEXT, true)) {
             return null;
         }
@@ -219,15 +236,26 @@ public class RyaOutputFormat extends OutputFormat<Writable, RyaStatementWritable
         } catch (AccumuloException | AccumuloSecurityException e) {
             throw new IOException("Error when attempting to create a connection for writing the freeText index.", e);
         }
-        final MultiTableBatchWriter mtbw = connector.createMultiTableBatchWriter(new BatchWriterConfig());
         freeText.setConnector(connector);
-        freeText.setMultiTableBatchWriter(mtbw);
+        freeText.setMultiTableBatchWriter(mtbw != null ? mtbw : connector.createMultiTableBatchWriter(new BatchWriterConfig()));
         freeText.init();
 
         return freeText;
     }
 
     private static TemporalIndexer getTemporalIndexer(final Configuration conf) throws IOException {
+        return getTemporalIndexer(conf, null);
+    }
+
+    /**
+     * Get the temporal indexer, if it is enabled.
+     * @param   conf    Configuration containing any relevant options.
+     * @param   mtbw    Writer the indexer's mutations are sent to, or null to
+     *                  create one that writes to Accumulo.
+     * @return  An initialized indexer, or null if temporal indexing is disabled.
+     * @throws  IOException if connecting to Accumulo fails.
+     */
+    static TemporalIndexer getTemporalIndexer(final Configuration conf, final MultiTableBatchWriter mtbw) throws IOException {
         if (!conf.getBoolean(ENABLE_TEMPORAL, true)) {
             return null;
         }
@@ -239,14 +267,13 @@ public class RyaOutputFormat extends OutputFormat<Writable, RyaStatementWritable
         } catch (AccumuloException | AccumuloSecurityException e) {
             throw new IOException("Error when attempting to create a connection for writing the temporal index.", e);
         }
-        final MultiTableBatchWriter mtbw = connector.createMultiTableBatchWriter(new BatchWriterConfig());
         temporal.setConnector(connector);
-        temporal.setMultiTableBatchWriter(mtbw);
+        temporal.setMultiTableBatchWriter(mtbw != null ? mtbw : connector.createMultiTableBatchWriter(new BatchWriterConfig()));
         temporal.init();
         return temporal;
     }
 
-    private static EntityCentricIndex getEntityIndexer(final Configuration conf) {
+    static EntityCentricIndex getEntityIndexer(final Configuration conf) {
         if (!conf.getBoolean(ENABLE_ENTITY, true)) {
             return null;
         }
@@ -263,15 +290,7 @@ public class RyaOutputFormat extends OutputFormat<Writable, RyaStatementWritable
             final AccumuloRyaDAO ryaIndexer = new AccumuloRyaDAO();
             final Connector conn = ConfigUtils.getConnector(conf);
             ryaIndexer.setConnector(conn);
-
-            final AccumuloRdfConfiguration ryaConf = new AccumuloRdfConfiguration();
-
-            final String tablePrefix = conf.get(OUTPUT_PREFIX_PROPERTY, null);
-            if (tablePrefix != null) {
-                ryaConf.setTablePrefix(tablePrefix);
-            }
-            ryaConf.setDisplayQueryPlan(false);
-            ryaIndexer.setConf(ryaConf);
+            ryaIndexer.setConf(getRyaConfiguration(conf));
             ryaIndexer.init();
             return ryaIndexer;
         } catch (final AccumuloException e) {
@@ -286,6 +305,84 @@ public class RyaOutputFormat extends OutputFormat<Writable, RyaStatementWritable
         }
     }
 
+    /**
+     * Get the configuration of the core Rya tables that output is written to.
+     * @param   conf    Configuration containing any relevant options.
+     * @return  A Rya configuration naming the output tables.
+     */
+    static AccumuloRdfConfiguration getRyaConfiguration(final Configuration conf) {
+        final AccumuloRdfConfiguration ryaConf = new AccumuloRdfConfiguration();
+        final String tablePrefix = conf.get(OUTPUT_PREFIX_PROPERTY, null);
+        if (tablePrefix != null) {
+            ryaConf.setTablePrefix(tablePrefix);
+        }
+        ryaConf.setDisplayQueryPlan(false);
+        return ryaConf;
+    }
+
+    /**
+     * Get whether output is written to the core Rya tables.
+     * @param   conf    Configuration containing any relevant options.
+     * @return  True unless the core tables were disabled.
+     */
+    static boolean isCoreTablesEnabled(final Configuration conf) {
+        return conf.getBoolean(ENABLE_CORE, true);
+    }
+
+    /**
+     * Get the visibility of statements that do not have one.
+     * @param   conf    Configuration containing any relevant options.
+     * @return  The configured default visibility, or an empty visibility.
+     */
+    static byte[] getDefaultVisibility(final Configuration conf) {
+        final String visibility = conf.get(CV_PROPERTY);
+        return visibility != null ? visibility.getBytes(StandardCharsets.UTF_8) : AccumuloRdfConstants.EMPTY_CV.getExpression();
+    }
+
+    /**
+     * Get the context of statements that do not have one.
+     * @param   conf    Configuration containing any relevant options.
+     * @return  The configured default context, or null if none was configured.
+     */
+    static RyaIRI getDefaultContext(final Configuration conf) {
+        final String context = conf.get(CONTEXT_PROPERTY, "");
+        return context != null && !context.isEmpty() ? new RyaIRI(context) : null;
+    }
+
+    /**
+     * Lists every table that output is written to: the core tables, if
+     * enabled, and the tables of each enabled indexer. Initializing the
+     * indexers creates any of their tables that do not exist yet.
+     * @param   conf    Configuration containing any relevant options.
+     * @return  The names of the output tables.
+     * @throws  IOException if an indexer can't be initialized.
+     */
+    static Set<String> getOutputTableNames(final Configuration conf) throws IOException {
+        final Set<String> tableNames = new LinkedHashSet<>();
+        if (isCoreTablesEnabled(conf)) {
+            final AccumuloRdfConfiguration ryaConf = getRyaConfiguration(conf);
+            tableNames.add(ryaConf.getTableLayoutStrategy().getSpo());
+            tableNames.add(ryaConf.getTableLayoutStrategy().getPo());
+            tableNames.add(ryaConf.getTableLayoutStrategy().getOsp());
+        }
+        final MutationCollector collector = new MutationCollector(0L);
+        final FreeTextIndexer freeText = getFreeTextIndexer(conf, collector);
+        if (freeText != null) {
+            freeText.close();
+        }
+        final TemporalIndexer temporal = getTemporalIndexer(conf, collector);
+        if (temporal != null) {
+            temporal.close();
+        }
+        final EntityCentricIndex entity = getEntityIndexer(conf);
+        if (entity != null) {
+            entity.setMultiTableBatchWriter(collector);
+            entity.close();
+        }
+        tableNames.addAll(collector.getTableNames());
+        return tableNames;
+    }
+
     /**
      * RecordWriter that takes in {@link RyaStatementWritable}s and writes them
      * to Rya tables.
@@ -300,8 +397,8 @@ public class RyaOutputFormat extends OutputFormat<Writable, RyaStatementWritable
         private final AccumuloRyaDAO ryaIndexer;
         private final RyaTripleContext tripleContext;
         private MultiTableBatchWriter writer;
-        private byte[] cv = AccumuloRdfConstants.EMPTY_CV.getExpression();
-        private RyaIRI defaultContext = null;
+        private final byte[] cv;
+        private final RyaIRI defaultContext;
 
         private static final long ONE_MEGABYTE = 1024L * 1024L;
         private static final long AVE_STATEMENT_SIZE = 100L;
@@ -329,15 +426,9 @@ public class RyaOutputFormat extends OutputFormat<Writable, RyaStatementWritable
          */
         public RyaRecordWriter(final Configuration conf) throws IOException {
             // set the visibility
-            final String visibility = conf.get(CV_PROPERTY);
-            if (visibility != null) {
-                cv = visibility.getBytes(StandardCharsets.UTF_8);
-            }
+            cv = getDefaultVisibility(conf);
             // set the default context
-            final String context = conf.get(CONTEXT_PROPERTY, "");
-            if (context != null && !context.isEmpty()) {
-                defaultContext = new RyaIRI(context);
-            }
+            defaultContext = getDefaultContext(conf);
 
             // set up the buffer
             bufferSizeLimit = conf.getLong(MAX_MUTATION_BUFFER_SIZE, ONE_MEGABYTE);
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.mr;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableComparable;
+
+/**
+ * Composite {@link WritableComparable} consisting of the name of an Accumulo
+ * table and a {@link Key} that belongs in it. Natural ordering compares table
+ * name followed by key, so the rows of each table reach a reducer sorted the way
+ * an RFile needs them.
+ * <p>
+ * This class is mutable, like all {@link org.apache.hadoop.io.Writable}s.
+ */
+public class TableKeyWritable implements WritableComparable<TableKeyWritable> {
+    private final Text table = new Text();
+    private Key key = new Key();
+
+    /**
+     * Instantiates an empty TableKeyWritable, to be filled by
+     * {@link #readFields(DataInput)}.
+     */
+    public TableKeyWritable() {
+    }
+
+    /**
+     * Instantiates a TableKeyWritable for a Key of a table.
+     * @param tableName Name of the table the Key belongs to.
+     * @param key Key of an Accumulo row.
+     */
+    public TableKeyWritable(final String tableName, final Key key) {
+        table.set(tableName);
+        this.key = key;
+    }
+
+    /**
+     * Get the table name
+     * @return The name of the table the Key belongs to
+     */
+    public Text getTable() {
+        return table;
+    }
+
+    /**
+     * Get the Key
+     * @return The key of an Accumulo row
+     */
+    public Key getKey() {
+        return key;
+    }
+
+    /**
+     * Serialize the table name and key
+     */
+    @Override
+    public void write(final DataOutput out) throws IOException {
+        table.write(out);
+        key.write(out);
+    }
+
+    /**
+     * Deserialize the table name and key
+     */
+    @Override
+    public void readFields(final DataInput in) throws IOException {
+        table.readFields(in);
+        key.readFields(in);
+    }
+
+    /**
+     * Natural ordering; compares based on table name and then key.
+     */
+    @Override
+    public int compareTo(final TableKeyWritable o) {
+        final int result = table.compareTo(o.table);
+        return result != 0 ? result : key.compareTo(o.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(table, key);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == this) { return true; }
+        if (o instanceof TableKeyWritable) {
+            final TableKeyWritable other = (TableKeyWritable) o;
+            return table.equals(other.table) && key.equals(other.key);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return table + " " + key;
+    }
+}
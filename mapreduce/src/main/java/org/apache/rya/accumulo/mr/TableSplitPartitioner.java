@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.mr;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Partitioner;
+
+/**
+ * {@link Partitioner} that sends each row to a reducer of its own table's
+ * tablet. Every table is given one partition per tablet, as described by the
+ * table's split points, so every RFile a reducer writes falls within a single
+ * tablet and bulk import never has to assign a file to more than one tablet
+ * server.
+ * <p>
+ * The split points of each table are stored in the job's configuration by
+ * {@link #setTableSplits(Job, Map)}.
+ */
+public class TableSplitPartitioner extends Partitioner<TableKeyWritable, Value> implements Configurable {
+    private static final String PREFIX = TableSplitPartitioner.class.getSimpleName();
+    private static final String TABLES_PROPERTY = PREFIX + ".tables";
+    private static final String SPLITS_PROPERTY = PREFIX + ".splits.";
+
+    private Configuration conf;
+    private final Map<Text, List<Text>> splits = new HashMap<>();
+    private final Map<Text, Integer> offsets = new HashMap<>();
+
+    /**
+     * Store the tables a job writes to and the split points of each.
+     * @param job Job to apply the setting to.
+     * @param tableSplits The split points of each table the job writes to.
+     * @return The number of partitions, which is the number of reducers the job should use.
+     */
+    public static int setTableSplits(final Job job, final Map<String, ? extends Collection<Text>> tableSplits) {
+        final Configuration conf = job.getConfiguration();
+        final List<String> tables = new ArrayList<>(tableSplits.keySet());
+        Collections.sort(tables);
+        conf.setStrings(TABLES_PROPERTY, tables.toArray(new String[tables.size()]));
+        int partitions = 0;
+        for (final String table : tables) {
+            final List<String> encoded = new ArrayList<>();
+            for (final Text split : tableSplits.get(table)) {
+                encoded.add(Base64.getEncoder().encodeToString(Arrays.copyOf(split.getBytes(), split.getLength())));
+            }
+            conf.setStrings(SPLITS_PROPERTY + table, encoded.toArray(new String[encoded.size()]));
+            partitions += encoded.size() + 1;
+        }
+        return partitions;
+    }
+
+    /**
+     * Get the tables whose split points have been stored.
+     * @param conf Configuration containing the table names.
+     * @return The names of the tables a job writes to.
+     */
+    public static Collection<String> getTableNames(final Configuration conf) {
+        return conf.getStringCollection(TABLES_PROPERTY);
+    }
+
+    @Override
+    public void setConf(final Configuration conf) {
+        this.conf = conf;
+        splits.clear();
+        offsets.clear();
+        int offset = 0;
+        for (final String table : getTableNames(conf)) {
+            final List<Text> tableSplits = new ArrayList<>();
+            for (final String encoded : conf.getTrimmedStringCollection(SPLITS_PROPERTY + table)) {
+                tableSplits.add(new Text(Base64.getDecoder().decode(encoded.getBytes(UTF_8))));
+            }
+            Collections.sort(tableSplits);
+            splits.put(new Text(table), tableSplits);
+            offsets.put(new Text(table), offset);
+            offset += tableSplits.size() + 1;
+        }
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+
+    /**
+     * Get the partition of a row: the partition of its table's tablet whose end
+     * row is the first at or after the row.
+     * @param key Table and Key of the row.
+     * @param value Unused.
+     * @param numPartitions Number of reducers. If the job was given fewer than
+     *      the tables have tablets, partitions are wrapped onto the reducers.
+     * @return The partition the row belongs to.
+     */
+    @Override
+    public int getPartition(final TableKeyWritable key, final Value value, final int numPartitions) {
+        final List<Text> tableSplits = splits.get(key.getTable());
+        if (tableSplits == null) {
+            throw new IllegalArgumentException("No split points were stored for the table " + key.getTable());
+        }
+        int tablet = Collections.binarySearch(tableSplits, key.getKey().getRow());
+        if (tablet < 0) {
+            tablet = -tablet - 1;
+        }
+        return (offsets.get(key.getTable()) + tablet) % numPartitions;
+    }
+}
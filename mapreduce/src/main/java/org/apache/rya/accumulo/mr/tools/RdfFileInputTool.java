@@ -48,6 +48,11 @@ import org.eclipse.rdf4j.rio.RDFFormat;
  *   {@link org.apache.rya.indexing.accumulo.ConfigUtils} (enable or disable freetext,
  *   geo, temporal, and entity indexing, and specify predicates for each
  *   indexer). If not given, no secondary indexing is done.
+ * <p>
+ * - Optionally, an HDFS directory named by {@link MRUtils#AC_BULK_DIR_PROP}. If
+ *   given, the statements are written to sorted RFiles that are partitioned
+ *   along each table's splits and bulk imported once the job is done, rather
+ *   than being written through BatchWriters.
  */
 public class RdfFileInputTool extends AbstractAccumuloMRTool implements Tool {
     public static void main(String[] args) {
@@ -66,21 +71,32 @@ public class RdfFileInputTool extends AbstractAccumuloMRTool implements Tool {
 
         String inputPath = conf.get(MRUtils.INPUT_PATH, args[0]);
         setupFileInputs(job, inputPath, RDFFormat.RDFXML);
-        setupRyaOutput(job);
-        job.setNumReduceTasks(0);
+        String bulkDir = conf.get(MRUtils.AC_BULK_DIR_PROP);
+        if (bulkDir != null) {
+            setupRyaBulkOutput(job, bulkDir);
+        } else {
+            setupRyaOutput(job);
+            job.setNumReduceTasks(0);
+        }
 
         Date startTime = new Date();
         System.out.println("Job started: " + startTime);
         int exitCode = job.waitForCompletion(true) ? 0 : 1;
 
         if (exitCode == 0) {
+            if (bulkDir != null) {
+                System.out.println("Bulk importing the RFiles written to " + bulkDir);
+                importRyaBulkOutput(job);
+            }
             Date end_time = new Date();
             System.out.println("Job ended: " + end_time);
             System.out.println("The job took "
                     + (end_time.getTime() - startTime.getTime()) / 1000
                     + " seconds.");
+            // In bulk mode, each statement is mapped to several rows
+            String counter = bulkDir != null ? "MAP_INPUT_RECORDS" : "MAP_OUTPUT_RECORDS";
             long n = job.getCounters()
-                    .findCounter("org.apache.hadoop.mapred.Task$Counter", "MAP_OUTPUT_RECORDS").getValue();
+                    .findCounter("org.apache.hadoop.mapred.Task$Counter", counter).getValue();
             System.out.println(n + " statement(s) inserted to Rya.");
         } else {
             System.out.println("Job Failed!!!");
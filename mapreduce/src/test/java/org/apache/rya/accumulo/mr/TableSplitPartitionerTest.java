@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.accumulo.mr;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TableSplitPartitionerTest {
+    private final TableSplitPartitioner partitioner = new TableSplitPartitioner();
+    private int numPartitions;
+
+    @Before
+    public void setUp() throws Exception {
+        final Map<String, List<Text>> splits = new HashMap<>();
+        splits.put("t_spo", Arrays.asList(new Text("m"), new Text("f")));
+        splits.put("t_po", Collections.<Text>emptyList());
+        final Job job = Job.getInstance();
+        numPartitions = TableSplitPartitioner.setTableSplits(job, splits);
+        partitioner.setConf(job.getConfiguration());
+    }
+
+    @Test
+    public void testNumPartitions() {
+        // One partition per tablet: three for t_spo, one for t_po
+        assertEquals(4, numPartitions);
+    }
+
+    @Test
+    public void testPartitionsFollowSplits() {
+        // Tables are ordered by name, so t_po's tablet comes first
+        assertEquals(0, getPartition("t_po", "z"));
+        assertEquals(1, getPartition("t_spo", "a"));
+        assertEquals(1, getPartition("t_spo", "f"));
+        assertEquals(2, getPartition("t_spo", "f\u0000"));
+        assertEquals(2, getPartition("t_spo", "m"));
+        assertEquals(3, getPartition("t_spo", "n"));
+    }
+
+    @Test
+    public void testFewerReducers() {
+        assertEquals(1, partitioner.getPartition(new TableKeyWritable("t_spo", new Key("n")), null, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownTable() {
+        getPartition("t_osp", "a");
+    }
+
+    private int getPartition(final String table, final String row) {
+        return partitioner.getPartition(new TableKeyWritable(table, new Key(row)), null, numPartitions);
+    }
+}
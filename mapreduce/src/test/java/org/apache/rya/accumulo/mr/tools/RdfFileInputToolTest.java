@@ -19,6 +19,11 @@ package org.apache.rya.accumulo.mr.tools;
  * under the License.
  */
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
 import org.apache.accumulo.core.client.Connector;
 import org.apache.accumulo.core.client.admin.SecurityOperations;
 import org.apache.accumulo.core.client.mock.MockInstance;
@@ -34,7 +39,9 @@ import org.apache.rya.api.domain.RyaType;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * Created by IntelliJ IDEA.
@@ -51,6 +58,9 @@ public class RdfFileInputToolTest {
     private Authorizations auths = new Authorizations("test_auths");
     private Connector connector;
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Before
     public void setUp() throws Exception {
         connector = new MockInstance(instance).getConnector(user, new PasswordToken(pwd));
@@ -102,6 +112,43 @@ public class RdfFileInputToolTest {
         TestUtils.verify(connector, conf, rs);
     }
 
+    @Test
+    public void testNTriplesBulkInput() throws Exception {
+        String bulkDir = new File(tempFolder.getRoot(), "bulk").getAbsolutePath();
+        RdfFileInputTool.main(new String[]{
+                "-Dac.mock=true",
+                "-Dac.instance=" + instance,
+                "-Dac.username=" + user,
+                "-Dac.pwd=" + pwd,
+                "-Dac.auth=" + auths.toString(),
+                "-Dac.cv=" + auths.toString(),
+                "-Dac.bulk.dir=" + bulkDir,
+                "-Drdf.tablePrefix=" + tablePrefix,
+                "-Drdf.format=" + RDFFormat.NTRIPLES.getName(),
+                "src/test/resources/test.ntriples,src/test/resources/test2.ntriples",
+        });
+        RyaStatement rs1 = new RyaStatement(new RyaIRI("urn:lubm:rdfts#GraduateStudent01"),
+                new RyaIRI("urn:lubm:rdfts#hasFriend"),
+                new RyaIRI("urn:lubm:rdfts#GraduateStudent02"));
+        RyaStatement rs2 = new RyaStatement(new RyaIRI("urn:lubm:rdfts#GraduateStudent05"),
+                new RyaIRI("urn:lubm:rdfts#hasFriend"),
+                new RyaIRI("urn:lubm:rdfts#GraduateStudent07"));
+        rs1.setColumnVisibility(auths.toString().getBytes());
+        rs2.setColumnVisibility(auths.toString().getBytes());
+        AccumuloRdfConfiguration conf = new AccumuloRdfConfiguration();
+        conf.setTablePrefix(tablePrefix);
+        conf.setAuths(auths.toString());
+        TestUtils.verify(connector, conf, rs1, rs2);
+
+        // Each core table was written to RFiles and imported from its own directory.
+        for (String suffix : new String[] { RdfCloudTripleStoreConstants.TBL_SPO_SUFFIX,
+                RdfCloudTripleStoreConstants.TBL_PO_SUFFIX, RdfCloudTripleStoreConstants.TBL_OSP_SUFFIX }) {
+            File failures = new File(bulkDir, tablePrefix + suffix + "/failures");
+            assertTrue(failures.isDirectory());
+            assertEquals(0, failures.list().length);
+        }
+    }
+
     @Test
     public void testMultipleNTriplesInputs() throws Exception {
         RdfFileInputTool.main(new String[]{
@@ -19,12 +19,13 @@ package org.apache.rya.rdftriplestore.evaluation;
  * under the License.
  */
 
-import java.util.Collection;
+import org.apache.rya.api.persist.query.BindingSetBatchEvaluator;
 
-import org.eclipse.rdf4j.common.iteration.CloseableIteration;
-import org.eclipse.rdf4j.query.BindingSet;
-import org.eclipse.rdf4j.query.QueryEvaluationException;
-
-public interface ExternalBatchingIterator {
-    public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(Collection<BindingSet> bindingset) throws QueryEvaluationException;
+/**
+ * A query node that the Sail's evaluation strategy joins against in batches of binding sets.
+ * <p>
+ * The methods are declared by {@link BindingSetBatchEvaluator} so nodes that are built by
+ * DAOs which do not depend on the Sail may be batched as well.
+ */
+public interface ExternalBatchingIterator extends BindingSetBatchEvaluator {
 }
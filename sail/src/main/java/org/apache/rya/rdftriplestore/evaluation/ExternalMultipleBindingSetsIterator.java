@@ -22,6 +22,7 @@ package org.apache.rya.rdftriplestore.evaluation;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import org.apache.rya.api.persist.query.BindingSetBatchEvaluator;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
 import org.eclipse.rdf4j.query.BindingSet;
@@ -34,12 +35,12 @@ public class ExternalMultipleBindingSetsIterator extends LookAheadIteration<Bind
 
     private final ParallelEvaluationStrategyImpl strategy;
     private final CloseableIteration leftIter;
-    private ExternalBatchingIterator stmtPtrn;
+    private BindingSetBatchEvaluator stmtPtrn;
     private CloseableIteration<BindingSet, QueryEvaluationException> iter;
     //TODO: configurable
     private int batchSize = 1000;
 
-    public ExternalMultipleBindingSetsIterator(ParallelEvaluationStrategyImpl strategy, TupleExpr leftArg, ExternalBatchingIterator stmtPattern, BindingSet bindings)
+    public ExternalMultipleBindingSetsIterator(ParallelEvaluationStrategyImpl strategy, TupleExpr leftArg, BindingSetBatchEvaluator stmtPattern, BindingSet bindings)
             throws QueryEvaluationException {
         this.strategy = strategy;
         leftIter = strategy.evaluate(leftArg, bindings);
@@ -47,7 +48,7 @@ public class ExternalMultipleBindingSetsIterator extends LookAheadIteration<Bind
         initIter();
     }
 
-    public ExternalMultipleBindingSetsIterator(ParallelEvaluationStrategyImpl strategy, CloseableIteration leftIter, ExternalBatchingIterator stmtPattern, BindingSet bindings)
+    public ExternalMultipleBindingSetsIterator(ParallelEvaluationStrategyImpl strategy, CloseableIteration leftIter, BindingSetBatchEvaluator stmtPattern, BindingSet bindings)
             throws QueryEvaluationException {
         this.strategy = strategy;
         this.leftIter = leftIter;
@@ -67,8 +68,11 @@ public class ExternalMultipleBindingSetsIterator extends LookAheadIteration<Bind
                 sets.add((BindingSet) leftIter.next());
                 i++;
             }
-            if (iter != null) iter.close();
+            // Evaluate the next batch before closing the last one, so the evaluator
+            // still holds on to what it keeps between batches.
+            final CloseableIteration<BindingSet, QueryEvaluationException> last = iter;
             iter = stmtPtrn.evaluate(sets);
+            if (last != null) last.close();
         } catch (Exception e) {
             throw new QueryEvaluationException(e);
         }
@@ -98,6 +102,7 @@ public class ExternalMultipleBindingSetsIterator extends LookAheadIteration<Bind
             super.handleClose();
             leftIter.close();
             iter.close();
+            stmtPtrn.releaseResources();
         } catch (Exception e) {
             throw new QueryEvaluationException(e);
         }
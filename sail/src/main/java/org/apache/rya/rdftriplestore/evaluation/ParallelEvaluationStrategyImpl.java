@@ -31,6 +31,7 @@ import java.util.concurrent.Executors;
 import org.apache.log4j.Logger;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
 import org.apache.rya.api.RdfCloudTripleStoreUtils;
+import org.apache.rya.api.persist.query.BindingSetBatchEvaluator;
 import org.apache.rya.api.utils.NullableStatementImpl;
 import org.apache.rya.rdftriplestore.RdfCloudTripleStoreConnection;
 import org.apache.rya.rdftriplestore.RdfCloudTripleStoreConnection.StoreTripleSource;
@@ -41,10 +42,12 @@ import org.apache.rya.rdftriplestore.utils.TransitivePropertySP;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.ConvertingIteration;
 import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.common.iteration.FilterIteration;
 import org.eclipse.rdf4j.common.iteration.Iteration;
 import org.eclipse.rdf4j.common.iteration.IteratorIteration;
 import org.eclipse.rdf4j.common.iteration.LimitIteration;
 import org.eclipse.rdf4j.common.iteration.OffsetIteration;
+import org.eclipse.rdf4j.common.iteration.UnionIteration;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
@@ -74,6 +77,9 @@ public class ParallelEvaluationStrategyImpl extends StrictEvaluationStrategy {
     private int numOfThreads = 10;
     private boolean performant = true;
     private boolean displayQueryPlan = false;
+    private boolean parallelJoin = false;
+    private int parallelJoinMaxTasks;
+    private int parallelJoinBufferSize = ParallelJoinIterator.DEFAULT_BUFFER_SIZE;
     private ExecutorService executorService;
     private InferenceEngine inferenceEngine;
 
@@ -86,6 +92,12 @@ public class ParallelEvaluationStrategyImpl extends StrictEvaluationStrategy {
         this.performant = (val != null) ? val : this.performant;
         val = conf.isDisplayQueryPlan();
         this.displayQueryPlan = (val != null) ? val : this.displayQueryPlan;
+        val = conf.isUseParallelJoin();
+        this.parallelJoin = (val != null) ? val : this.parallelJoin;
+        Integer maxTasks = conf.getParallelJoinMaxTasks();
+        this.parallelJoinMaxTasks = (maxTasks != null) ? maxTasks : this.numOfThreads;
+        Integer bufferSize = conf.getParallelJoinBufferSize();
+        this.parallelJoinBufferSize = (bufferSize != null) ? bufferSize : this.parallelJoinBufferSize;
         this.executorService = Executors.newFixedThreadPool(this.numOfThreads);
         this.inferenceEngine = inferenceEngine;
     }
@@ -102,10 +114,10 @@ public class ParallelEvaluationStrategyImpl extends StrictEvaluationStrategy {
 //                }
 
                 return new MultipleBindingSetsIterator(this, buffer, (StatementPattern) stmtPat, bindings);
-            } else if (join.getRightArg() instanceof ExternalBatchingIterator) {
+            } else if (join.getRightArg() instanceof BindingSetBatchEvaluator) {
                     TupleExpr stmtPat = join.getRightArg();
 
-                    return new ExternalMultipleBindingSetsIterator(this, buffer, (ExternalBatchingIterator) stmtPat, bindings);
+                    return new ExternalMultipleBindingSetsIterator(this, buffer, (BindingSetBatchEvaluator) stmtPat, bindings);
             } else if (join.getRightArg() instanceof Filter) {
                 //add performance for the filter too
                 Filter filter = (Filter) join.getRightArg();
@@ -122,17 +134,22 @@ public class ParallelEvaluationStrategyImpl extends StrictEvaluationStrategy {
                         return new FilterIterator(filter, new MultipleBindingSetsIterator(this, new Join(buffer, fcj_left), (StatementPattern) fcj_right, bindings), this);
                     }
                 }
-                //TODO: add a configuration flag for ParallelJoinIterator
-                return new JoinIterator(this, join, bindings);
+                return evaluateNestedLoopJoin(join, bindings);
             } else {
-                //TODO: add a configuration flag for ParallelJoinIterator
-                return new JoinIterator(this, join, bindings);
+                return evaluateNestedLoopJoin(join, bindings);
             }
         } else {
             return super.evaluate(join, bindings);
         }
     }
 
+    private CloseableIteration<BindingSet, QueryEvaluationException> evaluateNestedLoopJoin(Join join, BindingSet bindings) throws QueryEvaluationException {
+        if (parallelJoin) {
+            return new ParallelJoinIterator(this, join, bindings, executorService, parallelJoinMaxTasks, parallelJoinBufferSize);
+        }
+        return new JoinIterator(this, join, bindings);
+    }
+
     @Override
     public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(StatementPattern sp, BindingSet bindings) throws QueryEvaluationException {
         //TODO: Wonder if creating a Collection here hurts performance
@@ -167,6 +184,38 @@ public class ParallelEvaluationStrategyImpl extends StrictEvaluationStrategy {
                 }
             }
             iter = new IteratorIteration(coll.iterator());
+        } else if (sp instanceof TransitivePropertySP && isClosureIndexed(sp)) {
+            //the closure index streams the pattern, so the subj and obj may both be open
+            final IRI predValue = (IRI) getVarValue(predVar);
+            final List<CloseableIteration<Map.Entry<Statement, BindingSet>, QueryEvaluationException>> closures = new ArrayList<>();
+            for (final BindingSet binding : bindings) {
+                final Value subjValue = getVarValue(subjVar, binding);
+                final Value objValue = getVarValue(objVar, binding);
+                if (subjValue != null && !(subjValue instanceof Resource)) {
+                    continue;
+                }
+                CloseableIteration<Statement, QueryEvaluationException> closure =
+                        inferenceEngine.queryTransitiveClosure((Resource) subjValue, predValue, objValue);
+                if (subjValue == null && isSameVar(subjVar, objVar)) {
+                    //?x :p ?x only matches the statements that lead back to their subject
+                    closure = new FilterIteration<Statement, QueryEvaluationException>(closure) {
+                        @Override
+                        protected boolean accept(final Statement st) {
+                            return st.getSubject().equals(st.getObject());
+                        }
+                    };
+                }
+                closures.add(new ConvertingIteration<Statement, Map.Entry<Statement, BindingSet>, QueryEvaluationException>(closure) {
+                    @Override
+                    protected Map.Entry<Statement, BindingSet> convert(final Statement st) {
+                        return new RdfCloudTripleStoreUtils.CustomEntry<Statement, BindingSet>(st, binding);
+                    }
+                });
+            }
+            if (closures.isEmpty()) {
+                return new EmptyIteration();
+            }
+            iter = closures.size() == 1 ? closures.get(0) : new UnionIteration<Map.Entry<Statement, BindingSet>, QueryEvaluationException>(closures);
         } else if (sp instanceof TransitivePropertySP &&
                 ((subjVar != null && subjVar.getValue() != null) ||
                         (objVar != null && objVar.getValue() != null)) &&
@@ -264,6 +313,23 @@ public class ParallelEvaluationStrategyImpl extends StrictEvaluationStrategy {
         return result;
     }
 
+    private boolean isClosureIndexed(final StatementPattern sp) throws QueryEvaluationException {
+        if (inferenceEngine == null || sp.getPredicateVar() == null) {
+            return false;
+        }
+        final Value pred = getVarValue(sp.getPredicateVar());
+        try {
+            return pred instanceof IRI && inferenceEngine.isClosureIndexed((IRI) pred, (Resource) getVarValue(sp.getContextVar()));
+        } catch (final InferenceEngineException e) {
+            throw new QueryEvaluationException(e);
+        }
+    }
+
+    private static boolean isSameVar(final Var subjVar, final Var objVar) {
+        return subjVar != null && objVar != null && !subjVar.isConstant() && !objVar.isConstant()
+                && subjVar.getName().equals(objVar.getName());
+    }
+
     protected Value getVarValue(Var var) {
         if (var == null)
             return null;
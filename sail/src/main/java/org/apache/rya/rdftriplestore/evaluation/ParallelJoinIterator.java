@@ -19,11 +19,16 @@ package org.apache.rya.rdftriplestore.evaluation;
  * under the License.
  */
 
-import java.util.NoSuchElementException;
-import java.util.Queue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.log4j.Logger;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
 import org.eclipse.rdf4j.query.BindingSet;
@@ -34,85 +39,172 @@ import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 
 /**
+ * A nested loop join that evaluates the right side of the join for several left binding sets at once
+ * using an {@link ExecutorService}.
+ * <p>
+ * At most {@code maxPendingTasks} left binding sets are being worked on at any time, and each of them
+ * buffers at most {@code bufferSize} right side results. A task whose buffer is full blocks until the
+ * results are consumed, and no more left binding sets are read until a task finishes. Results are
+ * returned in the order the left binding sets were read. If a task has not been picked up by the
+ * executor by the time its results are needed, the consuming thread evaluates it itself, so nested
+ * parallel joins that share an executor can not starve each other. Closing the iterator cancels every
+ * outstanding task.
  */
 public class ParallelJoinIterator extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+    private static final Logger log = Logger.getLogger(ParallelJoinIterator.class);
 
     public static final EmptyBindingSet EMPTY_BINDING_SET = new EmptyBindingSet();
 
+    /**
+     * The default number of right side results each task may buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1000;
+
+    /**
+     * Marks the end of a task's results. Compared by identity, so a right side that legitimately
+     * produces an empty binding set is not mistaken for the end of the task.
+     */
+    private static final BindingSet END_OF_WORK = new EmptyBindingSet();
+
     private final EvaluationStrategy strategy;
     private final Join join;
     private final CloseableIteration<BindingSet, QueryEvaluationException> leftIter;
 
-    private ExecutorService executorService;
-    private Queue<ParallelIteratorWork> workQueue = new LinkedBlockingQueue<ParallelIteratorWork>();
+    private final ExecutorService executorService;
+    private final Deque<ParallelIteratorWork> workQueue = new ArrayDeque<>();
     private ParallelIteratorWork currentWork;
-    private int batch;
+    private final int maxPendingTasks;
+    private final int bufferSize;
+    private volatile boolean closed = false;
 
+    /**
+     * Constructs an instance of {@link ParallelJoinIterator} whose tasks buffer {@link #DEFAULT_BUFFER_SIZE} results.
+     *
+     * @param strategy - Evaluates both sides of the join.
+     * @param join - The join that is being evaluated.
+     * @param bindings - The bindings the left side of the join is evaluated with.
+     * @param executorService - Runs the right side evaluations.
+     * @param batch - The maximum number of left binding sets that are worked on at the same time.
+     * @throws QueryEvaluationException The left side of the join could not be evaluated.
+     */
     public ParallelJoinIterator(EvaluationStrategy strategy, Join join, BindingSet bindings, ExecutorService executorService, int batch)
             throws QueryEvaluationException {
+        this(strategy, join, bindings, executorService, batch, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs an instance of {@link ParallelJoinIterator}.
+     *
+     * @param strategy - Evaluates both sides of the join.
+     * @param join - The join that is being evaluated.
+     * @param bindings - The bindings the left side of the join is evaluated with.
+     * @param executorService - Runs the right side evaluations.
+     * @param maxPendingTasks - The maximum number of left binding sets that are worked on at the same time. (> 0)
+     * @param bufferSize - The maximum number of right side results each task buffers. (> 0)
+     * @throws QueryEvaluationException The left side of the join could not be evaluated.
+     */
+    public ParallelJoinIterator(EvaluationStrategy strategy, Join join, BindingSet bindings, ExecutorService executorService,
+            int maxPendingTasks, int bufferSize) throws QueryEvaluationException {
+        if (maxPendingTasks <= 0) {
+            throw new IllegalArgumentException("maxPendingTasks must be greater than 0");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be greater than 0");
+        }
         this.strategy = strategy;
         this.join = join;
-        leftIter = strategy.evaluate(join.getLeftArg(), bindings);
-
         this.executorService = executorService;
-        this.batch = batch;
+        this.maxPendingTasks = maxPendingTasks;
+        this.bufferSize = bufferSize;
+        leftIter = strategy.evaluate(join.getLeftArg(), bindings);
     }
 
-
     @Override
     protected BindingSet getNextElement() throws QueryEvaluationException {
-
         try {
-            while (leftIter.hasNext() || !workQueue.isEmpty() || currentWork != null) {
-                if (!workQueue.isEmpty() && currentWork == null) {
-                    currentWork = workQueue.poll();
-                }
+            while (!closed) {
+                submitWork();
 
-                if (currentWork != null) {
-                    BindingSet bindingSet = currentWork.queue.poll();
-                    if (EMPTY_BINDING_SET.equals(bindingSet)) {
-                        currentWork = null;
-                        continue;
-                    } else if (bindingSet == null) {
-                        continue;
+                if (currentWork == null) {
+                    currentWork = workQueue.poll();
+                    if (currentWork == null) {
+                        return null;
                     }
-                    return bindingSet;
                 }
 
-                try {
-                    for (int i = 0; i < batch; i++) {
-                        if (leftIter.hasNext()) {
-                            ParallelIteratorWork work = new ParallelIteratorWork(leftIter.next(), join.getRightArg());
-                            workQueue.add(work);
-                            executorService.execute(work);
-                        } else
-                            break;
-                    }
-                } catch (NoSuchElementException ignore) {
+                final BindingSet bindingSet = currentWork.take();
+                if (bindingSet == END_OF_WORK) {
+                    currentWork = null;
+                    continue;
                 }
+                return bindingSet;
             }
-        } catch (Exception e) {
-            throw new QueryEvaluationException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryEvaluationException("Interrupted while waiting for join results.", e);
         }
         return null;
     }
 
+    /**
+     * Reads left binding sets and submits their right side evaluations until the maximum number of tasks is pending.
+     */
+    private void submitWork() throws QueryEvaluationException {
+        int pending = workQueue.size() + (currentWork == null ? 0 : 1);
+        while (pending < maxPendingTasks && leftIter.hasNext()) {
+            final ParallelIteratorWork work = new ParallelIteratorWork(leftIter.next(), join.getRightArg());
+            workQueue.add(work);
+            work.future = executorService.submit(work);
+            pending++;
+        }
+    }
+
     @Override
     protected void handleClose() throws QueryEvaluationException {
+        closed = true;
         try {
             super.handleClose();
+        } finally {
+            if (currentWork != null) {
+                currentWork.cancel();
+                currentWork = null;
+            }
+            for (ParallelIteratorWork work : workQueue) {
+                work.cancel();
+            }
+            workQueue.clear();
             leftIter.close();
-//           rightIter.close();
-        } catch (Exception e) {
-            throw new QueryEvaluationException(e);
         }
     }
 
+    private static void closeQuietly(CloseableIteration<BindingSet, QueryEvaluationException> iter) {
+        try {
+            iter.close();
+        } catch (QueryEvaluationException e) {
+            log.warn("Unable to close the right side of a parallel join.", e);
+        }
+    }
+
+    /**
+     * Evaluates the right side of the join for one left binding set.
+     */
     private class ParallelIteratorWork implements Runnable {
 
-        private BindingSet leftBindingSet;
-        private TupleExpr rightTupleExpr;
-        public LinkedBlockingQueue<BindingSet> queue = new LinkedBlockingQueue<BindingSet>();
+        private final BindingSet leftBindingSet;
+        private final TupleExpr rightTupleExpr;
+        private final BlockingQueue<BindingSet> queue = new ArrayBlockingQueue<>(bufferSize);
+
+        /**
+         * Set by whichever of the executor or the consuming thread starts evaluating this work first.
+         */
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        private volatile Exception failure;
+        private Future<?> future;
+
+        /**
+         * The right side iteration, when this work is being evaluated by the consuming thread.
+         */
+        private CloseableIteration<BindingSet, QueryEvaluationException> inlineIter;
 
         private ParallelIteratorWork(BindingSet leftBindingSet, TupleExpr rightTupleExpr) {
             this.leftBindingSet = leftBindingSet;
@@ -121,16 +213,62 @@ public class ParallelJoinIterator extends LookAheadIteration<BindingSet, QueryEv
 
         @Override
         public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+
             try {
-                CloseableIteration<BindingSet, QueryEvaluationException> iter = strategy.evaluate(rightTupleExpr, leftBindingSet);
-                while (iter.hasNext()) {
-                    queue.add(iter.next());
+                CloseableIteration<BindingSet, QueryEvaluationException> iter = null;
+                try {
+                    iter = strategy.evaluate(rightTupleExpr, leftBindingSet);
+                    while (!closed && iter.hasNext()) {
+                        queue.put(iter.next());
+                    }
+                } catch (QueryEvaluationException | RuntimeException e) {
+                    failure = e;
+                } finally {
+                    if (iter != null) {
+                        closeQuietly(iter);
+                    }
+                }
+                queue.put(END_OF_WORK);
+            } catch (InterruptedException e) {
+                // The join was closed while this work was blocked on a full buffer.
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * @return The next right side result for this work, or {@link ParallelJoinIterator#END_OF_WORK} once there are none.
+         */
+        private BindingSet take() throws QueryEvaluationException, InterruptedException {
+            if (inlineIter == null && claimed.compareAndSet(false, true)) {
+                inlineIter = strategy.evaluate(rightTupleExpr, leftBindingSet);
+            }
+
+            if (inlineIter != null) {
+                if (inlineIter.hasNext()) {
+                    return inlineIter.next();
                 }
-                queue.add(EMPTY_BINDING_SET);
-                iter.close();
-            } catch (QueryEvaluationException e) {
-                throw new RuntimeException(e);
+                inlineIter.close();
+                return END_OF_WORK;
+            }
+
+            final BindingSet bindingSet = queue.take();
+            if (bindingSet == END_OF_WORK && failure != null) {
+                throw new QueryEvaluationException(failure);
+            }
+            return bindingSet;
+        }
+
+        private void cancel() {
+            if (future != null) {
+                future.cancel(true);
+            }
+            if (inlineIter != null) {
+                closeQuietly(inlineIter);
             }
+            queue.clear();
         }
     }
 }
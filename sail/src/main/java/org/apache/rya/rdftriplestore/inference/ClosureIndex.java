@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.rdftriplestore.inference;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+/**
+ * A materialized index of the transitive closure of owl:TransitiveProperty properties and of the
+ * owl:sameAs equivalence classes. When an {@link InferenceEngine} has one, it answers transitive
+ * property and owl:sameAs lookups from the index instead of following the statements one DAO
+ * query per hop.
+ * <p>
+ * The closure spans every named graph, so it is only used for patterns whose context is unbound.
+ */
+public interface ClosureIndex {
+
+    /**
+     * @param property - A property. (not null)
+     * @return {@code true} if the index holds the closure of the property. owl:sameAs is always
+     *      indexed.
+     */
+    public boolean isIndexed(IRI property) throws QueryEvaluationException;
+
+    /**
+     * Streams the statements of the closure of a transitive property: {@code (s, property, o)} for
+     * every pair where {@code o} can be reached from {@code s} by following one or more
+     * {@code property} statements.
+     * @param subject - Only return statements with this subject. (nullable)
+     * @param property - An indexed property. (not null)
+     * @param object - Only return statements with this object. (nullable)
+     * @return The matching statements, read as the iteration advances.
+     * @throws QueryEvaluationException The index could not be read.
+     */
+    public CloseableIteration<Statement, QueryEvaluationException> getClosure(Resource subject, IRI property, Value object)
+            throws QueryEvaluationException;
+
+    /**
+     * @param resource - A resource. (not null)
+     * @return The other members of the resource's owl:sameAs equivalence class, read as the
+     *      iteration advances. Does not include {@code resource} itself.
+     * @throws QueryEvaluationException The index could not be read.
+     */
+    public CloseableIteration<Resource, QueryEvaluationException> getSameAs(Resource resource) throws QueryEvaluationException;
+}
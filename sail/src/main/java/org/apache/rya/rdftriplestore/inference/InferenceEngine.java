@@ -22,6 +22,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -31,10 +32,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Stack;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -43,15 +45,17 @@ import java.util.concurrent.locks.ReentrantLock;
 import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.log4j.Logger;
 import org.apache.rya.api.RdfCloudTripleStoreConfiguration;
+import org.apache.rya.api.domain.RyaStatement;
 import org.apache.rya.api.persist.RyaDAO;
 import org.apache.rya.api.persist.RyaDAOException;
+import org.apache.rya.api.persist.query.RyaQueryEngine;
 import org.apache.rya.api.persist.utils.RyaDAOHelper;
 import org.apache.rya.api.persist.utils.RyaDaoQueryWrapper;
+import org.apache.rya.api.resolver.RdfToRyaConversions;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
-import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
@@ -67,49 +71,51 @@ import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
 
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Will pull down inference relationships from dao every x seconds. <br>
  * Will infer extra relationships. <br>
  * Will cache relationships in Graph for later use. <br>
+ * Queries read an immutable snapshot of the relationships, which each refresh replaces at once. <br>
  */
 public class InferenceEngine {
     private static final Logger log = Logger.getLogger(InferenceEngine.class);
     private static final ValueFactory VF = SimpleValueFactory.getInstance();
     private static final IRI HAS_SELF = VF.createIRI(OWL.NAMESPACE, "hasSelf");
     private static final IRI REFLEXIVE_PROPERTY = VF.createIRI(OWL.NAMESPACE, "ReflexiveProperty");
+    private static final IRI PROPERTY_CHAIN_AXIOM = VF.createIRI(OWL.NAMESPACE, "propertyChainAxiom");
+
+    // The predicates of the statements that directly define the schema.
+    private static final List<IRI> SCHEMA_PREDICATES = Arrays.asList(RDFS.SUBCLASSOF, OWL.EQUIVALENTCLASS,
+            OWL.UNIONOF, RDFS.SUBPROPERTYOF, OWL.EQUIVALENTPROPERTY, OWL.INTERSECTIONOF, OWL.ONEOF,
+            OWL.INVERSEOF, PROPERTY_CHAIN_AXIOM, RDFS.DOMAIN, RDFS.RANGE, OWL.ONPROPERTY, OWL.HASVALUE,
+            OWL.SOMEVALUESFROM, OWL.ALLVALUESFROM, HAS_SELF);
+    // The types of property the schema keeps track of.
+    private static final List<IRI> SCHEMA_PROPERTY_TYPES = Arrays.asList(OWL.SYMMETRICPROPERTY,
+            OWL.TRANSITIVEPROPERTY, REFLEXIVE_PROPERTY);
     public static final String URI_PROP = "uri";
 
     private final ReentrantLock refreshLock = new ReentrantLock();
 
-    private final AtomicReference<Graph> subClassOfGraph = new AtomicReference<>();
-    private final AtomicReference<Graph> subPropertyOfGraph = new AtomicReference<>();
-
-    private final Set<IRI> symmetricPropertySet = ConcurrentHashMap.newKeySet();;
-    private final Map<IRI, IRI> inverseOfMap = new ConcurrentHashMap<>();
-    private final Set<IRI> transitivePropertySet = ConcurrentHashMap.newKeySet();;
-    private final Set<IRI> reflexivePropertySet = ConcurrentHashMap.newKeySet();;
-    private final Map<IRI, Set<IRI>> domainByType = new ConcurrentHashMap<>();
-    private final Map<IRI, Set<IRI>> rangeByType = new ConcurrentHashMap<>();
-    private final Map<Resource, Map<IRI, Value>> hasValueByType = new ConcurrentHashMap<>();
-    private final Map<IRI, Map<Resource, Value>> hasValueByProperty = new ConcurrentHashMap<>();
-    private final Map<Resource, Map<Resource, IRI>> someValuesFromByRestrictionType = new ConcurrentHashMap<>();
-    private final Map<Resource, Map<Resource, IRI>> allValuesFromByValueType = new ConcurrentHashMap<>();
-    private final Map<Resource, List<Set<Resource>>> intersections = new ConcurrentHashMap<>();
-    private final Map<Resource, Set<Resource>> enumerations = new ConcurrentHashMap<>();
-    private final Map<IRI, List<IRI>> propertyChainPropertyToChain = new ConcurrentHashMap<>();
-    // hasSelf maps.
-    private final Map<IRI, Set<Resource>> hasSelfByProperty = new ConcurrentHashMap<>();
-    private final Map<Resource, Set<IRI>> hasSelfByType = new ConcurrentHashMap<>();
+    // Readers take the snapshot once and use it throughout, so they never see a partially refreshed schema.
+    private final AtomicReference<InferenceSchema> schema = new AtomicReference<>(InferenceSchema.EMPTY);
 
     private RyaDAO<?> ryaDAO;
     private RdfCloudTripleStoreConfiguration conf;
     private RyaDaoQueryWrapper ryaDaoQueryWrapper;
+    private volatile ClosureIndex closureIndex;
     private final AtomicBoolean isInitialized = new AtomicBoolean();
     private final AtomicBoolean schedule = new AtomicBoolean(true);
+    private final AtomicBoolean incrementalRefresh = new AtomicBoolean(false);
 
     private final AtomicLong refreshGraphSchedule = new AtomicLong(5 * 60 * 1000); //5 min
-    private Timer timer;
+    private ScheduledExecutorService refresher;
+
+    // Metrics describing the snapshots that have been built.
+    private final AtomicLong snapshotsBuilt = new AtomicLong();
+    private final AtomicLong refreshesSkipped = new AtomicLong();
+    private final AtomicLong lastBuildMillis = new AtomicLong(-1);
 
     public void init() throws InferenceEngineException {
         try {
@@ -122,20 +128,25 @@ public class InferenceEngine {
             checkArgument(ryaDAO.isInitialized(), "RdfDao is not initialized");
             ryaDaoQueryWrapper = new RyaDaoQueryWrapper(ryaDAO, conf);
 
+            if (conf.isInferRefreshIncremental()) {
+                incrementalRefresh.set(true);
+            }
+
             refreshGraph();
 
             if (schedule.get()) {
-                timer = new Timer(InferenceEngine.class.getName());
-                timer.scheduleAtFixedRate(new TimerTask() {
-                    @Override
-                    public void run() {
-                        try {
-                            refreshGraph();
-                        } catch (final InferenceEngineException e) {
-                            throw new RuntimeException(e);
-                        }
+                refresher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                        .setNameFormat(InferenceEngine.class.getSimpleName() + "-refresh")
+                        .setDaemon(true)
+                        .build());
+                refresher.scheduleAtFixedRate(() -> {
+                    try {
+                        refreshGraph(incrementalRefresh.get());
+                    } catch (final InferenceEngineException e) {
+                        // Keep the current snapshot and try again on the next run.
+                        log.error("Could not refresh the inference schema.", e);
                     }
-                }, refreshGraphSchedule.get(), refreshGraphSchedule.get());
+                }, refreshGraphSchedule.get(), refreshGraphSchedule.get(), TimeUnit.MILLISECONDS);
             }
 
             setInitialized(true);
@@ -146,60 +157,119 @@ public class InferenceEngine {
 
     public void destroy() throws InferenceEngineException {
         setInitialized(false);
-        if (timer != null) {
-            timer.cancel();
+        if (refresher != null) {
+            refresher.shutdownNow();
         }
     }
 
+    /**
+     * Rebuilds the schema from the DAO and publishes it once it is complete. Queries that run while
+     * the schema is being rebuilt keep using the previous one.
+     * @throws InferenceEngineException The schema could not be read from the DAO.
+     */
     public void refreshGraph() throws InferenceEngineException {
+        refreshGraph(false);
+    }
+
+    /**
+     * Refreshes the schema. An incremental refresh first looks for statements that directly define
+     * the schema (those whose predicate is a schema property such as rdfs:subClassOf, or that type a
+     * resource as a symmetric, transitive, or reflexive property) and that were inserted since the
+     * current snapshot was read, and keeps the current snapshot if there are none. It only reads
+     * statements whose timestamp is at least the time the current snapshot started being read, so
+     * it does not notice deleted statements, or changes to the members of an RDF list (rdf:first
+     * and rdf:rest statements) that do not touch the statement referring to the list. A full
+     * refresh is needed to pick those up.
+     * @param incremental - Whether to skip rebuilding a schema that has had nothing inserted.
+     * @throws InferenceEngineException The schema could not be read from the DAO.
+     */
+    public void refreshGraph(final boolean incremental) throws InferenceEngineException {
         refreshLock.lock();
         try {
+            final long start = System.currentTimeMillis();
+            final InferenceSchema current = schema.get();
+            if (incremental && current != InferenceSchema.EMPTY && !hasSchemaInsertedSince(current.readTime)) {
+                refreshesSkipped.incrementAndGet();
+                log.debug("No schema statements were inserted since the last refresh.");
+                return;
+            }
+
+            final InferenceSchema.Builder next = new InferenceSchema.Builder();
             //get all subclassof
-            Graph graph = TinkerGraph.open();
-            addPredicateEdges(RDFS.SUBCLASSOF, Direction.OUT, graph, RDFS.SUBCLASSOF.stringValue());
+            addPredicateEdges(RDFS.SUBCLASSOF, Direction.OUT, next.subClassOfGraph, RDFS.SUBCLASSOF.stringValue());
             //equivalentClass is the same as subClassOf both ways
-            addPredicateEdges(OWL.EQUIVALENTCLASS, Direction.BOTH, graph, RDFS.SUBCLASSOF.stringValue());
+            addPredicateEdges(OWL.EQUIVALENTCLASS, Direction.BOTH, next.subClassOfGraph, RDFS.SUBCLASSOF.stringValue());
             // Add unions to the subclass graph
-            addUnions(graph);
-            subClassOfGraph.set(graph);
+            addUnions(next.subClassOfGraph);
 
-            graph = TinkerGraph.open();
-            addPredicateEdges(RDFS.SUBPROPERTYOF, Direction.OUT, graph, RDFS.SUBPROPERTYOF.stringValue());
+            addPredicateEdges(RDFS.SUBPROPERTYOF, Direction.OUT, next.subPropertyOfGraph, RDFS.SUBPROPERTYOF.stringValue());
             //equiv property really is the same as a subPropertyOf both ways
-            addPredicateEdges(OWL.EQUIVALENTPROPERTY, Direction.BOTH, graph, RDFS.SUBPROPERTYOF.stringValue());
-            subPropertyOfGraph.set(graph);
+            addPredicateEdges(OWL.EQUIVALENTPROPERTY, Direction.BOTH, next.subPropertyOfGraph, RDFS.SUBPROPERTYOF.stringValue());
 
-            refreshIntersectionOf();
+            refreshIntersectionOf(next);
 
-            refreshOneOf();
+            refreshOneOf(next);
 
-            synchronized(symmetricPropertySet) {
-                symmetricPropertySet.clear();
-                symmetricPropertySet.addAll(fetchInstances(OWL.SYMMETRICPROPERTY));
-            }
-            synchronized(transitivePropertySet) {
-                transitivePropertySet.clear();
-                transitivePropertySet.addAll(fetchInstances(OWL.TRANSITIVEPROPERTY));
-            }
-            synchronized(reflexivePropertySet) {
-                reflexivePropertySet.clear();
-                reflexivePropertySet.addAll(fetchInstances(REFLEXIVE_PROPERTY));
-            }
+            next.symmetricPropertySet.addAll(fetchInstances(OWL.SYMMETRICPROPERTY));
+            next.transitivePropertySet.addAll(fetchInstances(OWL.TRANSITIVEPROPERTY));
+            next.reflexivePropertySet.addAll(fetchInstances(REFLEXIVE_PROPERTY));
 
-            refreshInverseOf();
+            refreshInverseOf(next);
 
-            refreshPropertyChainPropertyToChain();
+            refreshPropertyChainPropertyToChain(next);
 
-            refreshDomainRange();
+            refreshDomainRange(next);
 
-            refreshPropertyRestrictions();
-        } catch (final QueryEvaluationException e) {
+            refreshPropertyRestrictions(next);
+
+            final InferenceSchema built = next.build(start);
+            schema.set(built);
+
+            final long millis = System.currentTimeMillis() - start;
+            lastBuildMillis.set(millis);
+            snapshotsBuilt.incrementAndGet();
+            log.info("Built an inference schema snapshot of " + built.size + " entries in " + millis + " ms.");
+        } catch (final QueryEvaluationException | RyaDAOException e) {
             throw new InferenceEngineException(e);
         } finally {
             refreshLock.unlock();
         }
     }
 
+    /**
+     * Checks whether any statement that directly defines the schema has a timestamp at or after
+     * {@code since}. The query engine is asked to skip older statements, and they are skipped here
+     * as well in case it ignores the time to live.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private boolean hasSchemaInsertedSince(final long since) throws RyaDAOException {
+        final List<RyaStatement> patterns = new ArrayList<>();
+        for (final IRI predicate : SCHEMA_PREDICATES) {
+            patterns.add(new RyaStatement(null, RdfToRyaConversions.convertIRI(predicate), null));
+        }
+        for (final IRI type : SCHEMA_PROPERTY_TYPES) {
+            patterns.add(new RyaStatement(null, RdfToRyaConversions.convertIRI(RDF.TYPE), RdfToRyaConversions.convertIRI(type)));
+        }
+
+        final RdfCloudTripleStoreConfiguration queryConf = conf.clone();
+        queryConf.setTtl(Math.max(0, System.currentTimeMillis() - since));
+        final RyaQueryEngine queryEngine = ryaDAO.getQueryEngine();
+        for (final RyaStatement pattern : patterns) {
+            final CloseableIteration<RyaStatement, RyaDAOException> iter = queryEngine.query(pattern, queryConf);
+            try {
+                while (iter.hasNext()) {
+                    final Long timestamp = iter.next().getTimestamp();
+                    if (timestamp == null || timestamp >= since) {
+                        return true;
+                    }
+                }
+            } finally {
+                iter.close();
+            }
+        }
+        return false;
+    }
+
     /**
      * Query for and collect all instances of a given type. Should only be called for types expected
      * to have few members, such as ontology vocabulary terms, as instances will be collected in
@@ -305,7 +375,7 @@ public class InferenceEngine {
         }
     }
 
-    private void refreshInverseOf() throws QueryEvaluationException {
+    private void refreshInverseOf(final InferenceSchema.Builder next) throws QueryEvaluationException {
         final CloseableIteration<Statement, QueryEvaluationException> iter = RyaDAOHelper.query(ryaDAO, null, OWL.INVERSEOF, null, conf);
         final Map<IRI, IRI> invProp = new HashMap<>();
         try {
@@ -319,16 +389,12 @@ public class InferenceEngine {
                 iter.close();
             }
         }
-        synchronized(inverseOfMap) {
-            inverseOfMap.clear();
-            inverseOfMap.putAll(invProp);
-        }
+        next.inverseOfMap.putAll(invProp);
     }
 
-    private void refreshPropertyChainPropertyToChain() throws QueryEvaluationException {
+    private void refreshPropertyChainPropertyToChain(final InferenceSchema.Builder next) throws QueryEvaluationException {
         CloseableIteration<Statement, QueryEvaluationException> iter = RyaDAOHelper.query(ryaDAO, null,
-                VF.createIRI("http://www.w3.org/2002/07/owl#propertyChainAxiom"),
-                null, conf);
+                PROPERTY_CHAIN_AXIOM, null, conf);
         final Map<IRI, IRI> propertyChainPropertiesToBNodes = new HashMap<>();
         final Map<IRI, List<IRI>> tempPropertyChainPropertyToChain = new HashMap<>();
         try {
@@ -466,10 +532,7 @@ public class InferenceEngine {
             }
         }
 
-        synchronized(propertyChainPropertyToChain) {
-            propertyChainPropertyToChain.clear();
-            propertyChainPropertyToChain.putAll(tempPropertyChainPropertyToChain);
-        }
+        next.propertyChainPropertyToChain.putAll(tempPropertyChainPropertyToChain);
     }
 
     /**
@@ -487,7 +550,7 @@ public class InferenceEngine {
      *  - If p has range c1, and c1 is a subclass of c2, then p also has range c2.
      * @throws QueryEvaluationException
      */
-    private void refreshDomainRange() throws QueryEvaluationException {
+    private void refreshDomainRange(final InferenceSchema.Builder next) throws QueryEvaluationException {
         final Map<IRI, Set<IRI>> domainByTypePartial = new ConcurrentHashMap<>();
         final Map<IRI, Set<IRI>> rangeByTypePartial = new ConcurrentHashMap<>();
         // First, populate domain and range based on direct domain/range triples.
@@ -562,7 +625,7 @@ public class InferenceEngine {
                 // inverse of p. Would be redundant for properties discovered via inverseOf.
                 while (!domainViaSuperProperty.isEmpty()) {
                     final IRI property = domainViaSuperProperty.pop();
-                    final IRI inverseProperty = findInverseOf(property);
+                    final IRI inverseProperty = next.inverseOfMap.get(property);
                     if (inverseProperty != null && propertiesWithRange.add(inverseProperty)) {
                         rangeViaInverseProperty.push(inverseProperty);
                     }
@@ -571,7 +634,7 @@ public class InferenceEngine {
                 // inverse of p. Would be redundant for properties discovered via inverseOf.
                 while (!rangeViaSuperProperty.isEmpty()) {
                     final IRI property = rangeViaSuperProperty.pop();
-                    final IRI inverseProperty = findInverseOf(property);
+                    final IRI inverseProperty = next.inverseOfMap.get(property);
                     if (inverseProperty != null && propertiesWithDomain.add(inverseProperty)) {
                         domainViaInverseProperty.push(inverseProperty);
                     }
@@ -580,7 +643,7 @@ public class InferenceEngine {
                 // p's subproperties. Would be redundant for properties discovered via this rule.
                 while (!domainViaInverseProperty.isEmpty()) {
                     final IRI property = domainViaInverseProperty.pop();
-                    final Set<IRI> subProperties = getSubProperties(property);
+                    final Set<IRI> subProperties = findParents(next.subPropertyOfGraph, property);
                     subProperties.removeAll(propertiesWithDomain);
                     propertiesWithDomain.addAll(subProperties);
                     domainViaSuperProperty.addAll(subProperties);
@@ -589,7 +652,7 @@ public class InferenceEngine {
                 // p's subproperties. Would be redundant for properties discovered via this rule.
                 while (!rangeViaInverseProperty.isEmpty()) {
                     final IRI property = rangeViaInverseProperty.pop();
-                    final Set<IRI> subProperties = getSubProperties(property);
+                    final Set<IRI> subProperties = findParents(next.subPropertyOfGraph, property);
                     subProperties.removeAll(propertiesWithRange);
                     propertiesWithRange.addAll(subProperties);
                     rangeViaSuperProperty.addAll(subProperties);
@@ -606,7 +669,7 @@ public class InferenceEngine {
         // make sure that the consequent of a domain/range inference goes on to apply any more
         // general classes as well.
         for (final IRI subtype : domainRangeTypeSet) {
-            final Set<IRI> supertypes = getSuperClasses(subtype);
+            final Set<IRI> supertypes = findChildren(next.subClassOfGraph, subtype);
             final Set<IRI> propertiesWithDomain = domainByTypePartial.getOrDefault(subtype, new HashSet<>());
             final Set<IRI> propertiesWithRange = rangeByTypePartial.getOrDefault(subtype, new HashSet<>());
             for (final IRI supertype : supertypes) {
@@ -626,17 +689,11 @@ public class InferenceEngine {
                 }
             }
         }
-        synchronized(domainByType) {
-            domainByType.clear();
-            domainByType.putAll(domainByTypePartial);
-        }
-        synchronized(rangeByType) {
-            rangeByType.clear();
-            rangeByType.putAll(rangeByTypePartial);
-        }
+        next.domainByType.putAll(domainByTypePartial);
+        next.rangeByType.putAll(rangeByTypePartial);
     }
 
-    private void refreshPropertyRestrictions() throws QueryEvaluationException {
+    private void refreshPropertyRestrictions(final InferenceSchema.Builder next) throws QueryEvaluationException {
         // Get a set of all property restrictions of any type
         final CloseableIteration<Statement, QueryEvaluationException> iter = RyaDAOHelper.query(ryaDAO, null, OWL.ONPROPERTY, null, conf);
         final Map<Resource, IRI> restrictions = new HashMap<>();
@@ -651,15 +708,13 @@ public class InferenceEngine {
             }
         }
         // Query for specific types of restriction and add their details to the schema
-        refreshHasValueRestrictions(restrictions);
-        refreshSomeValuesFromRestrictions(restrictions);
-        refreshAllValuesFromRestrictions(restrictions);
-        refreshHasSelfRestrictions(restrictions);
+        refreshHasValueRestrictions(next, restrictions);
+        refreshSomeValuesFromRestrictions(next, restrictions);
+        refreshAllValuesFromRestrictions(next, restrictions);
+        refreshHasSelfRestrictions(next, restrictions);
     }
 
-    private void refreshHasValueRestrictions(final Map<Resource, IRI> restrictions) throws QueryEvaluationException {
-        hasValueByType.clear();
-        hasValueByProperty.clear();
+    private void refreshHasValueRestrictions(final InferenceSchema.Builder next, final Map<Resource, IRI> restrictions) throws QueryEvaluationException {
         final CloseableIteration<Statement, QueryEvaluationException> iter = RyaDAOHelper.query(ryaDAO, null, OWL.HASVALUE, null, conf);
         try {
             while (iter.hasNext()) {
@@ -668,14 +723,14 @@ public class InferenceEngine {
                 if (restrictions.containsKey(restrictionClass)) {
                     final IRI property = restrictions.get(restrictionClass);
                     final Value value = st.getObject();
-                    if (!hasValueByType.containsKey(restrictionClass)) {
-                        hasValueByType.put(restrictionClass, new HashMap<>());
+                    if (!next.hasValueByType.containsKey(restrictionClass)) {
+                        next.hasValueByType.put(restrictionClass, new HashMap<>());
                     }
-                    if (!hasValueByProperty.containsKey(property)) {
-                        hasValueByProperty.put(property, new HashMap<>());
+                    if (!next.hasValueByProperty.containsKey(property)) {
+                        next.hasValueByProperty.put(property, new HashMap<>());
                     }
-                    hasValueByType.get(restrictionClass).put(property, value);
-                    hasValueByProperty.get(property).put(restrictionClass, value);
+                    next.hasValueByType.get(restrictionClass).put(property, value);
+                    next.hasValueByProperty.get(property).put(restrictionClass, value);
                 }
             }
         } finally {
@@ -685,8 +740,7 @@ public class InferenceEngine {
         }
     }
 
-    private void refreshSomeValuesFromRestrictions(final Map<Resource, IRI> restrictions) throws QueryEvaluationException {
-        someValuesFromByRestrictionType.clear();
+    private void refreshSomeValuesFromRestrictions(final InferenceSchema.Builder next, final Map<Resource, IRI> restrictions) throws QueryEvaluationException {
         ryaDaoQueryWrapper.queryAll(null, OWL.SOMEVALUESFROM, null, new AbstractRDFHandler() {
             @Override
             public void handleStatement(final Statement statement) throws RDFHandlerException {
@@ -698,21 +752,20 @@ public class InferenceEngine {
                     final Set<Resource> valueClasses = new HashSet<>();
                     valueClasses.add(valueClass);
                     if (valueClass instanceof IRI) {
-                        valueClasses.addAll(getSubClasses((IRI) valueClass));
+                        valueClasses.addAll(findParents(next.subClassOfGraph, (IRI) valueClass));
                     }
                     for (final Resource valueSubClass : valueClasses) {
-                        if (!someValuesFromByRestrictionType.containsKey(restrictionClass)) {
-                            someValuesFromByRestrictionType.put(restrictionClass, new ConcurrentHashMap<>());
+                        if (!next.someValuesFromByRestrictionType.containsKey(restrictionClass)) {
+                            next.someValuesFromByRestrictionType.put(restrictionClass, new ConcurrentHashMap<>());
                         }
-                        someValuesFromByRestrictionType.get(restrictionClass).put(valueSubClass, property);
+                        next.someValuesFromByRestrictionType.get(restrictionClass).put(valueSubClass, property);
                     }
                 }
             }
         });
     }
 
-    private void refreshAllValuesFromRestrictions(final Map<Resource, IRI> restrictions) throws QueryEvaluationException {
-        allValuesFromByValueType.clear();
+    private void refreshAllValuesFromRestrictions(final InferenceSchema.Builder next, final Map<Resource, IRI> restrictions) throws QueryEvaluationException {
         ryaDaoQueryWrapper.queryAll(null, OWL.ALLVALUESFROM, null, new AbstractRDFHandler() {
             @Override
             public void handleStatement(final Statement statement) throws RDFHandlerException {
@@ -724,30 +777,27 @@ public class InferenceEngine {
                     final Set<Resource> restrictionClasses = new HashSet<>();
                     restrictionClasses.add(directRestrictionClass);
                     if (directRestrictionClass instanceof IRI) {
-                        restrictionClasses.addAll(getSubClasses((IRI) directRestrictionClass));
+                        restrictionClasses.addAll(findParents(next.subClassOfGraph, (IRI) directRestrictionClass));
                     }
                     for (final Resource restrictionClass : restrictionClasses) {
-                        if (!allValuesFromByValueType.containsKey(valueClass)) {
-                            allValuesFromByValueType.put(valueClass, new ConcurrentHashMap<>());
+                        if (!next.allValuesFromByValueType.containsKey(valueClass)) {
+                            next.allValuesFromByValueType.put(valueClass, new ConcurrentHashMap<>());
                         }
-                        allValuesFromByValueType.get(valueClass).put(restrictionClass, property);
+                        next.allValuesFromByValueType.get(valueClass).put(restrictionClass, property);
                     }
                 }
             }
         });
     }
 
-    private void refreshHasSelfRestrictions(final Map<Resource, IRI> restrictions) throws QueryEvaluationException {
-        hasSelfByType.clear();
-        hasSelfByProperty.clear();
-
+    private void refreshHasSelfRestrictions(final InferenceSchema.Builder next, final Map<Resource, IRI> restrictions) throws QueryEvaluationException {
         for(final Resource type : restrictions.keySet()) {
             final IRI property = restrictions.get(type);
             final CloseableIteration<Statement, QueryEvaluationException> iter = RyaDAOHelper.query(ryaDAO, type, HAS_SELF, null, conf);
             try {
                 if (iter.hasNext()) {
-                    Set<IRI> typeSet = hasSelfByType.get(type);
-                    Set<Resource> propSet = hasSelfByProperty.get(property);
+                    Set<IRI> typeSet = next.hasSelfByType.get(type);
+                    Set<Resource> propSet = next.hasSelfByProperty.get(property);
 
                     if (typeSet == null) {
                         typeSet = new HashSet<>();
@@ -759,8 +809,8 @@ public class InferenceEngine {
                     typeSet.add(property);
                     propSet.add(type);
 
-                    hasSelfByType.put(type, typeSet);
-                    hasSelfByProperty.put(property, propSet);
+                    next.hasSelfByType.put(type, typeSet);
+                    next.hasSelfByProperty.put(property, propSet);
                 }
             } finally {
                 if (iter != null) {
@@ -770,7 +820,7 @@ public class InferenceEngine {
         }
     }
 
-    private void refreshIntersectionOf() throws QueryEvaluationException {
+    private void refreshIntersectionOf(final InferenceSchema.Builder next) throws QueryEvaluationException {
         final Map<Resource, List<Set<Resource>>> intersectionsProp = new HashMap<>();
 
         // First query for all the owl:intersectionOf's.
@@ -808,7 +858,6 @@ public class InferenceEngine {
             }
         });
 
-        intersections.clear();
         for (final Entry<Resource, List<Set<Resource>>> entry : intersectionsProp.entrySet()) {
             final Resource type = entry.getKey();
             final List<Set<Resource>> intersectionList = entry.getValue();
@@ -823,22 +872,22 @@ public class InferenceEngine {
                 // :A subclassOf :C
                 // So add each type that's part of the intersection to the
                 // subClassOf graph.
-                addSubClassOf(type, other);
+                addSubClassOf(next, type, other);
                 for (final Set<Resource> intersection : intersectionList) {
                     if (!intersection.contains(other)) {
-                        addIntersection(intersection, other);
+                        addIntersection(next, intersection, other);
                     }
                 }
             }
             for (final Set<Resource> intersection : intersectionList) {
-                addIntersection(intersection, type);
+                addIntersection(next, intersection, type);
             }
         }
         for (final Entry<Resource, List<Set<Resource>>> entry : intersectionsProp.entrySet()) {
             final Resource type = entry.getKey();
             final List<Set<Resource>> intersectionList = entry.getValue();
 
-            final Set<IRI> superClasses = getSuperClasses((IRI) type);
+            final Set<IRI> superClasses = findChildren(next.subClassOfGraph, (IRI) type);
             for (final IRI superClass : superClasses) {
                 // Add intersections to super classes if applicable.
                 // IF:
@@ -848,7 +897,7 @@ public class InferenceEngine {
                 // Then we can infer:
                 // intersectionOf[:B, :C] subclassOf :D
                 for (final Set<Resource> intersection : intersectionList) {
-                    addIntersection(intersection, superClass);
+                    addIntersection(next, intersection, superClass);
                 }
             }
             // Check if other keys have any of the same intersections and infer
@@ -859,15 +908,15 @@ public class InferenceEngine {
                 otherKeys.remove(type);
                 for (final Resource otherKey : otherKeys) {
                     if (intersectionsProp.get(otherKey).contains(intersection)) {
-                        addSubClassOf(otherKey, type);
-                        addSubClassOf(type, otherKey);
+                        addSubClassOf(next, otherKey, type);
+                        addSubClassOf(next, type, otherKey);
                     }
                 }
             }
         }
     }
 
-    private void refreshOneOf() throws QueryEvaluationException {
+    private void refreshOneOf(final InferenceSchema.Builder next) throws QueryEvaluationException {
         final Map<Resource, Set<Resource>> enumTypes = new HashMap<>();
 
         // First query for all the owl:oneOf's.
@@ -903,10 +952,7 @@ public class InferenceEngine {
             }
         });
 
-        synchronized(enumerations) {
-            enumerations.clear();
-            enumerations.putAll(enumTypes);
-        }
+        next.enumerations.putAll(enumTypes);
     }
 
     /**
@@ -926,16 +972,17 @@ public class InferenceEngine {
      */
     public Set<IRI> getHasSelfImplyingType(final Resource type){
         // return properties that imply this type if reflexive
+        final InferenceSchema current = schema.get();
         final Set<IRI> properties = new HashSet<>();
-        Set<IRI> tempProperties = hasSelfByType.get(type);
+        Set<IRI> tempProperties = current.hasSelfByType.get(type);
 
         if (tempProperties != null) {
             properties.addAll(tempProperties);
         }
         //findParent gets all subclasses, add self.
         if (type instanceof IRI) {
-            for (final IRI subtype : findParents(subClassOfGraph.get(), (IRI) type)) {
-                tempProperties = hasSelfByType.get(subtype);
+            for (final IRI subtype : findParents(current.subClassOfGraph, (IRI) type)) {
+                tempProperties = current.hasSelfByType.get(subtype);
                 if (tempProperties != null) {
                     properties.addAll(tempProperties);
                 }
@@ -957,15 +1004,16 @@ public class InferenceEngine {
      */
     public Set<Resource> getHasSelfImplyingProperty(final IRI property) {
         // return types that imply this type if reflexive
+        final InferenceSchema current = schema.get();
         final Set<Resource> types = new HashSet<>();
-        final Set<Resource> baseTypes = hasSelfByProperty.get(property);
+        final Set<Resource> baseTypes = current.hasSelfByProperty.get(property);
 
         if (baseTypes != null) {
             types.addAll(baseTypes);
             // findParent gets all subclasses, add self.
             for (final Resource baseType : baseTypes) {
                 if (baseType instanceof IRI) {
-                    types.addAll(findParents(subClassOfGraph.get(), (IRI) baseType));
+                    types.addAll(findParents(current.subClassOfGraph, (IRI) baseType));
                 }
             }
         }
@@ -1026,23 +1074,23 @@ public class InferenceEngine {
         return list;
     }
 
-    private void addSubClassOf(final Resource s, final Resource o) {
+    private static void addSubClassOf(final InferenceSchema.Builder next, final Resource s, final Resource o) {
         final Statement statement = VF.createStatement(s, RDFS.SUBCLASSOF, o);
         final String edgeName = RDFS.SUBCLASSOF.stringValue();
 
-        addStatementEdge(subClassOfGraph.get(), edgeName, statement);
+        addStatementEdge(next.subClassOfGraph, edgeName, statement);
     }
 
-    private void addIntersection(final Set<Resource> intersection, final Resource type) {
+    private static void addIntersection(final InferenceSchema.Builder next, final Set<Resource> intersection, final Resource type) {
         if (type != null && intersection != null && !intersection.isEmpty()) {
-            List<Set<Resource>> intersectionList = intersections.get(type);
+            List<Set<Resource>> intersectionList = next.intersections.get(type);
             if (intersectionList == null) {
                 intersectionList = new ArrayList<>();
             }
             if (!intersectionList.contains(intersection)) {
                 intersectionList.add(intersection);
             }
-            intersections.put(type, intersectionList);
+            next.intersections.put(type, intersectionList);
         }
     }
 
@@ -1079,7 +1127,7 @@ public class InferenceEngine {
      * or if either type or the subclass graph is {@code null}.
      */
     public Set<IRI> getSuperClasses(final IRI type) {
-        return findChildren(subClassOfGraph.get(), type);
+        return findChildren(schema.get().subClassOfGraph, type);
     }
 
     /**
@@ -1091,7 +1139,7 @@ public class InferenceEngine {
      * or if either type or the subclass graph is {@code null}.
      */
     public Set<IRI> getSubClasses(final IRI type) {
-        return findParents(subClassOfGraph.get(), type);
+        return findParents(schema.get().subClassOfGraph, type);
     }
 
     /**
@@ -1103,7 +1151,7 @@ public class InferenceEngine {
      * or if either property or the subproperty graph is {@code null}.
      */
     public Set<IRI> getSuperProperties(final IRI property) {
-        return findChildren(subPropertyOfGraph.get(), property);
+        return findChildren(schema.get().subPropertyOfGraph, property);
     }
 
     /**
@@ -1115,7 +1163,7 @@ public class InferenceEngine {
      * or if either property or the subproperty graph is {@code null}.
      */
     public Set<IRI> getSubProperties(final IRI property) {
-        return findParents(subPropertyOfGraph.get(), property);
+        return findParents(schema.get().subPropertyOfGraph, property);
     }
 
     /**
@@ -1210,15 +1258,15 @@ public class InferenceEngine {
     }
 
     public boolean isSymmetricProperty(final IRI prop) {
-        return (symmetricPropertySet != null) && symmetricPropertySet.contains(prop);
+        return schema.get().symmetricPropertySet.contains(prop);
     }
 
     public IRI findInverseOf(final IRI prop) {
-        return (inverseOfMap != null) ? inverseOfMap.get(prop) : (null);
+        return schema.get().inverseOfMap.get(prop);
     }
 
     public boolean isTransitiveProperty(final IRI prop) {
-        return (transitivePropertySet != null) && transitivePropertySet.contains(prop);
+        return schema.get().transitivePropertySet.contains(prop);
     }
 
     /**
@@ -1227,15 +1275,24 @@ public class InferenceEngine {
      * @return True if the given IRI corresponds to an owl:ReflexiveProperty
      */
     public boolean isReflexiveProperty(final IRI prop) {
-        return (reflexivePropertySet != null) && reflexivePropertySet.contains(prop);
+        return schema.get().reflexivePropertySet.contains(prop);
     }
 
     /**
      * TODO: This chaining can be slow at query execution. the other option is to perform this in the query itself, but that will be constrained to how many levels we decide to go
+     * If the property is in the {@link ClosureIndex}, the closure is read from the index instead.
      */
     public Set<Statement> findTransitiveProperty(final Resource subj, final IRI prop, final Value obj, final Resource... contxts) throws InferenceEngineException {
-        if (transitivePropertySet.contains(prop)) {
+        if (isTransitiveProperty(prop)) {
             final Set<Statement> sts = new HashSet<>();
+            if (isClosureIndexed(prop, contxts)) {
+                try {
+                    addAll(queryTransitiveClosure(subj, prop, obj), sts);
+                } catch (final QueryEvaluationException e) {
+                    throw new InferenceEngineException(e);
+                }
+                return sts;
+            }
             final boolean goUp = subj == null;
             chainTransitiveProperty(subj, prop, obj, (goUp) ? (obj) : (subj), sts, goUp, contxts);
             return sts;
@@ -1250,10 +1307,72 @@ public class InferenceEngine {
     public Set<Resource> findSameAs(final Resource value, final Resource... contxts) throws InferenceEngineException{
         final Set<Resource> sameAs = new HashSet<>();
         sameAs.add(value);
+        if (isClosureIndexed(OWL.SAMEAS, contxts)) {
+            try {
+                addAll(closureIndex.getSameAs(value), sameAs);
+            } catch (final QueryEvaluationException e) {
+                throw new InferenceEngineException(e);
+            }
+            return sameAs;
+        }
         findSameAsChaining(value, sameAs, contxts);
         return sameAs;
     }
 
+    /**
+     * @param prop - A property. (nullable)
+     * @param contexts - The contexts a pattern is restricted to, if any. (nullable)
+     * @return {@code true} if the closure of the property can be read from the {@link ClosureIndex}.
+     *      The index spans every named graph, so it is not used when a context is bound.
+     * @throws InferenceEngineException The index could not be read.
+     */
+    public boolean isClosureIndexed(final IRI prop, final Resource... contexts) throws InferenceEngineException {
+        final ClosureIndex index = closureIndex;
+        if (index == null || prop == null) {
+            return false;
+        }
+        if (contexts != null) {
+            for (final Resource context : contexts) {
+                if (context != null) {
+                    return false;
+                }
+            }
+        }
+        try {
+            return index.isIndexed(prop);
+        } catch (final QueryEvaluationException e) {
+            throw new InferenceEngineException(e);
+        }
+    }
+
+    /**
+     * Streams the closure of a transitive property from the {@link ClosureIndex}. Unlike
+     * {@link #findTransitiveProperty(Resource, IRI, Value, Resource...)}, the subject and the object
+     * may both be unbound. Check {@link #isClosureIndexed(IRI, Resource...)} first.
+     * @param subj - Only return statements with this subject. (nullable)
+     * @param prop - An indexed transitive property. (not null)
+     * @param obj - Only return statements with this object. (nullable)
+     * @return The matching statements of the closure.
+     * @throws QueryEvaluationException There is no closure index or it could not be read.
+     */
+    public CloseableIteration<Statement, QueryEvaluationException> queryTransitiveClosure(final Resource subj, final IRI prop, final Value obj) throws QueryEvaluationException {
+        final ClosureIndex index = closureIndex;
+        if (index == null) {
+            throw new QueryEvaluationException("The inference engine does not have a closure index.");
+        }
+        return index.getClosure(subj, prop, obj);
+    }
+
+    private static <T> void addAll(final CloseableIteration<? extends T, QueryEvaluationException> iter, final Set<T> into) throws QueryEvaluationException {
+        try {
+            while (iter.hasNext()) {
+                into.add(iter.next());
+            }
+        } finally {
+            iter.close();
+        }
+    }
+
     public CloseableIteration<Statement, QueryEvaluationException> queryDao(final Resource subject, final IRI predicate, final Value object, final Resource... contexts) throws QueryEvaluationException {
         return RyaDAOHelper.query(ryaDAO, subject, predicate, object, conf, contexts);
     }
@@ -1354,23 +1473,36 @@ public class InferenceEngine {
         this.conf = conf;
     }
 
+    public ClosureIndex getClosureIndex() {
+        return closureIndex;
+    }
+
+    /**
+     * @param closureIndex - Answers transitive property and owl:sameAs lookups, or {@code null} to
+     *      follow the statements in the DAO instead. (nullable)
+     */
+    public void setClosureIndex(final ClosureIndex closureIndex) {
+        this.closureIndex = closureIndex;
+    }
+
     public Graph getSubClassOfGraph() {
-        return subClassOfGraph.get();
+        return schema.get().subClassOfGraph;
     }
 
     public Map<IRI, List<IRI>> getPropertyChainMap() {
-        return propertyChainPropertyToChain;
+        return schema.get().propertyChainPropertyToChain;
     }
 
     public List<IRI> getPropertyChain(final IRI chainProp) {
-        if (propertyChainPropertyToChain.containsKey(chainProp)){
-            return propertyChainPropertyToChain.get(chainProp);
+        final List<IRI> chain = schema.get().propertyChainPropertyToChain.get(chainProp);
+        if (chain != null) {
+            return chain;
         }
         return new ArrayList<IRI>();
     }
 
     public Graph getSubPropertyOfGraph() {
-        return subPropertyOfGraph.get();
+        return schema.get().subPropertyOfGraph;
     }
 
     public long getRefreshGraphSchedule() {
@@ -1382,15 +1514,15 @@ public class InferenceEngine {
     }
 
     public Set<IRI> getSymmetricPropertySet() {
-        return symmetricPropertySet;
+        return schema.get().symmetricPropertySet;
     }
 
     public Map<IRI, IRI> getInverseOfMap() {
-        return inverseOfMap;
+        return schema.get().inverseOfMap;
     }
 
     public Set<IRI> getTransitivePropertySet() {
-        return transitivePropertySet;
+        return schema.get().transitivePropertySet;
     }
 
     public boolean isSchedule() {
@@ -1401,6 +1533,49 @@ public class InferenceEngine {
         this.schedule.set(schedule);
     }
 
+    /**
+     * @return Whether scheduled refreshes keep the current schema when the statements that define
+     *      it have not changed. See {@link #refreshGraph(boolean)}.
+     */
+    public boolean isIncrementalRefresh() {
+        return incrementalRefresh.get();
+    }
+
+    public void setIncrementalRefresh(final boolean incrementalRefresh) {
+        this.incrementalRefresh.set(incrementalRefresh);
+    }
+
+    /**
+     * @return The number of schema snapshots that have been built and published.
+     */
+    public long getSnapshotsBuilt() {
+        return snapshotsBuilt.get();
+    }
+
+    /**
+     * @return The number of incremental refreshes that kept the current snapshot because the
+     *      schema had not changed.
+     */
+    public long getRefreshesSkipped() {
+        return refreshesSkipped.get();
+    }
+
+    /**
+     * @return How long it took to build the current snapshot in milliseconds, or -1 if none has
+     *      been built.
+     */
+    public long getLastSnapshotBuildMillis() {
+        return lastBuildMillis.get();
+    }
+
+    /**
+     * @return The number of entries in the current snapshot: the edges of its subclass and
+     *      subproperty graphs plus the entries of each of its property sets and restriction maps.
+     */
+    public long getSnapshotSize() {
+        return schema.get().size;
+    }
+
     /**
      * For a given type, return any properties and values such that owl:hasValue restrictions on
      * those properties could imply this type. No matter how many restrictions are returned, each
@@ -1412,16 +1587,17 @@ public class InferenceEngine {
      *      value for that property, it is implied to belong to the type.
      */
     public Map<IRI, Set<Value>> getHasValueByType(final Resource type) {
+        final InferenceSchema current = schema.get();
         final Map<IRI, Set<Value>> implications = new HashMap<>();
-        if (hasValueByType != null) {
+        if (current.hasValueByType != null) {
             final Set<Resource> types = new HashSet<>();
             types.add(type);
             if (type instanceof IRI) {
-                types.addAll(getSubClasses((IRI) type));
+                types.addAll(findParents(current.subClassOfGraph, (IRI) type));
             }
             for (final Resource relevantType : types) {
-                if (hasValueByType.containsKey(relevantType)) {
-                    for (final Map.Entry<IRI, Value> propertyToValue : hasValueByType.get(relevantType).entrySet()) {
+                if (current.hasValueByType.containsKey(relevantType)) {
+                    for (final Map.Entry<IRI, Value> propertyToValue : current.hasValueByType.get(relevantType).entrySet()) {
                         if (!implications.containsKey(propertyToValue.getKey())) {
                             implications.put(propertyToValue.getKey(), new HashSet<>());
                         }
@@ -1445,16 +1621,17 @@ public class InferenceEngine {
      *      type implies.
      */
     public Map<Resource, Set<Value>> getHasValueByProperty(final IRI property) {
+        final InferenceSchema current = schema.get();
         final Map<Resource, Set<Value>> implications = new HashMap<>();
-        if (hasValueByProperty != null && hasValueByProperty.containsKey(property)) {
-            for (final Map.Entry<Resource, Value> typeToValue : hasValueByProperty.get(property).entrySet()) {
+        if (current.hasValueByProperty != null && current.hasValueByProperty.containsKey(property)) {
+            for (final Map.Entry<Resource, Value> typeToValue : current.hasValueByProperty.get(property).entrySet()) {
                 final Resource type = typeToValue.getKey();
                 if (!implications.containsKey(type)) {
                     implications.put(type, new HashSet<>());
                 }
                 implications.get(type).add(typeToValue.getValue());
                 if (type instanceof IRI) {
-                    for (final IRI subtype : getSubClasses((IRI) type)) {
+                    for (final IRI subtype : findParents(current.subClassOfGraph, (IRI) type)) {
                         if (!implications.containsKey(subtype)) {
                             implications.put(subtype, new HashSet<>());
                         }
@@ -1478,8 +1655,9 @@ public class InferenceEngine {
      */
     public Set<IRI> getPropertiesWithDomain(final IRI domainType) {
         final Set<IRI> properties = new HashSet<>();
-        if (domainByType.containsKey(domainType)) {
-            properties.addAll(domainByType.get(domainType));
+        final Set<IRI> domain = schema.get().domainByType.get(domainType);
+        if (domain != null) {
+            properties.addAll(domain);
         }
         return properties;
     }
@@ -1496,8 +1674,9 @@ public class InferenceEngine {
      */
     public Set<IRI> getPropertiesWithRange(final IRI rangeType) {
         final Set<IRI> properties = new HashSet<>();
-        if (rangeByType.containsKey(rangeType)) {
-            properties.addAll(rangeByType.get(rangeType));
+        final Set<IRI> range = schema.get().rangeByType.get(rangeType);
+        if (range != null) {
+            properties.addAll(range);
         }
         return properties;
     }
@@ -1518,14 +1697,14 @@ public class InferenceEngine {
      *      individual type/property combination is sufficient. Returns an empty map if either
      *      parameter is {@code null}.
      */
-    private Map<Resource, Set<IRI>> getTypePropertyImplyingType(final Resource queryType, final Map<Resource, Map<Resource, IRI>> schemaMap) {
+    private static Map<Resource, Set<IRI>> getTypePropertyImplyingType(final InferenceSchema current, final Resource queryType, final Map<Resource, Map<Resource, IRI>> schemaMap) {
         final Map<Resource, Set<IRI>> implications = new HashMap<>();
         if (schemaMap != null && queryType != null) {
             // Check for any subtypes which would in turn imply the type being queried for
             final HashSet<Resource> queryTypes = new HashSet<>();
             queryTypes.add(queryType);
             if (queryType instanceof IRI) {
-                queryTypes.addAll(getSubClasses((IRI) queryType));
+                queryTypes.addAll(findParents(current.subClassOfGraph, (IRI) queryType));
             }
             for (final Resource querySubType : queryTypes) {
                 if (schemaMap.containsKey(querySubType)) {
@@ -1538,7 +1717,7 @@ public class InferenceEngine {
                         if (property != null) {
                             implications.get(otherType).add(property);
                             // Also add subproperties that would in turn imply the property
-                            implications.get(otherType).addAll(getSubProperties(property));
+                            implications.get(otherType).addAll(findParents(current.subPropertyOfGraph, property));
                         }
                     }
                 }
@@ -1568,7 +1747,8 @@ public class InferenceEngine {
      *      someValuesFrom schema has not been populated.
      */
     public Map<Resource, Set<IRI>> getSomeValuesFromByRestrictionType(final Resource restrictionType) {
-        return getTypePropertyImplyingType(restrictionType, someValuesFromByRestrictionType);
+        final InferenceSchema current = schema.get();
+        return getTypePropertyImplyingType(current, restrictionType, current.someValuesFromByRestrictionType);
     }
 
     /**
@@ -1589,7 +1769,8 @@ public class InferenceEngine {
      *      parameter is {@code null} or if the allValuesFrom schema has not been populated.
      */
     public Map<Resource, Set<IRI>> getAllValuesFromByValueType(final Resource valueType) {
-        return getTypePropertyImplyingType(valueType, allValuesFromByValueType);
+        final InferenceSchema current = schema.get();
+        return getTypePropertyImplyingType(current, valueType, current.allValuesFromByValueType);
     }
 
     /**
@@ -1605,11 +1786,7 @@ public class InferenceEngine {
      * type.
      */
     public List<Set<Resource>> getIntersectionsImplying(final Resource type) {
-        if (intersections != null) {
-            final List<Set<Resource>> intersectionList = intersections.get(type);
-            return intersectionList;
-        }
-        return null;
+        return schema.get().intersections.get(type);
     }
 
     /**
@@ -1624,11 +1801,9 @@ public class InferenceEngine {
      * type.
      */
     public Set<Resource> getEnumeration(final Resource type) {
-        if (enumerations != null) {
-            final Set<Resource> oneOfSet = enumerations.get(type);
-            if (oneOfSet != null) {
-                return oneOfSet;
-            }
+        final Set<Resource> oneOfSet = schema.get().enumerations.get(type);
+        if (oneOfSet != null) {
+            return oneOfSet;
         }
         return new LinkedHashSet<>();
 
@@ -1642,6 +1817,6 @@ public class InferenceEngine {
      * otherwise.
      */
     public boolean isEnumeratedType(final Resource type) {
-        return enumerations != null && enumerations.containsKey(type);
+        return schema.get().enumerations.containsKey(type);
     }
 }
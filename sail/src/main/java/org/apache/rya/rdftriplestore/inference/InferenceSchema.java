@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.rya.rdftriplestore.inference;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+
+import com.google.common.collect.Iterators;
+
+/**
+ * A snapshot of the schema an {@link InferenceEngine} reasons with. A snapshot is assembled by a
+ * {@link Builder} and never changes once it has been built, so readers that hold one always see a
+ * complete schema, even while a newer snapshot is being built.
+ */
+final class InferenceSchema {
+
+    /**
+     * The schema of an engine that has not been refreshed yet. Its graphs are {@code null}.
+     */
+    static final InferenceSchema EMPTY = new InferenceSchema(new Builder(null, null), -1);
+
+    final Graph subClassOfGraph;
+    final Graph subPropertyOfGraph;
+
+    final Set<IRI> symmetricPropertySet;
+    final Map<IRI, IRI> inverseOfMap;
+    final Set<IRI> transitivePropertySet;
+    final Set<IRI> reflexivePropertySet;
+    final Map<IRI, Set<IRI>> domainByType;
+    final Map<IRI, Set<IRI>> rangeByType;
+    final Map<Resource, Map<IRI, Value>> hasValueByType;
+    final Map<IRI, Map<Resource, Value>> hasValueByProperty;
+    final Map<Resource, Map<Resource, IRI>> someValuesFromByRestrictionType;
+    final Map<Resource, Map<Resource, IRI>> allValuesFromByValueType;
+    final Map<Resource, List<Set<Resource>>> intersections;
+    final Map<Resource, Set<Resource>> enumerations;
+    final Map<IRI, List<IRI>> propertyChainPropertyToChain;
+    final Map<IRI, Set<Resource>> hasSelfByProperty;
+    final Map<Resource, Set<IRI>> hasSelfByType;
+
+    // When the refresh that built this snapshot started reading the schema statements.
+    final long readTime;
+    final long size;
+
+    private InferenceSchema(final Builder builder, final long readTime) {
+        subClassOfGraph = builder.subClassOfGraph;
+        subPropertyOfGraph = builder.subPropertyOfGraph;
+        symmetricPropertySet = Collections.unmodifiableSet(builder.symmetricPropertySet);
+        inverseOfMap = Collections.unmodifiableMap(builder.inverseOfMap);
+        transitivePropertySet = Collections.unmodifiableSet(builder.transitivePropertySet);
+        reflexivePropertySet = Collections.unmodifiableSet(builder.reflexivePropertySet);
+        domainByType = Collections.unmodifiableMap(builder.domainByType);
+        rangeByType = Collections.unmodifiableMap(builder.rangeByType);
+        hasValueByType = Collections.unmodifiableMap(builder.hasValueByType);
+        hasValueByProperty = Collections.unmodifiableMap(builder.hasValueByProperty);
+        someValuesFromByRestrictionType = Collections.unmodifiableMap(builder.someValuesFromByRestrictionType);
+        allValuesFromByValueType = Collections.unmodifiableMap(builder.allValuesFromByValueType);
+        intersections = Collections.unmodifiableMap(builder.intersections);
+        enumerations = Collections.unmodifiableMap(builder.enumerations);
+        propertyChainPropertyToChain = Collections.unmodifiableMap(builder.propertyChainPropertyToChain);
+        hasSelfByProperty = Collections.unmodifiableMap(builder.hasSelfByProperty);
+        hasSelfByType = Collections.unmodifiableMap(builder.hasSelfByType);
+        this.readTime = readTime;
+
+        long total = countEdges(subClassOfGraph) + countEdges(subPropertyOfGraph);
+        total += symmetricPropertySet.size() + inverseOfMap.size() + transitivePropertySet.size() + reflexivePropertySet.size();
+        total += countValues(domainByType.values()) + countValues(rangeByType.values());
+        total += countMaps(hasValueByType.values()) + countMaps(hasValueByProperty.values());
+        total += countMaps(someValuesFromByRestrictionType.values()) + countMaps(allValuesFromByValueType.values());
+        total += countValues(intersections.values()) + countValues(enumerations.values());
+        total += countValues(propertyChainPropertyToChain.values());
+        total += countValues(hasSelfByProperty.values()) + countValues(hasSelfByType.values());
+        size = total;
+    }
+
+    private static long countEdges(final Graph graph) {
+        return graph == null ? 0 : Iterators.size(graph.edges());
+    }
+
+    private static long countValues(final Collection<? extends Collection<?>> values) {
+        long count = 0;
+        for (final Collection<?> value : values) {
+            count += value.size();
+        }
+        return count;
+    }
+
+    private static long countMaps(final Collection<? extends Map<?, ?>> values) {
+        long count = 0;
+        for (final Map<?, ?> value : values) {
+            count += value.size();
+        }
+        return count;
+    }
+
+    /**
+     * Collects the parts of a schema while it is being built. A builder is only ever used by the
+     * thread that refreshes the schema.
+     */
+    static final class Builder {
+        final Graph subClassOfGraph;
+        final Graph subPropertyOfGraph;
+
+        final Set<IRI> symmetricPropertySet = new HashSet<>();
+        final Map<IRI, IRI> inverseOfMap = new HashMap<>();
+        final Set<IRI> transitivePropertySet = new HashSet<>();
+        final Set<IRI> reflexivePropertySet = new HashSet<>();
+        final Map<IRI, Set<IRI>> domainByType = new HashMap<>();
+        final Map<IRI, Set<IRI>> rangeByType = new HashMap<>();
+        final Map<Resource, Map<IRI, Value>> hasValueByType = new HashMap<>();
+        final Map<IRI, Map<Resource, Value>> hasValueByProperty = new HashMap<>();
+        final Map<Resource, Map<Resource, IRI>> someValuesFromByRestrictionType = new HashMap<>();
+        final Map<Resource, Map<Resource, IRI>> allValuesFromByValueType = new HashMap<>();
+        final Map<Resource, List<Set<Resource>>> intersections = new HashMap<>();
+        final Map<Resource, Set<Resource>> enumerations = new HashMap<>();
+        final Map<IRI, List<IRI>> propertyChainPropertyToChain = new HashMap<>();
+        final Map<IRI, Set<Resource>> hasSelfByProperty = new HashMap<>();
+        final Map<Resource, Set<IRI>> hasSelfByType = new HashMap<>();
+
+        /**
+         * Constructs a builder whose subclass and subproperty graphs start out empty.
+         */
+        Builder() {
+            this(TinkerGraph.open(), TinkerGraph.open());
+        }
+
+        private Builder(final Graph subClassOfGraph, final Graph subPropertyOfGraph) {
+            this.subClassOfGraph = subClassOfGraph;
+            this.subPropertyOfGraph = subPropertyOfGraph;
+        }
+
+        /**
+         * @param readTime - When the refresh started reading the schema statements, in milliseconds.
+         * @return A snapshot of what has been collected. The builder must not be used afterwards.
+         */
+        InferenceSchema build(final long readTime) {
+            return new InferenceSchema(this, readTime);
+        }
+    }
+}
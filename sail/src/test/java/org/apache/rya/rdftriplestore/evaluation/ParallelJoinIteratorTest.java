@@ -0,0 +1,144 @@
+package org.apache.rya.rdftriplestore.evaluation;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.JoinIterator;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelJoinIteratorTest {
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    private final StrictEvaluationStrategy strategy = new StrictEvaluationStrategy(new TripleSource() {
+        @Override
+        public ValueFactory getValueFactory() {
+            return VF;
+        }
+
+        @Override
+        public CloseableIteration<? extends Statement, QueryEvaluationException> getStatements(final Resource subj,
+                final IRI pred, final Value obj, final Resource... contexts) throws QueryEvaluationException {
+            return new EmptyIteration<>();
+        }
+    }, null);
+
+    private ExecutorService executor;
+
+    @Before
+    public void init() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void matchesNestedLoopJoin() throws Exception {
+        final Join join = makeJoin(20, 10);
+
+        final List<BindingSet> expected = toList(new JoinIterator(strategy, join, new EmptyBindingSet()));
+        final List<BindingSet> results = toList(new ParallelJoinIterator(strategy, join, new EmptyBindingSet(), executor, 3, 2));
+
+        Assert.assertEquals(200, expected.size());
+        Assert.assertEquals(expected, results);
+    }
+
+    @Test
+    public void moreTasksThanThreads() throws Exception {
+        // Every task buffers a single result, so most of them can only make progress
+        // once the consuming thread evaluates them itself.
+        final Join join = makeJoin(50, 5);
+
+        final List<BindingSet> results = toList(new ParallelJoinIterator(strategy, join, new EmptyBindingSet(), executor, 10, 1));
+        Assert.assertEquals(250, results.size());
+    }
+
+    @Test
+    public void closeBeforeExhausted() throws Exception {
+        final Join join = makeJoin(100, 100);
+
+        final ParallelJoinIterator iter = new ParallelJoinIterator(strategy, join, new EmptyBindingSet(), executor, 4, 1);
+        Assert.assertTrue(iter.hasNext());
+        iter.next();
+        iter.close();
+        Assert.assertFalse(iter.hasNext());
+    }
+
+    private static Join makeJoin(final int leftSize, final int rightSize) {
+        final List<BindingSet> left = new ArrayList<>();
+        for (int i = 0; i < leftSize; i++) {
+            final MapBindingSet bs = new MapBindingSet();
+            bs.addBinding("x", VF.createLiteral(i));
+            left.add(bs);
+        }
+
+        final List<BindingSet> right = new ArrayList<>();
+        for (int i = 0; i < leftSize; i++) {
+            for (int j = 0; j < rightSize; j++) {
+                final MapBindingSet bs = new MapBindingSet();
+                bs.addBinding("x", VF.createLiteral(i));
+                bs.addBinding("y", VF.createLiteral(j));
+                right.add(bs);
+            }
+        }
+
+        final BindingSetAssignment leftArg = new BindingSetAssignment();
+        leftArg.setBindingSets(left);
+        final BindingSetAssignment rightArg = new BindingSetAssignment();
+        rightArg.setBindingSets(right);
+        return new Join(leftArg, rightArg);
+    }
+
+    private static List<BindingSet> toList(final CloseableIteration<BindingSet, QueryEvaluationException> iter) throws QueryEvaluationException {
+        final List<BindingSet> results = new ArrayList<>();
+        try {
+            while (iter.hasNext()) {
+                results.add(iter.next());
+            }
+        } finally {
+            iter.close();
+        }
+        return results;
+    }
+}
@@ -37,12 +37,23 @@ import org.apache.rya.api.domain.RyaIRI;
 import org.apache.rya.api.domain.StatementMetadata;
 import org.apache.rya.api.persist.RyaDAOException;
 import org.apache.rya.rdftriplestore.RdfCloudTripleStoreConnection.StoreTripleSource;
+import org.apache.rya.rdftriplestore.inference.ClosureIndex;
+import org.apache.rya.rdftriplestore.inference.InferenceEngine;
+import org.apache.rya.rdftriplestore.utils.TransitivePropertySP;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Join;
 import org.eclipse.rdf4j.query.algebra.StatementPattern;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 import org.eclipse.rdf4j.query.algebra.helpers.StatementPatternCollector;
@@ -309,6 +320,67 @@ public class StatementPatternEvalTest {
         dao.delete(Arrays.asList(statement1, statement2, statement3).iterator(), conf);
     }
 
+    @Test
+    public void transitiveClosureJoinedWithBoundSubject() throws Exception {
+        //the closure of <uri:partOf> is read from the closure index
+        final List<Statement> closure = Arrays.asList(
+                VF.createStatement(VF.createIRI("uri:wheel"), VF.createIRI("uri:partOf"), VF.createIRI("uri:car")),
+                VF.createStatement(VF.createIRI("uri:wheel"), VF.createIRI("uri:partOf"), VF.createIRI("uri:fleet")),
+                VF.createStatement(VF.createIRI("uri:car"), VF.createIRI("uri:partOf"), VF.createIRI("uri:fleet")),
+                VF.createStatement(VF.createIRI("uri:door"), VF.createIRI("uri:partOf"), VF.createIRI("uri:house")));
+        final InferenceEngine inferenceEngine = new InferenceEngine();
+        inferenceEngine.setClosureIndex(new ClosureIndex() {
+            @Override
+            public boolean isIndexed(final IRI property) {
+                return true;
+            }
+
+            @Override
+            public CloseableIteration<Statement, QueryEvaluationException> getClosure(final Resource subject, final IRI property, final Value object) {
+                final List<Statement> matches = new ArrayList<>();
+                for (final Statement st : closure) {
+                    if ((subject == null || subject.equals(st.getSubject())) && (object == null || object.equals(st.getObject()))) {
+                        matches.add(st);
+                    }
+                }
+                return new CloseableIteratorIteration<>(matches.iterator());
+            }
+
+            @Override
+            public CloseableIteration<Resource, QueryEvaluationException> getSameAs(final Resource resource) {
+                return new EmptyIteration<>();
+            }
+        });
+        final ParallelEvaluationStrategyImpl closureEval = new ParallelEvaluationStrategyImpl(new StoreTripleSource(conf, dao), inferenceEngine, null, conf);
+
+        String query = "select ?x ?y where{ ?x a <uri:Vehicle> . ?x <uri:partOf> ?y . }";
+        SPARQLParser parser = new SPARQLParser();
+        ParsedQuery pq = parser.parseQuery(query, null);
+        List<StatementPattern> spList = StatementPatternCollector.process(pq.getTupleExpr());
+        final StatementPattern partOf = spList.get(1);
+        final Join join = new Join(spList.get(0), new TransitivePropertySP(partOf.getSubjectVar(), partOf.getPredicateVar(), partOf.getObjectVar()));
+
+        RyaStatement statement1 = new RyaStatement(new RyaIRI("uri:car"), new RyaIRI(RDF.TYPE.stringValue()), new RyaIRI("uri:Vehicle"));
+        dao.add(statement1);
+
+        try {
+            CloseableIteration<BindingSet, QueryEvaluationException> iteration = closureEval.evaluate(join, new QueryBindingSet());
+            Set<BindingSet> actual = new HashSet<>();
+            while (iteration.hasNext()) {
+                actual.add(iteration.next());
+            }
+
+            //?x is bound by the preceding pattern, so only the car's closure edges join
+            QueryBindingSet expected = new QueryBindingSet();
+            expected.addBinding("x", VF.createIRI("uri:car"));
+            expected.addBinding("y", VF.createIRI("uri:fleet"));
+            Assert.assertEquals(new HashSet<>(Arrays.asList(expected)), actual);
+        } finally {
+            closureEval.shutdown();
+            dao.delete(Arrays.asList(statement1).iterator(), conf);
+        }
+    }
+
     
     private static AccumuloRdfConfiguration getConf() {
 
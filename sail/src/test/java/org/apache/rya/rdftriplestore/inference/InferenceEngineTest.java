@@ -620,4 +620,45 @@ public class InferenceEngineTest extends TestCase {
         Assert.assertTrue(inferenceEngine.isReflexiveProperty(knows));
         Assert.assertTrue(inferenceEngine.isReflexiveProperty(sameAge));
     }
+
+    @Test
+    public void testIncrementalRefresh() throws Exception {
+        final IRI a = VF.createIRI("urn:A");
+        final IRI b = VF.createIRI("urn:B");
+        final IRI c = VF.createIRI("urn:C");
+        final long built = inferenceEngine.getSnapshotsBuilt();
+        conn.prepareUpdate(QueryLanguage.SPARQL, "INSERT DATA { GRAPH <http://updated/test> {\n"
+                + "  <urn:A> rdfs:subClassOf <urn:B> . \n"
+                + "  <urn:B> rdfs:subClassOf <urn:C> . \n"
+                + "}}").execute();
+        // Make sure the next snapshot is read strictly after the statements were inserted.
+        Thread.sleep(5);
+        // The schema changed, so it is rebuilt.
+        inferenceEngine.refreshGraph(true);
+        Assert.assertEquals(built + 1, inferenceEngine.getSnapshotsBuilt());
+        Assert.assertEquals(Sets.newHashSet(b, c), inferenceEngine.getSuperClasses(a));
+        Assert.assertEquals(2, inferenceEngine.getSnapshotSize());
+        Assert.assertTrue(inferenceEngine.getLastSnapshotBuildMillis() >= 0);
+        // Nothing changed, so the snapshot is kept.
+        inferenceEngine.refreshGraph(true);
+        Assert.assertEquals(built + 1, inferenceEngine.getSnapshotsBuilt());
+        Assert.assertEquals(1, inferenceEngine.getRefreshesSkipped());
+        // A deleted statement is only noticed by a full refresh.
+        conn.prepareUpdate(QueryLanguage.SPARQL, "DELETE DATA { GRAPH <http://updated/test> {\n"
+                + "  <urn:B> rdfs:subClassOf <urn:C> . \n"
+                + "}}").execute();
+        inferenceEngine.refreshGraph(true);
+        Assert.assertEquals(built + 1, inferenceEngine.getSnapshotsBuilt());
+        Assert.assertEquals(Sets.newHashSet(b, c), inferenceEngine.getSuperClasses(a));
+        inferenceEngine.refreshGraph();
+        Assert.assertEquals(built + 2, inferenceEngine.getSnapshotsBuilt());
+        Assert.assertEquals(Sets.newHashSet(b), inferenceEngine.getSuperClasses(a));
+        // An inserted statement is picked up by an incremental refresh.
+        conn.prepareUpdate(QueryLanguage.SPARQL, "INSERT DATA { GRAPH <http://updated/test> {\n"
+                + "  <urn:B> rdfs:subClassOf <urn:D> . \n"
+                + "}}").execute();
+        inferenceEngine.refreshGraph(true);
+        Assert.assertEquals(built + 3, inferenceEngine.getSnapshotsBuilt());
+        Assert.assertEquals(Sets.newHashSet(b, VF.createIRI("urn:D")), inferenceEngine.getSuperClasses(a));
+    }
 }